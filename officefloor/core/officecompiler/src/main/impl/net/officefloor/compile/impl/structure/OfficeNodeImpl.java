@@ -131,6 +131,7 @@ import net.officefloor.frame.api.profile.Profiler;
 import net.officefloor.frame.api.source.AbstractSourceError;
 import net.officefloor.frame.api.team.Team;
 import net.officefloor.frame.internal.structure.ManagedObjectScope;
+import net.officefloor.frame.internal.structure.ProcessState;
 
 /**
  * {@link OfficeNode} implementation.
@@ -310,6 +311,11 @@ public class OfficeNodeImpl implements OfficeNode, ManagedFunctionVisitor {
 	 */
 	private boolean isAutoWireTeams = false;
 
+	/**
+	 * Indicates whether to recycle completed {@link ProcessState} instances.
+	 */
+	private boolean isRecycleProcessStates = false;
+
 	/**
 	 * {@link OfficeSource} used to source this {@link OfficeNode}.
 	 */
@@ -1213,6 +1219,11 @@ public class OfficeNodeImpl implements OfficeNode, ManagedFunctionVisitor {
 			officeBuilder.setProfiler(profiler);
 		}
 
+		// Flag to recycle process states (if enabled)
+		if (this.isRecycleProcessStates) {
+			officeBuilder.setRecycleProcessStates(true);
+		}
+
 		// Create the bindings for the office
 		OfficeBindings officeBindings = new OfficeBindingsImpl(this, officeBuilder, builder, compileContext);
 
@@ -1405,6 +1416,11 @@ public class OfficeNodeImpl implements OfficeNode, ManagedFunctionVisitor {
 		this.isAutoWireTeams = true;
 	}
 
+	@Override
+	public void enableProcessStateRecycling() {
+		this.isRecycleProcessStates = true;
+	}
+
 	@Override
 	public OfficeObject addOfficeObject(String officeManagedObjectName, String objectType) {
 		return NodeUtil.getInitialisedNode(officeManagedObjectName, this.objects, this.context,
@@ -33,6 +33,7 @@ import net.officefloor.frame.api.manage.Office;
 import net.officefloor.frame.api.managedobject.ManagedObject;
 import net.officefloor.frame.api.managedobject.source.ManagedObjectSource;
 import net.officefloor.frame.api.team.Team;
+import net.officefloor.frame.internal.structure.ProcessState;
 
 /**
  * Architect to structure the {@link Office}.
@@ -51,6 +52,14 @@ public interface OfficeArchitect extends SourceIssues {
 	 */
 	void enableAutoWireTeams();
 
+	/**
+	 * Flags to recycle completed {@link ProcessState} instances of the
+	 * {@link Office}.
+	 * <p>
+	 * Recycling is not undertaken should the {@link Office} be profiled.
+	 */
+	void enableProcessStateRecycling();
+
 	/**
 	 * Adds a {@link OfficeInput}.
 	 * 
@@ -62,35 +62,48 @@ public class MethodFunction implements ManagedFunction<Indexed, Indexed> {
 			// Propagate failure of function
 			throw ex.getCause();
 		} catch (IllegalArgumentException ex) {
+			// Propagate illegal argument issue
+			throw createIllegalArgumentException(method, parameters);
+		}
+	}
 
-			// Provide detail of illegal argument
-			StringBuilder message = new StringBuilder();
-			message.append("Function failure invoking ");
-			message.append(method.getName());
-			message.append("(");
-			boolean isFirst = true;
-			for (Class<?> parameterType : method.getParameterTypes()) {
-				if (isFirst) {
-					isFirst = false;
-				} else {
-					message.append(", ");
-				}
-				message.append(parameterType.getName());
+	/**
+	 * Creates the {@link IllegalArgumentException} providing detail of the
+	 * arguments not matching the parameters of the {@link Method}.
+	 * 
+	 * @param method     {@link Method}.
+	 * @param parameters Parameters.
+	 * @return {@link IllegalArgumentException}.
+	 */
+	static IllegalArgumentException createIllegalArgumentException(Method method, Object[] parameters) {
+
+		// Provide detail of illegal argument
+		StringBuilder message = new StringBuilder();
+		message.append("Function failure invoking ");
+		message.append(method.getName());
+		message.append("(");
+		boolean isFirst = true;
+		for (Class<?> parameterType : method.getParameterTypes()) {
+			if (isFirst) {
+				isFirst = false;
+			} else {
+				message.append(", ");
 			}
-			message.append(") with arguments ");
-			isFirst = true;
-			for (Object parameter : parameters) {
-				if (isFirst) {
-					isFirst = false;
-				} else {
-					message.append(", ");
-				}
-				message.append(parameter == null ? "null" : parameter.getClass().getName());
+			message.append(parameterType.getName());
+		}
+		message.append(") with arguments ");
+		isFirst = true;
+		for (Object parameter : parameters) {
+			if (isFirst) {
+				isFirst = false;
+			} else {
+				message.append(", ");
 			}
-
-			// Propagate illegal argument issue
-			throw new IllegalArgumentException(message.toString());
+			message.append(parameter == null ? "null" : parameter.getClass().getName());
 		}
+
+		// Return the illegal argument issue
+		return new IllegalArgumentException(message.toString());
 	}
 
 	/**
@@ -105,9 +118,9 @@ public class MethodFunction implements ManagedFunction<Indexed, Indexed> {
 	private final Method method;
 
 	/**
-	 * {@link ClassDependencyFactory} instances.
+	 * {@link MethodInvoker} to invoke the {@link Method} with its dependencies.
 	 */
-	private final ClassDependencyFactory[] parameterFactories;
+	private final MethodInvoker methodInvoker;
 
 	/**
 	 * {@link MethodReturnTranslator} or <code>null</code>.
@@ -128,9 +141,27 @@ public class MethodFunction implements ManagedFunction<Indexed, Indexed> {
 	 */
 	public MethodFunction(MethodObjectFactory methodObjectInstanceFactory, Method method,
 			ClassDependencyFactory[] parameterFactories, MethodReturnTranslator<Object, Object> returnTranslator) {
-		this.method = method;
+		this(methodObjectInstanceFactory, MethodInvoker.createMethodInvoker(method, parameterFactories),
+				returnTranslator);
+	}
+
+	/**
+	 * Initiate with the {@link MethodInvoker}.
+	 * 
+	 * @param methodObjectInstanceFactory {@link MethodObjectFactory}. Will be
+	 *                                    <code>null</code> if static
+	 *                                    {@link Method}.
+	 * @param methodInvoker               {@link MethodInvoker} to invoke the
+	 *                                    {@link Method} for this
+	 *                                    {@link ManagedFunction}.
+	 * @param returnTranslator            {@link MethodReturnTranslator} or
+	 *                                    <code>null</code>.
+	 */
+	public MethodFunction(MethodObjectFactory methodObjectInstanceFactory, MethodInvoker methodInvoker,
+			MethodReturnTranslator<Object, Object> returnTranslator) {
+		this.method = methodInvoker.getMethod();
 		this.methodObjectInstanceFactory = methodObjectInstanceFactory;
-		this.parameterFactories = parameterFactories;
+		this.methodInvoker = methodInvoker;
 		this.returnTranslator = returnTranslator;
 	}
 
@@ -159,14 +190,8 @@ public class MethodFunction implements ManagedFunction<Indexed, Indexed> {
 				? new TranslateManagedFunctionContext(context)
 				: context;
 
-		// Create the listing of parameters
-		Object[] params = new Object[this.parameterFactories.length];
-		for (int i = 0; i < params.length; i++) {
-			params[i] = this.parameterFactories[i].createDependency(runContext);
-		}
-
-		// Invoke the method as the function
-		Object returnValue = invokeMethod(instance, this.method, params);
+		// Invoke the method as the function (loading its dependencies)
+		Object returnValue = this.methodInvoker.invoke(instance, runContext);
 
 		// Determine if translate return value
 		if (returnValue != null) {
@@ -47,9 +47,10 @@ public class MethodFunctionFactory implements ManagedFunctionFactory<Indexed, In
 	private final Method method;
 
 	/**
-	 * Parameters.
+	 * {@link MethodInvoker}. Created once to be shared by all created
+	 * {@link MethodFunction} instances.
 	 */
-	private final ClassDependencyFactory[] parameters;
+	private final MethodInvoker methodInvoker;
 
 	/**
 	 * {@link MethodReturnTranslator} or <code>null</code>.
@@ -70,7 +71,7 @@ public class MethodFunctionFactory implements ManagedFunctionFactory<Indexed, In
 			ClassDependencyFactory[] parameters) {
 		this.methodObjectInstanceFactory = methodObjectInstanceFactory;
 		this.method = method;
-		this.parameters = parameters;
+		this.methodInvoker = MethodInvoker.createMethodInvoker(method, parameters);
 	}
 
 	/**
@@ -97,8 +98,7 @@ public class MethodFunctionFactory implements ManagedFunctionFactory<Indexed, In
 
 	@Override
 	public MethodFunction createManagedFunction() {
-		return new MethodFunction(this.methodObjectInstanceFactory, this.method, this.parameters,
-				this.returnTranslator);
+		return new MethodFunction(this.methodObjectInstanceFactory, this.methodInvoker, this.returnTranslator);
 	}
 
 }
@@ -0,0 +1,314 @@
+/*-
+ * #%L
+ * OfficeCompiler
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.plugin.clazz.method;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import net.officefloor.frame.api.build.Indexed;
+import net.officefloor.frame.api.function.ManagedFunctionContext;
+import net.officefloor.plugin.clazz.dependency.ClassDependencyFactory;
+
+/**
+ * <p>
+ * Invokes the {@link Method} for the {@link MethodFunction}.
+ * <p>
+ * Where possible, the {@link Method} is invoked via a {@link MethodHandle}
+ * that is passed the dependencies directly (avoiding creating an array of
+ * arguments and the overheads of {@link Method#invoke(Object, Object...)}).
+ * Should the {@link MethodHandle} not be available, invoking falls back to
+ * reflection.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public abstract class MethodInvoker {
+
+	/**
+	 * Maximum number of parameters to pass directly to the {@link MethodHandle}.
+	 * {@link Method} instances with more parameters are passed an array of
+	 * arguments.
+	 */
+	private static final int MAX_DIRECT_PARAMETERS = 6;
+
+	/**
+	 * Creates the {@link MethodInvoker}.
+	 * 
+	 * @param method             {@link Method} to invoke.
+	 * @param parameterFactories {@link ClassDependencyFactory} instances for the
+	 *                           parameters of the {@link Method}.
+	 * @return {@link MethodInvoker}.
+	 */
+	public static MethodInvoker createMethodInvoker(Method method, ClassDependencyFactory[] parameterFactories) {
+		try {
+
+			// Obtain the method handle
+			MethodHandle handle = MethodHandles.lookup().unreflect(method);
+
+			// Static methods ignore the instance
+			if (Modifier.isStatic(method.getModifiers())) {
+				handle = MethodHandles.dropArguments(handle, 0, Object.class);
+			}
+
+			// Adapt to generic types for invoking
+			int parameterCount = parameterFactories.length;
+			if (parameterCount <= MAX_DIRECT_PARAMETERS) {
+				handle = handle.asType(MethodType.genericMethodType(1 + parameterCount));
+			} else {
+				handle = handle.asSpreader(Object[].class, parameterCount)
+						.asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+			}
+
+			// Invoke via the method handle
+			return new MethodHandleInvoker(method, parameterFactories, handle);
+
+		} catch (Throwable ex) {
+			// Unable to use method handle, so fall back to reflection
+			return new ReflectionInvoker(method, parameterFactories);
+		}
+	}
+
+	/**
+	 * {@link Method} to invoke.
+	 */
+	protected final Method method;
+
+	/**
+	 * {@link ClassDependencyFactory} instances for the parameters.
+	 */
+	protected final ClassDependencyFactory[] parameterFactories;
+
+	/**
+	 * Instantiate.
+	 * 
+	 * @param method             {@link Method} to invoke.
+	 * @param parameterFactories {@link ClassDependencyFactory} instances for the
+	 *                           parameters.
+	 */
+	private MethodInvoker(Method method, ClassDependencyFactory[] parameterFactories) {
+		this.method = method;
+		this.parameterFactories = parameterFactories;
+	}
+
+	/**
+	 * Obtains the {@link Method}.
+	 * 
+	 * @return {@link Method}.
+	 */
+	public Method getMethod() {
+		return this.method;
+	}
+
+	/**
+	 * Invokes the {@link Method}.
+	 * 
+	 * @param instance Instance. May be <code>null</code> if static
+	 *                 {@link Method}.
+	 * @param context  {@link ManagedFunctionContext} to create the dependencies.
+	 * @return {@link Method} return value.
+	 * @throws Throwable Failure invoking the {@link Method}.
+	 */
+	public abstract Object invoke(Object instance, ManagedFunctionContext<Indexed, Indexed> context)
+			throws Throwable;
+
+	/**
+	 * Reflection {@link MethodInvoker}.
+	 */
+	private static class ReflectionInvoker extends MethodInvoker {
+
+		/**
+		 * Instantiate.
+		 * 
+		 * @param method             {@link Method} to invoke.
+		 * @param parameterFactories {@link ClassDependencyFactory} instances for the
+		 *                           parameters.
+		 */
+		private ReflectionInvoker(Method method, ClassDependencyFactory[] parameterFactories) {
+			super(method, parameterFactories);
+		}
+
+		/*
+		 * ================== MethodInvoker ==================
+		 */
+
+		@Override
+		public Object invoke(Object instance, ManagedFunctionContext<Indexed, Indexed> context) throws Throwable {
+
+			// Create the listing of parameters
+			Object[] params = new Object[this.parameterFactories.length];
+			for (int i = 0; i < params.length; i++) {
+				params[i] = this.parameterFactories[i].createDependency(context);
+			}
+
+			// Invoke the method
+			return MethodFunction.invokeMethod(instance, this.method, params);
+		}
+	}
+
+	/**
+	 * {@link MethodHandle} {@link MethodInvoker}.
+	 */
+	private static class MethodHandleInvoker extends MethodInvoker {
+
+		/**
+		 * {@link MethodHandle} adapted to generic types.
+		 */
+		private final MethodHandle handle;
+
+		/**
+		 * Instantiate.
+		 * 
+		 * @param method             {@link Method} to invoke.
+		 * @param parameterFactories {@link ClassDependencyFactory} instances for the
+		 *                           parameters.
+		 * @param handle             {@link MethodHandle} adapted to generic types.
+		 */
+		private MethodHandleInvoker(Method method, ClassDependencyFactory[] parameterFactories,
+				MethodHandle handle) {
+			super(method, parameterFactories);
+			this.handle = handle;
+		}
+
+		/**
+		 * Handles failure in invoking the {@link MethodHandle}.
+		 * 
+		 * @param failure   Failure.
+		 * @param arguments Arguments to the {@link Method}.
+		 * @return {@link Throwable} to propagate.
+		 */
+		private Throwable invokeFailure(Throwable failure, Object... arguments) {
+
+			// Determine if failure in converting the arguments
+			Class<?>[] parameterTypes = this.method.getParameterTypes();
+			for (int i = 0; i < parameterTypes.length; i++) {
+				Class<?> parameterType = parameterTypes[i];
+				Object argument = arguments[i];
+				if (parameterType.isPrimitive()) {
+					if (argument == null) {
+						return MethodFunction.createIllegalArgumentException(this.method, arguments);
+					}
+				} else if ((argument != null) && (!parameterType.isInstance(argument))) {
+					return MethodFunction.createIllegalArgumentException(this.method, arguments);
+				}
+			}
+
+			// Failure of the method
+			return failure;
+		}
+
+		/*
+		 * ================== MethodInvoker ==================
+		 */
+
+		@Override
+		public Object invoke(Object instance, ManagedFunctionContext<Indexed, Indexed> context) throws Throwable {
+
+			// Easy access to parameter factories
+			ClassDependencyFactory[] factories = this.parameterFactories;
+
+			// Invoke passing the dependencies directly
+			Object a, b, c, d, e, f;
+			switch (factories.length) {
+			case 0:
+				return this.handle.invokeExact(instance);
+
+			case 1:
+				a = factories[0].createDependency(context);
+				try {
+					return this.handle.invokeExact(instance, a);
+				} catch (ClassCastException | NullPointerException ex) {
+					throw this.invokeFailure(ex, a);
+				}
+
+			case 2:
+				a = factories[0].createDependency(context);
+				b = factories[1].createDependency(context);
+				try {
+					return this.handle.invokeExact(instance, a, b);
+				} catch (ClassCastException | NullPointerException ex) {
+					throw this.invokeFailure(ex, a, b);
+				}
+
+			case 3:
+				a = factories[0].createDependency(context);
+				b = factories[1].createDependency(context);
+				c = factories[2].createDependency(context);
+				try {
+					return this.handle.invokeExact(instance, a, b, c);
+				} catch (ClassCastException | NullPointerException ex) {
+					throw this.invokeFailure(ex, a, b, c);
+				}
+
+			case 4:
+				a = factories[0].createDependency(context);
+				b = factories[1].createDependency(context);
+				c = factories[2].createDependency(context);
+				d = factories[3].createDependency(context);
+				try {
+					return this.handle.invokeExact(instance, a, b, c, d);
+				} catch (ClassCastException | NullPointerException ex) {
+					throw this.invokeFailure(ex, a, b, c, d);
+				}
+
+			case 5:
+				a = factories[0].createDependency(context);
+				b = factories[1].createDependency(context);
+				c = factories[2].createDependency(context);
+				d = factories[3].createDependency(context);
+				e = factories[4].createDependency(context);
+				try {
+					return this.handle.invokeExact(instance, a, b, c, d, e);
+				} catch (ClassCastException | NullPointerException ex) {
+					throw this.invokeFailure(ex, a, b, c, d, e);
+				}
+
+			case 6:
+				a = factories[0].createDependency(context);
+				b = factories[1].createDependency(context);
+				c = factories[2].createDependency(context);
+				d = factories[3].createDependency(context);
+				e = factories[4].createDependency(context);
+				f = factories[5].createDependency(context);
+				try {
+					return this.handle.invokeExact(instance, a, b, c, d, e, f);
+				} catch (ClassCastException | NullPointerException ex) {
+					throw this.invokeFailure(ex, a, b, c, d, e, f);
+				}
+
+			default:
+				// Many parameters, so pass as array
+				Object[] params = new Object[factories.length];
+				for (int i = 0; i < params.length; i++) {
+					params[i] = factories[i].createDependency(context);
+				}
+				try {
+					return this.handle.invokeExact(instance, params);
+				} catch (ClassCastException | NullPointerException ex) {
+					throw this.invokeFailure(ex, params);
+				}
+			}
+		}
+	}
+
+}
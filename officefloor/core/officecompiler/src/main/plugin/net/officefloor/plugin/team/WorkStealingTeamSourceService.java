@@ -0,0 +1,56 @@
+/*-
+ * #%L
+ * OfficeCompiler
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.plugin.team;
+
+import net.officefloor.compile.TeamSourceService;
+import net.officefloor.compile.TeamSourceServiceFactory;
+import net.officefloor.frame.api.source.ServiceContext;
+import net.officefloor.frame.impl.spi.team.WorkStealingTeamSource;
+
+/**
+ * {@link TeamSourceService} for a {@link WorkStealingTeamSource}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class WorkStealingTeamSourceService
+		implements TeamSourceService<WorkStealingTeamSource>, TeamSourceServiceFactory {
+
+	/*
+	 * ================== TeamSourceService ==================================
+	 */
+
+	@Override
+	public TeamSourceService<?> createService(ServiceContext context) throws Throwable {
+		return this;
+	}
+
+	@Override
+	public String getTeamSourceAlias() {
+		return "WORK_STEALING";
+	}
+
+	@Override
+	public Class<WorkStealingTeamSource> getTeamSourceClass() {
+		return WorkStealingTeamSource.class;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,174 @@
+/*-
+ * #%L
+ * OfficeCompiler
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.compile.integrate.process;
+
+import net.officefloor.compile.spi.office.OfficeArchitect;
+import net.officefloor.compile.spi.office.OfficeManagedObjectSource;
+import net.officefloor.extension.CompileOffice;
+import net.officefloor.frame.api.build.None;
+import net.officefloor.frame.api.manage.FunctionManager;
+import net.officefloor.frame.api.manage.OfficeFloor;
+import net.officefloor.frame.api.managedobject.ContextAwareManagedObject;
+import net.officefloor.frame.api.managedobject.ManagedObject;
+import net.officefloor.frame.api.managedobject.ManagedObjectContext;
+import net.officefloor.frame.api.managedobject.source.ManagedObjectSource;
+import net.officefloor.frame.api.managedobject.source.impl.AbstractManagedObjectSource;
+import net.officefloor.frame.internal.structure.ManagedObjectScope;
+import net.officefloor.frame.internal.structure.ProcessState;
+import net.officefloor.frame.test.OfficeFrameTestCase;
+import net.officefloor.plugin.section.clazz.ClassSectionSource;
+
+/**
+ * Tests configuring recycling of {@link ProcessState} instances through the
+ * {@link OfficeArchitect}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class ProcessStateRecyclingIntegrationTest extends OfficeFrameTestCase {
+
+	/**
+	 * Ensure by default does not recycle the {@link ProcessState}.
+	 */
+	public void testNotRecycleByDefault() throws Exception {
+		ManagedObjectContext context = this.doProcessTest(false);
+
+		// Should be able to use context (as process not recycled)
+		assertEquals("Should run operation of completed process", Integer.valueOf(1), context.run(() -> 1));
+	}
+
+	/**
+	 * Ensure able to enable recycling the {@link ProcessState}.
+	 */
+	public void testEnableRecycling() throws Exception {
+		ManagedObjectContext context = this.doProcessTest(true);
+
+		// Should fail fast on using context (as process recycled)
+		try {
+			context.run(() -> 1);
+			fail("Should not be successful");
+		} catch (IllegalStateException ex) {
+			assertTrue("Incorrect cause: " + ex.getMessage(), ex.getMessage().contains("recycled"));
+		}
+	}
+
+	/**
+	 * Undertakes running multiple {@link ProcessState} instances.
+	 * 
+	 * @param isRecycle Indicates whether to enable recycling.
+	 * @return {@link ManagedObjectContext} of the first completed
+	 *         {@link ProcessState}.
+	 */
+	private ManagedObjectContext doProcessTest(boolean isRecycle) throws Exception {
+
+		// Compile the Office
+		CompileOffice compile = new CompileOffice();
+		OfficeFloor officeFloor = compile.compileAndOpenOffice((architect, context) -> {
+			architect.enableAutoWireObjects();
+			if (isRecycle) {
+				architect.enableProcessStateRecycling();
+			}
+			OfficeManagedObjectSource mos = architect.addOfficeManagedObjectSource("MOS",
+					new ContextManagedObjectSource());
+			mos.addOfficeManagedObject("MO", ManagedObjectScope.PROCESS);
+			architect.addOfficeSection("SECTION", ClassSectionSource.class.getName(), ContextSection.class.getName());
+		});
+		try {
+
+			// Run the first process
+			ContextSection.context = null;
+			FunctionManager function = officeFloor.getOffice("OFFICE").getFunctionManager("SECTION.function");
+			function.invokeProcess(null, null);
+			ManagedObjectContext firstContext = ContextSection.context;
+			assertNotNull("Should run first process", firstContext);
+
+			// Run another process (so completed process may be re-used)
+			function.invokeProcess(null, null);
+			assertNotSame("Should have new context", firstContext, ContextSection.context);
+
+			// Return the context of the completed first process
+			return firstContext;
+
+		} finally {
+			officeFloor.closeOfficeFloor();
+		}
+	}
+
+	/**
+	 * Section capturing the {@link ManagedObjectContext}.
+	 */
+	public static class ContextSection {
+
+		private static ManagedObjectContext context;
+
+		public void function(ContextObject object) {
+			context = object.context;
+		}
+	}
+
+	/**
+	 * {@link ContextAwareManagedObject}.
+	 */
+	public static class ContextObject implements ContextAwareManagedObject {
+
+		private ManagedObjectContext context;
+
+		/*
+		 * ================ ContextAwareManagedObject =================
+		 */
+
+		@Override
+		public void setManagedObjectContext(ManagedObjectContext context) {
+			this.context = context;
+		}
+
+		@Override
+		public Object getObject() throws Throwable {
+			return this;
+		}
+	}
+
+	/**
+	 * {@link ManagedObjectSource} for the {@link ContextObject}.
+	 */
+	public static class ContextManagedObjectSource extends AbstractManagedObjectSource<None, None> {
+
+		/*
+		 * ================ ManagedObjectSource =================
+		 */
+
+		@Override
+		protected void loadSpecification(SpecificationContext context) {
+		}
+
+		@Override
+		protected void loadMetaData(MetaDataContext<None, None> context) throws Exception {
+			context.setObjectClass(ContextObject.class);
+			context.setManagedObjectClass(ContextObject.class);
+		}
+
+		@Override
+		protected ManagedObject getManagedObject() throws Throwable {
+			return new ContextObject();
+		}
+	}
+
+}
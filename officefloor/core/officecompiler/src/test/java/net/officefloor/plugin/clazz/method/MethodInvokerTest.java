@@ -0,0 +1,251 @@
+/*-
+ * #%L
+ * OfficeCompiler
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.plugin.clazz.method;
+
+import java.lang.reflect.Method;
+
+import net.officefloor.frame.api.administration.AdministrationContext;
+import net.officefloor.frame.api.build.Indexed;
+import net.officefloor.frame.api.managedobject.ManagedObject;
+import net.officefloor.frame.api.managedobject.ManagedObjectContext;
+import net.officefloor.frame.api.managedobject.ObjectRegistry;
+import net.officefloor.frame.test.OfficeFrameTestCase;
+import net.officefloor.plugin.clazz.dependency.ClassDependencyFactory;
+
+/**
+ * Tests the {@link MethodInvoker}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class MethodInvokerTest extends OfficeFrameTestCase {
+
+	/**
+	 * Ensure can invoke {@link Method} with no parameters.
+	 */
+	public void testNoParameters() throws Throwable {
+		assertEquals("Incorrect return", "NONE", this.invoke(new MockFunctions(), "none"));
+	}
+
+	/**
+	 * Ensure can invoke {@link Method} with no return value.
+	 */
+	public void testVoidReturn() throws Throwable {
+		MockFunctions instance = new MockFunctions();
+		assertNull("Should be no return", this.invoke(instance, "noReturn", "VALUE"));
+		assertEquals("Should invoke method", "VALUE", instance.value);
+	}
+
+	/**
+	 * Ensure can invoke static {@link Method}.
+	 */
+	public void testStatic() throws Throwable {
+		assertEquals("Incorrect return", "STATIC-1", this.invoke(null, "staticMethod", "STATIC", 1));
+	}
+
+	/**
+	 * Ensure can pass primitive parameters and return primitive value.
+	 */
+	public void testPrimitives() throws Throwable {
+		assertEquals("Incorrect return", Long.valueOf(6), this.invoke(new MockFunctions(), "primitives", 1, 2L, true));
+	}
+
+	/**
+	 * Ensure can invoke with each number of parameters passed directly.
+	 */
+	public void testParameterCounts() throws Throwable {
+		MockFunctions instance = new MockFunctions();
+		assertEquals("1", "a", this.invoke(instance, "one", "a"));
+		assertEquals("2", "ab", this.invoke(instance, "two", "a", "b"));
+		assertEquals("3", "abc", this.invoke(instance, "three", "a", "b", "c"));
+		assertEquals("4", "abcd", this.invoke(instance, "four", "a", "b", "c", "d"));
+		assertEquals("5", "abcde", this.invoke(instance, "five", "a", "b", "c", "d", "e"));
+		assertEquals("6", "abcdef", this.invoke(instance, "six", "a", "b", "c", "d", "e", "f"));
+	}
+
+	/**
+	 * Ensure can invoke with many parameters (passed as array).
+	 */
+	public void testManyParameters() throws Throwable {
+		assertEquals("Incorrect return", "abcdefgh",
+				this.invoke(new MockFunctions(), "eight", "a", "b", "c", "d", "e", "f", "g", "h"));
+	}
+
+	/**
+	 * Ensure failure of {@link Method} is propagated.
+	 */
+	public void testMethodFailure() throws Throwable {
+		Exception failure = new Exception("TEST");
+		try {
+			this.invoke(new MockFunctions(), "fail", failure);
+			fail("Should not be successful");
+		} catch (Exception ex) {
+			assertSame("Incorrect failure", failure, ex);
+		}
+	}
+
+	/**
+	 * Ensure {@link ClassCastException} of {@link Method} is propagated.
+	 */
+	public void testMethodClassCastFailure() throws Throwable {
+		try {
+			this.invoke(new MockFunctions(), "classCast", "VALUE");
+			fail("Should not be successful");
+		} catch (ClassCastException ex) {
+			assertEquals("Incorrect failure", "TEST", ex.getMessage());
+		}
+	}
+
+	/**
+	 * Ensure detail incorrect argument type.
+	 */
+	public void testIncorrectArgumentType() throws Throwable {
+		try {
+			this.invoke(new MockFunctions(), "one", Integer.valueOf(1));
+			fail("Should not be successful");
+		} catch (IllegalArgumentException ex) {
+			assertEquals("Incorrect failure",
+					"Function failure invoking one(java.lang.String) with arguments java.lang.Integer", ex.getMessage());
+		}
+	}
+
+	/**
+	 * Ensure detail <code>null</code> argument for primitive.
+	 */
+	public void testNullPrimitiveArgument() throws Throwable {
+		try {
+			this.invoke(new MockFunctions(), "primitives", null, 2L, true);
+			fail("Should not be successful");
+		} catch (IllegalArgumentException ex) {
+			assertEquals("Incorrect failure",
+					"Function failure invoking primitives(int, long, boolean) with arguments null, java.lang.Long, java.lang.Boolean",
+					ex.getMessage());
+		}
+	}
+
+	/**
+	 * Invokes the {@link Method}.
+	 * 
+	 * @param instance   Instance. May be <code>null</code> for static
+	 *                   {@link Method}.
+	 * @param methodName Name of the {@link Method}.
+	 * @param arguments  Arguments for the {@link Method}.
+	 * @return Return value of the {@link Method}.
+	 */
+	private Object invoke(Object instance, String methodName, Object... arguments) throws Throwable {
+
+		// Obtain the method
+		Method method = null;
+		for (Method check : MockFunctions.class.getMethods()) {
+			if (check.getName().equals(methodName)) {
+				method = check;
+			}
+		}
+		assertNotNull("Unknown method " + methodName, method);
+
+		// Create the parameter factories
+		ClassDependencyFactory[] factories = new ClassDependencyFactory[arguments.length];
+		for (int i = 0; i < arguments.length; i++) {
+			Object argument = arguments[i];
+			factories[i] = (MethodClassDependencyFactory) (context) -> argument;
+		}
+
+		// Invoke the method
+		MethodInvoker invoker = MethodInvoker.createMethodInvoker(method, factories);
+		assertSame("Incorrect method", method, invoker.getMethod());
+		return invoker.invoke(instance, null);
+	}
+
+	@FunctionalInterface
+	private static interface MethodClassDependencyFactory extends ClassDependencyFactory {
+
+		@Override
+		default Object createDependency(ManagedObject managedObject, ManagedObjectContext context,
+				ObjectRegistry<Indexed> registry) throws Throwable {
+			fail("Should not be invoked");
+			return null;
+		}
+
+		@Override
+		default Object createDependency(AdministrationContext<Object, Indexed, Indexed> context) throws Throwable {
+			fail("Should not be invoked");
+			return null;
+		}
+	}
+
+	public static class MockFunctions {
+
+		public String value = null;
+
+		public String none() {
+			return "NONE";
+		}
+
+		public void noReturn(String value) {
+			this.value = value;
+		}
+
+		public static String staticMethod(String value, Integer count) {
+			return value + "-" + count;
+		}
+
+		public long primitives(int a, long b, boolean c) {
+			return a + b + (c ? 3 : 0);
+		}
+
+		public String one(String a) {
+			return a;
+		}
+
+		public String two(String a, String b) {
+			return a + b;
+		}
+
+		public String three(String a, String b, String c) {
+			return a + b + c;
+		}
+
+		public String four(String a, String b, String c, String d) {
+			return a + b + c + d;
+		}
+
+		public String five(String a, String b, String c, String d, String e) {
+			return a + b + c + d + e;
+		}
+
+		public String six(String a, String b, String c, String d, String e, String f) {
+			return a + b + c + d + e + f;
+		}
+
+		public String eight(String a, String b, String c, String d, String e, String f, String g, String h) {
+			return a + b + c + d + e + f + g + h;
+		}
+
+		public void fail(Exception failure) throws Exception {
+			throw failure;
+		}
+
+		public void classCast(String value) {
+			throw new ClassCastException("TEST");
+		}
+	}
+
+}
@@ -181,6 +181,11 @@ public class OfficeBuilderImpl implements OfficeBuilder, OfficeConfiguration {
 	 */
 	private Profiler profiler = null;
 
+	/**
+	 * Indicates whether to recycle {@link ProcessState} instances.
+	 */
+	private boolean isRecycleProcessStates = false;
+
 	/**
 	 * Listing of the {@link ThreadSynchroniserFactory} instances.
 	 */
@@ -306,6 +311,11 @@ public class OfficeBuilderImpl implements OfficeBuilder, OfficeConfiguration {
 		this.profiler = profiler;
 	}
 
+	@Override
+	public void setRecycleProcessStates(boolean isRecycleProcessStates) {
+		this.isRecycleProcessStates = isRecycleProcessStates;
+	}
+
 	@Override
 	public void addThreadSynchroniser(ThreadSynchroniserFactory threadSynchroniserFactory) {
 		this.threadSynchronisers.add(threadSynchroniserFactory);
@@ -420,6 +430,11 @@ public class OfficeBuilderImpl implements OfficeBuilder, OfficeConfiguration {
 		return this.profiler;
 	}
 
+	@Override
+	public boolean isRecycleProcessStates() {
+		return this.isRecycleProcessStates;
+	}
+
 	@Override
 	public ThreadSynchroniserFactory[] getThreadSynchronisers() {
 		return this.threadSynchronisers.toArray(new ThreadSynchroniserFactory[0]);
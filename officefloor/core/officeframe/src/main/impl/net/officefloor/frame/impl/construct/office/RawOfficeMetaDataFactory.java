@@ -67,6 +67,7 @@ import net.officefloor.frame.impl.execute.office.OfficeManagerProcessState;
 import net.officefloor.frame.impl.execute.office.OfficeMetaDataImpl;
 import net.officefloor.frame.impl.execute.office.OfficeStartupFunctionImpl;
 import net.officefloor.frame.impl.execute.process.ProcessMetaDataImpl;
+import net.officefloor.frame.impl.execute.process.ProcessStateRecycler;
 import net.officefloor.frame.impl.execute.thread.ThreadMetaDataImpl;
 import net.officefloor.frame.internal.configuration.BoundInputManagedObjectConfiguration;
 import net.officefloor.frame.internal.configuration.EscalationConfiguration;
@@ -235,7 +236,9 @@ public class RawOfficeMetaDataFactory {
 			monitorClockImpl = new MonitorClockImpl();
 			monitorClock = monitorClockImpl;
 		}
-		FunctionLoop functionLoop = new FunctionLoopImpl(defaultTeam);
+		boolean isRecycleProcessStates = (configuration.isRecycleProcessStates())
+				&& (configuration.getProfiler() == null);
+		FunctionLoop functionLoop = new FunctionLoopImpl(defaultTeam, isRecycleProcessStates);
 		Timer timer = new Timer(Office.class.getSimpleName() + "_Monitor_" + officeName, true);
 
 		// Create the office manager process state
@@ -498,6 +501,11 @@ public class RawOfficeMetaDataFactory {
 		// Obtain the profiler
 		Profiler profiler = configuration.getProfiler();
 
+		// Create the process state recycler (if recycling and not profiling)
+		ProcessStateRecycler processStateRecycler = isRecycleProcessStates
+				? new ProcessStateRecycler(processMetaData, threadLocalAwareExecutor)
+				: null;
+
 		// Load the startup functions
 		for (int i = 0; i < startupFunctionsLength; i++) {
 			ManagedFunctionInvocation startupFunctionInvocation = startupFunctionInvocations[i];
@@ -554,7 +562,8 @@ public class RawOfficeMetaDataFactory {
 		OfficeMetaData officeMetaData = new OfficeMetaDataImpl(officeName, officeManager, monitorClock, timer,
 				functionLoop, breakChainExecutor, threadLocalAwareExecutor, executive, managedExecutionFactory,
 				functionMetaDatas.toArray(new ManagedFunctionMetaData[0]), functionLocator, processMetaData,
-				stateManagerKeepAliveFunction, loadObjectMetaDatas, startupFunctions, profiler);
+				stateManagerKeepAliveFunction, loadObjectMetaDatas, startupFunctions, profiler,
+				processStateRecycler);
 
 		// Create the factories
 		FlowMetaDataFactory flowMetaDataFactory = new FlowMetaDataFactory(officeMetaData);
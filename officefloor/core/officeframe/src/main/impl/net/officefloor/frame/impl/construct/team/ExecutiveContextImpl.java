@@ -141,6 +141,11 @@ public class ExecutiveContextImpl extends SourceContextImpl implements Executive
 		return this.threadFactory;
 	}
 
+	@Override
+	public Runnable createManagedRunnable(Runnable worker) {
+		return this.threadFactoryManufacturer.manufactureManagedRunnable(worker, this.executive);
+	}
+
 	@Override
 	public TeamSource getTeamSource() {
 		return this.teamSource;
@@ -71,6 +71,32 @@ public class ThreadFactoryManufacturer {
 		return new OfficeFloorThreadFactory(name, executive);
 	}
 
+	/**
+	 * <p>
+	 * Manufactures the {@link Runnable} to undertake the worker {@link Runnable}
+	 * within the managed execution of the {@link Executive}.
+	 * <p>
+	 * This is the same managed execution as {@link Thread} instances created by a
+	 * manufactured {@link ThreadFactory}, however without creating a
+	 * {@link Thread}.
+	 * 
+	 * @param worker    Worker {@link Runnable}.
+	 * @param executive {@link Executive}.
+	 * @return {@link Runnable} undertaking the worker within managed execution.
+	 */
+	public Runnable manufactureManagedRunnable(Runnable worker, Executive executive) {
+
+		// Create the managed execution
+		ManagedExecution<RuntimeException> managedExecution = this.managedExecutionFactory
+				.createManagedExecution(executive, () -> {
+					worker.run();
+					return null;
+				});
+
+		// Return runnable for managed execution
+		return () -> managedExecution.managedExecute();
+	}
+
 	/**
 	 * {@link ThreadFactory} for the {@link Team}.
 	 */
@@ -116,15 +142,10 @@ public class ThreadFactoryManufacturer {
 		public Thread newThread(final Runnable r) {
 
 			// Create the managed execution
-			ManagedExecution<RuntimeException> managedExecution = ThreadFactoryManufacturer.this.managedExecutionFactory
-					.createManagedExecution(this.executive, () -> {
-						r.run();
-						return null;
-					});
+			Runnable runnable = ThreadFactoryManufacturer.this.manufactureManagedRunnable(r, this.executive);
 
 			// Create and configure the thread
 			String threadName = this.threadNamePrefix + this.nextThreadIndex.getAndIncrement();
-			Runnable runnable = () -> managedExecution.managedExecute();
 			Thread thread = new Thread(this.group, runnable, threadName);
 			if (thread.isDaemon()) {
 				thread.setDaemon(false);
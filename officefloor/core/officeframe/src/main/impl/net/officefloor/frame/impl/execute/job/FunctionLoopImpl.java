@@ -30,6 +30,7 @@ import net.officefloor.frame.api.team.Team;
 import net.officefloor.frame.impl.execute.function.AbstractDelegateFunctionState;
 import net.officefloor.frame.impl.execute.function.AbstractFunctionState;
 import net.officefloor.frame.impl.execute.officefloor.OfficeFloorImpl;
+import net.officefloor.frame.impl.execute.process.ProcessStateRecycler;
 import net.officefloor.frame.impl.execute.team.TeamManagementImpl;
 import net.officefloor.frame.impl.execute.thread.ThreadStateImpl;
 import net.officefloor.frame.impl.spi.team.PassiveTeamSource;
@@ -64,16 +65,36 @@ public class FunctionLoopImpl implements FunctionLoop {
 	 */
 	private final TeamManagement defaultTeam;
 
+	/**
+	 * Indicates whether {@link ProcessState} instances completed by this
+	 * {@link FunctionLoop} are recycled.
+	 */
+	private final boolean isRecycleProcessStates;
+
 	/**
 	 * Instantiates.
 	 * 
 	 * @param defaultTeam Default {@link TeamManagement}. May be <code>null</code>.
 	 */
 	public FunctionLoopImpl(TeamManagement defaultTeam) {
+		this(defaultTeam, false);
+	}
+
+	/**
+	 * Instantiates.
+	 * 
+	 * @param defaultTeam            Default {@link TeamManagement}. May be
+	 *                               <code>null</code>.
+	 * @param isRecycleProcessStates Indicates whether {@link ProcessState}
+	 *                               instances completed by this
+	 *                               {@link FunctionLoop} are recycled.
+	 */
+	public FunctionLoopImpl(TeamManagement defaultTeam, boolean isRecycleProcessStates) {
 
 		// Ensure have default team
 		this.defaultTeam = (defaultTeam != null) ? defaultTeam
 				: new TeamManagementImpl(PassiveTeamSource.createPassiveTeam());
+		this.isRecycleProcessStates = isRecycleProcessStates;
 	}
 
 	/**
@@ -299,25 +320,34 @@ public class FunctionLoopImpl implements FunctionLoop {
 		@Override
 		public void run() {
 
-			// Execute the functions for the thread state
-			FunctionState nextFunction = this.initialFunction;
-			do {
+			try {
+
+				// Execute the functions for the thread state
+				FunctionState nextFunction = this.initialFunction;
+				do {
 
-				// Ensure appropriate team undertakes the functions
-				TeamManagement responsible = nextFunction.getResponsibleTeam();
-				if ((responsible != null) && (this.currentTeam != responsible.getIdentifier())) {
-					// Different responsible team
-					nextFunction = this.assignFunction(nextFunction, responsible);
-					if (nextFunction == null) {
-						return; // assigned to team
+					// Ensure appropriate team undertakes the functions
+					TeamManagement responsible = nextFunction.getResponsibleTeam();
+					if ((responsible != null) && (this.currentTeam != responsible.getIdentifier())) {
+						// Different responsible team
+						nextFunction = this.assignFunction(nextFunction, responsible);
+						if (nextFunction == null) {
+							return; // assigned to team
+						}
 					}
-				}
 
-				// Undertake loop for thread state
-				boolean isRequireThreadStateSafety = nextFunction.isRequireThreadStateSafety();
-				nextFunction = this.doThreadStateFunctionLoop(nextFunction, isRequireThreadStateSafety);
+					// Undertake loop for thread state
+					boolean isRequireThreadStateSafety = nextFunction.isRequireThreadStateSafety();
+					nextFunction = this.doThreadStateFunctionLoop(nextFunction, isRequireThreadStateSafety);
 
-			} while (nextFunction != null);
+				} while (nextFunction != null);
+
+			} finally {
+				// Recycle process states completed by the loop (if recycling)
+				if (FunctionLoopImpl.this.isRecycleProcessStates) {
+					ProcessStateRecycler.recyclePendingProcessStates();
+				}
+			}
 		}
 
 		@Override
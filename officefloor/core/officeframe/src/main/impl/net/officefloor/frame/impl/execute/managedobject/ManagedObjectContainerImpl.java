@@ -182,6 +182,12 @@ public class ManagedObjectContainerImpl implements ManagedObjectContainer, Asset
 	 */
 	private long asynchronousStartTime = NO_ASYNC_OPERATION;
 
+	/**
+	 * Indicates if the {@link ProcessState} containing this
+	 * {@link ManagedObjectContainer} has been recycled.
+	 */
+	private volatile boolean isProcessRecycled = false;
+
 	/**
 	 * Initiate the container.
 	 * 
@@ -254,6 +260,7 @@ public class ManagedObjectContainerImpl implements ManagedObjectContainer, Asset
 	 * @param operation {@link ManagedObjectOperation} to undertake.
 	 */
 	private void doOperation(ManagedObjectOperation operation) {
+		this.ensureProcessNotRecycled();
 		FunctionLoop loop = this.metaData.getFunctionLoop();
 		if (this.responsibleThreadState.isAttachedToThread()) {
 			// Current Thread, so execute immediately
@@ -264,6 +271,29 @@ public class ManagedObjectContainerImpl implements ManagedObjectContainer, Asset
 		}
 	}
 
+	/**
+	 * Flags that the {@link ProcessState} containing this
+	 * {@link ManagedObjectContainer} has been recycled. Any further use of this
+	 * {@link ManagedObjectContainer} is then invalid.
+	 */
+	public void flagProcessRecycled() {
+		this.isProcessRecycled = true;
+	}
+
+	/**
+	 * Ensures the {@link ProcessState} containing this
+	 * {@link ManagedObjectContainer} has not been recycled.
+	 * 
+	 * @throws IllegalStateException If {@link ProcessState} recycled.
+	 */
+	private void ensureProcessNotRecycled() throws IllegalStateException {
+		if (this.isProcessRecycled) {
+			throw new IllegalStateException(ManagedObjectContainer.class.getSimpleName() + " for "
+					+ this.metaData.getBoundManagedObjectName() + " used after " + ProcessState.class.getSimpleName()
+					+ " recycled");
+		}
+	}
+
 	/*
 	 * =============== ManagedObjectContainer =============================
 	 */
@@ -830,10 +860,26 @@ public class ManagedObjectContainerImpl implements ManagedObjectContainer, Asset
 
 			// Easy access to the container
 			ManagedObjectContainerImpl container = ManagedObjectContainerImpl.this;
+			container.ensureProcessNotRecycled();
 
 			// Run the process safe operation
 			return container.responsibleThreadState.runProcessSafeOperation(operation);
 		}
+
+		@Override
+		public boolean isProcessSafe() {
+
+			// Easy access to the container
+			ManagedObjectContainerImpl container = ManagedObjectContainerImpl.this;
+
+			// Not safe once recycled (as thread state re-used by next process)
+			if (container.isProcessRecycled) {
+				return false; // run to fail fast on stale use
+			}
+
+			// Determine if process safe
+			return container.responsibleThreadState.isProcessSafe();
+		}
 	}
 
 	@Override
@@ -37,6 +37,7 @@ import net.officefloor.frame.api.managedobject.ManagedObject;
 import net.officefloor.frame.api.profile.Profiler;
 import net.officefloor.frame.impl.execute.function.Promise;
 import net.officefloor.frame.impl.execute.process.ProcessStateImpl;
+import net.officefloor.frame.impl.execute.process.ProcessStateRecycler;
 import net.officefloor.frame.internal.structure.Flow;
 import net.officefloor.frame.internal.structure.FlowMetaData;
 import net.officefloor.frame.internal.structure.FunctionLoop;
@@ -145,6 +146,12 @@ public class OfficeMetaDataImpl implements OfficeMetaData {
 	 */
 	private final Profiler profiler;
 
+	/**
+	 * {@link ProcessStateRecycler}. May be <code>null</code> if not recycling
+	 * {@link ProcessState} instances.
+	 */
+	private final ProcessStateRecycler processStateRecycler;
+
 	/**
 	 * Initiate.
 	 * 
@@ -174,6 +181,9 @@ public class OfficeMetaDataImpl implements OfficeMetaData {
 	 * @param startupFunctions               {@link OfficeStartupFunction}
 	 *                                       instances.
 	 * @param profiler                       {@link Profiler}.
+	 * @param processStateRecycler           {@link ProcessStateRecycler}. May be
+	 *                                       <code>null</code> to not recycle
+	 *                                       {@link ProcessState} instances.
 	 */
 	public OfficeMetaDataImpl(String officeName, OfficeManager officeManager, MonitorClock monitorClock, Timer timer,
 			FunctionLoop functionLoop, Executor breakChainExecutor, ThreadLocalAwareExecutor threadLocalAwareExecutor,
@@ -181,7 +191,7 @@ public class OfficeMetaDataImpl implements OfficeMetaData {
 			ManagedFunctionMetaData<?, ?>[] functionMetaDatas, ManagedFunctionLocator functionLocator,
 			ProcessMetaData processMetaData, ManagedFunctionMetaData<?, ?> stateKeepAliveFunctionMetaData,
 			Map<String, ManagedFunctionMetaData<?, ?>> loadObjectMetaDatas, OfficeStartupFunction[] startupFunctions,
-			Profiler profiler) {
+			Profiler profiler, ProcessStateRecycler processStateRecycler) {
 		this.officeName = officeName;
 		this.monitorClock = monitorClock;
 		this.timer = timer;
@@ -198,6 +208,7 @@ public class OfficeMetaDataImpl implements OfficeMetaData {
 		this.loadObjectMetaDatas = loadObjectMetaDatas;
 		this.startupFunctions = startupFunctions;
 		this.profiler = profiler;
+		this.processStateRecycler = processStateRecycler;
 	}
 
 	/*
@@ -363,7 +374,11 @@ public class OfficeMetaDataImpl implements OfficeMetaData {
 
 		// Create the Process State (based on whether have managed object)
 		ProcessState processState;
-		if (inputManagedObject == null) {
+		if (this.processStateRecycler != null) {
+			// Re-use a recycled Process (if available)
+			processState = this.processStateRecycler.createProcessState(this, callback, callbackThreadState,
+					inputManagedObject, inputManagedObjectMetaData, processBoundIndexForInputManagedObject);
+		} else if (inputManagedObject == null) {
 			// Create Process without an Input Managed Object
 			processState = new ProcessStateImpl(this.processMetaData, this, callback, callbackThreadState,
 					this.threadLocalAwareExecutor, this.profiler);
@@ -21,6 +21,8 @@
 
 package net.officefloor.frame.impl.execute.process;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 import net.officefloor.frame.api.escalate.Escalation;
 import net.officefloor.frame.api.function.FlowCallback;
 import net.officefloor.frame.api.manage.ProcessManager;
@@ -60,22 +62,12 @@ public class ProcessStateImpl implements ProcessState {
 	/**
 	 * Identifier for this {@link ProcessState}.
 	 */
-	private final Object processIdentifier;
+	private Object processIdentifier;
 
 	/**
 	 * {@link ProcessManager} for this {@link ProcessState}.
 	 */
-	private final ProcessManager processManager = new ProcessManager() {
-
-		@Override
-		public void cancel() {
-
-			// Ensure managed function sync to main thread picks up cancelled
-			synchronized (ProcessStateImpl.this.mainThreadState) {
-				ProcessStateImpl.this.isCancelled = true;
-			}
-		}
-	};
+	private ProcessManager processManager;
 
 	/**
 	 * Active {@link ThreadState} instances for this {@link ProcessState}.
@@ -90,7 +82,7 @@ public class ProcessStateImpl implements ProcessState {
 	/**
 	 * {@link ManagedObjectCleanup}.
 	 */
-	private final ManagedObjectCleanup cleanup;
+	private ManagedObjectCleanup cleanup;
 
 	/**
 	 * {@link ProcessMetaData}.
@@ -105,7 +97,7 @@ public class ProcessStateImpl implements ProcessState {
 	/**
 	 * Main {@link ThreadState} for this {@link ProcessState}.
 	 */
-	private final ThreadState mainThreadState;
+	private final ThreadStateImpl mainThreadState;
 
 	/**
 	 * {@link OfficeMetaData}.
@@ -114,8 +106,12 @@ public class ProcessStateImpl implements ProcessState {
 
 	/**
 	 * {@link ManagedObjectContainer} instances for the {@link ProcessState}.
+	 * Lazily created on first use, as typically only some of the
+	 * {@link ProcessState} bound {@link ManagedObject} instances are used. Atomic
+	 * array as the {@link ProcessState} is shared by its {@link ThreadState}
+	 * instances.
 	 */
-	private final ManagedObjectContainer[] managedObjects;
+	private final AtomicReferenceArray<ManagedObjectContainer> managedObjects;
 
 	/**
 	 * {@link ProcessProfiler}.
@@ -134,6 +130,29 @@ public class ProcessStateImpl implements ProcessState {
 	 */
 	private boolean isCancelled = false;
 
+	/**
+	 * {@link ProcessStateRecycler}. May be <code>null</code> if not recycling.
+	 */
+	private final ProcessStateRecycler recycler;
+
+	/**
+	 * Generation of this {@link ProcessState}. Incremented on each re-use so that
+	 * stale {@link ProcessManager} instances do not affect the re-used
+	 * {@link ProcessState}. Changed only while synchronised on the main
+	 * {@link ThreadState}.
+	 */
+	private int generation = 0;
+
+	/**
+	 * Indicates if this {@link ProcessState} has completed and is awaiting re-use.
+	 */
+	private volatile boolean isRecycled = false;
+
+	/**
+	 * Next {@link ProcessStateImpl} pending recycling on the {@link Thread}.
+	 */
+	ProcessStateImpl nextPendingRecycle = null;
+
 	/**
 	 * Initiate.
 	 * 
@@ -183,12 +202,45 @@ public class ProcessStateImpl implements ProcessState {
 			ThreadState callbackThreadState, ThreadLocalAwareExecutor threadLocalAwareExecutor, Profiler profiler,
 			ManagedObject inputManagedObject, ManagedObjectMetaData<?> inputManagedObjectMetaData,
 			int inputManagedObjectIndex) {
+		this(processMetaData, officeMetaData, callback, callbackThreadState, threadLocalAwareExecutor, profiler,
+				inputManagedObject, inputManagedObjectMetaData, inputManagedObjectIndex, null);
+	}
+
+	/**
+	 * Initiate for a {@link ProcessState} that may be recycled.
+	 * 
+	 * @param processMetaData            {@link ProcessMetaData} for this
+	 *                                   {@link ProcessState}.
+	 * @param officeMetaData             {@link OfficeMetaData}.
+	 * @param callback                   Optional {@link FlowCallback}. May be
+	 *                                   <code>null</code>.
+	 * @param callbackThreadState        Optional {@link FlowCallback}
+	 *                                   {@link ThreadState}. May be
+	 *                                   <code>null</code>.
+	 * @param threadLocalAwareExecutor   {@link ThreadLocalAwareExecutor}.
+	 * @param profiler                   Optional {@link Profiler}. May be
+	 *                                   <code>null</code>.
+	 * @param inputManagedObject         {@link ManagedObject} that invoked this
+	 *                                   {@link ProcessState}. May be
+	 *                                   <code>null</code>.
+	 * @param inputManagedObjectMetaData {@link ManagedObjectMetaData} of the input
+	 *                                   {@link ManagedObject}. Should the input
+	 *                                   {@link ManagedObject} be provided this must
+	 *                                   be also provided.
+	 * @param inputManagedObjectIndex    Index of the input {@link ManagedObject}
+	 *                                   within this {@link ProcessState}.
+	 * @param recycler                   {@link ProcessStateRecycler} to recycle
+	 *                                   this {@link ProcessState} on completion.
+	 *                                   May be <code>null</code> to not recycle.
+	 */
+	ProcessStateImpl(ProcessMetaData processMetaData, OfficeMetaData officeMetaData, FlowCallback callback,
+			ThreadState callbackThreadState, ThreadLocalAwareExecutor threadLocalAwareExecutor, Profiler profiler,
+			ManagedObject inputManagedObject, ManagedObjectMetaData<?> inputManagedObjectMetaData,
+			int inputManagedObjectIndex, ProcessStateRecycler recycler) {
 		this.processMetaData = processMetaData;
 		this.officeMetaData = officeMetaData;
 		this.threadLocalAwareExecutor = threadLocalAwareExecutor;
-
-		// Create the process identifier
-		this.processIdentifier = this.processMetaData.createProcessIdentifier();
+		this.recycler = recycler;
 
 		// Create the process profiler (if profiling)
 		this.processProfiler = (profiler == null ? null
@@ -197,25 +249,137 @@ public class ProcessStateImpl implements ProcessState {
 		// Create the main thread state
 		this.mainThreadState = new ThreadStateImpl(this.processMetaData.getThreadMetaData(), callback,
 				callbackThreadState, this, this.processProfiler);
-		this.activeThreads.addEntry(this.mainThreadState);
 
-		// Create all managed object containers (final for thread safety)
-		ManagedObjectMetaData<?>[] managedObjectMetaData = this.processMetaData.getManagedObjectMetaData();
-		ManagedObjectContainer[] managedObjectContainers = new ManagedObjectContainer[managedObjectMetaData.length];
-		for (int i = 0; i < managedObjectContainers.length; i++) {
-			managedObjectContainers[i] = new ManagedObjectContainerImpl(managedObjectMetaData[i], this.mainThreadState);
+		// Create array for the managed object containers
+		this.managedObjects = new AtomicReferenceArray<>(this.processMetaData.getManagedObjectMetaData().length);
+
+		// Initialise the process state
+		this.initialise(inputManagedObject, inputManagedObjectMetaData, inputManagedObjectIndex);
+	}
+
+	/**
+	 * Re-initialises this recycled {@link ProcessStateImpl} for re-use.
+	 * 
+	 * @param callback                   Optional {@link FlowCallback}. May be
+	 *                                   <code>null</code>.
+	 * @param callbackThreadState        Optional {@link FlowCallback}
+	 *                                   {@link ThreadState}. May be
+	 *                                   <code>null</code>.
+	 * @param inputManagedObject         {@link ManagedObject} that invoked this
+	 *                                   {@link ProcessState}. May be
+	 *                                   <code>null</code>.
+	 * @param inputManagedObjectMetaData {@link ManagedObjectMetaData} of the input
+	 *                                   {@link ManagedObject}.
+	 * @param inputManagedObjectIndex    Index of the input {@link ManagedObject}
+	 *                                   within this {@link ProcessState}.
+	 */
+	void reinitialise(FlowCallback callback, ThreadState callbackThreadState, ManagedObject inputManagedObject,
+			ManagedObjectMetaData<?> inputManagedObjectMetaData, int inputManagedObjectIndex) {
+
+		// Reset state from previous use
+		// (synchronise with cancel of the previous use)
+		synchronized (this.mainThreadState) {
+			this.generation++;
+			this.isCancelled = false;
 		}
+		this.mainThreadCompletion = null;
+		this.nextPendingRecycle = null;
+
+		// Re-initialise the main thread state
+		this.mainThreadState.reinitialiseMainThreadState(callback, callbackThreadState);
+
+		// Initialise the process state
+		this.initialise(inputManagedObject, inputManagedObjectMetaData, inputManagedObjectIndex);
+
+		// Now active
+		this.isRecycled = false;
+	}
+
+	/**
+	 * Initialises the state for a use of this {@link ProcessStateImpl}.
+	 * 
+	 * @param inputManagedObject         {@link ManagedObject} that invoked this
+	 *                                   {@link ProcessState}. May be
+	 *                                   <code>null</code>.
+	 * @param inputManagedObjectMetaData {@link ManagedObjectMetaData} of the input
+	 *                                   {@link ManagedObject}.
+	 * @param inputManagedObjectIndex    Index of the input {@link ManagedObject}
+	 *                                   within this {@link ProcessState}.
+	 */
+	private void initialise(ManagedObject inputManagedObject, ManagedObjectMetaData<?> inputManagedObjectMetaData,
+			int inputManagedObjectIndex) {
+
+		// Create the process identifier
+		this.processIdentifier = this.processMetaData.createProcessIdentifier();
+
+		// Create the process manager (for this use of the process)
+		this.processManager = new ProcessManagerImpl(this.generation);
+
+		// Register the main thread state
+		this.activeThreads.addEntry(this.mainThreadState);
+
+		// Provide the Container for the Input Managed Object
+		// (all other containers are lazily created on first use)
 		if (inputManagedObject != null) {
-			// Overwrite the Container for the Input Managed Object
-			managedObjectContainers[inputManagedObjectIndex] = new ManagedObjectContainerImpl(inputManagedObject,
-					inputManagedObjectMetaData, this.mainThreadState);
+			this.managedObjects.set(inputManagedObjectIndex, new ManagedObjectContainerImpl(inputManagedObject,
+					inputManagedObjectMetaData, this.mainThreadState));
 		}
-		this.managedObjects = managedObjectContainers;
 
 		// Create the clean up
 		this.cleanup = new ManagedObjectCleanupImpl(this, this.officeMetaData);
 	}
 
+	/**
+	 * Recycles this completed {@link ProcessStateImpl}.
+	 */
+	void recycle() {
+
+		// Only recycle if nothing remains active
+		if ((this.activeThreads.getHead() != null) || (!this.mainThreadState.recycleMainThreadState())) {
+			return; // still in use, so leave for garbage collection
+		}
+
+		// Flag recycled (fail fast on any stale use)
+		this.isRecycled = true;
+		for (int i = 0; i < this.managedObjects.length(); i++) {
+			ManagedObjectContainer container = this.managedObjects.getAndSet(i, null);
+			if (container instanceof ManagedObjectContainerImpl) {
+				((ManagedObjectContainerImpl) container).flagProcessRecycled();
+			}
+		}
+		this.cleanup = null;
+
+		// Make available for re-use
+		this.recycler.recycle(this);
+	}
+
+	/**
+	 * Obtains the number of {@link ManagedObjectContainer} instances created for
+	 * this {@link ProcessState}.
+	 * 
+	 * @return Number of {@link ManagedObjectContainer} instances created.
+	 */
+	int getCreatedManagedObjectContainerCount() {
+		int count = 0;
+		for (int i = 0; i < this.managedObjects.length(); i++) {
+			if (this.managedObjects.get(i) != null) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Ensures this {@link ProcessState} has not been recycled.
+	 * 
+	 * @throws IllegalStateException If recycled.
+	 */
+	private void ensureNotRecycled() throws IllegalStateException {
+		if (this.isRecycled) {
+			throw new IllegalStateException(ProcessState.class.getSimpleName() + " used after being recycled");
+		}
+	}
+
 	/*
 	 * ===================== ProcessState ===============================
 	 */
@@ -248,6 +412,7 @@ public class ProcessStateImpl implements ProcessState {
 	@Override
 	public FunctionState spawnThreadState(ManagedFunctionMetaData<?, ?> managedFunctionMetaData, Object parameter,
 			FlowCompletion completion, boolean isEscalationHandlingThreadState) {
+		this.ensureNotRecycled();
 		return new ProcessOperation() {
 
 			@Override
@@ -288,6 +453,7 @@ public class ProcessStateImpl implements ProcessState {
 
 	@Override
 	public FunctionState threadComplete(ThreadState thread, FunctionState threadCompletion) {
+		this.ensureNotRecycled();
 
 		// Delay main thread completion until process completes
 		if (thread == this.mainThreadState) {
@@ -322,10 +488,12 @@ public class ProcessStateImpl implements ProcessState {
 					// Clean up process
 					FunctionState cleanUpFunctions = null;
 
-					// Unload managed objects
-					for (int i = 0; i < process.managedObjects.length; i++) {
-						ManagedObjectContainer container = process.managedObjects[i];
-						cleanUpFunctions = Promise.then(cleanUpFunctions, container.unloadManagedObject());
+					// Unload managed objects (only those used)
+					for (int i = 0; i < process.managedObjects.length(); i++) {
+						ManagedObjectContainer container = process.managedObjects.get(i);
+						if (container != null) {
+							cleanUpFunctions = Promise.then(cleanUpFunctions, container.unloadManagedObject());
+						}
 					}
 
 					// Clean up process state
@@ -363,7 +531,19 @@ public class ProcessStateImpl implements ProcessState {
 
 	@Override
 	public ManagedObjectContainer getManagedObjectContainer(int index) {
-		return this.managedObjects[index];
+		this.ensureNotRecycled();
+
+		// Lazy load the Managed Object Container
+		ManagedObjectContainer container = this.managedObjects.get(index);
+		if (container == null) {
+			container = new ManagedObjectContainerImpl(this.processMetaData.getManagedObjectMetaData()[index],
+					this.mainThreadState);
+			if (!this.managedObjects.compareAndSet(index, null, container)) {
+				// Another thread state created the container
+				container = this.managedObjects.get(index);
+			}
+		}
+		return container;
 	}
 
 	@Override
@@ -371,6 +551,56 @@ public class ProcessStateImpl implements ProcessState {
 		return this.officeMetaData.getFunctionLoop();
 	}
 
+	/**
+	 * {@link ProcessManager} for a particular use of the {@link ProcessState}.
+	 */
+	class ProcessManagerImpl implements ProcessManager {
+
+		/**
+		 * Generation of the {@link ProcessState} managed.
+		 */
+		private final int generation;
+
+		/**
+		 * Instantiate.
+		 * 
+		 * @param generation Generation of the {@link ProcessState} managed.
+		 */
+		private ProcessManagerImpl(int generation) {
+			this.generation = generation;
+		}
+
+		/**
+		 * Obtains the {@link ProcessStateImpl} being managed.
+		 * 
+		 * @return {@link ProcessStateImpl} being managed.
+		 */
+		ProcessStateImpl getProcessState() {
+			return ProcessStateImpl.this;
+		}
+
+		/*
+		 * ================= ProcessManager ==================
+		 */
+
+		@Override
+		public void cancel() {
+
+			// Ensure managed function sync to main thread picks up cancelled
+			ProcessStateImpl process = ProcessStateImpl.this;
+			synchronized (process.mainThreadState) {
+
+				// Ignore if process completed and re-used
+				if ((process.isRecycled) || (process.generation != this.generation)) {
+					return;
+				}
+
+				// Cancel the process
+				process.isCancelled = true;
+			}
+		}
+	}
+
 	/**
 	 * {@link ProcessState} operation.
 	 */
@@ -405,6 +635,11 @@ public class ProcessStateImpl implements ProcessState {
 				process.processProfiler.processStateCompleted();
 			}
 
+			// Recycle once the thread exits processing
+			if (process.recycler != null) {
+				ProcessStateRecycler.pendingRecycle(process);
+			}
+
 			// Nothing further, as process complete
 			return null;
 		}
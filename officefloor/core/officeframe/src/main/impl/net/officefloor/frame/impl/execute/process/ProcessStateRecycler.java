@@ -0,0 +1,304 @@
+/*-
+ * #%L
+ * OfficeFrame
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.frame.impl.execute.process;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import net.officefloor.frame.api.function.FlowCallback;
+import net.officefloor.frame.api.managedobject.ManagedObject;
+import net.officefloor.frame.impl.execute.thread.ThreadStateImpl;
+import net.officefloor.frame.internal.structure.ManagedObjectMetaData;
+import net.officefloor.frame.internal.structure.OfficeMetaData;
+import net.officefloor.frame.internal.structure.ProcessMetaData;
+import net.officefloor.frame.internal.structure.ProcessState;
+import net.officefloor.frame.internal.structure.ThreadLocalAwareExecutor;
+import net.officefloor.frame.internal.structure.ThreadState;
+
+/**
+ * <p>
+ * Recycles completed {@link ProcessStateImpl} instances (along with their main
+ * {@link ThreadState}) to reduce per {@link ProcessState} allocation.
+ * <p>
+ * Completed {@link ProcessStateImpl} instances are pooled first per
+ * {@link Thread} (avoiding contention) and then within a bounded shared pool
+ * (so {@link ProcessState} instances completed by other {@link Thread}
+ * instances may be re-used).
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class ProcessStateRecycler {
+
+	/**
+	 * Default number of {@link ProcessStateImpl} instances pooled per
+	 * {@link Thread}.
+	 */
+	public static final int DEFAULT_THREAD_POOL_SIZE = 4;
+
+	/**
+	 * Default number of {@link ProcessStateImpl} instances within the shared pool.
+	 */
+	public static final int DEFAULT_SHARED_POOL_SIZE = 64;
+
+	/**
+	 * {@link ProcessStateImpl} instances completed on the {@link Thread} that are
+	 * pending recycling.
+	 */
+	private static final ThreadLocal<PendingRecycle> pendingRecycles = ThreadLocal.withInitial(PendingRecycle::new);
+
+	/**
+	 * Flags the completed {@link ProcessStateImpl} to be recycled once the
+	 * {@link Thread} exits processing.
+	 * 
+	 * @param process Completed {@link ProcessStateImpl}.
+	 */
+	static void pendingRecycle(ProcessStateImpl process) {
+		PendingRecycle pending = pendingRecycles.get();
+		process.nextPendingRecycle = pending.head;
+		pending.head = process;
+	}
+
+	/**
+	 * <p>
+	 * Recycles the {@link ProcessStateImpl} instances completed on the current
+	 * {@link Thread}.
+	 * <p>
+	 * This is to be invoked once the {@link Thread} has exited processing, so that
+	 * nothing on the {@link Thread} stack still references the completed
+	 * {@link ProcessState} instances.
+	 */
+	public static void recyclePendingProcessStates() {
+
+		// Determine if pending recycles
+		PendingRecycle pending = pendingRecycles.get();
+		if (pending.head == null) {
+			return; // nothing to recycle
+		}
+
+		// Only recycle once outside all processing
+		if (ThreadStateImpl.currentProcessIdentifier() != null) {
+			return; // outer processing will recycle
+		}
+
+		// Recycle the completed process states
+		ProcessStateImpl process = pending.head;
+		pending.head = null;
+		while (process != null) {
+			ProcessStateImpl next = process.nextPendingRecycle;
+			process.nextPendingRecycle = null;
+			process.recycle();
+			process = next;
+		}
+	}
+
+	/**
+	 * {@link ProcessMetaData}.
+	 */
+	private final ProcessMetaData processMetaData;
+
+	/**
+	 * {@link ThreadLocalAwareExecutor}. May be <code>null</code>.
+	 */
+	private final ThreadLocalAwareExecutor threadLocalAwareExecutor;
+
+	/**
+	 * {@link ThreadPool} for each {@link Thread}.
+	 */
+	private final ThreadLocal<ThreadPool> threadPools;
+
+	/**
+	 * Shared pool of {@link ProcessStateImpl} instances.
+	 */
+	private final AtomicReferenceArray<ProcessStateImpl> sharedPool;
+
+	/**
+	 * Instantiate with default pool sizes.
+	 * 
+	 * @param processMetaData          {@link ProcessMetaData}.
+	 * @param threadLocalAwareExecutor {@link ThreadLocalAwareExecutor}. May be
+	 *                                 <code>null</code>.
+	 */
+	public ProcessStateRecycler(ProcessMetaData processMetaData, ThreadLocalAwareExecutor threadLocalAwareExecutor) {
+		this(processMetaData, threadLocalAwareExecutor, DEFAULT_THREAD_POOL_SIZE, DEFAULT_SHARED_POOL_SIZE);
+	}
+
+	/**
+	 * Instantiate.
+	 * 
+	 * @param processMetaData          {@link ProcessMetaData}.
+	 * @param threadLocalAwareExecutor {@link ThreadLocalAwareExecutor}. May be
+	 *                                 <code>null</code>.
+	 * @param threadPoolSize           Number of {@link ProcessStateImpl} instances
+	 *                                 pooled per {@link Thread}.
+	 * @param sharedPoolSize           Number of {@link ProcessStateImpl} instances
+	 *                                 within the shared pool.
+	 */
+	public ProcessStateRecycler(ProcessMetaData processMetaData, ThreadLocalAwareExecutor threadLocalAwareExecutor,
+			int threadPoolSize, int sharedPoolSize) {
+		this.processMetaData = processMetaData;
+		this.threadLocalAwareExecutor = threadLocalAwareExecutor;
+		this.threadPools = ThreadLocal.withInitial(() -> new ThreadPool(threadPoolSize));
+		this.sharedPool = new AtomicReferenceArray<>(sharedPoolSize);
+	}
+
+	/**
+	 * Creates the {@link ProcessState}, re-using a recycled
+	 * {@link ProcessStateImpl} if available.
+	 * 
+	 * @param officeMetaData             {@link OfficeMetaData}.
+	 * @param callback                   Optional {@link FlowCallback}. May be
+	 *                                   <code>null</code>.
+	 * @param callbackThreadState        Optional {@link FlowCallback}
+	 *                                   {@link ThreadState}. May be
+	 *                                   <code>null</code>.
+	 * @param inputManagedObject         {@link ManagedObject} that invoked the
+	 *                                   {@link ProcessState}. May be
+	 *                                   <code>null</code>.
+	 * @param inputManagedObjectMetaData {@link ManagedObjectMetaData} of the input
+	 *                                   {@link ManagedObject}.
+	 * @param inputManagedObjectIndex    Index of the input {@link ManagedObject}
+	 *                                   within the {@link ProcessState}.
+	 * @return {@link ProcessState}.
+	 */
+	public ProcessState createProcessState(OfficeMetaData officeMetaData, FlowCallback callback,
+			ThreadState callbackThreadState, ManagedObject inputManagedObject,
+			ManagedObjectMetaData<?> inputManagedObjectMetaData, int inputManagedObjectIndex) {
+
+		// Attempt to re-use a recycled process state
+		ProcessStateImpl process = this.threadPools.get().obtain();
+		if (process == null) {
+			process = this.obtainShared();
+		}
+		if (process != null) {
+			process.reinitialise(callback, callbackThreadState, inputManagedObject, inputManagedObjectMetaData,
+					inputManagedObjectIndex);
+			return process;
+		}
+
+		// No recycled process state, so create
+		return new ProcessStateImpl(this.processMetaData, officeMetaData, callback, callbackThreadState,
+				this.threadLocalAwareExecutor, null, inputManagedObject, inputManagedObjectMetaData,
+				inputManagedObjectIndex, this);
+	}
+
+	/**
+	 * Makes the completed {@link ProcessStateImpl} available for re-use.
+	 * 
+	 * @param process Completed {@link ProcessStateImpl}.
+	 */
+	void recycle(ProcessStateImpl process) {
+
+		// Pool with thread (if space)
+		if (this.threadPools.get().release(process)) {
+			return;
+		}
+
+		// Pool within shared pool (if space)
+		for (int i = 0; i < this.sharedPool.length(); i++) {
+			if ((this.sharedPool.get(i) == null) && (this.sharedPool.compareAndSet(i, null, process))) {
+				return;
+			}
+		}
+
+		// As here, no space so discard for garbage collection
+	}
+
+	/**
+	 * Obtains a {@link ProcessStateImpl} from the shared pool.
+	 * 
+	 * @return {@link ProcessStateImpl} or <code>null</code> if none available.
+	 */
+	private ProcessStateImpl obtainShared() {
+		for (int i = 0; i < this.sharedPool.length(); i++) {
+			ProcessStateImpl process = this.sharedPool.get(i);
+			if ((process != null) && (this.sharedPool.compareAndSet(i, process, null))) {
+				return process;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * {@link ProcessStateImpl} instances pending recycling on a {@link Thread}.
+	 */
+	private static class PendingRecycle {
+
+		/**
+		 * Head {@link ProcessStateImpl} pending recycling.
+		 */
+		private ProcessStateImpl head = null;
+	}
+
+	/**
+	 * Pool of {@link ProcessStateImpl} instances for a {@link Thread}.
+	 */
+	private static class ThreadPool {
+
+		/**
+		 * Available {@link ProcessStateImpl} instances.
+		 */
+		private final ProcessStateImpl[] available;
+
+		/**
+		 * Number of available {@link ProcessStateImpl} instances.
+		 */
+		private int size = 0;
+
+		/**
+		 * Instantiate.
+		 * 
+		 * @param poolSize Size of the pool.
+		 */
+		private ThreadPool(int poolSize) {
+			this.available = new ProcessStateImpl[poolSize];
+		}
+
+		/**
+		 * Obtains a {@link ProcessStateImpl}.
+		 * 
+		 * @return {@link ProcessStateImpl} or <code>null</code> if none available.
+		 */
+		private ProcessStateImpl obtain() {
+			if (this.size == 0) {
+				return null;
+			}
+			ProcessStateImpl process = this.available[--this.size];
+			this.available[this.size] = null;
+			return process;
+		}
+
+		/**
+		 * Releases the {@link ProcessStateImpl} to the pool.
+		 * 
+		 * @param process {@link ProcessStateImpl}.
+		 * @return <code>true</code> if pooled. <code>false</code> if pool full.
+		 */
+		private boolean release(ProcessStateImpl process) {
+			if (this.size == this.available.length) {
+				return false;
+			}
+			this.available[this.size++] = process;
+			return true;
+		}
+	}
+
+}
@@ -282,7 +282,7 @@ public class ThreadStateImpl extends AbstractLinkedListSetEntry<ThreadState, Pro
 	/**
 	 * {@link FlowCompletion}.
 	 */
-	private final FlowCompletion completion;
+	private FlowCompletion completion;
 
 	/**
 	 * {@link ThreadProfiler}.
@@ -315,6 +315,12 @@ public class ThreadStateImpl extends AbstractLinkedListSetEntry<ThreadState, Pro
 	 */
 	private boolean isThreadComplete = false;
 
+	/**
+	 * Indicates if this {@link ThreadState} has been recycled with its
+	 * {@link ProcessState}.
+	 */
+	private volatile boolean isRecycled = false;
+
 	/**
 	 * Initiate with {@link ProcessState} {@link FlowCallback}.
 	 * 
@@ -387,31 +393,8 @@ public class ThreadStateImpl extends AbstractLinkedListSetEntry<ThreadState, Pro
 		this.processState = processState;
 
 		// Determine completion
-		if (completion != null) {
-			// Supplied flow completion
-			this.completion = completion;
-
-		} else if (callback != null) {
-			// Process invoked callback, so determine callback thread state
-			if (callbackThreadState == null) {
-				// No provided thread state, so attempt to determine one
-				ActiveThreadState active = activeThreadState.get();
-				if ((active != null) && (active.threadState != null)) {
-					// Use currently active thread state
-					callbackThreadState = active.threadState;
-				} else {
-					// Fall back to this thread state
-					callbackThreadState = this;
-				}
-			}
-
-			// Specify process flow completion (on this "main" thread state)
-			this.completion = new ProcessFlowCompletion(callbackThreadState, callback);
-
-		} else {
-			// No completion
-			this.completion = null;
-		}
+		this.completion = (completion != null) ? completion
+				: this.createProcessFlowCompletion(callback, callbackThreadState);
 
 		// Create array to reference the managed objects
 		ManagedObjectMetaData<?>[] moMetaData = this.threadMetaData.getManagedObjectMetaData();
@@ -429,6 +412,100 @@ public class ThreadStateImpl extends AbstractLinkedListSetEntry<ThreadState, Pro
 		this.profiler = (processProfiler == null ? null : processProfiler.addThreadState(this));
 	}
 
+	/**
+	 * Creates the {@link FlowCompletion} for the {@link ProcessState} invoked
+	 * {@link FlowCallback}.
+	 * 
+	 * @param callback            {@link ProcessState} invoked {@link FlowCallback}.
+	 *                            May be <code>null</code>.
+	 * @param callbackThreadState {@link FlowCallback} {@link ThreadState}. May be
+	 *                            <code>null</code>.
+	 * @return {@link FlowCompletion} or <code>null</code> if no
+	 *         {@link FlowCallback}.
+	 */
+	private FlowCompletion createProcessFlowCompletion(FlowCallback callback, ThreadState callbackThreadState) {
+
+		// No completion if no callback
+		if (callback == null) {
+			return null;
+		}
+
+		// Process invoked callback, so determine callback thread state
+		if (callbackThreadState == null) {
+			// No provided thread state, so attempt to determine one
+			ActiveThreadState active = activeThreadState.get();
+			if ((active != null) && (active.threadState != null)) {
+				// Use currently active thread state
+				callbackThreadState = active.threadState;
+			} else {
+				// Fall back to this thread state
+				callbackThreadState = this;
+			}
+		}
+
+		// Specify process flow completion (on this "main" thread state)
+		return new ProcessFlowCompletion(callbackThreadState, callback);
+	}
+
+	/**
+	 * Recycles this completed main {@link ThreadState} along with its
+	 * {@link ProcessState}.
+	 * 
+	 * @return <code>true</code> if recycled. <code>false</code> if
+	 *         {@link ThreadState} is still active and can not be recycled.
+	 */
+	public boolean recycleMainThreadState() {
+
+		// Can not recycle if still active
+		if ((!this.isThreadComplete) || (this.activeFlows.getHead() != null)) {
+			return false;
+		}
+
+		// Flag recycled (fail fast on any stale use)
+		this.isRecycled = true;
+		for (int i = 0; i < this.managedObjectContainers.length; i++) {
+			ManagedObjectContainer container = this.managedObjectContainers[i];
+			if (container instanceof ManagedObjectContainerImpl) {
+				((ManagedObjectContainerImpl) container).flagProcessRecycled();
+			}
+			this.managedObjectContainers[i] = null;
+		}
+		for (int i = 0; i < this.governanceContainers.length; i++) {
+			this.governanceContainers[i] = null;
+		}
+		return true;
+	}
+
+	/**
+	 * Re-initialises this recycled main {@link ThreadState} for re-use by its
+	 * {@link ProcessState}.
+	 * 
+	 * @param callback            {@link ProcessState} invoked {@link FlowCallback}.
+	 *                            May be <code>null</code>.
+	 * @param callbackThreadState {@link FlowCallback} {@link ThreadState}. May be
+	 *                            <code>null</code>.
+	 */
+	public void reinitialiseMainThreadState(FlowCallback callback, ThreadState callbackThreadState) {
+		this.completion = this.createProcessFlowCompletion(callback, callbackThreadState);
+		this.synchronisers = null;
+		this.escalationLevel = EscalationLevel.OFFICE;
+		this.threadEscalation = null;
+		this.threadEscalationCompletion = null;
+		this.isThreadComplete = false;
+		this.isRecycled = false;
+	}
+
+	/**
+	 * Ensures this {@link ThreadState} has not been recycled.
+	 * 
+	 * @throws IllegalStateException If recycled.
+	 */
+	private void ensureNotRecycled() throws IllegalStateException {
+		if (this.isRecycled) {
+			throw new IllegalStateException(ThreadState.class.getSimpleName() + " used after being recycled");
+		}
+	}
+
 	/*
 	 * ====================== LinkedListSetEntry ===========================
 	 */
@@ -498,23 +575,23 @@ public class ThreadStateImpl extends AbstractLinkedListSetEntry<ThreadState, Pro
 	}
 
 	@Override
-	public <R, T extends Throwable> R runProcessSafeOperation(ProcessSafeOperation<R, T> operation) throws T {
-
-		// Obtain the main thread
-		ThreadState mainThreadState = this.processState.getMainThreadState();
-
-		// Obtain the active thread state
+	public boolean isProcessSafe() {
 		ActiveThreadState active = activeThreadState.get();
-		ThreadState activeThreadState = (active != null ? active.threadState : null);
+		return (active != null) && (active.isThreadStateSafe)
+				&& (active.threadState == this.processState.getMainThreadState());
+	}
+
+	@Override
+	public <R, T extends Throwable> R runProcessSafeOperation(ProcessSafeOperation<R, T> operation) throws T {
 
-		// Determine if running on same thread state
-		if ((mainThreadState == activeThreadState) && (activeThreadState.isThreadStateSafe())) {
+		// Determine if running on safe main thread state
+		if (this.isProcessSafe()) {
 			// Safe on main thread, so no additional lock required
 			return operation.run();
 
 		} else {
 			// Not safe as different thread state, so lock on main thread state
-			synchronized (mainThreadState) {
+			synchronized (this.processState.getMainThreadState()) {
 				return operation.run();
 			}
 		}
@@ -522,6 +599,7 @@ public class ThreadStateImpl extends AbstractLinkedListSetEntry<ThreadState, Pro
 
 	@Override
 	public Flow createFlow(FlowCompletion flowCompletion, EscalationCompletion escalationCompletion) {
+		this.ensureNotRecycled();
 
 		// Create and register the activate flow
 		Flow flow = new FlowImpl(flowCompletion, escalationCompletion, this);
@@ -733,6 +811,8 @@ public class ThreadStateImpl extends AbstractLinkedListSetEntry<ThreadState, Pro
 
 	@Override
 	public ManagedObjectContainer getManagedObjectContainer(int index) {
+		this.ensureNotRecycled();
+
 		// Lazy load the Managed Object Container
 		ManagedObjectContainer container = this.managedObjectContainers[index];
 		if (container == null) {
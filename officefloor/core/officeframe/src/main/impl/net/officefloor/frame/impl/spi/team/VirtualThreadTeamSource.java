@@ -0,0 +1,200 @@
+/*-
+ * #%L
+ * OfficeFrame
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.frame.impl.spi.team;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import net.officefloor.frame.api.executive.Executive;
+import net.officefloor.frame.api.managedobject.pool.ThreadCompletionListener;
+import net.officefloor.frame.api.team.Job;
+import net.officefloor.frame.api.team.Team;
+import net.officefloor.frame.api.team.source.TeamSource;
+import net.officefloor.frame.api.team.source.TeamSourceContext;
+
+/**
+ * <p>
+ * {@link TeamSource} running each {@link Job} on a new virtual {@link Thread}.
+ * <p>
+ * This allows blocking {@link Job} instances (e.g. JDBC, HTTP clients) to have
+ * effectively unlimited concurrency without a platform {@link Thread} (and its
+ * stack) per in-flight {@link Job}. Virtual {@link Thread} instances require
+ * JDK 21+. On earlier JDKs, this falls back to a {@link ExecutorService} of up
+ * to {@link Team} size {@link Thread} instances (defaulting to the number of
+ * available processors). Once all {@link Thread} instances are busy,
+ * {@link Job} instances are queued and, should the queue be full, the
+ * {@link Job} is rejected (never run by the assigning {@link Thread}, as may be
+ * a socket listener {@link Thread}).
+ * <p>
+ * Each {@link Job} is run within the managed execution of the
+ * {@link TeamSourceContext}. Therefore, the {@link Executive} manages the
+ * execution and {@link ThreadCompletionListener} instances are notified on
+ * completion of each {@link Job}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class VirtualThreadTeamSource extends AbstractExecutorTeamSource {
+
+	/**
+	 * Property name for the wait time in milliseconds for a {@link Job} before
+	 * shutting down the {@link Thread}, should virtual {@link Thread} instances not
+	 * be available.
+	 */
+	public static final String PROPERTY_WAIT_TIME = "wait.time";
+
+	/**
+	 * Property name for the capacity of the queue of {@link Job} instances waiting
+	 * on a {@link Thread}, should virtual {@link Thread} instances not be
+	 * available.
+	 */
+	public static final String PROPERTY_QUEUE_CAPACITY = "queue.capacity";
+
+	/**
+	 * Default capacity of the queue of {@link Job} instances waiting on a
+	 * {@link Thread}.
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+	/**
+	 * {@link MethodHandle} to create the virtual {@link Thread} builder.
+	 * <code>null</code> if virtual {@link Thread} instances not available.
+	 */
+	private static final MethodHandle ofVirtual;
+
+	/**
+	 * {@link MethodHandle} to name the virtual {@link Thread} instances.
+	 */
+	private static final MethodHandle name;
+
+	/**
+	 * {@link MethodHandle} to create the virtual {@link ThreadFactory}.
+	 */
+	private static final MethodHandle factory;
+
+	/**
+	 * {@link MethodHandle} to create the {@link ExecutorService} starting a new
+	 * {@link Thread} per {@link Job}.
+	 */
+	private static final MethodHandle newThreadPerTaskExecutor;
+
+	static {
+		MethodHandle ofVirtualHandle = null;
+		MethodHandle nameHandle = null;
+		MethodHandle factoryHandle = null;
+		MethodHandle executorHandle = null;
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+			ofVirtualHandle = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(builderClass));
+			nameHandle = lookup.findVirtual(builderClass, "name",
+					MethodType.methodType(builderClass, String.class, long.class));
+			factoryHandle = lookup.findVirtual(builderClass, "factory", MethodType.methodType(ThreadFactory.class));
+			executorHandle = lookup.findStatic(Executors.class, "newThreadPerTaskExecutor",
+					MethodType.methodType(ExecutorService.class, ThreadFactory.class));
+
+			// Ensure virtual threads enabled (not preview only)
+			ofVirtualHandle.invoke();
+
+		} catch (Throwable ex) {
+			// Virtual threads not available
+			ofVirtualHandle = null;
+		}
+		ofVirtual = ofVirtualHandle;
+		name = nameHandle;
+		factory = factoryHandle;
+		newThreadPerTaskExecutor = executorHandle;
+	}
+
+	/**
+	 * Indicates if virtual {@link Thread} instances are available.
+	 * 
+	 * @return <code>true</code> if virtual {@link Thread} instances are available.
+	 */
+	public static boolean isVirtualThreadAvailable() {
+		return ofVirtual != null;
+	}
+
+	/*
+	 * ===================== AbstractExecutorTeamSource =====================
+	 */
+
+	@Override
+	protected ExecutorServiceFactory createExecutorServiceFactory(TeamSourceContext context,
+			ThreadFactory threadFactory) throws Exception {
+
+		// Fall back to thread pool if no virtual threads
+		if (!isVirtualThreadAvailable()) {
+			int maximumSize = context.getTeamSize(Runtime.getRuntime().availableProcessors());
+			long waitTime = Long.valueOf(context.getProperty(PROPERTY_WAIT_TIME, String.valueOf(60_000L)));
+			int queueCapacity = Integer
+					.valueOf(context.getProperty(PROPERTY_QUEUE_CAPACITY, String.valueOf(DEFAULT_QUEUE_CAPACITY)));
+			return () -> {
+
+				// Queue jobs once all threads busy (rejected once queue full)
+				ThreadPoolExecutor executor = new ThreadPoolExecutor(maximumSize, maximumSize, waitTime,
+						TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(queueCapacity), threadFactory);
+
+				// Release idle threads
+				if (waitTime > 0) {
+					executor.allowCoreThreadTimeOut(true);
+				}
+				return executor;
+			};
+		}
+
+		// Create the virtual thread factory
+		ThreadFactory virtualThreadFactory;
+		try {
+			Object builder = ofVirtual.invoke();
+			builder = name.invoke(builder, context.getTeamName() + "-", 1L);
+			virtualThreadFactory = (ThreadFactory) factory.invoke(builder);
+		} catch (Exception | Error ex) {
+			throw ex;
+		} catch (Throwable ex) {
+			throw new IllegalStateException(ex);
+		}
+
+		// Run managed execution of job directly on the virtual thread
+		ThreadFactory managedVirtualThreadFactory = (job) -> virtualThreadFactory
+				.newThread(context.createManagedRunnable(job));
+
+		// Create the factory
+		return () -> {
+			try {
+				return (ExecutorService) newThreadPerTaskExecutor.invoke(managedVirtualThreadFactory);
+			} catch (RuntimeException | Error ex) {
+				throw ex;
+			} catch (Throwable ex) {
+				throw new IllegalStateException(ex);
+			}
+		};
+	}
+
+}
@@ -0,0 +1,345 @@
+/*-
+ * #%L
+ * OfficeFrame
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.frame.impl.spi.team;
+
+import java.util.ArrayDeque;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import net.officefloor.frame.api.team.Job;
+import net.officefloor.frame.api.team.Team;
+
+/**
+ * {@link Team} of many {@link Thread} instances, each with its own queue of
+ * {@link Job} instances and stealing {@link Job} instances from the other
+ * {@link TeamMember} instances when idle.
+ * <p>
+ * {@link Job} instances assigned by a {@link TeamMember} are queued to that
+ * {@link TeamMember}, so chains of small {@link Job} instances stay on the one
+ * {@link Thread} without contending on a shared queue. Idle {@link TeamMember}
+ * instances are parked until a {@link Job} is assigned, rather than polling for
+ * {@link Job} instances.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class WorkStealingTeam implements Team {
+
+	/**
+	 * {@link ThreadFactory}.
+	 */
+	private final ThreadFactory threadFactory;
+
+	/**
+	 * {@link TeamMember} instances.
+	 */
+	private final TeamMember[] teamMembers;
+
+	/**
+	 * {@link TeamMember} for the current {@link Thread}.
+	 */
+	private final ThreadLocal<TeamMember> currentTeamMember = new ThreadLocal<>();
+
+	/**
+	 * Index of the next {@link TeamMember} to receive a {@link Job} assigned from
+	 * outside this {@link Team}.
+	 */
+	private final AtomicInteger nextTeamMember = new AtomicInteger(0);
+
+	/**
+	 * Number of parked {@link TeamMember} instances.
+	 */
+	private final AtomicInteger idleTeamMembers = new AtomicInteger(0);
+
+	/**
+	 * Flag indicating to continue to work.
+	 */
+	private volatile boolean continueWorking = true;
+
+	/**
+	 * Instantiate.
+	 * 
+	 * @param teamMemberCount Number of {@link TeamMember} instances within this
+	 *                        {@link WorkStealingTeam}.
+	 * @param threadFactory   {@link ThreadFactory}.
+	 */
+	public WorkStealingTeam(int teamMemberCount, ThreadFactory threadFactory) {
+		this.threadFactory = threadFactory;
+
+		// Create the listing of Team Members
+		this.teamMembers = new TeamMember[teamMemberCount];
+		for (int i = 0; i < this.teamMembers.length; i++) {
+			this.teamMembers[i] = new TeamMember(i);
+		}
+	}
+
+	/**
+	 * Unparks an idle {@link TeamMember}.
+	 * 
+	 * @param preferred {@link TeamMember} preferred to be unparked, as the
+	 *                  {@link Job} was queued to it.
+	 */
+	private void unparkIdleTeamMember(TeamMember preferred) {
+
+		// Attempt to unpark the team member owning the job
+		if (preferred.unflagIdle()) {
+			LockSupport.unpark(preferred.thread);
+			return;
+		}
+
+		// Unpark another team member to steal the job
+		for (int i = 1; i < this.teamMembers.length; i++) {
+			TeamMember teamMember = this.teamMembers[(preferred.index + i) % this.teamMembers.length];
+			if (teamMember.unflagIdle()) {
+				LockSupport.unpark(teamMember.thread);
+				return;
+			}
+		}
+	}
+
+	/*
+	 * ====================== Team ==========================================
+	 */
+
+	@Override
+	public void startWorking() {
+
+		// Ensure indicate to continue working
+		this.continueWorking = true;
+
+		// Start the team members working
+		for (int i = 0; i < this.teamMembers.length; i++) {
+			TeamMember teamMember = this.teamMembers[i];
+			teamMember.finished = false;
+			Thread thread = this.threadFactory.newThread(teamMember);
+			teamMember.thread = thread;
+			thread.start();
+		}
+	}
+
+	@Override
+	public void assignJob(Job job) {
+
+		// Queue to current team member (otherwise spread across team members)
+		TeamMember teamMember = this.currentTeamMember.get();
+		if (teamMember == null) {
+			int index = (this.nextTeamMember.getAndIncrement() & Integer.MAX_VALUE) % this.teamMembers.length;
+			teamMember = this.teamMembers[index];
+		}
+		teamMember.queueJob(job);
+
+		// Wake an idle team member to undertake the job
+		if (this.idleTeamMembers.get() > 0) {
+			this.unparkIdleTeamMember(teamMember);
+		}
+	}
+
+	@Override
+	public void stopWorking() {
+
+		// Flag team members to stop working
+		this.continueWorking = false;
+
+		// Stop the team members
+		for (TeamMember teamMember : this.teamMembers) {
+
+			// Ignore if team member never started
+			Thread thread = teamMember.thread;
+			if (thread == null) {
+				continue;
+			}
+
+			// Wait until team member is finished
+			while (!teamMember.finished) {
+
+				// Wake up team member
+				LockSupport.unpark(thread);
+
+				// Allow team member to finish
+				Thread.yield();
+			}
+			teamMember.thread = null;
+		}
+	}
+
+	/**
+	 * Team member of the {@link WorkStealingTeam}.
+	 */
+	private class TeamMember implements Runnable {
+
+		/**
+		 * Index of this {@link TeamMember} within the {@link WorkStealingTeam}.
+		 */
+		private final int index;
+
+		/**
+		 * {@link Job} instances queued to this {@link TeamMember}. Array backed so
+		 * queuing a {@link Job} does not allocate a node.
+		 */
+		private final ArrayDeque<Job> jobs = new ArrayDeque<>();
+
+		/**
+		 * Flags if this {@link TeamMember} is idle (parked or about to park).
+		 */
+		private final AtomicBoolean idle = new AtomicBoolean(false);
+
+		/**
+		 * {@link Thread} for this {@link TeamMember}.
+		 */
+		private volatile Thread thread = null;
+
+		/**
+		 * Flag to indicate finished.
+		 */
+		private volatile boolean finished = false;
+
+		/**
+		 * Instantiate.
+		 * 
+		 * @param index Index of this {@link TeamMember} within the
+		 *              {@link WorkStealingTeam}.
+		 */
+		private TeamMember(int index) {
+			this.index = index;
+		}
+
+		/**
+		 * Queues a {@link Job} to this {@link TeamMember}.
+		 * 
+		 * @param job {@link Job}.
+		 */
+		private void queueJob(Job job) {
+			synchronized (this.jobs) {
+				this.jobs.addLast(job);
+			}
+		}
+
+		/**
+		 * Takes the oldest {@link Job} queued to this {@link TeamMember}.
+		 * 
+		 * @return Oldest {@link Job} or <code>null</code> if no {@link Job} queued.
+		 */
+		private Job takeJob() {
+			synchronized (this.jobs) {
+				return this.jobs.pollFirst();
+			}
+		}
+
+		/**
+		 * Obtains the next {@link Job}, stealing from the other {@link TeamMember}
+		 * instances if none queued to this {@link TeamMember}.
+		 * 
+		 * @return Next {@link Job} or <code>null</code> if no {@link Job} available.
+		 */
+		private Job nextJob() {
+
+			// Undertake own jobs first
+			Job job = this.takeJob();
+			if (job != null) {
+				return job;
+			}
+
+			// Steal the oldest job from the other team members
+			TeamMember[] teamMembers = WorkStealingTeam.this.teamMembers;
+			for (int i = 1; i < teamMembers.length; i++) {
+				job = teamMembers[(this.index + i) % teamMembers.length].takeJob();
+				if (job != null) {
+					return job;
+				}
+			}
+
+			// No job available
+			return null;
+		}
+
+		/**
+		 * Flags this {@link TeamMember} as idle.
+		 */
+		private void flagIdle() {
+			this.idle.set(true);
+			WorkStealingTeam.this.idleTeamMembers.incrementAndGet();
+		}
+
+		/**
+		 * Removes the idle flag of this {@link TeamMember}.
+		 * 
+		 * @return <code>true</code> if this invocation removed the idle flag.
+		 */
+		private boolean unflagIdle() {
+			if (this.idle.compareAndSet(true, false)) {
+				WorkStealingTeam.this.idleTeamMembers.decrementAndGet();
+				return true;
+			}
+			return false;
+		}
+
+		/*
+		 * ================== Runnable ======================================
+		 */
+
+		@Override
+		public void run() {
+
+			// Easy access to team
+			WorkStealingTeam team = WorkStealingTeam.this;
+
+			// Register as team member for the thread
+			team.currentTeamMember.set(this);
+			try {
+				for (;;) {
+
+					// Obtain the next job to run
+					Job job = this.nextJob();
+					if (job == null) {
+
+						// No job, so check if continue working
+						if (!team.continueWorking) {
+							return;
+						}
+
+						// Flag idle and check again (so not miss concurrently assigned job)
+						this.flagIdle();
+						job = this.nextJob();
+						if (job == null) {
+							// Unparked on assigning a job (or on stopping)
+							LockSupport.park(this);
+						}
+						this.unflagIdle();
+					}
+
+					// Run the job
+					if (job != null) {
+						job.run();
+					}
+				}
+			} finally {
+				// Flag finished
+				team.currentTeamMember.remove();
+				this.finished = true;
+			}
+		}
+	}
+
+}
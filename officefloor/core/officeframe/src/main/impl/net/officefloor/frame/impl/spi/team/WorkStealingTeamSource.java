@@ -0,0 +1,83 @@
+/*-
+ * #%L
+ * OfficeFrame
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.frame.impl.spi.team;
+
+import java.util.concurrent.ThreadFactory;
+
+import net.officefloor.frame.api.team.Team;
+import net.officefloor.frame.api.team.source.TeamSource;
+import net.officefloor.frame.api.team.source.TeamSourceContext;
+import net.officefloor.frame.api.team.source.impl.AbstractTeamSource;
+
+/**
+ * {@link TeamSource} for a {@link WorkStealingTeam}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class WorkStealingTeamSource extends AbstractTeamSource {
+
+	/**
+	 * Property to specify the worker {@link Thread} priority.
+	 */
+	public static final String PROPERTY_THREAD_PRIORITY = "person.thread.priority";
+
+	/**
+	 * Default {@link Thread} priority.
+	 */
+	public static final int DEFAULT_THREAD_PRIORITY = Thread.NORM_PRIORITY;
+
+	/*
+	 * =================== AbstractTeamSource =============================
+	 */
+
+	@Override
+	protected void loadSpecification(SpecificationContext context) {
+	}
+
+	@Override
+	public Team createTeam(TeamSourceContext context) throws Exception {
+
+		// Obtain the required configuration
+		int teamSize = context.getTeamSize();
+		if (teamSize < 1) {
+			throw new IllegalArgumentException("Team size must be one or more");
+		}
+
+		// Obtain the thread priority
+		int priority = Integer
+				.valueOf(context.getProperty(PROPERTY_THREAD_PRIORITY, String.valueOf(DEFAULT_THREAD_PRIORITY)));
+
+		// Create and return the team
+		ThreadFactory threadFactory = context.getThreadFactory();
+		if (priority != DEFAULT_THREAD_PRIORITY) {
+			final ThreadFactory delegate = threadFactory;
+			threadFactory = (runnable) -> {
+				Thread thread = delegate.newThread(runnable);
+				thread.setPriority(priority);
+				return thread;
+			};
+		}
+		return new WorkStealingTeam(teamSize, threadFactory);
+	}
+
+}
@@ -253,6 +253,19 @@ public interface OfficeBuilder {
 	 */
 	void setProfiler(Profiler profiler);
 
+	/**
+	 * <p>
+	 * Specifies whether to recycle completed {@link ProcessState} instances (along
+	 * with their main {@link ThreadState}) to reduce allocation for each invoked
+	 * {@link ProcessState}.
+	 * <p>
+	 * Recycling is not undertaken when profiling the {@link Office}.
+	 * 
+	 * @param isRecycleProcessStates <code>true</code> to recycle
+	 *                               {@link ProcessState} instances.
+	 */
+	void setRecycleProcessStates(boolean isRecycleProcessStates);
+
 	/**
 	 * Adds a {@link ThreadSynchroniser} for the {@link ThreadState} of the
 	 * {@link Office}.
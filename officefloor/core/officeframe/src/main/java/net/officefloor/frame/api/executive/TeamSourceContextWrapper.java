@@ -75,6 +75,11 @@ public class TeamSourceContextWrapper extends SourceContextImpl implements TeamS
 	 */
 	private final ThreadFactory threadFactory;
 
+	/**
+	 * {@link WorkerEnvironment}. May be <code>null</code>.
+	 */
+	private final WorkerEnvironment workerEnvironment;
+
 	/**
 	 * Instantiate.
 	 * 
@@ -103,6 +108,7 @@ public class TeamSourceContextWrapper extends SourceContextImpl implements TeamS
 			threadFactory = (worker) -> delegate.newThread(workerEnvironment.createWorkerEnvironment(worker));
 		}
 		this.threadFactory = threadFactory;
+		this.workerEnvironment = workerEnvironment;
 	}
 
 	/**
@@ -140,4 +146,16 @@ public class TeamSourceContextWrapper extends SourceContextImpl implements TeamS
 		return this.threadFactory;
 	}
 
+	@Override
+	public Runnable createManagedRunnable(Runnable worker) {
+
+		// Provide worker wrapper
+		if (this.workerEnvironment != null) {
+			worker = this.workerEnvironment.createWorkerEnvironment(worker);
+		}
+
+		// Undertake within managed execution
+		return this.executiveContext.createManagedRunnable(worker);
+	}
+
 }
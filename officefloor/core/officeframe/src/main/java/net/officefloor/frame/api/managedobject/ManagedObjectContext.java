@@ -58,4 +58,21 @@ public interface ManagedObjectContext {
 	 */
 	<R, T extends Throwable> R run(ProcessSafeOperation<R, T> operation) throws T;
 
+	/**
+	 * <p>
+	 * Indicates if the current {@link Thread} is already safe to undertake a
+	 * {@link ProcessSafeOperation} without {@link #run(ProcessSafeOperation)}.
+	 * <p>
+	 * This allows avoiding the overheads of {@link #run(ProcessSafeOperation)}
+	 * for fine grained operations (e.g. writing individual bytes), by directly
+	 * undertaking the operation when safe.
+	 * 
+	 * @return <code>true</code> if safe to directly undertake a
+	 *         {@link ProcessSafeOperation}. <code>false</code> requires running
+	 *         via {@link #run(ProcessSafeOperation)}.
+	 */
+	default boolean isProcessSafe() {
+		return false;
+	}
+
 }
@@ -86,4 +86,23 @@ public interface TeamSourceContext extends SourceContext {
 	 */
 	ThreadFactory getThreadFactory();
 
+	/**
+	 * <p>
+	 * Creates a {@link Runnable} to undertake the worker {@link Runnable} within
+	 * the same managed execution as {@link Thread} instances created by
+	 * {@link #getThreadFactory()}, however without creating a {@link Thread}.
+	 * <p>
+	 * This enables {@link Team} implementations to run the worker on
+	 * {@link Thread} instances not created by the {@link ThreadFactory} (e.g.
+	 * virtual {@link Thread} instances).
+	 * <p>
+	 * By default, the worker is run directly (without managed execution).
+	 * 
+	 * @param worker Worker {@link Runnable}.
+	 * @return {@link Runnable} undertaking the worker within managed execution.
+	 */
+	default Runnable createManagedRunnable(Runnable worker) {
+		return () -> worker.run();
+	}
+
 }
@@ -208,6 +208,13 @@ public interface OfficeConfiguration {
 	 */
 	Profiler getProfiler();
 
+	/**
+	 * Indicates whether to recycle completed {@link ProcessState} instances.
+	 * 
+	 * @return <code>true</code> to recycle {@link ProcessState} instances.
+	 */
+	boolean isRecycleProcessStates();
+
 	/**
 	 * Obtains the {@link ThreadSynchroniserFactory} instances to synchronise the
 	 * {@link ThreadLocal} state between {@link Team} instances.
@@ -110,6 +110,17 @@ public interface ThreadState extends LinkedListSetEntry<ThreadState, ProcessStat
 	 */
 	<R, T extends Throwable> R runThreadSafeOperation(ThreadSafeOperation<R, T> operation) throws T;
 
+	/**
+	 * Indicates if the current {@link Thread} is safe to undertake a
+	 * {@link ProcessSafeOperation} without further locking. This is the case when
+	 * the main {@link ThreadState} of the {@link ProcessState} is safely attached
+	 * to the current {@link Thread}.
+	 * 
+	 * @return <code>true</code> if safe to directly undertake a
+	 *         {@link ProcessSafeOperation}.
+	 */
+	boolean isProcessSafe();
+
 	/**
 	 * Runs the {@link ProcessSafeOperation}.
 	 *
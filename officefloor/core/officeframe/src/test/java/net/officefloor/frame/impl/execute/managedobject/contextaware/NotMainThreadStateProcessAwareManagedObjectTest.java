@@ -87,6 +87,34 @@ public class NotMainThreadStateProcessAwareManagedObjectTest extends AbstractOff
 		assertTrue("Function should be invoked", work.isTaskRun);
 	}
 
+	/**
+	 * Ensure main {@link ThreadState} is process safe once running with
+	 * {@link ThreadState} safety (due to spawned {@link ThreadState}).
+	 */
+	public void testMainThreadState_processSafe_afterSpawn() throws Exception {
+
+		// Construct the managed object
+		TestObject object = new TestObject("MO", this);
+		object.isContextAwareManagedObject = true;
+
+		// Construct the functions
+		TestWork work = new TestWork();
+		ReflectiveFunctionBuilder spawn = this.constructFunction(work, "spawn");
+		spawn.buildFlow("task", null, true);
+		spawn.setNextFunction("main");
+		ReflectiveFunctionBuilder task = this.constructFunction(work, "task");
+		task.buildObject("MO");
+		ReflectiveFunctionBuilder main = this.constructFunction(work, "main");
+		main.buildObject("MO");
+		this.bindManagedObject("MO", ManagedObjectScope.PROCESS, task.getBuilder());
+
+		// Invoke the function
+		this.invokeFunction("spawn", null);
+		assertTrue("Function should be invoked", work.isTaskRun);
+		assertTrue("Main should be invoked", work.isMainRun);
+		assertTrue("Main thread state should be process safe", work.isMainProcessSafe);
+	}
+
 	/**
 	 * Test functionality.
 	 */
@@ -94,6 +122,10 @@ public class NotMainThreadStateProcessAwareManagedObjectTest extends AbstractOff
 
 		public boolean isTaskRun = false;
 
+		public boolean isMainRun = false;
+
+		public boolean isMainProcessSafe = false;
+
 		public void spawn(ReflectiveFlow flow) {
 			flow.doFlow(null, null);
 		}
@@ -104,6 +136,9 @@ public class NotMainThreadStateProcessAwareManagedObjectTest extends AbstractOff
 			ManagedObjectContext context = object.managedObjectContext;
 			assertNotNull("Should have managed object context", context);
 
+			// Ensure not process safe (as not main thread state)
+			assertFalse("Should not be process safe", context.isProcessSafe());
+
 			// Ensure run
 			int value = context.run(() -> 1);
 			assertEquals("Incorrect return value", 1, value);
@@ -111,6 +146,11 @@ public class NotMainThreadStateProcessAwareManagedObjectTest extends AbstractOff
 			// Indicate task run
 			this.isTaskRun = true;
 		}
+
+		public void main(TestObject object) {
+			this.isMainProcessSafe = object.managedObjectContext.isProcessSafe();
+			this.isMainRun = true;
+		}
 	}
 
 }
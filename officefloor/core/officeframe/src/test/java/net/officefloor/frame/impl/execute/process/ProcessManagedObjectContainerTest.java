@@ -0,0 +1,166 @@
+/*-
+ * #%L
+ * OfficeFrame
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.frame.impl.execute.process;
+
+import net.officefloor.frame.api.function.AsynchronousFlow;
+import net.officefloor.frame.api.manage.OfficeFloor;
+import net.officefloor.frame.api.manage.ProcessManager;
+import net.officefloor.frame.api.managedobject.ManagedObject;
+import net.officefloor.frame.internal.structure.ManagedObjectContainer;
+import net.officefloor.frame.internal.structure.ManagedObjectScope;
+import net.officefloor.frame.internal.structure.ProcessState;
+import net.officefloor.frame.test.AbstractOfficeConstructTestCase;
+import net.officefloor.frame.test.ReflectiveFunctionBuilder;
+import net.officefloor.frame.test.TestObject;
+
+/**
+ * Ensure the {@link ProcessState} bound {@link ManagedObjectContainer}
+ * instances are only created on first use.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class ProcessManagedObjectContainerTest extends AbstractOfficeConstructTestCase {
+
+	/**
+	 * Ensure no {@link ManagedObjectContainer} is created for unused
+	 * {@link ProcessState} bound {@link ManagedObject} instances.
+	 */
+	public void testNoContainerForUnusedManagedObjects() throws Exception {
+
+		// Obtain the office name
+		String officeName = this.getOfficeName();
+
+		// Construct the process bound managed objects
+		TestObject first = this.constructProcessObject("FIRST");
+		TestObject second = this.constructProcessObject("SECOND");
+
+		// Construct function not using the managed objects
+		TestWork work = new TestWork();
+		ReflectiveFunctionBuilder task = this.constructFunction(work, "task");
+		this.bindManagedObject("FIRST", ManagedObjectScope.PROCESS, task.getBuilder());
+		this.bindManagedObject("SECOND", ManagedObjectScope.PROCESS, task.getBuilder());
+
+		// Run the process
+		OfficeFloor officeFloor = this.constructOfficeFloor();
+		officeFloor.openOfficeFloor();
+		ProcessManager manager = officeFloor.getOffice(officeName).getFunctionManager("task").invokeProcess(null,
+				null);
+		assertTrue("Should run the function", work.isTask);
+
+		// Ensure no containers created
+		ProcessStateImpl process = ((ProcessStateImpl.ProcessManagerImpl) manager).getProcessState();
+		assertEquals("Should not create containers", 0, process.getCreatedManagedObjectContainerCount());
+
+		// Ensure managed objects not sourced nor unloaded
+		this.assertNotUsed(first);
+		this.assertNotUsed(second);
+	}
+
+	/**
+	 * Ensure {@link ManagedObjectContainer} is only created on first use of the
+	 * {@link ProcessState} bound {@link ManagedObject}.
+	 */
+	public void testContainerCreatedOnFirstUse() throws Exception {
+
+		// Obtain the office name
+		String officeName = this.getOfficeName();
+
+		// Construct the process bound managed objects
+		TestObject used = this.constructProcessObject("USED");
+		TestObject unused = this.constructProcessObject("UNUSED");
+
+		// Construct the functions (only next using managed object)
+		TestWork work = new TestWork();
+		ReflectiveFunctionBuilder trigger = this.constructFunction(work, "trigger");
+		trigger.buildAsynchronousFlow();
+		trigger.setNextFunction("next");
+		this.bindManagedObject("UNUSED", ManagedObjectScope.PROCESS, trigger.getBuilder());
+		ReflectiveFunctionBuilder next = this.constructFunction(work, "next");
+		next.buildObject("USED", ManagedObjectScope.PROCESS);
+
+		// Run the process (waiting on asynchronous flow)
+		OfficeFloor officeFloor = this.constructOfficeFloor();
+		officeFloor.openOfficeFloor();
+		ProcessManager manager = officeFloor.getOffice(officeName).getFunctionManager("trigger").invokeProcess(null,
+				null);
+		assertNotNull("Should trigger asynchronous flow", work.flow);
+
+		// Ensure container not yet created
+		ProcessStateImpl process = ((ProcessStateImpl.ProcessManagerImpl) manager).getProcessState();
+		assertEquals("Should not yet create container", 0, process.getCreatedManagedObjectContainerCount());
+		this.assertNotUsed(used);
+
+		// Complete flow to use the managed object
+		work.flow.complete(null);
+		assertSame("Should provide managed object", used, work.object);
+
+		// Ensure only the used container created
+		assertEquals("Should only create used container", 1, process.getCreatedManagedObjectContainerCount());
+		assertNotNull("Should source used managed object", used.managedObjectUser);
+		assertSame("Should unload used managed object", used, used.recycledManagedObject);
+		this.assertNotUsed(unused);
+	}
+
+	/**
+	 * Constructs the {@link ProcessState} bound {@link TestObject}.
+	 * 
+	 * @param name Name of the {@link ManagedObject}.
+	 * @return {@link TestObject}.
+	 */
+	private TestObject constructProcessObject(String name) {
+		TestObject object = new TestObject(name, this);
+		object.isRecycleFunction = true;
+		return object;
+	}
+
+	/**
+	 * Asserts the {@link ManagedObject} is never sourced nor unloaded.
+	 * 
+	 * @param object {@link TestObject}.
+	 */
+	private void assertNotUsed(TestObject object) {
+		assertNull("Should not source managed object", object.managedObjectUser);
+		assertNull("Should not unload managed object", object.recycledManagedObject);
+	}
+
+	public class TestWork {
+
+		private boolean isTask = false;
+
+		private AsynchronousFlow flow = null;
+
+		private TestObject object = null;
+
+		public void task() {
+			this.isTask = true;
+		}
+
+		public void trigger(AsynchronousFlow flow) {
+			this.flow = flow;
+		}
+
+		public void next(TestObject object) {
+			this.object = object;
+		}
+	}
+
+}
@@ -0,0 +1,304 @@
+/*-
+ * #%L
+ * OfficeFrame
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.frame.impl.execute.process;
+
+import net.officefloor.frame.api.build.OfficeBuilder;
+import net.officefloor.frame.api.function.FlowCallback;
+import net.officefloor.frame.api.manage.FunctionManager;
+import net.officefloor.frame.api.manage.OfficeFloor;
+import net.officefloor.frame.api.manage.ProcessManager;
+import net.officefloor.frame.api.managedobject.ManagedObjectContext;
+import net.officefloor.frame.impl.spi.team.OnePersonTeamSource;
+import net.officefloor.frame.internal.structure.ManagedObjectScope;
+import net.officefloor.frame.internal.structure.ProcessState;
+import net.officefloor.frame.test.AbstractOfficeConstructTestCase;
+import net.officefloor.frame.test.ReflectiveFlow;
+import net.officefloor.frame.test.ReflectiveFunctionBuilder;
+import net.officefloor.frame.test.TestObject;
+
+/**
+ * Tests recycling the {@link ProcessState}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class ProcessRecycleTest extends AbstractOfficeConstructTestCase {
+
+	/**
+	 * Ensure by default the {@link ProcessState} is not recycled.
+	 */
+	public void testNotRecycleByDefault() throws Exception {
+		ManagedObjectContext context = this.doProcessTest(false);
+
+		// Should be able to use context (as process not recycled)
+		assertEquals("Should run operation of completed process", Integer.valueOf(1), context.run(() -> 1));
+	}
+
+	/**
+	 * Ensure recycles the {@link ProcessState}.
+	 */
+	public void testRecycleProcessState() throws Exception {
+		ManagedObjectContext context = this.doProcessTest(true);
+
+		// Should fail fast on using context (as process recycled)
+		try {
+			context.run(() -> 1);
+			fail("Should not be successful");
+		} catch (IllegalStateException ex) {
+			assertTrue("Incorrect cause: " + ex.getMessage(), ex.getMessage().contains("recycled"));
+		}
+	}
+
+	/**
+	 * Ensure not recycle {@link ProcessState} when profiling.
+	 */
+	public void testNotRecycleWhenProfiling() throws Exception {
+		this.getOfficeBuilder().setProfiler((profiledProcess) -> {
+		});
+		ManagedObjectContext context = this.doProcessTest(true);
+
+		// Should be able to use context (as process not recycled)
+		assertEquals("Should run operation of completed process", Integer.valueOf(1), context.run(() -> 1));
+	}
+
+	/**
+	 * Undertakes running multiple {@link ProcessState} instances.
+	 * 
+	 * @param isRecycle Indicates whether to recycle {@link ProcessState}
+	 *                  instances.
+	 * @return {@link ManagedObjectContext} of the first completed
+	 *         {@link ProcessState}.
+	 */
+	private ManagedObjectContext doProcessTest(boolean isRecycle) throws Exception {
+
+		// Obtain the office name
+		String officeName = this.getOfficeName();
+
+		// Configure recycling
+		OfficeBuilder office = this.getOfficeBuilder();
+		office.setRecycleProcessStates(isRecycle);
+
+		// Construct process bound managed object
+		TestObject object = new TestObject("MO", this);
+		object.isContextAwareManagedObject = true;
+
+		// Construct the function
+		ContextWork work = new ContextWork();
+		ReflectiveFunctionBuilder task = this.constructFunction(work, "task");
+		task.buildObject("MO");
+		this.bindManagedObject("MO", ManagedObjectScope.PROCESS, task.getBuilder());
+
+		// Run the first process
+		OfficeFloor officeFloor = this.constructOfficeFloor();
+		officeFloor.openOfficeFloor();
+		FunctionManager function = officeFloor.getOffice(officeName).getFunctionManager("task");
+		function.invokeProcess(null, null);
+		assertEquals("Should run first process", 1, work.invocationCount);
+		ManagedObjectContext firstContext = work.context;
+
+		// Ensure subsequent processes run successfully
+		for (int i = 2; i <= 10; i++) {
+			boolean[] isCallback = new boolean[] { false };
+			function.invokeProcess(null, (escalation) -> {
+				assertNull("Should be no failure", escalation);
+				isCallback[0] = true;
+			});
+			assertEquals("Should run process " + i, i, work.invocationCount);
+			assertTrue("Should complete process " + i, isCallback[0]);
+			assertNotSame("Should have new context for process " + i, firstContext, work.context);
+		}
+
+		// Return the context of the completed first process
+		return firstContext;
+	}
+
+	public class ContextWork {
+
+		private int invocationCount = 0;
+
+		private ManagedObjectContext context = null;
+
+		public void task(TestObject object) {
+			this.invocationCount++;
+			this.context = object.managedObjectContext;
+			assertEquals("Incorrect context value", Integer.valueOf(2), this.context.run(() -> 2));
+		}
+	}
+
+	/**
+	 * Ensure {@link ManagedObjectContext} of completed (and recycled)
+	 * {@link ProcessState} is not process safe within the re-used
+	 * {@link ProcessState}.
+	 */
+	public void testStaleContextNotProcessSafeInReusedProcess() throws Exception {
+
+		// Obtain the office name
+		String officeName = this.getOfficeName();
+
+		// Recycle the process states
+		this.getOfficeBuilder().setRecycleProcessStates(true);
+
+		// Construct process bound managed object
+		TestObject object = new TestObject("MO", this);
+		object.isContextAwareManagedObject = true;
+
+		// Construct the functions (spawn to run with thread state safety)
+		StaleContextWork work = new StaleContextWork();
+		ReflectiveFunctionBuilder spawn = this.constructFunction(work, "spawn");
+		spawn.buildFlow("task", null, true);
+		spawn.setNextFunction("check");
+		this.constructFunction(work, "task");
+		ReflectiveFunctionBuilder check = this.constructFunction(work, "check");
+		check.buildObject("MO");
+		this.bindManagedObject("MO", ManagedObjectScope.PROCESS, check.getBuilder());
+
+		// Run the processes (second re-using the recycled first)
+		OfficeFloor officeFloor = this.constructOfficeFloor();
+		officeFloor.openOfficeFloor();
+		FunctionManager function = officeFloor.getOffice(officeName).getFunctionManager("spawn");
+		function.invokeProcess(null, null);
+		function.invokeProcess(null, null);
+
+		// Ensure stale context not process safe
+		assertEquals("Should run both processes", 2, work.checkCount);
+		assertTrue("Current context should be process safe", work.isCurrentProcessSafe);
+		assertFalse("Stale context should not be process safe", work.isStaleProcessSafe);
+	}
+
+	public class StaleContextWork {
+
+		private int checkCount = 0;
+
+		private ManagedObjectContext staleContext = null;
+
+		private boolean isCurrentProcessSafe = false;
+
+		private boolean isStaleProcessSafe = false;
+
+		public void spawn(ReflectiveFlow flow) {
+			flow.doFlow(null, null);
+		}
+
+		public void task() {
+			// Nothing to do
+		}
+
+		public void check(TestObject object) {
+			this.checkCount++;
+			ManagedObjectContext context = object.managedObjectContext;
+			if (this.staleContext != null) {
+				this.isCurrentProcessSafe = context.isProcessSafe();
+				this.isStaleProcessSafe = this.staleContext.isProcessSafe();
+			}
+			this.staleContext = context;
+		}
+	}
+
+	/**
+	 * Ensure stale {@link ProcessManager} of completed (and recycled)
+	 * {@link ProcessState} does not cancel the re-used {@link ProcessState}.
+	 */
+	public void testStaleProcessManagerNotCancelReusedProcess() throws Exception {
+
+		// Obtain the office name
+		String officeName = this.getOfficeName();
+
+		// Recycle the process states
+		this.getOfficeBuilder().setRecycleProcessStates(true);
+
+		// Create team to allow blocking
+		this.constructTeam("TEAM", OnePersonTeamSource.class);
+
+		// Build the functions
+		BlockWork work = new BlockWork();
+		ReflectiveFunctionBuilder block = this.constructFunction(work, "block");
+		block.setNextFunction("next");
+		block.getBuilder().setResponsibleTeam("TEAM");
+		this.constructFunction(work, "next");
+		this.constructFunction(work, "quick");
+
+		// Obtain the functions
+		OfficeFloor officeFloor = this.constructOfficeFloor();
+		officeFloor.openOfficeFloor();
+		FunctionManager quickFunction = officeFloor.getOffice(officeName).getFunctionManager("quick");
+		FunctionManager blockFunction = officeFloor.getOffice(officeName).getFunctionManager("block");
+
+		// Run process to completion (recycled for re-use by this thread)
+		WaitFlowCallback quickComplete = new WaitFlowCallback();
+		work.staleProcessManager = quickFunction.invokeProcess(null, quickComplete);
+		assertNull("Should complete quick process", quickComplete.waitForCompletion());
+
+		// Run process (stale process manager cancels within block)
+		WaitFlowCallback blockComplete = new WaitFlowCallback();
+		blockFunction.invokeProcess(null, blockComplete);
+		assertNull("Should not be cancelled by stale process manager", blockComplete.waitForCompletion());
+		assertTrue("Should invoke next function", work.isNextInvoked);
+	}
+
+	public class BlockWork {
+
+		private volatile ProcessManager staleProcessManager;
+
+		private volatile boolean isNextInvoked = false;
+
+		public void quick() {
+			// Nothing to do
+		}
+
+		public void block() {
+
+			// Cancel with stale process manager (done here to ensure before next)
+			this.staleProcessManager.cancel();
+		}
+
+		public void next() {
+			this.isNextInvoked = true;
+		}
+	}
+
+	private class WaitFlowCallback implements FlowCallback {
+
+		private boolean isComplete = false;
+
+		private Throwable failure = null;
+
+		private synchronized Throwable waitForCompletion() throws Exception {
+			long startTime = System.currentTimeMillis();
+			while (!isComplete) {
+				ProcessRecycleTest.this.timeout(startTime);
+				this.wait(10);
+			}
+			return this.failure;
+		}
+
+		/*
+		 * ================ FlowCallback =================
+		 */
+
+		@Override
+		public synchronized void run(Throwable escalation) throws Throwable {
+			this.failure = escalation;
+			this.isComplete = true;
+			this.notifyAll();
+		}
+	}
+
+}
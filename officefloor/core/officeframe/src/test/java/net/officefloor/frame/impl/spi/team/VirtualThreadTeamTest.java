@@ -0,0 +1,223 @@
+/*-
+ * #%L
+ * OfficeFrame
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.frame.impl.spi.team;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import net.officefloor.frame.api.team.Job;
+import net.officefloor.frame.api.team.Team;
+import net.officefloor.frame.impl.execute.execution.ManagedExecutionFactoryImpl;
+import net.officefloor.frame.test.OfficeFrameTestCase;
+
+/**
+ * Tests the {@link VirtualThreadTeamSource}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class VirtualThreadTeamTest extends OfficeFrameTestCase {
+
+	/**
+	 * Number of concurrent {@link Job} instances.
+	 */
+	private static final int JOB_COUNT = 100;
+
+	/**
+	 * {@link Team} to test.
+	 */
+	private final Team team = new VirtualThreadTeamSource().createTeam(JOB_COUNT);
+
+	@Override
+	protected void tearDown() throws Exception {
+		this.team.stopWorking();
+	}
+
+	/**
+	 * Ensure run {@link Job} on virtual {@link Thread} (if available).
+	 */
+	public void testVirtualThread() throws Exception {
+		Thread thread = this.runJob(() -> Thread.currentThread());
+		assertNotSame("Should run on another thread", Thread.currentThread(), thread);
+		if (VirtualThreadTeamSource.isVirtualThreadAvailable()) {
+			assertTrue("Should be virtual thread", (Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+		}
+	}
+
+	/**
+	 * Ensure {@link Job} is run within managed execution.
+	 */
+	public void testManagedExecution() throws Exception {
+		assertTrue("Job should be managed", this.runJob(() -> ManagedExecutionFactoryImpl.isCurrentThreadManaged()));
+	}
+
+	/**
+	 * Ensure blocking {@link Job} instances run concurrently.
+	 */
+	public void testConcurrentBlockingJobs() throws Exception {
+
+		// Assign blocking jobs
+		CountDownLatch started = new CountDownLatch(JOB_COUNT);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch complete = new CountDownLatch(JOB_COUNT);
+		for (int i = 0; i < JOB_COUNT; i++) {
+			this.team.assignJob(new MockJob() {
+				@Override
+				public void run() {
+					started.countDown();
+					try {
+						release.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException ex) {
+						// Ignore
+					}
+					complete.countDown();
+				}
+			});
+		}
+
+		// Ensure all jobs blocked concurrently
+		assertTrue("All jobs should be running concurrently", started.await(10, TimeUnit.SECONDS));
+
+		// Release the jobs to complete
+		release.countDown();
+		assertTrue("All jobs should complete", complete.await(10, TimeUnit.SECONDS));
+	}
+
+	/**
+	 * Ensure {@link Job} instances are not rejected once the {@link Team} is
+	 * saturated.
+	 */
+	public void testNotRejectWhenSaturated() throws Exception {
+		Team singleTeam = new VirtualThreadTeamSource().createTeam(1);
+		try {
+
+			// Assign more blocking jobs than team size
+			final int jobCount = 3;
+			CountDownLatch release = new CountDownLatch(1);
+			CountDownLatch complete = new CountDownLatch(jobCount);
+			for (int i = 0; i < jobCount; i++) {
+				singleTeam.assignJob(new MockJob() {
+					@Override
+					public void run() {
+						try {
+							release.await(10, TimeUnit.SECONDS);
+						} catch (InterruptedException ex) {
+							// Ignore
+						}
+						complete.countDown();
+					}
+				});
+			}
+
+			// Release the jobs to ensure all complete
+			release.countDown();
+			assertTrue("All jobs should complete", complete.await(10, TimeUnit.SECONDS));
+
+		} finally {
+			singleTeam.stopWorking();
+		}
+	}
+
+	/**
+	 * Ensure {@link Job} is rejected (rather than run by the assigning
+	 * {@link Thread}) once the fall back queue is full.
+	 */
+	public void testRejectWhenFallbackQueueFull() throws Exception {
+
+		// Only fall back to thread pool if no virtual threads
+		if (VirtualThreadTeamSource.isVirtualThreadAvailable()) {
+			return;
+		}
+
+		// Create team with single thread and queue
+		Team fallbackTeam = new VirtualThreadTeamSource().createTeam(1, VirtualThreadTeamSource.PROPERTY_QUEUE_CAPACITY,
+				"1");
+		try {
+
+			// Block the thread and fill the queue
+			CountDownLatch release = new CountDownLatch(1);
+			CountDownLatch complete = new CountDownLatch(2);
+			for (int i = 0; i < 2; i++) {
+				fallbackTeam.assignJob(new MockJob() {
+					@Override
+					public void run() {
+						try {
+							release.await(10, TimeUnit.SECONDS);
+						} catch (InterruptedException ex) {
+							// Ignore
+						}
+						complete.countDown();
+					}
+				});
+			}
+
+			// Ensure further job rejected (and not run by assigning thread)
+			Throwable[] rejection = new Throwable[1];
+			boolean[] isRun = new boolean[] { false };
+			fallbackTeam.assignJob(new MockJob() {
+				@Override
+				public void run() {
+					isRun[0] = true;
+				}
+
+				@Override
+				public void cancel(Throwable cause) {
+					rejection[0] = cause;
+				}
+			});
+			assertFalse("Should not run job on assigning thread", isRun[0]);
+			assertTrue("Should reject job", rejection[0] instanceof RejectedExecutionException);
+
+			// Release the jobs to ensure complete
+			release.countDown();
+			assertTrue("Queued jobs should complete", complete.await(10, TimeUnit.SECONDS));
+
+		} finally {
+			fallbackTeam.stopWorking();
+		}
+	}
+
+	/**
+	 * Runs a {@link Job} on the {@link Team}.
+	 * 
+	 * @param result Obtains the result within the {@link Job}.
+	 * @return Result of the {@link Job}.
+	 */
+	private <R> R runJob(Supplier<R> result) throws Exception {
+		Object[] value = new Object[1];
+		CountDownLatch complete = new CountDownLatch(1);
+		this.team.assignJob(new MockJob() {
+			@Override
+			public void run() {
+				value[0] = result.get();
+				complete.countDown();
+			}
+		});
+		assertTrue("Job should complete", complete.await(10, TimeUnit.SECONDS));
+		@SuppressWarnings("unchecked")
+		R returnValue = (R) value[0];
+		return returnValue;
+	}
+
+}
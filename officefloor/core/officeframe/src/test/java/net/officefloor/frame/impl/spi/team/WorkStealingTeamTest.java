@@ -0,0 +1,272 @@
+/*-
+ * #%L
+ * OfficeFrame
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.frame.impl.spi.team;
+
+import java.lang.Thread.State;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.officefloor.frame.api.team.Job;
+import net.officefloor.frame.api.team.Team;
+import net.officefloor.frame.test.OfficeFrameTestCase;
+import net.officefloor.frame.util.TeamSourceStandAlone;
+
+/**
+ * Tests the {@link WorkStealingTeam}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class WorkStealingTeamTest extends OfficeFrameTestCase {
+
+	/**
+	 * Threads of the {@link Team}.
+	 */
+	private final List<Thread> teamThreads = new ArrayList<>();
+
+	/**
+	 * Single member and single task.
+	 */
+	public void testSingleMemberOneTask() throws Exception {
+		this.workStealingTest(1, 1);
+	}
+
+	/**
+	 * Multiple members and single task.
+	 */
+	public void testMultipleMembersOneTask() throws Exception {
+		this.workStealingTest(3, 1);
+	}
+
+	/**
+	 * Single member and multiple tasks.
+	 */
+	public void testSingleMemberMultipleTasks() throws Exception {
+		this.workStealingTest(1, 6);
+	}
+
+	/**
+	 * Multiple members and multiple tasks.
+	 */
+	public void testMulitpleMembersMultipleTasks() throws Exception {
+		this.workStealingTest(3, 6);
+	}
+
+	/**
+	 * High load test.
+	 */
+	public void testHighLoad() throws Exception {
+		this.workStealingTest(100, 100);
+	}
+
+	/**
+	 * Ensure {@link Job} assigned by a team member is run by that team member.
+	 */
+	public void testChainedJobsRemainOnTeamMember() throws Exception {
+
+		// Create the team
+		WorkStealingTeam team = this.createTeam(1);
+		team.startWorking();
+		try {
+
+			// Run a chain of jobs
+			final int chainLength = 100;
+			AtomicInteger runCount = new AtomicInteger(0);
+			CountDownLatch complete = new CountDownLatch(1);
+			Thread[] threads = new Thread[chainLength];
+			class ChainJob extends MockJob {
+				private final int index;
+
+				private ChainJob(int index) {
+					this.index = index;
+				}
+
+				@Override
+				public void run() {
+					threads[this.index] = Thread.currentThread();
+					runCount.incrementAndGet();
+					if (this.index < (chainLength - 1)) {
+						team.assignJob(new ChainJob(this.index + 1));
+					} else {
+						complete.countDown();
+					}
+				}
+			}
+			team.assignJob(new ChainJob(0));
+			assertTrue("Chain should complete", complete.await(10, TimeUnit.SECONDS));
+
+			// Ensure all jobs run on the same thread
+			assertEquals("Incorrect number of jobs run", chainLength, runCount.get());
+			for (int i = 1; i < chainLength; i++) {
+				assertSame("Job " + i + " should run on same team member", threads[0], threads[i]);
+			}
+
+		} finally {
+			team.stopWorking();
+		}
+	}
+
+	/**
+	 * Ensure idle team members steal queued {@link Job} instances.
+	 */
+	public void testStealJobs() throws Exception {
+
+		// Create the team
+		WorkStealingTeam team = this.createTeam(2);
+		team.startWorking();
+		try {
+
+			// Block the first team member while queuing the jobs to it
+			CountDownLatch block = new CountDownLatch(1);
+			CountDownLatch queued = new CountDownLatch(1);
+			CountDownLatch stolen = new CountDownLatch(1);
+			Thread[] threads = new Thread[2];
+			team.assignJob(new MockJob() {
+				@Override
+				public void run() {
+					threads[0] = Thread.currentThread();
+					team.assignJob(new MockJob() {
+						@Override
+						public void run() {
+							threads[1] = Thread.currentThread();
+							stolen.countDown();
+						}
+					});
+					queued.countDown();
+					try {
+						block.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException ex) {
+						// Ignore
+					}
+				}
+			});
+			assertTrue("Job should be queued", queued.await(10, TimeUnit.SECONDS));
+
+			// Ensure other team member steals the job
+			try {
+				assertTrue("Job should be stolen", stolen.await(10, TimeUnit.SECONDS));
+				assertNotSame("Job should be run by other team member", threads[0], threads[1]);
+			} finally {
+				block.countDown();
+			}
+
+		} finally {
+			team.stopWorking();
+		}
+	}
+
+	/**
+	 * Ensure {@link Job} instances queued on stopping are still run.
+	 */
+	public void testRunQueuedJobsOnStop() throws Exception {
+
+		// Create the team
+		WorkStealingTeam team = this.createTeam(1);
+		team.startWorking();
+
+		// Queue jobs
+		MockJob[] jobs = new MockJob[10];
+		for (int i = 0; i < jobs.length; i++) {
+			jobs[i] = new MockJob();
+			team.assignJob(jobs[i]);
+		}
+
+		// Stop the team
+		team.stopWorking();
+
+		// Ensure all jobs run
+		for (int i = 0; i < jobs.length; i++) {
+			assertEquals("Job " + i + " should be run", 1, jobs[i].doTaskInvocationCount);
+		}
+		this.assertThreadsTerminated();
+	}
+
+	/**
+	 * Creates the {@link WorkStealingTeam}.
+	 * 
+	 * @param teamSize Size of the {@link Team}.
+	 * @return {@link WorkStealingTeam}.
+	 */
+	private WorkStealingTeam createTeam(int teamSize) throws Exception {
+		TeamSourceStandAlone standAlone = new TeamSourceStandAlone();
+		standAlone.setThreadDecorator((thread) -> this.teamThreads.add(thread));
+		standAlone.setTeamSize(teamSize);
+		return (WorkStealingTeam) standAlone.loadTeam(WorkStealingTeamSource.class);
+	}
+
+	/**
+	 * Asserts all {@link Team} threads are terminated.
+	 */
+	private void assertThreadsTerminated() throws Exception {
+		this.waitForTrue(() -> {
+			for (Thread thread : this.teamThreads) {
+				if (!State.TERMINATED.equals(thread.getState())) {
+					return false;
+				}
+			}
+			return true;
+		});
+	}
+
+	/**
+	 * Runs the test on the {@link WorkStealingTeam}.
+	 * 
+	 * @param teamMemberCount Count of workers in the team.
+	 * @param taskCount       Number of tasks.
+	 */
+	private void workStealingTest(int teamMemberCount, int taskCount) throws Exception {
+
+		// Create the team and start it working
+		WorkStealingTeam team = this.createTeam(teamMemberCount);
+		team.startWorking();
+
+		// Ensure have appropriate number of threads
+		assertEquals("Incorrect number of threads", teamMemberCount, this.teamThreads.size());
+
+		// Wait some time before assigning tasks (so team members park)
+		try {
+			Thread.sleep(10);
+		} catch (InterruptedException ex) {
+			fail("Failed to wait before assigning tasks");
+		}
+
+		// Assign tasks and wait on them to be started for execution
+		MockJob[] tasks = new MockJob[taskCount];
+		for (int i = 0; i < taskCount; i++) {
+			tasks[i] = new MockJob();
+			tasks[i].assignJobToTeam(team, 10);
+		}
+
+		// Stop processing (should have all threads finished)
+		team.stopWorking();
+		this.assertThreadsTerminated();
+
+		// Should have invoked each task once
+		for (int i = 0; i < tasks.length; i++) {
+			assertEquals("Should have invoked task " + i + " once", 1, tasks[i].doTaskInvocationCount);
+		}
+	}
+
+}
@@ -0,0 +1,43 @@
+/*-
+ * #%L
+ * OfficeFrame
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.frame.impl.spi.team.stress;
+
+import net.officefloor.frame.api.team.Team;
+import net.officefloor.frame.impl.spi.team.WorkStealingTeamSource;
+import net.officefloor.frame.util.TeamSourceStandAlone;
+
+/**
+ * Stress tests the {@link WorkStealingTeamSource}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class WorkStealingTeamStressTest extends AbstractTeamStressTest {
+
+	@Override
+	protected Team getTeamToTest() throws Exception {
+		TeamSourceStandAlone standAlone = new TeamSourceStandAlone();
+		standAlone.addProperty("name", "TEST");
+		standAlone.addProperty("size", "10");
+		return standAlone.loadTeam(WorkStealingTeamSource.class);
+	}
+
+}
@@ -1,6 +1,6 @@
 /*-
  * #%L
- * Default OfficeFloor HTTP Server
+ * HTTP Server
  * %%
  * Copyright (C) 2005 - 2020 Daniel Sagenschneider
  * %%
@@ -21,8 +21,10 @@
 
 package net.officefloor.server.buffer;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CoderResult;
@@ -229,6 +231,66 @@ public class StreamBufferByteSequence implements ByteSequence, CharSequence {
 		this.sequenceLength += length;
 	}
 
+	/**
+	 * Appends the content of another {@link StreamBufferByteSequence} to this
+	 * {@link ByteSequence}.
+	 * 
+	 * @param sequence {@link StreamBufferByteSequence} to append to this
+	 *                 {@link ByteSequence}.
+	 */
+	public void appendByteSequence(StreamBufferByteSequence sequence) {
+		StreamSegment segment = sequence.head;
+		while (segment != null) {
+			this.appendStreamBuffer(segment.buffer, segment.offset, segment.length);
+			segment = segment.next;
+		}
+	}
+
+	/**
+	 * Writes the content of this {@link ByteSequence} to the
+	 * {@link WritableByteChannel}.
+	 * 
+	 * @param channel {@link WritableByteChannel} to receive the content.
+	 * @throws IOException If fails to write the content.
+	 */
+	public void writeTo(WritableByteChannel channel) throws IOException {
+		StreamSegment segment = this.head;
+		while (segment != null) {
+			if (segment.length > 0) {
+
+				// Write the segment (without changing the pooled buffer)
+				ByteBuffer data = segment.buffer.pooledBuffer.duplicate();
+				BufferJvmFix.limit(data, segment.offset + segment.length);
+				BufferJvmFix.position(data, segment.offset);
+				while (data.hasRemaining()) {
+					channel.write(data);
+				}
+			}
+			segment = segment.next;
+		}
+	}
+
+	/**
+	 * Copies the content of this {@link ByteSequence} into the byte array.
+	 * 
+	 * @param bytes  Byte array to receive the content.
+	 * @param offset Offset within the byte array to copy the content.
+	 */
+	public void writeTo(byte[] bytes, int offset) {
+		StreamSegment segment = this.head;
+		while (segment != null) {
+			if (segment.length > 0) {
+
+				// Copy the segment (without changing the pooled buffer)
+				ByteBuffer data = segment.buffer.pooledBuffer.duplicate();
+				BufferJvmFix.position(data, segment.offset);
+				data.get(bytes, offset, segment.length);
+				offset += segment.length;
+			}
+			segment = segment.next;
+		}
+	}
+
 	/**
 	 * Trims this {@link ByteSequence} of outer HTTP spaces and tabs.
 	 * 
@@ -1,6 +1,6 @@
 /*-
  * #%L
- * Default OfficeFloor HTTP Server
+ * HTTP Server
  * %%
  * Copyright (C) 2005 - 2020 Daniel Sagenschneider
  * %%
@@ -478,6 +478,52 @@ public class StreamBufferScanner {
 		return null;
 	}
 
+	/**
+	 * <p>
+	 * Scans the bytes currently available, up to the maximum number of bytes.
+	 * <p>
+	 * This allows consuming content as it arrives (e.g. spilling a large HTTP
+	 * entity to file), rather than waiting on all bytes to be available.
+	 * 
+	 * @param maxNumberOfBytes Maximum number of bytes to scan.
+	 * @return {@link StreamBufferByteSequence} to the available bytes. Otherwise,
+	 *         <code>null</code> if no bytes available.
+	 */
+	public StreamBufferByteSequence scanAvailableBytes(long maxNumberOfBytes) {
+
+		// Determine the number of available bytes
+		long availableBytes = 0;
+		for (int i = 0; i < this.previousBuffers.size(); i++) {
+			int bufferStart = (i == 0) ? this.firstPreviousBufferStart : 0;
+			availableBytes += BufferJvmFix.position(this.previousBuffers.get(i).pooledBuffer) - bufferStart;
+		}
+		if (this.currentBuffer != null) {
+			availableBytes += BufferJvmFix.position(this.currentBuffer.pooledBuffer)
+					- this.currentBufferStartPosition;
+		}
+
+		// Determine number of bytes to scan
+		long numberOfBytes = Math.min(Math.min(availableBytes, maxNumberOfBytes), Integer.MAX_VALUE);
+		if (numberOfBytes <= 0) {
+			return null; // no bytes available
+		}
+
+		// Return the available bytes
+		return this.createByteSequence((int) numberOfBytes);
+	}
+
+	/**
+	 * Indicates if all content of previous {@link StreamBuffer} instances has been
+	 * consumed. In other words, only the current {@link StreamBuffer} is still
+	 * referenced for further scanning.
+	 * 
+	 * @return <code>true</code> if only the current {@link StreamBuffer} is
+	 *         referenced.
+	 */
+	public boolean isOnlyCurrentBuffer() {
+		return this.previousBuffers.size() == 0;
+	}
+
 	/**
 	 * <p>
 	 * Scans the {@link StreamBuffer} for the byte value from the current position.
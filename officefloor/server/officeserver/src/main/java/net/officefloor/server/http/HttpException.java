@@ -44,11 +44,6 @@ public class HttpException extends RuntimeException {
 	 */
 	private static final long serialVersionUID = 1L;
 
-	/**
-	 * {@link HttpHeader} space.
-	 */
-	private static byte[] SPACE = " ".getBytes(ServerHttpConnection.HTTP_CHARSET);
-
 	/**
 	 * {@link HttpHeader} end of line encoded bytes.
 	 */
@@ -197,10 +192,7 @@ public class HttpException extends RuntimeException {
 			StreamBufferPool<B> bufferPool) {
 
 		// Write the status line
-		version.write(head, bufferPool);
-		StreamBuffer.write(SPACE, head, bufferPool);
-		this.status.write(head, bufferPool);
-		StreamBuffer.write(HEADER_EOLN, head, bufferPool);
+		this.status.writeStatusLine(version, head, bufferPool);
 
 		// Write the headers
 		for (int i = 0; i < this.headers.length; i++) {
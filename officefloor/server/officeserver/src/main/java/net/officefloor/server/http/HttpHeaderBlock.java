@@ -0,0 +1,174 @@
+/*-
+ * #%L
+ * HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.server.http;
+
+import java.io.ByteArrayOutputStream;
+
+import net.officefloor.server.stream.StreamBuffer;
+import net.officefloor.server.stream.StreamBufferPool;
+
+/**
+ * <p>
+ * Block of fixed {@link HttpHeader} instances for a {@link HttpResponse}.
+ * <p>
+ * The {@link HttpHeader} instances are pre-encoded into a single block of HTTP
+ * bytes, so that writing the block is a single copy rather than writing each
+ * {@link HttpHeader} name and value separately. This is useful for responses
+ * where the {@link HttpHeader} instances do not change between requests (e.g.
+ * static resources, health checks, acknowledgements). Dynamic
+ * {@link HttpHeader} instances (e.g. <code>Date</code>,
+ * <code>Content-Length</code>) continue to be written for each
+ * {@link HttpResponse}.
+ * <p>
+ * The {@link HttpHeaderBlock} is immutable, so may be shared across
+ * {@link HttpResponse} instances.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class HttpHeaderBlock {
+
+	/**
+	 * : then space encoded bytes.
+	 */
+	private static byte[] COLON_SPACE = ": ".getBytes(ServerHttpConnection.HTTP_CHARSET);
+
+	/**
+	 * {@link HttpHeader} end of line encoded bytes.
+	 */
+	private static byte[] HEADER_EOLN = "\r\n".getBytes(ServerHttpConnection.HTTP_CHARSET);
+
+	/**
+	 * Head {@link WritableHttpHeader} to the linked list of
+	 * {@link WritableHttpHeader} instances of this {@link HttpHeaderBlock}.
+	 */
+	private final WritableHttpHeader head;
+
+	/**
+	 * Pre-encoded bytes of all {@link HttpHeader} instances.
+	 */
+	private final byte[] encodedBlock;
+
+	/**
+	 * Instantiate.
+	 * 
+	 * @param headers {@link HttpHeader} instances for the block.
+	 * @throws IllegalArgumentException If {@link HttpHeader} is written by the
+	 *                                  {@link HttpResponseWriter} (e.g.
+	 *                                  <code>Content-Length</code>).
+	 */
+	public HttpHeaderBlock(HttpHeader... headers) throws IllegalArgumentException {
+
+		// Pre-encode the headers
+		ByteArrayOutputStream block = new ByteArrayOutputStream();
+		for (HttpHeader header : headers) {
+			String name = header.getName().toLowerCase(); // case insensitive
+			switch (name) {
+			case "content-type":
+			case "content-length":
+			case "transfer-encoding":
+				throw new IllegalArgumentException(
+						"May not include " + name + " in " + HttpHeaderBlock.class.getSimpleName());
+			}
+			byte[] encodedName = name.getBytes(ServerHttpConnection.HTTP_CHARSET);
+			byte[] encodedValue = header.getValue().getBytes(ServerHttpConnection.HTTP_CHARSET);
+			block.write(encodedName, 0, encodedName.length);
+			block.write(COLON_SPACE, 0, COLON_SPACE.length);
+			block.write(encodedValue, 0, encodedValue.length);
+			block.write(HEADER_EOLN, 0, HEADER_EOLN.length);
+		}
+		this.encodedBlock = block.toByteArray();
+
+		// Create the linked list (first header writes the block)
+		WritableHttpHeader head = null;
+		for (int i = headers.length - 1; i >= 0; i--) {
+			HttpHeader header = headers[i];
+			BlockHttpHeader blockHeader = new BlockHttpHeader(header.getName(), header.getValue(),
+					(i == 0) ? this.encodedBlock : null);
+			blockHeader.next = head;
+			head = blockHeader;
+		}
+		this.head = head;
+	}
+
+	/**
+	 * Obtains the head {@link WritableHttpHeader} to the linked list of
+	 * {@link WritableHttpHeader} instances of this {@link HttpHeaderBlock}.
+	 * <p>
+	 * {@link HttpResponseWriter} implementations that do not write the
+	 * {@link WritableHttpHeader} instances as HTTP bytes (e.g. HTTP/2) may
+	 * continue to use the individual {@link HttpHeader} names and values.
+	 * 
+	 * @return Head {@link WritableHttpHeader}. May be <code>null</code> if empty
+	 *         {@link HttpHeaderBlock}.
+	 */
+	public WritableHttpHeader getWritableHttpHeaders() {
+		return this.head;
+	}
+
+	/**
+	 * Obtains the number of bytes of the encoded {@link HttpHeaderBlock}.
+	 * 
+	 * @return Number of bytes of the encoded {@link HttpHeaderBlock}.
+	 */
+	public int getEncodedLength() {
+		return this.encodedBlock.length;
+	}
+
+	/**
+	 * {@link WritableHttpHeader} within the {@link HttpHeaderBlock}.
+	 */
+	private static class BlockHttpHeader extends WritableHttpHeader {
+
+		/**
+		 * Pre-encoded bytes of the {@link HttpHeaderBlock}. Only the first
+		 * {@link BlockHttpHeader} writes the {@link HttpHeaderBlock}, with the
+		 * remaining {@link BlockHttpHeader} instances writing nothing.
+		 */
+		private final byte[] encodedBlock;
+
+		/**
+		 * Instantiate.
+		 * 
+		 * @param name         {@link HttpHeader} name.
+		 * @param value        {@link HttpHeader} value.
+		 * @param encodedBlock Pre-encoded bytes of the {@link HttpHeaderBlock}.
+		 *                     <code>null</code> if not first {@link HttpHeader}.
+		 */
+		private BlockHttpHeader(String name, String value, byte[] encodedBlock) {
+			super(new HttpHeaderName(name), new HttpHeaderValue(value));
+			this.encodedBlock = encodedBlock;
+		}
+
+		/*
+		 * ================= WritableHttpHeader ===================
+		 */
+
+		@Override
+		public <B> void write(StreamBuffer<B> head, StreamBufferPool<B> bufferPool) {
+			if (this.encodedBlock != null) {
+				StreamBuffer.write(this.encodedBlock, head, bufferPool);
+			}
+		}
+	}
+
+}
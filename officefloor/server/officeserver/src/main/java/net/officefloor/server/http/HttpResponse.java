@@ -90,6 +90,45 @@ public interface HttpResponse {
 	 */
 	HttpResponseCookies getCookies();
 
+	/**
+	 * <p>
+	 * Obtains the {@link HttpHeaderBlock}.
+	 * <p>
+	 * By default, {@link HttpHeaderBlock} instances are not supported, so
+	 * returns <code>null</code>.
+	 * 
+	 * @return {@link HttpHeaderBlock}. May be <code>null</code> if no
+	 *         {@link HttpHeaderBlock} specified.
+	 */
+	default HttpHeaderBlock getHeaderBlock() {
+		return null;
+	}
+
+	/**
+	 * <p>
+	 * Specifies the {@link HttpHeaderBlock} of fixed {@link HttpHeader}
+	 * instances to include in addition to the {@link HttpResponseHeaders}.
+	 * <p>
+	 * As the {@link HttpHeaderBlock} is pre-encoded, this avoids the cost of
+	 * writing each {@link HttpHeader} for responses with the same
+	 * {@link HttpHeader} instances.
+	 * <p>
+	 * By default, {@link HttpHeaderBlock} instances are not supported. Clearing
+	 * is ignored, while specifying a {@link HttpHeaderBlock} fails (rather than
+	 * silently dropping its {@link HttpHeader} instances).
+	 * 
+	 * @param headerBlock
+	 *            {@link HttpHeaderBlock}. May be <code>null</code> to clear.
+	 * @throws UnsupportedOperationException
+	 *             If {@link HttpHeaderBlock} not supported.
+	 */
+	default void setHeaderBlock(HttpHeaderBlock headerBlock) throws UnsupportedOperationException {
+		if (headerBlock != null) {
+			throw new UnsupportedOperationException(
+					HttpHeaderBlock.class.getSimpleName() + " not supported by " + this.getClass().getName());
+		}
+	}
+
 	/**
 	 * <p>
 	 * Specifies the <code>Content-Type</code> and optionally the
@@ -0,0 +1,63 @@
+/*-
+ * #%L
+ * HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.server.http;
+
+import net.officefloor.server.stream.StreamBuffer;
+
+/**
+ * Writes the entity content of a streamed {@link HttpResponse}.
+ * 
+ * @param <B>
+ *            Type of buffer.
+ * @author Daniel Sagenschneider
+ */
+public interface HttpResponseStreamWriter<B> {
+
+	/**
+	 * Writes further entity content of the {@link HttpResponse}.
+	 * 
+	 * @param contentHeadStreamBuffer
+	 *            Head {@link StreamBuffer} to the linked list of
+	 *            {@link StreamBuffer} instances containing the further entity
+	 *            content. May be <code>null</code> if no further content.
+	 * @param contentLength
+	 *            Number of bytes in the further entity content.
+	 * @param isComplete
+	 *            <code>true</code> if this completes the {@link HttpResponse}.
+	 */
+	void write(StreamBuffer<B> contentHeadStreamBuffer, long contentLength, boolean isComplete);
+
+	/**
+	 * <p>
+	 * Aborts the streamed {@link HttpResponse}.
+	 * <p>
+	 * As content is already sent to the client, the {@link HttpResponse} can not
+	 * be completed normally (as the client would consider the truncated content
+	 * as complete). Therefore, the connection (or stream) is aborted so the
+	 * client is aware of the failure.
+	 * 
+	 * @param cause
+	 *            Cause of aborting the {@link HttpResponse}.
+	 */
+	void abort(Throwable cause);
+
+}
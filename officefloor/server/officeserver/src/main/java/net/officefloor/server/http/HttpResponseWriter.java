@@ -61,4 +61,36 @@ public interface HttpResponseWriter<B> {
 			WritableHttpCookie headHttpCookie, long contentLength, HttpHeaderValue contentType,
 			StreamBuffer<B> contentHeadStreamBuffer);
 
+	/**
+	 * <p>
+	 * Commits to streaming the {@link HttpResponse}.
+	 * <p>
+	 * As the entity content is not known in full, the returned
+	 * {@link HttpResponseStreamWriter} is used to write the entity content as it
+	 * becomes available.
+	 * 
+	 * @param version
+	 *            {@link HttpVersion}.
+	 * @param status
+	 *            {@link HttpStatus}.
+	 * @param headHttpHeader
+	 *            Head {@link WritableHttpHeader} to the linked list of
+	 *            {@link WritableHttpHeader} instances for the
+	 *            {@link HttpResponse}.
+	 * @param headHttpCookie
+	 *            Head {@link WritableHttpCookie} to the linked list of
+	 *            {@link WritableHttpCookie} instances for the
+	 *            {@link HttpResponse}.
+	 * @param contentType
+	 *            <code>Content-Type</code> of the HTTP entity.
+	 * @return {@link HttpResponseStreamWriter} to write the entity content.
+	 *         <code>null</code> if streaming is not supported, so that the
+	 *         entity content is to be written in full with
+	 *         {@link #writeHttpResponse(HttpVersion, HttpStatus, WritableHttpHeader, WritableHttpCookie, long, HttpHeaderValue, StreamBuffer)}.
+	 */
+	default HttpResponseStreamWriter<B> streamHttpResponse(HttpVersion version, HttpStatus status,
+			WritableHttpHeader headHttpHeader, WritableHttpCookie headHttpCookie, HttpHeaderValue contentType) {
+		return null; // by default, streaming not supported
+	}
+
 }
@@ -21,6 +21,7 @@
 
 package net.officefloor.server.http;
 
+import net.officefloor.server.http.HttpVersion.HttpVersionEnum;
 import net.officefloor.server.stream.StreamBuffer;
 import net.officefloor.server.stream.StreamBufferPool;
 
@@ -389,6 +390,11 @@ public class HttpStatus {
 	 */
 	private final byte[] byteContent;
 
+	/**
+	 * HTTP encoded <code>HTTP/1.1</code> status line for this {@link HttpStatus}.
+	 */
+	private final byte[] http11StatusLine;
+
 	/**
 	 * {@link HttpStatusEnum}.
 	 */
@@ -420,6 +426,8 @@ public class HttpStatus {
 		this.statusCode = statusCode;
 		this.statusMessage = statusMessage;
 		this.byteContent = (this.statusCode + " " + this.statusMessage).getBytes(ServerHttpConnection.HTTP_CHARSET);
+		this.http11StatusLine = ("HTTP/1.1 " + this.statusCode + " " + this.statusMessage + "\r\n")
+				.getBytes(ServerHttpConnection.HTTP_CHARSET);
 		this.httpStatusEnum = httpStatusEnum;
 	}
 
@@ -476,6 +484,35 @@ public class HttpStatus {
 		StreamBuffer.write(this.byteContent, head, bufferPool);
 	}
 
+	/**
+	 * <p>
+	 * Writes the status line (including end of line) for this {@link HttpStatus}
+	 * to the {@link StreamBuffer}.
+	 * <p>
+	 * The <code>HTTP/1.1</code> status line is pre-encoded, so is written in a
+	 * single copy.
+	 * 
+	 * @param <B>
+	 *            Buffer type.
+	 * @param version
+	 *            {@link HttpVersion}.
+	 * @param head
+	 *            Head {@link StreamBuffer} of the linked list of
+	 *            {@link StreamBuffer} instances.
+	 * @param bufferPool
+	 *            {@link StreamBufferPool}.
+	 */
+	public <B> void writeStatusLine(HttpVersion version, StreamBuffer<B> head, StreamBufferPool<B> bufferPool) {
+		if (version.getEnum() == HttpVersionEnum.HTTP_1_1) {
+			StreamBuffer.write(this.http11StatusLine, head, bufferPool);
+		} else {
+			int statusLineStart = this.http11StatusLine.length - this.byteContent.length - 3;
+			version.write(head, bufferPool);
+			StreamBuffer.write(this.http11StatusLine, statusLineStart, this.http11StatusLine.length - statusLineStart,
+					head, bufferPool);
+		}
+	}
+
 	/*
 	 * ================= Object ===============
 	 */
@@ -0,0 +1,276 @@
+/*-
+ * #%L
+ * HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.server.http.compress;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+import net.officefloor.server.http.HttpHeaderBlock;
+import net.officefloor.server.http.HttpHeaderValue;
+import net.officefloor.server.http.HttpResponseStreamWriter;
+import net.officefloor.server.http.HttpResponseWriter;
+import net.officefloor.server.http.HttpStatus;
+import net.officefloor.server.http.HttpVersion;
+import net.officefloor.server.http.WritableHttpCookie;
+import net.officefloor.server.http.WritableHttpHeader;
+import net.officefloor.server.stream.StreamBuffer;
+import net.officefloor.server.stream.StreamBufferPool;
+
+/**
+ * {@link HttpResponseWriter} that compresses the entity before writing it to
+ * the delegate {@link HttpResponseWriter}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+class CompressingHttpResponseWriter implements HttpResponseWriter<ByteBuffer> {
+
+	/**
+	 * Prefix of a weak <code>ETag</code>.
+	 */
+	private static final String WEAK_ETAG_PREFIX = "W/";
+
+	/**
+	 * {@link HttpResponseCompression}.
+	 */
+	private final HttpResponseCompression compression;
+
+	/**
+	 * Negotiated <code>Content-Encoding</code>.
+	 */
+	private final HttpHeaderValue contentEncoding;
+
+	/**
+	 * Delegate {@link HttpResponseWriter}.
+	 */
+	private final HttpResponseWriter<ByteBuffer> delegate;
+
+	/**
+	 * {@link StreamBufferPool}.
+	 */
+	private final StreamBufferPool<ByteBuffer> bufferPool;
+
+	/**
+	 * Instantiate.
+	 * 
+	 * @param compression     {@link HttpResponseCompression}.
+	 * @param contentEncoding Negotiated <code>Content-Encoding</code>.
+	 * @param delegate        Delegate {@link HttpResponseWriter}.
+	 * @param bufferPool      {@link StreamBufferPool}.
+	 */
+	CompressingHttpResponseWriter(HttpResponseCompression compression, HttpHeaderValue contentEncoding,
+			HttpResponseWriter<ByteBuffer> delegate, StreamBufferPool<ByteBuffer> bufferPool) {
+		this.compression = compression;
+		this.contentEncoding = contentEncoding;
+		this.delegate = delegate;
+		this.bufferPool = bufferPool;
+	}
+
+	/**
+	 * <p>
+	 * Adapts the {@link WritableHttpHeader} instances for the compressed
+	 * representation.
+	 * <p>
+	 * A strong <code>ETag</code> identifies the exact bytes of the uncompressed
+	 * representation, so is weakened. Byte ranges are of the uncompressed
+	 * representation, so <code>Accept-Ranges</code> is removed.
+	 * <p>
+	 * The {@link WritableHttpHeader} instances may be shared (e.g.
+	 * {@link HttpHeaderBlock}), so are copied rather than modified.
+	 * 
+	 * @param httpHeader Head {@link WritableHttpHeader}.
+	 * @return Head {@link WritableHttpHeader} for the compressed representation.
+	 */
+	private static WritableHttpHeader adaptRepresentationHeaders(WritableHttpHeader httpHeader) {
+
+		// Determine if headers require adapting
+		boolean isAdapt = false;
+		for (WritableHttpHeader header = httpHeader; (!isAdapt) && (header != null); header = header.next) {
+			isAdapt = isAcceptRanges(header) || isStrongETag(header);
+		}
+		if (!isAdapt) {
+			return httpHeader; // use headers as is
+		}
+
+		// Copy the headers (weakening ETag and removing Accept-Ranges)
+		WritableHttpHeader head = null;
+		WritableHttpHeader tail = null;
+		for (WritableHttpHeader header = httpHeader; header != null; header = header.next) {
+			if (isAcceptRanges(header)) {
+				continue; // not support ranges of compressed representation
+			}
+			String value = header.getValue();
+			WritableHttpHeader copy = new WritableHttpHeader(header.getName(),
+					isStrongETag(header) ? WEAK_ETAG_PREFIX + value : value);
+			if (head == null) {
+				head = copy;
+			} else {
+				tail.next = copy;
+			}
+			tail = copy;
+		}
+		return head;
+	}
+
+	/**
+	 * Determines if <code>Accept-Ranges</code> {@link WritableHttpHeader}.
+	 * 
+	 * @param header {@link WritableHttpHeader}.
+	 * @return <code>true</code> if <code>Accept-Ranges</code>.
+	 */
+	private static boolean isAcceptRanges(WritableHttpHeader header) {
+		return HttpResponseCompression.isName(header.getName(), "accept-ranges");
+	}
+
+	/**
+	 * Determines if strong <code>ETag</code> {@link WritableHttpHeader}.
+	 * 
+	 * @param header {@link WritableHttpHeader}.
+	 * @return <code>true</code> if strong <code>ETag</code>.
+	 */
+	private static boolean isStrongETag(WritableHttpHeader header) {
+		return HttpResponseCompression.isName(header.getName(), "etag")
+				&& (!header.getValue().startsWith(WEAK_ETAG_PREFIX));
+	}
+
+	/**
+	 * Prepends the compression {@link WritableHttpHeader} instances.
+	 * 
+	 * @param httpHeader Head {@link WritableHttpHeader}.
+	 * @return Head {@link WritableHttpHeader} including the compression
+	 *         {@link WritableHttpHeader} instances.
+	 */
+	private WritableHttpHeader prependCompressionHeaders(WritableHttpHeader httpHeader) {
+
+		// Compressed entity is a different representation of the resource
+		httpHeader = adaptRepresentationHeaders(httpHeader);
+
+		// Prepend the compression headers
+		WritableHttpHeader vary = new WritableHttpHeader(HttpResponseCompression.VARY_NAME,
+				HttpResponseCompression.VARY_VALUE);
+		vary.next = httpHeader;
+		WritableHttpHeader encoding = new WritableHttpHeader(HttpResponseCompression.CONTENT_ENCODING_NAME,
+				this.contentEncoding);
+		encoding.next = vary;
+		return encoding;
+	}
+
+	/*
+	 * ===================== HttpResponseWriter ========================
+	 */
+
+	@Override
+	public void writeHttpResponse(HttpVersion version, HttpStatus status, WritableHttpHeader headHttpHeader,
+			WritableHttpCookie headHttpCookie, long contentLength, HttpHeaderValue contentType,
+			StreamBuffer<ByteBuffer> contentHeadStreamBuffer) {
+
+		// Determine if compress the response
+		if ((contentHeadStreamBuffer == null) || (!this.compression.isCompress(status, headHttpHeader,
+				contentLength, contentType, contentHeadStreamBuffer))) {
+			this.delegate.writeHttpResponse(version, status, headHttpHeader, headHttpCookie, contentLength,
+					contentType, contentHeadStreamBuffer);
+			return;
+		}
+
+		// Compress the entity
+		EntityCompressor compressor = this.compression.getThreadEntityCompressor(this.contentEncoding);
+		compressor.start(this.bufferPool);
+		try {
+			compressor.compress(contentHeadStreamBuffer);
+		} catch (IOException ex) {
+			// Should not occur, as file content is not compressed
+			throw new UncheckedIOException(ex);
+		}
+		compressor.finish();
+		long compressedLength = compressor.getLength();
+		StreamBuffer<ByteBuffer> compressed = compressor.extract();
+
+		// Write the compressed response
+		this.delegate.writeHttpResponse(version, status, this.prependCompressionHeaders(headHttpHeader),
+				headHttpCookie, compressedLength, contentType, compressed);
+	}
+
+	@Override
+	public HttpResponseStreamWriter<ByteBuffer> streamHttpResponse(HttpVersion version, HttpStatus status,
+			WritableHttpHeader headHttpHeader, WritableHttpCookie headHttpCookie, HttpHeaderValue contentType) {
+
+		// Determine if compress the response
+		if (!this.compression.isCompress(status, headHttpHeader, -1, contentType, null)) {
+			return this.delegate.streamHttpResponse(version, status, headHttpHeader, headHttpCookie, contentType);
+		}
+
+		// Stream the compressed response
+		HttpResponseStreamWriter<ByteBuffer> streamWriter = this.delegate.streamHttpResponse(version, status,
+				this.prependCompressionHeaders(headHttpHeader), headHttpCookie, contentType);
+		if (streamWriter == null) {
+			return null; // streaming not supported (so written in full)
+		}
+
+		// Compress content as it is streamed
+		boolean isGzip = (this.contentEncoding == HttpResponseCompression.GZIP_VALUE);
+		EntityCompressor compressor = new EntityCompressor(this.compression.level, isGzip);
+		compressor.start(this.bufferPool);
+		return new HttpResponseStreamWriter<ByteBuffer>() {
+
+			@Override
+			public void write(StreamBuffer<ByteBuffer> content, long contentLength, boolean isComplete) {
+				try {
+					// Compress the content
+					compressor.compress(content);
+					if (isComplete) {
+						compressor.finish();
+						compressor.end();
+					} else {
+						compressor.flush();
+					}
+
+				} catch (IOException ex) {
+					compressor.end();
+					throw new UncheckedIOException(ex);
+				}
+
+				// Write the compressed content
+				long compressedLength = compressor.getLength();
+				StreamBuffer<ByteBuffer> compressed = compressor.extract();
+				streamWriter.write(compressed, compressedLength, isComplete);
+			}
+
+			@Override
+			public void abort(Throwable cause) {
+
+				// Discard the unsent compressed content
+				StreamBuffer<ByteBuffer> compressed = compressor.extract();
+				while (compressed != null) {
+					StreamBuffer<ByteBuffer> release = compressed;
+					compressed = compressed.next;
+					release.release();
+				}
+				compressor.end();
+
+				// Abort the response
+				streamWriter.abort(cause);
+			}
+		};
+	}
+
+}
@@ -0,0 +1,337 @@
+/*-
+ * #%L
+ * HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.server.http.compress;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import net.officefloor.server.stream.BufferJvmFix;
+import net.officefloor.server.stream.StreamBuffer;
+import net.officefloor.server.stream.StreamBuffer.FileBuffer;
+import net.officefloor.server.stream.StreamBufferPool;
+
+/**
+ * Compresses the {@link StreamBuffer} instances of an entity into pooled
+ * {@link StreamBuffer} instances.
+ * <p>
+ * Not {@link Thread} safe, so must only be used for one entity at a time.
+ * 
+ * @author Daniel Sagenschneider
+ */
+class EntityCompressor {
+
+	/**
+	 * <code>gzip</code> header (no file name, modification time or flags).
+	 */
+	private static final byte[] GZIP_HEADER = new byte[] { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0,
+			0 };
+
+	/**
+	 * Size of the buffers to transfer data through the {@link Deflater}.
+	 */
+	private static final int TRANSFER_SIZE = 8192;
+
+	/**
+	 * {@link Deflater}.
+	 */
+	private final Deflater deflater;
+
+	/**
+	 * Indicates if <code>gzip</code> (rather than <code>deflate</code>).
+	 */
+	private final boolean isGzip;
+
+	/**
+	 * {@link CRC32} for the <code>gzip</code> trailer.
+	 */
+	private final CRC32 crc = new CRC32();
+
+	/**
+	 * Transfers the input data to the {@link Deflater}.
+	 */
+	private final byte[] input = new byte[TRANSFER_SIZE];
+
+	/**
+	 * Receives the compressed data from the {@link Deflater}.
+	 */
+	private final byte[] output = new byte[TRANSFER_SIZE];
+
+	/**
+	 * {@link StreamBufferPool} for the compressed data.
+	 */
+	private StreamBufferPool<ByteBuffer> bufferPool;
+
+	/**
+	 * Head {@link StreamBuffer} of the compressed data.
+	 */
+	private StreamBuffer<ByteBuffer> head;
+
+	/**
+	 * Tail {@link StreamBuffer} of the compressed data.
+	 */
+	private StreamBuffer<ByteBuffer> tail;
+
+	/**
+	 * Number of bytes of compressed data.
+	 */
+	private long length;
+
+	/**
+	 * Instantiate.
+	 * 
+	 * @param level  Compression level.
+	 * @param isGzip Indicates if <code>gzip</code> (rather than
+	 *               <code>deflate</code>).
+	 */
+	EntityCompressor(int level, boolean isGzip) {
+		this.deflater = new Deflater(level, isGzip); // gzip provides own wrapping
+		this.isGzip = isGzip;
+	}
+
+	/**
+	 * Starts compressing a new entity.
+	 * 
+	 * @param bufferPool {@link StreamBufferPool} for the compressed data.
+	 */
+	void start(StreamBufferPool<ByteBuffer> bufferPool) {
+		this.bufferPool = bufferPool;
+		this.deflater.reset();
+		this.crc.reset();
+		this.head = null;
+		this.tail = null;
+		this.length = 0;
+		if (this.isGzip) {
+			this.writeCompressed(GZIP_HEADER, GZIP_HEADER.length);
+		}
+	}
+
+	/**
+	 * Compresses the content. The content {@link StreamBuffer} instances are
+	 * released once compressed.
+	 * 
+	 * @param content Head {@link StreamBuffer} of the content. May be
+	 *                <code>null</code>.
+	 * @throws IOException If fails to read file content.
+	 */
+	void compress(StreamBuffer<ByteBuffer> content) throws IOException {
+		while (content != null) {
+			StreamBuffer<ByteBuffer> buffer = content;
+			content = content.next; // obtain before release
+
+			// Compress the buffer data
+			if (buffer.pooledBuffer != null) {
+				ByteBuffer data = buffer.pooledBuffer;
+				BufferJvmFix.flip(data);
+				this.compress(data);
+
+			} else if (buffer.unpooledByteBuffer != null) {
+				this.compress(buffer.unpooledByteBuffer.duplicate());
+
+			} else {
+				this.compress(buffer.fileBuffer);
+			}
+
+			// Compressed, so release
+			buffer.release();
+		}
+	}
+
+	/**
+	 * Flushes the compressed data, so the client may decompress all content
+	 * provided so far.
+	 */
+	void flush() {
+		int bytes;
+		do {
+			bytes = this.deflater.deflate(this.output, 0, this.output.length, Deflater.SYNC_FLUSH);
+			this.writeCompressed(this.output, bytes);
+		} while (bytes == this.output.length);
+	}
+
+	/**
+	 * Finishes compressing the entity.
+	 */
+	void finish() {
+
+		// Complete compression
+		this.deflater.finish();
+		while (!this.deflater.finished()) {
+			int bytes = this.deflater.deflate(this.output, 0, this.output.length);
+			this.writeCompressed(this.output, bytes);
+		}
+
+		// Provide the gzip trailer
+		if (this.isGzip) {
+			byte[] trailer = this.output;
+			writeInt((int) this.crc.getValue(), trailer, 0);
+			writeInt(this.deflater.getTotalIn(), trailer, 4);
+			this.writeCompressed(trailer, 8);
+		}
+	}
+
+	/**
+	 * Obtains the number of bytes of compressed data since last extracted.
+	 * 
+	 * @return Number of bytes of compressed data.
+	 */
+	long getLength() {
+		return this.length;
+	}
+
+	/**
+	 * Extracts the compressed data.
+	 * 
+	 * @return Head {@link StreamBuffer} of the compressed data. May be
+	 *         <code>null</code> if no compressed data.
+	 */
+	StreamBuffer<ByteBuffer> extract() {
+		StreamBuffer<ByteBuffer> compressed = this.head;
+		this.head = null;
+		this.tail = null;
+		this.length = 0;
+		return compressed;
+	}
+
+	/**
+	 * Releases the {@link Deflater}, as no longer to be used.
+	 */
+	void end() {
+		this.deflater.end();
+	}
+
+	/**
+	 * Compresses the data.
+	 * 
+	 * @param data {@link ByteBuffer} containing the data between its position and
+	 *             limit.
+	 */
+	private void compress(ByteBuffer data) {
+		if (data.hasArray()) {
+			// Compress directly from the array
+			int offset = data.arrayOffset() + BufferJvmFix.position(data);
+			int length = data.remaining();
+			this.compress(data.array(), offset, length);
+			BufferJvmFix.position(data, BufferJvmFix.limit(data));
+
+		} else {
+			// Transfer data for compressing
+			while (data.hasRemaining()) {
+				int length = Math.min(data.remaining(), this.input.length);
+				data.get(this.input, 0, length);
+				this.compress(this.input, 0, length);
+			}
+		}
+	}
+
+	/**
+	 * Compresses the file content.
+	 * 
+	 * @param fileBuffer {@link FileBuffer}.
+	 * @throws IOException If fails to read the file.
+	 */
+	private void compress(FileBuffer fileBuffer) throws IOException {
+
+		// Read the file content for compressing
+		long position = fileBuffer.position;
+		long end = (fileBuffer.count < 0) ? fileBuffer.file.size() : (fileBuffer.position + fileBuffer.count);
+		ByteBuffer transfer = ByteBuffer.wrap(this.input);
+		while (position < end) {
+			BufferJvmFix.clear(transfer);
+			BufferJvmFix.limit(transfer, (int) Math.min(this.input.length, end - position));
+			int bytesRead = fileBuffer.file.read(transfer, position);
+			if (bytesRead < 0) {
+				break; // end of file
+			}
+			position += bytesRead;
+			this.compress(this.input, 0, bytesRead);
+		}
+
+		// Notify file content written
+		if (fileBuffer.callback != null) {
+			fileBuffer.callback.complete(fileBuffer.file, true);
+		}
+	}
+
+	/**
+	 * Compresses the data.
+	 * 
+	 * @param data   Data.
+	 * @param offset Offset into the data.
+	 * @param length Length of the data.
+	 */
+	private void compress(byte[] data, int offset, int length) {
+		if (this.isGzip) {
+			this.crc.update(data, offset, length);
+		}
+		this.deflater.setInput(data, offset, length);
+		while (!this.deflater.needsInput()) {
+			int bytes = this.deflater.deflate(this.output, 0, this.output.length);
+			this.writeCompressed(this.output, bytes);
+		}
+	}
+
+	/**
+	 * Writes the compressed data to the pooled {@link StreamBuffer} instances.
+	 * 
+	 * @param data   Compressed data.
+	 * @param length Length of the compressed data.
+	 */
+	private void writeCompressed(byte[] data, int length) {
+		int offset = 0;
+		while (offset < length) {
+
+			// Ensure have buffer to write
+			if (this.tail == null) {
+				this.head = this.bufferPool.getPooledStreamBuffer();
+				this.tail = this.head;
+			}
+
+			// Write the data (moving to next buffer if full)
+			int written = this.tail.write(data, offset, length - offset);
+			offset += written;
+			this.length += written;
+			if (offset < length) {
+				StreamBuffer<ByteBuffer> next = this.bufferPool.getPooledStreamBuffer();
+				this.tail.next = next;
+				this.tail = next;
+			}
+		}
+	}
+
+	/**
+	 * Writes the integer in little endian order.
+	 * 
+	 * @param value  Value.
+	 * @param data   Data to receive the value.
+	 * @param offset Offset into the data.
+	 */
+	private static void writeInt(int value, byte[] data, int offset) {
+		data[offset] = (byte) value;
+		data[offset + 1] = (byte) (value >> 8);
+		data[offset + 2] = (byte) (value >> 16);
+		data[offset + 3] = (byte) (value >> 24);
+	}
+
+}
@@ -0,0 +1,320 @@
+/*-
+ * #%L
+ * HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.server.http.compress;
+
+import java.nio.ByteBuffer;
+
+import net.officefloor.server.http.HttpHeader;
+import net.officefloor.server.http.HttpHeaderName;
+import net.officefloor.server.http.HttpHeaderValue;
+import net.officefloor.server.http.HttpResponse;
+import net.officefloor.server.http.HttpResponseWriter;
+import net.officefloor.server.http.HttpStatus;
+import net.officefloor.server.http.WritableHttpHeader;
+import net.officefloor.server.http.impl.NonMaterialisedHttpHeader;
+import net.officefloor.server.http.impl.NonMaterialisedHttpHeaders;
+import net.officefloor.server.stream.StreamBuffer;
+import net.officefloor.server.stream.StreamBufferPool;
+
+/**
+ * Negotiates compressing the {@link HttpResponse} entity with
+ * <code>gzip</code> or <code>deflate</code> (via <code>Accept-Encoding</code>).
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class HttpResponseCompression {
+
+	/**
+	 * <code>Content-Encoding</code> {@link HttpHeaderName}.
+	 */
+	static final HttpHeaderName CONTENT_ENCODING_NAME = new HttpHeaderName("Content-Encoding");
+
+	/**
+	 * <code>Vary</code> {@link HttpHeaderName}.
+	 */
+	static final HttpHeaderName VARY_NAME = new HttpHeaderName("Vary");
+
+	/**
+	 * <code>Accept-Encoding</code> {@link HttpHeaderValue} for <code>Vary</code>.
+	 */
+	static final HttpHeaderValue VARY_VALUE = new HttpHeaderValue("Accept-Encoding");
+
+	/**
+	 * <code>gzip</code> {@link HttpHeaderValue}.
+	 */
+	static final HttpHeaderValue GZIP_VALUE = new HttpHeaderValue("gzip");
+
+	/**
+	 * <code>deflate</code> {@link HttpHeaderValue}.
+	 */
+	static final HttpHeaderValue DEFLATE_VALUE = new HttpHeaderValue("deflate");
+
+	/**
+	 * Prefixes of <code>Content-Type</code> values that are already compressed.
+	 */
+	private static final String[] COMPRESSED_CONTENT_TYPES = new String[] { "image/", "video/", "audio/",
+			"font/woff", "application/zip", "application/gzip", "application/x-gzip", "application/x-compress",
+			"application/x-bzip2", "application/x-7z-compressed", "application/x-rar-compressed",
+			"application/octet-stream", "application/pdf" };
+
+	/**
+	 * <code>Content-Type</code> values of the compressed prefixes that are
+	 * compressible.
+	 */
+	private static final String[] COMPRESSIBLE_CONTENT_TYPES = new String[] { "image/svg+xml", "image/x-icon",
+			"image/bmp" };
+
+	/**
+	 * Obtains the negotiated <code>Content-Encoding</code>.
+	 * 
+	 * @param requestHeaders {@link NonMaterialisedHttpHeaders} of the request.
+	 * @return {@link #GZIP_VALUE}, {@link #DEFLATE_VALUE} or <code>null</code> if
+	 *         client does not accept a supported encoding.
+	 */
+	public static HttpHeaderValue negotiateContentEncoding(NonMaterialisedHttpHeaders requestHeaders) {
+
+		// Determine the quality of each encoding
+		float gzip = -1;
+		float deflate = -1;
+		float any = -1;
+		for (NonMaterialisedHttpHeader header : requestHeaders) {
+			if (!isName(header.getName(), "accept-encoding")) {
+				continue;
+			}
+
+			// Parse the accepted encodings
+			HttpHeader acceptEncoding = header.materialiseHttpHeader();
+			for (String coding : acceptEncoding.getValue().split(",")) {
+
+				// Obtain the encoding and its quality
+				String[] parameters = coding.split(";");
+				String encoding = parameters[0].trim().toLowerCase();
+				float quality = 1;
+				for (int i = 1; i < parameters.length; i++) {
+					String parameter = parameters[i].trim();
+					if ((parameter.length() > 2) && (Character.toLowerCase(parameter.charAt(0)) == 'q')
+							&& (parameter.charAt(1) == '=')) {
+						try {
+							quality = Float.parseFloat(parameter.substring(2).trim());
+						} catch (NumberFormatException ex) {
+							quality = 0; // invalid, so do not use
+						}
+					}
+				}
+
+				// Load the quality
+				switch (encoding) {
+				case "gzip":
+				case "x-gzip":
+					gzip = Math.max(gzip, quality);
+					break;
+				case "deflate":
+					deflate = Math.max(deflate, quality);
+					break;
+				case "*":
+					any = Math.max(any, quality);
+					break;
+				}
+			}
+		}
+
+		// Wild card applies to encodings not specified
+		if (gzip < 0) {
+			gzip = any;
+		}
+		if (deflate < 0) {
+			deflate = any;
+		}
+
+		// Prefer gzip (being more widely supported)
+		if ((gzip > 0) && (gzip >= deflate)) {
+			return GZIP_VALUE;
+		} else if (deflate > 0) {
+			return DEFLATE_VALUE;
+		}
+		return null; // no acceptable encoding
+	}
+
+	/**
+	 * Determines if the <code>Content-Type</code> is worth compressing (i.e. is
+	 * not already compressed).
+	 * 
+	 * @param contentType <code>Content-Type</code>. May be <code>null</code>.
+	 * @return <code>true</code> if compressible.
+	 */
+	public static boolean isCompressibleContentType(String contentType) {
+		if (contentType == null) {
+			return true;
+		}
+		String type = contentType.toLowerCase();
+		boolean isCompressed = false;
+		for (int i = 0; (!isCompressed) && (i < COMPRESSED_CONTENT_TYPES.length); i++) {
+			isCompressed = type.startsWith(COMPRESSED_CONTENT_TYPES[i]);
+		}
+		for (int i = 0; (isCompressed) && (i < COMPRESSIBLE_CONTENT_TYPES.length); i++) {
+			isCompressed = !type.startsWith(COMPRESSIBLE_CONTENT_TYPES[i]);
+		}
+		return !isCompressed;
+	}
+
+	/**
+	 * Determines if the name matches (ignoring case).
+	 * 
+	 * @param name          Name.
+	 * @param lowerCaseName Lower case name to match.
+	 * @return <code>true</code> if the name matches.
+	 */
+	static boolean isName(CharSequence name, String lowerCaseName) {
+		if (name.length() != lowerCaseName.length()) {
+			return false;
+		}
+		for (int i = 0; i < name.length(); i++) {
+			if (Character.toLowerCase(name.charAt(i)) != lowerCaseName.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Minimum number of bytes of the entity to compress.
+	 */
+	private final long minimumSize;
+
+	/**
+	 * Compression level.
+	 */
+	final int level;
+
+	/**
+	 * {@link EntityCompressor} instances for the {@link Thread}.
+	 */
+	private final ThreadLocal<EntityCompressor[]> threadCompressors = ThreadLocal
+			.withInitial(() -> new EntityCompressor[2]);
+
+	/**
+	 * Instantiate.
+	 * 
+	 * @param minimumSize Minimum number of bytes of the entity to compress.
+	 *                    Smaller entities are not worth the overhead of
+	 *                    compression.
+	 * @param level       Compression level (0-9, or <code>-1</code> for
+	 *                    default).
+	 */
+	public HttpResponseCompression(long minimumSize, int level) {
+		this.minimumSize = minimumSize;
+		this.level = level;
+	}
+
+	/**
+	 * Creates the {@link HttpResponseWriter} to compress the {@link HttpResponse}
+	 * entity.
+	 * 
+	 * @param requestHeaders {@link NonMaterialisedHttpHeaders} of the request.
+	 * @param delegate       Delegate {@link HttpResponseWriter}.
+	 * @param bufferPool     {@link StreamBufferPool} for the compressed entity.
+	 * @return {@link HttpResponseWriter} to compress the entity, or the delegate
+	 *         if the client does not accept compression.
+	 */
+	public HttpResponseWriter<ByteBuffer> createHttpResponseWriter(NonMaterialisedHttpHeaders requestHeaders,
+			HttpResponseWriter<ByteBuffer> delegate, StreamBufferPool<ByteBuffer> bufferPool) {
+
+		// Determine if client accepts compression
+		HttpHeaderValue contentEncoding = negotiateContentEncoding(requestHeaders);
+		if (contentEncoding == null) {
+			return delegate; // no compression
+		}
+
+		// Compress the response
+		return new CompressingHttpResponseWriter(this, contentEncoding, delegate, bufferPool);
+	}
+
+	/**
+	 * Determines if compress the {@link HttpResponse}.
+	 * 
+	 * @param status        {@link HttpStatus}.
+	 * @param httpHeader    Head {@link WritableHttpHeader}.
+	 * @param contentLength Length of the entity. <code>-1</code> if streaming.
+	 * @param contentType   <code>Content-Type</code>. May be <code>null</code>.
+	 * @param content       Head {@link StreamBuffer} of the entity.
+	 *                      <code>null</code> if streaming.
+	 * @return <code>true</code> to compress the {@link HttpResponse}.
+	 */
+	boolean isCompress(HttpStatus status, WritableHttpHeader httpHeader, long contentLength,
+			HttpHeaderValue contentType, StreamBuffer<ByteBuffer> content) {
+
+		// Only compress entity of successful full responses
+		int statusCode = status.getStatusCode();
+		if ((statusCode < 200) || (statusCode == 204) || (statusCode == 206) || (statusCode == 304)) {
+			return false;
+		}
+
+		// Determine if too small to compress
+		if ((contentLength >= 0) && (contentLength < this.minimumSize)) {
+			return false;
+		}
+
+		// Determine if already compressed content
+		if ((contentType != null) && (!isCompressibleContentType(contentType.getValue()))) {
+			return false;
+		}
+
+		// Do not compress already encoded content (or partial content)
+		while (httpHeader != null) {
+			String name = httpHeader.getName();
+			if (isName(name, "content-encoding") || isName(name, "content-range")) {
+				return false;
+			}
+			httpHeader = httpHeader.next;
+		}
+
+		// Files are served from their own (possibly pre-compressed) content
+		while (content != null) {
+			if (content.fileBuffer != null) {
+				return false;
+			}
+			content = content.next;
+		}
+
+		// Compress the response
+		return true;
+	}
+
+	/**
+	 * Obtains the {@link EntityCompressor} for the {@link Thread}.
+	 * 
+	 * @param contentEncoding <code>Content-Encoding</code>.
+	 * @return {@link EntityCompressor} for the {@link Thread}.
+	 */
+	EntityCompressor getThreadEntityCompressor(HttpHeaderValue contentEncoding) {
+		EntityCompressor[] compressors = this.threadCompressors.get();
+		int index = (contentEncoding == GZIP_VALUE) ? 0 : 1;
+		EntityCompressor compressor = compressors[index];
+		if (compressor == null) {
+			compressor = new EntityCompressor(this.level, (index == 0));
+			compressors[index] = compressor;
+		}
+		return compressor;
+	}
+
+}
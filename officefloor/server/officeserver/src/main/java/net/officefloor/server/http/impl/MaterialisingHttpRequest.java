@@ -75,14 +75,9 @@ public class MaterialisingHttpRequest implements HttpRequest {
 	private final HttpRequestCookies cookies;
 
 	/**
-	 * {@link ByteSequence} for the HTTP entity.
+	 * {@link ServerInputStream} to the HTTP entity.
 	 */
-	private final ByteSequence entity;
-
-	/**
-	 * {@link ByteSequenceServerInputStream}.
-	 */
-	private final ByteSequenceServerInputStream entityStream;
+	private final ServerInputStream entityStream;
 
 	/**
 	 * Instantiate.
@@ -102,13 +97,35 @@ public class MaterialisingHttpRequest implements HttpRequest {
 	 */
 	public MaterialisingHttpRequest(Supplier<HttpMethod> methodSupplier, Supplier<String> requestUriSupplier,
 			HttpVersion version, HttpRequestHeaders headers, HttpRequestCookies cookies, ByteSequence entity) {
+		this(methodSupplier, requestUriSupplier, version, headers, cookies,
+				new ByteSequenceServerInputStream(entity, 0));
+	}
+
+	/**
+	 * Instantiate with a streamed HTTP entity.
+	 * 
+	 * @param methodSupplier
+	 *            {@link Supplier} for the {@link HttpMethod}.
+	 * @param requestUriSupplier
+	 *            {@link Supplier} for the request URI.
+	 * @param version
+	 *            {@link HttpVersion}.
+	 * @param headers
+	 *            {@link HttpRequestHeaders}.
+	 * @param cookies
+	 *            {@link HttpRequestCookies}.
+	 * @param entityStream
+	 *            {@link ServerInputStream} to the HTTP entity.
+	 */
+	public MaterialisingHttpRequest(Supplier<HttpMethod> methodSupplier, Supplier<String> requestUriSupplier,
+			HttpVersion version, HttpRequestHeaders headers, HttpRequestCookies cookies,
+			ServerInputStream entityStream) {
 		this.methodSupplier = methodSupplier;
 		this.requestUriSupplier = requestUriSupplier;
 		this.version = version;
 		this.headers = headers;
 		this.cookies = cookies;
-		this.entity = entity;
-		this.entityStream = new ByteSequenceServerInputStream(this.entity, 0);
+		this.entityStream = entityStream;
 	}
 
 	/*
@@ -37,11 +37,13 @@ import net.officefloor.server.http.HttpEscalationContext;
 import net.officefloor.server.http.HttpEscalationHandler;
 import net.officefloor.server.http.HttpException;
 import net.officefloor.server.http.HttpHeader;
+import net.officefloor.server.http.HttpHeaderBlock;
 import net.officefloor.server.http.HttpHeaderName;
 import net.officefloor.server.http.HttpHeaderValue;
 import net.officefloor.server.http.HttpResponse;
 import net.officefloor.server.http.HttpResponseCookies;
 import net.officefloor.server.http.HttpResponseHeaders;
+import net.officefloor.server.http.HttpResponseStreamWriter;
 import net.officefloor.server.http.HttpResponseWriter;
 import net.officefloor.server.http.HttpStatus;
 import net.officefloor.server.http.HttpVersion;
@@ -51,6 +53,7 @@ import net.officefloor.server.stream.ServerOutputStream;
 import net.officefloor.server.stream.ServerWriter;
 import net.officefloor.server.stream.impl.BufferPoolServerOutputStream;
 import net.officefloor.server.stream.impl.CloseHandler;
+import net.officefloor.server.stream.impl.FlushHandler;
 import net.officefloor.server.stream.impl.ProcessAwareServerOutputStream;
 import net.officefloor.server.stream.impl.ProcessAwareServerWriter;
 
@@ -59,7 +62,7 @@ import net.officefloor.server.stream.impl.ProcessAwareServerWriter;
  * 
  * @author Daniel Sagenschneider
  */
-public class ProcessAwareHttpResponse<B> implements HttpResponse, CloseHandler {
+public class ProcessAwareHttpResponse<B> implements HttpResponse, CloseHandler, FlushHandler {
 
 	/**
 	 * <code>Server</code> {@link HttpHeaderName}.
@@ -111,6 +114,11 @@ public class ProcessAwareHttpResponse<B> implements HttpResponse, CloseHandler {
 	 */
 	private ProcessAwareHttpResponseCookies cookies;
 
+	/**
+	 * {@link HttpHeaderBlock}. May be <code>null</code>.
+	 */
+	private HttpHeaderBlock headerBlock = null;
+
 	/**
 	 * {@link BufferPoolServerOutputStream}.
 	 */
@@ -163,6 +171,24 @@ public class ProcessAwareHttpResponse<B> implements HttpResponse, CloseHandler {
 	 */
 	private boolean isWritten = false;
 
+	/**
+	 * {@link HttpResponseStreamWriter} once committed to streaming this
+	 * {@link HttpResponse}. Will be <code>null</code> if not streaming.
+	 */
+	private HttpResponseStreamWriter<B> streamWriter = null;
+
+	/**
+	 * Indicates if the {@link HttpResponseWriter} supports streaming the
+	 * {@link HttpResponse}.
+	 */
+	private boolean isStreamingSupported = true;
+
+	/**
+	 * Number of bytes of the entity already streamed to the
+	 * {@link HttpResponseStreamWriter}.
+	 */
+	private long streamedContentLength = 0;
+
 	/**
 	 * Instantiate.
 	 * 
@@ -177,7 +203,8 @@ public class ProcessAwareHttpResponse<B> implements HttpResponse, CloseHandler {
 		this.version = version;
 		this.headers = new ProcessAwareHttpResponseHeaders(managedObjectContext);
 		this.cookies = new ProcessAwareHttpResponseCookies(managedObjectContext);
-		this.bufferPoolOutputStream = new BufferPoolServerOutputStream<>(this.serverHttpConnection.bufferPool, this);
+		this.bufferPoolOutputStream = new BufferPoolServerOutputStream<>(this.serverHttpConnection.bufferPool, this,
+				this);
 		this.safeOutputStream = new ProcessAwareServerOutputStream(this.bufferPoolOutputStream, managedObjectContext);
 		this.managedObjectContext = managedObjectContext;
 	}
@@ -233,6 +260,39 @@ public class ProcessAwareHttpResponse<B> implements HttpResponse, CloseHandler {
 			return; // already written
 		}
 
+		// Determine if complete the streamed response
+		if (this.streamWriter != null) {
+
+			// Determine if escalation
+			if ((escalation != null) || (this.cleanupEscalations != null)) {
+
+				// Content already on the wire, so discard unsent content
+				this.bufferPoolOutputStream.clear();
+				this.isSent = true;
+
+				// Log the response (before abort, as request may then be released)
+				this.serverHttpConnection.logAccess(this.status, this.streamedContentLength);
+
+				// Abort, as completing would have client consider content complete
+				this.isWritten = true;
+				this.streamWriter.abort(
+						(escalation != null) ? escalation : new CleanupException(this.cleanupEscalations));
+				return;
+			}
+
+			// Ensure send
+			this.unsafeSend();
+
+			// Log the response (before write, as request may then be released)
+			long contentLength = this.bufferPoolOutputStream.getContentLength();
+			this.serverHttpConnection.logAccess(this.status, this.streamedContentLength + contentLength);
+
+			// Write the remaining content (and consider written)
+			this.isWritten = true;
+			this.streamWriter.write(this.bufferPoolOutputStream.extractBuffers(), contentLength, true);
+			return;
+		}
+
 		// Determine if clean up escalation
 		if ((escalation == null) && (this.cleanupEscalations != null)) {
 			// No escalation, but clean up escalation
@@ -337,8 +397,27 @@ public class ProcessAwareHttpResponse<B> implements HttpResponse, CloseHandler {
 			this.status = HttpStatus.NO_CONTENT;
 		}
 
-		// Obtain the headers
-		WritableHttpHeader httpHeaders = this.headers.getWritableHttpHeaders();
+		// Log the response (before write, as request may then be released)
+		this.serverHttpConnection.logAccess(this.status, contentLength);
+
+		// Write the response (and consider written)
+		this.isWritten = true;
+		this.serverHttpConnection.httpResponseWriter.writeHttpResponse(this.version, this.status,
+				this.getWritableHttpHeaders(), this.cookies.getWritableHttpCookie(), contentLength, contentType,
+				this.bufferPoolOutputStream.getBuffers());
+	}
+
+	/**
+	 * Obtains the {@link WritableHttpHeader} instances for the
+	 * {@link HttpResponse}.
+	 * 
+	 * @return Head {@link WritableHttpHeader} to the linked list of
+	 *         {@link WritableHttpHeader} instances.
+	 */
+	private WritableHttpHeader getWritableHttpHeaders() {
+
+		// Obtain the headers (followed by the header block)
+		WritableHttpHeader httpHeaders = this.headers.getWritableHttpHeaders(this.headerBlock);
 
 		// Date HTTP header (if specified)
 		DateHttpHeaderClock clock = this.serverHttpConnection.dateHttpHeaderClock;
@@ -357,11 +436,42 @@ public class ProcessAwareHttpResponse<B> implements HttpResponse, CloseHandler {
 			httpHeaders = serverHeader;
 		}
 
-		// Write the response (and consider written)
-		this.isWritten = true;
-		this.serverHttpConnection.httpResponseWriter.writeHttpResponse(this.version, this.status, httpHeaders,
-				this.cookies.getWritableHttpCookie(), contentLength, contentType,
-				this.bufferPoolOutputStream.getBuffers());
+		// Return the headers
+		return httpHeaders;
+	}
+
+	/**
+	 * Unsafe flush of the content to the client.
+	 * 
+	 * @throws IOException If fails to flush content.
+	 */
+	private void unsafeFlushToClient() throws IOException {
+
+		// Commit to streaming the response (on first flush)
+		if (this.streamWriter == null) {
+
+			// Determine if able to stream
+			if (!this.isStreamingSupported) {
+				return; // content sent on completing response
+			}
+
+			// Commit to streaming the response
+			this.streamWriter = this.serverHttpConnection.httpResponseWriter.streamHttpResponse(this.version,
+					this.status, this.getWritableHttpHeaders(), this.cookies.getWritableHttpCookie(),
+					this.deriveContentType());
+			if (this.streamWriter == null) {
+				// Not supported, so content sent on completing response
+				this.isStreamingSupported = false;
+				return;
+			}
+		}
+
+		// Stream the content written so far
+		long contentLength = this.bufferPoolOutputStream.getContentLength();
+		if (contentLength > 0) {
+			this.streamWriter.write(this.bufferPoolOutputStream.extractBuffers(), contentLength, false);
+			this.streamedContentLength += contentLength;
+		}
 	}
 
 	/**
@@ -397,6 +507,7 @@ public class ProcessAwareHttpResponse<B> implements HttpResponse, CloseHandler {
 		this.status = HttpStatus.OK;
 		this.headers = new ProcessAwareHttpResponseHeaders(this.managedObjectContext);
 		this.cookies = new ProcessAwareHttpResponseCookies(this.managedObjectContext);
+		this.headerBlock = null;
 
 		// Release writing content
 		this.contentType = null;
@@ -432,7 +543,7 @@ public class ProcessAwareHttpResponse<B> implements HttpResponse, CloseHandler {
 	 * @throws IOException If not able to change.
 	 */
 	private void allowContentTypeChange() throws IOException {
-		if (this.entityWriter != null) {
+		if ((this.entityWriter != null) || (this.streamWriter != null)) {
 			throw new IOException("Can not change Content-Type. Committed to writing "
 					+ this.deriveContentType().getValue() + " (charset " + this.charset.name() + ")");
 		}
@@ -489,6 +600,16 @@ public class ProcessAwareHttpResponse<B> implements HttpResponse, CloseHandler {
 		return this.cookies;
 	}
 
+	@Override
+	public HttpHeaderBlock getHeaderBlock() {
+		return this.safe(() -> this.headerBlock);
+	}
+
+	@Override
+	public void setHeaderBlock(HttpHeaderBlock headerBlock) {
+		this.safe(() -> this.headerBlock = headerBlock);
+	}
+
 	@Override
 	public void setContentType(String contentType, Charset charset) throws IOException {
 		this.safe(() -> {
@@ -574,8 +695,8 @@ public class ProcessAwareHttpResponse<B> implements HttpResponse, CloseHandler {
 	public void reset() throws IOException {
 		this.safe(() -> {
 
-			// Ensure not written
-			if (this.isSent) {
+			// Ensure not written (nor committed to streaming)
+			if ((this.isSent) || (this.streamWriter != null)) {
 				throw new IOException("Already committed to send response");
 			}
 
@@ -599,6 +720,22 @@ public class ProcessAwareHttpResponse<B> implements HttpResponse, CloseHandler {
 		});
 	}
 
+	/*
+	 * ======================= FlushHandler =================================
+	 */
+
+	@Override
+	public void flushToClient() throws IOException {
+		this.safe(() -> {
+
+			// Flush to client
+			this.unsafeFlushToClient();
+
+			// Void return
+			return null;
+		});
+	}
+
 	/*
 	 * ======================= CloseHandler =================================
 	 */
@@ -29,11 +29,13 @@ import net.officefloor.frame.api.managedobject.ManagedObjectContext;
 import net.officefloor.frame.api.managedobject.ProcessSafeOperation;
 import net.officefloor.frame.internal.structure.ProcessState;
 import net.officefloor.server.http.HttpHeader;
+import net.officefloor.server.http.HttpHeaderBlock;
 import net.officefloor.server.http.HttpHeaderName;
 import net.officefloor.server.http.HttpHeaderValue;
 import net.officefloor.server.http.HttpResponseHeaders;
 import net.officefloor.server.http.HttpResponseWriter;
 import net.officefloor.server.http.WritableHttpHeader;
+import net.officefloor.server.stream.impl.ProcessSafeOperations;
 
 /**
  * {@link ProcessState} aware {@link HttpResponseHeaders}.
@@ -78,6 +80,43 @@ public class ProcessAwareHttpResponseHeaders implements HttpResponseHeaders {
 		return this.head;
 	}
 
+	/**
+	 * <p>
+	 * Obtains the head {@link WritableHttpHeader} to the linked list of
+	 * {@link WritableHttpHeader} instances for the {@link HttpResponseWriter},
+	 * followed by the {@link HttpHeaderBlock} {@link WritableHttpHeader}
+	 * instances.
+	 * <p>
+	 * The {@link HttpHeaderBlock} is linked after the tail, so is not visible to
+	 * the {@link HttpResponseHeaders}.
+	 * 
+	 * @param headerBlock {@link HttpHeaderBlock}. May be <code>null</code>.
+	 * @return Head {@link WritableHttpHeader} to the linked list of
+	 *         {@link WritableHttpHeader} instances for the
+	 *         {@link HttpResponseWriter}. May be <code>null</code>.
+	 */
+	public WritableHttpHeader getWritableHttpHeaders(HttpHeaderBlock headerBlock) {
+		WritableHttpHeader blockHead = (headerBlock == null) ? null : headerBlock.getWritableHttpHeaders();
+		if (this.tail == null) {
+			return blockHead; // no headers
+		}
+		this.tail.next = blockHead;
+		return this.head;
+	}
+
+	/**
+	 * Obtains the next {@link WritableHttpHeader} (stopping at the tail, so not
+	 * including the linked {@link HttpHeaderBlock}).
+	 * 
+	 * @param current Current {@link WritableHttpHeader}. <code>null</code> to
+	 *                obtain the head.
+	 * @return Next {@link WritableHttpHeader} or <code>null</code> if no further
+	 *         {@link WritableHttpHeader}.
+	 */
+	private WritableHttpHeader nextHttpHeader(WritableHttpHeader current) {
+		return (current == null) ? this.head : ((current == this.tail) ? null : current.next);
+	}
+
 	/**
 	 * Removes the {@link HttpHeader}.
 	 * 
@@ -90,25 +129,27 @@ public class ProcessAwareHttpResponseHeaders implements HttpResponseHeaders {
 		// Determine if first
 		if (header == this.head) {
 			// Drop the first
-			this.head = this.head.next;
-			if (this.head == null) {
+			if (this.head == this.tail) {
+				this.head = null;
 				this.tail = null; // only header
+			} else {
+				this.head = this.head.next;
 			}
 			return null; // removed first (no previous)
 
 		} else {
 			// Find previous
 			WritableHttpHeader prev = this.head;
-			while (prev.next != header) {
-				prev = prev.next;
-				if (prev == null) {
-					throw new NoSuchElementException();
-				}
+			while ((prev != null) && ((prev == this.tail) || (prev.next != header))) {
+				prev = this.nextHttpHeader(prev);
+			}
+			if (prev == null) {
+				throw new NoSuchElementException();
 			}
 
 			// Drop the current (moving out of linked list)
 			prev.next = header.next;
-			if (prev.next == null) {
+			if (header == this.tail) {
 				// Removed last, so update list
 				this.tail = prev;
 			}
@@ -124,30 +165,28 @@ public class ProcessAwareHttpResponseHeaders implements HttpResponseHeaders {
 	 * @throws T Potential {@link Throwable} from {@link ProcessSafeOperation}.
 	 */
 	private final <R, T extends Throwable> R safe(ProcessSafeOperation<R, T> operation) throws T {
-		return this.context.run(operation);
+		return ProcessSafeOperations.safe(this.context, operation);
 	}
 
 	/**
-	 * Safely adds a {@link HttpHeader}.
+	 * Adds a {@link HttpHeader} (requires {@link ProcessState} safety).
 	 * 
 	 * @param headerName  {@link HttpHeaderName}.
 	 * @param headerValue {@link HttpHeaderValue}.
 	 * @return Added {@link HttpHeader}.
 	 */
-	private final HttpHeader safeAddHeader(HttpHeaderName headerName, HttpHeaderValue headerValue) {
-		return this.safe(() -> {
-			WritableHttpHeader header = new WritableHttpHeader(headerName, headerValue);
-			if (this.head == null) {
-				// First header
-				this.head = header;
-				this.tail = header;
-			} else {
-				// Append the header
-				this.tail.next = header;
-				this.tail = header;
-			}
-			return header;
-		});
+	private final HttpHeader unsafeAddHeader(HttpHeaderName headerName, HttpHeaderValue headerValue) {
+		WritableHttpHeader header = new WritableHttpHeader(headerName, headerValue);
+		if (this.head == null) {
+			// First header
+			this.head = header;
+			this.tail = header;
+		} else {
+			// Append the header
+			this.tail.next = header;
+			this.tail = header;
+		}
+		return header;
 	}
 
 	/**
@@ -162,27 +201,18 @@ public class ProcessAwareHttpResponseHeaders implements HttpResponseHeaders {
 
 			@Override
 			public boolean hasNext() {
-				return (this.current == null ? (ProcessAwareHttpResponseHeaders.this.head != null)
-						: (this.current.next != null));
+				return ProcessAwareHttpResponseHeaders.this.nextHttpHeader(this.current) != null;
 			}
 
 			@Override
 			public WritableHttpHeader next() {
 
-				// Determine if first
-				if (this.current == null) {
-					this.current = ProcessAwareHttpResponseHeaders.this.head;
-					if (this.current == null) {
-						throw new NoSuchElementException();
-					}
-					return this.current;
-				}
-
 				// Obtain next (ensuring exists)
-				if (this.current.next == null) {
+				WritableHttpHeader next = ProcessAwareHttpResponseHeaders.this.nextHttpHeader(this.current);
+				if (next == null) {
 					throw new NoSuchElementException();
 				}
-				this.current = this.current.next;
+				this.current = next;
 				return this.current;
 			}
 
@@ -265,22 +295,22 @@ public class ProcessAwareHttpResponseHeaders implements HttpResponseHeaders {
 
 	@Override
 	public HttpHeader addHeader(String name, String value) throws IllegalArgumentException {
-		return this.safeAddHeader(new HttpHeaderName(name), new HttpHeaderValue(value));
+		return this.safe(() -> this.unsafeAddHeader(new HttpHeaderName(name), new HttpHeaderValue(value)));
 	}
 
 	@Override
 	public HttpHeader addHeader(HttpHeaderName name, String value) throws IllegalArgumentException {
-		return this.safeAddHeader(name, new HttpHeaderValue(value));
+		return this.safe(() -> this.unsafeAddHeader(name, new HttpHeaderValue(value)));
 	}
 
 	@Override
 	public HttpHeader addHeader(String name, HttpHeaderValue value) throws IllegalArgumentException {
-		return this.safeAddHeader(new HttpHeaderName(name), value);
+		return this.safe(() -> this.unsafeAddHeader(new HttpHeaderName(name), value));
 	}
 
 	@Override
 	public HttpHeader addHeader(HttpHeaderName name, HttpHeaderValue value) throws IllegalArgumentException {
-		return this.safeAddHeader(name, value);
+		return this.safe(() -> this.unsafeAddHeader(name, value));
 	}
 
 	@Override
@@ -337,20 +367,14 @@ public class ProcessAwareHttpResponseHeaders implements HttpResponseHeaders {
 			public boolean hasNext() {
 
 				// Obtain the next header
-				WritableHttpHeader next;
-				if (this.current == null) {
-					// First header
-					next = ProcessAwareHttpResponseHeaders.this.head;
-				} else {
-					next = this.current.next;
-				}
+				WritableHttpHeader next = ProcessAwareHttpResponseHeaders.this.nextHttpHeader(this.current);
 
 				// Determine if further values
 				while (next != null) {
 					if (name.equalsIgnoreCase(next.getName())) {
 						return true;
 					}
-					next = next.next;
+					next = ProcessAwareHttpResponseHeaders.this.nextHttpHeader(next);
 				}
 				return false; // no further headers by name
 			}
@@ -359,13 +383,7 @@ public class ProcessAwareHttpResponseHeaders implements HttpResponseHeaders {
 			public HttpHeader next() {
 
 				// Obtain the next header
-				WritableHttpHeader next;
-				if (this.current == null) {
-					// First header
-					next = ProcessAwareHttpResponseHeaders.this.head;
-				} else {
-					next = this.current.next;
-				}
+				WritableHttpHeader next = ProcessAwareHttpResponseHeaders.this.nextHttpHeader(this.current);
 
 				// Move to next position
 				while (next != null) {
@@ -374,7 +392,7 @@ public class ProcessAwareHttpResponseHeaders implements HttpResponseHeaders {
 						this.current = next;
 						return this.current;
 					}
-					next = next.next;
+					next = ProcessAwareHttpResponseHeaders.this.nextHttpHeader(next);
 				}
 
 				// As here, no next header by name
@@ -21,7 +21,9 @@
 
 package net.officefloor.server.http.impl;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
 import java.util.function.Supplier;
 
@@ -42,10 +44,15 @@ import net.officefloor.server.http.HttpRequestHeaders;
 import net.officefloor.server.http.HttpResponse;
 import net.officefloor.server.http.HttpResponseWriter;
 import net.officefloor.server.http.HttpServerLocation;
+import net.officefloor.server.http.HttpStatus;
 import net.officefloor.server.http.HttpVersion;
 import net.officefloor.server.http.ServerHttpConnection;
+import net.officefloor.server.http.log.HttpAccessLog;
+import net.officefloor.server.stream.ServerInputStream;
 import net.officefloor.server.stream.StreamBufferPool;
+import net.officefloor.server.stream.impl.ByteArrayByteSequence;
 import net.officefloor.server.stream.impl.ByteSequence;
+import net.officefloor.server.stream.impl.ByteSequenceServerInputStream;
 
 /**
  * {@link ServerHttpConnection} implementation available for
@@ -91,7 +98,8 @@ public class ProcessAwareServerHttpConnectionManagedObject<B>
 	private final HttpRequest clientRequest;
 
 	/**
-	 * {@link HttpRequest} entity {@link ByteSequence}.
+	 * {@link HttpRequest} entity {@link ByteSequence}. Will be <code>null</code>
+	 * if the entity is streamed.
 	 */
 	private ByteSequence requestEntity;
 
@@ -133,6 +141,22 @@ public class ProcessAwareServerHttpConnectionManagedObject<B>
 	 */
 	private ManagedObjectContext managedObjectContext;
 
+	/**
+	 * {@link HttpAccessLog}. May be <code>null</code> if not logging.
+	 */
+	private HttpAccessLog accessLog = null;
+
+	/**
+	 * {@link System#nanoTime()} servicing started (for the {@link HttpAccessLog}).
+	 */
+	private long accessLogStartNanos;
+
+	/**
+	 * Raw request URI for the {@link HttpAccessLog}. May be <code>null</code> to
+	 * log the {@link HttpRequest} URI.
+	 */
+	private ByteSequence accessLogRequestUri = null;
+
 	/**
 	 * Instantiate.
 	 * 
@@ -167,6 +191,89 @@ public class ProcessAwareServerHttpConnectionManagedObject<B>
 			NonMaterialisedHttpHeaders requestHeaders, ByteSequence requestEntity, HttpHeaderValue serverName,
 			DateHttpHeaderClock dateHttpHeaderClock, boolean isIncludeStackTraceOnEscalation,
 			HttpResponseWriter<B> writer, StreamBufferPool<B> bufferPool) {
+		this(serverLocation, isSecure, methodSupplier, requestUriSupplier, version, requestHeaders, requestEntity,
+				new ByteSequenceServerInputStream(requestEntity, 0), serverName, dateHttpHeaderClock,
+				isIncludeStackTraceOnEscalation, writer, bufferPool);
+	}
+
+	/**
+	 * Instantiate with a streamed {@link HttpRequest} entity.
+	 * 
+	 * @param serverLocation                  {@link HttpServerLocation}.
+	 * @param isSecure                        Indicates if secure.
+	 * @param methodSupplier                  {@link Supplier} for the
+	 *                                        {@link HttpRequest}
+	 *                                        {@link HttpMethod}.
+	 * @param requestUriSupplier              {@link Supplier} for the
+	 *                                        {@link HttpRequest} URI.
+	 * @param version                         {@link HttpVersion} for the
+	 *                                        {@link HttpRequest}.
+	 * @param requestHeaders                  {@link NonMaterialisedHttpHeaders} for
+	 *                                        the {@link HttpRequest}.
+	 * @param requestEntityStream             {@link ServerInputStream} streaming
+	 *                                        the {@link HttpRequest} entity as it
+	 *                                        is received.
+	 * @param serverName                      Name of the server. May be
+	 *                                        <code>null</code> if not sending
+	 *                                        <code>Server</code>
+	 *                                        {@link HttpHeader}.
+	 * @param dateHttpHeaderClock             {@link DateHttpHeaderClock}. May be
+	 *                                        <code>null</code> to not send
+	 *                                        <code>Date</code> {@link HttpHeader}.
+	 * @param isIncludeStackTraceOnEscalation <code>true</code> to include the
+	 *                                        {@link Escalation} stack trace in the
+	 *                                        {@link HttpResponse}.
+	 * @param writer                          {@link HttpResponseWriter}.
+	 * @param bufferPool                      {@link StreamBufferPool}.
+	 */
+	public ProcessAwareServerHttpConnectionManagedObject(HttpServerLocation serverLocation, boolean isSecure,
+			Supplier<HttpMethod> methodSupplier, Supplier<String> requestUriSupplier, HttpVersion version,
+			NonMaterialisedHttpHeaders requestHeaders, ServerInputStream requestEntityStream,
+			HttpHeaderValue serverName, DateHttpHeaderClock dateHttpHeaderClock,
+			boolean isIncludeStackTraceOnEscalation, HttpResponseWriter<B> writer, StreamBufferPool<B> bufferPool) {
+		this(serverLocation, isSecure, methodSupplier, requestUriSupplier, version, requestHeaders, null,
+				requestEntityStream, serverName, dateHttpHeaderClock, isIncludeStackTraceOnEscalation, writer,
+				bufferPool);
+	}
+
+	/**
+	 * Instantiate.
+	 * 
+	 * @param serverLocation                  {@link HttpServerLocation}.
+	 * @param isSecure                        Indicates if secure.
+	 * @param methodSupplier                  {@link Supplier} for the
+	 *                                        {@link HttpRequest}
+	 *                                        {@link HttpMethod}.
+	 * @param requestUriSupplier              {@link Supplier} for the
+	 *                                        {@link HttpRequest} URI.
+	 * @param version                         {@link HttpVersion} for the
+	 *                                        {@link HttpRequest}.
+	 * @param requestHeaders                  {@link NonMaterialisedHttpHeaders} for
+	 *                                        the {@link HttpRequest}.
+	 * @param requestEntity                   {@link ByteSequence} for the
+	 *                                        {@link HttpRequest} entity. May be
+	 *                                        <code>null</code> if streamed.
+	 * @param requestEntityStream             {@link ServerInputStream} to the
+	 *                                        {@link HttpRequest} entity.
+	 * @param serverName                      Name of the server. May be
+	 *                                        <code>null</code> if not sending
+	 *                                        <code>Server</code>
+	 *                                        {@link HttpHeader}.
+	 * @param dateHttpHeaderClock             {@link DateHttpHeaderClock}. May be
+	 *                                        <code>null</code> to not send
+	 *                                        <code>Date</code> {@link HttpHeader}.
+	 * @param isIncludeStackTraceOnEscalation <code>true</code> to include the
+	 *                                        {@link Escalation} stack trace in the
+	 *                                        {@link HttpResponse}.
+	 * @param writer                          {@link HttpResponseWriter}.
+	 * @param bufferPool                      {@link StreamBufferPool}.
+	 */
+	private ProcessAwareServerHttpConnectionManagedObject(HttpServerLocation serverLocation, boolean isSecure,
+			Supplier<HttpMethod> methodSupplier, Supplier<String> requestUriSupplier, HttpVersion version,
+			NonMaterialisedHttpHeaders requestHeaders, ByteSequence requestEntity,
+			ServerInputStream requestEntityStream, HttpHeaderValue serverName,
+			DateHttpHeaderClock dateHttpHeaderClock, boolean isIncludeStackTraceOnEscalation,
+			HttpResponseWriter<B> writer, StreamBufferPool<B> bufferPool) {
 		this.serverLocation = serverLocation;
 
 		// Indicate if secure
@@ -176,7 +283,7 @@ public class ProcessAwareServerHttpConnectionManagedObject<B>
 		HttpRequestHeaders headers = new MaterialisingHttpRequestHeaders(requestHeaders);
 		HttpRequestCookies cookies = new MaterialisingHttpRequestCookies(headers);
 		this.request = new MaterialisingHttpRequest(methodSupplier, requestUriSupplier, version, headers, cookies,
-				requestEntity);
+				requestEntityStream);
 		this.clientRequest = this.request;
 		this.requestEntity = requestEntity;
 
@@ -188,6 +295,59 @@ public class ProcessAwareServerHttpConnectionManagedObject<B>
 		this.bufferPool = bufferPool;
 	}
 
+	/**
+	 * Specifies the {@link HttpAccessLog} to log the servicing of the
+	 * {@link HttpRequest}. Servicing is timed from this call.
+	 * 
+	 * @param accessLog {@link HttpAccessLog}. May be <code>null</code> to not log.
+	 */
+	public void setHttpAccessLog(HttpAccessLog accessLog) {
+		this.setHttpAccessLog(accessLog, null);
+	}
+
+	/**
+	 * Specifies the {@link HttpAccessLog} to log the servicing of the
+	 * {@link HttpRequest} from the raw request URI bytes. Servicing is timed from
+	 * this call.
+	 * 
+	 * @param accessLog     {@link HttpAccessLog}. May be <code>null</code> to not
+	 *                      log.
+	 * @param rawRequestUri {@link ByteSequence} of the raw request URI from the
+	 *                      request line. Must remain valid until the
+	 *                      {@link HttpResponse} is written. May be
+	 *                      <code>null</code> to log the {@link HttpRequest} URI.
+	 */
+	public void setHttpAccessLog(HttpAccessLog accessLog, ByteSequence rawRequestUri) {
+		this.accessLog = accessLog;
+		this.accessLogRequestUri = rawRequestUri;
+		if (accessLog != null) {
+			this.accessLogStartNanos = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Logs the written {@link HttpResponse} to the {@link HttpAccessLog} (if
+	 * configured).
+	 * 
+	 * @param status        {@link HttpStatus} of the {@link HttpResponse}.
+	 * @param contentLength Number of bytes in the {@link HttpResponse} entity.
+	 */
+	void logAccess(HttpStatus status, long contentLength) {
+		HttpAccessLog log = this.accessLog;
+		if (log != null) {
+			HttpRequest request = this.clientRequest;
+			ByteSequence rawRequestUri = this.accessLogRequestUri;
+			if ((rawRequestUri != null) && (request == this.request)) {
+				// Log from request line (avoids materialising the request URI)
+				log.log(request.getMethod(), rawRequestUri, request.getVersion(), status, contentLength,
+						this.accessLogStartNanos);
+			} else {
+				log.log(request.getMethod(), request.getUri(), request.getVersion(), status, contentLength,
+						this.accessLogStartNanos);
+			}
+		}
+	}
+
 	/**
 	 * Obtains the service {@link FlowCallback}.
 	 * 
@@ -251,7 +411,24 @@ public class ProcessAwareServerHttpConnectionManagedObject<B>
 
 	@Override
 	public Serializable exportState() throws IOException {
-		return new SerialisableHttpRequest(this.request, this.request.getCookies(), this.requestEntity);
+
+		// Obtain the entity
+		ByteSequence entity = this.requestEntity;
+		if (entity == null) {
+			// Streamed entity, so buffer remaining content for the state
+			ByteArrayOutputStream content = new ByteArrayOutputStream();
+			try (InputStream browse = this.request.getEntity().createBrowseInputStream()) {
+				byte[] buffer = new byte[4096];
+				int bytesRead;
+				while ((bytesRead = browse.read(buffer)) != -1) {
+					content.write(buffer, 0, bytesRead);
+				}
+			}
+			entity = new ByteArrayByteSequence(content.toByteArray());
+		}
+
+		// Export the state
+		return new SerialisableHttpRequest(this.request, this.request.getCookies(), entity);
 	}
 
 	@Override
@@ -0,0 +1,455 @@
+/*-
+ * #%L
+ * HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.server.http.log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.officefloor.server.http.HttpMethod;
+import net.officefloor.server.http.HttpRequest;
+import net.officefloor.server.http.HttpResponse;
+import net.officefloor.server.http.HttpStatus;
+import net.officefloor.server.http.HttpVersion;
+import net.officefloor.server.stream.impl.ByteSequence;
+
+/**
+ * <p>
+ * Asynchronous access log of {@link HttpRequest} servicing.
+ * <p>
+ * Logging a request only claims a pre-allocated {@link HttpAccessLogRecord}
+ * from a lock-free ring buffer and copies in the details. Formatting and
+ * writing is undertaken in batches by a single background writer thread, so
+ * never blocks nor allocates on the servicing path. Should the ring buffer be
+ * full, the entry is dropped (and counted) rather than blocking servicing.
+ * <p>
+ * The log file is rotated once it exceeds the maximum file size.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class HttpAccessLog {
+
+	/**
+	 * {@link Logger}.
+	 */
+	private static final Logger LOGGER = Logger.getLogger(HttpAccessLog.class.getName());
+
+	/**
+	 * Interval in nanoseconds the writer thread polls for further entries.
+	 */
+	private static final long POLL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+	/**
+	 * Maximum number of entries formatted into a single write.
+	 */
+	private static final int MAX_BATCH_SIZE = 1024;
+
+	/**
+	 * Path to the log file.
+	 */
+	private final Path file;
+
+	/**
+	 * {@link HttpAccessLogFormat}.
+	 */
+	private final HttpAccessLogFormat format;
+
+	/**
+	 * Size in bytes of the log file before it is rotated. Non-positive to not
+	 * rotate.
+	 */
+	private final long maxFileSize;
+
+	/**
+	 * Number of rotated log files to retain.
+	 */
+	private final int maxFiles;
+
+	/**
+	 * Pre-allocated {@link HttpAccessLogRecord} ring buffer.
+	 */
+	private final HttpAccessLogRecord[] records;
+
+	/**
+	 * Sequence published within each slot of the ring buffer.
+	 */
+	private final AtomicLongArray published;
+
+	/**
+	 * Mask to obtain the ring buffer slot for a sequence.
+	 */
+	private final int mask;
+
+	/**
+	 * Next sequence to be claimed by logging.
+	 */
+	private final AtomicLong claimSequence = new AtomicLong(0);
+
+	/**
+	 * Next sequence to be consumed by the writer thread.
+	 */
+	private volatile long consumeSequence = 0;
+
+	/**
+	 * Number of entries dropped due to the ring buffer being full.
+	 */
+	private final LongAdder dropped = new LongAdder();
+
+	/**
+	 * Indicates if running.
+	 */
+	private volatile boolean isRunning = false;
+
+	/**
+	 * Writer {@link Thread}.
+	 */
+	private Thread writer = null;
+
+	/**
+	 * {@link FileChannel} to the log file.
+	 */
+	private FileChannel channel = null;
+
+	/**
+	 * Instantiate.
+	 * 
+	 * @param file        Path to the log file.
+	 * @param format      {@link HttpAccessLogFormat}.
+	 * @param bufferSize  Number of entries within the ring buffer. Rounded up to
+	 *                    a power of two.
+	 * @param maxFileSize Size in bytes of the log file before it is rotated.
+	 *                    Non-positive to not rotate.
+	 * @param maxFiles    Number of rotated log files to retain.
+	 */
+	public HttpAccessLog(Path file, HttpAccessLogFormat format, int bufferSize, long maxFileSize, int maxFiles) {
+		this.file = file;
+		this.format = format;
+		this.maxFileSize = maxFileSize;
+		this.maxFiles = Math.max(1, maxFiles);
+
+		// Create the ring buffer
+		int capacity = Integer.highestOneBit(Math.max(2, bufferSize) - 1) << 1;
+		this.records = new HttpAccessLogRecord[capacity];
+		this.published = new AtomicLongArray(capacity);
+		for (int i = 0; i < capacity; i++) {
+			this.records[i] = new HttpAccessLogRecord();
+			this.published.set(i, -1);
+		}
+		this.mask = capacity - 1;
+	}
+
+	/**
+	 * Starts the writer thread.
+	 * 
+	 * @throws IOException If fails to open the log file.
+	 */
+	public synchronized void start() throws IOException {
+
+		// Determine if already started
+		if (this.isRunning) {
+			return;
+		}
+
+		// Open the log file
+		this.channel = this.openLogFile();
+
+		// Start the writer thread
+		this.isRunning = true;
+		this.writer = new Thread(this::write, HttpAccessLog.class.getSimpleName());
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	/**
+	 * Stops the writer thread, writing all remaining logged entries.
+	 * 
+	 * @throws InterruptedException If interrupted waiting on the writer thread.
+	 */
+	public synchronized void stop() throws InterruptedException {
+
+		// Determine if running
+		if (!this.isRunning) {
+			return;
+		}
+
+		// Stop the writer (which drains remaining entries)
+		this.isRunning = false;
+		LockSupport.unpark(this.writer);
+		this.writer.join();
+		this.writer = null;
+	}
+
+	/**
+	 * Obtains the number of entries dropped due to the ring buffer being full.
+	 * 
+	 * @return Number of entries dropped.
+	 */
+	public long getDroppedCount() {
+		return this.dropped.sum();
+	}
+
+	/**
+	 * Logs the servicing of a {@link HttpRequest}.
+	 * 
+	 * @param method        {@link HttpMethod}.
+	 * @param requestUri    Request URI.
+	 * @param version       {@link HttpVersion}.
+	 * @param status        {@link HttpStatus} of the {@link HttpResponse}.
+	 * @param contentLength Number of bytes in the {@link HttpResponse} entity.
+	 * @param startNanos    {@link System#nanoTime()} servicing started.
+	 */
+	public void log(HttpMethod method, String requestUri, HttpVersion version, HttpStatus status,
+			long contentLength, long startNanos) {
+
+		// Claim the next slot (dropping entry if full)
+		long sequence = this.claim();
+		if (sequence < 0) {
+			return;
+		}
+
+		// Load and publish the record
+		HttpAccessLogRecord record = this.records[(int) (sequence & this.mask)];
+		record.requestUri = requestUri;
+		this.publish(sequence, record, method, version, status, contentLength, startNanos);
+	}
+
+	/**
+	 * <p>
+	 * Logs the servicing of a {@link HttpRequest} from the raw request URI bytes
+	 * of the request line.
+	 * <p>
+	 * The bytes are copied into the pre-allocated record, so that no
+	 * {@link String} is created to log the request. The {@link ByteSequence} is
+	 * not retained, so may be released once this returns.
+	 * 
+	 * @param method        {@link HttpMethod}.
+	 * @param rawRequestUri {@link ByteSequence} of the raw request URI.
+	 * @param version       {@link HttpVersion}.
+	 * @param status        {@link HttpStatus} of the {@link HttpResponse}.
+	 * @param contentLength Number of bytes in the {@link HttpResponse} entity.
+	 * @param startNanos    {@link System#nanoTime()} servicing started.
+	 */
+	public void log(HttpMethod method, ByteSequence rawRequestUri, HttpVersion version, HttpStatus status,
+			long contentLength, long startNanos) {
+
+		// Claim the next slot (dropping entry if full)
+		long sequence = this.claim();
+		if (sequence < 0) {
+			return;
+		}
+
+		// Load and publish the record
+		HttpAccessLogRecord record = this.records[(int) (sequence & this.mask)];
+		record.loadRequestUri(rawRequestUri);
+		this.publish(sequence, record, method, version, status, contentLength, startNanos);
+	}
+
+	/**
+	 * Claims the next slot in the ring buffer.
+	 * 
+	 * @return Sequence of the claimed slot or <code>-1</code> if full (with entry
+	 *         dropped).
+	 */
+	private long claim() {
+		long sequence;
+		do {
+			sequence = this.claimSequence.get();
+			if ((sequence - this.consumeSequence) > this.mask) {
+				this.dropped.increment();
+				return -1;
+			}
+		} while (!this.claimSequence.compareAndSet(sequence, sequence + 1));
+		return sequence;
+	}
+
+	/**
+	 * Loads the remaining details into the {@link HttpAccessLogRecord} and
+	 * publishes it for writing.
+	 * 
+	 * @param sequence      Sequence of the claimed slot.
+	 * @param record        {@link HttpAccessLogRecord} of the claimed slot.
+	 * @param method        {@link HttpMethod}.
+	 * @param version       {@link HttpVersion}.
+	 * @param status        {@link HttpStatus} of the {@link HttpResponse}.
+	 * @param contentLength Number of bytes in the {@link HttpResponse} entity.
+	 * @param startNanos    {@link System#nanoTime()} servicing started.
+	 */
+	private void publish(long sequence, HttpAccessLogRecord record, HttpMethod method, HttpVersion version,
+			HttpStatus status, long contentLength, long startNanos) {
+
+		// Load the record
+		record.timestamp = System.currentTimeMillis();
+		record.method = method;
+		record.version = version;
+		record.status = status;
+		record.contentLength = contentLength;
+		record.durationNanos = System.nanoTime() - startNanos;
+
+		// Publish the record for writing
+		this.published.lazySet((int) (sequence & this.mask), sequence);
+	}
+
+	/**
+	 * Writer thread loop.
+	 */
+	private void write() {
+		StringBuilder batch = new StringBuilder();
+		boolean isDraining = true;
+		while (isDraining) {
+
+			// Determine if stopping (draining once more after stopped)
+			boolean isStopping = !this.isRunning;
+
+			// Write the available entries
+			int count;
+			do {
+				count = this.writeBatch(batch);
+			} while (count == MAX_BATCH_SIZE);
+
+			// Determine if complete, otherwise wait on further entries
+			if (isStopping) {
+				isDraining = false;
+			} else if (count == 0) {
+				LockSupport.parkNanos(this, POLL_INTERVAL_NANOS);
+			}
+		}
+
+		// Close the log file
+		try {
+			this.channel.close();
+		} catch (IOException ex) {
+			LOGGER.log(Level.WARNING, "Failed to close access log " + this.file, ex);
+		}
+	}
+
+	/**
+	 * Formats and writes a batch of the logged entries.
+	 * 
+	 * @param batch {@link StringBuilder} to format the batch.
+	 * @return Number of entries written.
+	 */
+	private int writeBatch(StringBuilder batch) {
+
+		// Format the published entries
+		batch.setLength(0);
+		long sequence = this.consumeSequence;
+		int count = 0;
+		while ((count < MAX_BATCH_SIZE) && (this.published.get((int) (sequence & this.mask)) == sequence)) {
+			HttpAccessLogRecord record = this.records[(int) (sequence & this.mask)];
+			this.format.format(record, batch);
+			batch.append('\n');
+			record.clear();
+
+			// Release the slot for re-use
+			sequence++;
+			this.consumeSequence = sequence;
+			count++;
+		}
+		if (count == 0) {
+			return 0; // nothing to write
+		}
+
+		// Write the batch
+		try {
+			ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(batch));
+			while (bytes.hasRemaining()) {
+				this.channel.write(bytes);
+			}
+
+			// Rotate log file if too large
+			if ((this.maxFileSize > 0) && (this.channel.size() >= this.maxFileSize)) {
+				this.rotate();
+			}
+
+		} catch (IOException ex) {
+			LOGGER.log(Level.WARNING, "Failed to write access log " + this.file, ex);
+		}
+		return count;
+	}
+
+	/**
+	 * Rotates the log file.
+	 * 
+	 * @throws IOException If fails to rotate the log file.
+	 */
+	private void rotate() throws IOException {
+
+		// Close the current log file
+		this.channel.close();
+		try {
+
+			// Shift the rotated files (discarding the oldest)
+			Files.deleteIfExists(this.getRotatedFile(this.maxFiles));
+			for (int i = this.maxFiles - 1; i >= 1; i--) {
+				Path rotated = this.getRotatedFile(i);
+				if (Files.exists(rotated)) {
+					Files.move(rotated, this.getRotatedFile(i + 1), StandardCopyOption.REPLACE_EXISTING);
+				}
+			}
+			Files.move(this.file, this.getRotatedFile(1), StandardCopyOption.REPLACE_EXISTING);
+
+		} finally {
+			// Continue logging (even if failed to rotate)
+			this.channel = this.openLogFile();
+		}
+	}
+
+	/**
+	 * Obtains the path to the rotated log file.
+	 * 
+	 * @param index Index of the rotated log file.
+	 * @return Path to the rotated log file.
+	 */
+	private Path getRotatedFile(int index) {
+		return this.file.resolveSibling(this.file.getFileName().toString() + "." + index);
+	}
+
+	/**
+	 * Opens the log file for appending.
+	 * 
+	 * @return {@link FileChannel} to the log file.
+	 * @throws IOException If fails to open the log file.
+	 */
+	private FileChannel openLogFile() throws IOException {
+		Path directory = this.file.toAbsolutePath().getParent();
+		if (directory != null) {
+			Files.createDirectories(directory);
+		}
+		return FileChannel.open(this.file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND);
+	}
+
+}
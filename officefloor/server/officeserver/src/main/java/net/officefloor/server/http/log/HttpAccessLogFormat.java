@@ -0,0 +1,127 @@
+/*-
+ * #%L
+ * HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.server.http.log;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Format of the {@link HttpAccessLog} lines.
+ * <p>
+ * Formatting is only undertaken by the {@link HttpAccessLog} writer thread, so
+ * is not on the servicing path of requests.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public enum HttpAccessLogFormat {
+
+	/**
+	 * Common Log Format.
+	 */
+	COMMON {
+
+		@Override
+		void format(HttpAccessLogRecord record, StringBuilder line) {
+			line.append("- - - [");
+			COMMON_TIMESTAMP.formatTo(Instant.ofEpochMilli(record.timestamp), line);
+			line.append("] \"");
+			line.append(record.method.getName()).append(' ');
+			line.append(record.getRequestUri()).append(' ');
+			line.append(record.version.getName()).append("\" ");
+			line.append(record.status.getStatusCode()).append(' ');
+			if (record.contentLength > 0) {
+				line.append(record.contentLength);
+			} else {
+				line.append('-');
+			}
+		}
+	},
+
+	/**
+	 * JSON object per line.
+	 */
+	JSON {
+
+		@Override
+		void format(HttpAccessLogRecord record, StringBuilder line) {
+			line.append("{\"time\":\"");
+			DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(record.timestamp), line);
+			line.append("\",\"method\":");
+			appendJsonString(record.method.getName(), line);
+			line.append(",\"uri\":");
+			appendJsonString(record.getRequestUri(), line);
+			line.append(",\"version\":");
+			appendJsonString(record.version.getName(), line);
+			line.append(",\"status\":").append(record.status.getStatusCode());
+			line.append(",\"bytes\":").append(record.contentLength);
+			line.append(",\"duration_us\":").append(record.durationNanos / 1000);
+			line.append('}');
+		}
+	};
+
+	/**
+	 * {@link DateTimeFormatter} for the {@link #COMMON} time stamp.
+	 */
+	private static final DateTimeFormatter COMMON_TIMESTAMP = DateTimeFormatter
+			.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.US).withZone(ZoneId.systemDefault());
+
+	/**
+	 * Appends the value as a JSON string.
+	 * 
+	 * @param value Value.
+	 * @param line  {@link StringBuilder} to append the JSON string.
+	 */
+	private static void appendJsonString(CharSequence value, StringBuilder line) {
+		line.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char character = value.charAt(i);
+			switch (character) {
+			case '"':
+				line.append("\\\"");
+				break;
+			case '\\':
+				line.append("\\\\");
+				break;
+			default:
+				if (character < 0x20) {
+					line.append(String.format("\\u%04x", (int) character));
+				} else {
+					line.append(character);
+				}
+			}
+		}
+		line.append('"');
+	}
+
+	/**
+	 * Formats the {@link HttpAccessLogRecord} as a line.
+	 * 
+	 * @param record {@link HttpAccessLogRecord}.
+	 * @param line   {@link StringBuilder} to append the line (without line
+	 *               separator).
+	 */
+	abstract void format(HttpAccessLogRecord record, StringBuilder line);
+
+}
@@ -0,0 +1,169 @@
+/*-
+ * #%L
+ * HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.server.http.log;
+
+import net.officefloor.server.http.HttpMethod;
+import net.officefloor.server.http.HttpStatus;
+import net.officefloor.server.http.HttpVersion;
+import net.officefloor.server.stream.impl.ByteSequence;
+
+/**
+ * Pre-allocated record within the {@link HttpAccessLog} ring buffer.
+ * <p>
+ * Instances are re-used, so that logging a request does not allocate.
+ * 
+ * @author Daniel Sagenschneider
+ */
+class HttpAccessLogRecord {
+
+	/**
+	 * Maximum number of raw request URI bytes logged. Longer request URIs are
+	 * truncated.
+	 */
+	static final int MAX_REQUEST_URI_LENGTH = 256;
+
+	/**
+	 * Suffix indicating the request URI was truncated.
+	 */
+	private static final String TRUNCATED_SUFFIX = "...";
+
+	/**
+	 * Time in milliseconds since the epoch the response was written.
+	 */
+	long timestamp;
+
+	/**
+	 * {@link HttpMethod}.
+	 */
+	HttpMethod method;
+
+	/**
+	 * Request URI. Will be <code>null</code> if logging the raw request URI
+	 * bytes.
+	 */
+	String requestUri;
+
+	/**
+	 * Raw request URI bytes (copied from the request line).
+	 */
+	final byte[] requestUriBytes = new byte[MAX_REQUEST_URI_LENGTH];
+
+	/**
+	 * Number of raw request URI bytes.
+	 */
+	int requestUriLength;
+
+	/**
+	 * Indicates if the raw request URI was truncated.
+	 */
+	boolean isRequestUriTruncated;
+
+	/**
+	 * {@link CharSequence} view of the raw request URI bytes (avoids creating a
+	 * {@link String} per logged request).
+	 */
+	private final CharSequence rawRequestUri = new CharSequence() {
+
+		@Override
+		public int length() {
+			return HttpAccessLogRecord.this.requestUriLength
+					+ (HttpAccessLogRecord.this.isRequestUriTruncated ? TRUNCATED_SUFFIX.length() : 0);
+		}
+
+		@Override
+		public char charAt(int index) {
+			int length = HttpAccessLogRecord.this.requestUriLength;
+			return (index < length) ? (char) (HttpAccessLogRecord.this.requestUriBytes[index] & 0xff)
+					: TRUNCATED_SUFFIX.charAt(index - length);
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return this.toString().subSequence(start, end);
+		}
+
+		@Override
+		public String toString() {
+			return new StringBuilder(this).toString();
+		}
+	};
+
+	/**
+	 * {@link HttpVersion}.
+	 */
+	HttpVersion version;
+
+	/**
+	 * {@link HttpStatus}.
+	 */
+	HttpStatus status;
+
+	/**
+	 * Number of bytes in the response entity.
+	 */
+	long contentLength;
+
+	/**
+	 * Duration in nanoseconds to service the request.
+	 */
+	long durationNanos;
+
+	/**
+	 * Loads the raw request URI bytes.
+	 * 
+	 * @param rawRequestUri {@link ByteSequence} of the raw request URI.
+	 */
+	void loadRequestUri(ByteSequence rawRequestUri) {
+		int length = rawRequestUri.length();
+		this.isRequestUriTruncated = (length > MAX_REQUEST_URI_LENGTH);
+		if (this.isRequestUriTruncated) {
+			length = MAX_REQUEST_URI_LENGTH;
+		}
+		for (int i = 0; i < length; i++) {
+			this.requestUriBytes[i] = rawRequestUri.byteAt(i);
+		}
+		this.requestUriLength = length;
+		this.requestUri = null;
+	}
+
+	/**
+	 * Obtains the request URI.
+	 * 
+	 * @return Request URI.
+	 */
+	CharSequence getRequestUri() {
+		return (this.requestUri != null) ? this.requestUri : this.rawRequestUri;
+	}
+
+	/**
+	 * Clears the references so the logged request may be garbage collected.
+	 */
+	void clear() {
+		this.method = null;
+		this.requestUri = null;
+		this.requestUriLength = 0;
+		this.version = null;
+		this.status = null;
+	}
+
+}
@@ -94,4 +94,23 @@ public abstract class ServerOutputStream extends OutputStream {
 	 */
 	public abstract void write(FileChannel file, FileCompleteCallback callback) throws IOException;
 
+	/**
+	 * <p>
+	 * Flushes the written content through to the client.
+	 * <p>
+	 * Unlike {@link #flush()}, which only ensures the content is written to
+	 * the response, this requests the content be sent immediately to the
+	 * client (streaming the response). Once content is sent to the client,
+	 * the response is committed and may no longer be reset.
+	 * <p>
+	 * Note that the underlying implementation will need to support streaming
+	 * the response. Otherwise, this behaves as {@link #flush()}.
+	 * 
+	 * @throws IOException
+	 *             If fails to flush the content to the client.
+	 */
+	public void flushToClient() throws IOException {
+		this.flush();
+	}
+
 }
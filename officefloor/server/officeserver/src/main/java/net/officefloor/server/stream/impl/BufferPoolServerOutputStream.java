@@ -53,6 +53,12 @@ public class BufferPoolServerOutputStream<B> extends ServerOutputStream {
 	 */
 	private final CloseHandler closeHandler;
 
+	/**
+	 * {@link FlushHandler}. May be <code>null</code> if not able to flush content
+	 * to the client.
+	 */
+	private final FlushHandler flushHandler;
+
 	/**
 	 * Head {@link StreamBuffer}.
 	 */
@@ -75,10 +81,27 @@ public class BufferPoolServerOutputStream<B> extends ServerOutputStream {
 	 *            {@link StreamBufferPool}.
 	 * @param closeHandler
 	 *            {@link CloseHandler}.
+	 * @param flushHandler
+	 *            {@link FlushHandler}. May be <code>null</code> if not able to
+	 *            flush content to the client.
 	 */
-	public BufferPoolServerOutputStream(StreamBufferPool<B> bufferPool, CloseHandler closeHandler) {
+	public BufferPoolServerOutputStream(StreamBufferPool<B> bufferPool, CloseHandler closeHandler,
+			FlushHandler flushHandler) {
 		this.bufferPool = bufferPool;
 		this.closeHandler = closeHandler;
+		this.flushHandler = flushHandler;
+	}
+
+	/**
+	 * Instantiate.
+	 * 
+	 * @param bufferPool
+	 *            {@link StreamBufferPool}.
+	 * @param closeHandler
+	 *            {@link CloseHandler}.
+	 */
+	public BufferPoolServerOutputStream(StreamBufferPool<B> bufferPool, CloseHandler closeHandler) {
+		this(bufferPool, closeHandler, null);
 	}
 
 	/**
@@ -138,6 +161,27 @@ public class BufferPoolServerOutputStream<B> extends ServerOutputStream {
 		return this.head;
 	}
 
+	/**
+	 * <p>
+	 * Extracts the {@link StreamBuffer} instances used by this
+	 * {@link ServerOutputStream}.
+	 * <p>
+	 * This enables streaming the content, as the {@link StreamBuffer} instances
+	 * are removed from this {@link ServerOutputStream} (along with resetting the
+	 * content length) so that further content is written to new
+	 * {@link StreamBuffer} instances.
+	 * 
+	 * @return Head {@link StreamBuffer} to the extracted {@link StreamBuffer}
+	 *         instances. May be <code>null</code> if no content.
+	 */
+	public StreamBuffer<B> extractBuffers() {
+		StreamBuffer<B> extracted = this.head;
+		this.head = null;
+		this.tail = null;
+		this.contentLength = 0;
+		return extracted;
+	}
+
 	/**
 	 * Clears this {@link OutputStream} and releases the {@link StreamBuffer}
 	 * instances.
@@ -321,6 +365,16 @@ public class BufferPoolServerOutputStream<B> extends ServerOutputStream {
 		// Nothing to flush, as always writes straight to buffers
 	}
 
+	@Override
+	public void flushToClient() throws IOException {
+		this.ensureOpen();
+
+		// Flush content to client (if able)
+		if (this.flushHandler != null) {
+			this.flushHandler.flushToClient();
+		}
+	}
+
 	@Override
 	public void close() throws IOException {
 
@@ -450,6 +504,16 @@ public class BufferPoolServerOutputStream<B> extends ServerOutputStream {
 			this.delegate.flush();
 		}
 
+		@Override
+		public void flushToClient() throws IOException {
+
+			// Flush to ensure written out
+			this.delegate.flush();
+
+			// Flush the content to the client
+			BufferPoolServerOutputStream.this.flushToClient();
+		}
+
 		@Override
 		public void close() throws IOException {
 
@@ -71,10 +71,27 @@ public class ByteSequenceServerInputStream extends ServerInputStream {
 			return -1; // end of stream
 		} else {
 			// Return next byte
-			return this.byteSequence.byteAt(this.position++);
+			return this.byteSequence.byteAt(this.position++) & 0xff;
 		}
 	}
 
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+
+		// Determine if end of stream
+		int available = this.byteSequence.length() - this.position;
+		if (available <= 0) {
+			return (len == 0) ? 0 : -1;
+		}
+
+		// Read the bytes (without per byte read overhead)
+		int bytesRead = Math.min(len, available);
+		for (int i = 0; i < bytesRead; i++) {
+			b[off + i] = this.byteSequence.byteAt(this.position++);
+		}
+		return bytesRead;
+	}
+
 	@Override
 	public int available() throws IOException {
 		return Math.max(0, this.byteSequence.length() - position);
@@ -27,10 +27,10 @@ import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 
 import net.officefloor.frame.api.managedobject.ManagedObjectContext;
-import net.officefloor.frame.api.managedobject.ProcessSafeOperation;
 import net.officefloor.frame.internal.structure.ProcessState;
 import net.officefloor.server.stream.FileCompleteCallback;
 import net.officefloor.server.stream.ServerOutputStream;
+import net.officefloor.server.stream.impl.ProcessSafeOperations.SafeVoidOperation;
 
 /**
  * {@link ProcessState} aware wrapping {@link ServerOutputStream}.
@@ -60,31 +60,14 @@ public class ProcessAwareServerOutputStream extends ServerOutputStream {
 		this.context = context;
 	}
 
-	/**
-	 * Function interface to define an operation with no return (void return).
-	 */
-	private static interface SafeVoidOperation<T extends Throwable> {
-
-		/**
-		 * Undertake operation.
-		 * 
-		 * @throws T Possible failure from operation.
-		 */
-		void run() throws T;
-	}
-
 	/**
 	 * Wraps execution to be {@link ProcessState} ({@link Thread}) safe.
 	 * 
-	 * @param operation {@link ProcessSafeOperation}.
-	 * @return Result of {@link ProcessSafeOperation}.
-	 * @throws T If {@link ProcessSafeOperation} fails.
+	 * @param operation {@link SafeVoidOperation}.
+	 * @throws T If {@link SafeVoidOperation} fails.
 	 */
 	private <T extends Throwable> void safe(SafeVoidOperation<T> operation) throws T {
-		this.context.run(() -> {
-			operation.run();
-			return null; // void return
-		});
+		ProcessSafeOperations.safeVoid(this.context, operation);
 	}
 
 	/*
@@ -99,7 +82,6 @@ public class ProcessAwareServerOutputStream extends ServerOutputStream {
 	@Override
 	public void write(FileChannel file, long position, long count, FileCompleteCallback callback) throws IOException {
 		this.safe(() -> this.unsafeOutputStream.write(file, position, count, callback));
-
 	}
 
 	@Override
@@ -127,6 +109,11 @@ public class ProcessAwareServerOutputStream extends ServerOutputStream {
 		this.safe(() -> this.unsafeOutputStream.flush());
 	}
 
+	@Override
+	public void flushToClient() throws IOException {
+		this.safe(() -> this.unsafeOutputStream.flushToClient());
+	}
+
 	@Override
 	public void close() throws IOException {
 		this.safe(() -> this.unsafeOutputStream.close());
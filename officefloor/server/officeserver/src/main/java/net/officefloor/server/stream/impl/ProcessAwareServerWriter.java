@@ -27,10 +27,10 @@ import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 
 import net.officefloor.frame.api.managedobject.ManagedObjectContext;
-import net.officefloor.frame.api.managedobject.ProcessSafeOperation;
 import net.officefloor.frame.internal.structure.ProcessState;
 import net.officefloor.server.stream.FileCompleteCallback;
 import net.officefloor.server.stream.ServerWriter;
+import net.officefloor.server.stream.impl.ProcessSafeOperations.SafeVoidOperation;
 
 /**
  * {@link ProcessState} aware writing {@link ServerWriter}.
@@ -60,31 +60,14 @@ public class ProcessAwareServerWriter extends ServerWriter {
 		this.context = context;
 	}
 
-	/**
-	 * Function interface to define an operation with no return (void return).
-	 */
-	private static interface SafeVoidOperation<T extends Throwable> {
-
-		/**
-		 * Undertake operation.
-		 * 
-		 * @throws T Possible failure from operation.
-		 */
-		void run() throws T;
-	}
-
 	/**
 	 * Wraps execution to be {@link ProcessState} ({@link Thread}) safe.
 	 * 
-	 * @param operation {@link ProcessSafeOperation}.
-	 * @return Result of {@link ProcessSafeOperation}.
-	 * @throws T If {@link ProcessSafeOperation} fails.
+	 * @param operation {@link SafeVoidOperation}.
+	 * @throws T If {@link SafeVoidOperation} fails.
 	 */
 	private <T extends Throwable> void safe(SafeVoidOperation<T> operation) throws T {
-		this.context.run(() -> {
-			operation.run();
-			return null; // void return
-		});
+		ProcessSafeOperations.safeVoid(this.context, operation);
 	}
 
 	/*
@@ -159,6 +142,11 @@ public class ProcessAwareServerWriter extends ServerWriter {
 		this.safe(() -> this.unsafeServerWriter.flush());
 	}
 
+	@Override
+	public void flushToClient() throws IOException {
+		this.safe(() -> this.unsafeServerWriter.flushToClient());
+	}
+
 	@Override
 	public void close() throws IOException {
 		this.safe(() -> this.unsafeServerWriter.close());
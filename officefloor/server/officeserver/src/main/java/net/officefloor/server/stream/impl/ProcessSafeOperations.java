@@ -0,0 +1,93 @@
+/*-
+ * #%L
+ * HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.server.stream.impl;
+
+import net.officefloor.frame.api.managedobject.ManagedObjectContext;
+import net.officefloor.frame.api.managedobject.ProcessSafeOperation;
+import net.officefloor.frame.internal.structure.ProcessState;
+
+/**
+ * Undertakes {@link ProcessSafeOperation} instances for the {@link ProcessState}
+ * aware wrappers.
+ * <p>
+ * Should the current {@link Thread} already be {@link ProcessState} safe, the
+ * operation is undertaken directly (avoiding the overheads of
+ * {@link ManagedObjectContext#run(ProcessSafeOperation)} for fine grained
+ * operations).
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class ProcessSafeOperations {
+
+	/**
+	 * Function interface to define an operation with no return (void return).
+	 */
+	@FunctionalInterface
+	public static interface SafeVoidOperation<T extends Throwable> {
+
+		/**
+		 * Undertake operation.
+		 * 
+		 * @throws T Possible failure from operation.
+		 */
+		void run() throws T;
+	}
+
+	/**
+	 * Undertakes the {@link ProcessSafeOperation}.
+	 * 
+	 * @param context   {@link ManagedObjectContext}.
+	 * @param operation {@link ProcessSafeOperation}.
+	 * @return Result of {@link ProcessSafeOperation}.
+	 * @throws T If {@link ProcessSafeOperation} fails.
+	 */
+	public static <R, T extends Throwable> R safe(ManagedObjectContext context, ProcessSafeOperation<R, T> operation)
+			throws T {
+		return context.isProcessSafe() ? operation.run() : context.run(operation);
+	}
+
+	/**
+	 * Undertakes the {@link SafeVoidOperation}.
+	 * 
+	 * @param context   {@link ManagedObjectContext}.
+	 * @param operation {@link SafeVoidOperation}.
+	 * @throws T If {@link SafeVoidOperation} fails.
+	 */
+	public static <T extends Throwable> void safeVoid(ManagedObjectContext context, SafeVoidOperation<T> operation)
+			throws T {
+		if (context.isProcessSafe()) {
+			operation.run();
+		} else {
+			context.run(() -> {
+				operation.run();
+				return null; // void return
+			});
+		}
+	}
+
+	/**
+	 * All access via static methods.
+	 */
+	private ProcessSafeOperations() {
+	}
+
+}
@@ -23,6 +23,8 @@ package net.officefloor.server.stream.impl;
 
 import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 import net.officefloor.frame.api.managedobject.pool.ManagedObjectPool;
 import net.officefloor.frame.api.managedobject.pool.ThreadCompletionListener;
@@ -35,6 +37,13 @@ import net.officefloor.server.stream.StreamBufferPool;
 /**
  * {@link StreamBufferPool} of {@link ByteBuffer} instances that utilises
  * {@link ThreadLocal} caches for performance.
+ * <p>
+ * The core pool is split into lock free stripes, with each {@link Thread}
+ * keyed to a stripe. {@link StreamBuffer} instances are transferred between
+ * the {@link ThreadLocal} and core pool in batches (linked lists) to reduce
+ * contention where some {@link Thread} instances mostly obtain
+ * {@link StreamBuffer} instances while other {@link Thread} instances mostly
+ * release them.
  * 
  * @author Daniel Sagenschneider
  */
@@ -47,7 +56,9 @@ public class ThreadLocalStreamBufferPool extends AbstractStreamBufferPool<ByteBu
 	private final ThreadLocal<ThreadLocalPool> threadLocalPool = new ThreadLocal<ThreadLocalPool>() {
 		@Override
 		protected ThreadLocalPool initialValue() {
-			return new ThreadLocalPool();
+			ThreadLocalStreamBufferPool pool = ThreadLocalStreamBufferPool.this;
+			int stripeIndex = pool.nextStripeIndex.getAndIncrement() & (pool.coreStripes.length - 1);
+			return new ThreadLocalPool(pool.coreStripes[stripeIndex]);
 		}
 	};
 
@@ -72,14 +83,25 @@ public class ThreadLocalStreamBufferPool extends AbstractStreamBufferPool<ByteBu
 	private final int maxCorePoolSize;
 
 	/**
-	 * Head {@link StreamBuffer} within the core pool.
+	 * Number of {@link StreamBuffer} instances transferred in a batch from the
+	 * {@link ThreadLocal} pool to the core pool.
 	 */
-	private StreamBuffer<ByteBuffer> coreHead = null;
+	private final int batchSize;
+
+	/**
+	 * {@link CoreStripe} instances of the core pool (power of two in length).
+	 */
+	private final CoreStripe[] coreStripes;
+
+	/**
+	 * Index of the next {@link CoreStripe} to key a {@link Thread} to.
+	 */
+	private final AtomicInteger nextStripeIndex = new AtomicInteger(0);
 
 	/**
 	 * Core pool size.
 	 */
-	private int corePoolSize = 0;
+	private final AtomicInteger corePoolSize = new AtomicInteger(0);
 
 	/**
 	 * <p>
@@ -100,6 +122,14 @@ public class ThreadLocalStreamBufferPool extends AbstractStreamBufferPool<ByteBu
 		this.byteBufferFactory = byteBufferFactory;
 		this.maxThreadLocalPoolSize = maxThreadLocalPoolSize;
 		this.maxCorePoolSize = maxCorePoolSize;
+		this.batchSize = Math.max(1, maxThreadLocalPoolSize / 2);
+
+		// Create a stripe per CPU (rounded up to power of two)
+		int stripeCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1));
+		this.coreStripes = new CoreStripe[stripeCount];
+		for (int i = 0; i < stripeCount; i++) {
+			this.coreStripes[i] = new CoreStripe(i);
+		}
 	}
 
 	/**
@@ -112,54 +142,116 @@ public class ThreadLocalStreamBufferPool extends AbstractStreamBufferPool<ByteBu
 	}
 
 	/**
-	 * Releases the {@link StreamBuffer} to the core pool.
+	 * Obtains the number of stripes of the core pool.
 	 * 
-	 * @param buffer {@link StreamBuffer}.
+	 * @return Number of stripes of the core pool.
 	 */
-	private void unsafeReleaseToCorePool(StreamBuffer<ByteBuffer> buffer) {
-
-		// Determine if release
-		if (this.corePoolSize < this.maxCorePoolSize) {
+	public int getCoreStripeCount() {
+		return this.coreStripes.length;
+	}
 
-			// Released to core pool
-			buffer.next = this.coreHead;
-			this.coreHead = buffer;
-			this.corePoolSize++;
-			return;
-		}
+	/**
+	 * Obtains the number of times {@link Thread} instances keyed to the stripe
+	 * obtained a batch of {@link StreamBuffer} instances from the stripe.
+	 * 
+	 * @param stripeIndex Index of the stripe.
+	 * @return Number of hits on the stripe.
+	 */
+	public long getCoreStripeHitCount(int stripeIndex) {
+		return this.coreStripes[stripeIndex].hits.sum();
+	}
 
-		// Allow buffer to be garbage collected (too many buffers)
-		this.bufferCount.decrementAndGet();
+	/**
+	 * Obtains the number of times {@link Thread} instances keyed to the stripe
+	 * found the stripe empty (requiring to take from another stripe or create a
+	 * {@link StreamBuffer}).
+	 * 
+	 * @param stripeIndex Index of the stripe.
+	 * @return Number of misses on the stripe.
+	 */
+	public long getCoreStripeMissCount(int stripeIndex) {
+		return this.coreStripes[stripeIndex].misses.sum();
 	}
 
 	/**
-	 * {@link Thread} safe release to core pool.
+	 * Obtains the number of {@link StreamBuffer} instances created by
+	 * {@link Thread} instances keyed to the stripe.
 	 * 
-	 * @param buffer {@link StreamBuffer}.
+	 * @param stripeIndex Index of the stripe.
+	 * @return Number of {@link StreamBuffer} instances created.
 	 */
-	private synchronized void safeReleaseToCorePool(StreamBuffer<ByteBuffer> buffer) {
-		this.unsafeReleaseToCorePool(buffer);
+	public long getCoreStripeCreatedCount(int stripeIndex) {
+		return this.coreStripes[stripeIndex].created.sum();
 	}
 
 	/**
-	 * Obtains a {@link StreamBuffer} from the core pool.
+	 * Releases the linked list of {@link StreamBuffer} instances to the core pool.
 	 * 
-	 * @return {@link StreamBuffer} or <code>null</code> if core pool is empty.
+	 * @param stripe {@link CoreStripe} to release to.
+	 * @param head   Head {@link StreamBuffer} of the linked list.
+	 * @param size   Number of {@link StreamBuffer} instances in the linked list.
 	 */
-	private synchronized StreamBuffer<ByteBuffer> getCorePoolBuffer() {
+	private void releaseToCorePool(CoreStripe stripe, StreamBuffer<ByteBuffer> head, int size) {
+
+		// Reserve space within the core pool
+		int reserved;
+		for (;;) {
+			int coreSize = this.corePoolSize.get();
+			reserved = Math.min(size, this.maxCorePoolSize - coreSize);
+			if (reserved <= 0) {
+				reserved = 0;
+				break; // core pool full
+			}
+			if (this.corePoolSize.compareAndSet(coreSize, coreSize + reserved)) {
+				break; // reserved
+			}
+		}
 
-		// Determine if buffers in the core pool
-		if (this.corePoolSize <= 0) {
-			return null; // empty pool
+		// Allow buffers to be garbage collected (too many buffers)
+		if (reserved < size) {
+			this.bufferCount.addAndGet(reserved - size);
+			if (reserved == 0) {
+				return; // no buffers to pool
+			}
+			StreamBuffer<ByteBuffer> tail = head;
+			for (int i = 1; i < reserved; i++) {
+				tail = tail.next;
+			}
+			tail.next = null;
 		}
 
-		// Obtain the buffer from core pool
-		StreamBuffer<ByteBuffer> buffer = this.coreHead;
-		this.coreHead = this.coreHead.next;
-		this.corePoolSize--;
+		// Release to the core pool
+		stripe.push(new CoreBatch(head, reserved));
+	}
+
+	/**
+	 * Obtains a batch of {@link StreamBuffer} instances from the core pool.
+	 * 
+	 * @param stripe {@link CoreStripe} keyed to the {@link Thread}.
+	 * @return {@link CoreBatch} or <code>null</code> if core pool is empty.
+	 */
+	private CoreBatch getCoreBatch(CoreStripe stripe) {
+
+		// Attempt to obtain from stripe for thread
+		CoreBatch batch = stripe.pop();
+		if (batch != null) {
+			stripe.hits.increment();
+
+		} else {
+			// Attempt to obtain from the other stripes
+			stripe.misses.increment();
+			int mask = this.coreStripes.length - 1;
+			for (int i = 1; (batch == null) && (i < this.coreStripes.length); i++) {
+				batch = this.coreStripes[(stripe.index + i) & mask].pop();
+			}
+			if (batch == null) {
+				return null; // core pool empty
+			}
+		}
 
-		// Return the buffer
-		return buffer;
+		// Remove batch from core pool
+		this.corePoolSize.addAndGet(-batch.size);
+		return batch;
 	}
 
 	/**
@@ -184,32 +276,29 @@ public class ThreadLocalStreamBufferPool extends AbstractStreamBufferPool<ByteBu
 	@Override
 	public StreamBuffer<ByteBuffer> getPooledStreamBuffer() {
 
-		// Obtain the stream buffer
-		StreamBuffer<ByteBuffer> pooledBuffer = null;
-
-		// Attempt to obtain from thread local pool
+		// Obtain the thread local pool
 		ThreadLocalPool pool = threadLocalPool.get();
-		if (pool.threadHead != null) {
-			// Obtain from thread pool
-			pooledBuffer = pool.threadHead;
-			pool.threadHead = pool.threadHead.next;
-			pool.threadPoolSize--;
 
-		} else {
-			// No thread buffers, so attempt core pool
-			pooledBuffer = this.getCorePoolBuffer();
+		// Refill the thread local pool from core pool (if empty)
+		if (pool.threadHead == null) {
+			CoreBatch batch = this.getCoreBatch(pool.stripe);
+			if (batch == null) {
+				// Create new buffer
+				pool.stripe.created.increment();
+				return this.createPooledStreamBuffer();
+			}
+			pool.threadHead = batch.head;
+			pool.threadPoolSize = batch.size;
 		}
 
-		// Ensure have a buffer
-		if (pooledBuffer == null) {
-			// Create new buffer
-			pooledBuffer = this.createPooledStreamBuffer();
+		// Obtain from thread pool
+		StreamBuffer<ByteBuffer> pooledBuffer = pool.threadHead;
+		pool.threadHead = pool.threadHead.next;
+		pool.threadPoolSize--;
 
-		} else {
-			// Pooled buffer, so reset for use
-			BufferJvmFix.clear(pooledBuffer.pooledBuffer);
-			pooledBuffer.next = null;
-		}
+		// Pooled buffer, so reset for use
+		BufferJvmFix.clear(pooledBuffer.pooledBuffer);
+		pooledBuffer.next = null;
 
 		// Return the pooled buffer
 		return pooledBuffer;
@@ -229,21 +318,16 @@ public class ThreadLocalStreamBufferPool extends AbstractStreamBufferPool<ByteBu
 	 */
 
 	@Override
-	public synchronized void threadComplete() {
+	public void threadComplete() {
 
 		// Obtain the thread pool
 		ThreadLocalPool pool = threadLocalPool.get();
 
-		// Release all to pool
-		StreamBuffer<ByteBuffer> buffer = pool.threadHead;
-		while (buffer != null) {
-
-			// Obtain release buffer (must obtain next, as release sets next)
-			StreamBuffer<ByteBuffer> release = buffer;
-			buffer = buffer.next;
-
-			// Release the buffer
-			this.unsafeReleaseToCorePool(release);
+		// Release all to core pool
+		if (pool.threadHead != null) {
+			this.releaseToCorePool(pool.stripe, pool.threadHead, pool.threadPoolSize);
+			pool.threadHead = null;
+			pool.threadPoolSize = 0;
 		}
 	}
 
@@ -309,8 +393,18 @@ public class ThreadLocalStreamBufferPool extends AbstractStreamBufferPool<ByteBu
 				return; // released
 			}
 
-			// As here, release to core pool
-			bufferPool.safeReleaseToCorePool(this);
+			// As here, release batch to core pool
+			StreamBuffer<ByteBuffer> tail = this;
+			int size = 1;
+			while ((size < bufferPool.batchSize) && (pool.threadHead != null)) {
+				tail.next = pool.threadHead;
+				tail = pool.threadHead;
+				pool.threadHead = pool.threadHead.next;
+				pool.threadPoolSize--;
+				size++;
+			}
+			tail.next = null;
+			bufferPool.releaseToCorePool(pool.stripe, this, size);
 		}
 	}
 
@@ -319,6 +413,11 @@ public class ThreadLocalStreamBufferPool extends AbstractStreamBufferPool<ByteBu
 	 */
 	private static class ThreadLocalPool {
 
+		/**
+		 * {@link CoreStripe} keyed to the {@link Thread}.
+		 */
+		private final CoreStripe stripe;
+
 		/**
 		 * Head {@link StreamBuffer} to linked list of {@link StreamBuffer} instances.
 		 */
@@ -328,6 +427,117 @@ public class ThreadLocalStreamBufferPool extends AbstractStreamBufferPool<ByteBu
 		 * Number of {@link StreamBuffer} instances within this pool.
 		 */
 		private int threadPoolSize = 0;
+
+		/**
+		 * Instantiate.
+		 * 
+		 * @param stripe {@link CoreStripe} keyed to the {@link Thread}.
+		 */
+		private ThreadLocalPool(CoreStripe stripe) {
+			this.stripe = stripe;
+		}
+	}
+
+	/**
+	 * Batch of {@link StreamBuffer} instances within the core pool.
+	 */
+	private static class CoreBatch {
+
+		/**
+		 * Head {@link StreamBuffer} to linked list of {@link StreamBuffer} instances.
+		 */
+		private final StreamBuffer<ByteBuffer> head;
+
+		/**
+		 * Number of {@link StreamBuffer} instances within the batch.
+		 */
+		private final int size;
+
+		/**
+		 * Next {@link CoreBatch} within the {@link CoreStripe}.
+		 */
+		private CoreBatch next = null;
+
+		/**
+		 * Instantiate.
+		 * 
+		 * @param head Head {@link StreamBuffer} to linked list of {@link StreamBuffer}
+		 *             instances.
+		 * @param size Number of {@link StreamBuffer} instances within the batch.
+		 */
+		private CoreBatch(StreamBuffer<ByteBuffer> head, int size) {
+			this.head = head;
+			this.size = size;
+		}
+	}
+
+	/**
+	 * Lock free stripe of the core pool.
+	 */
+	private static class CoreStripe {
+
+		/**
+		 * Index of this {@link CoreStripe}.
+		 */
+		private final int index;
+
+		/**
+		 * Top {@link CoreBatch} of the stack.
+		 */
+		private final AtomicReference<CoreBatch> top = new AtomicReference<>(null);
+
+		/**
+		 * Number of batches obtained from this {@link CoreStripe}.
+		 */
+		private final LongAdder hits = new LongAdder();
+
+		/**
+		 * Number of times this {@link CoreStripe} was empty.
+		 */
+		private final LongAdder misses = new LongAdder();
+
+		/**
+		 * Number of {@link StreamBuffer} instances created.
+		 */
+		private final LongAdder created = new LongAdder();
+
+		/**
+		 * Instantiate.
+		 * 
+		 * @param index Index of this {@link CoreStripe}.
+		 */
+		private CoreStripe(int index) {
+			this.index = index;
+		}
+
+		/**
+		 * Pushes the {@link CoreBatch} onto the stack.
+		 * 
+		 * @param batch {@link CoreBatch}.
+		 */
+		private void push(CoreBatch batch) {
+			CoreBatch current;
+			do {
+				current = this.top.get();
+				batch.next = current;
+			} while (!this.top.compareAndSet(current, batch));
+		}
+
+		/**
+		 * Pops the {@link CoreBatch} from the stack.
+		 * 
+		 * @return {@link CoreBatch} or <code>null</code> if empty.
+		 */
+		private CoreBatch pop() {
+			CoreBatch current;
+			do {
+				current = this.top.get();
+				if (current == null) {
+					return null;
+				}
+			} while (!this.top.compareAndSet(current, current.next));
+			return current;
+		}
 	}
 
 }
@@ -428,7 +428,7 @@ public class MockStreamBufferPool implements StreamBufferPool<ByteBuffer> {
 					FileBuffer fileBuffer = this.currentBuffer.fileBuffer;
 
 					// Determine if can read data from buffer
-					long count = (fileBuffer.count < 0) ? fileBuffer.file.size() : fileBuffer.count;
+					long count = (fileBuffer.count < 0) ? fileBuffer.file.size() - fileBuffer.position : fileBuffer.count;
 					if (this.currentBufferPosition < count) {
 						// Read data from the buffer
 						long position = fileBuffer.position + this.currentBufferPosition;
@@ -452,6 +452,9 @@ public class MockStreamBufferPool implements StreamBufferPool<ByteBuffer> {
 				// Obtain the next buffer to read
 				this.currentBuffer = this.currentBuffer.next;
 				this.currentBufferPosition = 0;
+
+				// Discard batch content (as next file buffer may be different position)
+				BufferJvmFix.position(this.fileContent, BufferJvmFix.limit(this.fileContent));
 				if (this.currentBuffer == null) {
 					this.currentBuffer = null;
 					return -1; // end of stream
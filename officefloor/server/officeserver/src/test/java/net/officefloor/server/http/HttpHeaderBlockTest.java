@@ -0,0 +1,113 @@
+/*-
+ * #%L
+ * HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.server.http;
+
+import java.nio.ByteBuffer;
+
+import net.officefloor.frame.test.OfficeFrameTestCase;
+import net.officefloor.server.http.mock.MockStreamBufferPool;
+import net.officefloor.server.stream.StreamBuffer;
+
+/**
+ * Tests the {@link HttpHeaderBlock}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class HttpHeaderBlockTest extends OfficeFrameTestCase {
+
+	/**
+	 * Ensure writes the {@link HttpHeaderBlock} in single copy by first
+	 * {@link WritableHttpHeader}.
+	 */
+	public void testWriteBlock() {
+		HttpHeaderBlock block = new HttpHeaderBlock(new WritableHttpHeader("Cache-Control", "no-cache"),
+				new WritableHttpHeader("x-test", "value"));
+		String expected = "cache-control: no-cache\r\nx-test: value\r\n";
+		assertEquals("Incorrect encoded length", expected.length(), block.getEncodedLength());
+
+		// Ensure individual headers available
+		WritableHttpHeader head = block.getWritableHttpHeaders();
+		assertEquals("Incorrect first name", "cache-control", head.getName());
+		assertEquals("Incorrect first value", "no-cache", head.getValue());
+		assertEquals("Incorrect second name", "x-test", head.next.getName());
+		assertEquals("Incorrect second value", "value", head.next.getValue());
+		assertNull("Should only be two headers", head.next.next);
+
+		// Ensure first header writes the block
+		assertEquals("Incorrect first header content", expected, write(head));
+		assertEquals("Remaining headers should not write", "", write(head.next));
+	}
+
+	/**
+	 * Ensure can have empty {@link HttpHeaderBlock}.
+	 */
+	public void testEmptyBlock() {
+		HttpHeaderBlock block = new HttpHeaderBlock();
+		assertNull("Should be no headers", block.getWritableHttpHeaders());
+		assertEquals("Should be no content", 0, block.getEncodedLength());
+	}
+
+	/**
+	 * Ensure not able to include {@link HttpHeader} instances written by the
+	 * {@link HttpResponseWriter}.
+	 */
+	public void testDisallowResponseWriterHeaders() {
+		for (String name : new String[] { "Content-Type", "content-length", "Transfer-Encoding" }) {
+			try {
+				new HttpHeaderBlock(new WritableHttpHeader(name, "value"));
+				fail("Should not be successful for " + name);
+			} catch (IllegalArgumentException ex) {
+				assertTrue("Incorrect cause for " + name, ex.getMessage().contains(name.toLowerCase()));
+			}
+		}
+	}
+
+	/**
+	 * Ensure writes the pre-encoded status line.
+	 */
+	public void testStatusLine() {
+		MockStreamBufferPool bufferPool = new MockStreamBufferPool();
+		for (HttpVersion version : new HttpVersion[] { HttpVersion.HTTP_1_1, HttpVersion.HTTP_1_0 }) {
+			StreamBuffer<ByteBuffer> buffer = bufferPool.getPooledStreamBuffer();
+			HttpStatus.NOT_MODIFIED.writeStatusLine(version, buffer, bufferPool);
+			MockStreamBufferPool.releaseStreamBuffers(buffer);
+			assertEquals("Incorrect status line", version.getName() + " 304 Not Modified\r\n",
+					MockStreamBufferPool.getContent(buffer, ServerHttpConnection.HTTP_CHARSET));
+		}
+	}
+
+	/**
+	 * Writes the {@link WritableHttpHeader}.
+	 * 
+	 * @param header {@link WritableHttpHeader}.
+	 * @return Written content.
+	 */
+	private static String write(WritableHttpHeader header) {
+		MockStreamBufferPool bufferPool = new MockStreamBufferPool();
+		StreamBuffer<ByteBuffer> buffer = bufferPool.getPooledStreamBuffer();
+		header.write(buffer, bufferPool);
+		MockStreamBufferPool.releaseStreamBuffers(buffer);
+		return MockStreamBufferPool.getContent(buffer, ServerHttpConnection.HTTP_CHARSET);
+	}
+
+}
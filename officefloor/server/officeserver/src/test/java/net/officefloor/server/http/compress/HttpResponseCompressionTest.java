@@ -0,0 +1,443 @@
+/*-
+ * #%L
+ * HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.server.http.compress;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import net.officefloor.frame.test.OfficeFrameTestCase;
+import net.officefloor.server.http.HttpHeaderValue;
+import net.officefloor.server.http.HttpResponseStreamWriter;
+import net.officefloor.server.http.HttpResponseWriter;
+import net.officefloor.server.http.HttpStatus;
+import net.officefloor.server.http.HttpVersion;
+import net.officefloor.server.http.ServerHttpConnection;
+import net.officefloor.server.http.WritableHttpCookie;
+import net.officefloor.server.http.WritableHttpHeader;
+import net.officefloor.server.http.mock.MockNonMaterialisedHttpHeaders;
+import net.officefloor.server.http.mock.MockStreamBufferPool;
+import net.officefloor.server.stream.StreamBuffer;
+
+/**
+ * Tests the {@link HttpResponseCompression}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class HttpResponseCompressionTest extends OfficeFrameTestCase {
+
+	/**
+	 * {@link Charset} for the entity.
+	 */
+	private static final Charset CHARSET = ServerHttpConnection.DEFAULT_HTTP_ENTITY_CHARSET;
+
+	/**
+	 * Compressible entity.
+	 */
+	private static final String ENTITY;
+
+	static {
+		StringBuilder entity = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			entity.append("Compressible content " + i + "\n");
+		}
+		ENTITY = entity.toString();
+	}
+
+	/**
+	 * {@link MockStreamBufferPool}.
+	 */
+	private final MockStreamBufferPool bufferPool = new MockStreamBufferPool();
+
+	/**
+	 * {@link HttpResponseCompression} to test.
+	 */
+	private final HttpResponseCompression compression = new HttpResponseCompression(100, -1);
+
+	/**
+	 * Headers of the written response.
+	 */
+	private WritableHttpHeader writtenHeaders;
+
+	/**
+	 * Content length of the written response.
+	 */
+	private long writtenContentLength;
+
+	/**
+	 * Written response entity.
+	 */
+	private final ByteArrayOutputStream writtenEntity = new ByteArrayOutputStream();
+
+	/**
+	 * Indicates if the streamed response is complete.
+	 */
+	private boolean isStreamComplete = false;
+
+	/**
+	 * Ensure negotiate the <code>Content-Encoding</code>.
+	 */
+	public void testNegotiateContentEncoding() {
+		assertNegotiate(null);
+		assertNegotiate(null, "Accept-Encoding", "identity");
+		assertNegotiate("gzip", "Accept-Encoding", "gzip");
+		assertNegotiate("gzip", "accept-encoding", "GZIP");
+		assertNegotiate("deflate", "Accept-Encoding", "deflate");
+		assertNegotiate("gzip", "Accept-Encoding", "gzip, deflate, br");
+		assertNegotiate("gzip", "Accept-Encoding", "deflate, gzip");
+		assertNegotiate("deflate", "Accept-Encoding", "gzip;q=0.5, deflate");
+		assertNegotiate("deflate", "Accept-Encoding", "gzip;q=0, deflate;q=0.1");
+		assertNegotiate(null, "Accept-Encoding", "gzip;q=0, deflate;q=0");
+		assertNegotiate("gzip", "Accept-Encoding", "*");
+		assertNegotiate("deflate", "Accept-Encoding", "gzip;q=0, *");
+		assertNegotiate(null, "Accept-Encoding", "*;q=0");
+		assertNegotiate("gzip", "Accept-Encoding", "x-gzip");
+		assertNegotiate("deflate", "Other", "gzip", "Accept-Encoding", "deflate");
+	}
+
+	/**
+	 * Asserts the negotiated <code>Content-Encoding</code>.
+	 * 
+	 * @param expectedEncoding Expected <code>Content-Encoding</code>.
+	 * @param headerNameValues Request header name/value pairs.
+	 */
+	private static void assertNegotiate(String expectedEncoding, String... headerNameValues) {
+		MockNonMaterialisedHttpHeaders headers = new MockNonMaterialisedHttpHeaders();
+		for (int i = 0; i < headerNameValues.length; i += 2) {
+			headers.addHttpHeader(headerNameValues[i], headerNameValues[i + 1]);
+		}
+		HttpHeaderValue encoding = HttpResponseCompression.negotiateContentEncoding(headers);
+		assertEquals("Incorrect encoding", expectedEncoding, encoding == null ? null : encoding.getValue());
+	}
+
+	/**
+	 * Ensure not decorate if client does not accept compression.
+	 */
+	public void testNotAccepted() {
+		HttpResponseWriter<ByteBuffer> delegate = this.createDelegate();
+		HttpResponseWriter<ByteBuffer> writer = this.compression
+				.createHttpResponseWriter(new MockNonMaterialisedHttpHeaders(), delegate, this.bufferPool);
+		assertSame("Should not compress", delegate, writer);
+	}
+
+	/**
+	 * Ensure <code>gzip</code> the entity.
+	 */
+	public void testGzip() throws IOException {
+		this.writeResponse("gzip", HttpStatus.OK, null, null, ENTITY);
+		this.assertCompressed("gzip", new GZIPInputStream(this.getWrittenEntity()));
+	}
+
+	/**
+	 * Ensure <code>deflate</code> the entity.
+	 */
+	public void testDeflate() throws IOException {
+		this.writeResponse("deflate", HttpStatus.OK, null, null, ENTITY);
+		this.assertCompressed("deflate", new InflaterInputStream(this.getWrittenEntity()));
+	}
+
+	/**
+	 * Ensure able to reuse the {@link Thread} {@link EntityCompressor}.
+	 */
+	public void testReuseCompressor() throws IOException {
+		for (int i = 0; i < 3; i++) {
+			this.writtenEntity.reset();
+			this.writeResponse("gzip", HttpStatus.OK, null, null, ENTITY);
+			this.assertCompressed("gzip", new GZIPInputStream(this.getWrittenEntity()));
+		}
+	}
+
+	/**
+	 * Ensure not compress small entity.
+	 */
+	public void testNotCompressSmallEntity() throws IOException {
+		this.writeResponse("gzip", HttpStatus.OK, null, null, "small");
+		this.assertNotCompressed("small");
+	}
+
+	/**
+	 * Ensure not compress already compressed content.
+	 */
+	public void testNotCompressCompressedContentType() throws IOException {
+		this.writeResponse("gzip", HttpStatus.OK, null, new HttpHeaderValue("image/png"), ENTITY);
+		this.assertNotCompressed(ENTITY);
+	}
+
+	/**
+	 * Ensure compress SVG.
+	 */
+	public void testCompressSvg() throws IOException {
+		this.writeResponse("gzip", HttpStatus.OK, null, new HttpHeaderValue("image/svg+xml"), ENTITY);
+		this.assertCompressed("gzip", new GZIPInputStream(this.getWrittenEntity()));
+	}
+
+	/**
+	 * Ensure not compress already encoded content.
+	 */
+	public void testNotCompressEncodedContent() throws IOException {
+		this.writeResponse("gzip", HttpStatus.OK, new WritableHttpHeader("Content-Encoding", "br"), null, ENTITY);
+		this.assertNotCompressed(ENTITY);
+	}
+
+	/**
+	 * Ensure not compress partial content.
+	 */
+	public void testNotCompressPartialContent() throws IOException {
+		this.writeResponse("gzip", HttpStatus.PARTIAL_CONTENT, null, null, ENTITY);
+		this.assertNotCompressed(ENTITY);
+	}
+
+	/**
+	 * Ensure not compress <code>Content-Range</code> content.
+	 */
+	public void testNotCompressContentRange() throws IOException {
+		this.writeResponse("gzip", HttpStatus.OK, new WritableHttpHeader("Content-Range", "bytes 0-10/100"), null,
+				ENTITY);
+		this.assertNotCompressed(ENTITY);
+	}
+
+	/**
+	 * Ensure weaken strong <code>ETag</code> and remove
+	 * <code>Accept-Ranges</code> as compressed representation differs.
+	 */
+	public void testWeakenETagAndRemoveAcceptRanges() throws IOException {
+		WritableHttpHeader header = new WritableHttpHeader("ETag", "\"abc\"");
+		header.next = new WritableHttpHeader("Accept-Ranges", "bytes");
+		header.next.next = new WritableHttpHeader("Other", "value");
+		this.writeResponse("gzip", HttpStatus.OK, header, null, ENTITY);
+		this.assertCompressed("gzip", new GZIPInputStream(this.getWrittenEntity()));
+
+		// Ensure representation headers adapted
+		WritableHttpHeader eTag = this.writtenHeaders.next.next;
+		assertEquals("Incorrect ETag header", "etag", eTag.getName());
+		assertEquals("Should weaken ETag", "W/\"abc\"", eTag.getValue());
+		assertEquals("Should remove Accept-Ranges", "other", eTag.next.getName());
+		assertEquals("Incorrect other", "value", eTag.next.getValue());
+		assertNull("Should be no further headers", eTag.next.next);
+
+		// Ensure original headers not modified
+		assertEquals("Should not change original ETag", "\"abc\"", header.getValue());
+		assertEquals("Should not change original chain", "accept-ranges", header.next.getName());
+	}
+
+	/**
+	 * Ensure keep weak <code>ETag</code>.
+	 */
+	public void testKeepWeakETag() throws IOException {
+		this.writeResponse("gzip", HttpStatus.OK, new WritableHttpHeader("ETag", "W/\"abc\""), null, ENTITY);
+		this.assertCompressed("gzip", new GZIPInputStream(this.getWrittenEntity()));
+		assertEquals("Should keep weak ETag", "W/\"abc\"", this.writtenHeaders.next.next.getValue());
+	}
+
+	/**
+	 * Ensure determine compressible <code>Content-Type</code>.
+	 */
+	public void testCompressibleContentType() {
+		assertTrue("Unknown type", HttpResponseCompression.isCompressibleContentType(null));
+		assertTrue("Text", HttpResponseCompression.isCompressibleContentType("text/html; charset=UTF-8"));
+		assertTrue("SVG", HttpResponseCompression.isCompressibleContentType("image/svg+xml"));
+		assertFalse("PNG", HttpResponseCompression.isCompressibleContentType("image/png"));
+		assertFalse("ZIP", HttpResponseCompression.isCompressibleContentType("application/zip"));
+	}
+
+	/**
+	 * Ensure compress streamed entity.
+	 */
+	public void testStream() throws IOException {
+
+		// Stream the response
+		HttpResponseWriter<ByteBuffer> writer = this.createWriter("gzip");
+		HttpResponseStreamWriter<ByteBuffer> stream = writer.streamHttpResponse(HttpVersion.HTTP_1_1,
+				HttpStatus.OK, null, null, null);
+		int half = ENTITY.length() / 2;
+		stream.write(this.createContent(ENTITY.substring(0, half)), half, false);
+
+		// Ensure flushed content available (even though not complete)
+		assertFalse("Should not be complete", this.isStreamComplete);
+		InputStream flushed = new GZIPInputStream(this.getWrittenEntity());
+		byte[] partial = new byte[half];
+		int read = 0;
+		while (read < half) {
+			read += flushed.read(partial, read, half - read);
+		}
+		assertEquals("Incorrect flushed content", ENTITY.substring(0, half), new String(partial, CHARSET));
+
+		// Complete the stream
+		stream.write(this.createContent(ENTITY.substring(half)), ENTITY.length() - half, true);
+		assertTrue("Should be complete", this.isStreamComplete);
+		this.assertCompressed("gzip", new GZIPInputStream(this.getWrittenEntity()));
+	}
+
+	/**
+	 * Creates the compressing {@link HttpResponseWriter}.
+	 * 
+	 * @param acceptEncoding <code>Accept-Encoding</code>.
+	 * @return Compressing {@link HttpResponseWriter}.
+	 */
+	private HttpResponseWriter<ByteBuffer> createWriter(String acceptEncoding) {
+		MockNonMaterialisedHttpHeaders requestHeaders = new MockNonMaterialisedHttpHeaders();
+		requestHeaders.addHttpHeader("Accept-Encoding", acceptEncoding);
+		return this.compression.createHttpResponseWriter(requestHeaders, this.createDelegate(), this.bufferPool);
+	}
+
+	/**
+	 * Writes the response.
+	 * 
+	 * @param acceptEncoding <code>Accept-Encoding</code>.
+	 * @param status         {@link HttpStatus}.
+	 * @param header         {@link WritableHttpHeader}. May be <code>null</code>.
+	 * @param contentType    <code>Content-Type</code>. May be <code>null</code>.
+	 * @param entity         Entity.
+	 */
+	private void writeResponse(String acceptEncoding, HttpStatus status, WritableHttpHeader header,
+			HttpHeaderValue contentType, String entity) {
+		this.createWriter(acceptEncoding).writeHttpResponse(HttpVersion.HTTP_1_1, status, header, null,
+				entity.length(), contentType, this.createContent(entity));
+	}
+
+	/**
+	 * Creates the content.
+	 * 
+	 * @param entity Entity.
+	 * @return Head {@link StreamBuffer} of the content.
+	 */
+	private StreamBuffer<ByteBuffer> createContent(String entity) {
+		StreamBuffer<ByteBuffer> head = this.bufferPool.getPooledStreamBuffer();
+		StreamBuffer.write(entity.getBytes(CHARSET), head, this.bufferPool);
+		return head;
+	}
+
+	/**
+	 * Creates the delegate {@link HttpResponseWriter} to capture the response.
+	 * 
+	 * @return Delegate {@link HttpResponseWriter}.
+	 */
+	private HttpResponseWriter<ByteBuffer> createDelegate() {
+		return new HttpResponseWriter<ByteBuffer>() {
+
+			@Override
+			public void writeHttpResponse(HttpVersion version, HttpStatus status, WritableHttpHeader headHttpHeader,
+					WritableHttpCookie headHttpCookie, long contentLength, HttpHeaderValue contentType,
+					StreamBuffer<ByteBuffer> contentHeadStreamBuffer) {
+				HttpResponseCompressionTest.this.writtenHeaders = headHttpHeader;
+				HttpResponseCompressionTest.this.writtenContentLength = contentLength;
+				HttpResponseCompressionTest.this.captureContent(contentHeadStreamBuffer);
+			}
+
+			@Override
+			public HttpResponseStreamWriter<ByteBuffer> streamHttpResponse(HttpVersion version, HttpStatus status,
+					WritableHttpHeader headHttpHeader, WritableHttpCookie headHttpCookie,
+					HttpHeaderValue contentType) {
+				HttpResponseCompressionTest.this.writtenHeaders = headHttpHeader;
+				return new HttpResponseStreamWriter<ByteBuffer>() {
+
+					@Override
+					public void write(StreamBuffer<ByteBuffer> content, long contentLength, boolean isComplete) {
+						HttpResponseCompressionTest.this.writtenContentLength += contentLength;
+						HttpResponseCompressionTest.this.isStreamComplete = isComplete;
+						HttpResponseCompressionTest.this.captureContent(content);
+					}
+
+					@Override
+					public void abort(Throwable cause) {
+						fail("Should not abort: " + cause);
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * Captures the content.
+	 * 
+	 * @param content Head {@link StreamBuffer} of the content.
+	 */
+	private void captureContent(StreamBuffer<ByteBuffer> content) {
+		try {
+			InputStream input = MockStreamBufferPool.createInputStream(content);
+			for (int value = input.read(); value != -1; value = input.read()) {
+				this.writtenEntity.write(value);
+			}
+		} catch (IOException ex) {
+			throw fail(ex);
+		}
+		MockStreamBufferPool.releaseStreamBuffers(content);
+	}
+
+	/**
+	 * Obtains the written entity.
+	 * 
+	 * @return {@link InputStream} to the written entity.
+	 */
+	private InputStream getWrittenEntity() {
+		return new ByteArrayInputStream(this.writtenEntity.toByteArray());
+	}
+
+	/**
+	 * Asserts the entity was compressed.
+	 * 
+	 * @param expectedEncoding Expected <code>Content-Encoding</code>.
+	 * @param decompress       {@link InputStream} to decompress the entity.
+	 */
+	private void assertCompressed(String expectedEncoding, InputStream decompress) throws IOException {
+
+		// Ensure compression headers
+		assertNotNull("Should have headers", this.writtenHeaders);
+		assertEquals("Incorrect encoding header", "content-encoding", this.writtenHeaders.getName());
+		assertEquals("Incorrect encoding", expectedEncoding, this.writtenHeaders.getValue());
+		assertEquals("Incorrect vary header", "vary", this.writtenHeaders.next.getName());
+		assertEquals("Incorrect vary", "Accept-Encoding", this.writtenHeaders.next.getValue());
+
+		// Ensure compressed
+		assertEquals("Incorrect content length", this.writtenEntity.size(), this.writtenContentLength);
+		assertTrue("Should be compressed", this.writtenContentLength < ENTITY.length());
+
+		// Ensure decompresses to the entity
+		ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+		for (int value = decompress.read(); value != -1; value = decompress.read()) {
+			decompressed.write(value);
+		}
+		assertEquals("Incorrect entity", ENTITY, new String(decompressed.toByteArray(), CHARSET));
+		this.bufferPool.assertAllBuffersReturned();
+	}
+
+	/**
+	 * Asserts the entity was not compressed.
+	 * 
+	 * @param expectedEntity Expected entity.
+	 */
+	private void assertNotCompressed(String expectedEntity) {
+		for (WritableHttpHeader header = this.writtenHeaders; header != null; header = header.next) {
+			assertFalse("Should not have Vary header", "vary".equals(header.getName()));
+		}
+		assertEquals("Incorrect content length", expectedEntity.length(), this.writtenContentLength);
+		assertEquals("Incorrect entity", expectedEntity, new String(this.writtenEntity.toByteArray(), CHARSET));
+		this.bufferPool.assertAllBuffersReturned();
+	}
+
+}
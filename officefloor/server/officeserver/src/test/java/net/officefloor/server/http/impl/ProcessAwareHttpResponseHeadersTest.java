@@ -25,10 +25,14 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Iterator;
 
+import net.officefloor.frame.api.managedobject.ManagedObjectContext;
+import net.officefloor.frame.api.managedobject.ProcessSafeOperation;
 import net.officefloor.frame.test.OfficeFrameTestCase;
 import net.officefloor.server.http.HttpHeader;
+import net.officefloor.server.http.HttpHeaderBlock;
 import net.officefloor.server.http.HttpHeaderName;
 import net.officefloor.server.http.HttpHeaderValue;
+import net.officefloor.server.http.HttpResponseHeaders;
 import net.officefloor.server.http.ServerHttpConnection;
 import net.officefloor.server.http.WritableHttpHeader;
 import net.officefloor.server.http.mock.MockManagedObjectContext;
@@ -84,6 +88,66 @@ public class ProcessAwareHttpResponseHeadersTest extends OfficeFrameTestCase {
 		assertHeaderNames(this.headers.getWritableHttpHeaders(), "one", "two", "same", "three", "same");
 	}
 
+	/**
+	 * Ensure directly adds {@link HttpHeader} when already process safe.
+	 */
+	public void testProcessSafeFastPath() {
+		ProcessAwareHttpResponseHeaders headers = new ProcessAwareHttpResponseHeaders(
+				new ProcessSafeManagedObjectContext(true));
+		headers.addHeader("fast", "path");
+		assertHeaderNames(headers, "fast");
+		assertEquals("Incorrect header", "path", headers.getHeader("fast").getValue());
+	}
+
+	/**
+	 * Ensure runs process safe operation when not already process safe.
+	 */
+	public void testNotProcessSafe() {
+		ProcessSafeManagedObjectContext context = new ProcessSafeManagedObjectContext(false);
+		ProcessAwareHttpResponseHeaders headers = new ProcessAwareHttpResponseHeaders(context);
+		headers.addHeader("safe", "path");
+		assertEquals("Should run process safe operation", 1, context.runCount);
+		assertEquals("Incorrect header", "path", headers.getHeader("safe").getValue());
+		assertEquals("Should run process safe operation for get", 2, context.runCount);
+	}
+
+	/**
+	 * {@link ManagedObjectContext} to control process safety.
+	 */
+	private static class ProcessSafeManagedObjectContext extends MockManagedObjectContext {
+
+		/**
+		 * Indicates if process safe.
+		 */
+		private final boolean isProcessSafe;
+
+		/**
+		 * Number of {@link ProcessSafeOperation} instances run.
+		 */
+		private int runCount = 0;
+
+		/**
+		 * Instantiate.
+		 * 
+		 * @param isProcessSafe Indicates if process safe.
+		 */
+		private ProcessSafeManagedObjectContext(boolean isProcessSafe) {
+			this.isProcessSafe = isProcessSafe;
+		}
+
+		@Override
+		public boolean isProcessSafe() {
+			return this.isProcessSafe;
+		}
+
+		@Override
+		public <R, T extends Throwable> R run(ProcessSafeOperation<R, T> operation) throws T {
+			assertFalse("Should not run operation when process safe", this.isProcessSafe);
+			this.runCount++;
+			return super.run(operation);
+		}
+	}
+
 	/**
 	 * Ensure can remove {@link HttpHeader}.
 	 */
@@ -173,6 +237,49 @@ public class ProcessAwareHttpResponseHeadersTest extends OfficeFrameTestCase {
 		assertEquals("Incorrect HTTP headers content", expectedContent, content);
 	}
 
+	/**
+	 * Ensure {@link HttpHeaderBlock} is written after the headers in a single
+	 * copy, while not being visible to the {@link HttpResponseHeaders}.
+	 */
+	public void testHeaderBlock() throws IOException {
+
+		// Create the header block
+		HttpHeaderBlock block = new HttpHeaderBlock(new WritableHttpHeader("Cache-Control", "no-cache"),
+				new WritableHttpHeader("block", "value"));
+
+		// Ensure block linked after the headers
+		WritableHttpHeader head = this.headers.getWritableHttpHeaders(block);
+		assertHeaderNames(head, "one", "two", "same", "three", "same", "cache-control", "block");
+
+		// Ensure block not visible to headers
+		assertHeaderNames(this.headers, "one", "two", "same", "three", "same");
+		assertNull("Block header should not be available", this.headers.getHeader("block"));
+		assertHeaderNames(this.headers.getHeaders("same"), "same", "same");
+		assertFalse("Should not remove block header", this.headers.removeHeader(block.getWritableHttpHeaders()));
+
+		// Ensure can remove last header (keeping block)
+		assertTrue("Should remove last header", this.headers.removeHeaders("same"));
+		assertHeaderNames(this.headers, "one", "two", "three");
+		head = this.headers.getWritableHttpHeaders(block);
+		assertHeaderNames(head, "one", "two", "three", "cache-control", "block");
+
+		// Ensure writes the block
+		MockStreamBufferPool bufferPool = new MockStreamBufferPool();
+		StreamBuffer<ByteBuffer> buffer = bufferPool.getPooledStreamBuffer();
+		while (head != null) {
+			head.write(buffer, bufferPool);
+			head = head.next;
+		}
+		MockStreamBufferPool.releaseStreamBuffers(buffer);
+		assertEquals("Incorrect HTTP headers content",
+				"one: 1\r\ntwo: 2\r\nthree: 3\r\ncache-control: no-cache\r\nblock: value\r\n",
+				MockStreamBufferPool.getContent(buffer, ServerHttpConnection.HTTP_CHARSET));
+
+		// Ensure only block if no headers
+		ProcessAwareHttpResponseHeaders empty = new ProcessAwareHttpResponseHeaders(new MockManagedObjectContext());
+		assertSame("Should only be block", block.getWritableHttpHeaders(), empty.getWritableHttpHeaders(block));
+	}
+
 	/**
 	 * Asserts the {@link WritableHttpHeader} instances.
 	 * 
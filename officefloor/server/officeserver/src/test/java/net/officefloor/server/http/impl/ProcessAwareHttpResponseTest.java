@@ -29,16 +29,20 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 
 import net.officefloor.frame.api.escalate.Escalation;
 import net.officefloor.frame.test.Closure;
 import net.officefloor.frame.test.OfficeFrameTestCase;
 import net.officefloor.server.http.HttpHeader;
+import net.officefloor.server.http.HttpHeaderBlock;
 import net.officefloor.server.http.HttpHeaderValue;
 import net.officefloor.server.http.HttpMethod;
 import net.officefloor.server.http.HttpResponse;
 import net.officefloor.server.http.HttpResponseCookie;
+import net.officefloor.server.http.HttpResponseStreamWriter;
 import net.officefloor.server.http.HttpResponseWriter;
 import net.officefloor.server.http.HttpStatus;
 import net.officefloor.server.http.HttpVersion;
@@ -50,6 +54,7 @@ import net.officefloor.server.http.mock.MockStreamBufferPool;
 import net.officefloor.server.stream.ServerOutputStream;
 import net.officefloor.server.stream.ServerWriter;
 import net.officefloor.server.stream.StreamBuffer;
+import net.officefloor.server.stream.impl.ByteSequence;
 
 /**
  * Tests the {@link ProcessAwareHttpResponse}.
@@ -67,8 +72,8 @@ public class ProcessAwareHttpResponseTest extends OfficeFrameTestCase implements
 	 * {@link ProcessAwareServerHttpConnectionManagedObject}.
 	 */
 	private final ProcessAwareServerHttpConnectionManagedObject<ByteBuffer> connection = new ProcessAwareServerHttpConnectionManagedObject<ByteBuffer>(
-			new HttpServerLocationImpl(), false, () -> HttpMethod.GET, () -> "/", HttpVersion.HTTP_1_1, null, null,
-			null, null, true, this, this.bufferPool);
+			new HttpServerLocationImpl(), false, () -> HttpMethod.GET, () -> "/", HttpVersion.HTTP_1_1, null,
+			ByteSequence.EMPTY, null, null, true, this, this.bufferPool);
 
 	/**
 	 * {@link ProcessAwareHttpResponse} to test.
@@ -157,6 +162,36 @@ public class ProcessAwareHttpResponseTest extends OfficeFrameTestCase implements
 		assertNull("Should be no further headers", this.httpHeader.next);
 	}
 
+	/**
+	 * Ensure writes the {@link HttpHeaderBlock} after the {@link HttpHeader}
+	 * instances.
+	 */
+	public void testHeaderBlock() throws IOException {
+
+		// Add header and header block
+		HttpHeaderBlock block = new HttpHeaderBlock(new WritableHttpHeader("block", "fixed"));
+		this.response.getHeaders().addHeader("test", "value");
+		this.response.setHeaderBlock(block);
+		assertSame("Incorrect header block", block, this.response.getHeaderBlock());
+
+		// Ensure writes header block after HTTP headers
+		this.response.flushResponseToHttpResponseWriter(null);
+		assertEquals("Incorrect header name", "test", this.httpHeader.getName());
+		assertSame("Should be followed by block", block.getWritableHttpHeaders(), this.httpHeader.next);
+		assertEquals("Incorrect block header value", "fixed", this.httpHeader.next.getValue());
+	}
+
+	/**
+	 * Ensure reset clears the {@link HttpHeaderBlock}.
+	 */
+	public void testResetHeaderBlock() throws IOException {
+		this.response.setHeaderBlock(new HttpHeaderBlock(new WritableHttpHeader("block", "fixed")));
+		this.response.reset();
+		assertNull("Should clear header block", this.response.getHeaderBlock());
+		this.response.flushResponseToHttpResponseWriter(null);
+		assertNull("Should be no headers", this.httpHeader);
+	}
+
 	/**
 	 * Set a {@link HttpResponseCookie}.
 	 */
@@ -541,6 +576,99 @@ public class ProcessAwareHttpResponseTest extends OfficeFrameTestCase implements
 				ServerHttpConnection.DEFAULT_HTTP_ENTITY_CHARSET));
 	}
 
+	/**
+	 * Ensure buffers content if {@link HttpResponseWriter} does not support
+	 * streaming.
+	 */
+	public void testFlushToClientWithoutStreaming() throws IOException {
+
+		// Write and flush content
+		ServerWriter writer = this.response.getEntityWriter();
+		writer.write("FLUSH");
+		writer.flushToClient();
+
+		// Should not be written yet
+		assertNull("Should not write response on flush", this.status);
+
+		// Write further content and send response
+		writer.write(" COMPLETE");
+		this.response.flushResponseToHttpResponseWriter(null);
+
+		// Ensure all content written
+		assertSame("Incorrect status", HttpStatus.OK, this.status);
+		assertEquals("Incorrect content-length", "FLUSH COMPLETE".length(), this.contentLength);
+		MockStreamBufferPool.releaseStreamBuffers(this.contentHeadStreamBuffer);
+		assertEquals("Incorrect content", "FLUSH COMPLETE", MockStreamBufferPool
+				.getContent(this.contentHeadStreamBuffer, ServerHttpConnection.DEFAULT_HTTP_ENTITY_CHARSET));
+	}
+
+	/**
+	 * Ensure able to stream the {@link HttpResponse}.
+	 */
+	public void testStreamResponse() throws IOException {
+		this.isStreamingSupported = true;
+
+		// Write and flush content
+		this.response.setStatus(HttpStatus.CREATED);
+		ServerWriter writer = this.response.getEntityWriter();
+		writer.write("FIRST");
+		writer.flushToClient();
+
+		// Ensure committed to streaming response
+		assertSame("Incorrect status", HttpStatus.CREATED, this.status);
+		assertEquals("Incorrect content-type", "text/plain", this.contentType.getValue());
+		assertEquals("Incorrect streamed content", 1, this.streamedContent.size());
+		assertEquals("Incorrect first chunk", "FIRST", this.streamedContent.get(0));
+		assertFalse("Should not be complete", this.isStreamComplete);
+
+		// Should not be able to reset once streaming
+		try {
+			this.response.reset();
+			fail("Should not be able to reset once streaming");
+		} catch (IOException ex) {
+			assertEquals("Incorrect cause", "Already committed to send response", ex.getMessage());
+		}
+
+		// Complete the response
+		writer.write("SECOND");
+		this.response.flushResponseToHttpResponseWriter(null);
+
+		// Ensure remaining content written
+		assertEquals("Incorrect streamed content", 2, this.streamedContent.size());
+		assertEquals("Incorrect last chunk", "SECOND", this.streamedContent.get(1));
+		assertTrue("Should be complete", this.isStreamComplete);
+		assertNull("Should not write full response", this.contentHeadStreamBuffer);
+	}
+
+	/**
+	 * Ensure aborts the streamed {@link HttpResponse} on escalation, as content
+	 * already sent to the client.
+	 */
+	public void testAbortStreamedResponseOnEscalation() throws IOException {
+		this.isStreamingSupported = true;
+
+		// Write and flush content
+		ServerWriter writer = this.response.getEntityWriter();
+		writer.write("FIRST");
+		writer.flushToClient();
+		assertEquals("Incorrect streamed content", 1, this.streamedContent.size());
+
+		// Fail after streaming content
+		writer.write("UNSENT");
+		Exception failure = new Exception("TEST");
+		this.response.flushResponseToHttpResponseWriter(failure);
+
+		// Ensure aborted (rather than completing the response)
+		assertSame("Should abort with escalation", failure, this.streamAbortCause);
+		assertFalse("Should not complete the response", this.isStreamComplete);
+		assertEquals("Should not stream further content", 1, this.streamedContent.size());
+		assertNull("Should not write full response", this.contentHeadStreamBuffer);
+
+		// Ensure not written again
+		this.response.flushResponseToHttpResponseWriter(null);
+		assertFalse("Should not complete once aborted", this.isStreamComplete);
+	}
+
 	/*
 	 * ===================== HttpResponseWriter ============================
 	 */
@@ -572,4 +700,52 @@ public class ProcessAwareHttpResponseTest extends OfficeFrameTestCase implements
 		this.contentHeadStreamBuffer = contentHeadStreamBuffer;
 	}
 
+	private boolean isStreamingSupported = false;
+
+	private final List<String> streamedContent = new ArrayList<>();
+
+	private boolean isStreamComplete = false;
+
+	private Throwable streamAbortCause = null;
+
+	@Override
+	public HttpResponseStreamWriter<ByteBuffer> streamHttpResponse(HttpVersion version, HttpStatus status,
+			WritableHttpHeader httpHeader, WritableHttpCookie httpCookie, HttpHeaderValue contentType) {
+
+		// Determine if support streaming
+		if (!this.isStreamingSupported) {
+			return null;
+		}
+
+		// Capture details and stream content
+		this.version = version;
+		this.status = status;
+		this.httpHeader = httpHeader;
+		this.httpCookie = httpCookie;
+		this.contentType = contentType;
+		return new HttpResponseStreamWriter<ByteBuffer>() {
+
+			@Override
+			public void write(StreamBuffer<ByteBuffer> contentHeadStreamBuffer, long contentLength,
+					boolean isComplete) {
+				ProcessAwareHttpResponseTest test = ProcessAwareHttpResponseTest.this;
+				assertFalse("Already completed", test.isStreamComplete);
+				assertNull("Already aborted", test.streamAbortCause);
+				MockStreamBufferPool.releaseStreamBuffers(contentHeadStreamBuffer);
+				String content = MockStreamBufferPool.getContent(contentHeadStreamBuffer,
+						ServerHttpConnection.DEFAULT_HTTP_ENTITY_CHARSET);
+				assertEquals("Incorrect content length", content.length(), contentLength);
+				test.streamedContent.add(content);
+				test.isStreamComplete = isComplete;
+			}
+
+			@Override
+			public void abort(Throwable cause) {
+				ProcessAwareHttpResponseTest test = ProcessAwareHttpResponseTest.this;
+				assertFalse("Already completed", test.isStreamComplete);
+				test.streamAbortCause = cause;
+			}
+		};
+	}
+
 }
@@ -0,0 +1,191 @@
+/*-
+ * #%L
+ * HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.server.http.log;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import net.officefloor.frame.test.OfficeFrameTestCase;
+import net.officefloor.server.http.HttpMethod;
+import net.officefloor.server.http.HttpStatus;
+import net.officefloor.server.http.HttpVersion;
+import net.officefloor.server.http.ServerHttpConnection;
+import net.officefloor.server.stream.impl.ByteArrayByteSequence;
+
+/**
+ * Tests the {@link HttpAccessLog}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class HttpAccessLogTest extends OfficeFrameTestCase {
+
+	/**
+	 * Directory for the log files.
+	 */
+	private Path directory;
+
+	/**
+	 * Log file.
+	 */
+	private Path file;
+
+	@Override
+	protected void setUp() throws Exception {
+		this.directory = Files.createTempDirectory(this.getName());
+		this.file = this.directory.resolve("access.log");
+	}
+
+	/**
+	 * Ensure writes in Common Log Format.
+	 */
+	public void testCommonLogFormat() throws Exception {
+		HttpAccessLog log = new HttpAccessLog(this.file, HttpAccessLogFormat.COMMON, 16, -1, 1);
+		log.start();
+		log.log(HttpMethod.GET, "/path?query=value", HttpVersion.HTTP_1_1, HttpStatus.OK, 100, System.nanoTime());
+		log.log(HttpMethod.POST, "/empty", HttpVersion.HTTP_1_0, HttpStatus.NO_CONTENT, 0, System.nanoTime());
+		log.stop();
+
+		// Ensure logged
+		List<String> lines = Files.readAllLines(this.file);
+		assertEquals("Incorrect number of lines: " + lines, 2, lines.size());
+		assertTrue("Incorrect first line: " + lines.get(0),
+				lines.get(0).matches("- - - \\[\\d{2}/\\w{3}/\\d{4}:\\d{2}:\\d{2}:\\d{2} [+-]\\d{4}\\] "
+						+ "\"GET /path\\?query=value HTTP/1.1\" 200 100"));
+		assertTrue("Incorrect second line: " + lines.get(1),
+				lines.get(1).endsWith("\"POST /empty HTTP/1.0\" 204 -"));
+	}
+
+	/**
+	 * Ensure writes JSON lines.
+	 */
+	public void testJsonFormat() throws Exception {
+		HttpAccessLog log = new HttpAccessLog(this.file, HttpAccessLogFormat.JSON, 16, -1, 1);
+		log.start();
+		log.log(HttpMethod.GET, "/\"quoted\"", HttpVersion.HTTP_1_1, HttpStatus.NOT_FOUND, 10, System.nanoTime());
+		log.stop();
+
+		// Ensure logged
+		List<String> lines = Files.readAllLines(this.file);
+		assertEquals("Incorrect number of lines: " + lines, 1, lines.size());
+		assertTrue("Incorrect line: " + lines.get(0),
+				lines.get(0).matches("\\{\"time\":\"[^\"]+Z\",\"method\":\"GET\",\"uri\":\"/\\\\\"quoted\\\\\"\","
+						+ "\"version\":\"HTTP/1.1\",\"status\":404,\"bytes\":10,\"duration_us\":\\d+\\}"));
+	}
+
+	/**
+	 * Ensure logs from the raw request URI bytes (copying the bytes so the request
+	 * buffers may be released).
+	 */
+	public void testRawRequestUri() throws Exception {
+		HttpAccessLog log = new HttpAccessLog(this.file, HttpAccessLogFormat.JSON, 16, -1, 1);
+		log.start();
+
+		// Log from the raw bytes (and then change bytes as if released)
+		byte[] rawRequestUri = "/raw?query=\"value\"".getBytes(ServerHttpConnection.URI_CHARSET);
+		log.log(HttpMethod.GET, new ByteArrayByteSequence(rawRequestUri), HttpVersion.HTTP_1_1, HttpStatus.OK, 1,
+				System.nanoTime());
+		Arrays.fill(rawRequestUri, (byte) 'X');
+
+		// Log long request URI (truncated)
+		char[] longRequestUri = new char[HttpAccessLogRecord.MAX_REQUEST_URI_LENGTH + 10];
+		Arrays.fill(longRequestUri, 'a');
+		longRequestUri[0] = '/';
+		log.log(HttpMethod.GET,
+				new ByteArrayByteSequence(new String(longRequestUri).getBytes(ServerHttpConnection.URI_CHARSET)),
+				HttpVersion.HTTP_1_1, HttpStatus.OK, 1, System.nanoTime());
+		log.stop();
+
+		// Ensure logged
+		List<String> lines = Files.readAllLines(this.file);
+		assertEquals("Incorrect number of lines: " + lines, 2, lines.size());
+		assertTrue("Incorrect raw line: " + lines.get(0),
+				lines.get(0).contains("\"uri\":\"/raw?query=\\\"value\\\"\""));
+		String truncated = new String(longRequestUri, 0, HttpAccessLogRecord.MAX_REQUEST_URI_LENGTH) + "...";
+		assertTrue("Incorrect truncated line: " + lines.get(1),
+				lines.get(1).contains("\"uri\":\"" + truncated + "\""));
+	}
+
+	/**
+	 * Ensure drops entries rather than block when buffer full.
+	 */
+	public void testDropWhenFull() throws Exception {
+		HttpAccessLog log = new HttpAccessLog(this.file, HttpAccessLogFormat.COMMON, 2, -1, 1);
+
+		// Fill the buffer (not started so not written)
+		for (int i = 0; i < 5; i++) {
+			log.log(HttpMethod.GET, "/" + i, HttpVersion.HTTP_1_1, HttpStatus.OK, 1, System.nanoTime());
+		}
+		assertEquals("Should drop entries once full", 3, log.getDroppedCount());
+
+		// Ensure buffered entries written
+		log.start();
+		log.stop();
+		List<String> lines = Files.readAllLines(this.file);
+		assertEquals("Incorrect number of lines: " + lines, 2, lines.size());
+		assertTrue("Incorrect first line: " + lines.get(0), lines.get(0).contains("\"GET /0 HTTP/1.1\""));
+		assertTrue("Incorrect second line: " + lines.get(1), lines.get(1).contains("\"GET /1 HTTP/1.1\""));
+	}
+
+	/**
+	 * Ensure rotates the log file.
+	 */
+	public void testRotate() throws Exception {
+		HttpAccessLog log = new HttpAccessLog(this.file, HttpAccessLogFormat.COMMON, 16, 1, 2);
+		log.start();
+		for (int i = 0; i < 4; i++) {
+			log.log(HttpMethod.GET, "/" + i, HttpVersion.HTTP_1_1, HttpStatus.OK, 1, System.nanoTime());
+
+			// Allow each entry to be written (and rotated) separately
+			long timeout = System.currentTimeMillis() + 5000;
+			while (!this.readFile("access.log.1").contains("/" + i)) {
+				assertTrue("Timed out waiting on rotate " + i, System.currentTimeMillis() < timeout);
+				Thread.sleep(1);
+			}
+		}
+		log.stop();
+
+		// Ensure only retain the configured number of rotated files
+		assertEquals("Current file should be empty", 0, Files.size(this.file));
+		assertTrue("Incorrect latest rotated file", this.readFile("access.log.1").contains("/3"));
+		assertTrue("Incorrect oldest rotated file", this.readFile("access.log.2").contains("/2"));
+		assertFalse("Should discard older rotated files", Files.exists(this.directory.resolve("access.log.3")));
+	}
+
+	/**
+	 * Reads the log file.
+	 * 
+	 * @param fileName Name of the log file.
+	 * @return Content of the log file. Empty if not available.
+	 */
+	private String readFile(String fileName) {
+		try {
+			return new String(Files.readAllBytes(this.directory.resolve(fileName)));
+		} catch (IOException ex) {
+			return ""; // not yet available
+		}
+	}
+
+}
@@ -27,6 +27,7 @@ import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.StringWriter;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 import net.officefloor.frame.test.OfficeFrameTestCase;
 import net.officefloor.server.http.ServerHttpConnection;
@@ -315,4 +316,22 @@ public class MockStreamBufferPoolTest extends OfficeFrameTestCase {
 		assertEquals("Incorrect response", expected.toString(), response.toString());
 	}
 
+	/**
+	 * Ensure can read multiple positioned file {@link StreamBuffer} instances of
+	 * the same file.
+	 */
+	public void testPositionedFileBuffers() throws IOException {
+
+		// Write positioned content of the file
+		FileChannel file = TemporaryFiles.getDefault().createTempFile("PositionedFileBuffers", "0123456789");
+		this.output.write(file, 6, 3, null);
+		this.output.write("-".getBytes(ServerHttpConnection.DEFAULT_HTTP_ENTITY_CHARSET));
+		this.output.write(file, 1, 2, null);
+		this.output.write(file, 8, -1, null);
+
+		// Ensure correct content
+		assertEquals("Incorrect content", "678-1289", MockStreamBufferPool
+				.getContent(this.output.getBuffers(), ServerHttpConnection.DEFAULT_HTTP_ENTITY_CHARSET));
+	}
+
 }
@@ -95,6 +95,21 @@ public class ByteSequenceServerInputStreamTest extends OfficeFrameTestCase {
 				new String(data, offset, length, ServerHttpConnection.HTTP_CHARSET));
 	}
 
+	/**
+	 * Ensure bytes with the high bit set are not mistaken for end of stream.
+	 */
+	public void testReadHighBitBytes() throws IOException {
+		byte[] highBitBytes = new byte[] { (byte) 0xff, (byte) 0x80, 1 };
+		ByteSequenceServerInputStream input = new ByteSequenceServerInputStream(
+				new ByteArrayByteSequence(highBitBytes), 0);
+		assertEquals("Incorrect 0xff byte", 0xff, input.read());
+		byte[] data = new byte[4];
+		assertEquals("Should read remaining bytes", 2, input.read(data, 1, 3));
+		assertEquals("Incorrect 0x80 byte", (byte) 0x80, data[1]);
+		assertEquals("Incorrect last byte", 1, data[2]);
+		assertEquals("Should be end of stream", -1, input.read(data, 0, 4));
+	}
+
 	/**
 	 * Ensure can browse rest of {@link ServerInputStream}.
 	 */
@@ -272,6 +272,60 @@ public class ThreadLocalStreamBufferPoolTest extends OfficeFrameTestCase {
 		assertSame("Core is first after thread completion", coreBuffer, reuse[THREAD_LOCAL_POOL_SIZE]);
 	}
 
+	/**
+	 * Ensure {@link StreamBuffer} instances released on another {@link Thread}
+	 * are available through the core pool.
+	 */
+	public void testReleaseOnAnotherThread() throws Exception {
+
+		// Obtain the buffers
+		StreamBuffer<ByteBuffer> first = this.pool.getPooledStreamBuffer();
+		StreamBuffer<ByteBuffer> second = this.pool.getPooledStreamBuffer();
+
+		// Release the buffers on another thread
+		Thread thread = new Thread(() -> {
+			first.release();
+			second.release();
+			this.pool.threadComplete();
+		});
+		thread.start();
+		thread.join();
+
+		// Ensure obtain the buffers (rather than create new buffers)
+		assertSame("Incorrect first buffer", first, this.pool.getPooledStreamBuffer());
+		assertSame("Incorrect second buffer", second, this.pool.getPooledStreamBuffer());
+		assertEquals("Should only create the two buffers", 2, this.pool.getStreamBufferCount());
+	}
+
+	/**
+	 * Ensure provides the statistics of the core pool stripes.
+	 */
+	public void testCoreStripeStatistics() {
+
+		// Obtain and release buffers (second released to core)
+		StreamBuffer<ByteBuffer> first = this.pool.getPooledStreamBuffer();
+		StreamBuffer<ByteBuffer> second = this.pool.getPooledStreamBuffer();
+		first.release();
+		second.release();
+
+		// Obtain from thread local and then core pool
+		assertSame("Should obtain thread local buffer", first, this.pool.getPooledStreamBuffer());
+		assertSame("Should obtain core buffer", second, this.pool.getPooledStreamBuffer());
+
+		// Ensure correct statistics
+		long hits = 0;
+		long misses = 0;
+		long created = 0;
+		for (int i = 0; i < this.pool.getCoreStripeCount(); i++) {
+			hits += this.pool.getCoreStripeHitCount(i);
+			misses += this.pool.getCoreStripeMissCount(i);
+			created += this.pool.getCoreStripeCreatedCount(i);
+		}
+		assertEquals("Incorrect hits", 1, hits);
+		assertEquals("Incorrect misses", 2, misses);
+		assertEquals("Incorrect created", 2, created);
+	}
+
 	/**
 	 * Ensure can write to {@link ByteBuffer} through {@link StreamBuffer} write
 	 * facade.
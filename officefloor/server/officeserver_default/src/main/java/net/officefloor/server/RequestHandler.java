@@ -47,6 +47,14 @@ public interface RequestHandler<R> {
 		 *             If execution fails.
 		 */
 		void run() throws Throwable;
+
+		/**
+		 * Releases resources held by the {@link Execution} should it never be run
+		 * (e.g. {@link Socket} {@link Thread} shutdown before running it).
+		 */
+		default void release() {
+			// By default, nothing to release
+		}
 	}
 
 	/**
@@ -70,6 +78,75 @@ public interface RequestHandler<R> {
 	 */
 	void handleRequest(R request) throws IllegalStateException;
 
+	/**
+	 * <p>
+	 * Disables pausing reading the {@link Socket} on reaching the maximum
+	 * in-flight requests.
+	 * <p>
+	 * Multiplexed protocols (e.g. HTTP/2) must continue reading control frames
+	 * while requests are in-flight. They instead limit the requests they handle
+	 * to the returned maximum.
+	 * <p>
+	 * This may only be invoked by the {@link Socket} {@link Thread}.
+	 * 
+	 * @return Maximum number of in-flight requests.
+	 * @throws IllegalStateException
+	 *             If invoked from another {@link Thread}.
+	 */
+	int disableReadPause() throws IllegalStateException;
+
+	/**
+	 * <p>
+	 * Flags whether the entity of the last handled request is still being
+	 * received (i.e. streamed to its servicing).
+	 * <p>
+	 * While receiving the entity, reading the {@link Socket} is not paused on
+	 * reaching the maximum in-flight requests, as the in-flight request awaits
+	 * the remaining entity.
+	 * <p>
+	 * This may only be invoked by the {@link Socket} {@link Thread}.
+	 * 
+	 * @param isReceiving
+	 *            <code>true</code> if receiving the entity of the last handled
+	 *            request. <code>false</code> once the entity is received.
+	 * @throws IllegalStateException
+	 *             If invoked from another {@link Thread}.
+	 */
+	void receiveRequestEntity(boolean isReceiving) throws IllegalStateException;
+
+	/**
+	 * <p>
+	 * Pauses reading the {@link Socket}.
+	 * <p>
+	 * This provides back-pressure, should the servicing consume a streamed
+	 * entity slower than it is received.
+	 * <p>
+	 * This may only be invoked by the {@link Socket} {@link Thread}.
+	 * 
+	 * @param isPause
+	 *            <code>true</code> to pause reading. <code>false</code> to
+	 *            resume reading.
+	 * @throws IllegalStateException
+	 *             If invoked from another {@link Thread}.
+	 */
+	void pauseRead(boolean isPause) throws IllegalStateException;
+
+	/**
+	 * <p>
+	 * Releases the read {@link StreamBuffer} instances of the request currently
+	 * being received, as their content is no longer required (e.g. entity
+	 * content spilled to file).
+	 * <p>
+	 * The {@link StreamBuffer} currently being read into and the
+	 * {@link StreamBuffer} shared with the previous request are retained.
+	 * <p>
+	 * This may only be invoked by the {@link Socket} {@link Thread}.
+	 * 
+	 * @throws IllegalStateException
+	 *             If invoked from another {@link Thread}.
+	 */
+	void releaseReceivedRequestBuffers() throws IllegalStateException;
+
 	/**
 	 * <p>
 	 * Sends data immediately.
@@ -35,7 +35,7 @@ import net.officefloor.server.stream.StreamBuffer;
 public interface ResponseWriter {
 
 	/**
-	 * Writes the {@link StreamBuffer} instances as the response.
+	 * Writes the {@link StreamBuffer} instances as the complete response.
 	 * 
 	 * @param responseHeaderWriter
 	 *            {@link ResponseHeaderWriter}.
@@ -45,6 +45,30 @@ public interface ResponseWriter {
 	 *            {@link StreamBuffer} is written back to the {@link Socket}, it
 	 *            is released back to its {@link StreamBufferPool}.
 	 */
-	void write(ResponseHeaderWriter responseHeaderWriter, StreamBuffer<ByteBuffer> headResponseBuffer);
+	default void write(ResponseHeaderWriter responseHeaderWriter, StreamBuffer<ByteBuffer> headResponseBuffer) {
+		this.write(responseHeaderWriter, headResponseBuffer, true);
+	}
+
+	/**
+	 * <p>
+	 * Writes the {@link StreamBuffer} instances as part of the response.
+	 * <p>
+	 * This enables streaming the response, with each write sending the further
+	 * content of the response. The {@link ResponseHeaderWriter} need only be
+	 * provided on the first write.
+	 * 
+	 * @param responseHeaderWriter
+	 *            {@link ResponseHeaderWriter}. May be <code>null</code> for
+	 *            subsequent writes of the response.
+	 * @param headResponseBuffer
+	 *            Head {@link StreamBuffer} for the linked list of
+	 *            {@link StreamBuffer} instances for the response. Once the
+	 *            {@link StreamBuffer} is written back to the {@link Socket}, it
+	 *            is released back to its {@link StreamBufferPool}.
+	 * @param isComplete
+	 *            <code>true</code> if this is the last write of the response.
+	 */
+	void write(ResponseHeaderWriter responseHeaderWriter, StreamBuffer<ByteBuffer> headResponseBuffer,
+			boolean isComplete);
 
 }
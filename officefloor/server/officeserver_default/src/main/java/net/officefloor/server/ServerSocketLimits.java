@@ -0,0 +1,146 @@
+/*-
+ * #%L
+ * Default OfficeFloor HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.server;
+
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * Limits on the {@link Socket} connections accepted by a {@link ServerSocket}.
+ * <p>
+ * Also provides live counters of the connections, so that heap and buffer
+ * usage may be monitored.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class ServerSocketLimits {
+
+	/**
+	 * Maximum number of open connections.
+	 */
+	private final int maxOpenConnections;
+
+	/**
+	 * Maximum number of in-flight requests per connection.
+	 */
+	private final int maxInFlightRequests;
+
+	/**
+	 * Number of open connections.
+	 */
+	final AtomicInteger openConnections = new AtomicInteger(0);
+
+	/**
+	 * Number of in-flight requests across all connections.
+	 */
+	final LongAdder inFlightRequests = new LongAdder();
+
+	/**
+	 * Number of connections with reading paused.
+	 */
+	final AtomicInteger readPausedConnections = new AtomicInteger(0);
+
+	/**
+	 * {@link Runnable} instances to resume accepting connections.
+	 */
+	final List<Runnable> resumeAccepting = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Instantiate.
+	 * 
+	 * @param maxOpenConnections  Maximum number of open connections. On reaching
+	 *                            this limit, accepting further connections is
+	 *                            paused until connections are closed.
+	 * @param maxInFlightRequests Maximum number of in-flight requests per
+	 *                            connection. On reaching this limit, reading the
+	 *                            connection is paused until responses are
+	 *                            written.
+	 */
+	public ServerSocketLimits(int maxOpenConnections, int maxInFlightRequests) {
+		this.maxOpenConnections = maxOpenConnections;
+		this.maxInFlightRequests = maxInFlightRequests;
+	}
+
+	/**
+	 * Flags a connection is closed. Should the number of open connections drop
+	 * below the maximum, accepting connections is resumed.
+	 */
+	void connectionClosed() {
+		if (this.openConnections.getAndDecrement() == this.maxOpenConnections) {
+			for (Runnable resume : this.resumeAccepting) {
+				resume.run();
+			}
+		}
+	}
+
+	/**
+	 * Obtains the maximum number of open connections.
+	 * 
+	 * @return Maximum number of open connections.
+	 */
+	public int getMaxOpenConnections() {
+		return this.maxOpenConnections;
+	}
+
+	/**
+	 * Obtains the maximum number of in-flight requests per connection.
+	 * 
+	 * @return Maximum number of in-flight requests per connection.
+	 */
+	public int getMaxInFlightRequests() {
+		return this.maxInFlightRequests;
+	}
+
+	/**
+	 * Obtains the current number of open connections.
+	 * 
+	 * @return Current number of open connections.
+	 */
+	public int getOpenConnectionCount() {
+		return this.openConnections.get();
+	}
+
+	/**
+	 * Obtains the current number of in-flight requests across all connections.
+	 * 
+	 * @return Current number of in-flight requests.
+	 */
+	public long getInFlightRequestCount() {
+		return this.inFlightRequests.sum();
+	}
+
+	/**
+	 * Obtains the current number of connections with reading paused (due to
+	 * maximum in-flight requests or back-pressure of a streamed entity).
+	 * 
+	 * @return Current number of connections with reading paused.
+	 */
+	public int getReadPausedConnectionCount() {
+		return this.readPausedConnections.get();
+	}
+
+}
@@ -26,10 +26,10 @@ import java.net.BindException;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.net.SocketOption;
 import java.nio.ByteBuffer;
 import java.nio.channels.CancelledKeyException;
 import java.nio.channels.ClosedChannelException;
-import java.nio.channels.Pipe;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
@@ -40,6 +40,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -62,6 +63,23 @@ public class SocketManager {
 	 */
 	public static final int DEFAULT_SERVER_SOCKET_BACKLOG_SIZE = 8192;
 
+	/**
+	 * Default maximum number of {@link StreamBuffer} instances gathered into a
+	 * single write to the {@link SocketChannel}.
+	 */
+	public static final int DEFAULT_MAX_GATHERING_WRITE_BUFFERS = 16;
+
+	/**
+	 * Number of slots in the {@link TimeoutWheel}.
+	 */
+	private static final int TIMEOUT_WHEEL_SIZE = 64;
+
+	/**
+	 * Minimum tick in milliseconds of the {@link TimeoutWheel}. Ticks are driven
+	 * from the select loop, so finer ticks provide little extra accuracy.
+	 */
+	private static final long MIN_TIMEOUT_WHEEL_TICK = 10;
+
 	/**
 	 * {@link ThreadLocal} to determine if {@link SocketListener} {@link Thread}.
 	 */
@@ -73,14 +91,17 @@ public class SocketManager {
 	private static final Logger LOGGER = Logger.getLogger(SocketManager.class.getName());
 
 	/**
-	 * {@link ByteBuffer} to send to on {@link Pipe} to notify.
+	 * {@link SocketListener} instances.
 	 */
-	private static final ByteBuffer NOTIFY_BUFFER = ByteBuffer.wrap(new byte[] { 1 });
+	private final SocketListener[] listeners;
 
 	/**
-	 * {@link SocketListener} instances.
+	 * <code>SO_REUSEPORT</code> {@link SocketOption} to have each
+	 * {@link SocketListener} bind its own {@link ServerSocketChannel} to the port.
+	 * <code>null</code> if not to share the port across {@link SocketListener}
+	 * instances.
 	 */
-	private final SocketListener[] listeners;
+	private final SocketOption<Boolean> reusePortOption;
 
 	/**
 	 * Index of the next {@link SocketListener} for handling the listening of a
@@ -119,11 +140,107 @@ public class SocketManager {
 	 */
 	public SocketManager(int listenerCount, int socketReceiveBufferSize, int maxReadsOnSelect,
 			StreamBufferPool<ByteBuffer> bufferPool, int socketSendBufferSize) throws IOException {
+		this(listenerCount, socketReceiveBufferSize, maxReadsOnSelect, bufferPool, socketSendBufferSize,
+				DEFAULT_MAX_GATHERING_WRITE_BUFFERS, false, 0, 0, 0, 0);
+	}
+
+	/**
+	 * Instantiate.
+	 * 
+	 * @param listenerCount            Number of {@link SocketListener} instances.
+	 * @param socketReceiveBufferSize  Receive buffer size for the {@link Socket}.
+	 * @param maxReadsOnSelect         Maximum number of reads per
+	 *                                 {@link SocketChannel} per select.
+	 * @param bufferPool               {@link StreamBufferPool}.
+	 * @param socketSendBufferSize     Send buffer size for the {@link Socket}.
+	 * @param maxGatheringWriteBuffers Maximum number of {@link StreamBuffer}
+	 *                                 instances gathered into a single write to
+	 *                                 the {@link SocketChannel}. Gathering the
+	 *                                 compacted response {@link StreamBuffer}
+	 *                                 instances reduces the number of system
+	 *                                 calls for many small (pipelined) responses.
+	 *                                 A value of <code>1</code> writes each
+	 *                                 {@link StreamBuffer} individually.
+	 * @param isReusePort              Indicates for each {@link SocketListener}
+	 *                                 to bind its own {@link ServerSocketChannel}
+	 *                                 to the port with <code>SO_REUSEPORT</code>.
+	 *                                 This has the kernel load balance accepting
+	 *                                 connections across the
+	 *                                 {@link SocketListener} instances (avoiding
+	 *                                 handing off the accepted {@link Socket} to
+	 *                                 another {@link SocketListener}). Ignored if
+	 *                                 <code>SO_REUSEPORT</code> is not supported.
+	 * @param idleTimeout              Time in milliseconds a connection may be
+	 *                                 idle (no outstanding requests nor
+	 *                                 responses) before it is closed.
+	 *                                 <code>0</code> for no timeout.
+	 * @param requestReadTimeout       Time in milliseconds to receive a request,
+	 *                                 once its first bytes are read, before the
+	 *                                 connection is closed. <code>0</code> for no
+	 *                                 timeout.
+	 * @param writeStallTimeout        Time in milliseconds that pending response
+	 *                                 data may make no progress in being written
+	 *                                 before the connection is closed.
+	 *                                 <code>0</code> for no timeout.
+	 * @param heartbeatInterval        Interval in milliseconds to heartbeat the
+	 *                                 connections (see
+	 *                                 {@link SocketServicer#heartbeat(long)}).
+	 *                                 <code>0</code> to only heartbeat on
+	 *                                 checking the connection timeouts.
+	 * @throws IOException If fails to initialise {@link Socket} management.
+	 */
+	public SocketManager(int listenerCount, int socketReceiveBufferSize, int maxReadsOnSelect,
+			StreamBufferPool<ByteBuffer> bufferPool, int socketSendBufferSize, int maxGatheringWriteBuffers,
+			boolean isReusePort, long idleTimeout, long requestReadTimeout, long writeStallTimeout,
+			long heartbeatInterval) throws IOException {
+		this.reusePortOption = isReusePort ? getReusePortOption() : null;
+
+		// Determine the tick for the timeout wheels (if timeouts or heartbeat)
+		long minTimeout = Long.MAX_VALUE;
+		for (long timeout : new long[] { idleTimeout, requestReadTimeout, writeStallTimeout, heartbeatInterval }) {
+			if (timeout > 0) {
+				minTimeout = Math.min(minTimeout, timeout);
+			}
+		}
+		long timeoutWheelTick = (minTimeout == Long.MAX_VALUE) ? -1
+				: Math.max(MIN_TIMEOUT_WHEEL_TICK, minTimeout / 4);
+
+		// Create the listeners
 		this.listeners = new SocketListener[listenerCount];
 		for (int i = 0; i < listeners.length; i++) {
+			TimeoutWheel timeoutWheel = (timeoutWheelTick < 0) ? null
+					: new TimeoutWheel(timeoutWheelTick, minTimeout, idleTimeout, requestReadTimeout,
+							writeStallTimeout);
 			listeners[i] = new SocketListener(socketReceiveBufferSize, maxReadsOnSelect, bufferPool,
-					socketSendBufferSize);
+					socketSendBufferSize, maxGatheringWriteBuffers, timeoutWheel);
+		}
+	}
+
+	/**
+	 * Obtains the <code>SO_REUSEPORT</code> {@link SocketOption}.
+	 * <p>
+	 * The {@link SocketOption} is only available from Java 9 (and dependent on
+	 * platform support), so is looked up from the supported options.
+	 * 
+	 * @return <code>SO_REUSEPORT</code> {@link SocketOption} or <code>null</code>
+	 *         if not supported.
+	 * @throws IOException If fails to determine the supported
+	 *                     {@link SocketOption} instances.
+	 */
+	@SuppressWarnings("unchecked")
+	private static SocketOption<Boolean> getReusePortOption() throws IOException {
+		try (ServerSocketChannel channel = ServerSocketChannel.open()) {
+			for (SocketOption<?> option : channel.supportedOptions()) {
+				if ("SO_REUSEPORT".equals(option.name()) && (Boolean.class.equals(option.type()))) {
+					return (SocketOption<Boolean>) option;
+				}
+			}
 		}
+
+		// As here, not supported
+		LOGGER.log(Level.WARNING,
+				"SO_REUSEPORT not supported, so accepting connections via single " + SocketListener.class.getSimpleName());
+		return null;
 	}
 
 	/**
@@ -178,9 +295,15 @@ public class SocketManager {
 				selectionKey.cancel();
 			} finally {
 
+				// Release the connection from the limits
+				Object attachment = selectionKey.attachment();
+				if (attachment instanceof AcceptedSocketServicer) {
+					AcceptedSocketServicer<?> servicer = (AcceptedSocketServicer<?>) attachment;
+					servicer.unsafeConnectionClosed();
+				}
+
 				// Release the stream buffers (if safe, otherwise GC)
 				if (socketListener.isSocketListenerThread()) {
-					Object attachment = selectionKey.attachment();
 					if (attachment instanceof AbstractReadHandler) {
 						AbstractReadHandler handler = (AbstractReadHandler) attachment;
 						handler.releaseStreamBuffers();
@@ -220,9 +343,51 @@ public class SocketManager {
 	 *                                requests on the {@link Socket}.
 	 * @throws IOException If fails to bind the {@link ServerSocket}.
 	 */
-	public synchronized final <R> void bindServerSocket(int port, ServerSocketDecorator serverSocketDecorator,
+	public final <R> void bindServerSocket(int port, ServerSocketDecorator serverSocketDecorator,
 			AcceptedSocketDecorator acceptedSocketDecorator, SocketServicerFactory<R> socketServicerFactory,
 			RequestServicerFactory<R> requestServicerFactory) throws IOException {
+		this.bindServerSocket(port, serverSocketDecorator, acceptedSocketDecorator, socketServicerFactory,
+				requestServicerFactory, null);
+	}
+
+	/**
+	 * Binds a {@link ServerSocket} to be serviced.
+	 *
+	 * @param <R>                     Request type.
+	 * @param port                    Port for the {@link ServerSocket}.
+	 * @param serverSocketDecorator   Optional {@link ServerSocketDecorator}. May be
+	 *                                <code>null</code>.
+	 * @param acceptedSocketDecorator Optional {@link AcceptedSocketDecorator}. May
+	 *                                be <code>null</code>.
+	 * @param socketServicerFactory   {@link SocketServicerFactory} to service
+	 *                                accepted connections.
+	 * @param requestServicerFactory  {@link RequestServicerFactory} to service
+	 *                                requests on the {@link Socket}.
+	 * @param limits                  Optional {@link ServerSocketLimits}. May be
+	 *                                <code>null</code> for no limits.
+	 * @throws IOException If fails to bind the {@link ServerSocket}.
+	 */
+	public synchronized final <R> void bindServerSocket(int port, ServerSocketDecorator serverSocketDecorator,
+			AcceptedSocketDecorator acceptedSocketDecorator, SocketServicerFactory<R> socketServicerFactory,
+			RequestServicerFactory<R> requestServicerFactory, ServerSocketLimits limits) throws IOException {
+
+		// Ensure have limits (to track connections)
+		if (limits == null) {
+			limits = new ServerSocketLimits(Integer.MAX_VALUE, Integer.MAX_VALUE);
+		}
+
+		// Determine if each listener binds to the port
+		if (this.reusePortOption != null) {
+
+			// Kernel load balances accepting across the listeners
+			for (int i = 0; i < this.listeners.length; i++) {
+				ServerSocket serverSocket = this.listeners[i].bindServerSocket(port, serverSocketDecorator,
+						acceptedSocketDecorator, socketServicerFactory, requestServicerFactory, this.reusePortOption,
+						limits);
+				this.boundServerSockets.add(serverSocket);
+			}
+			return;
+		}
 
 		// Spread acceptances listening across the listeners
 		int next = this.nextServerSocketListener;
@@ -230,7 +395,7 @@ public class SocketManager {
 
 		// Register server socket listening
 		ServerSocket serverSocket = this.listeners[next].bindServerSocket(port, serverSocketDecorator,
-				acceptedSocketDecorator, socketServicerFactory, requestServicerFactory);
+				acceptedSocketDecorator, socketServicerFactory, requestServicerFactory, null, limits);
 		this.boundServerSockets.add(serverSocket);
 	}
 
@@ -287,7 +452,7 @@ public class SocketManager {
 				(prev, increment) -> (prev + increment) % this.listeners.length);
 
 		// Register connection with socket listener
-		this.listeners[next].acceptSocketHandler.serviceAcceptedSocket(acceptedSocket);
+		this.listeners[next].sendSafeEvent(acceptedSocket);
 	}
 
 	/**
@@ -318,39 +483,40 @@ public class SocketManager {
 		private final int socketSendBufferSize;
 
 		/**
-		 * {@link Selector}.
-		 */
-		private final Selector selector;
-
-		/**
-		 * {@link AcceptSocketHandler}.
-		 */
-		private final AcceptSocketHandler acceptSocketHandler;
-
-		/**
-		 * {@link ExecutionHandler}.
+		 * Re-usable {@link ByteBuffer} array for gathering writes to the
+		 * {@link SocketChannel}. As only used by the {@link SocketListener}
+		 * {@link Thread}, it is shared by all its {@link AcceptedSocketServicer}
+		 * instances.
 		 */
-		private final ExecutionHandler executionHandler;
+		private final ByteBuffer[] gatheringWriteBuffers;
 
 		/**
-		 * {@link SafeWriteSocketHandler}.
+		 * {@link Selector}.
 		 */
-		private final SafeWriteSocketHandler safeWriteSocketHandler;
+		private final Selector selector;
 
 		/**
-		 * {@link BulkFlushWritesHandler}.
+		 * <p>
+		 * Head of the lock-free stack of {@link SafeEvent} instances to be handled by
+		 * the {@link SocketListener} {@link Thread}.
+		 * <p>
+		 * Other {@link Thread} instances push onto the stack, while the
+		 * {@link SocketListener} {@link Thread} takes the entire stack for handling.
+		 * This avoids lock contention (and file descriptors for notification) in
+		 * handing off events to the {@link SocketListener} {@link Thread}.
 		 */
-		private final BulkFlushWritesHandler bulkFlushWritesHandler;
+		private final AtomicReference<SafeEvent> safeEvents = new AtomicReference<>();
 
 		/**
-		 * {@link SafeCloseConnectionHandler}.
+		 * {@link TimeoutWheel}. <code>null</code> if no connection timeouts.
 		 */
-		private final SafeCloseConnectionHandler safeCloseConnectionHandler;
+		private final TimeoutWheel timeoutWheel;
 
 		/**
-		 * {@link Pipe} to invoke to shutdown servicing.
+		 * Coarse current time in milliseconds, updated on each select. Only
+		 * maintained if there is a {@link TimeoutWheel}.
 		 */
-		private final Pipe shutdownPipe;
+		private long currentTime = System.currentTimeMillis();
 
 		/**
 		 * Indicates whether to shutdown.
@@ -360,60 +526,30 @@ public class SocketManager {
 		/**
 		 * Instantiate.
 		 * 
-		 * @param socketReceiveBufferSize Receive buffer size for the {@link Socket}.
-		 * @param maxReadsOnSelect        Maximum number of reads per
-		 *                                {@link SocketChannel} per select.
-		 * @param bufferPool              {@link StreamBufferPool}.
-		 * @param socketSendBufferSize    Send buffer size for the {@link Socket}.
-		 * @throws IOException If fails to establish necessary {@link Socket} and
-		 *                     {@link Pipe} facilities.
+		 * @param socketReceiveBufferSize  Receive buffer size for the {@link Socket}.
+		 * @param maxReadsOnSelect         Maximum number of reads per
+		 *                                 {@link SocketChannel} per select.
+		 * @param bufferPool               {@link StreamBufferPool}.
+		 * @param socketSendBufferSize     Send buffer size for the {@link Socket}.
+		 * @param maxGatheringWriteBuffers Maximum number of {@link StreamBuffer}
+		 *                                 instances gathered into a single write.
+		 * @param timeoutWheel             {@link TimeoutWheel}. May be
+		 *                                 <code>null</code> if no connection
+		 *                                 timeouts.
+		 * @throws IOException If fails to establish the {@link Selector}.
 		 */
 		private SocketListener(int socketReceiveBufferSize, int maxReadsOnSelect,
-				StreamBufferPool<ByteBuffer> bufferPool, int socketSendBufferSize) throws IOException {
+				StreamBufferPool<ByteBuffer> bufferPool, int socketSendBufferSize, int maxGatheringWriteBuffers,
+				TimeoutWheel timeoutWheel) throws IOException {
 			this.socketReceiveBufferSize = socketReceiveBufferSize;
 			this.maxReadsOnSelect = maxReadsOnSelect;
 			this.bufferPool = bufferPool;
 			this.socketSendBufferSize = socketReceiveBufferSize;
+			this.gatheringWriteBuffers = new ByteBuffer[Math.max(1, maxGatheringWriteBuffers)];
+			this.timeoutWheel = timeoutWheel;
 
 			// Create the selector
 			this.selector = Selector.open();
-
-			// Create pipe to listen for accepted sockets
-			Pipe acceptedSocketPipe = Pipe.open();
-			acceptedSocketPipe.source().configureBlocking(false);
-			this.acceptSocketHandler = new AcceptSocketHandler(acceptedSocketPipe, this);
-			acceptedSocketPipe.source().register(this.selector, SelectionKey.OP_READ, this.acceptSocketHandler);
-
-			// Create pipe to lister for executions
-			Pipe executionPipe = Pipe.open();
-			executionPipe.source().configureBlocking(false);
-			this.executionHandler = new ExecutionHandler(executionPipe);
-			executionPipe.source().register(this.selector, SelectionKey.OP_READ, this.executionHandler);
-
-			// Create pipe to listen for safe socket writing
-			Pipe safeWriteSocketPipe = Pipe.open();
-			safeWriteSocketPipe.source().configureBlocking(false);
-			this.safeWriteSocketHandler = new SafeWriteSocketHandler(safeWriteSocketPipe);
-			safeWriteSocketPipe.source().register(this.selector, SelectionKey.OP_READ, this.safeWriteSocketHandler);
-
-			// Create pipe to bulk flush writes
-			Pipe bulkFlushWritesPipe = Pipe.open();
-			bulkFlushWritesPipe.source().configureBlocking(false);
-			this.bulkFlushWritesHandler = new BulkFlushWritesHandler(bulkFlushWritesPipe);
-			bulkFlushWritesPipe.source().register(this.selector, SelectionKey.OP_READ, this.bulkFlushWritesHandler);
-
-			// Create pipe to listen for connection close
-			Pipe safeCloseConectionPipe = Pipe.open();
-			safeCloseConectionPipe.source().configureBlocking(false);
-			this.safeCloseConnectionHandler = new SafeCloseConnectionHandler(safeCloseConectionPipe);
-			safeCloseConectionPipe.source().register(this.selector, SelectionKey.OP_READ,
-					this.safeCloseConnectionHandler);
-
-			// Create pipe to listen for shutdown
-			this.shutdownPipe = Pipe.open();
-			this.shutdownPipe.source().configureBlocking(false);
-			this.shutdownPipe.source().register(this.selector, SelectionKey.OP_READ,
-					new ShutdownReadHandler(this.shutdownPipe.source(), this));
 		}
 
 		/**
@@ -426,12 +562,20 @@ public class SocketManager {
 		 *                                be <code>null</code>.
 		 * @param socketServicerFactory   {@link SocketServicerFactory}.
 		 * @param requestServicerFactory  {@link RequestServicerFactory}.
+		 * @param reusePortOption         <code>SO_REUSEPORT</code>
+		 *                                {@link SocketOption} to share the port with
+		 *                                the other {@link SocketListener} instances.
+		 *                                Accepted {@link Socket} instances are then
+		 *                                serviced by this {@link SocketListener}.
+		 *                                <code>null</code> to not share the port.
+		 * @param limits                  {@link ServerSocketLimits}.
 		 * @return Bound {@link ServerSocket}.
 		 * @throws IOException If fails to bind the {@link ServerSocket}.
 		 */
 		private final <R> ServerSocket bindServerSocket(int port, ServerSocketDecorator serverSocketDecorator,
 				AcceptedSocketDecorator acceptedSocketDecorator, SocketServicerFactory<R> socketServicerFactory,
-				RequestServicerFactory<R> requestServicerFactory) throws IOException {
+				RequestServicerFactory<R> requestServicerFactory, SocketOption<Boolean> reusePortOption,
+				ServerSocketLimits limits) throws IOException {
 
 			// Create the port socket address
 			InetSocketAddress portAddress = new InetSocketAddress(port);
@@ -450,6 +594,9 @@ public class SocketManager {
 				channel = ServerSocketChannel.open();
 				try {
 					channel.configureBlocking(false);
+					if (reusePortOption != null) {
+						channel.setOption(reusePortOption, Boolean.TRUE);
+					}
 					socket = channel.socket();
 					socket.setReuseAddress(true);
 					socket.setReceiveBufferSize(this.socketReceiveBufferSize);
@@ -491,8 +638,12 @@ public class SocketManager {
 			}
 
 			// Register the channel with the selector
-			channel.register(this.selector, SelectionKey.OP_ACCEPT, new AcceptHandler<R>(channel,
-					acceptedSocketDecorator, socketServicerFactory, requestServicerFactory));
+			AcceptHandler<R> acceptHandler = new AcceptHandler<R>(channel, acceptedSocketDecorator,
+					socketServicerFactory, requestServicerFactory, (reusePortOption != null), limits);
+			acceptHandler.selectionKey = channel.register(this.selector, SelectionKey.OP_ACCEPT, acceptHandler);
+
+			// Resume accepting on connections closing below the limit
+			limits.resumeAccepting.add(() -> this.sendSafeEvent(new SafeResumeAccept(acceptHandler)));
 
 			// Return the server socket
 			return socket;
@@ -525,25 +676,78 @@ public class SocketManager {
 		}
 
 		/**
-		 * Shuts down this {@link SocketListener}.
+		 * Sends the {@link SafeEvent} to be handled by the {@link SocketListener}
+		 * {@link Thread}.
 		 * 
-		 * @throws IOException If fails to notify of shutdown.
+		 * @param event {@link SafeEvent}.
 		 */
-		private final void shutdown() throws IOException {
-			try {
-				// Send message to shutdown
-				this.shutdownPipe.sink().write(NOTIFY_BUFFER.duplicate());
-			} catch (IOException ex) {
-				// Determine if already shutdown
-				if ("Broken pipe".equals(ex.getMessage())) {
+		private final void sendSafeEvent(SafeEvent event) {
+
+			// Push the event onto the stack
+			SafeEvent head;
+			do {
+				head = this.safeEvents.get();
+
+				// Release event if listener terminated (as never handled)
+				if (head == TERMINATED) {
+					event.next = null;
+					releaseSafeEvent(event);
 					return;
 				}
 
-				// Other failure, so propagate
-				throw ex;
+				event.next = head;
+			} while (!this.safeEvents.compareAndSet(head, event));
+
+			/*
+			 * Only wake up the selector on transition from empty to non-empty. Events
+			 * sent by the socket listener thread are handled before selecting again, so
+			 * no need to wake up.
+			 */
+			if ((head == null) && (!this.isSocketListenerThread())) {
+				this.selector.wakeup();
+			}
+		}
+
+		/**
+		 * Handles the {@link SafeEvent} instances.
+		 */
+		private final void handleSafeEvents() {
+
+			// Handle events until no further events
+			// (handling events may trigger further events)
+			SafeEvent stack;
+			while ((stack = this.safeEvents.getAndSet(null)) != null) {
+
+				// Reverse the stack to handle events in order sent
+				SafeEvent event = null;
+				while (stack != null) {
+					SafeEvent next = stack.next;
+					stack.next = event;
+					event = stack;
+					stack = next;
+				}
+
+				// Safely handle the events
+				while (event != null) {
+					SafeEvent next = event.next;
+					event.next = null;
+					try {
+						event.safelyHandleEvent(this);
+					} catch (Throwable ex) {
+						LOGGER.log(Level.WARNING, "Failed to handle " + event.getClass().getSimpleName(), ex);
+					}
+					event = next;
+				}
 			}
 		}
 
+		/**
+		 * Shuts down this {@link SocketListener}.
+		 */
+		private final void shutdown() {
+			this.sendSafeEvent(new SafeShutdown());
+		}
+
 		/*
 		 * =================== Runnable =========================
 		 */
@@ -556,7 +760,15 @@ public class SocketManager {
 
 			try {
 				// Loop until shutdown
-				while (!this.isShutdown) {
+				for (;;) {
+
+					// Handle events from other threads
+					this.handleSafeEvents();
+
+					// Determine if shutdown
+					if (this.isShutdown) {
+						return;
+					}
 
 					// Select keys
 					try {
@@ -567,6 +779,11 @@ public class SocketManager {
 						return; // fatal error, so can not continue
 					}
 
+					// Update time for tracking connection timeouts
+					if (this.timeoutWheel != null) {
+						this.currentTime = System.currentTimeMillis();
+					}
+
 					// Obtain the selected keys
 					Set<SelectionKey> selectedKeys = this.selector.selectedKeys();
 
@@ -588,9 +805,27 @@ public class SocketManager {
 								@SuppressWarnings("unchecked")
 								AcceptHandler<Object> handler = (AcceptHandler<Object>) selectedKey.attachment();
 
+								// Accept the connection
+								SocketChannel socketChannel = null;
 								try {
-									// Accept the connection
-									SocketChannel socketChannel = handler.channel.accept();
+									socketChannel = handler.channel.accept();
+									if (socketChannel == null) {
+										continue NEXT_KEY; // connection accepted by another listener
+									}
+
+									// Determine if reached the maximum open connections
+									int openConnections = handler.limits.openConnections.incrementAndGet();
+									if (openConnections >= handler.limits.getMaxOpenConnections()) {
+
+										// Pause accepting until connections are closed
+										selectedKey.interestOps(0);
+
+										// Determine if over limit (accepted by another listener)
+										if (openConnections > handler.limits.getMaxOpenConnections()) {
+											handler.unsafeCloseFailedAccept(socketChannel);
+											continue NEXT_KEY;
+										}
+									}
 
 									// Flag socket as unblocking
 									socketChannel.configureBlocking(false);
@@ -605,11 +840,20 @@ public class SocketManager {
 									// Manage the accepted socket
 									AcceptedSocket<Object> acceptedSocket = new AcceptedSocket<>(handler,
 											socketChannel);
-									SocketManager.this.manageAcceptedSocket(acceptedSocket);
+									if (handler.isServiceOnAcceptingListener) {
+										// Service on this listener (registers itself for servicing)
+										new AcceptedSocketServicer<>(acceptedSocket, this);
+									} else {
+										// Hand off to spread across listeners
+										SocketManager.this.manageAcceptedSocket(acceptedSocket);
+									}
 
 								} catch (IOException ex) {
 									// Should not fail to accept connection
 									LOGGER.log(Level.WARNING, "Failed to accept socket connection", ex);
+									if (socketChannel != null) {
+										handler.unsafeCloseFailedAccept(socketChannel);
+									}
 								}
 
 								// Accepted the connection
@@ -666,7 +910,8 @@ public class SocketManager {
 									// Handle the read
 									handler.handleRead(bytesRead, isNewBuffer);
 
-								} while ((buffer.remaining() == 0) && (readsOnSelect < this.maxReadsOnSelect));
+								} while ((buffer.remaining() == 0) && (readsOnSelect < this.maxReadsOnSelect)
+										&& (!handler.isReadPaused));
 							}
 
 							// Determine if write content
@@ -677,7 +922,7 @@ public class SocketManager {
 										.attachment();
 								if (acceptedSocket.unsafeSendWrites()) {
 									// Content written, no longer write interest
-									selectedKey.interestOps(SelectionKey.OP_READ);
+									acceptedSocket.unsafeUpdateInterestOps(false);
 								}
 							}
 
@@ -686,10 +931,24 @@ public class SocketManager {
 							continue NEXT_KEY;
 						}
 					}
+
+					// Expire timed out connections
+					if (this.timeoutWheel != null) {
+						this.timeoutWheel.expireTimeouts(this);
+					}
 				}
 
 			} finally {
 
+				// Release events not handled (and any sent after terminating)
+				SafeEvent event = this.safeEvents.getAndSet(TERMINATED);
+				while (event != null) {
+					SafeEvent next = event.next;
+					event.next = null;
+					releaseSafeEvent(event);
+					event = next;
+				}
+
 				// Clear socket listener from the thread
 				threadSocketLister.set(null);
 
@@ -728,20 +987,58 @@ public class SocketManager {
 		 */
 		private final RequestServicerFactory<R> requestServicerFactory;
 
+		/**
+		 * Indicates if the accepted {@link Socket} is serviced by the accepting
+		 * {@link SocketListener}.
+		 */
+		private final boolean isServiceOnAcceptingListener;
+
+		/**
+		 * {@link ServerSocketLimits}.
+		 */
+		private final ServerSocketLimits limits;
+
+		/**
+		 * {@link SelectionKey} for accepting connections.
+		 */
+		private SelectionKey selectionKey = null;
+
 		/**
 		 * Instantiate.
 		 * 
-		 * @param channel                 {@link ServerSocketChannel}.
-		 * @param acceptedSocketDecorator {@link AcceptedSocketDecorator}.
-		 * @param socketServicerFactory   {@link SocketServicer}.
-		 * @param requestServicerFactory  {@link RequestServicer}.
+		 * @param channel                      {@link ServerSocketChannel}.
+		 * @param acceptedSocketDecorator      {@link AcceptedSocketDecorator}.
+		 * @param socketServicerFactory        {@link SocketServicer}.
+		 * @param requestServicerFactory       {@link RequestServicer}.
+		 * @param isServiceOnAcceptingListener Indicates if the accepted
+		 *                                     {@link Socket} is serviced by the
+		 *                                     accepting {@link SocketListener}.
+		 * @param limits                       {@link ServerSocketLimits}.
 		 */
 		private AcceptHandler(ServerSocketChannel channel, AcceptedSocketDecorator acceptedSocketDecorator,
-				SocketServicerFactory<R> socketServicerFactory, RequestServicerFactory<R> requestServicerFactory) {
+				SocketServicerFactory<R> socketServicerFactory, RequestServicerFactory<R> requestServicerFactory,
+				boolean isServiceOnAcceptingListener, ServerSocketLimits limits) {
 			this.channel = channel;
 			this.acceptedSocketDecorator = acceptedSocketDecorator;
 			this.socketServicerFactory = socketServicerFactory;
 			this.requestServicerFactory = requestServicerFactory;
+			this.isServiceOnAcceptingListener = isServiceOnAcceptingListener;
+			this.limits = limits;
+		}
+
+		/**
+		 * Closes the accepted {@link SocketChannel} that is not to be serviced.
+		 * 
+		 * @param socketChannel Accepted {@link SocketChannel}.
+		 */
+		private final void unsafeCloseFailedAccept(SocketChannel socketChannel) {
+			try {
+				socketChannel.close();
+			} catch (IOException ex) {
+				// consider already closed
+			} finally {
+				this.limits.connectionClosed();
+			}
 		}
 	}
 
@@ -760,6 +1057,11 @@ public class SocketManager {
 		 */
 		protected StreamBuffer<ByteBuffer> readBuffer = null;
 
+		/**
+		 * Indicates if reading is paused.
+		 */
+		protected boolean isReadPaused = false;
+
 		/**
 		 * Instantiate.
 		 * 
@@ -791,150 +1093,210 @@ public class SocketManager {
 	}
 
 	/**
-	 * Safe {@link AbstractReadHandler}.
+	 * <p>
+	 * Coarse grained timing wheel to time out connections of a
+	 * {@link SocketListener}.
+	 * <p>
+	 * To avoid per connection timers (and re-scheduling on every activity), each
+	 * {@link AcceptedSocketServicer} only records the time of its activity. On
+	 * its slot being reached, the {@link AcceptedSocketServicer} is either
+	 * expired or re-scheduled to the slot of its current timeout. As the state of
+	 * the connection may change to a shorter timeout, connections are re-checked
+	 * at least every minimum timeout.
 	 */
-	private static abstract class AbstractSafeReadHandler<E> extends AbstractReadHandler {
+	private static class TimeoutWheel {
 
 		/**
-		 * {@link Pipe} to send unsafe operations.
+		 * Milliseconds per slot of the wheel.
 		 */
-		private final Pipe pipe;
+		private final long tick;
 
 		/**
-		 * Unsafe events to be run in safe context.
+		 * Maximum number of ticks before re-checking a connection.
 		 */
-		private final List<E> events = new ArrayList<>();
+		private final int maxRecheckTicks;
 
 		/**
-		 * Indicates if notified.
+		 * Idle timeout in milliseconds. <code>0</code> for no timeout.
 		 */
-		private boolean isNotified = false;
+		private final long idleTimeout;
 
 		/**
-		 * Instantiate.
-		 * 
-		 * @param pipe {@link Pipe} to send unsafe events to be handled safely.
+		 * Request read timeout in milliseconds. <code>0</code> for no timeout.
 		 */
-		public AbstractSafeReadHandler(Pipe pipe) {
-			super(pipe.source());
-			this.pipe = pipe;
-		}
+		private final long requestReadTimeout;
 
 		/**
-		 * Sends the unsafe event to be handled safely.
-		 * 
-		 * @param event Unsafe event.
+		 * Write stall timeout in milliseconds. <code>0</code> for no timeout.
 		 */
-		protected synchronized final void sendUnsafeEvent(E event) {
+		private final long writeStallTimeout;
 
-			// Queue the event
-			this.events.add(event);
+		/**
+		 * Slots of the wheel, each being the head of the linked list of
+		 * {@link AcceptedSocketServicer} instances.
+		 */
+		private final AcceptedSocketServicer<?>[] slots = new AcceptedSocketServicer[TIMEOUT_WHEEL_SIZE];
 
-			// Notify queue accepted sockets
-			if (!this.isNotified) {
-				try {
-					this.pipe.sink().write(NOTIFY_BUFFER.duplicate());
-					this.isNotified = true;
-				} catch (IOException ex) {
-					// Error on pipe means shutting down
-					// Shutdown will close connections
-					LOGGER.log(Level.FINEST,
-							"Failed to send unsafe event " + event + " [" + event.getClass().getName() + "]", ex);
-				}
-			}
+		/**
+		 * Index of the current slot.
+		 */
+		private int currentSlot = 0;
+
+		/**
+		 * Time of the current slot.
+		 */
+		private long currentSlotTime = System.currentTimeMillis();
+
+		/**
+		 * Instantiate.
+		 * 
+		 * @param tick               Milliseconds per slot of the wheel.
+		 * @param minTimeout         Minimum timeout in milliseconds.
+		 * @param idleTimeout        Idle timeout in milliseconds.
+		 * @param requestReadTimeout Request read timeout in milliseconds.
+		 * @param writeStallTimeout  Write stall timeout in milliseconds.
+		 */
+		private TimeoutWheel(long tick, long minTimeout, long idleTimeout, long requestReadTimeout,
+				long writeStallTimeout) {
+			this.tick = tick;
+			this.maxRecheckTicks = (int) Math.max(1, Math.min(TIMEOUT_WHEEL_SIZE - 1, minTimeout / tick));
+			this.idleTimeout = idleTimeout;
+			this.requestReadTimeout = requestReadTimeout;
+			this.writeStallTimeout = writeStallTimeout;
 		}
 
 		/**
-		 * Safely handles the event.
+		 * Schedules the {@link AcceptedSocketServicer} to be checked for timing out.
 		 * 
-		 * @param event Event.
-		 */
-		protected abstract void safelyHandleEvent(E event);
+		 * @param servicer    {@link AcceptedSocketServicer}.
+		 * @param currentTime Current time.
+		 */
+		private void schedule(AcceptedSocketServicer<?> servicer, long currentTime) {
+
+			// Determine number of slots until time out
+			// (re-check, as state may change to shorter timeout)
+			long timeoutTime = servicer.getTimeoutTime(this);
+			long ticks = (timeoutTime == Long.MAX_VALUE) ? this.maxRecheckTicks
+					: (timeoutTime - currentTime) / this.tick;
+			ticks = Math.max(1, Math.min(this.maxRecheckTicks, ticks));
+
+			// Add to the slot
+			int slot = (int) ((this.currentSlot + ticks) % TIMEOUT_WHEEL_SIZE);
+			servicer.nextTimeout = this.slots[slot];
+			this.slots[slot] = servicer;
+		}
 
-		/*
-		 * ============== AbstractReadHandler ================
+		/**
+		 * Expires the timed out connections.
+		 * 
+		 * @param socketListener {@link SocketListener}.
 		 */
+		private void expireTimeouts(SocketListener socketListener) {
+			long currentTime = socketListener.currentTime;
 
-		@Override
-		@SuppressWarnings("unchecked")
-		public final void handleRead(long bytesRead, boolean isNewBuffer) throws Throwable {
+			// Do not process more than a revolution (e.g. after a pause)
+			long maxElapsed = this.tick * TIMEOUT_WHEEL_SIZE;
+			if ((currentTime - this.currentSlotTime) > maxElapsed) {
+				this.currentSlotTime = currentTime - maxElapsed;
+			}
 
-			// Release the read buffer (as just notification)
-			this.releaseStreamBuffers();
+			// Process the slots for elapsed time
+			while ((currentTime - this.currentSlotTime) >= this.tick) {
+				this.currentSlotTime += this.tick;
+				this.currentSlot = (this.currentSlot + 1) % TIMEOUT_WHEEL_SIZE;
 
-			// Obtain copy of events (reduces time for lock contention)
-			E[] safeEvents;
-			synchronized (this) {
+				// Take the connections for the slot
+				AcceptedSocketServicer<?> servicer = this.slots[this.currentSlot];
+				this.slots[this.currentSlot] = null;
 
-				// No longer notified (repeatable, so ensure unset)
-				this.isNotified = false;
+				// Expire or re-schedule the connections
+				while (servicer != null) {
+					AcceptedSocketServicer<?> next = servicer.nextTimeout;
+					servicer.nextTimeout = null;
 
-				// Copy the events
-				safeEvents = (E[]) this.events.toArray();
+					// Ignore if connection already closed
+					if (servicer.selectionKey.isValid()) {
 
-				// Events will be handled
-				this.events.clear();
-			}
+						// Determine if timed out
+						if (servicer.getTimeoutTime(this) <= currentTime) {
+							if (LOGGER.isLoggable(Level.FINE)) {
+								LOGGER.log(Level.FINE, "Closing timed out connection " + servicer.socketChannel);
+							}
+							SocketManager.terminteSelectionKey(servicer.selectionKey, socketListener, null);
+
+						} else {
+							// Not timed out, so allow heartbeat and check again later
+							AcceptedSocketServicer<?> heartbeat = servicer;
+							heartbeat.unsafeExecute(() -> heartbeat.socketServicer.heartbeat(currentTime));
+							if (servicer.selectionKey.isValid()) {
+								this.schedule(servicer, currentTime);
+							}
+						}
+					}
 
-			// Safely handle the events
-			for (int i = 0; i < safeEvents.length; i++) {
-				this.safelyHandleEvent(safeEvents[i]);
+					servicer = next;
+				}
 			}
 		}
 	}
 
 	/**
-	 * Accept {@link Socket} handler.
+	 * Marks the {@link SocketListener} as terminated, so no further
+	 * {@link SafeEvent} instances will be handled.
 	 */
-	private static class AcceptSocketHandler extends AbstractSafeReadHandler<AcceptedSocket<?>> {
+	private static final SafeEvent TERMINATED = new SafeEvent() {
+		@Override
+		protected void safelyHandleEvent(SocketListener socketListener) {
+			// Marker only, so never handled
+		}
+	};
 
-		/**
-		 * {@link SocketListener}.
-		 */
-		private final SocketListener socketListener;
+	/**
+	 * Releases the {@link SafeEvent} that will not be handled.
+	 * 
+	 * @param event {@link SafeEvent} to release.
+	 */
+	private static void releaseSafeEvent(SafeEvent event) {
+		try {
+			event.releaseUnhandled();
+		} catch (Throwable ex) {
+			LOGGER.log(Level.WARNING, "Failed to release " + event.getClass().getSimpleName(), ex);
+		}
+	}
+
+	/**
+	 * Event handled safely by the {@link SocketListener} {@link Thread}.
+	 */
+	private static abstract class SafeEvent {
 
 		/**
-		 * Instantiate.
-		 * 
-		 * @param acceptedSocketPipe {@link AcceptedSocketServicer} {@link Pipe}.
-		 * @param listener           {@link SocketListener}.
+		 * Next {@link SafeEvent} in the stack / queue.
 		 */
-		private AcceptSocketHandler(Pipe acceptedSocketPipe, SocketListener listener) {
-			super(acceptedSocketPipe);
-			this.socketListener = listener;
-		}
+		private SafeEvent next = null;
 
 		/**
-		 * Services an {@link AcceptedSocketServicer}.
+		 * Safely handles the event.
 		 * 
-		 * @param accceptedSocket {@link AcceptedSocketServicer}.
-		 * @throws IOException If fails to service the {@link AcceptedSocketServicer}.
+		 * @param socketListener {@link SocketListener} handling the event.
 		 */
-		private final <R> void serviceAcceptedSocket(AcceptedSocket<R> accceptedSocket) {
-			this.sendUnsafeEvent(accceptedSocket);
-		}
+		protected abstract void safelyHandleEvent(SocketListener socketListener);
 
-		/*
-		 * ============== AbstractReadHandler ================
+		/**
+		 * <p>
+		 * Releases resources of the event, as the {@link SocketListener} has shutdown
+		 * and will not handle the event.
+		 * <p>
+		 * May be invoked by any {@link Thread}.
 		 */
-
-		@Override
-		@SuppressWarnings({ "rawtypes", "unchecked" })
-		protected void safelyHandleEvent(AcceptedSocket<?> acceptedSocket) {
-
-			// Accept the socket (registers itself for servicing)
-			try {
-				new AcceptedSocketServicer(acceptedSocket, this.socketListener);
-			} catch (IOException ex) {
-				LOGGER.log(Level.WARNING, "Failed to register accepted socket", ex);
-			}
+		protected void releaseUnhandled() {
+			// By default, nothing to release
 		}
 	}
 
 	/**
 	 * Accepted {@link Socket}.
 	 */
-	private static class AcceptedSocket<R> {
+	private static class AcceptedSocket<R> extends SafeEvent {
 
 		/**
 		 * {@link AcceptHandler}.
@@ -957,6 +1319,27 @@ public class SocketManager {
 			this.acceptHandler = acceptHandler;
 			this.socketChannel = socketChannel;
 		}
+
+		/*
+		 * ===================== SafeEvent =======================
+		 */
+
+		@Override
+		protected void safelyHandleEvent(SocketListener socketListener) {
+
+			// Accept the socket (registers itself for servicing)
+			try {
+				new AcceptedSocketServicer<>(this, socketListener);
+			} catch (IOException ex) {
+				LOGGER.log(Level.WARNING, "Failed to register accepted socket", ex);
+				this.acceptHandler.unsafeCloseFailedAccept(this.socketChannel);
+			}
+		}
+
+		@Override
+		protected void releaseUnhandled() {
+			this.acceptHandler.unsafeCloseFailedAccept(this.socketChannel);
+		}
 	}
 
 	/**
@@ -996,6 +1379,18 @@ public class SocketManager {
 		 */
 		private boolean isGoingToFlush = false;
 
+		/**
+		 * {@link SafeFlushWrites} re-used for each flush of this
+		 * {@link AcceptedSocketServicer}.
+		 */
+		private final SafeFlushWrites safeFlushWrites = new SafeFlushWrites(this);
+
+		/**
+		 * Indicates if the {@link SafeFlushWrites} has been sent and is yet to be
+		 * handled.
+		 */
+		private boolean isFlushPending = false;
+
 		/**
 		 * Request {@link StreamBuffer} instances to be released with the current
 		 * request.
@@ -1007,6 +1402,12 @@ public class SocketManager {
 		 */
 		private StreamBuffer<ByteBuffer> previousRequestBuffer = null;
 
+		/**
+		 * Request {@link StreamBuffer} shared with the previous request. This
+		 * {@link StreamBuffer} may only be released with the current request.
+		 */
+		private StreamBuffer<ByteBuffer> sharedRequestBuffer = null;
+
 		/**
 		 * Head {@link SocketRequest}.
 		 */
@@ -1031,29 +1432,135 @@ public class SocketManager {
 		private StreamBuffer<ByteBuffer> writeResponseHead = null;
 
 		/**
-		 * Instantiate.
-		 * 
-		 * @param acceptedSocket {@link AcceptedSocket}.
-		 * @param socketListener {@link SocketListener} servicing the
-		 *                       {@link AcceptedSocket}.
-		 * @throws IOException If fails to set up servicing the {@link AcceptedSocket}.
+		 * Time of last activity on the connection.
 		 */
-		private AcceptedSocketServicer(AcceptedSocket<R> acceptedSocket, SocketListener socketListener)
-				throws IOException {
-			super(acceptedSocket.socketChannel);
-			this.socketChannel = acceptedSocket.socketChannel;
-			this.socketListener = socketListener;
+		private long lastActivityTime;
 
-			// Create the socket servicer
-			this.socketServicer = acceptedSocket.acceptHandler.socketServicerFactory.createSocketServicer(this);
+		/**
+		 * Time the first bytes of the current request were read. <code>-1</code> if
+		 * not reading a request.
+		 */
+		private long requestReadStartTime = -1;
 
-			// Create the request servicer
-			this.requestServicer = acceptedSocket.acceptHandler.requestServicerFactory
-					.createRequestServicer(this.socketServicer);
+		/**
+		 * Time of last progress in writing response data.
+		 */
+		private long lastWriteTime;
 
-			// Register for servicing
+		/**
+		 * Next {@link AcceptedSocketServicer} within the same {@link TimeoutWheel}
+		 * slot.
+		 */
+		private AcceptedSocketServicer<?> nextTimeout = null;
+
+		/**
+		 * {@link ServerSocketLimits}.
+		 */
+		private final ServerSocketLimits limits;
+
+		/**
+		 * Number of requests in-flight (serviced but response not yet written).
+		 */
+		private int inFlightRequests = 0;
+
+		/**
+		 * Indicates if pausing reading on reaching the maximum in-flight requests
+		 * is disabled (as request servicer limits its own requests).
+		 */
+		private boolean isReadPauseDisabled = false;
+
+		/**
+		 * Indicates if receiving the entity of the last handled request (so not to
+		 * pause reading on reaching the maximum in-flight requests).
+		 */
+		private boolean isEntityReceiving = false;
+
+		/**
+		 * Indicates if reading is paused for back-pressure of a streamed entity.
+		 */
+		private boolean isReadBackPressured = false;
+
+		/**
+		 * Indicates if interested in writing (as socket buffer full).
+		 */
+		private boolean isWriteInterest = false;
+
+		/**
+		 * Indicates if the connection is closed.
+		 */
+		private boolean isClosed = false;
+
+		/**
+		 * Instantiate.
+		 * 
+		 * @param acceptedSocket {@link AcceptedSocket}.
+		 * @param socketListener {@link SocketListener} servicing the
+		 *                       {@link AcceptedSocket}.
+		 * @throws IOException If fails to set up servicing the {@link AcceptedSocket}.
+		 */
+		private AcceptedSocketServicer(AcceptedSocket<R> acceptedSocket, SocketListener socketListener)
+				throws IOException {
+			super(acceptedSocket.socketChannel);
+			this.socketChannel = acceptedSocket.socketChannel;
+			this.socketListener = socketListener;
+			this.limits = acceptedSocket.acceptHandler.limits;
+
+			// Create the socket servicer
+			this.socketServicer = acceptedSocket.acceptHandler.socketServicerFactory.createSocketServicer(this);
+
+			// Create the request servicer
+			this.requestServicer = acceptedSocket.acceptHandler.requestServicerFactory
+					.createRequestServicer(this.socketServicer);
+
+			// Register for servicing
 			this.selectionKey = acceptedSocket.socketChannel.register(this.socketListener.selector,
 					SelectionKey.OP_READ, this);
+
+			// Track timeouts of the connection
+			this.lastActivityTime = this.socketListener.currentTime;
+			this.lastWriteTime = this.lastActivityTime;
+			if (this.socketListener.timeoutWheel != null) {
+				this.socketListener.timeoutWheel.schedule(this, this.socketListener.currentTime);
+			}
+		}
+
+		/**
+		 * Obtains the time the connection times out.
+		 * 
+		 * @param timeoutWheel {@link TimeoutWheel} providing the timeout
+		 *                     configuration.
+		 * @return Time the connection times out. {@link Long#MAX_VALUE} if not able
+		 *         to time out in current state.
+		 */
+		private final long getTimeoutTime(TimeoutWheel timeoutWheel) {
+
+			// Determine if stalled writing the response
+			if (this.writeResponseHead != null) {
+				return (timeoutWheel.writeStallTimeout > 0) ? this.lastWriteTime + timeoutWheel.writeStallTimeout
+						: Long.MAX_VALUE;
+			}
+
+			// Determine if reading a request
+			if (this.requestReadStartTime >= 0) {
+				return (timeoutWheel.requestReadTimeout > 0)
+						? this.requestReadStartTime + timeoutWheel.requestReadTimeout
+						: Long.MAX_VALUE;
+			}
+
+			// Determine if client stalled sending a streamed entity
+			if ((this.isEntityReceiving) && (!this.isReadBackPressured)) {
+				return (timeoutWheel.idleTimeout > 0) ? this.lastActivityTime + timeoutWheel.idleTimeout
+						: Long.MAX_VALUE;
+			}
+
+			// Determine if servicing requests (not to time out processing)
+			if ((this.head != null) || (this.compactedResponseHead != null)) {
+				return Long.MAX_VALUE;
+			}
+
+			// As here, idle connection
+			return (timeoutWheel.idleTimeout > 0) ? this.lastActivityTime + timeoutWheel.idleTimeout
+					: Long.MAX_VALUE;
 		}
 
 		/**
@@ -1077,31 +1584,50 @@ public class SocketManager {
 		 * @param headResponseBuffer   Head response {@link StreamBuffer} of the linked
 		 *                             list of {@link StreamBuffer} instances for the
 		 *                             {@link SocketRequest}.
+		 * @param isComplete           Indicates if last write of the response.
 		 */
 		private final void unsafeWriteResponse(SocketRequest<R> socketRequest,
-				ResponseHeaderWriter responseHeaderWriter, StreamBuffer<ByteBuffer> headResponseBuffer) {
+				ResponseHeaderWriter responseHeaderWriter, StreamBuffer<ByteBuffer> headResponseBuffer,
+				boolean isComplete) {
 
 			// Provide the response for the request
-			socketRequest.responseHeaderWriter = responseHeaderWriter;
-			socketRequest.headResponseBuffer = headResponseBuffer;
-
-			// Response written (so release all request buffers)
-			StreamBuffer<ByteBuffer> requestBuffer = socketRequest.headRequestBuffer;
-			while (requestBuffer != null) {
-				StreamBuffer<ByteBuffer> release = requestBuffer;
-				requestBuffer = requestBuffer.next;
-
-				// Must release buffer after released from chain
-				release.release();
+			if (responseHeaderWriter != null) {
+				socketRequest.responseHeaderWriter = responseHeaderWriter;
+			}
+			socketRequest.isComplete = isComplete;
+			this.lastActivityTime = this.socketListener.currentTime;
+
+			// Response complete (so release all request buffers)
+			if (isComplete) {
+				StreamBuffer<ByteBuffer> requestBuffer = socketRequest.headRequestBuffer;
+				socketRequest.headRequestBuffer = null;
+				while (requestBuffer != null) {
+					StreamBuffer<ByteBuffer> release = requestBuffer;
+					requestBuffer = requestBuffer.next;
+
+					// Must release buffer after released from chain
+					release.release();
+				}
 			}
 
-			// Prepare the pooled response buffers
-			StreamBuffer<ByteBuffer> prepareBuffer = headResponseBuffer;
-			while (prepareBuffer != null) {
-				if (prepareBuffer.pooledBuffer != null) {
-					BufferJvmFix.flip(prepareBuffer.pooledBuffer);
+			// Append the response buffers (preparing pooled buffers)
+			if (headResponseBuffer != null) {
+				if (socketRequest.headResponseBuffer == null) {
+					socketRequest.headResponseBuffer = headResponseBuffer;
+				} else {
+					socketRequest.tailResponseBuffer.next = headResponseBuffer;
 				}
-				prepareBuffer = prepareBuffer.next;
+				StreamBuffer<ByteBuffer> prepareBuffer = headResponseBuffer;
+				for (;;) {
+					if (prepareBuffer.pooledBuffer != null) {
+						BufferJvmFix.flip(prepareBuffer.pooledBuffer);
+					}
+					if (prepareBuffer.next == null) {
+						break; // at tail
+					}
+					prepareBuffer = prepareBuffer.next;
+				}
+				socketRequest.tailResponseBuffer = prepareBuffer;
 			}
 
 			// Ensure have a compact response head
@@ -1116,11 +1642,16 @@ public class SocketManager {
 			}
 
 			// Compact the stream buffers for writing
+			boolean isCompacted = false;
 			while (this.head != null) {
 
 				// Ensure a response for request
 				if ((this.head.responseHeaderWriter == null) && (this.head.headResponseBuffer == null)) {
-					return; // no response yet
+					if (!this.head.isComplete) {
+						break; // no (further) response yet
+					}
+				} else {
+					isCompacted = true;
 				}
 
 				// Ensure have space to write content
@@ -1159,10 +1690,16 @@ public class SocketManager {
 						isReleaseStreamBuffer = false;
 						writeBuffer = writeBuffer.next;
 
+					} else if (streamBuffer.unpooledByteBuffer != null) {
+						// Append the unpooled buffer (content never changes)
+						// (avoids copying, with release once written)
+						writeBuffer.next = streamBuffer;
+						isReleaseStreamBuffer = false;
+						writeBuffer = writeBuffer.next;
+
 					} else {
-						// Pooled / Unpooled buffer
-						ByteBuffer buffer = (streamBuffer.pooledBuffer != null) ? streamBuffer.pooledBuffer
-								: streamBuffer.unpooledByteBuffer;
+						// Pooled buffer
+						ByteBuffer buffer = streamBuffer.pooledBuffer;
 						isReleaseStreamBuffer = true;
 
 						// Ensure have pooled buffer for writing
@@ -1212,15 +1749,22 @@ public class SocketManager {
 					}
 				}
 
+				// Determine if further content to be streamed for response
+				if (!this.head.isComplete) {
+					break; // flush streamed content, awaiting further content
+				}
+
 				// Compacted head response, so move onto next request
 				this.head = this.head.next;
+				this.unsafeRequestComplete();
 			}
 
 			// If not going to flush, must flush immediately
-			if (!this.isGoingToFlush) {
+			if (isCompacted && !this.isGoingToFlush && !this.isFlushPending) {
 				// Flush the writes in the future
 				// (allows multiple writes to be flush on same packets)
-				this.socketListener.bulkFlushWritesHandler.bulkFlushWrites(this);
+				this.isFlushPending = true;
+				this.socketListener.sendSafeEvent(this.safeFlushWrites);
 			}
 		}
 
@@ -1274,6 +1818,9 @@ public class SocketManager {
 			// Join the send buffers for writing
 			if (tailWriteBuffer == null) {
 				this.writeResponseHead = writeHead;
+
+				// Starting to write, so track from now for stalling
+				this.lastWriteTime = this.socketListener.currentTime;
 			} else {
 				tailWriteBuffer.next = writeHead;
 			}
@@ -1302,6 +1849,9 @@ public class SocketManager {
 
 					// Write the file content to the socket
 					long bytesWritten = writeBuffer.file.transferTo(position, count, this.socketChannel);
+					if (bytesWritten > 0) {
+						this.lastWriteTime = this.socketListener.currentTime;
+					}
 
 					// Increment the number of bytes written
 					writeBuffer.bytesWritten += bytesWritten;
@@ -1311,7 +1861,7 @@ public class SocketManager {
 						// Not all bytes written, so write when emptied
 
 						// Flag interest in write (as buffer full)
-						this.selectionKey.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+						this.unsafeUpdateInterestOps(true);
 
 						// Can not write anything further
 						return false; // require further writes
@@ -1322,33 +1872,64 @@ public class SocketManager {
 						writeBuffer.callback.complete(writeBuffer.file, true);
 					}
 
+					// Capture buffer for release, and move to next buffer
+					StreamBuffer<ByteBuffer> release = this.writeResponseHead;
+					this.writeResponseHead = this.writeResponseHead.next;
+
+					// Release the written buffer
+					release.release();
+
 				} else {
-					// Pooled / Unpooled buffer
-					ByteBuffer writeBuffer = (this.writeResponseHead.pooledBuffer != null)
-							? this.writeResponseHead.pooledBuffer
-							: this.writeResponseHead.unpooledByteBuffer;
+					// Gather the run of pooled / unpooled buffers (up to next file buffer)
+					ByteBuffer[] gatherBuffers = this.socketListener.gatheringWriteBuffers;
+					int gatherCount = 0;
+					StreamBuffer<ByteBuffer> gatherBuffer = this.writeResponseHead;
+					while ((gatherBuffer != null) && (gatherBuffer.fileBuffer == null)
+							&& (gatherCount < gatherBuffers.length)) {
+						gatherBuffers[gatherCount++] = (gatherBuffer.pooledBuffer != null) ? gatherBuffer.pooledBuffer
+								: gatherBuffer.unpooledByteBuffer;
+						gatherBuffer = gatherBuffer.next;
+					}
 
-					// Write the buffer to the socket
-					this.socketChannel.write(writeBuffer);
+					// Write the buffers to the socket
+					try {
+						long bytesWritten = (gatherCount == 1) ? this.socketChannel.write(gatherBuffers[0])
+								: this.socketChannel.write(gatherBuffers, 0, gatherCount);
+						if (bytesWritten > 0) {
+							this.lastWriteTime = this.socketListener.currentTime;
+						}
+					} finally {
+						// Clear gathered buffers (avoids holding onto unpooled buffers)
+						for (int i = 0; i < gatherCount; i++) {
+							gatherBuffers[i] = null;
+						}
+					}
 
-					// Determine if written all bytes
-					if (writeBuffer.remaining() != 0) {
-						// Not all bytes written, so write when buffer emptied
+					// Release the written buffers (tracking partial write)
+					for (int i = 0; i < gatherCount; i++) {
+						ByteBuffer writeBuffer = (this.writeResponseHead.pooledBuffer != null)
+								? this.writeResponseHead.pooledBuffer
+								: this.writeResponseHead.unpooledByteBuffer;
 
-						// Flag interest in write (as buffer full)
-						this.selectionKey.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+						// Determine if written all bytes
+						if (writeBuffer.remaining() != 0) {
+							// Not all bytes written, so write when buffer emptied
 
-						// Can not write anything further
-						return false; // require further writes
-					}
-				}
+							// Flag interest in write (as buffer full)
+							this.unsafeUpdateInterestOps(true);
 
-				// Capture buffer for release, and move to next buffer
-				StreamBuffer<ByteBuffer> release = this.writeResponseHead;
-				this.writeResponseHead = this.writeResponseHead.next;
+							// Can not write anything further
+							return false; // require further writes
+						}
 
-				// Release the written buffer
-				release.release();
+						// Capture buffer for release, and move to next buffer
+						StreamBuffer<ByteBuffer> release = this.writeResponseHead;
+						this.writeResponseHead = this.writeResponseHead.next;
+
+						// Release the written buffer
+						release.release();
+					}
+				}
 			}
 
 			// As here, all data written
@@ -1362,9 +1943,104 @@ public class SocketManager {
 		 *                  the connection. <code>null</code> if normal close.
 		 */
 		private final void unsafeCloseConnection(Throwable exception) {
+
+			// On normal close, attempt to send pending data (e.g. protocol close frame)
+			if ((exception == null) && (this.selectionKey.isValid())) {
+				try {
+					this.unsafeFlushWrites();
+				} catch (IOException ex) {
+					// Ignore, as closing connection
+				}
+			}
+
+			// Close the connection
 			SocketManager.terminteSelectionKey(this.selectionKey, this.socketListener, exception);
 		}
 
+		/**
+		 * Updates the interest operations of the {@link SelectionKey}.
+		 * 
+		 * @param isWriteInterest Indicates if interested in writing.
+		 */
+		private final void unsafeUpdateInterestOps(boolean isWriteInterest) {
+			this.isWriteInterest = isWriteInterest;
+			this.selectionKey.interestOps((this.isReadPaused ? 0 : SelectionKey.OP_READ)
+					| (isWriteInterest ? SelectionKey.OP_WRITE : 0));
+		}
+
+		/**
+		 * Flags the response of the head request is complete, resuming reading if
+		 * drained below the maximum in-flight requests.
+		 */
+		private final void unsafeRequestComplete() {
+
+			// Ignore if connection closed (in-flight requests released)
+			if (this.isClosed) {
+				return;
+			}
+
+			// Request no longer in-flight
+			this.inFlightRequests--;
+			this.limits.inFlightRequests.decrement();
+
+			// Determine if resume reading
+			this.unsafeUpdateReadPaused();
+		}
+
+		/**
+		 * Pauses or resumes reading based on the in-flight requests and
+		 * back-pressure.
+		 */
+		private final void unsafeUpdateReadPaused() {
+
+			// Ignore if connection closed (reading paused released)
+			if (this.isClosed) {
+				return;
+			}
+
+			// Determine if pause reading
+			boolean isPause = this.isReadBackPressured || ((!this.isReadPauseDisabled) && (!this.isEntityReceiving)
+					&& (this.inFlightRequests >= this.limits.getMaxInFlightRequests()));
+			if (isPause == this.isReadPaused) {
+				return; // no change
+			}
+
+			// Pause / resume reading
+			this.isReadPaused = isPause;
+			if (isPause) {
+				this.limits.readPausedConnections.incrementAndGet();
+			} else {
+				this.limits.readPausedConnections.decrementAndGet();
+			}
+			if (this.selectionKey.isValid()) {
+				this.unsafeUpdateInterestOps(this.isWriteInterest);
+			}
+		}
+
+		/**
+		 * Flags the connection closed, releasing it from the
+		 * {@link ServerSocketLimits}.
+		 */
+		private final void unsafeConnectionClosed() {
+
+			// Only release once
+			if (this.isClosed) {
+				return;
+			}
+			this.isClosed = true;
+
+			// Release in-flight requests and reading paused
+			this.limits.inFlightRequests.add(-this.inFlightRequests);
+			this.inFlightRequests = 0;
+			if (this.isReadPaused) {
+				this.isReadPaused = false;
+				this.limits.readPausedConnections.decrementAndGet();
+			}
+
+			// Release the connection (possibly resuming accepting connections)
+			this.limits.connectionClosed();
+		}
+
 		/*
 		 * ============== AbstractReadHandler ================
 		 */
@@ -1377,6 +2053,14 @@ public class SocketManager {
 			// Going to flush at end of read
 			this.isGoingToFlush = true;
 
+			// Track activity (and possible start of reading request)
+			if (bytesRead > 0) {
+				this.lastActivityTime = this.socketListener.currentTime;
+				if ((this.requestReadStartTime < 0) && (!this.isEntityReceiving)) {
+					this.requestReadStartTime = this.lastActivityTime;
+				}
+			}
+
 			// Keep track of buffers (to enable releasing)
 			if (isNewBuffer && (this.previousRequestBuffer != null)) {
 				// New buffer (release previous on servicing request)
@@ -1472,7 +2156,7 @@ public class SocketManager {
 
 			} else {
 				// Trigger to undertake execution on socket thread
-				this.socketListener.executionHandler.safeExecute(this, execution);
+				this.socketListener.sendSafeEvent(new AcceptedSocketExecution(this, execution));
 			}
 		}
 
@@ -1482,9 +2166,13 @@ public class SocketManager {
 			// Ensure only handle requests on socket listener thread
 			this.socketListener.ensureSocketListenerThread();
 
+			// Request read
+			this.requestReadStartTime = -1;
+
 			// Create the socket request
 			SocketRequest<R> socketRequest = new SocketRequest<>(this, this.releaseRequestBuffers);
 			this.releaseRequestBuffers = null;
+			this.sharedRequestBuffer = this.previousRequestBuffer;
 
 			// Add to pipeline of requests
 			if (this.head == null) {
@@ -1497,10 +2185,77 @@ public class SocketManager {
 				this.tail = socketRequest;
 			}
 
+			// Determine if pause reading (until responses drain)
+			this.inFlightRequests++;
+			this.limits.inFlightRequests.increment();
+			this.unsafeUpdateReadPaused();
+
 			// Service the request
 			socketRequest.processManager = this.requestServicer.service(request, socketRequest);
 		}
 
+		@Override
+		public final int disableReadPause() {
+
+			// Ensure only disable on socket listener thread
+			this.socketListener.ensureSocketListenerThread();
+
+			// Disable pausing reads (resuming reading if already paused)
+			this.isReadPauseDisabled = true;
+			this.unsafeUpdateReadPaused();
+
+			// Request servicer to limit its own in-flight requests
+			return this.limits.getMaxInFlightRequests();
+		}
+
+		@Override
+		public final void receiveRequestEntity(boolean isReceiving) {
+
+			// Ensure only flag on socket listener thread
+			this.socketListener.ensureSocketListenerThread();
+
+			// Flag receiving entity (not reading the next request)
+			this.isEntityReceiving = isReceiving;
+			this.requestReadStartTime = -1;
+			this.unsafeUpdateReadPaused();
+		}
+
+		@Override
+		public final void pauseRead(boolean isPause) {
+
+			// Ensure only pause on socket listener thread
+			this.socketListener.ensureSocketListenerThread();
+
+			// Pause / resume reading
+			this.isReadBackPressured = isPause;
+			this.unsafeUpdateReadPaused();
+		}
+
+		@Override
+		public final void releaseReceivedRequestBuffers() {
+
+			// Ensure only release on socket listener thread
+			this.socketListener.ensureSocketListenerThread();
+
+			// Release the received buffers (except shared with previous request)
+			StreamBuffer<ByteBuffer> buffer = this.releaseRequestBuffers;
+			this.releaseRequestBuffers = null;
+			while (buffer != null) {
+				StreamBuffer<ByteBuffer> release = buffer;
+				buffer = buffer.next;
+
+				// Retain the shared buffer
+				if (release == this.sharedRequestBuffer) {
+					release.next = null;
+					this.releaseRequestBuffers = release;
+					continue;
+				}
+
+				// Must release buffer after released from chain
+				release.release();
+			}
+		}
+
 		@Override
 		public final void sendImmediateData(StreamBuffer<ByteBuffer> immediateHead) {
 
@@ -1535,54 +2290,15 @@ public class SocketManager {
 
 			} else {
 				// Trigger to close the connection
-				this.socketListener.safeCloseConnectionHandler.safeCloseConnection(this, exception);
+				this.socketListener.sendSafeEvent(new SafeCloseConnection(this, exception));
 			}
 		}
 	}
 
-	/**
-	 * Handles safely executing the {@link Execution}.
-	 */
-	private static class ExecutionHandler extends AbstractSafeReadHandler<AcceptedSocketExecution> {
-
-		/**
-		 * Instantiate.
-		 * 
-		 * @param executionPipe Notify execution {@link Pipe}.
-		 */
-		private ExecutionHandler(Pipe executionPipe) {
-			super(executionPipe);
-		}
-
-		/**
-		 * <p>
-		 * Safely executes the {@link Execution}.
-		 * <p>
-		 * Method is synchronised to ensure data is safe across the {@link Thread}, when
-		 * {@link #handleRead()} is invoked by the {@link SocketListener}
-		 * {@link Thread}.
-		 * 
-		 * @param acceptedSocket {@link AcceptedSocketServicer}.
-		 * @param execution      {@link Execution}.
-		 */
-		private final <R> void safeExecute(AcceptedSocketServicer<R> acceptedSocket, Execution execution) {
-			this.sendUnsafeEvent(new AcceptedSocketExecution(acceptedSocket, execution));
-		}
-
-		/*
-		 * ============== AbstractSafeReadHandler ================
-		 */
-
-		@Override
-		protected void safelyHandleEvent(AcceptedSocketExecution execution) {
-			execution.acceptedSocket.unsafeExecute(execution.execution);
-		}
-	}
-
 	/**
 	 * {@link AcceptedSocketServicer} {@link Execution}.
 	 */
-	private static class AcceptedSocketExecution {
+	private static class AcceptedSocketExecution extends SafeEvent {
 
 		/**
 		 * {@link AcceptedSocketServicer}.
@@ -1604,60 +2320,27 @@ public class SocketManager {
 			this.acceptedSocket = acceptedSocket;
 			this.execution = execution;
 		}
-	}
-
-	/**
-	 * Handles safely writing the {@link Socket} data (from another {@link Thread}
-	 * than the {@link SocketListener} {@link Thread}).
-	 */
-	private static class SafeWriteSocketHandler extends AbstractSafeReadHandler<SafeWriteResponse<?>> {
 
-		/**
-		 * Instantiate.
-		 * 
-		 * @param writeSocketPipe Notify write {@link Pipe}.
+		/*
+		 * ===================== SafeEvent =======================
 		 */
-		private SafeWriteSocketHandler(Pipe writeSocketPipe) {
-			super(writeSocketPipe);
-		}
 
-		/**
-		 * <p>
-		 * Safely writes the response.
-		 * <p>
-		 * Method is synchronised to ensure data is safe across the {@link Thread}, when
-		 * {@link #handleRead()} is invoked by the {@link SocketListener}
-		 * {@link Thread}.
-		 * 
-		 * @param acceptedSocket       {@link AcceptedSocketServicer}.
-		 * @param socketRequest        {@link SocketRequest}.
-		 * @param responseHeaderWriter {@link ResponseHeaderWriter}.
-		 * @param headResponseBuffer   Head {@link StreamBuffer} to the linked list of
-		 *                             {@link StreamBuffer} instances for the response.
-		 */
-		private final <R> void safeWriteResponse(AcceptedSocketServicer<R> acceptedSocket,
-				SocketRequest<R> socketRequest, ResponseHeaderWriter responseHeaderWriter,
-				StreamBuffer<ByteBuffer> headResponseBuffer) {
-			this.sendUnsafeEvent(
-					new SafeWriteResponse<>(acceptedSocket, socketRequest, responseHeaderWriter, headResponseBuffer));
+		@Override
+		protected void safelyHandleEvent(SocketListener socketListener) {
+			this.acceptedSocket.unsafeExecute(this.execution);
 		}
 
-		/*
-		 * ============== AbstractSafeReadHandler ================
-		 */
-
 		@Override
-		@SuppressWarnings({ "unchecked", "rawtypes" })
-		protected void safelyHandleEvent(SafeWriteResponse response) {
-			response.acceptedSocket.unsafeWriteResponse(response.socketRequest, response.responseHeaderWriter,
-					response.headResponseBuffer);
+		protected void releaseUnhandled() {
+			this.execution.release();
 		}
 	}
 
 	/**
-	 * Safe write response.
+	 * Safely writes the response (from another {@link Thread} than the
+	 * {@link SocketListener} {@link Thread}).
 	 */
-	private static class SafeWriteResponse<R> {
+	private static class SafeWriteResponse<R> extends SafeEvent {
 
 		/**
 		 * {@link AcceptedSocketServicer}.
@@ -1680,6 +2363,11 @@ public class SocketManager {
 		 */
 		private final StreamBuffer<ByteBuffer> headResponseBuffer;
 
+		/**
+		 * Indicates if last write of the response.
+		 */
+		private final boolean isComplete;
+
 		/**
 		 * Instantiate.
 		 * 
@@ -1688,13 +2376,40 @@ public class SocketManager {
 		 * @param responseHeaderWriter {@link ResponseHeaderWriter}.
 		 * @param headResponseBuffer   Head {@link StreamBuffer} to the linked list of
 		 *                             {@link StreamBuffer} instances for the response.
+		 * @param isComplete           Indicates if last write of the response.
 		 */
 		public SafeWriteResponse(AcceptedSocketServicer<R> acceptedSocket, SocketRequest<R> socketRequest,
-				ResponseHeaderWriter responseHeaderWriter, StreamBuffer<ByteBuffer> headResponseBuffer) {
+				ResponseHeaderWriter responseHeaderWriter, StreamBuffer<ByteBuffer> headResponseBuffer,
+				boolean isComplete) {
 			this.acceptedSocket = acceptedSocket;
 			this.socketRequest = socketRequest;
 			this.responseHeaderWriter = responseHeaderWriter;
 			this.headResponseBuffer = headResponseBuffer;
+			this.isComplete = isComplete;
+		}
+
+		/*
+		 * ===================== SafeEvent =======================
+		 */
+
+		@Override
+		protected void safelyHandleEvent(SocketListener socketListener) {
+			this.acceptedSocket.unsafeWriteResponse(this.socketRequest, this.responseHeaderWriter,
+					this.headResponseBuffer, this.isComplete);
+		}
+
+		@Override
+		protected void releaseUnhandled() {
+
+			// Release the response buffers
+			StreamBuffer<ByteBuffer> responseBuffer = this.headResponseBuffer;
+			while (responseBuffer != null) {
+				StreamBuffer<ByteBuffer> release = responseBuffer;
+				responseBuffer = responseBuffer.next;
+
+				// Must release buffer after released from chain
+				release.release();
+			}
 		}
 	}
 
@@ -1710,9 +2425,9 @@ public class SocketManager {
 
 		/**
 		 * Head request {@link StreamBuffer} of the linked list of {@link StreamBuffer}
-		 * instances.
+		 * instances. Cleared once released on completing the response.
 		 */
-		private final StreamBuffer<ByteBuffer> headRequestBuffer;
+		private StreamBuffer<ByteBuffer> headRequestBuffer;
 
 		/**
 		 * {@link ResponseHeaderWriter}.
@@ -1725,6 +2440,18 @@ public class SocketManager {
 		 */
 		private StreamBuffer<ByteBuffer> headResponseBuffer = null;
 
+		/**
+		 * Tail response {@link StreamBuffer} of the linked list of
+		 * {@link StreamBuffer} instances. Only valid while the head response
+		 * {@link StreamBuffer} is not <code>null</code>.
+		 */
+		private StreamBuffer<ByteBuffer> tailResponseBuffer = null;
+
+		/**
+		 * Indicates if the response is complete (all content written).
+		 */
+		private boolean isComplete = false;
+
 		/**
 		 * Next {@link SocketRequest}.
 		 */
@@ -1751,103 +2478,60 @@ public class SocketManager {
 		 */
 
 		@Override
-		public final void write(ResponseHeaderWriter responseHeaderWriter,
-				StreamBuffer<ByteBuffer> headResponseBuffers) {
+		public final void write(ResponseHeaderWriter responseHeaderWriter, StreamBuffer<ByteBuffer> headResponseBuffers,
+				boolean isComplete) {
 
 			// Appropriately write the response based on thread safety
 			if (this.acceptedSocket.socketListener.isSocketListenerThread()) {
-				this.acceptedSocket.unsafeWriteResponse(this, responseHeaderWriter, headResponseBuffers);
+				this.acceptedSocket.unsafeWriteResponse(this, responseHeaderWriter, headResponseBuffers, isComplete);
 
 			} else {
-				// Writes to the request, so may happen in any order
-				this.acceptedSocket.socketListener.safeWriteSocketHandler.safeWriteResponse(this.acceptedSocket, this,
-						responseHeaderWriter, headResponseBuffers);
+				// Events handled in order sent (so streamed writes remain ordered)
+				this.acceptedSocket.socketListener.sendSafeEvent(new SafeWriteResponse<>(this.acceptedSocket, this,
+						responseHeaderWriter, headResponseBuffers, isComplete));
 			}
 		}
 	}
 
 	/**
-	 * Handles safely flushing the write {@link StreamBuffer} instances to the
+	 * Safely flushes the write {@link StreamBuffer} instances to the
 	 * {@link Socket}.
 	 */
-	private static class BulkFlushWritesHandler extends AbstractSafeReadHandler<AcceptedSocketServicer<?>> {
+	private static class SafeFlushWrites extends SafeEvent {
 
 		/**
-		 * Instantiate.
-		 * 
-		 * @param flushWritesPipe Notify flush writes {@link Pipe}.
+		 * {@link AcceptedSocketServicer} to flush.
 		 */
-		private BulkFlushWritesHandler(Pipe flushWritesPipe) {
-			super(flushWritesPipe);
-		}
+		private final AcceptedSocketServicer<?> acceptedSocket;
 
 		/**
-		 * <p>
-		 * Safely writes the response.
-		 * <p>
-		 * Method is synchronised to ensure data is safe across the {@link Thread}, when
-		 * {@link #handleRead()} is invoked by the {@link SocketListener}
-		 * {@link Thread}.
+		 * Instantiate.
 		 * 
-		 * @param acceptedSocket {@link AcceptedSocketServicer}.
+		 * @param acceptedSocket {@link AcceptedSocketServicer} to flush.
 		 */
-		private final <R> void bulkFlushWrites(AcceptedSocketServicer<R> acceptedSocket) {
-			this.sendUnsafeEvent(acceptedSocket);
+		private SafeFlushWrites(AcceptedSocketServicer<?> acceptedSocket) {
+			this.acceptedSocket = acceptedSocket;
 		}
 
 		/*
-		 * ============== AbstractSafeReadHandler ================
+		 * ===================== SafeEvent =======================
 		 */
 
 		@Override
-		protected void safelyHandleEvent(AcceptedSocketServicer<?> servicer) {
+		protected void safelyHandleEvent(SocketListener socketListener) {
+			this.acceptedSocket.isFlushPending = false;
 			try {
-				servicer.unsafeFlushWrites();
+				this.acceptedSocket.unsafeFlushWrites();
 			} catch (IOException ex) {
-				servicer.unsafeCloseConnection(ex);
+				this.acceptedSocket.unsafeCloseConnection(ex);
 			}
 		}
 	}
 
-	/**
-	 * Safely closes connection handler.
-	 */
-	private static class SafeCloseConnectionHandler extends AbstractSafeReadHandler<SafeCloseConnection> {
-
-		/**
-		 * Instantiate.
-		 * 
-		 * @param closeConnectionPipe Close connection {@link Pipe}.
-		 */
-		private SafeCloseConnectionHandler(Pipe closeConnectionPipe) {
-			super(closeConnectionPipe);
-		}
-
-		/**
-		 * Safely closes the connection.
-		 * 
-		 * @param acceptedSocket {@link AcceptedSocketServicer} to close.
-		 * @param exception      Possible {@link Throwable} for cause of closing
-		 *                       connection.
-		 */
-		private final void safeCloseConnection(AcceptedSocketServicer<?> acceptedSocket, Throwable exception) {
-			this.sendUnsafeEvent(new SafeCloseConnection(acceptedSocket, exception));
-		}
-
-		/*
-		 * ============== AbstractSafeReadHandler ================
-		 */
-
-		@Override
-		protected void safelyHandleEvent(SafeCloseConnection connection) {
-			connection.acceptedSocket.unsafeCloseConnection(connection.exception);
-		}
-	}
-
 	/**
 	 * Safe close connection.
 	 */
-	private static class SafeCloseConnection {
+	private static class SafeCloseConnection extends SafeEvent {
 
 		/**
 		 * {@link AcceptedSocketServicer} to close.
@@ -1871,47 +2555,73 @@ public class SocketManager {
 			this.acceptedSocket = acceptedSocket;
 			this.exception = exception;
 		}
+
+		/*
+		 * ===================== SafeEvent =======================
+		 */
+
+		@Override
+		protected void safelyHandleEvent(SocketListener socketListener) {
+			this.acceptedSocket.unsafeCloseConnection(this.exception);
+		}
 	}
 
 	/**
-	 * Shutdown handler.
+	 * Safely resumes accepting connections.
 	 */
-	private static class ShutdownReadHandler extends AbstractReadHandler {
+	private static class SafeResumeAccept extends SafeEvent {
 
 		/**
-		 * Listener to shut down.
+		 * {@link AcceptHandler} to resume accepting connections.
 		 */
-		private final SocketListener listener;
+		private final AcceptHandler<?> acceptHandler;
 
 		/**
 		 * Instantiate.
 		 * 
-		 * @param channel  {@link ReadableByteChannel}.
-		 * @param listener {@link SocketListener} to shut down.
+		 * @param acceptHandler {@link AcceptHandler} to resume accepting
+		 *                      connections.
 		 */
-		private ShutdownReadHandler(ReadableByteChannel channel, SocketListener listener) {
-			super(channel);
-			this.listener = listener;
+		private SafeResumeAccept(AcceptHandler<?> acceptHandler) {
+			this.acceptHandler = acceptHandler;
 		}
 
 		/*
-		 * ============== AbstractReadHandler ================
+		 * ===================== SafeEvent =======================
 		 */
 
 		@Override
-		public final void handleRead(long bytesRead, boolean isNewBuffer) {
+		protected void safelyHandleEvent(SocketListener socketListener) {
+
+			// Only resume if below limit (as may have since accepted connections)
+			SelectionKey selectionKey = this.acceptHandler.selectionKey;
+			ServerSocketLimits limits = this.acceptHandler.limits;
+			if ((selectionKey.isValid())
+					&& (limits.openConnections.get() < limits.getMaxOpenConnections())) {
+				selectionKey.interestOps(SelectionKey.OP_ACCEPT);
+			}
+		}
+	}
+
+	/**
+	 * Safely shuts down the {@link SocketListener}.
+	 */
+	private static class SafeShutdown extends SafeEvent {
 
-			// Release buffer (as content not important, only notification)
-			this.readBuffer.release();
-			this.readBuffer = null;
+		/*
+		 * ===================== SafeEvent =======================
+		 */
+
+		@Override
+		protected void safelyHandleEvent(SocketListener socketListener) {
 
 			// Terminate all keys
-			for (SelectionKey key : this.listener.selector.keys()) {
-				SocketManager.terminteSelectionKey(key, this.listener, null);
+			for (SelectionKey key : socketListener.selector.keys()) {
+				SocketManager.terminteSelectionKey(key, socketListener, null);
 			}
 
 			// Flag to shutdown
-			this.listener.isShutdown = true;
+			socketListener.isShutdown = true;
 		}
 	}
 
@@ -49,6 +49,21 @@ public interface SocketServicer<R> {
 	 */
 	void service(StreamBuffer<ByteBuffer> readBuffer, long bytesRead, boolean isNewBuffer);
 
+	/**
+	 * <p>
+	 * Undertakes a heartbeat for the {@link Socket}.
+	 * <p>
+	 * This is invoked by the {@link Socket} {@link Thread} each time the
+	 * connection is checked for timing out (and is not timed out). It allows
+	 * protocols to keep long lived connections alive (e.g. WebSocket ping). This
+	 * is invoked at least every heartbeat interval (or minimum timeout) of the
+	 * {@link SocketManager}.
+	 * 
+	 * @param currentTime Current time in milliseconds.
+	 */
+	default void heartbeat(long currentTime) {
+	}
+
 	/**
 	 * Releases this {@link SocketServicer} from use.
 	 */
@@ -24,6 +24,9 @@ package net.officefloor.server.http;
 import java.io.IOException;
 import java.net.Socket;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.function.Supplier;
 
 import net.officefloor.frame.api.escalate.Escalation;
@@ -34,12 +37,25 @@ import net.officefloor.server.RequestServicerFactory;
 import net.officefloor.server.ResponseWriter;
 import net.officefloor.server.SocketServicer;
 import net.officefloor.server.SocketServicerFactory;
+import net.officefloor.server.http.compress.HttpResponseCompression;
+import net.officefloor.server.http.http2.Http2Connection;
+import net.officefloor.server.http.http2.Http2Stream;
+import net.officefloor.server.http.log.HttpAccessLog;
+import net.officefloor.server.http.impl.NonMaterialisedHttpHeader;
 import net.officefloor.server.http.impl.NonMaterialisedHttpHeaders;
 import net.officefloor.server.http.impl.ProcessAwareServerHttpConnectionManagedObject;
+import net.officefloor.server.http.impl.SerialisableHttpHeader;
 import net.officefloor.server.http.parse.HttpRequestParser;
 import net.officefloor.server.http.parse.HttpRequestParser.HttpRequestParserMetaData;
+import net.officefloor.server.http.parse.StreamedEntity;
+import net.officefloor.server.stream.BufferJvmFix;
 import net.officefloor.server.stream.StreamBuffer;
+import net.officefloor.server.http.websocket.ReceivedWebSocketMessage;
+import net.officefloor.server.http.websocket.WebSocket;
+import net.officefloor.server.http.websocket.WebSocketConnection;
+import net.officefloor.server.http.websocket.WebSocketMessage;
 import net.officefloor.server.stream.StreamBufferPool;
+import net.officefloor.server.stream.impl.ByteArrayByteSequence;
 import net.officefloor.server.stream.impl.ByteSequence;
 
 /**
@@ -52,17 +68,23 @@ import net.officefloor.server.stream.impl.ByteSequence;
 public abstract class AbstractHttpServicerFactory
 		implements SocketServicerFactory<HttpRequestParser>, RequestServicerFactory<HttpRequestParser> {
 
-	private static final byte[] SPACE = " ".getBytes(ServerHttpConnection.HTTP_CHARSET);
 	private static byte[] HEADER_EOLN = "\r\n".getBytes(ServerHttpConnection.HTTP_CHARSET);
 	private static byte[] COLON_SPACE = ": ".getBytes(ServerHttpConnection.HTTP_CHARSET);
+	private static byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(ServerHttpConnection.HTTP_CHARSET);
 
 	private static final HttpHeaderName CONTENT_LENGTH_NAME = new HttpHeaderName("Content-Length");
 	private static final HttpHeaderName CONTENT_TYPE_NAME = new HttpHeaderName("Content-Type");
+	private static final HttpHeaderName TRANSFER_ENCODING_NAME = new HttpHeaderName("Transfer-Encoding");
+	private static final HttpHeaderValue CHUNKED_VALUE = new HttpHeaderValue("chunked");
 
 	private static final ProcessManager FAIL_PROCESSING = () -> {
 		// nothing to cancel, as already failed
 	};
 
+	private static final ProcessManager UPGRADE_PROCESSING = () -> {
+		// nothing to cancel, as upgrade response already written
+	};
+
 	/**
 	 * {@link HttpServerLocation}.
 	 */
@@ -100,6 +122,11 @@ public abstract class AbstractHttpServicerFactory
 	 */
 	private boolean isIncludeEscalationStackTrace;
 
+	/**
+	 * Indicates if HTTP/2 connections are supported.
+	 */
+	private final boolean isHttp2;
+
 	/**
 	 * Services the {@link ProcessAwareServerHttpConnectionManagedObject}.
 	 * 
@@ -112,6 +139,89 @@ public abstract class AbstractHttpServicerFactory
 	protected abstract ProcessManager service(ProcessAwareServerHttpConnectionManagedObject<ByteBuffer> connection)
 			throws IOException, HttpException;
 
+	/**
+	 * Obtains the path of the request URI to upgrade to a {@link WebSocket}.
+	 * 
+	 * @return Path of the request URI to upgrade to a {@link WebSocket}.
+	 *         <code>null</code> to not support {@link WebSocket} connections.
+	 */
+	protected String getWebSocketPath() {
+		return null;
+	}
+
+	/**
+	 * Obtains the interval in milliseconds without receiving data on a
+	 * {@link WebSocket} before pinging the client.
+	 * 
+	 * @return Ping interval in milliseconds. <code>0</code> to not ping.
+	 */
+	protected long getWebSocketPingInterval() {
+		return 0;
+	}
+
+	/**
+	 * Obtains the maximum bytes of sent messages pending being written to the
+	 * {@link WebSocket} client.
+	 * 
+	 * @return Maximum bytes of sent messages pending being written.
+	 */
+	protected long getWebSocketMaxPendingOutput() {
+		return Long.MAX_VALUE;
+	}
+
+	/**
+	 * Obtains the {@link HttpResponseCompression} to compress the
+	 * {@link HttpResponse} entities.
+	 * 
+	 * @return {@link HttpResponseCompression}. <code>null</code> to not compress
+	 *         {@link HttpResponse} entities.
+	 */
+	protected HttpResponseCompression getHttpResponseCompression() {
+		return null;
+	}
+
+	/**
+	 * Obtains the {@link HttpAccessLog} to log servicing of the
+	 * {@link HttpRequest} instances.
+	 * 
+	 * @return {@link HttpAccessLog}. <code>null</code> to not log.
+	 */
+	protected HttpAccessLog getHttpAccessLog() {
+		return null;
+	}
+
+	/**
+	 * Decorates the {@link HttpResponseWriter} to compress the
+	 * {@link HttpResponse} entity (should compression be configured and accepted
+	 * by the client).
+	 * 
+	 * @param requestHeaders {@link NonMaterialisedHttpHeaders} of the request.
+	 * @param writer         {@link HttpResponseWriter}.
+	 * @return {@link HttpResponseWriter} to use for the {@link HttpResponse}.
+	 */
+	private HttpResponseWriter<ByteBuffer> compressHttpResponse(NonMaterialisedHttpHeaders requestHeaders,
+			HttpResponseWriter<ByteBuffer> writer) {
+		HttpResponseCompression compression = this.getHttpResponseCompression();
+		return (compression == null) ? writer
+				: compression.createHttpResponseWriter(requestHeaders, writer, this.serviceBufferPool);
+	}
+
+	/**
+	 * Services the {@link WebSocketMessage}.
+	 * 
+	 * @param connection {@link ProcessAwareServerHttpConnectionManagedObject}
+	 *                   providing the details of the {@link WebSocket} upgrade
+	 *                   request (with the message data as the entity).
+	 * @param message    {@link WebSocketMessage}.
+	 * @return {@link ProcessManager} to servicing the {@link WebSocketMessage}.
+	 * @throws IOException   If IO failure.
+	 * @throws HttpException If HTTP failure.
+	 */
+	protected ProcessManager service(ProcessAwareServerHttpConnectionManagedObject<ByteBuffer> connection,
+			WebSocketMessage message) throws IOException, HttpException {
+		throw new HttpException(HttpStatus.NOT_IMPLEMENTED);
+	}
+
 	/*
 	 * =============== SocketServicerFactory =================
 	 */
@@ -149,6 +259,32 @@ public abstract class AbstractHttpServicerFactory
 			HttpRequestParserMetaData metaData, StreamBufferPool<ByteBuffer> serviceBufferPool,
 			HttpHeaderValue serverName, DateHttpHeaderClock dateHttpHeaderClock,
 			boolean isIncludeEscalationStackTrace) {
+		this(serverLocation, isSecure, metaData, serviceBufferPool, serverName, dateHttpHeaderClock,
+				isIncludeEscalationStackTrace, false);
+	}
+
+	/**
+	 * Instantiate.
+	 * 
+	 * @param serverLocation                {@link HttpServerLocation}.
+	 * @param isSecure                      Indicates if over secure {@link Socket}.
+	 * @param serviceBufferPool             {@link StreamBufferPool} used to service
+	 *                                      requests.
+	 * @param metaData                      {@link HttpRequestParserMetaData}.
+	 * @param serverName                    <code>Server</code>
+	 *                                      {@link HttpHeaderValue}.
+	 * @param dateHttpHeaderClock           {@link DateHttpHeaderClock}.
+	 * @param isIncludeEscalationStackTrace Indicates whether to include the
+	 *                                      {@link Escalation} stack trace in
+	 *                                      {@link HttpResponse}.
+	 * @param isHttp2                       Indicates whether to support HTTP/2
+	 *                                      connections (identified by the HTTP/2
+	 *                                      connection preface).
+	 */
+	public AbstractHttpServicerFactory(HttpServerLocation serverLocation, boolean isSecure,
+			HttpRequestParserMetaData metaData, StreamBufferPool<ByteBuffer> serviceBufferPool,
+			HttpHeaderValue serverName, DateHttpHeaderClock dateHttpHeaderClock,
+			boolean isIncludeEscalationStackTrace, boolean isHttp2) {
 		this.serverLocation = serverLocation;
 		this.isSecure = isSecure;
 		this.metaData = metaData;
@@ -156,6 +292,109 @@ public abstract class AbstractHttpServicerFactory
 		this.serverName = serverName;
 		this.dateHttpHeaderClock = dateHttpHeaderClock;
 		this.isIncludeEscalationStackTrace = isIncludeEscalationStackTrace;
+		this.isHttp2 = isHttp2;
+	}
+
+	/**
+	 * Writes the {@link HttpResponse} header.
+	 * 
+	 * @param responseVersion  {@link HttpVersion}.
+	 * @param status           {@link HttpStatus}.
+	 * @param httpHeader       Head {@link WritableHttpHeader}.
+	 * @param httpCookie       Head {@link WritableHttpCookie}.
+	 * @param contentLength    <code>Content-Length</code>.
+	 * @param isChunked        Indicates to stream the entity with chunked
+	 *                         <code>Transfer-Encoding</code>.
+	 * @param contentType      <code>Content-Type</code>. May be
+	 *                         <code>null</code>.
+	 * @param responseHead     Head {@link StreamBuffer} to write the header.
+	 * @param socketBufferPool {@link StreamBufferPool}.
+	 */
+	private static void writeResponseHeader(HttpVersion responseVersion, HttpStatus status,
+			WritableHttpHeader httpHeader, WritableHttpCookie httpCookie, long contentLength, boolean isChunked,
+			HttpHeaderValue contentType, StreamBuffer<ByteBuffer> responseHead,
+			StreamBufferPool<ByteBuffer> socketBufferPool) {
+
+		// Write the status line
+		status.writeStatusLine(responseVersion, responseHead, socketBufferPool);
+
+		// Write the headers
+		if (contentType != null) {
+			CONTENT_TYPE_NAME.write(responseHead, socketBufferPool);
+			StreamBuffer.write(COLON_SPACE, 0, COLON_SPACE.length, responseHead, socketBufferPool);
+			contentType.write(responseHead, socketBufferPool);
+			StreamBuffer.write(HEADER_EOLN, 0, HEADER_EOLN.length, responseHead, socketBufferPool);
+		}
+		if (isChunked) {
+			TRANSFER_ENCODING_NAME.write(responseHead, socketBufferPool);
+			StreamBuffer.write(COLON_SPACE, 0, COLON_SPACE.length, responseHead, socketBufferPool);
+			CHUNKED_VALUE.write(responseHead, socketBufferPool);
+			StreamBuffer.write(HEADER_EOLN, 0, HEADER_EOLN.length, responseHead, socketBufferPool);
+		} else if (contentLength >= 0) {
+			CONTENT_LENGTH_NAME.write(responseHead, socketBufferPool);
+			StreamBuffer.write(COLON_SPACE, 0, COLON_SPACE.length, responseHead, socketBufferPool);
+			StreamBuffer.write(contentLength, responseHead, socketBufferPool);
+			StreamBuffer.write(HEADER_EOLN, 0, HEADER_EOLN.length, responseHead, socketBufferPool);
+		}
+		WritableHttpHeader header = httpHeader;
+		while (header != null) {
+			header.write(responseHead, socketBufferPool);
+			header = header.next;
+		}
+		WritableHttpCookie cookie = httpCookie;
+		while (cookie != null) {
+			cookie.write(responseHead, socketBufferPool);
+			cookie = cookie.next;
+		}
+		StreamBuffer.write(HEADER_EOLN, 0, HEADER_EOLN.length, responseHead, socketBufferPool);
+	}
+
+	/**
+	 * Discards the remaining {@link StreamedEntity}, as the response is sent.
+	 * 
+	 * @param streamedEntity {@link StreamedEntity}. May be <code>null</code> if
+	 *                       entity not streamed.
+	 */
+	private static void discardStreamedEntity(StreamedEntity streamedEntity) {
+		if (streamedEntity != null) {
+			streamedEntity.discard();
+		}
+	}
+
+	/**
+	 * Determines if the header name matches (ignoring case).
+	 * 
+	 * @param name     Header name.
+	 * @param expected Expected header name.
+	 * @return <code>true</code> if header name matches.
+	 */
+	private static boolean isHeaderName(CharSequence name, String expected) {
+		if (name.length() != expected.length()) {
+			return false;
+		}
+		for (int i = 0; i < expected.length(); i++) {
+			if (Character.toLowerCase(name.charAt(i)) != Character.toLowerCase(expected.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Determines if the comma separated header value contains the token
+	 * (ignoring case).
+	 * 
+	 * @param value Header value.
+	 * @param token Token.
+	 * @return <code>true</code> if header value contains the token.
+	 */
+	private static boolean isHeaderToken(String value, String token) {
+		for (String part : value.split(",")) {
+			if (token.equalsIgnoreCase(part.trim())) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	/**
@@ -174,6 +413,39 @@ public abstract class AbstractHttpServicerFactory
 		 */
 		private HttpException parseFailure = null;
 
+		/**
+		 * Number of bytes matched of the HTTP/2 connection preface. Negative if not
+		 * a HTTP/2 connection.
+		 */
+		private int prefaceIndex;
+
+		/**
+		 * {@link Http2Connection}. <code>null</code> if not HTTP/2 connection.
+		 */
+		private Http2Connection<HttpRequestParser> http2Connection = null;
+
+		/**
+		 * {@link WebSocketConnection}. <code>null</code> if not upgraded to
+		 * {@link WebSocket}.
+		 */
+		private WebSocketConnection<HttpRequestParser> webSocketConnection = null;
+
+		/**
+		 * {@link HttpMethod} of the {@link WebSocket} upgrade request.
+		 */
+		private HttpMethod webSocketMethod;
+
+		/**
+		 * Request URI of the {@link WebSocket} upgrade request.
+		 */
+		private String webSocketRequestUri;
+
+		/**
+		 * {@link NonMaterialisedHttpHeaders} of the {@link WebSocket} upgrade
+		 * request.
+		 */
+		private NonMaterialisedHttpHeaders webSocketHeaders;
+
 		/**
 		 * Instantiate.
 		 * 
@@ -182,6 +454,272 @@ public abstract class AbstractHttpServicerFactory
 		private HttpServicer(RequestHandler<HttpRequestParser> requestHandler) {
 			super(AbstractHttpServicerFactory.this.metaData);
 			this.requestHandler = requestHandler;
+			this.prefaceIndex = AbstractHttpServicerFactory.this.isHttp2 ? 0 : -1;
+		}
+
+		/**
+		 * Services the {@link Http2Stream}.
+		 * 
+		 * @param stream {@link Http2Stream}.
+		 * @return {@link ProcessManager} to servicing the {@link Http2Stream}.
+		 */
+		private ProcessManager serviceHttp2Stream(Http2Stream stream) {
+			boolean isIncludeStackTrace = AbstractHttpServicerFactory.this.isIncludeEscalationStackTrace;
+
+			// Determine if failure in receiving request
+			HttpException failure = stream.getFailure();
+			if (failure != null) {
+				stream.writeHttpException(failure, isIncludeStackTrace);
+				return FAIL_PROCESSING;
+			}
+
+			// Create the connection
+			ProcessAwareServerHttpConnectionManagedObject<ByteBuffer> connection = new ProcessAwareServerHttpConnectionManagedObject<ByteBuffer>(
+					AbstractHttpServicerFactory.this.serverLocation, AbstractHttpServicerFactory.this.isSecure,
+					stream::getMethod, stream::getRequestUri, Http2Connection.HTTP_2, stream, stream.getEntity(),
+					AbstractHttpServicerFactory.this.serverName, AbstractHttpServicerFactory.this.dateHttpHeaderClock,
+					isIncludeStackTrace, AbstractHttpServicerFactory.this.compressHttpResponse(stream, stream),
+					AbstractHttpServicerFactory.this.serviceBufferPool);
+			connection.setHttpAccessLog(AbstractHttpServicerFactory.this.getHttpAccessLog());
+
+			try {
+				try {
+					// Service the connection
+					return AbstractHttpServicerFactory.this.service(connection);
+
+				} catch (IOException ex) {
+					// Propagate as HTTP exception
+					throw new HttpException(
+							new HttpStatus(HttpStatus.INTERNAL_SERVER_ERROR.getStatusCode(), ex.getMessage()));
+				}
+			} catch (HttpException ex) {
+				// Send HTTP exception
+				stream.writeHttpException(ex, isIncludeStackTrace);
+				return FAIL_PROCESSING;
+			}
+		}
+
+		/**
+		 * Writes the streamed content as a chunk.
+		 * 
+		 * @param responseWriter {@link ResponseWriter}.
+		 * @param content        Head {@link StreamBuffer} of the content. May be
+		 *                       <code>null</code>.
+		 * @param contentLength  Number of bytes in the content.
+		 * @param isComplete     Indicates if last chunk of the response.
+		 */
+		private void writeChunk(ResponseWriter responseWriter, StreamBuffer<ByteBuffer> content, long contentLength,
+				boolean isComplete) {
+			StreamBufferPool<ByteBuffer> bufferPool = AbstractHttpServicerFactory.this.serviceBufferPool;
+
+			// Frame the content as a chunk
+			StreamBuffer<ByteBuffer> chunkHead = null;
+			StreamBuffer<ByteBuffer> chunkTail = null;
+			if (contentLength > 0) {
+				chunkHead = bufferPool.getUnpooledStreamBuffer(ByteBuffer.wrap(
+						(Long.toHexString(contentLength) + "\r\n").getBytes(ServerHttpConnection.HTTP_CHARSET)));
+				chunkHead.next = content;
+				chunkTail = content;
+				while (chunkTail.next != null) {
+					chunkTail = chunkTail.next;
+				}
+				chunkTail.next = bufferPool.getUnpooledStreamBuffer(ByteBuffer.wrap(HEADER_EOLN));
+				chunkTail = chunkTail.next;
+			}
+
+			// Determine if last chunk
+			if (isComplete) {
+				StreamBuffer<ByteBuffer> lastChunk = bufferPool
+						.getUnpooledStreamBuffer(ByteBuffer.wrap(LAST_CHUNK));
+				if (chunkHead == null) {
+					chunkHead = lastChunk;
+				} else {
+					chunkTail.next = lastChunk;
+				}
+			}
+
+			// Write the chunk
+			if ((chunkHead != null) || (isComplete)) {
+				responseWriter.write(null, chunkHead, isComplete);
+			}
+		}
+
+		/**
+		 * Obtains the <code>Sec-WebSocket-Key</code> should the request be a valid
+		 * {@link WebSocket} upgrade request.
+		 * 
+		 * @param methodSupplier     {@link Supplier} of the {@link HttpMethod}.
+		 * @param requestUriSupplier {@link Supplier} of the request URI.
+		 * @param version            {@link HttpVersion}.
+		 * @param requestHeaders     {@link NonMaterialisedHttpHeaders}.
+		 * @return <code>Sec-WebSocket-Key</code> or <code>null</code> if not a
+		 *         {@link WebSocket} upgrade request.
+		 */
+		private String getWebSocketKey(Supplier<HttpMethod> methodSupplier, Supplier<String> requestUriSupplier,
+				HttpVersion version, NonMaterialisedHttpHeaders requestHeaders) {
+
+			// Determine if WebSocket supported
+			String webSocketPath = AbstractHttpServicerFactory.this.getWebSocketPath();
+			if ((webSocketPath == null) || (version != HttpVersion.HTTP_1_1)
+					|| (methodSupplier.get().getEnum() != HttpMethod.HttpMethodEnum.GET)) {
+				return null;
+			}
+
+			// Obtain the upgrade headers
+			String upgrade = null;
+			String connection = null;
+			String key = null;
+			String webSocketVersion = null;
+			for (NonMaterialisedHttpHeader header : requestHeaders) {
+				CharSequence name = header.getName();
+				if (isHeaderName(name, "Upgrade")) {
+					upgrade = header.materialiseHttpHeader().getValue();
+				} else if (isHeaderName(name, "Connection")) {
+					connection = header.materialiseHttpHeader().getValue();
+				} else if (isHeaderName(name, "Sec-WebSocket-Key")) {
+					key = header.materialiseHttpHeader().getValue();
+				} else if (isHeaderName(name, "Sec-WebSocket-Version")) {
+					webSocketVersion = header.materialiseHttpHeader().getValue();
+				}
+			}
+			if ((upgrade == null) || (!isHeaderToken(upgrade, "websocket")) || (connection == null)
+					|| (!isHeaderToken(connection, "upgrade")) || (key == null)
+					|| (!"13".equals(webSocketVersion == null ? null : webSocketVersion.trim()))) {
+				return null;
+			}
+
+			// Determine if WebSocket path
+			String requestUri = requestUriSupplier.get();
+			int queryStart = requestUri.indexOf('?');
+			String path = (queryStart < 0) ? requestUri : requestUri.substring(0, queryStart);
+			return webSocketPath.equals(path) ? key : null;
+		}
+
+		/**
+		 * Upgrades the connection to a {@link WebSocket}.
+		 * 
+		 * @param key                <code>Sec-WebSocket-Key</code>.
+		 * @param methodSupplier     {@link Supplier} of the {@link HttpMethod}.
+		 * @param requestUriSupplier {@link Supplier} of the request URI.
+		 * @param requestHeaders     {@link NonMaterialisedHttpHeaders}.
+		 * @param responseWriter     {@link ResponseWriter}.
+		 * @return {@link ProcessManager} for the upgrade request.
+		 */
+		private ProcessManager upgradeToWebSocket(String key, Supplier<HttpMethod> methodSupplier,
+				Supplier<String> requestUriSupplier, NonMaterialisedHttpHeaders requestHeaders,
+				ResponseWriter responseWriter) {
+
+			// Materialise the upgrade request (as request buffers released)
+			this.webSocketMethod = methodSupplier.get();
+			this.webSocketRequestUri = requestUriSupplier.get();
+			List<NonMaterialisedHttpHeader> headers = new ArrayList<>(requestHeaders.length());
+			for (NonMaterialisedHttpHeader header : requestHeaders) {
+				HttpHeader materialised = header.materialiseHttpHeader();
+				HttpHeader serialisable = new SerialisableHttpHeader(materialised.getName(), materialised.getValue());
+				headers.add(new NonMaterialisedHttpHeader() {
+
+					@Override
+					public CharSequence getName() {
+						return serialisable.getName();
+					}
+
+					@Override
+					public HttpHeader materialiseHttpHeader() {
+						return serialisable;
+					}
+				});
+			}
+			this.webSocketHeaders = new NonMaterialisedHttpHeaders() {
+
+				@Override
+				public Iterator<NonMaterialisedHttpHeader> iterator() {
+					return headers.iterator();
+				}
+
+				@Override
+				public int length() {
+					return headers.size();
+				}
+			};
+
+			// Write the handshake response
+			WritableHttpHeader upgradeHeaders = new WritableHttpHeader("Upgrade", "websocket");
+			upgradeHeaders.next = new WritableHttpHeader("Connection", "Upgrade");
+			upgradeHeaders.next.next = new WritableHttpHeader("Sec-WebSocket-Accept",
+					WebSocketConnection.getAcceptValue(key));
+			responseWriter.write((responseHead, socketBufferPool) -> {
+				writeResponseHeader(HttpVersion.HTTP_1_1, HttpStatus.SWITCHING_PROTOCOLS, upgradeHeaders, null, -1,
+						false, null, responseHead, socketBufferPool);
+			}, null);
+
+			// Service further data as WebSocket frames
+			this.webSocketConnection = new WebSocketConnection<>(this.requestHandler, this,
+					this::serviceWebSocketMessage, AbstractHttpServicerFactory.this.serviceBufferPool,
+					AbstractHttpServicerFactory.this.metaData.maxEntityLength,
+					AbstractHttpServicerFactory.this.getWebSocketPingInterval(),
+					AbstractHttpServicerFactory.this.getWebSocketMaxPendingOutput());
+			return UPGRADE_PROCESSING;
+		}
+
+		/**
+		 * Services the {@link ReceivedWebSocketMessage}.
+		 * 
+		 * @param message {@link ReceivedWebSocketMessage}.
+		 * @return {@link ProcessManager} to servicing the
+		 *         {@link ReceivedWebSocketMessage}.
+		 * @throws IOException   If IO failure.
+		 * @throws HttpException If HTTP failure.
+		 */
+		private ProcessManager serviceWebSocketMessage(ReceivedWebSocketMessage message)
+				throws IOException, HttpException {
+
+			// Create the connection (from upgrade request)
+			HttpMethod method = this.webSocketMethod;
+			String requestUri = this.webSocketRequestUri;
+			ProcessAwareServerHttpConnectionManagedObject<ByteBuffer> connection = new ProcessAwareServerHttpConnectionManagedObject<ByteBuffer>(
+					AbstractHttpServicerFactory.this.serverLocation, AbstractHttpServicerFactory.this.isSecure,
+					() -> method, () -> requestUri, HttpVersion.HTTP_1_1, this.webSocketHeaders,
+					new ByteArrayByteSequence(message.getData()), AbstractHttpServicerFactory.this.serverName,
+					AbstractHttpServicerFactory.this.dateHttpHeaderClock,
+					AbstractHttpServicerFactory.this.isIncludeEscalationStackTrace, message,
+					AbstractHttpServicerFactory.this.serviceBufferPool);
+
+			// Service the message
+			return AbstractHttpServicerFactory.this.service(connection, message);
+		}
+
+		/*
+		 * =================== HttpRequestParser ====================
+		 */
+
+		@Override
+		protected void releaseSpilledBuffers() {
+			this.requestHandler.releaseReceivedRequestBuffers();
+		}
+
+		@Override
+		protected void receiveStreamedEntity(boolean isReceiving) {
+			this.requestHandler.receiveRequestEntity(isReceiving);
+		}
+
+		@Override
+		protected void pauseStreamedEntity() {
+			this.requestHandler.pauseRead(true);
+		}
+
+		@Override
+		protected void resumeStreamedEntity() {
+			this.requestHandler.execute(() -> {
+
+				// Ignore if no longer streaming (e.g. connection closed)
+				if (this.getStreamedEntity() == null) {
+					return;
+				}
+
+				// Resume reading and parse the buffered content
+				this.requestHandler.pauseRead(false);
+				this.parseRequests();
+			});
 		}
 
 		/*
@@ -191,23 +729,102 @@ public abstract class AbstractHttpServicerFactory
 		@Override
 		public void service(StreamBuffer<ByteBuffer> readBuffer, long bytesRead, boolean isNewBuffer) {
 
+			// Determine if HTTP/2 connection
+			ByteBuffer data = readBuffer.pooledBuffer;
+			int end = BufferJvmFix.position(data);
+			int position = end - (int) bytesRead;
+			if (this.http2Connection != null) {
+				this.http2Connection.read(data, position, end);
+				return;
+			}
+
+			// Determine if WebSocket connection
+			if (this.webSocketConnection != null) {
+				this.webSocketConnection.read(data, position, end);
+				return;
+			}
+
 			// Add the buffer
 			this.appendStreamBuffer(readBuffer);
 
+			// Determine if HTTP/2 connection preface
+			if (this.prefaceIndex >= 0) {
+				byte[] preface = Http2Connection.CONNECTION_PREFACE;
+				while ((position < end) && (this.prefaceIndex < preface.length)
+						&& (data.get(position) == preface[this.prefaceIndex])) {
+					position++;
+					this.prefaceIndex++;
+				}
+				if (this.prefaceIndex == preface.length) {
+					// HTTP/2 connection, so service remaining data as frames
+					this.http2Connection = new Http2Connection<>(this.requestHandler, this,
+							this::serviceHttp2Stream, AbstractHttpServicerFactory.this.serviceBufferPool,
+							AbstractHttpServicerFactory.this.metaData.maxHeaderCount,
+							AbstractHttpServicerFactory.this.metaData.maxEntityLength);
+					this.http2Connection.read(data, position, end);
+					return;
+
+				} else if (position < end) {
+					// Not HTTP/2 connection
+					this.prefaceIndex = -1;
+
+				} else {
+					return; // await remaining preface
+				}
+			}
+
 			// Parse out the requests
+			this.parseRequests();
+		}
+
+		/**
+		 * Parses out the requests from the received data.
+		 */
+		private void parseRequests() {
 			try {
 				while (this.parse()) {
 
 					// Create request from parser
 					this.requestHandler.handleRequest(this);
+
+					// Client awaits upgrade response before sending frames
+					if (this.webSocketConnection != null) {
+						return;
+					}
 				}
 			} catch (HttpException ex) {
+
+				// Streamed request already servicing, so fail entity and close
+				if (this.failStreamedEntity(new IOException("Failed to parse streamed entity", ex))) {
+					this.requestHandler.closeConnection(ex);
+					return;
+				}
+
 				// Failed to parse request
 				this.parseFailure = ex;
 				this.requestHandler.handleRequest(this);
 			}
 		}
 
+		@Override
+		public void heartbeat(long currentTime) {
+			if (this.webSocketConnection != null) {
+				this.webSocketConnection.heartbeat(currentTime);
+			}
+		}
+
+		@Override
+		public void release() {
+			this.releaseSpilledEntity();
+			this.failStreamedEntity(new IOException("Connection closed before receiving entity"));
+			if (this.http2Connection != null) {
+				this.http2Connection.release();
+			}
+			if (this.webSocketConnection != null) {
+				this.webSocketConnection.release();
+			}
+		}
+
 		/*
 		 * ===================== RequestServicer ====================
 		 */
@@ -215,6 +832,16 @@ public abstract class AbstractHttpServicerFactory
 		@Override
 		public ProcessManager service(HttpRequestParser request, ResponseWriter responseWriter) {
 
+			// Determine if HTTP/2 stream
+			if (this.http2Connection != null) {
+				return this.http2Connection.service(responseWriter);
+			}
+
+			// Determine if WebSocket message
+			if (this.webSocketConnection != null) {
+				return this.webSocketConnection.service(responseWriter);
+			}
+
 			// Determine if parse failure
 			if (this.parseFailure != null) {
 				// Write parse failure
@@ -229,58 +856,95 @@ public abstract class AbstractHttpServicerFactory
 			// Request ready, so obtain details
 			Supplier<HttpMethod> methodSupplier = this.getMethod();
 			Supplier<String> requestUriSupplier = this.getRequestURI();
+			ByteSequence rawRequestUri = this.getRawRequestURI();
 			HttpVersion version = this.getVersion();
 			NonMaterialisedHttpHeaders requestHeaders = this.getHeaders();
 			ByteSequence requestEntity = this.getEntity();
+			StreamedEntity streamedEntity = this.getStreamedEntity();
+
+			// Determine if upgrade to WebSocket (no entity to stream)
+			String webSocketKey = (streamedEntity != null) ? null
+					: this.getWebSocketKey(methodSupplier, requestUriSupplier, version, requestHeaders);
+			if (webSocketKey != null) {
+				return this.upgradeToWebSocket(webSocketKey, methodSupplier, requestUriSupplier, requestHeaders,
+						responseWriter);
+			}
 
 			// Create the HTTP response writer
-			HttpResponseWriter<ByteBuffer> writer = (responseVersion, status, httpHeader, httpCookie, contentLength,
-					contentType, content) -> {
+			HttpResponseWriter<ByteBuffer> writer = new HttpResponseWriter<ByteBuffer>() {
 
-				// Write the response
-				responseWriter.write((responseHead, socketBufferPool) -> {
+				@Override
+				public void writeHttpResponse(HttpVersion responseVersion, HttpStatus status,
+						WritableHttpHeader httpHeader, WritableHttpCookie httpCookie, long contentLength,
+						HttpHeaderValue contentType, StreamBuffer<ByteBuffer> content) {
 
-					// Write the status line
-					responseVersion.write(responseHead, socketBufferPool);
-					StreamBuffer.write(SPACE, 0, SPACE.length, responseHead, socketBufferPool);
-					status.write(responseHead, socketBufferPool);
-					StreamBuffer.write(HEADER_EOLN, 0, HEADER_EOLN.length, responseHead, socketBufferPool);
-
-					// Write the headers
-					if (contentType != null) {
-						CONTENT_TYPE_NAME.write(responseHead, socketBufferPool);
-						StreamBuffer.write(COLON_SPACE, 0, COLON_SPACE.length, responseHead, socketBufferPool);
-						contentType.write(responseHead, socketBufferPool);
-						StreamBuffer.write(HEADER_EOLN, 0, HEADER_EOLN.length, responseHead, socketBufferPool);
-					}
-					if (contentLength >= 0) {
-						CONTENT_LENGTH_NAME.write(responseHead, socketBufferPool);
-						StreamBuffer.write(COLON_SPACE, 0, COLON_SPACE.length, responseHead, socketBufferPool);
-						StreamBuffer.write(contentLength, responseHead, socketBufferPool);
-						StreamBuffer.write(HEADER_EOLN, 0, HEADER_EOLN.length, responseHead, socketBufferPool);
-					}
-					WritableHttpHeader header = httpHeader;
-					while (header != null) {
-						header.write(responseHead, socketBufferPool);
-						header = header.next;
-					}
-					WritableHttpCookie cookie = httpCookie;
-					while (cookie != null) {
-						cookie.write(responseHead, socketBufferPool);
-						cookie = cookie.next;
+					// Write the response
+					responseWriter.write((responseHead, socketBufferPool) -> {
+						writeResponseHeader(responseVersion, status, httpHeader, httpCookie, contentLength, false,
+								contentType, responseHead, socketBufferPool);
+					}, content);
+
+					// Response sent, so discard remaining entity
+					discardStreamedEntity(streamedEntity);
+				}
+
+				@Override
+				public HttpResponseStreamWriter<ByteBuffer> streamHttpResponse(HttpVersion responseVersion,
+						HttpStatus status, WritableHttpHeader httpHeader, WritableHttpCookie httpCookie,
+						HttpHeaderValue contentType) {
+
+					// Chunked Transfer-Encoding only available for HTTP 1.1
+					if (responseVersion != HttpVersion.HTTP_1_1) {
+						return null; // write response in full
 					}
-					StreamBuffer.write(HEADER_EOLN, 0, HEADER_EOLN.length, responseHead, socketBufferPool);
 
-				}, content);
+					// Write the response header (with chunked entity)
+					responseWriter.write((responseHead, socketBufferPool) -> {
+						writeResponseHeader(responseVersion, status, httpHeader, httpCookie, -1, true,
+								contentType, responseHead, socketBufferPool);
+					}, null, false);
+
+					// Write the content as chunks
+					return new HttpResponseStreamWriter<ByteBuffer>() {
+
+						@Override
+						public void write(StreamBuffer<ByteBuffer> content, long contentLength, boolean isComplete) {
+							HttpServicer.this.writeChunk(responseWriter, content, contentLength, isComplete);
+							if (isComplete) {
+								discardStreamedEntity(streamedEntity);
+							}
+						}
+
+						@Override
+						public void abort(Throwable cause) {
+							// Close connection (after sent content) without last chunk, so
+							// client does not consider truncated content complete
+							discardStreamedEntity(streamedEntity);
+							HttpServicer.this.requestHandler.closeConnection(null);
+						}
+					};
+				}
 			};
 
 			// Create the connection
-			ProcessAwareServerHttpConnectionManagedObject<ByteBuffer> connection = new ProcessAwareServerHttpConnectionManagedObject<ByteBuffer>(
-					AbstractHttpServicerFactory.this.serverLocation, AbstractHttpServicerFactory.this.isSecure,
-					methodSupplier, requestUriSupplier, version, requestHeaders, requestEntity,
-					AbstractHttpServicerFactory.this.serverName, AbstractHttpServicerFactory.this.dateHttpHeaderClock,
-					AbstractHttpServicerFactory.this.isIncludeEscalationStackTrace, writer,
-					AbstractHttpServicerFactory.this.serviceBufferPool);
+			HttpResponseWriter<ByteBuffer> connectionWriter = AbstractHttpServicerFactory.this
+					.compressHttpResponse(requestHeaders, writer);
+			ProcessAwareServerHttpConnectionManagedObject<ByteBuffer> connection = (streamedEntity != null)
+					? new ProcessAwareServerHttpConnectionManagedObject<ByteBuffer>(
+							AbstractHttpServicerFactory.this.serverLocation, AbstractHttpServicerFactory.this.isSecure,
+							methodSupplier, requestUriSupplier, version, requestHeaders, streamedEntity,
+							AbstractHttpServicerFactory.this.serverName,
+							AbstractHttpServicerFactory.this.dateHttpHeaderClock,
+							AbstractHttpServicerFactory.this.isIncludeEscalationStackTrace, connectionWriter,
+							AbstractHttpServicerFactory.this.serviceBufferPool)
+					: new ProcessAwareServerHttpConnectionManagedObject<ByteBuffer>(
+							AbstractHttpServicerFactory.this.serverLocation, AbstractHttpServicerFactory.this.isSecure,
+							methodSupplier, requestUriSupplier, version, requestHeaders, requestEntity,
+							AbstractHttpServicerFactory.this.serverName,
+							AbstractHttpServicerFactory.this.dateHttpHeaderClock,
+							AbstractHttpServicerFactory.this.isIncludeEscalationStackTrace, connectionWriter,
+							AbstractHttpServicerFactory.this.serviceBufferPool);
+			connection.setHttpAccessLog(AbstractHttpServicerFactory.this.getHttpAccessLog(), rawRequestUri);
 
 			try {
 				try {
@@ -298,6 +962,7 @@ public abstract class AbstractHttpServicerFactory
 					ex.writeHttpResponse(version, AbstractHttpServicerFactory.this.isIncludeEscalationStackTrace,
 							responseHead, socketBufferPool);
 				}, null);
+				discardStreamedEntity(streamedEntity);
 				return FAIL_PROCESSING;
 			}
 		}
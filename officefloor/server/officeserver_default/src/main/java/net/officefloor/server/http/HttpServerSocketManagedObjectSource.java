@@ -21,11 +21,14 @@
 
 package net.officefloor.server.http;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.net.ServerSocket;
 import java.net.Socket;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -38,8 +41,11 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.Deflater;
 
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
 
 import net.officefloor.compile.impl.util.CompileUtil;
 import net.officefloor.compile.properties.Property;
@@ -66,15 +72,22 @@ import net.officefloor.frame.internal.structure.Flow;
 import net.officefloor.server.AcceptedSocketDecorator;
 import net.officefloor.server.RequestServicerFactory;
 import net.officefloor.server.ServerSocketDecorator;
+import net.officefloor.server.ServerSocketLimits;
 import net.officefloor.server.SocketManager;
 import net.officefloor.server.SocketServicer;
 import net.officefloor.server.SocketServicerFactory;
+import net.officefloor.server.http.compress.HttpResponseCompression;
 import net.officefloor.server.http.impl.HttpServerLocationImpl;
 import net.officefloor.server.http.impl.ProcessAwareServerHttpConnectionManagedObject;
+import net.officefloor.server.http.log.HttpAccessLog;
+import net.officefloor.server.http.log.HttpAccessLogFormat;
 import net.officefloor.server.http.parse.HttpRequestParser.HttpRequestParserMetaData;
+import net.officefloor.server.http.websocket.WebSocket;
+import net.officefloor.server.http.websocket.WebSocketMessage;
 import net.officefloor.server.ssl.SslSocketServicerFactory;
 import net.officefloor.server.stream.StreamBuffer;
 import net.officefloor.server.stream.StreamBufferPool;
+import net.officefloor.server.stream.impl.ByteSequence;
 import net.officefloor.server.stream.impl.ThreadLocalStreamBufferPool;
 
 /**
@@ -93,6 +106,14 @@ public class HttpServerSocketManagedObjectSource extends AbstractManagedObjectSo
 	 */
 	public static final String SYSTEM_PROPERTY_SOCKET_LISTENER_COUNT = "officefloor.socket.listener.count";
 
+	/**
+	 * Name of {@link System} property to flag each {@link SocketServicer} to bind
+	 * its own {@link ServerSocket} to the port with <code>SO_REUSEPORT</code>
+	 * (having the kernel load balance accepting connections). If not specified,
+	 * will default to <code>false</code>.
+	 */
+	public static final String SYSTEM_PROPERTY_SOCKET_REUSE_PORT = "officefloor.socket.reuse.port";
+
 	/**
 	 * Name of {@link System} property to obtain the pooled {@link StreamBuffer}
 	 * size.
@@ -117,6 +138,42 @@ public class HttpServerSocketManagedObjectSource extends AbstractManagedObjectSo
 	 */
 	public static final String SYSTEM_PROPERTY_SEND_BUFFER_SIZE = "officefloor.socket.send.buffer.size";
 
+	/**
+	 * Name of {@link System} property to obtain the maximum number of
+	 * {@link StreamBuffer} instances gathered into a single write to the
+	 * {@link SocketChannel}.
+	 */
+	public static final String SYSTEM_PROPERTY_MAX_GATHERING_WRITE_BUFFERS = "officefloor.socket.max.gathering.write.buffers";
+
+	/**
+	 * Name of {@link System} property to obtain the time in milliseconds an idle
+	 * connection is kept open. If not specified, idle connections are not timed
+	 * out.
+	 */
+	public static final String SYSTEM_PROPERTY_IDLE_TIMEOUT = "officefloor.socket.idle.timeout";
+
+	/**
+	 * Name of {@link System} property to obtain the time in milliseconds to read
+	 * a request (once its first bytes are received). If not specified, reading
+	 * requests is not timed out.
+	 */
+	public static final String SYSTEM_PROPERTY_REQUEST_READ_TIMEOUT = "officefloor.socket.request.read.timeout";
+
+	/**
+	 * Name of {@link System} property to obtain the time in milliseconds that
+	 * writing the response may make no progress. If not specified, stalled
+	 * writing of responses is not timed out.
+	 */
+	public static final String SYSTEM_PROPERTY_WRITE_STALL_TIMEOUT = "officefloor.socket.write.stall.timeout";
+
+	/**
+	 * Name of {@link System} property to obtain the interval in milliseconds
+	 * connections are given a heartbeat (e.g. to ping idle {@link WebSocket}
+	 * connections). If not specified, defaults to one second. <code>0</code> to
+	 * only heartbeat when checking the connection timeouts.
+	 */
+	public static final String SYSTEM_PROPERTY_HEARTBEAT_INTERVAL = "officefloor.socket.heartbeat.interval";
+
 	/**
 	 * Name of {@link System} property to obtain the maximum
 	 * {@link ThreadLocalStreamBufferPool} {@link ThreadLocal} pool size.
@@ -150,6 +207,46 @@ public class HttpServerSocketManagedObjectSource extends AbstractManagedObjectSo
 	 */
 	public static final String PROPERTY_MAX_ENTITY_LENGTH = "max.entity.length";
 
+	/**
+	 * Name of {@link Property} for the entity length above which the entity is
+	 * spilled to a temporary file (rather than held in {@link StreamBuffer}
+	 * instances). This allows large uploads without holding them in memory. A
+	 * negative value never spills the entity.
+	 */
+	public static final String PROPERTY_ENTITY_SPILL_THRESHOLD = "entity.spill.threshold";
+
+	/**
+	 * Name of {@link Property} for the directory to contain the spilled entity
+	 * files. Defaults to the temporary directory.
+	 */
+	public static final String PROPERTY_ENTITY_SPILL_DIRECTORY = "entity.spill.directory";
+
+	/**
+	 * <p>
+	 * Name of {@link Property} for the entity length above which the
+	 * {@link HttpRequest} is serviced once its headers are received, with the
+	 * entity streamed to the servicing as it is received. <code>chunked</code>
+	 * entities (being of unknown length) are always streamed. A negative value
+	 * never streams the entity.
+	 * <p>
+	 * Streamed entities are not limited by the maximum entity length, as only
+	 * the stream buffer is held in memory while reading the entity. Browsing
+	 * the entity must however retain the browsed content in memory, so
+	 * browsing is limited to the maximum entity length (failing with 413
+	 * beyond it). Reading the socket is paused while the stream buffer is
+	 * full. As reading the entity blocks, the servicing
+	 * must read the entity on a thread other than the socket thread (i.e.
+	 * within a Team).
+	 */
+	public static final String PROPERTY_ENTITY_STREAM_THRESHOLD = "entity.stream.threshold";
+
+	/**
+	 * Name of {@link Property} for the size of the buffer of received streamed
+	 * entity content. Once full, reading the socket is paused until the
+	 * servicing consumes the content.
+	 */
+	public static final String PROPERTY_ENTITY_STREAM_BUFFER_SIZE = "entity.stream.buffer.size";
+
 	/**
 	 * Name of {@link Property} for the size of the {@link StreamBuffer} instances
 	 * for the service.
@@ -168,11 +265,123 @@ public class HttpServerSocketManagedObjectSource extends AbstractManagedObjectSo
 	 */
 	public static final String PROPERTY_SERVICE_MAX_CORE_POOL_SIZE = "service.buffer.max.core.pool.size";
 
+	/**
+	 * Name of {@link Property} for the maximum number of open connections. On
+	 * reaching this limit, accepting further connections is paused.
+	 */
+	public static final String PROPERTY_MAX_CONNECTIONS = "max.connections";
+
+	/**
+	 * Name of {@link Property} for the maximum number of in-flight requests per
+	 * connection. On reaching this limit, reading the connection is paused until
+	 * the responses are written.
+	 */
+	public static final String PROPERTY_MAX_IN_FLIGHT_REQUESTS = "max.in.flight.requests";
+
+	/**
+	 * Name of {@link Property} to enable HTTP/2. Plain text connections must
+	 * start with the HTTP/2 connection preface (prior knowledge), while secure
+	 * connections also negotiate <code>h2</code> via ALPN.
+	 */
+	public static final String PROPERTY_HTTP2 = "http2";
+
+	/**
+	 * Name of {@link Property} for the path of the request URI to upgrade to a
+	 * {@link WebSocket}. Configuring the path enables {@link WebSocket} support,
+	 * with each received {@link WebSocketMessage} serviced by the
+	 * {@link #HANDLE_WEB_SOCKET_MESSAGE_FLOW_NAME} {@link Flow}.
+	 */
+	public static final String PROPERTY_WEB_SOCKET_PATH = "websocket.path";
+
+	/**
+	 * Name of {@link Property} for the interval in milliseconds without receiving
+	 * data on a {@link WebSocket} before pinging the client. Pings are sent on
+	 * the connection heartbeat (see {@link #SYSTEM_PROPERTY_HEARTBEAT_INTERVAL}).
+	 */
+	public static final String PROPERTY_WEB_SOCKET_PING_INTERVAL = "websocket.ping.interval";
+
+	/**
+	 * Name of {@link Property} for the maximum bytes of sent messages pending
+	 * being written to the {@link WebSocket} client. Should the client not
+	 * consume the messages to stay within this limit, the {@link WebSocket} is
+	 * closed.
+	 */
+	public static final String PROPERTY_WEB_SOCKET_MAX_PENDING_OUTPUT = "websocket.max.pending.output";
+
+	/**
+	 * Name of {@link Property} for the maximum number of {@link SSLSession}
+	 * instances cached for resumption. Not specifying uses the JVM default.
+	 * <p>
+	 * Note that stateless session tickets are JVM wide configuration (Java 13+),
+	 * via the <code>jdk.tls.server.enableSessionTicketExtension</code> system
+	 * property specified on starting the JVM.
+	 */
+	public static final String PROPERTY_SSL_SESSION_CACHE_SIZE = "ssl.session.cache.size";
+
+	/**
+	 * Name of {@link Property} for the seconds a cached {@link SSLSession} may be
+	 * resumed. Not specifying uses the JVM default.
+	 */
+	public static final String PROPERTY_SSL_SESSION_TIMEOUT = "ssl.session.timeout";
+
+	/**
+	 * Name of {@link Property} to enable compressing the {@link HttpResponse}
+	 * entity with the <code>gzip</code>/<code>deflate</code> encoding accepted by
+	 * the client.
+	 */
+	public static final String PROPERTY_COMPRESSION = "compression";
+
+	/**
+	 * Name of {@link Property} for the minimum number of bytes of the
+	 * {@link HttpResponse} entity to compress.
+	 */
+	public static final String PROPERTY_COMPRESSION_MIN_SIZE = "compression.min.size";
+
+	/**
+	 * Name of {@link Property} for the compression level (0-9, or
+	 * <code>-1</code> for the default).
+	 */
+	public static final String PROPERTY_COMPRESSION_LEVEL = "compression.level";
+
+	/**
+	 * Name of {@link Property} for the file to write the {@link HttpAccessLog}.
+	 * Not specifying the file disables access logging.
+	 */
+	public static final String PROPERTY_ACCESS_LOG_FILE = "access.log.file";
+
+	/**
+	 * Name of {@link Property} for the {@link HttpAccessLogFormat}.
+	 */
+	public static final String PROPERTY_ACCESS_LOG_FORMAT = "access.log.format";
+
+	/**
+	 * Name of {@link Property} for the number of entries buffered for writing to
+	 * the {@link HttpAccessLog}.
+	 */
+	public static final String PROPERTY_ACCESS_LOG_BUFFER_SIZE = "access.log.buffer.size";
+
+	/**
+	 * Name of {@link Property} for the size in bytes of the {@link HttpAccessLog}
+	 * file before it is rotated.
+	 */
+	public static final String PROPERTY_ACCESS_LOG_MAX_FILE_SIZE = "access.log.max.file.size";
+
+	/**
+	 * Name of {@link Property} for the number of rotated {@link HttpAccessLog}
+	 * files to retain.
+	 */
+	public static final String PROPERTY_ACCESS_LOG_MAX_FILES = "access.log.max.files";
+
 	/**
 	 * Name of the {@link Flow} to handle the request.
 	 */
 	public static final String HANDLE_REQUEST_FLOW_NAME = "HANDLE_REQUEST";
 
+	/**
+	 * Name of the {@link Flow} to handle the {@link WebSocketMessage}.
+	 */
+	public static final String HANDLE_WEB_SOCKET_MESSAGE_FLOW_NAME = "HANDLE_WEB_SOCKET_MESSAGE";
+
 	/**
 	 * Name of the {@link Team} to execute the SSL tasks.
 	 */
@@ -248,9 +457,16 @@ public class HttpServerSocketManagedObjectSource extends AbstractManagedObjectSo
 		int receiveBufferSize = getSystemProperty(SYSTEM_PROPERTY_RECEIVE_BUFFER_SIZE,
 				streamBufferSize * maxReadsOnSelect);
 		int sendBufferSize = getSystemProperty(SYSTEM_PROPERTY_SEND_BUFFER_SIZE, receiveBufferSize);
+		int maxGatheringWriteBuffers = getSystemProperty(SYSTEM_PROPERTY_MAX_GATHERING_WRITE_BUFFERS,
+				SocketManager.DEFAULT_MAX_GATHERING_WRITE_BUFFERS);
 		int maxThreadLocalPoolSize = getSystemProperty(SYSTEM_PROPERTY_THREADLOCAL_BUFFER_POOL_MAX_SIZE,
 				Integer.MAX_VALUE);
 		int maxCorePoolSize = getSystemProperty(SYSTEM_PROPERTY_CORE_BUFFER_POOL_MAX_SIZE, Integer.MAX_VALUE);
+		boolean isReusePort = Boolean.parseBoolean(System.getProperty(SYSTEM_PROPERTY_SOCKET_REUSE_PORT, "false"));
+		int idleTimeout = getSystemProperty(SYSTEM_PROPERTY_IDLE_TIMEOUT, 0);
+		int requestReadTimeout = getSystemProperty(SYSTEM_PROPERTY_REQUEST_READ_TIMEOUT, 0);
+		int writeStallTimeout = getSystemProperty(SYSTEM_PROPERTY_WRITE_STALL_TIMEOUT, 0);
+		int heartbeatInterval = getSystemProperty(SYSTEM_PROPERTY_HEARTBEAT_INTERVAL, 1000);
 
 		// Create the stream buffer pool
 		StreamBufferPool<ByteBuffer> bufferPool = new ThreadLocalStreamBufferPool(
@@ -258,7 +474,8 @@ public class HttpServerSocketManagedObjectSource extends AbstractManagedObjectSo
 
 		// Create and return the socket manager
 		return new SocketManager(numberOfSocketListeners, receiveBufferSize, maxReadsOnSelect, bufferPool,
-				sendBufferSize);
+				sendBufferSize, maxGatheringWriteBuffers, isReusePort, idleTimeout, requestReadTimeout,
+				writeStallTimeout, heartbeatInterval);
 	}
 
 	/**
@@ -595,6 +812,11 @@ public class HttpServerSocketManagedObjectSource extends AbstractManagedObjectSo
 	 */
 	private int handleRequestFlowIndex;
 
+	/**
+	 * {@link Flow} index for the handle {@link WebSocketMessage}.
+	 */
+	private int handleWebSocketMessageFlowIndex;
+
 	/**
 	 * {@link ManagedObjectExecutorFactory}.
 	 */
@@ -610,6 +832,49 @@ public class HttpServerSocketManagedObjectSource extends AbstractManagedObjectSo
 	 */
 	private AcceptedSocketDecorator acceptedSocketDecorator;
 
+	/**
+	 * {@link ServerSocketLimits}.
+	 */
+	private ServerSocketLimits serverSocketLimits;
+
+	/**
+	 * {@link SslSocketServicerFactory}. <code>null</code> if not servicing SSL.
+	 */
+	private SslSocketServicerFactory<?> sslSocketServicerFactory;
+
+	/**
+	 * Indicates if HTTP/2 is enabled.
+	 */
+	private boolean isHttp2;
+
+	/**
+	 * Path of the request URI to upgrade to a {@link WebSocket}.
+	 * <code>null</code> if {@link WebSocket} not supported.
+	 */
+	private String webSocketPath;
+
+	/**
+	 * Interval in milliseconds without receiving data on a {@link WebSocket}
+	 * before pinging the client.
+	 */
+	private long webSocketPingInterval;
+
+	/**
+	 * Maximum bytes of sent messages pending being written to the
+	 * {@link WebSocket} client.
+	 */
+	private long webSocketMaxPendingOutput;
+
+	/**
+	 * {@link HttpResponseCompression}. <code>null</code> if not compressing.
+	 */
+	private HttpResponseCompression compression;
+
+	/**
+	 * {@link HttpAccessLog}. <code>null</code> if not logging.
+	 */
+	private HttpAccessLog accessLog;
+
 	/**
 	 * {@link Logger}.
 	 */
@@ -686,6 +951,27 @@ public class HttpServerSocketManagedObjectSource extends AbstractManagedObjectSo
 		return null;
 	}
 
+	/**
+	 * Obtains the {@link ServerSocketLimits} providing the live connection
+	 * counters.
+	 * 
+	 * @return {@link ServerSocketLimits}. Will be <code>null</code> until loaded.
+	 */
+	public ServerSocketLimits getServerSocketLimits() {
+		return this.serverSocketLimits;
+	}
+
+	/**
+	 * Obtains the {@link SslSocketServicerFactory} providing the SSL handshake
+	 * counters.
+	 * 
+	 * @return {@link SslSocketServicerFactory}. Will be <code>null</code> until
+	 *         started or if not servicing SSL.
+	 */
+	public SslSocketServicerFactory<?> getSslSocketServicerFactory() {
+		return this.sslSocketServicerFactory;
+	}
+
 	/*
 	 * =================== ManagedObjectSource ==================
 	 */
@@ -707,26 +993,83 @@ public class HttpServerSocketManagedObjectSource extends AbstractManagedObjectSo
 		handleRequestFlow.setLabel(HANDLE_REQUEST_FLOW_NAME);
 		this.handleRequestFlowIndex = handleRequestFlow.getIndex();
 
-		// Create the execution meta-data (for servicing HTTP sockets)
-		context.addExecutionStrategy().setLabel("HTTP_SOCKET_SERVICING");
-
 		// Obtain the managed object source context
 		ManagedObjectSourceContext<Indexed> mosContext = context.getManagedObjectSourceContext();
 
+		// Create the WebSocket flow meta-data (if supporting WebSockets)
+		this.webSocketPath = mosContext.getProperty(PROPERTY_WEB_SOCKET_PATH, null);
+		this.webSocketPingInterval = Long
+				.parseLong(mosContext.getProperty(PROPERTY_WEB_SOCKET_PING_INTERVAL, String.valueOf(30 * 1000)));
+		this.webSocketMaxPendingOutput = Long.parseLong(
+				mosContext.getProperty(PROPERTY_WEB_SOCKET_MAX_PENDING_OUTPUT, String.valueOf(4 * 1024 * 1024)));
+		if (this.webSocketPath != null) {
+			Labeller<Indexed> handleWebSocketMessageFlow = context.addFlow(WebSocketMessage.class);
+			handleWebSocketMessageFlow.setLabel(HANDLE_WEB_SOCKET_MESSAGE_FLOW_NAME);
+			this.handleWebSocketMessageFlowIndex = handleWebSocketMessageFlow.getIndex();
+		}
+
+		// Load the response compression
+		boolean isCompression = Boolean.parseBoolean(mosContext.getProperty(PROPERTY_COMPRESSION, "false"));
+		if (isCompression) {
+			long compressionMinSize = Long.parseLong(mosContext.getProperty(PROPERTY_COMPRESSION_MIN_SIZE, "1024"));
+			int compressionLevel = Integer.parseInt(
+					mosContext.getProperty(PROPERTY_COMPRESSION_LEVEL, String.valueOf(Deflater.DEFAULT_COMPRESSION)));
+			this.compression = new HttpResponseCompression(compressionMinSize, compressionLevel);
+		}
+
+		// Load the access log
+		String accessLogFile = mosContext.getProperty(PROPERTY_ACCESS_LOG_FILE, null);
+		if (!CompileUtil.isBlank(accessLogFile)) {
+			HttpAccessLogFormat accessLogFormat = HttpAccessLogFormat.valueOf(
+					mosContext.getProperty(PROPERTY_ACCESS_LOG_FORMAT, HttpAccessLogFormat.COMMON.name()).toUpperCase());
+			int accessLogBufferSize = Integer
+					.parseInt(mosContext.getProperty(PROPERTY_ACCESS_LOG_BUFFER_SIZE, String.valueOf(8192)));
+			long accessLogMaxFileSize = Long.parseLong(
+					mosContext.getProperty(PROPERTY_ACCESS_LOG_MAX_FILE_SIZE, String.valueOf(100 * 1024 * 1024)));
+			int accessLogMaxFiles = Integer.parseInt(mosContext.getProperty(PROPERTY_ACCESS_LOG_MAX_FILES, "10"));
+			this.accessLog = new HttpAccessLog(Paths.get(accessLogFile), accessLogFormat, accessLogBufferSize,
+					accessLogMaxFileSize, accessLogMaxFiles);
+		}
+
+		// Create the execution meta-data (for servicing HTTP sockets)
+		context.addExecutionStrategy().setLabel("HTTP_SOCKET_SERVICING");
+
 		// Load configuration
 		int maxHeaderCount = Integer.parseInt(mosContext.getProperty(PROPERTY_MAX_HEADER_COUNT, String.valueOf(50)));
 		int maxTextLength = Integer.parseInt(mosContext.getProperty(PROPERTY_MAX_TEXT_LENGTH, String.valueOf(2048)));
 		long maxEntityLength = Long
 				.parseLong(mosContext.getProperty(PROPERTY_MAX_ENTITY_LENGTH, String.valueOf(1 * 1024 * 1024)));
+		long entitySpillThreshold = Long
+				.parseLong(mosContext.getProperty(PROPERTY_ENTITY_SPILL_THRESHOLD, String.valueOf(-1)));
+		String entitySpillDirectoryPath = mosContext.getProperty(PROPERTY_ENTITY_SPILL_DIRECTORY, null);
+		File entitySpillDirectory = (entitySpillDirectoryPath == null) ? null : new File(entitySpillDirectoryPath);
+		long entityStreamThreshold = Long
+				.parseLong(mosContext.getProperty(PROPERTY_ENTITY_STREAM_THRESHOLD, String.valueOf(-1)));
+		int entityStreamBufferSize = Integer
+				.parseInt(mosContext.getProperty(PROPERTY_ENTITY_STREAM_BUFFER_SIZE, String.valueOf(64 * 1024)));
+		if ((entityStreamThreshold >= 0) && (entityStreamBufferSize <= 0)) {
+			throw new IllegalArgumentException(
+					"Property " + PROPERTY_ENTITY_STREAM_BUFFER_SIZE + " must be greater than zero to stream entities");
+		}
 		this.serviceBufferSize = Integer
 				.parseInt(mosContext.getProperty(PROPERTY_SERVICE_BUFFER_SIZE, String.valueOf(256)));
 		this.serviceBufferMaxThreadPoolSize = Integer
 				.parseInt(mosContext.getProperty(PROPERTY_SERVICE_MAX_THREAD_POOL_SIZE, String.valueOf(10000)));
 		this.serviceBufferMaxCorePoolSize = Integer
 				.parseInt(mosContext.getProperty(PROPERTY_SERVICE_MAX_CORE_POOL_SIZE, String.valueOf(10000000)));
+		int maxConnections = Integer
+				.parseInt(mosContext.getProperty(PROPERTY_MAX_CONNECTIONS, String.valueOf(Integer.MAX_VALUE)));
+		int maxInFlightRequests = Integer
+				.parseInt(mosContext.getProperty(PROPERTY_MAX_IN_FLIGHT_REQUESTS, String.valueOf(Integer.MAX_VALUE)));
+
+		this.isHttp2 = Boolean.parseBoolean(mosContext.getProperty(PROPERTY_HTTP2, String.valueOf(false)));
+
+		// Create the limits on connections
+		this.serverSocketLimits = new ServerSocketLimits(maxConnections, maxInFlightRequests);
 
 		// Create the request parser meta-data
-		this.httpRequestParserMetaData = new HttpRequestParserMetaData(maxHeaderCount, maxTextLength, maxEntityLength);
+		this.httpRequestParserMetaData = new HttpRequestParserMetaData(maxHeaderCount, maxTextLength, maxEntityLength,
+				entitySpillThreshold, entitySpillDirectory, entityStreamThreshold, entityStreamBufferSize);
 
 		// Obtain the decorators
 		this.serverSocketDecorator = this.getServerSocketDecorator(context);
@@ -742,12 +1085,29 @@ public class HttpServerSocketManagedObjectSource extends AbstractManagedObjectSo
 
 			// Determine if secure and set up security
 			this.isSecure = Boolean.parseBoolean(mosContext.getProperty(PROPERTY_SECURE, String.valueOf(false)));
-			this.sslContext = this.isSecure ? HttpServer.getSslContext(mosContext) : null;
+			if (this.isSecure) {
+
+				// Obtain the SSL context
+				this.sslContext = HttpServer.getSslContext(mosContext);
+			} else {
+				this.sslContext = null;
+			}
 		}
 
 		// Add the executor factory if SSL context
 		if (this.sslContext != null) {
 			this.executorFactory = new ManagedObjectExecutorFactory<>(context, SSL_TEAM_NAME);
+
+			// Configure caching sessions for resumption
+			SSLSessionContext sessionContext = this.sslContext.getServerSessionContext();
+			String sessionCacheSize = mosContext.getProperty(PROPERTY_SSL_SESSION_CACHE_SIZE, null);
+			if (sessionCacheSize != null) {
+				sessionContext.setSessionCacheSize(Integer.parseInt(sessionCacheSize));
+			}
+			String sessionTimeout = mosContext.getProperty(PROPERTY_SSL_SESSION_TIMEOUT, null);
+			if (sessionTimeout != null) {
+				sessionContext.setSessionTimeout(Integer.parseInt(sessionTimeout));
+			}
 		}
 
 		// Add recycle function (to capture clean up failures)
@@ -774,6 +1134,11 @@ public class HttpServerSocketManagedObjectSource extends AbstractManagedObjectSo
 			@Override
 			public void startServicing(ManagedObjectServiceContext<Indexed> serviceContext) throws Exception {
 
+				// Start the access log
+				if (source.accessLog != null) {
+					source.accessLog.start();
+				}
+
 				// Obtain the socket manager
 				SocketManager socketManager = getSocketManager(source, executionStrategy);
 
@@ -784,7 +1149,7 @@ public class HttpServerSocketManagedObjectSource extends AbstractManagedObjectSo
 				ManagedObjectSourceHttpServicerFactory servicerFactory = new ManagedObjectSourceHttpServicerFactory(
 						serviceContext, source.serverLocation, source.isSecure, source.httpRequestParserMetaData,
 						serviceBufferPool, source.serverName, source.dateHttpHeaderClock,
-						source.isIncludeEscalationStackTrace);
+						source.isIncludeEscalationStackTrace, source.isHttp2);
 
 				// Create the SSL servicer factory
 				SocketServicerFactory socketServicerFactory = servicerFactory;
@@ -794,21 +1159,24 @@ public class HttpServerSocketManagedObjectSource extends AbstractManagedObjectSo
 					// Create the executor for the SSL tasks
 					ProcessAwareServerHttpConnectionManagedObject executorManagedObject = new ProcessAwareServerHttpConnectionManagedObject<>(
 							source.serverLocation, true, () -> HttpMethod.GET, () -> "SSL TASK", HttpVersion.HTTP_1_1,
-							null, null, source.serverName, source.dateHttpHeaderClock, false, null, null);
+							null, ByteSequence.EMPTY, source.serverName, source.dateHttpHeaderClock, false, null, null);
 					Executor executor = source.executorFactory.createExecutor(serviceContext, executorManagedObject);
 
 					// Register SSL servicing
+					String[] applicationProtocols = source.isHttp2 ? new String[] { "h2", "http/1.1" } : null;
 					SslSocketServicerFactory<?> sslServicerFactory = new SslSocketServicerFactory<>(source.sslContext,
-							servicerFactory, servicerFactory, socketManager.getStreamBufferPool(), executor);
+							servicerFactory, servicerFactory, socketManager.getStreamBufferPool(), executor,
+							applicationProtocols);
 					socketServicerFactory = sslServicerFactory;
 					requestServicerFactory = sslServicerFactory;
+					source.sslSocketServicerFactory = sslServicerFactory;
 				}
 
 				// Bind server socket for this managed object source
 				int port = (source.isSecure ? source.serverLocation.getClusterHttpsPort()
 						: source.serverLocation.getClusterHttpPort());
 				socketManager.bindServerSocket(port, source.serverSocketDecorator, source.acceptedSocketDecorator,
-						socketServicerFactory, requestServicerFactory);
+						socketServicerFactory, requestServicerFactory, source.serverSocketLimits);
 			}
 
 			@Override
@@ -824,6 +1192,18 @@ public class HttpServerSocketManagedObjectSource extends AbstractManagedObjectSo
 						source.logger.log(Level.INFO, "Failed to release " + SocketManager.class.getSimpleName(), ex);
 					}
 				}
+
+				// Stop the access log (writing remaining entries)
+				if (source.accessLog != null) {
+					try {
+						source.accessLog.stop();
+					} catch (InterruptedException ex) {
+						// Shutting down so just log issue
+						if (source.logger.isLoggable(Level.INFO)) {
+							source.logger.log(Level.INFO, "Failed to stop " + HttpAccessLog.class.getSimpleName(), ex);
+						}
+					}
+				}
 			}
 		});
 	}
@@ -878,13 +1258,14 @@ public class HttpServerSocketManagedObjectSource extends AbstractManagedObjectSo
 		 * @param isIncludeEscalationStackTrace Indicates whether to include the
 		 *                                      {@link Escalation} stack trace in the
 		 *                                      {@link HttpResponse}.
+		 * @param isHttp2                       Indicates whether to support HTTP/2.
 		 */
 		public ManagedObjectSourceHttpServicerFactory(ManagedObjectServiceContext<Indexed> context,
 				HttpServerLocation serverLocation, boolean isSecure, HttpRequestParserMetaData metaData,
 				StreamBufferPool<ByteBuffer> serviceBufferPool, HttpHeaderValue serverName,
-				DateHttpHeaderClock dateHttpHeaderClock, boolean isIncludeEscalationStackTrace) {
+				DateHttpHeaderClock dateHttpHeaderClock, boolean isIncludeEscalationStackTrace, boolean isHttp2) {
 			super(serverLocation, isSecure, metaData, serviceBufferPool, serverName, dateHttpHeaderClock,
-					isIncludeEscalationStackTrace);
+					isIncludeEscalationStackTrace, isHttp2);
 			this.context = context;
 		}
 
@@ -896,6 +1277,41 @@ public class HttpServerSocketManagedObjectSource extends AbstractManagedObjectSo
 			return this.context.invokeProcess(HttpServerSocketManagedObjectSource.this.handleRequestFlowIndex, null,
 					connection, 0, connection.getServiceFlowCallback());
 		}
+
+		@Override
+		protected String getWebSocketPath() {
+			return HttpServerSocketManagedObjectSource.this.webSocketPath;
+		}
+
+		@Override
+		protected long getWebSocketPingInterval() {
+			return HttpServerSocketManagedObjectSource.this.webSocketPingInterval;
+		}
+
+		@Override
+		protected long getWebSocketMaxPendingOutput() {
+			return HttpServerSocketManagedObjectSource.this.webSocketMaxPendingOutput;
+		}
+
+		@Override
+		protected HttpResponseCompression getHttpResponseCompression() {
+			return HttpServerSocketManagedObjectSource.this.compression;
+		}
+
+		@Override
+		protected HttpAccessLog getHttpAccessLog() {
+			return HttpServerSocketManagedObjectSource.this.accessLog;
+		}
+
+		@Override
+		protected ProcessManager service(ProcessAwareServerHttpConnectionManagedObject<ByteBuffer> connection,
+				WebSocketMessage message) throws IOException, HttpException {
+
+			// Service WebSocket message
+			return this.context.invokeProcess(
+					HttpServerSocketManagedObjectSource.this.handleWebSocketMessageFlowIndex, message, connection, 0,
+					connection.getServiceFlowCallback());
+		}
 	}
 
 }
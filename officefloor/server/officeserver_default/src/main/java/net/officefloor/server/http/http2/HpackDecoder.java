@@ -0,0 +1,212 @@
+/*-
+ * #%L
+ * Default OfficeFloor HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.server.http.http2;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HPACK header block decoder (RFC 7541).
+ * <p>
+ * Each HTTP/2 connection has its own {@link HpackDecoder}, as the dynamic table
+ * is maintained across the header blocks of the connection.
+ *
+ * @author Daniel Sagenschneider
+ */
+public class HpackDecoder {
+
+	/**
+	 * Receives the decoded headers.
+	 */
+	@FunctionalInterface
+	public static interface HpackHeaderListener {
+
+		/**
+		 * Receives a decoded header.
+		 *
+		 * @param name  Name.
+		 * @param value Value.
+		 * @throws Http2Exception If invalid header.
+		 */
+		void header(String name, String value) throws Http2Exception;
+	}
+
+	/**
+	 * {@link HpackHeaderTable}.
+	 */
+	private final HpackHeaderTable table;
+
+	/**
+	 * Maximum size the dynamic table may be set to by the encoder.
+	 */
+	private final int maxTableSize;
+
+	/**
+	 * {@link StringBuilder} to decode Huffman strings.
+	 */
+	private final StringBuilder text = new StringBuilder();
+
+	/**
+	 * Header block being decoded.
+	 */
+	private byte[] block;
+
+	/**
+	 * Position within the header block.
+	 */
+	private int position;
+
+	/**
+	 * End of the header block.
+	 */
+	private int end;
+
+	/**
+	 * Instantiate.
+	 *
+	 * @param maxTableSize Maximum size of the dynamic table (as advertised by
+	 *                     <code>SETTINGS_HEADER_TABLE_SIZE</code>).
+	 */
+	public HpackDecoder(int maxTableSize) {
+		this.maxTableSize = maxTableSize;
+		this.table = new HpackHeaderTable(maxTableSize);
+	}
+
+	/**
+	 * Obtains the {@link HpackHeaderTable}.
+	 *
+	 * @return {@link HpackHeaderTable}.
+	 */
+	public HpackHeaderTable getHeaderTable() {
+		return this.table;
+	}
+
+	/**
+	 * Decodes the header block.
+	 *
+	 * @param block    Data containing the header block.
+	 * @param offset   Offset to start of the header block.
+	 * @param length   Length of the header block.
+	 * @param listener {@link HpackHeaderListener} to receive the headers.
+	 * @throws Http2Exception If fails to decode the header block.
+	 */
+	public void decode(byte[] block, int offset, int length, HpackHeaderListener listener) throws Http2Exception {
+		this.block = block;
+		this.position = offset;
+		this.end = offset + length;
+		try {
+			while (this.position < this.end) {
+				int octet = this.block[this.position] & 0xff;
+				if ((octet & 0x80) != 0) {
+					// Indexed header field
+					int index = this.decodeInteger(7);
+					if (index == 0) {
+						throw new Http2Exception(Http2Exception.COMPRESSION_ERROR, "Invalid header index 0");
+					}
+					listener.header(this.table.getName(index), this.table.getValue(index));
+
+				} else if ((octet & 0x40) != 0) {
+					// Literal header field with incremental indexing
+					int index = this.decodeInteger(6);
+					String name = (index == 0) ? this.decodeString() : this.table.getName(index);
+					String value = this.decodeString();
+					this.table.add(name, value);
+					listener.header(name, value);
+
+				} else if ((octet & 0x20) != 0) {
+					// Dynamic table size update
+					int size = this.decodeInteger(5);
+					if (size > this.maxTableSize) {
+						throw new Http2Exception(Http2Exception.COMPRESSION_ERROR,
+								"Header table size " + size + " exceeds maximum " + this.maxTableSize);
+					}
+					this.table.setMaxSize(size);
+
+				} else {
+					// Literal header field without indexing (or never indexed)
+					int index = this.decodeInteger(4);
+					String name = (index == 0) ? this.decodeString() : this.table.getName(index);
+					String value = this.decodeString();
+					listener.header(name, value);
+				}
+			}
+		} finally {
+			this.block = null;
+		}
+	}
+
+	/**
+	 * Decodes an integer.
+	 *
+	 * @param prefixBits Number of bits of the prefix.
+	 * @return Decoded integer.
+	 * @throws Http2Exception If invalid integer.
+	 */
+	private int decodeInteger(int prefixBits) throws Http2Exception {
+		int mask = (1 << prefixBits) - 1;
+		int value = this.block[this.position++] & mask;
+		if (value < mask) {
+			return value;
+		}
+		int shift = 0;
+		int octet;
+		do {
+			if (this.position >= this.end) {
+				throw new Http2Exception(Http2Exception.COMPRESSION_ERROR, "Truncated header integer");
+			}
+			if (shift > 21) {
+				throw new Http2Exception(Http2Exception.COMPRESSION_ERROR, "Header integer too large");
+			}
+			octet = this.block[this.position++] & 0xff;
+			value += (octet & 0x7f) << shift;
+			shift += 7;
+		} while ((octet & 0x80) != 0);
+		return value;
+	}
+
+	/**
+	 * Decodes a string literal.
+	 *
+	 * @return Decoded string.
+	 * @throws Http2Exception If invalid string literal.
+	 */
+	private String decodeString() throws Http2Exception {
+		if (this.position >= this.end) {
+			throw new Http2Exception(Http2Exception.COMPRESSION_ERROR, "Truncated header string");
+		}
+		boolean isHuffman = (this.block[this.position] & 0x80) != 0;
+		int length = this.decodeInteger(7);
+		if (length > (this.end - this.position)) {
+			throw new Http2Exception(Http2Exception.COMPRESSION_ERROR, "Truncated header string");
+		}
+		String value;
+		if (isHuffman) {
+			this.text.setLength(0);
+			HpackHuffman.decode(this.block, this.position, length, this.text);
+			value = this.text.toString();
+		} else {
+			value = new String(this.block, this.position, length, StandardCharsets.ISO_8859_1);
+		}
+		this.position += length;
+		return value;
+	}
+
+}
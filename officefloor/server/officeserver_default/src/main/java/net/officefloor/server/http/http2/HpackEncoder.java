@@ -0,0 +1,170 @@
+/*-
+ * #%L
+ * Default OfficeFloor HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.server.http.http2;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * HPACK header block encoder (RFC 7541).
+ * <p>
+ * Each HTTP/2 connection has its own {@link HpackEncoder}. As the peer's
+ * dynamic table is updated in the order header blocks are received, header
+ * blocks must be written to the connection in the order they are encoded.
+ *
+ * @author Daniel Sagenschneider
+ */
+public class HpackEncoder {
+
+	/**
+	 * {@link HpackHeaderTable}.
+	 */
+	private final HpackHeaderTable table;
+
+	/**
+	 * Maximum size of dynamic table used by this {@link HpackEncoder}.
+	 */
+	private final int maxTableSize;
+
+	/**
+	 * Dynamic table size update to be signalled at start of the next header
+	 * block. Negative value indicates no update.
+	 */
+	private int pendingTableSizeUpdate = -1;
+
+	/**
+	 * Instantiate.
+	 *
+	 * @param maxTableSize Maximum size of dynamic table to use.
+	 */
+	public HpackEncoder(int maxTableSize) {
+		this.maxTableSize = maxTableSize;
+		this.table = new HpackHeaderTable(maxTableSize);
+	}
+
+	/**
+	 * Obtains the {@link HpackHeaderTable}.
+	 *
+	 * @return {@link HpackHeaderTable}.
+	 */
+	public HpackHeaderTable getHeaderTable() {
+		return this.table;
+	}
+
+	/**
+	 * Specifies the peer's <code>SETTINGS_HEADER_TABLE_SIZE</code>.
+	 *
+	 * @param peerTableSize Peer's maximum dynamic table size.
+	 */
+	public void setPeerTableSize(int peerTableSize) {
+		int size = Math.min(peerTableSize, this.maxTableSize);
+		if (size != this.table.getMaxSize()) {
+			this.table.setMaxSize(size);
+			this.pendingTableSizeUpdate = size;
+		}
+	}
+
+	/**
+	 * Encodes the header.
+	 *
+	 * @param name    Name (in lower case).
+	 * @param value   Value.
+	 * @param isIndex Indicates whether to add the header to the dynamic table.
+	 *                Headers with frequently changing values should not be
+	 *                indexed to avoid churning the dynamic table.
+	 * @param output  {@link ByteArrayOutputStream} to receive the encoding.
+	 */
+	public void encodeHeader(String name, String value, boolean isIndex, ByteArrayOutputStream output) {
+
+		// Signal change in table size before first header of block
+		if (this.pendingTableSizeUpdate >= 0) {
+			encodeInteger(0x20, 5, this.pendingTableSizeUpdate, output);
+			this.pendingTableSizeUpdate = -1;
+		}
+
+		// Determine if header already indexed
+		int index = this.table.getIndex(name, value);
+		if (index > 0) {
+			encodeInteger(0x80, 7, index, output);
+			return;
+		}
+
+		// Encode as literal
+		int nameIndex = this.table.getNameIndex(name);
+		if (isIndex) {
+			encodeInteger(0x40, 6, nameIndex, output);
+		} else {
+			encodeInteger(0x00, 4, nameIndex, output);
+		}
+		if (nameIndex == 0) {
+			encodeString(name, output);
+		}
+		encodeString(value, output);
+
+		// Index the header
+		if (isIndex) {
+			this.table.add(name, value);
+		}
+	}
+
+	/**
+	 * Encodes the integer.
+	 *
+	 * @param prefix     Bits of the first octet preceding the integer.
+	 * @param prefixBits Number of bits of the first octet for the integer.
+	 * @param value      Integer value.
+	 * @param output     {@link ByteArrayOutputStream}.
+	 */
+	private static void encodeInteger(int prefix, int prefixBits, int value, ByteArrayOutputStream output) {
+		int mask = (1 << prefixBits) - 1;
+		if (value < mask) {
+			output.write(prefix | value);
+			return;
+		}
+		output.write(prefix | mask);
+		value -= mask;
+		while (value >= 0x80) {
+			output.write((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		output.write(value);
+	}
+
+	/**
+	 * Encodes the string literal (using Huffman encoding if shorter).
+	 *
+	 * @param text   Text.
+	 * @param output {@link ByteArrayOutputStream}.
+	 */
+	private static void encodeString(String text, ByteArrayOutputStream output) {
+		int huffmanLength = HpackHuffman.getEncodedLength(text);
+		if (huffmanLength < text.length()) {
+			encodeInteger(0x80, 7, huffmanLength, output);
+			HpackHuffman.encode(text, output);
+		} else {
+			encodeInteger(0x00, 7, text.length(), output);
+			for (int i = 0; i < text.length(); i++) {
+				output.write(text.charAt(i));
+			}
+		}
+	}
+
+}
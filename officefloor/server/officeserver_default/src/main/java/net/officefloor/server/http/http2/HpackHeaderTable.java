@@ -0,0 +1,306 @@
+/*-
+ * #%L
+ * Default OfficeFloor HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.server.http.http2;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * HPACK header table providing the combined static and dynamic table index
+ * address space (RFC 7541 Section 2.3).
+ *
+ * @author Daniel Sagenschneider
+ */
+public class HpackHeaderTable {
+
+	/**
+	 * Overhead in octets of each entry within the dynamic table.
+	 */
+	public static final int ENTRY_OVERHEAD = 32;
+
+	/**
+	 * Static table (RFC 7541 Appendix A).
+	 */
+	private static final String[][] STATIC_TABLE = new String[][] { { ":authority", "" }, { ":method", "GET" },
+			{ ":method", "POST" }, { ":path", "/" }, { ":path", "/index.html" }, { ":scheme", "http" },
+			{ ":scheme", "https" }, { ":status", "200" }, { ":status", "204" }, { ":status", "206" },
+			{ ":status", "304" }, { ":status", "400" }, { ":status", "404" }, { ":status", "500" },
+			{ "accept-charset", "" }, { "accept-encoding", "gzip, deflate" }, { "accept-language", "" },
+			{ "accept-ranges", "" }, { "accept", "" }, { "access-control-allow-origin", "" }, { "age", "" },
+			{ "allow", "" }, { "authorization", "" }, { "cache-control", "" }, { "content-disposition", "" },
+			{ "content-encoding", "" }, { "content-language", "" }, { "content-length", "" },
+			{ "content-location", "" }, { "content-range", "" }, { "content-type", "" }, { "cookie", "" },
+			{ "date", "" }, { "etag", "" }, { "expect", "" }, { "expires", "" }, { "from", "" }, { "host", "" },
+			{ "if-match", "" }, { "if-modified-since", "" }, { "if-none-match", "" }, { "if-range", "" },
+			{ "if-unmodified-since", "" }, { "last-modified", "" }, { "link", "" }, { "location", "" },
+			{ "max-forwards", "" }, { "proxy-authenticate", "" }, { "proxy-authorization", "" }, { "range", "" },
+			{ "referer", "" }, { "refresh", "" }, { "retry-after", "" }, { "server", "" }, { "set-cookie", "" },
+			{ "strict-transport-security", "" }, { "transfer-encoding", "" }, { "user-agent", "" },
+			{ "vary", "" }, { "via", "" }, { "www-authenticate", "" } };
+
+	/**
+	 * Number of entries in the static table.
+	 */
+	public static final int STATIC_TABLE_LENGTH = STATIC_TABLE.length;
+
+	/**
+	 * Static table index by name (first entry for the name).
+	 */
+	private static final Map<String, Integer> STATIC_NAME_INDEX = new HashMap<>();
+
+	/**
+	 * Static table index by name and value.
+	 */
+	private static final Map<String, Integer> STATIC_FIELD_INDEX = new HashMap<>();
+
+	static {
+		for (int i = STATIC_TABLE_LENGTH - 1; i >= 0; i--) {
+			String name = STATIC_TABLE[i][0];
+			String value = STATIC_TABLE[i][1];
+			STATIC_NAME_INDEX.put(name, i + 1);
+			if (value.length() > 0) {
+				STATIC_FIELD_INDEX.put(name + ":" + value, i + 1);
+			}
+		}
+	}
+
+	/**
+	 * Names of the dynamic table entries (as ring buffer).
+	 */
+	private String[] names = new String[16];
+
+	/**
+	 * Values of the dynamic table entries (as ring buffer).
+	 */
+	private String[] values = new String[16];
+
+	/**
+	 * Position of the oldest dynamic table entry.
+	 */
+	private int oldest = 0;
+
+	/**
+	 * Number of dynamic table entries.
+	 */
+	private int count = 0;
+
+	/**
+	 * Size of the dynamic table.
+	 */
+	private int size = 0;
+
+	/**
+	 * Maximum size of the dynamic table.
+	 */
+	private int maxSize;
+
+	/**
+	 * Instantiate.
+	 *
+	 * @param maxSize Maximum size of the dynamic table.
+	 */
+	public HpackHeaderTable(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Obtains the size of the dynamic table.
+	 *
+	 * @return Size of the dynamic table.
+	 */
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Obtains the number of entries in the dynamic table.
+	 *
+	 * @return Number of entries in the dynamic table.
+	 */
+	public int getDynamicLength() {
+		return this.count;
+	}
+
+	/**
+	 * Obtains the maximum size of the dynamic table.
+	 *
+	 * @return Maximum size of the dynamic table.
+	 */
+	public int getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Specifies the maximum size of the dynamic table, evicting entries as
+	 * necessary.
+	 *
+	 * @param maxSize Maximum size of the dynamic table.
+	 */
+	public void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+		while (this.size > this.maxSize) {
+			this.evict();
+		}
+	}
+
+	/**
+	 * Obtains the name for the index.
+	 *
+	 * @param index Index.
+	 * @return Name.
+	 * @throws Http2Exception If invalid index.
+	 */
+	public String getName(int index) throws Http2Exception {
+		if ((index > 0) && (index <= STATIC_TABLE_LENGTH)) {
+			return STATIC_TABLE[index - 1][0];
+		}
+		return this.names[this.getPosition(index)];
+	}
+
+	/**
+	 * Obtains the value for the index.
+	 *
+	 * @param index Index.
+	 * @return Value.
+	 * @throws Http2Exception If invalid index.
+	 */
+	public String getValue(int index) throws Http2Exception {
+		if ((index > 0) && (index <= STATIC_TABLE_LENGTH)) {
+			return STATIC_TABLE[index - 1][1];
+		}
+		return this.values[this.getPosition(index)];
+	}
+
+	/**
+	 * Obtains the index of the entry matching both name and value.
+	 *
+	 * @param name  Name.
+	 * @param value Value.
+	 * @return Index of the entry or <code>0</code> if no matching entry.
+	 */
+	public int getIndex(String name, String value) {
+		Integer index = STATIC_FIELD_INDEX.get(name + ":" + value);
+		if (index != null) {
+			return index;
+		}
+		for (int i = 0; i < this.count; i++) {
+			int position = (this.oldest + this.count - 1 - i) % this.names.length;
+			if (name.equals(this.names[position]) && value.equals(this.values[position])) {
+				return STATIC_TABLE_LENGTH + 1 + i;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Obtains the index of an entry matching the name.
+	 *
+	 * @param name Name.
+	 * @return Index of the entry or <code>0</code> if no matching entry.
+	 */
+	public int getNameIndex(String name) {
+		Integer index = STATIC_NAME_INDEX.get(name);
+		if (index != null) {
+			return index;
+		}
+		for (int i = 0; i < this.count; i++) {
+			int position = (this.oldest + this.count - 1 - i) % this.names.length;
+			if (name.equals(this.names[position])) {
+				return STATIC_TABLE_LENGTH + 1 + i;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Adds an entry to the dynamic table.
+	 *
+	 * @param name  Name.
+	 * @param value Value.
+	 */
+	public void add(String name, String value) {
+
+		// Determine if entry fits within the table
+		int entrySize = ENTRY_OVERHEAD + name.length() + value.length();
+		if (entrySize > this.maxSize) {
+			// Entry too large, so results in empty table
+			while (this.count > 0) {
+				this.evict();
+			}
+			return;
+		}
+
+		// Evict to make room for the entry
+		while ((this.size + entrySize) > this.maxSize) {
+			this.evict();
+		}
+
+		// Grow the ring buffer as necessary
+		if (this.count == this.names.length) {
+			String[] newNames = new String[this.names.length * 2];
+			String[] newValues = new String[this.values.length * 2];
+			for (int i = 0; i < this.count; i++) {
+				int position = (this.oldest + i) % this.names.length;
+				newNames[i] = this.names[position];
+				newValues[i] = this.values[position];
+			}
+			this.names = newNames;
+			this.values = newValues;
+			this.oldest = 0;
+		}
+
+		// Add the entry
+		int position = (this.oldest + this.count) % this.names.length;
+		this.names[position] = name;
+		this.values[position] = value;
+		this.count++;
+		this.size += entrySize;
+	}
+
+	/**
+	 * Obtains the ring buffer position for the dynamic table index.
+	 *
+	 * @param index Index.
+	 * @return Position within the ring buffer.
+	 * @throws Http2Exception If invalid index.
+	 */
+	private int getPosition(int index) throws Http2Exception {
+		int dynamicIndex = index - STATIC_TABLE_LENGTH - 1;
+		if ((dynamicIndex < 0) || (dynamicIndex >= this.count)) {
+			throw new Http2Exception(Http2Exception.COMPRESSION_ERROR, "Invalid header table index " + index);
+		}
+		return (this.oldest + this.count - 1 - dynamicIndex) % this.names.length;
+	}
+
+	/**
+	 * Evicts the oldest entry from the dynamic table.
+	 */
+	private void evict() {
+		int position = this.oldest;
+		this.size -= ENTRY_OVERHEAD + this.names[position].length() + this.values[position].length();
+		this.names[position] = null;
+		this.values[position] = null;
+		this.oldest = (this.oldest + 1) % this.names.length;
+		this.count--;
+	}
+
+}
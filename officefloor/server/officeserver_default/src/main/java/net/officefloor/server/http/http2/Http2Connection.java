@@ -0,0 +1,1702 @@
+/*-
+ * #%L
+ * Default OfficeFloor HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.server.http.http2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.officefloor.frame.api.manage.ProcessManager;
+import net.officefloor.server.RequestHandler;
+import net.officefloor.server.ResponseWriter;
+import net.officefloor.server.http.HttpException;
+import net.officefloor.server.http.HttpHeaderValue;
+import net.officefloor.server.http.HttpStatus;
+import net.officefloor.server.http.HttpVersion;
+import net.officefloor.server.http.WritableHttpCookie;
+import net.officefloor.server.http.WritableHttpHeader;
+import net.officefloor.server.stream.BufferJvmFix;
+import net.officefloor.server.stream.FileCompleteCallback;
+import net.officefloor.server.stream.StreamBuffer;
+import net.officefloor.server.stream.StreamBuffer.FileBuffer;
+import net.officefloor.server.stream.StreamBufferPool;
+
+/**
+ * <p>
+ * HTTP/2 connection (RFC 7540).
+ * <p>
+ * Parses the frames received on the connection, maintaining the HPACK state
+ * and flow control windows. Each {@link Http2Stream} is handed to the
+ * {@link RequestHandler} as a separate request so that it is serviced by its
+ * own process.
+ * <p>
+ * All frames are written through the oldest outstanding request's
+ * {@link ResponseWriter}. This keeps all writes (including over TLS) in the
+ * order they are encoded, as required by the HPACK dynamic table. Requests are
+ * then completed in order as their {@link Http2Stream} responses finish.
+ * <p>
+ * All methods must be invoked on the {@link java.net.Socket}
+ * {@link Thread}.
+ *
+ * @author Daniel Sagenschneider
+ */
+public class Http2Connection<R> {
+
+	/**
+	 * HTTP/2 client connection preface.
+	 */
+	public static final byte[] CONNECTION_PREFACE = "PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n"
+			.getBytes(StandardCharsets.US_ASCII);
+
+	/**
+	 * HTTP/2 {@link HttpVersion}.
+	 */
+	public static final HttpVersion HTTP_2 = new HttpVersion("HTTP/2.0");
+
+	/**
+	 * Services the {@link Http2Stream}.
+	 */
+	@FunctionalInterface
+	public static interface Http2StreamServicer {
+
+		/**
+		 * Services the {@link Http2Stream}.
+		 *
+		 * @param stream {@link Http2Stream}.
+		 * @return {@link ProcessManager} servicing the {@link Http2Stream}.
+		 */
+		ProcessManager service(Http2Stream stream);
+	}
+
+	/*
+	 * Frame types.
+	 */
+	private static final int DATA = 0x0;
+	private static final int HEADERS = 0x1;
+	private static final int PRIORITY = 0x2;
+	private static final int RST_STREAM = 0x3;
+	private static final int SETTINGS = 0x4;
+	private static final int PUSH_PROMISE = 0x5;
+	private static final int PING = 0x6;
+	private static final int GOAWAY = 0x7;
+	private static final int WINDOW_UPDATE = 0x8;
+	private static final int CONTINUATION = 0x9;
+
+	/*
+	 * Frame flags.
+	 */
+	private static final int FLAG_END_STREAM = 0x1;
+	private static final int FLAG_ACK = 0x1;
+	private static final int FLAG_END_HEADERS = 0x4;
+	private static final int FLAG_PADDED = 0x8;
+	private static final int FLAG_PRIORITY = 0x20;
+
+	/*
+	 * Settings.
+	 */
+	private static final int SETTINGS_HEADER_TABLE_SIZE = 0x1;
+	private static final int SETTINGS_ENABLE_PUSH = 0x2;
+	private static final int SETTINGS_MAX_CONCURRENT_STREAMS = 0x3;
+	private static final int SETTINGS_INITIAL_WINDOW_SIZE = 0x4;
+	private static final int SETTINGS_MAX_FRAME_SIZE = 0x5;
+
+	/**
+	 * Size of the frame header.
+	 */
+	private static final int FRAME_HEADER_LENGTH = 9;
+
+	/**
+	 * Default (and our) maximum frame size.
+	 */
+	private static final int MAX_FRAME_SIZE = 16384;
+
+	/**
+	 * Default initial flow control window size.
+	 */
+	private static final int DEFAULT_WINDOW_SIZE = 65535;
+
+	/**
+	 * Maximum flow control window size.
+	 */
+	private static final long MAX_WINDOW_SIZE = 0x7fffffffL;
+
+	/**
+	 * HPACK dynamic table size.
+	 */
+	private static final int HEADER_TABLE_SIZE = 4096;
+
+	/**
+	 * Maximum size of a header block.
+	 */
+	private static final int MAX_HEADER_BLOCK_SIZE = 65536;
+
+	/**
+	 * Maximum number of concurrent {@link Http2Stream} instances.
+	 */
+	private static final int MAX_CONCURRENT_STREAMS = 100;
+
+	/**
+	 * Amount of received data consumed before replenishing the receive window
+	 * (batching <code>WINDOW_UPDATE</code> frames).
+	 */
+	private static final int WINDOW_UPDATE_THRESHOLD = DEFAULT_WINDOW_SIZE / 2;
+
+	/**
+	 * Maximum number of {@link Http2Stream} instances the client may reset
+	 * within the {@link #CLIENT_RESET_PERIOD} (mitigating rapid reset attacks).
+	 */
+	private static final int MAX_CLIENT_RESETS = 200;
+
+	/**
+	 * Period in milliseconds for the {@link #MAX_CLIENT_RESETS}.
+	 */
+	private static final long CLIENT_RESET_PERIOD = 30000;
+
+	/**
+	 * Response headers with frequently changing values that are not indexed.
+	 */
+	private static final String[] NON_INDEXED_HEADERS = new String[] { "content-length", "date", "etag",
+			"last-modified", "set-cookie", "age", "expires" };
+
+	/**
+	 * Connection specific headers not sent in HTTP/2.
+	 */
+	private static final String[] CONNECTION_HEADERS = new String[] { "connection", "keep-alive",
+			"proxy-connection", "transfer-encoding", "upgrade" };
+
+	/**
+	 * {@link ProcessManager} for requests only writing control frames.
+	 */
+	private static final ProcessManager CONTROL_PROCESSING = () -> {
+		// nothing to cancel
+	};
+
+	/**
+	 * {@link ByteArrayOutputStream} to encode the response header blocks, providing
+	 * access to the encoded bytes without copying.
+	 */
+	private static class HeaderBlockOutput extends ByteArrayOutputStream {
+
+		/**
+		 * Obtains the buffer containing the encoded bytes.
+		 *
+		 * @return Buffer containing the encoded bytes.
+		 */
+		private byte[] getBuffer() {
+			return this.buf;
+		}
+	}
+
+	/**
+	 * Outstanding request.
+	 */
+	private static class Http2Request {
+
+		/**
+		 * {@link ResponseWriter} for the request.
+		 */
+		private final ResponseWriter responseWriter;
+
+		/**
+		 * {@link Http2Stream}. <code>null</code> if request to write control frames.
+		 */
+		private final Http2Stream stream;
+
+		/**
+		 * Next {@link Http2Request}.
+		 */
+		private Http2Request next = null;
+
+		/**
+		 * Instantiate.
+		 *
+		 * @param responseWriter {@link ResponseWriter}.
+		 * @param stream         {@link Http2Stream}.
+		 */
+		private Http2Request(ResponseWriter responseWriter, Http2Stream stream) {
+			this.responseWriter = responseWriter;
+			this.stream = stream;
+		}
+
+		/**
+		 * Indicates if the response for the request is complete.
+		 *
+		 * @return <code>true</code> if response complete.
+		 */
+		private boolean isComplete() {
+			return (this.stream == null) || (this.stream.isEndResponse) || (this.stream.isReset);
+		}
+	}
+
+	/**
+	 * {@link RequestHandler}.
+	 */
+	final RequestHandler<R> requestHandler;
+
+	/**
+	 * Request provided to the {@link RequestHandler}.
+	 */
+	private final R request;
+
+	/**
+	 * {@link Http2StreamServicer}.
+	 */
+	private final Http2StreamServicer servicer;
+
+	/**
+	 * {@link StreamBufferPool}.
+	 */
+	final StreamBufferPool<ByteBuffer> bufferPool;
+
+	/**
+	 * Maximum number of headers for a request.
+	 */
+	final int maxHeaderCount;
+
+	/**
+	 * Maximum length of the request entity.
+	 */
+	private final long maxEntityLength;
+
+	/**
+	 * Maximum number of concurrent {@link Http2Stream} instances.
+	 */
+	private final int maxConcurrentStreams;
+
+	/**
+	 * {@link HpackDecoder}.
+	 */
+	private final HpackDecoder decoder = new HpackDecoder(HEADER_TABLE_SIZE);
+
+	/**
+	 * {@link HpackEncoder}.
+	 */
+	private final HpackEncoder encoder = new HpackEncoder(HEADER_TABLE_SIZE);
+
+	/**
+	 * Buffer to encode the response header blocks.
+	 */
+	private final HeaderBlockOutput headerBlockOutput = new HeaderBlockOutput();
+
+	/**
+	 * Buffer to encode frames (with up to 4 byte payload) for writing.
+	 */
+	private final byte[] frameOutput = new byte[FRAME_HEADER_LENGTH + 4];
+
+	/**
+	 * Header of the frame being read.
+	 */
+	private final byte[] frameHeader = new byte[FRAME_HEADER_LENGTH];
+
+	/**
+	 * Number of bytes of the frame header read.
+	 */
+	private int frameHeaderRead = 0;
+
+	/**
+	 * Payload of the frame being read.
+	 */
+	private final byte[] payload = new byte[MAX_FRAME_SIZE];
+
+	/**
+	 * Length of the payload of the frame being read.
+	 */
+	private int payloadLength = 0;
+
+	/**
+	 * Number of bytes of the payload read.
+	 */
+	private int payloadRead = 0;
+
+	/**
+	 * Indicates if waiting on the client's initial <code>SETTINGS</code> frame.
+	 */
+	private boolean isAwaitingSettings = true;
+
+	/**
+	 * Header block being received.
+	 */
+	private byte[] headerBlock = new byte[MAX_FRAME_SIZE];
+
+	/**
+	 * Length of the header block being received.
+	 */
+	private int headerBlockLength = 0;
+
+	/**
+	 * Stream identifier for the header block being received. <code>0</code> if
+	 * no header block being received.
+	 */
+	private int headerBlockStreamId = 0;
+
+	/**
+	 * Indicates if the header block ends the stream.
+	 */
+	private boolean isHeaderBlockEndStream = false;
+
+	/**
+	 * Open {@link Http2Stream} instances by stream identifier.
+	 */
+	private final Map<Integer, Http2Stream> streams = new HashMap<>();
+
+	/**
+	 * Number of reset {@link Http2Stream} instances still being serviced. These
+	 * continue to count against the maximum concurrent streams.
+	 */
+	private int resetServicingStreams = 0;
+
+	/**
+	 * Number of {@link Http2Stream} instances reset by the client within the
+	 * current reset period.
+	 */
+	private int clientResets = 0;
+
+	/**
+	 * Start time of the current client reset period.
+	 */
+	private long clientResetPeriodStart = 0;
+
+	/**
+	 * {@link Http2Stream} instances blocked by flow control.
+	 */
+	private List<Http2Stream> blockedStreams = new ArrayList<>();
+
+	/**
+	 * Last client stream identifier.
+	 */
+	private int lastStreamId = 0;
+
+	/**
+	 * Peer's initial stream window size.
+	 */
+	private long peerInitialWindowSize = DEFAULT_WINDOW_SIZE;
+
+	/**
+	 * Peer's maximum frame size.
+	 */
+	private int peerMaxFrameSize = MAX_FRAME_SIZE;
+
+	/**
+	 * Connection window for sending data.
+	 */
+	private long connectionSendWindow = DEFAULT_WINDOW_SIZE;
+
+	/**
+	 * Connection window for receiving data.
+	 */
+	private long connectionReceiveWindow = DEFAULT_WINDOW_SIZE;
+
+	/**
+	 * Received data consumed but not yet replenished in the connection receive
+	 * window.
+	 */
+	private int connectionReceiveConsumed = 0;
+
+	/**
+	 * Head outstanding {@link Http2Request}.
+	 */
+	private Http2Request head = null;
+
+	/**
+	 * Tail outstanding {@link Http2Request}.
+	 */
+	private Http2Request tail = null;
+
+	/**
+	 * {@link Http2Stream} being handed to the {@link RequestHandler}.
+	 * <code>null</code> for control request.
+	 */
+	private Http2Stream servicingStream = null;
+
+	/**
+	 * Head of frames to be written.
+	 */
+	private StreamBuffer<ByteBuffer> outputHead = null;
+
+	/**
+	 * Tail of frames to be written.
+	 */
+	private StreamBuffer<ByteBuffer> outputTail = null;
+
+	/**
+	 * Pooled {@link StreamBuffer} of the output to write frames into.
+	 * <code>null</code> if require new pooled {@link StreamBuffer}.
+	 */
+	private StreamBuffer<ByteBuffer> outputWriteBuffer = null;
+
+	/**
+	 * Indicates if client has sent <code>GOAWAY</code>.
+	 */
+	private boolean isGoAway = false;
+
+	/**
+	 * Indicates if the connection is closed.
+	 */
+	private boolean isClosed = false;
+
+	/**
+	 * Instantiate.
+	 *
+	 * @param requestHandler  {@link RequestHandler}.
+	 * @param request         Request to provide to the {@link RequestHandler}.
+	 * @param servicer        {@link Http2StreamServicer}.
+	 * @param bufferPool      {@link StreamBufferPool}.
+	 * @param maxHeaderCount  Maximum number of headers for a request.
+	 * @param maxEntityLength Maximum length of the request entity.
+	 */
+	public Http2Connection(RequestHandler<R> requestHandler, R request, Http2StreamServicer servicer,
+			StreamBufferPool<ByteBuffer> bufferPool, int maxHeaderCount, long maxEntityLength) {
+		this.requestHandler = requestHandler;
+		this.request = request;
+		this.servicer = servicer;
+		this.bufferPool = bufferPool;
+		this.maxHeaderCount = maxHeaderCount;
+		this.maxEntityLength = maxEntityLength;
+
+		// Continue reading control frames while requests in-flight
+		int maxInFlightRequests = requestHandler.disableReadPause();
+		this.maxConcurrentStreams = Math.max(1, Math.min(MAX_CONCURRENT_STREAMS, maxInFlightRequests));
+
+		// Server connection preface (sent on first read)
+		byte[] settings = new byte[6];
+		writeSetting(settings, 0, SETTINGS_MAX_CONCURRENT_STREAMS, this.maxConcurrentStreams);
+		this.writeFrame(SETTINGS, 0, 0, settings, 0, settings.length);
+	}
+
+	/**
+	 * Reads data received on the connection.
+	 *
+	 * @param data     {@link ByteBuffer} containing the data.
+	 * @param position Position of the data within the {@link ByteBuffer}.
+	 * @param limit    Limit of the data within the {@link ByteBuffer}.
+	 */
+	public void read(ByteBuffer data, int position, int limit) {
+		try {
+			while ((position < limit) && (!this.isClosed)) {
+
+				// Read the frame header
+				if (this.frameHeaderRead < FRAME_HEADER_LENGTH) {
+					int length = Math.min(FRAME_HEADER_LENGTH - this.frameHeaderRead, limit - position);
+					for (int i = 0; i < length; i++) {
+						this.frameHeader[this.frameHeaderRead++] = data.get(position++);
+					}
+					if (this.frameHeaderRead < FRAME_HEADER_LENGTH) {
+						return; // wait on remaining frame header
+					}
+
+					// Obtain the payload length
+					this.payloadLength = ((this.frameHeader[0] & 0xff) << 16) | ((this.frameHeader[1] & 0xff) << 8)
+							| (this.frameHeader[2] & 0xff);
+					if (this.payloadLength > MAX_FRAME_SIZE) {
+						throw new Http2Exception(Http2Exception.FRAME_SIZE_ERROR,
+								"Frame size " + this.payloadLength + " exceeds maximum " + MAX_FRAME_SIZE);
+					}
+					this.payloadRead = 0;
+				}
+
+				// Read the payload
+				int length = Math.min(this.payloadLength - this.payloadRead, limit - position);
+				for (int i = 0; i < length; i++) {
+					this.payload[this.payloadRead++] = data.get(position++);
+				}
+				if (this.payloadRead < this.payloadLength) {
+					return; // wait on remaining payload
+				}
+
+				// Handle the frame
+				this.frameHeaderRead = 0;
+				int type = this.frameHeader[3] & 0xff;
+				int flags = this.frameHeader[4] & 0xff;
+				int streamId = readInt(this.frameHeader, 5) & 0x7fffffff;
+				try {
+					this.handleFrame(type, flags, streamId);
+				} catch (Http2Exception ex) {
+					if (ex.getStreamId() == 0) {
+						throw ex; // connection error
+					}
+					this.resetStream(ex.getStreamId(), ex.getErrorCode());
+				}
+			}
+		} catch (Http2Exception ex) {
+			this.closeConnection(ex.getErrorCode(), ex.getMessage());
+		} finally {
+			this.flush();
+		}
+	}
+
+	/**
+	 * Services the request handed to the {@link RequestHandler}.
+	 *
+	 * @param responseWriter {@link ResponseWriter} for the request.
+	 * @return {@link ProcessManager} for servicing the request.
+	 */
+	public ProcessManager service(ResponseWriter responseWriter) {
+
+		// Register the request (to complete in order)
+		Http2Stream stream = this.servicingStream;
+		this.servicingStream = null;
+		Http2Request request = new Http2Request(responseWriter, stream);
+		if (this.head == null) {
+			this.head = request;
+		} else {
+			this.tail.next = request;
+		}
+		this.tail = request;
+
+		// Determine if control request
+		if (stream == null) {
+			return CONTROL_PROCESSING;
+		}
+
+		// Service the stream
+		return this.servicer.service(stream);
+	}
+
+	/**
+	 * Releases the connection.
+	 */
+	public void release() {
+		this.isClosed = true;
+		for (Http2Stream stream : this.streams.values()) {
+			releaseContent(stream.pendingHead);
+			stream.pendingHead = null;
+			stream.pendingTail = null;
+		}
+		this.streams.clear();
+		this.blockedStreams.clear();
+		this.releaseOutput();
+	}
+
+	/**
+	 * Writes the response for the {@link Http2Stream}.
+	 *
+	 * @param stream        {@link Http2Stream}.
+	 * @param status        {@link HttpStatus}.
+	 * @param httpHeader    Head {@link WritableHttpHeader}.
+	 * @param httpCookie    Head {@link WritableHttpCookie}.
+	 * @param contentLength Length of the content. Negative if streaming content.
+	 * @param contentType   <code>Content-Type</code>. May be <code>null</code>.
+	 * @param content       Content. May be <code>null</code>.
+	 * @param isComplete    Indicates if the content is complete.
+	 */
+	void writeResponse(Http2Stream stream, HttpStatus status, WritableHttpHeader httpHeader,
+			WritableHttpCookie httpCookie, long contentLength, HttpHeaderValue contentType,
+			StreamBuffer<ByteBuffer> content, boolean isComplete) {
+
+		// Determine if servicing complete
+		if (isComplete) {
+			this.completeServicing(stream);
+		}
+
+		// Ignore if stream no longer active
+		if ((this.isClosed) || (stream.isReset)) {
+			releaseContent(content);
+			return;
+		}
+
+		// Encode the response headers
+		HeaderBlockOutput block = this.headerBlockOutput;
+		block.reset();
+		this.encoder.encodeHeader(":status", String.valueOf(status.getStatusCode()), true, block);
+		if (contentType != null) {
+			this.encoder.encodeHeader("content-type", contentType.getValue(), true, block);
+		}
+		if (isComplete) {
+			this.encoder.encodeHeader("content-length", String.valueOf(Math.max(0, contentLength)), false, block);
+		}
+		NEXT_HEADER: for (WritableHttpHeader header = httpHeader; header != null; header = header.next) {
+			String name = header.getName().toLowerCase();
+			for (String connectionHeader : CONNECTION_HEADERS) {
+				if (connectionHeader.equals(name)) {
+					continue NEXT_HEADER;
+				}
+			}
+			boolean isIndex = true;
+			for (String nonIndexedHeader : NON_INDEXED_HEADERS) {
+				isIndex &= !nonIndexedHeader.equals(name);
+			}
+			this.encoder.encodeHeader(name, header.getValue(), isIndex, block);
+		}
+		for (WritableHttpCookie cookie = httpCookie; cookie != null; cookie = cookie.next) {
+			this.encoder.encodeHeader("set-cookie", cookie.toResponseHeaderValue(), false, block);
+		}
+
+		// Write the response headers
+		boolean isEndStream = isComplete && (contentLength <= 0);
+		byte[] headerBlock = block.getBuffer();
+		int headerBlockLength = block.size();
+		int offset = 0;
+		int type = HEADERS;
+		do {
+			int length = Math.min(headerBlockLength - offset, this.peerMaxFrameSize);
+			boolean isEndHeaders = (offset + length) == headerBlockLength;
+			int flags = (isEndHeaders ? FLAG_END_HEADERS : 0) | ((type == HEADERS) && isEndStream ? FLAG_END_STREAM : 0);
+			this.writeFrame(type, flags, stream.streamId, headerBlock, offset, length);
+			offset += length;
+			type = CONTINUATION;
+		} while (offset < headerBlockLength);
+
+		// Determine if response complete
+		if (isEndStream) {
+			releaseContent(content);
+			stream.isResponseComplete = true;
+			this.endResponse(stream);
+		} else {
+			// Send the content
+			this.writeContent(stream, content, isComplete);
+		}
+
+		// Flush the response
+		this.flush();
+	}
+
+	/**
+	 * Writes content for the {@link Http2Stream}.
+	 *
+	 * @param stream     {@link Http2Stream}.
+	 * @param content    Content. May be <code>null</code>.
+	 * @param isComplete Indicates if the content is complete.
+	 */
+	void writeContent(Http2Stream stream, StreamBuffer<ByteBuffer> content, boolean isComplete) {
+
+		// Determine if servicing complete
+		if (isComplete) {
+			this.completeServicing(stream);
+		}
+
+		// Ignore if stream no longer active
+		if ((this.isClosed) || (stream.isReset)) {
+			releaseContent(content);
+			return;
+		}
+
+		// Append the content
+		try {
+			while (content != null) {
+				StreamBuffer<ByteBuffer> buffer = content;
+				content = content.next;
+				buffer.next = null;
+				long length = getLength(buffer);
+				if ((length == 0) && (buffer.fileBuffer == null)) {
+					buffer.release();
+					continue; // no content to send
+				}
+				stream.pendingLength += length;
+				if (stream.pendingHead == null) {
+					stream.pendingHead = buffer;
+				} else {
+					stream.pendingTail.next = buffer;
+				}
+				stream.pendingTail = buffer;
+			}
+		} catch (IOException ex) {
+			releaseContent(content);
+			this.resetStream(stream.streamId, Http2Exception.INTERNAL_ERROR);
+			this.flush();
+			return;
+		}
+		stream.isResponseComplete = isComplete;
+
+		// Send the content
+		this.sendData(stream);
+		this.flush();
+	}
+
+	/**
+	 * Aborts the streamed response of the {@link Http2Stream} (as content already
+	 * sent, so can not complete the response).
+	 *
+	 * @param stream {@link Http2Stream}.
+	 */
+	void abortResponse(Http2Stream stream) {
+
+		// Servicing complete (as aborted)
+		this.completeServicing(stream);
+
+		// Ignore if stream no longer active
+		if ((this.isClosed) || (stream.isReset)) {
+			return;
+		}
+
+		// Reset the stream, so client aware response failed
+		this.resetStream(stream.streamId, Http2Exception.INTERNAL_ERROR);
+		this.flush();
+	}
+
+	/**
+	 * Handles the frame.
+	 *
+	 * @param type     Frame type.
+	 * @param flags    Frame flags.
+	 * @param streamId Stream identifier.
+	 * @throws Http2Exception If frame is in error.
+	 */
+	private void handleFrame(int type, int flags, int streamId) throws Http2Exception {
+
+		// First frame must be settings
+		if (this.isAwaitingSettings) {
+			if ((type != SETTINGS) || ((flags & FLAG_ACK) != 0)) {
+				throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, "Expecting SETTINGS frame");
+			}
+			this.isAwaitingSettings = false;
+		}
+
+		// Header block must be contiguous
+		if ((this.headerBlockStreamId != 0) && ((type != CONTINUATION) || (streamId != this.headerBlockStreamId))) {
+			throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, "Expecting CONTINUATION frame");
+		}
+
+		// Handle the frame
+		int length = this.payloadLength;
+		switch (type) {
+		case DATA:
+			this.handleData(flags, streamId, length);
+			break;
+
+		case HEADERS:
+			if (streamId == 0) {
+				throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, "HEADERS for connection");
+			}
+			int offset = 0;
+			int padding = 0;
+			if ((flags & FLAG_PADDED) != 0) {
+				padding = this.readPadding(length);
+				offset++;
+			}
+			if ((flags & FLAG_PRIORITY) != 0) {
+				offset += 5;
+			}
+			if ((offset + padding) > length) {
+				throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, "Invalid HEADERS padding");
+			}
+			this.headerBlockStreamId = streamId;
+			this.isHeaderBlockEndStream = (flags & FLAG_END_STREAM) != 0;
+			this.headerBlockLength = 0;
+			this.appendHeaderBlock(offset, length - offset - padding);
+			if ((flags & FLAG_END_HEADERS) != 0) {
+				this.handleHeaderBlock();
+			}
+			break;
+
+		case CONTINUATION:
+			if (this.headerBlockStreamId == 0) {
+				throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, "CONTINUATION without HEADERS");
+			}
+			this.appendHeaderBlock(0, length);
+			if ((flags & FLAG_END_HEADERS) != 0) {
+				this.handleHeaderBlock();
+			}
+			break;
+
+		case PRIORITY:
+			if (length != 5) {
+				throw new Http2Exception(Http2Exception.FRAME_SIZE_ERROR, streamId, "Invalid PRIORITY frame");
+			}
+			break; // prioritisation not supported
+
+		case RST_STREAM:
+			if (streamId == 0) {
+				throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, "RST_STREAM for connection");
+			}
+			if (length != 4) {
+				throw new Http2Exception(Http2Exception.FRAME_SIZE_ERROR, "Invalid RST_STREAM frame");
+			}
+			Http2Stream resetStream = this.streams.remove(streamId);
+			if (resetStream != null) {
+				this.discardStream(resetStream);
+
+				// Limit the client resets (mitigating rapid reset attacks)
+				long currentTime = System.currentTimeMillis();
+				if ((currentTime - this.clientResetPeriodStart) > CLIENT_RESET_PERIOD) {
+					this.clientResetPeriodStart = currentTime;
+					this.clientResets = 0;
+				}
+				this.clientResets++;
+				if (this.clientResets > MAX_CLIENT_RESETS) {
+					throw new Http2Exception(Http2Exception.ENHANCE_YOUR_CALM, "Excessive stream resets");
+				}
+			} else if (streamId > this.lastStreamId) {
+				throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, "RST_STREAM for idle stream");
+			}
+			break;
+
+		case SETTINGS:
+			if (streamId != 0) {
+				throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, "SETTINGS for stream");
+			}
+			if ((flags & FLAG_ACK) != 0) {
+				if (length != 0) {
+					throw new Http2Exception(Http2Exception.FRAME_SIZE_ERROR, "SETTINGS acknowledge with payload");
+				}
+				break;
+			}
+			if ((length % 6) != 0) {
+				throw new Http2Exception(Http2Exception.FRAME_SIZE_ERROR, "Invalid SETTINGS frame");
+			}
+			for (int i = 0; i < length; i += 6) {
+				int identifier = ((this.payload[i] & 0xff) << 8) | (this.payload[i + 1] & 0xff);
+				long value = readInt(this.payload, i + 2) & 0xffffffffL;
+				this.handleSetting(identifier, value);
+			}
+			this.writeFrame(SETTINGS, FLAG_ACK, 0, null, 0, 0);
+			this.resumeBlockedStreams();
+			break;
+
+		case PUSH_PROMISE:
+			throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, "PUSH_PROMISE from client");
+
+		case PING:
+			if (streamId != 0) {
+				throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, "PING for stream");
+			}
+			if (length != 8) {
+				throw new Http2Exception(Http2Exception.FRAME_SIZE_ERROR, "Invalid PING frame");
+			}
+			if ((flags & FLAG_ACK) == 0) {
+				this.writeFrame(PING, FLAG_ACK, 0, this.payload, 0, 8);
+			}
+			break;
+
+		case GOAWAY:
+			if (streamId != 0) {
+				throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, "GOAWAY for stream");
+			}
+			this.isGoAway = true;
+			break;
+
+		case WINDOW_UPDATE:
+			if (length != 4) {
+				throw new Http2Exception(Http2Exception.FRAME_SIZE_ERROR, "Invalid WINDOW_UPDATE frame");
+			}
+			long increment = readInt(this.payload, 0) & 0x7fffffff;
+			if (streamId == 0) {
+				if (increment == 0) {
+					throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, "Invalid window increment");
+				}
+				this.connectionSendWindow += increment;
+				if (this.connectionSendWindow > MAX_WINDOW_SIZE) {
+					throw new Http2Exception(Http2Exception.FLOW_CONTROL_ERROR, "Connection window overflow");
+				}
+				this.resumeBlockedStreams();
+			} else {
+				if (increment == 0) {
+					throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, streamId, "Invalid window increment");
+				}
+				Http2Stream stream = this.streams.get(streamId);
+				if (stream != null) {
+					stream.sendWindow += increment;
+					if (stream.sendWindow > MAX_WINDOW_SIZE) {
+						throw new Http2Exception(Http2Exception.FLOW_CONTROL_ERROR, streamId, "Stream window overflow");
+					}
+					this.sendData(stream);
+				}
+			}
+			break;
+
+		default:
+			break; // ignore unknown frame types
+		}
+	}
+
+	/**
+	 * Handles the <code>DATA</code> frame.
+	 *
+	 * @param flags    Frame flags.
+	 * @param streamId Stream identifier.
+	 * @param length   Payload length.
+	 * @throws Http2Exception If invalid frame.
+	 */
+	private void handleData(int flags, int streamId, int length) throws Http2Exception {
+		if (streamId == 0) {
+			throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, "DATA for connection");
+		}
+
+		// Obtain the data
+		int offset = 0;
+		int padding = 0;
+		if ((flags & FLAG_PADDED) != 0) {
+			padding = this.readPadding(length);
+			offset++;
+		}
+		if ((offset + padding) > length) {
+			throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, "Invalid DATA padding");
+		}
+		int dataLength = length - offset - padding;
+
+		// Flow control for connection
+		this.connectionReceiveWindow -= length;
+		if (this.connectionReceiveWindow < 0) {
+			throw new Http2Exception(Http2Exception.FLOW_CONTROL_ERROR, "Connection window exceeded");
+		}
+
+		// Data consumed from connection (captured by stream or discarded)
+		this.connectionReceiveConsumed += length;
+		if (this.connectionReceiveConsumed >= WINDOW_UPDATE_THRESHOLD) {
+			this.writeWindowUpdate(0, this.connectionReceiveConsumed);
+			this.connectionReceiveWindow += this.connectionReceiveConsumed;
+			this.connectionReceiveConsumed = 0;
+		}
+
+		// Obtain the stream
+		Http2Stream stream = this.streams.get(streamId);
+		if (stream == null) {
+			if (streamId > this.lastStreamId) {
+				throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, "DATA for idle stream");
+			}
+			return; // ignore data for closed stream
+		}
+		if (stream.isEndRequest) {
+			throw new Http2Exception(Http2Exception.STREAM_CLOSED, streamId, "DATA after end of stream");
+		}
+
+		// Flow control for stream
+		stream.receiveWindow -= length;
+		if (stream.receiveWindow < 0) {
+			throw new Http2Exception(Http2Exception.FLOW_CONTROL_ERROR, streamId, "Stream window exceeded");
+		}
+		boolean isEndStream = (flags & FLAG_END_STREAM) != 0;
+
+		// Capture the entity (unless already serviced due to failure)
+		if (!stream.isServiced) {
+			if ((stream.entityLength + dataLength) > this.maxEntityLength) {
+				// Service immediately to respond with failure
+				stream.failure = new HttpException(new HttpStatus(HttpStatus.REQUEST_ENTITY_TOO_LARGE.getStatusCode(),
+						"Request entity must be less than maximum of " + this.maxEntityLength + " bytes"));
+				this.serviceStream(stream);
+			} else {
+				stream.receiveData(this.payload, offset, dataLength);
+
+				// Data consumed into entity (replenish if further data)
+				stream.receiveConsumed += length;
+				if ((!isEndStream) && (stream.receiveConsumed >= WINDOW_UPDATE_THRESHOLD)) {
+					this.writeWindowUpdate(streamId, stream.receiveConsumed);
+					stream.receiveWindow += stream.receiveConsumed;
+					stream.receiveConsumed = 0;
+				}
+			}
+		}
+
+		// Determine if end of request
+		if (isEndStream) {
+			stream.isEndRequest = true;
+			if (!stream.isServiced) {
+				this.serviceStream(stream);
+			} else if (stream.isEndResponse) {
+				this.streams.remove(streamId);
+			}
+		}
+	}
+
+	/**
+	 * Handles the complete header block.
+	 *
+	 * @throws Http2Exception If invalid header block.
+	 */
+	private void handleHeaderBlock() throws Http2Exception {
+		int streamId = this.headerBlockStreamId;
+		boolean isEndStream = this.isHeaderBlockEndStream;
+		this.headerBlockStreamId = 0;
+
+		// Determine if trailers for existing stream
+		Http2Stream stream = this.streams.get(streamId);
+		if (stream != null) {
+			this.decoder.decode(this.headerBlock, 0, this.headerBlockLength, (name, value) -> {
+				// ignore trailers
+			});
+			if ((stream.isEndRequest) || (!isEndStream)) {
+				throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, streamId, "Invalid trailing HEADERS");
+			}
+			stream.isEndRequest = true;
+			if (!stream.isServiced) {
+				this.serviceStream(stream);
+			} else if (stream.isEndResponse) {
+				this.streams.remove(streamId);
+			}
+			return;
+		}
+
+		// Determine if new stream
+		if (streamId <= this.lastStreamId) {
+			// Headers for closed stream (decode to keep HPACK state)
+			this.decoder.decode(this.headerBlock, 0, this.headerBlockLength, (name, value) -> {
+			});
+			throw new Http2Exception(Http2Exception.STREAM_CLOSED, streamId, "HEADERS for closed stream");
+		}
+		if ((streamId & 1) == 0) {
+			throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, "Invalid client stream identifier");
+		}
+		this.lastStreamId = streamId;
+
+		// Create and load the stream
+		stream = new Http2Stream(this, streamId, DEFAULT_WINDOW_SIZE, this.peerInitialWindowSize);
+		Http2Stream newStream = stream;
+		this.decoder.decode(this.headerBlock, 0, this.headerBlockLength,
+				(name, value) -> newStream.receiveHeader(name, value));
+		stream.completeHeaders();
+
+		// Ensure able to service the stream
+		if ((this.isGoAway) || ((this.streams.size() + this.resetServicingStreams) >= this.maxConcurrentStreams)) {
+			throw new Http2Exception(Http2Exception.REFUSED_STREAM, streamId, "Stream refused");
+		}
+		if (stream.isMalformed) {
+			throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, streamId, "Malformed request");
+		}
+		this.streams.put(streamId, stream);
+
+		// Service the request
+		if (isEndStream) {
+			stream.isEndRequest = true;
+			this.serviceStream(stream);
+		} else if (stream.failure != null) {
+			this.serviceStream(stream);
+		}
+	}
+
+	/**
+	 * Handles the setting.
+	 *
+	 * @param identifier Setting identifier.
+	 * @param value      Setting value.
+	 * @throws Http2Exception If invalid setting.
+	 */
+	private void handleSetting(int identifier, long value) throws Http2Exception {
+		switch (identifier) {
+		case SETTINGS_HEADER_TABLE_SIZE:
+			this.encoder.setPeerTableSize((int) Math.min(value, Integer.MAX_VALUE));
+			break;
+
+		case SETTINGS_ENABLE_PUSH:
+			if (value > 1) {
+				throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, "Invalid SETTINGS_ENABLE_PUSH");
+			}
+			break;
+
+		case SETTINGS_INITIAL_WINDOW_SIZE:
+			if (value > MAX_WINDOW_SIZE) {
+				throw new Http2Exception(Http2Exception.FLOW_CONTROL_ERROR, "Invalid SETTINGS_INITIAL_WINDOW_SIZE");
+			}
+			long delta = value - this.peerInitialWindowSize;
+			this.peerInitialWindowSize = value;
+			for (Http2Stream stream : this.streams.values()) {
+				stream.sendWindow += delta;
+				if (stream.sendWindow > MAX_WINDOW_SIZE) {
+					throw new Http2Exception(Http2Exception.FLOW_CONTROL_ERROR, "Stream window overflow");
+				}
+			}
+			break;
+
+		case SETTINGS_MAX_FRAME_SIZE:
+			if ((value < MAX_FRAME_SIZE) || (value > 16777215)) {
+				throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, "Invalid SETTINGS_MAX_FRAME_SIZE");
+			}
+			this.peerMaxFrameSize = (int) value;
+			break;
+
+		default:
+			break; // ignore other settings
+		}
+	}
+
+	/**
+	 * Hands the {@link Http2Stream} to the {@link RequestHandler} for servicing.
+	 *
+	 * @param stream {@link Http2Stream}.
+	 */
+	private void serviceStream(Http2Stream stream) {
+		stream.isServiced = true;
+		this.servicingStream = stream;
+		this.requestHandler.handleRequest(this.request);
+	}
+
+	/**
+	 * Sends the pending content of the {@link Http2Stream} as allowed by flow
+	 * control.
+	 *
+	 * @param stream {@link Http2Stream}.
+	 */
+	private void sendData(Http2Stream stream) {
+		while ((!stream.isEndResponse) && (!stream.isReset)) {
+
+			// Determine if only end of stream to send
+			if (stream.pendingLength == 0) {
+				if (stream.isResponseComplete) {
+					this.writeFrame(DATA, FLAG_END_STREAM, stream.streamId, null, 0, 0);
+					this.endResponse(stream);
+				}
+				return;
+			}
+
+			// Determine if blocked by flow control
+			long window = Math.min(this.connectionSendWindow, stream.sendWindow);
+			if (window <= 0) {
+				if (!stream.isBlocked) {
+					stream.isBlocked = true;
+					this.blockedStreams.add(stream);
+				}
+				return;
+			}
+			int maxLength = (int) Math.min(Math.min(window, this.peerMaxFrameSize), stream.pendingLength);
+
+			// Obtain the frame data
+			int length;
+			StreamBuffer<ByteBuffer> data;
+			StreamBuffer<ByteBuffer> buffer = stream.pendingHead;
+			if (buffer.fileBuffer != null) {
+				// Send segment of the file
+				FileBuffer file = buffer.fileBuffer;
+				long fileLength;
+				try {
+					fileLength = getLength(buffer);
+				} catch (IOException ex) {
+					this.resetStream(stream.streamId, Http2Exception.INTERNAL_ERROR);
+					return;
+				}
+				long remaining = fileLength - stream.pendingOffset;
+				length = (int) Math.min(maxLength, remaining);
+				boolean isLastSegment = (length == remaining);
+				long position = file.position + stream.pendingOffset;
+				try {
+					data = this.bufferPool.getFileStreamBuffer(file.file, position, length,
+							isLastSegment ? file.callback : null);
+				} catch (IOException ex) {
+					this.resetStream(stream.streamId, Http2Exception.INTERNAL_ERROR);
+					return;
+				}
+				if (isLastSegment) {
+					stream.pendingHead = buffer.next;
+					stream.pendingOffset = 0;
+					buffer.release();
+				} else {
+					stream.pendingOffset += length;
+				}
+
+			} else {
+				// Determine length of in memory content for the frame
+				length = 0;
+				long offset = stream.pendingOffset;
+				while ((length < maxLength) && (buffer != null) && (buffer.fileBuffer == null)) {
+					length += (int) Math.min(getMemoryLength(buffer) - offset, maxLength - length);
+					offset = 0;
+					buffer = buffer.next;
+				}
+				data = null;
+			}
+			if (stream.pendingHead == null) {
+				stream.pendingTail = null;
+			}
+
+			// Write the data frame
+			stream.pendingLength -= length;
+			stream.sendWindow -= length;
+			this.connectionSendWindow -= length;
+			boolean isEndStream = stream.isResponseComplete && (stream.pendingLength == 0);
+			this.writeFrame(DATA, isEndStream ? FLAG_END_STREAM : 0, stream.streamId, null, 0, length);
+			if (data != null) {
+				this.appendOutput(data);
+			} else {
+				this.writeMemoryData(stream, length);
+			}
+			if (stream.pendingHead == null) {
+				stream.pendingTail = null;
+			}
+			if (isEndStream) {
+				this.endResponse(stream);
+			}
+		}
+	}
+
+	/**
+	 * Resumes sending data for the {@link Http2Stream} instances blocked by flow
+	 * control.
+	 */
+	private void resumeBlockedStreams() {
+		if (this.blockedStreams.size() == 0) {
+			return;
+		}
+		List<Http2Stream> resume = this.blockedStreams;
+		this.blockedStreams = new ArrayList<>();
+		for (Http2Stream stream : resume) {
+			stream.isBlocked = false;
+			this.sendData(stream);
+		}
+	}
+
+	/**
+	 * Flags the response of the {@link Http2Stream} as ended.
+	 *
+	 * @param stream {@link Http2Stream}.
+	 */
+	private void endResponse(Http2Stream stream) {
+		stream.isEndResponse = true;
+		if (stream.isEndRequest) {
+			this.streams.remove(stream.streamId);
+		} else {
+			// Response complete before request, so stop request
+			this.resetStream(stream.streamId, Http2Exception.NO_ERROR);
+		}
+	}
+
+	/**
+	 * Resets the stream.
+	 *
+	 * @param streamId  Stream identifier.
+	 * @param errorCode Error code.
+	 */
+	private void resetStream(int streamId, int errorCode) {
+		this.writeIntFrame(RST_STREAM, streamId, errorCode);
+		Http2Stream stream = this.streams.remove(streamId);
+		if (stream != null) {
+			this.discardStream(stream);
+		}
+	}
+
+	/**
+	 * Discards the reset {@link Http2Stream}.
+	 *
+	 * @param stream {@link Http2Stream}.
+	 */
+	private void discardStream(Http2Stream stream) {
+		stream.isReset = true;
+
+		// Continue to count against concurrent streams until servicing complete
+		if ((stream.isServiced) && (!stream.isServicingComplete)) {
+			stream.isResetWhileServicing = true;
+			this.resetServicingStreams++;
+		}
+
+		releaseContent(stream.pendingHead);
+		stream.pendingHead = null;
+		stream.pendingTail = null;
+		stream.pendingLength = 0;
+		if (stream.isBlocked) {
+			stream.isBlocked = false;
+			this.blockedStreams.remove(stream);
+		}
+	}
+
+	/**
+	 * Flags servicing of the {@link Http2Stream} is complete.
+	 *
+	 * @param stream {@link Http2Stream}.
+	 */
+	private void completeServicing(Http2Stream stream) {
+		stream.isServicingComplete = true;
+		if (stream.isResetWhileServicing) {
+			stream.isResetWhileServicing = false;
+			this.resetServicingStreams--;
+		}
+	}
+
+	/**
+	 * Closes the connection due to connection error.
+	 *
+	 * @param errorCode Error code.
+	 * @param message   Message.
+	 */
+	private void closeConnection(int errorCode, String message) {
+
+		// Send GOAWAY
+		byte[] debugData = (message == null ? "" : message).getBytes(StandardCharsets.US_ASCII);
+		byte[] goAway = new byte[8 + debugData.length];
+		writeInt(goAway, 0, this.lastStreamId);
+		writeInt(goAway, 4, errorCode);
+		System.arraycopy(debugData, 0, goAway, 8, debugData.length);
+		this.writeFrame(GOAWAY, 0, 0, goAway, 0, goAway.length);
+		this.flush();
+
+		// Close the connection
+		this.release();
+		this.requestHandler.closeConnection(null);
+	}
+
+	/**
+	 * Writes the frames and completes the finished requests (in order).
+	 */
+	private void flush() {
+
+		// Ignore if closed
+		if (this.isClosed) {
+			return;
+		}
+
+		// Write the frames
+		if (this.outputHead != null) {
+
+			// Ensure have request to write the frames
+			if (this.head == null) {
+				this.servicingStream = null;
+				this.requestHandler.handleRequest(this.request);
+			}
+
+			// Write the frames
+			StreamBuffer<ByteBuffer> frames = this.outputHead;
+			this.outputHead = null;
+			this.outputTail = null;
+			this.outputWriteBuffer = null;
+			this.head.responseWriter.write(null, frames, false);
+		}
+
+		// Complete the requests in order
+		while ((this.head != null) && (this.head.isComplete())) {
+			Http2Request complete = this.head;
+			this.head = this.head.next;
+			if (this.head == null) {
+				this.tail = null;
+			}
+			complete.responseWriter.write(null, null, true);
+		}
+	}
+
+	/**
+	 * Writes a frame.
+	 *
+	 * @param type     Frame type.
+	 * @param flags    Frame flags.
+	 * @param streamId Stream identifier.
+	 * @param payload  Payload. May be <code>null</code> if payload appended
+	 *                 separately.
+	 * @param offset   Offset into the payload.
+	 * @param length   Length of the payload.
+	 */
+	private void writeFrame(int type, int flags, int streamId, byte[] payload, int offset, int length) {
+		byte[] frame = this.frameOutput;
+		writeFrameHeader(frame, length, type, flags, streamId);
+		this.writeOutput(frame, 0, FRAME_HEADER_LENGTH);
+		if (payload != null) {
+			this.writeOutput(payload, offset, length);
+		}
+	}
+
+	/**
+	 * Writes a frame with a 32 bit integer payload.
+	 *
+	 * @param type     Frame type.
+	 * @param streamId Stream identifier.
+	 * @param value    Payload value.
+	 */
+	private void writeIntFrame(int type, int streamId, int value) {
+		byte[] frame = this.frameOutput;
+		writeFrameHeader(frame, 4, type, 0, streamId);
+		writeInt(frame, FRAME_HEADER_LENGTH, value);
+		this.writeOutput(frame, 0, FRAME_HEADER_LENGTH + 4);
+	}
+
+	/**
+	 * Writes a <code>WINDOW_UPDATE</code> frame.
+	 *
+	 * @param streamId  Stream identifier.
+	 * @param increment Window increment.
+	 */
+	private void writeWindowUpdate(int streamId, int increment) {
+		this.writeIntFrame(WINDOW_UPDATE, streamId, increment);
+	}
+
+	/**
+	 * Writes the in memory pending content of the {@link Http2Stream} as the
+	 * payload of the data frame.
+	 *
+	 * @param stream {@link Http2Stream}.
+	 * @param length Length of the payload.
+	 */
+	private void writeMemoryData(Http2Stream stream, int length) {
+		while (length > 0) {
+			StreamBuffer<ByteBuffer> buffer = stream.pendingHead;
+			int offset = (int) stream.pendingOffset;
+			int available = getMemoryLength(buffer) - offset;
+
+			// Link complete buffer into output (avoids copying content)
+			if ((offset == 0) && (available <= length)) {
+				stream.pendingHead = buffer.next;
+				buffer.next = null;
+				this.appendOutput(buffer);
+				length -= available;
+				continue;
+			}
+
+			// Write the portion of the buffer
+			int portion = Math.min(available, length);
+			if (buffer.pooledBuffer != null) {
+				// Copy into pooled output (as pooled buffer released)
+				ByteBuffer readable = buffer.pooledBuffer.duplicate();
+				BufferJvmFix.flip(readable);
+				BufferJvmFix.position(readable, offset);
+				BufferJvmFix.limit(readable, offset + portion);
+				this.writeOutput(readable);
+			} else {
+				// Slice the unpooled buffer
+				ByteBuffer readable = buffer.unpooledByteBuffer.duplicate();
+				int position = BufferJvmFix.position(readable) + offset;
+				BufferJvmFix.position(readable, position);
+				BufferJvmFix.limit(readable, position + portion);
+				this.appendOutput(this.bufferPool.getUnpooledStreamBuffer(readable.slice()));
+			}
+			length -= portion;
+
+			// Determine if buffer consumed
+			if (portion == available) {
+				stream.pendingHead = buffer.next;
+				stream.pendingOffset = 0;
+				buffer.release();
+			} else {
+				stream.pendingOffset += portion;
+			}
+		}
+	}
+
+	/**
+	 * Writes the bytes to the output.
+	 *
+	 * @param data   Data.
+	 * @param offset Offset into the data.
+	 * @param length Length of data to write.
+	 */
+	private void writeOutput(byte[] data, int offset, int length) {
+		StreamBuffer<ByteBuffer> writeBuffer = this.getOutputWriteBuffer();
+		StreamBuffer.write(data, offset, length, writeBuffer, this.bufferPool);
+		while (writeBuffer.next != null) {
+			writeBuffer = writeBuffer.next;
+		}
+		this.outputWriteBuffer = writeBuffer;
+		this.outputTail = writeBuffer;
+	}
+
+	/**
+	 * Writes the {@link ByteBuffer} content to the output.
+	 *
+	 * @param data {@link ByteBuffer} content.
+	 */
+	private void writeOutput(ByteBuffer data) {
+		while (data.hasRemaining()) {
+
+			// Obtain the buffer to write into
+			StreamBuffer<ByteBuffer> writeBuffer = this.getOutputWriteBuffer();
+			ByteBuffer output = writeBuffer.pooledBuffer;
+			if (!output.hasRemaining()) {
+				this.outputWriteBuffer = null;
+				continue; // buffer full
+			}
+
+			// Write the content
+			int length = Math.min(data.remaining(), output.remaining());
+			int position = BufferJvmFix.position(data);
+			ByteBuffer write = data.duplicate();
+			BufferJvmFix.limit(write, position + length);
+			output.put(write);
+			BufferJvmFix.position(data, position + length);
+		}
+	}
+
+	/**
+	 * Obtains the pooled {@link StreamBuffer} at the end of the output to write
+	 * into.
+	 *
+	 * @return Pooled {@link StreamBuffer} to write into.
+	 */
+	private StreamBuffer<ByteBuffer> getOutputWriteBuffer() {
+		if ((this.outputWriteBuffer == null) || (this.outputWriteBuffer != this.outputTail)) {
+			// Only write to pooled buffer of connection (not linked content)
+			this.outputWriteBuffer = this.bufferPool.getPooledStreamBuffer();
+			this.appendOutput(this.outputWriteBuffer);
+		}
+		return this.outputWriteBuffer;
+	}
+
+	/**
+	 * Appends the {@link StreamBuffer} to the output.
+	 *
+	 * @param buffer {@link StreamBuffer}.
+	 */
+	private void appendOutput(StreamBuffer<ByteBuffer> buffer) {
+		if (this.outputHead == null) {
+			this.outputHead = buffer;
+		} else {
+			this.outputTail.next = buffer;
+		}
+		this.outputTail = buffer;
+	}
+
+	/**
+	 * Releases the output not yet written.
+	 */
+	private void releaseOutput() {
+		releaseContent(this.outputHead);
+		this.outputHead = null;
+		this.outputTail = null;
+		this.outputWriteBuffer = null;
+	}
+
+	/**
+	 * Appends to the header block being received.
+	 *
+	 * @param offset Offset into the payload.
+	 * @param length Length of header block fragment.
+	 * @throws Http2Exception If header block too large.
+	 */
+	private void appendHeaderBlock(int offset, int length) throws Http2Exception {
+		int required = this.headerBlockLength + length;
+		if (required > MAX_HEADER_BLOCK_SIZE) {
+			throw new Http2Exception(Http2Exception.PROTOCOL_ERROR, "Header block too large");
+		}
+		if (required > this.headerBlock.length) {
+			byte[] newHeaderBlock = new byte[Math.min(this.headerBlock.length * 2, MAX_HEADER_BLOCK_SIZE)];
+			System.arraycopy(this.headerBlock, 0, newHeaderBlock, 0, this.headerBlockLength);
+			this.headerBlock = newHeaderBlock;
+		}
+		System.arraycopy(this.payload, offset, this.headerBlock, this.headerBlockLength, length);
+		this.headerBlockLength += length;
+	}
+
+	/**
+	 * Reads the pad length.
+	 *
+	 * @param length Payload length.
+	 * @return Pad length.
+	 * @throws Http2Exception If no pad length.
+	 */
+	private int readPadding(int length) throws Http2Exception {
+		if (length < 1) {
+			throw new Http2Exception(Http2Exception.FRAME_SIZE_ERROR, "Missing pad length");
+		}
+		return this.payload[0] & 0xff;
+	}
+
+	/**
+	 * Obtains the length of content within the {@link StreamBuffer}.
+	 *
+	 * @param buffer {@link StreamBuffer}.
+	 * @return Length of content.
+	 * @throws IOException If fails to obtain length of file content.
+	 */
+	private static long getLength(StreamBuffer<ByteBuffer> buffer) throws IOException {
+		if (buffer.pooledBuffer != null) {
+			return BufferJvmFix.position(buffer.pooledBuffer);
+		} else if (buffer.unpooledByteBuffer != null) {
+			return buffer.unpooledByteBuffer.remaining();
+		} else {
+			FileBuffer file = buffer.fileBuffer;
+			return (file.count < 0) ? (file.file.size() - file.position) : file.count;
+		}
+	}
+
+	/**
+	 * Obtains the length of the in memory content within the
+	 * {@link StreamBuffer}.
+	 *
+	 * @param buffer In memory {@link StreamBuffer}.
+	 * @return Length of content.
+	 */
+	private static int getMemoryLength(StreamBuffer<ByteBuffer> buffer) {
+		return (buffer.pooledBuffer != null) ? BufferJvmFix.position(buffer.pooledBuffer)
+				: buffer.unpooledByteBuffer.remaining();
+	}
+
+	/**
+	 * Releases the content.
+	 *
+	 * @param content Head {@link StreamBuffer} of content. May be
+	 *                <code>null</code>.
+	 */
+	private static void releaseContent(StreamBuffer<ByteBuffer> content) {
+		while (content != null) {
+			StreamBuffer<ByteBuffer> release = content;
+			content = content.next;
+
+			// Notify file not written
+			FileBuffer file = release.fileBuffer;
+			if (file != null) {
+				FileCompleteCallback callback = file.callback;
+				if (callback != null) {
+					try {
+						callback.complete(file.file, false);
+					} catch (IOException ex) {
+						// Ignore failure, as cancelling
+					}
+				}
+			}
+			release.release();
+		}
+	}
+
+	/**
+	 * Writes the setting.
+	 *
+	 * @param data       Data to receive the setting.
+	 * @param offset     Offset into the data.
+	 * @param identifier Setting identifier.
+	 * @param value      Setting value.
+	 */
+	private static void writeSetting(byte[] data, int offset, int identifier, int value) {
+		data[offset] = (byte) (identifier >>> 8);
+		data[offset + 1] = (byte) identifier;
+		writeInt(data, offset + 2, value);
+	}
+
+	/**
+	 * Writes the frame header.
+	 *
+	 * @param data     Data to receive the frame header.
+	 * @param length   Length of the payload.
+	 * @param type     Frame type.
+	 * @param flags    Frame flags.
+	 * @param streamId Stream identifier.
+	 */
+	private static void writeFrameHeader(byte[] data, int length, int type, int flags, int streamId) {
+		data[0] = (byte) (length >>> 16);
+		data[1] = (byte) (length >>> 8);
+		data[2] = (byte) length;
+		data[3] = (byte) type;
+		data[4] = (byte) flags;
+		writeInt(data, 5, streamId);
+	}
+
+	/**
+	 * Writes the 32 bit integer.
+	 *
+	 * @param data   Data to receive the integer.
+	 * @param offset Offset into the data.
+	 * @param value  Value.
+	 */
+	private static void writeInt(byte[] data, int offset, int value) {
+		data[offset] = (byte) (value >>> 24);
+		data[offset + 1] = (byte) (value >>> 16);
+		data[offset + 2] = (byte) (value >>> 8);
+		data[offset + 3] = (byte) value;
+	}
+
+	/**
+	 * Reads the 32 bit integer.
+	 *
+	 * @param data   Data containing the integer.
+	 * @param offset Offset into the data.
+	 * @return Value.
+	 */
+	private static int readInt(byte[] data, int offset) {
+		return ((data[offset] & 0xff) << 24) | ((data[offset + 1] & 0xff) << 16) | ((data[offset + 2] & 0xff) << 8)
+				| (data[offset + 3] & 0xff);
+	}
+
+}
@@ -0,0 +1,140 @@
+/*-
+ * #%L
+ * Default OfficeFloor HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.server.http.http2;
+
+/**
+ * HTTP/2 protocol failure.
+ *
+ * @author Daniel Sagenschneider
+ */
+public class Http2Exception extends Exception {
+
+	/**
+	 * Default serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * <code>NO_ERROR</code> error code.
+	 */
+	public static final int NO_ERROR = 0x0;
+
+	/**
+	 * <code>PROTOCOL_ERROR</code> error code.
+	 */
+	public static final int PROTOCOL_ERROR = 0x1;
+
+	/**
+	 * <code>INTERNAL_ERROR</code> error code.
+	 */
+	public static final int INTERNAL_ERROR = 0x2;
+
+	/**
+	 * <code>FLOW_CONTROL_ERROR</code> error code.
+	 */
+	public static final int FLOW_CONTROL_ERROR = 0x3;
+
+	/**
+	 * <code>STREAM_CLOSED</code> error code.
+	 */
+	public static final int STREAM_CLOSED = 0x5;
+
+	/**
+	 * <code>FRAME_SIZE_ERROR</code> error code.
+	 */
+	public static final int FRAME_SIZE_ERROR = 0x6;
+
+	/**
+	 * <code>REFUSED_STREAM</code> error code.
+	 */
+	public static final int REFUSED_STREAM = 0x7;
+
+	/**
+	 * <code>CANCEL</code> error code.
+	 */
+	public static final int CANCEL = 0x8;
+
+	/**
+	 * <code>COMPRESSION_ERROR</code> error code.
+	 */
+	public static final int COMPRESSION_ERROR = 0x9;
+
+	/**
+	 * <code>ENHANCE_YOUR_CALM</code> error code.
+	 */
+	public static final int ENHANCE_YOUR_CALM = 0xb;
+
+	/**
+	 * HTTP/2 error code.
+	 */
+	private final int errorCode;
+
+	/**
+	 * Identifier of the stream in error. <code>0</code> indicates the connection
+	 * is in error.
+	 */
+	private final int streamId;
+
+	/**
+	 * Instantiate for connection error.
+	 *
+	 * @param errorCode HTTP/2 error code.
+	 * @param message   Message.
+	 */
+	public Http2Exception(int errorCode, String message) {
+		this(errorCode, 0, message);
+	}
+
+	/**
+	 * Instantiate.
+	 *
+	 * @param errorCode HTTP/2 error code.
+	 * @param streamId  Identifier of the stream in error. <code>0</code> indicates
+	 *                  the connection is in error.
+	 * @param message   Message.
+	 */
+	public Http2Exception(int errorCode, int streamId, String message) {
+		super(message);
+		this.errorCode = errorCode;
+		this.streamId = streamId;
+	}
+
+	/**
+	 * Obtains the HTTP/2 error code.
+	 *
+	 * @return HTTP/2 error code.
+	 */
+	public int getErrorCode() {
+		return this.errorCode;
+	}
+
+	/**
+	 * Obtains the identifier of the stream in error.
+	 *
+	 * @return Identifier of the stream in error. <code>0</code> indicates the
+	 *         connection is in error.
+	 */
+	public int getStreamId() {
+		return this.streamId;
+	}
+
+}
@@ -0,0 +1,493 @@
+/*-
+ * #%L
+ * Default OfficeFloor HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.server.http.http2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import net.officefloor.server.http.HttpException;
+import net.officefloor.server.http.HttpHeader;
+import net.officefloor.server.http.HttpHeaderValue;
+import net.officefloor.server.http.HttpMethod;
+import net.officefloor.server.http.HttpResponseStreamWriter;
+import net.officefloor.server.http.HttpResponseWriter;
+import net.officefloor.server.http.HttpStatus;
+import net.officefloor.server.http.HttpVersion;
+import net.officefloor.server.http.ServerHttpConnection;
+import net.officefloor.server.http.WritableHttpCookie;
+import net.officefloor.server.http.WritableHttpHeader;
+import net.officefloor.server.http.impl.NonMaterialisedHttpHeader;
+import net.officefloor.server.http.impl.NonMaterialisedHttpHeaders;
+import net.officefloor.server.http.impl.SerialisableHttpHeader;
+import net.officefloor.server.stream.StreamBuffer;
+import net.officefloor.server.stream.impl.ByteArrayByteSequence;
+import net.officefloor.server.stream.impl.ByteSequence;
+
+/**
+ * HTTP/2 stream.
+ * <p>
+ * Each {@link Http2Stream} is serviced as a separate request and writes its
+ * response back through the owning {@link Http2Connection}.
+ *
+ * @author Daniel Sagenschneider
+ */
+public class Http2Stream implements HttpResponseWriter<ByteBuffer>, NonMaterialisedHttpHeaders {
+
+	/**
+	 * No entity.
+	 */
+	private static final byte[] NO_ENTITY = new byte[0];
+
+	/**
+	 * Owning {@link Http2Connection}.
+	 */
+	private final Http2Connection<?> connection;
+
+	/**
+	 * Stream identifier.
+	 */
+	final int streamId;
+
+	/**
+	 * <code>:method</code> pseudo-header.
+	 */
+	private String method = null;
+
+	/**
+	 * <code>:path</code> pseudo-header.
+	 */
+	private String path = null;
+
+	/**
+	 * <code>:authority</code> pseudo-header.
+	 */
+	private String authority = null;
+
+	/**
+	 * Cookies (combined into single <code>cookie</code> header).
+	 */
+	private StringBuilder cookies = null;
+
+	/**
+	 * Indicates if a regular header has been received, after which pseudo-headers
+	 * are not allowed.
+	 */
+	private boolean isRegularHeader = false;
+
+	/**
+	 * Indicates the request headers are malformed.
+	 */
+	boolean isMalformed = false;
+
+	/**
+	 * {@link NonMaterialisedHttpHeader} instances.
+	 */
+	private final List<NonMaterialisedHttpHeader> headers = new ArrayList<>();
+
+	/**
+	 * Request entity.
+	 */
+	private ByteArrayOutputStream entity = null;
+
+	/**
+	 * Length of the request entity.
+	 */
+	long entityLength = 0;
+
+	/**
+	 * {@link HttpException} for the request. <code>null</code> if request valid.
+	 */
+	HttpException failure = null;
+
+	/**
+	 * Window for receiving request entity data.
+	 */
+	long receiveWindow;
+
+	/**
+	 * Received entity data consumed but not yet replenished in the receive
+	 * window.
+	 */
+	int receiveConsumed = 0;
+
+	/**
+	 * Window for sending response entity data.
+	 */
+	long sendWindow;
+
+	/**
+	 * Indicates the end of the request has been received.
+	 */
+	boolean isEndRequest = false;
+
+	/**
+	 * Indicates the request has been handed off for servicing.
+	 */
+	boolean isServiced = false;
+
+	/**
+	 * Indicates all response content has been provided.
+	 */
+	boolean isResponseComplete = false;
+
+	/**
+	 * Indicates servicing has provided the complete response (or aborted it).
+	 */
+	boolean isServicingComplete = false;
+
+	/**
+	 * Indicates reset while still being serviced, so still counted against the
+	 * maximum concurrent streams.
+	 */
+	boolean isResetWhileServicing = false;
+
+	/**
+	 * Indicates the end of the response has been sent.
+	 */
+	boolean isEndResponse = false;
+
+	/**
+	 * Indicates the stream has been reset.
+	 */
+	boolean isReset = false;
+
+	/**
+	 * Indicates the stream is blocked by flow control.
+	 */
+	boolean isBlocked = false;
+
+	/**
+	 * Head of pending response content.
+	 */
+	StreamBuffer<ByteBuffer> pendingHead = null;
+
+	/**
+	 * Tail of pending response content.
+	 */
+	StreamBuffer<ByteBuffer> pendingTail = null;
+
+	/**
+	 * Length of the remaining pending response content.
+	 */
+	long pendingLength = 0;
+
+	/**
+	 * Offset into the head pending {@link StreamBuffer} already sent.
+	 */
+	long pendingOffset = 0;
+
+	/**
+	 * Instantiate.
+	 *
+	 * @param connection    Owning {@link Http2Connection}.
+	 * @param streamId      Stream identifier.
+	 * @param receiveWindow Initial receive window.
+	 * @param sendWindow    Initial send window.
+	 */
+	Http2Stream(Http2Connection<?> connection, int streamId, long receiveWindow, long sendWindow) {
+		this.connection = connection;
+		this.streamId = streamId;
+		this.receiveWindow = receiveWindow;
+		this.sendWindow = sendWindow;
+	}
+
+	/**
+	 * Obtains the stream identifier.
+	 *
+	 * @return Stream identifier.
+	 */
+	public int getStreamId() {
+		return this.streamId;
+	}
+
+	/**
+	 * Obtains the {@link HttpMethod}.
+	 *
+	 * @return {@link HttpMethod}.
+	 */
+	public HttpMethod getMethod() {
+		return HttpMethod.getHttpMethod(this.method);
+	}
+
+	/**
+	 * Obtains the request URI (<code>:path</code> pseudo-header).
+	 *
+	 * @return Request URI.
+	 */
+	public String getRequestUri() {
+		return this.path;
+	}
+
+	/**
+	 * Obtains the request entity.
+	 *
+	 * @return Request entity.
+	 */
+	public ByteSequence getEntity() {
+		return new ByteArrayByteSequence(this.entity == null ? NO_ENTITY : this.entity.toByteArray());
+	}
+
+	/**
+	 * Obtains the failure in receiving the request.
+	 *
+	 * @return {@link HttpException} or <code>null</code> if request valid.
+	 */
+	public HttpException getFailure() {
+		return this.failure;
+	}
+
+	/**
+	 * Writes the {@link HttpException} as the response.
+	 *
+	 * @param failure             {@link HttpException}.
+	 * @param isIncludeStackTrace Whether to include the stack trace.
+	 */
+	public void writeHttpException(HttpException failure, boolean isIncludeStackTrace) {
+
+		// Load the headers
+		WritableHttpHeader head = null;
+		HttpHeader[] failureHeaders = failure.getHttpHeaders();
+		for (int i = failureHeaders.length - 1; i >= 0; i--) {
+			WritableHttpHeader header = new WritableHttpHeader(failureHeaders[i].getName(),
+					failureHeaders[i].getValue());
+			header.next = head;
+			head = header;
+		}
+
+		// Determine if include the stack trace
+		StreamBuffer<ByteBuffer> content = null;
+		long contentLength = 0;
+		if (isIncludeStackTrace) {
+			StringWriter stackTrace = new StringWriter();
+			PrintWriter writer = new PrintWriter(stackTrace);
+			failure.printStackTrace(writer);
+			writer.flush();
+			byte[] stackTraceBytes = stackTrace.toString()
+					.getBytes(ServerHttpConnection.DEFAULT_HTTP_ENTITY_CHARSET);
+			content = this.connection.bufferPool.getUnpooledStreamBuffer(ByteBuffer.wrap(stackTraceBytes));
+			contentLength = stackTraceBytes.length;
+		}
+
+		// Write the failure
+		this.writeHttpResponse(Http2Connection.HTTP_2, failure.getHttpStatus(), head, null, contentLength, null,
+				content);
+	}
+
+	/**
+	 * Receives a request header.
+	 *
+	 * @param name  Name.
+	 * @param value Value.
+	 */
+	void receiveHeader(String name, String value) {
+
+		// Handle pseudo-headers
+		if (name.startsWith(":")) {
+			if (this.isRegularHeader) {
+				this.isMalformed = true;
+				return;
+			}
+			switch (name) {
+			case ":method":
+				this.isMalformed |= (this.method != null);
+				this.method = value;
+				break;
+			case ":path":
+				this.isMalformed |= (this.path != null) || (value.length() == 0);
+				this.path = value;
+				break;
+			case ":authority":
+				this.isMalformed |= (this.authority != null);
+				this.authority = value;
+				break;
+			case ":scheme":
+				break;
+			default:
+				this.isMalformed = true;
+			}
+			return;
+		}
+		this.isRegularHeader = true;
+
+		// Header names must be lower case without connection specific headers
+		for (int i = 0; i < name.length(); i++) {
+			char character = name.charAt(i);
+			if ((character >= 'A') && (character <= 'Z')) {
+				this.isMalformed = true;
+				return;
+			}
+		}
+		if ("connection".equals(name) || ("te".equals(name) && !"trailers".equals(value))) {
+			this.isMalformed = true;
+			return;
+		}
+
+		// Ignore headers once failed
+		if (this.failure != null) {
+			return;
+		}
+
+		// Ensure not too many headers
+		if (this.headers.size() >= this.connection.maxHeaderCount) {
+			this.failure = new HttpException(
+					new HttpStatus(HttpStatus.BAD_REQUEST.getStatusCode(), "Too Many Headers"));
+			return;
+		}
+
+		// Combine cookies into the one header
+		if ("cookie".equals(name)) {
+			if (this.cookies == null) {
+				this.cookies = new StringBuilder(value);
+			} else {
+				this.cookies.append("; ").append(value);
+			}
+			return;
+		}
+
+		// Add the header
+		this.addHeader(name, value);
+	}
+
+	/**
+	 * Completes receiving the request headers.
+	 */
+	void completeHeaders() {
+
+		// Ensure mandatory pseudo-headers
+		if ((this.method == null) || (this.path == null)) {
+			this.isMalformed = true;
+			return;
+		}
+
+		// Provide host from authority
+		if (this.authority != null) {
+			boolean isHost = false;
+			for (NonMaterialisedHttpHeader header : this.headers) {
+				isHost |= "host".equals(header.getName());
+			}
+			if (!isHost) {
+				this.addHeader("host", this.authority);
+			}
+		}
+
+		// Provide the cookies
+		if (this.cookies != null) {
+			this.addHeader("cookie", this.cookies.toString());
+			this.cookies = null;
+		}
+	}
+
+	/**
+	 * Receives request entity data.
+	 *
+	 * @param data   Data.
+	 * @param offset Offset into data.
+	 * @param length Length of data.
+	 */
+	void receiveData(byte[] data, int offset, int length) {
+		if (this.entity == null) {
+			this.entity = new ByteArrayOutputStream(length);
+		}
+		this.entity.write(data, offset, length);
+		this.entityLength += length;
+	}
+
+	/**
+	 * Adds a header.
+	 *
+	 * @param name  Name.
+	 * @param value Value.
+	 */
+	private void addHeader(String name, String value) {
+		HttpHeader header = new SerialisableHttpHeader(name, value);
+		this.headers.add(new NonMaterialisedHttpHeader() {
+
+			@Override
+			public CharSequence getName() {
+				return header.getName();
+			}
+
+			@Override
+			public HttpHeader materialiseHttpHeader() {
+				return header;
+			}
+		});
+	}
+
+	/*
+	 * =================== NonMaterialisedHttpHeaders ===================
+	 */
+
+	@Override
+	public Iterator<NonMaterialisedHttpHeader> iterator() {
+		return this.headers.iterator();
+	}
+
+	@Override
+	public int length() {
+		return this.headers.size();
+	}
+
+	/*
+	 * ======================= HttpResponseWriter =======================
+	 */
+
+	@Override
+	public void writeHttpResponse(HttpVersion version, HttpStatus status, WritableHttpHeader httpHeader,
+			WritableHttpCookie httpCookie, long contentLength, HttpHeaderValue contentType,
+			StreamBuffer<ByteBuffer> content) {
+		this.connection.requestHandler.execute(() -> this.connection.writeResponse(this, status, httpHeader,
+				httpCookie, contentLength, contentType, content, true));
+	}
+
+	@Override
+	public HttpResponseStreamWriter<ByteBuffer> streamHttpResponse(HttpVersion version, HttpStatus status,
+			WritableHttpHeader httpHeader, WritableHttpCookie httpCookie, HttpHeaderValue contentType) {
+
+		// Write the response headers
+		this.connection.requestHandler.execute(() -> this.connection.writeResponse(this, status, httpHeader,
+				httpCookie, -1, contentType, null, false));
+
+		// Write the content as DATA frames
+		return new HttpResponseStreamWriter<ByteBuffer>() {
+
+			@Override
+			public void write(StreamBuffer<ByteBuffer> content, long contentLength, boolean isComplete) {
+				Http2Stream stream = Http2Stream.this;
+				stream.connection.requestHandler
+						.execute(() -> stream.connection.writeContent(stream, content, isComplete));
+			}
+
+			@Override
+			public void abort(Throwable cause) {
+				Http2Stream stream = Http2Stream.this;
+				stream.connection.requestHandler.execute(() -> stream.connection.abortResponse(stream));
+			}
+		};
+	}
+
+}
@@ -21,6 +21,9 @@
 
 package net.officefloor.server.http.parse;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.Socket;
 import java.nio.charset.CoderResult;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -36,6 +39,7 @@ import net.officefloor.server.http.HttpVersion;
 import net.officefloor.server.http.ServerHttpConnection;
 import net.officefloor.server.http.impl.MaterialisingHttpRequestHeaders;
 import net.officefloor.server.http.impl.NonMaterialisedHttpHeaders;
+import net.officefloor.server.stream.StreamBuffer;
 import net.officefloor.server.stream.impl.ByteSequence;
 
 /**
@@ -67,6 +71,32 @@ public class HttpRequestParser extends StreamBufferScanner {
 		 */
 		public final long maxEntityLength;
 
+		/**
+		 * Entities greater than this length are spilled to a temporary file,
+		 * rather than held in {@link StreamBuffer} instances. Negative value
+		 * to never spill.
+		 */
+		public final long entitySpillThreshold;
+
+		/**
+		 * Directory for the spilled entity files. <code>null</code> to use
+		 * the default temporary directory.
+		 */
+		public final File entitySpillDirectory;
+
+		/**
+		 * Entities greater than this length are streamed to the servicing as
+		 * they are received. <code>chunked</code> entities (being of unknown
+		 * length) are always streamed. Negative value to never stream.
+		 */
+		public final long entityStreamThreshold;
+
+		/**
+		 * Size of the buffer of received streamed entity content. Once full,
+		 * receiving is paused until the servicing consumes the content.
+		 */
+		public final int entityStreamBufferSize;
+
 		/**
 		 * Initiate.
 		 * 
@@ -78,11 +108,68 @@ public class HttpRequestParser extends StreamBufferScanner {
 		 * @param maxEntityLength
 		 *            Maximum length of the entity. Requests with entities
 		 *            greater than this will fail parsing.
+		 * @param entitySpillThreshold
+		 *            Entities greater than this length are spilled to a
+		 *            temporary file. Negative value to never spill.
+		 * @param entitySpillDirectory
+		 *            Directory for the spilled entity files. <code>null</code>
+		 *            to use the default temporary directory.
+		 * @param entityStreamThreshold
+		 *            Entities greater than this length are streamed to the
+		 *            servicing as they are received. Negative value to never
+		 *            stream.
+		 * @param entityStreamBufferSize
+		 *            Size of the buffer of received streamed entity content.
 		 */
-		public HttpRequestParserMetaData(int maxHeaderCount, int maxTextLength, long maxEntityLength) {
+		public HttpRequestParserMetaData(int maxHeaderCount, int maxTextLength, long maxEntityLength,
+				long entitySpillThreshold, File entitySpillDirectory, long entityStreamThreshold,
+				int entityStreamBufferSize) {
 			this.maxHeaderCount = maxHeaderCount;
 			this.maxTextLength = maxTextLength;
 			this.maxEntityLength = maxEntityLength;
+			this.entitySpillThreshold = entitySpillThreshold;
+			this.entitySpillDirectory = entitySpillDirectory;
+			this.entityStreamThreshold = entityStreamThreshold;
+			this.entityStreamBufferSize = entityStreamBufferSize;
+		}
+
+		/**
+		 * Initiate (without streaming entities).
+		 * 
+		 * @param maxHeaderCount
+		 *            Maximum number of {@link HttpHeader} instances for a
+		 *            {@link HttpRequest}.
+		 * @param maxTextLength
+		 *            Maximum number of bytes per TEXT.
+		 * @param maxEntityLength
+		 *            Maximum length of the entity. Requests with entities
+		 *            greater than this will fail parsing.
+		 * @param entitySpillThreshold
+		 *            Entities greater than this length are spilled to a
+		 *            temporary file. Negative value to never spill.
+		 * @param entitySpillDirectory
+		 *            Directory for the spilled entity files. <code>null</code>
+		 *            to use the default temporary directory.
+		 */
+		public HttpRequestParserMetaData(int maxHeaderCount, int maxTextLength, long maxEntityLength,
+				long entitySpillThreshold, File entitySpillDirectory) {
+			this(maxHeaderCount, maxTextLength, maxEntityLength, entitySpillThreshold, entitySpillDirectory, -1, 0);
+		}
+
+		/**
+		 * Initiate (without spilling entities to file).
+		 * 
+		 * @param maxHeaderCount
+		 *            Maximum number of {@link HttpHeader} instances for a
+		 *            {@link HttpRequest}.
+		 * @param maxTextLength
+		 *            Maximum number of bytes per TEXT.
+		 * @param maxEntityLength
+		 *            Maximum length of the entity. Requests with entities
+		 *            greater than this will fail parsing.
+		 */
+		public HttpRequestParserMetaData(int maxHeaderCount, int maxTextLength, long maxEntityLength) {
+			this(maxHeaderCount, maxTextLength, maxEntityLength, -1, null);
 		}
 	}
 
@@ -117,6 +204,7 @@ public class HttpRequestParser extends StreamBufferScanner {
 	private static final ScanTarget SPACE_TARGET = new ScanTarget(HTTP_SPACE);
 	private static final ScanTarget CR_TARGET = new ScanTarget(httpByte("\r"));
 	private static final ScanTarget COLON_TARGET = new ScanTarget(httpByte(":"));
+	private static final byte HTTP_SEMICOLON = httpByte(";");
 
 	private static final int COMMON_HTTP_VERSION_LENGTH = "HTTP/1.X".length();
 
@@ -139,6 +227,13 @@ public class HttpRequestParser extends StreamBufferScanner {
 	private static final Function<Character, HttpException> exceptionInvalidContentLengthValue = (
 			digit) -> new HttpException(new HttpStatus(HttpStatus.LENGTH_REQUIRED.getStatusCode(),
 					"Content-Length header value must be an integer"));
+	private static final Supplier<HttpException> exceptionContentLengthAndChunked = () -> new HttpException(
+			new HttpStatus(HttpStatus.BAD_REQUEST.getStatusCode(),
+					"Request must not have both Content-Length and chunked Transfer-Encoding"));
+	private static final Supplier<HttpException> exceptionChunkSizeTooLong = () -> new HttpException(
+			new HttpStatus(HttpStatus.BAD_REQUEST.getStatusCode(), "Chunk size too long"));
+	private static final Supplier<HttpException> exceptionTrailerTooLong = () -> new HttpException(
+			new HttpStatus(HttpStatus.BAD_REQUEST.getStatusCode(), "Trailer too long"));
 
 	/**
 	 * Obtains the HTTP byte for the {@link String} value.
@@ -211,6 +306,25 @@ public class HttpRequestParser extends StreamBufferScanner {
 		return value;
 	}
 
+	/**
+	 * Obtains the value of the hexadecimal digit.
+	 * 
+	 * @param value
+	 *            HTTP byte for the hexadecimal digit.
+	 * @return Value of the hexadecimal digit, otherwise <code>-1</code> if not a
+	 *         hexadecimal digit.
+	 */
+	private static int hexDigit(byte value) {
+		if ((value >= '0') && (value <= '9')) {
+			return value - '0';
+		} else if ((value >= 'a') && (value <= 'f')) {
+			return value - 'a' + 10;
+		} else if ((value >= 'A') && (value <= 'F')) {
+			return value - 'A' + 10;
+		}
+		return -1;
+	}
+
 	/**
 	 * Indicates if the value represents a HTTP white space.
 	 * 
@@ -226,7 +340,7 @@ public class HttpRequestParser extends StreamBufferScanner {
 	 * State of parsing the {@link HttpRequest}.
 	 */
 	private static enum RequestParseState {
-		NEW_REQUEST, LEADING_CRLF, METHOD, CUSTOM_METHOD, REQUEST_URI, VERSION, CUSTOM_VERSION, REQUEST_LINE_EOLN, HEADERS, PARSE_HEADERS, ENTITY
+		NEW_REQUEST, LEADING_CRLF, METHOD, CUSTOM_METHOD, REQUEST_URI, VERSION, CUSTOM_VERSION, REQUEST_LINE_EOLN, HEADERS, PARSE_HEADERS, ENTITY, STREAMED_ENTITY, CHUNKED_ENTITY
 	}
 
 	/**
@@ -236,6 +350,13 @@ public class HttpRequestParser extends StreamBufferScanner {
 		LEADING_SPACE_CHECK, HEADER_NAME, HEADER_VALUE, HEADER_EOLN, END_OF_HEADERS
 	}
 
+	/**
+	 * State of parsing the <code>chunked</code> entity.
+	 */
+	private static enum ChunkParseState {
+		CHUNK_SIZE, CHUNK_SIZE_EOLN, CHUNK_DATA, CHUNK_DATA_EOLN, TRAILER, TRAILER_FIELD, TRAILER_EOLN
+	}
+
 	/**
 	 * {@link HttpRequestParserMetaData}.
 	 */
@@ -251,6 +372,11 @@ public class HttpRequestParser extends StreamBufferScanner {
 	 */
 	private HeaderParseState stateHeader = HeaderParseState.LEADING_SPACE_CHECK;
 
+	/**
+	 * {@link ChunkParseState}.
+	 */
+	private ChunkParseState stateChunk = ChunkParseState.CHUNK_SIZE;
+
 	/**
 	 * {@link Supplier} for the {@link HttpMethod}.
 	 */
@@ -261,6 +387,12 @@ public class HttpRequestParser extends StreamBufferScanner {
 	 */
 	private Supplier<String> requestUri = null;
 
+	/**
+	 * {@link ByteSequence} of the raw request URI. Will be <code>null</code> once
+	 * the request buffers may be released.
+	 */
+	private ByteSequence rawRequestUri = null;
+
 	/**
 	 * {@link HttpVersion}.
 	 */
@@ -281,6 +413,42 @@ public class HttpRequestParser extends StreamBufferScanner {
 	 */
 	private long contentLength = 0;
 
+	/**
+	 * Indicates if <code>Content-Length</code> provided.
+	 */
+	private boolean isContentLength = false;
+
+	/**
+	 * Indicates if <code>Transfer-Encoding: chunked</code> entity.
+	 */
+	private boolean isChunked = false;
+
+	/**
+	 * Size of the current chunk.
+	 */
+	private long chunkSize = 0;
+
+	/**
+	 * {@link StreamBufferByteSequence} combining the chunks of the entity.
+	 */
+	private StreamBufferByteSequence chunkedEntity = null;
+
+	/**
+	 * {@link SpilledEntity} for the HTTP entity being spilled to file.
+	 */
+	private SpilledEntity spilledEntity = null;
+
+	/**
+	 * {@link StreamedEntity} for the HTTP entity being streamed to the
+	 * servicing.
+	 */
+	private StreamedEntity streamedEntity = null;
+
+	/**
+	 * Remaining bytes of the entity (or current chunk) to spill or stream.
+	 */
+	private long entityRemaining = 0;
+
 	/**
 	 * {@link ByteSequence} for the HTTP entity.
 	 */
@@ -316,10 +484,15 @@ public class HttpRequestParser extends StreamBufferScanner {
 			// Reset for new request
 			this.method = null;
 			this.requestUri = null;
+			this.rawRequestUri = null;
 			this.version = null;
 			this.headers = null;
 			this.entity = null;
 			this.contentLength = 0;
+			this.isContentLength = false;
+			this.isChunked = false;
+			this.chunkedEntity = null;
+			this.releaseSpilledEntity();
 
 			this.stateRequest = RequestParseState.LEADING_CRLF;
 		case LEADING_CRLF:
@@ -434,6 +607,7 @@ public class HttpRequestParser extends StreamBufferScanner {
 				throw new HttpException(new HttpStatus(HttpStatus.BAD_REQUEST.getStatusCode(), "No request URI"));
 			}
 			this.requestUri = () -> uriSequence.toUriString(exceptionUriString);
+			this.rawRequestUri = uriSequence;
 			this.skipBytes(1); // skip the space
 
 			this.stateRequest = RequestParseState.VERSION;
@@ -591,13 +765,35 @@ public class HttpRequestParser extends StreamBufferScanner {
 									"Content-Length header value must be an integer"));
 						}
 						this.contentLength = headerValue.toLong(exceptionInvalidContentLengthValue);
+						this.isContentLength = true;
+
+						// Not allow both (ambiguous framing allows request smuggling)
+						if (this.isChunked) {
+							throw exceptionContentLengthAndChunked.get();
+						}
 
-						// Determine if content length too long
-						if (this.contentLength > this.metaData.maxEntityLength) {
+						// Determine if content length too long (streamed not held)
+						if ((this.contentLength > this.metaData.maxEntityLength)
+								&& (!this.isStreamEntity(this.contentLength))) {
 							throw new HttpException(new HttpStatus(HttpStatus.REQUEST_ENTITY_TOO_LARGE.getStatusCode(),
 									"Request entity must be less than maximum of " + this.metaData.maxEntityLength
 											+ " bytes"));
 						}
+
+					} else if (MaterialisingHttpRequestHeaders.httpEqualsIgnoreCase("transfer-encoding",
+							this.headerName)) {
+						// Only chunked transfer encoding supported
+						headerValue.trim(); // remove spacing
+						if (!MaterialisingHttpRequestHeaders.httpEqualsIgnoreCase("chunked", headerValue)) {
+							throw new HttpException(new HttpStatus(HttpStatus.NOT_IMPLEMENTED.getStatusCode(),
+									"Only chunked Transfer-Encoding supported"));
+						}
+						this.isChunked = true;
+
+						// Not allow both (ambiguous framing allows request smuggling)
+						if (this.isContentLength) {
+							throw exceptionContentLengthAndChunked.get();
+						}
 					}
 
 					this.stateHeader = HeaderParseState.HEADER_EOLN;
@@ -631,17 +827,255 @@ public class HttpRequestParser extends StreamBufferScanner {
 			this.stateRequest = RequestParseState.ENTITY;
 		case ENTITY:
 
-			// Build entity of content length
-			this.entity = this.scanBytes(this.contentLength);
-			if (this.entity == null) {
-				return false; // require further bytes
+			// Determine if stream entity (chunked of unknown length)
+			if (this.isStreamEntity(this.isChunked ? Long.MAX_VALUE : this.contentLength)) {
+
+				// Service request with the entity streamed as received
+				this.startStream();
+				this.entityRemaining = this.contentLength;
+				this.stateRequest = this.isChunked ? RequestParseState.CHUNKED_ENTITY
+						: RequestParseState.STREAMED_ENTITY;
+
+				// Have the request (entity to follow)
+				return true;
 			}
 
-			// Reset for new request
+			// Determine if chunked entity
+			if (!this.isChunked) {
+
+				// Determine if spill large entity to file
+				if (this.isSpillEntity(this.contentLength)) {
+
+					// Spill the entity of content length
+					if (this.spilledEntity == null) {
+						this.startSpill();
+						this.entityRemaining = this.contentLength;
+					}
+					if (!this.spillAvailableBytes()) {
+						return false; // require further bytes
+					}
+					this.entity = this.completeSpill();
+
+				} else {
+					// Build entity of content length
+					this.entity = this.scanBytes(this.contentLength);
+					if (this.entity == null) {
+						return false; // require further bytes
+					}
+				}
+
+				// Reset for new request
+				this.stateRequest = RequestParseState.NEW_REQUEST;
+
+				// Have the request
+				return true;
+			}
+
+			this.stateRequest = RequestParseState.CHUNKED_ENTITY;
+			return this.parse(); // parse the chunked entity
+
+		case STREAMED_ENTITY:
+
+			// Stream the entity of content length
+			if (!this.streamAvailableBytes()) {
+				return false; // require further bytes (or paused)
+			}
+			this.completeStream();
+
+			// Continue with the next request
 			this.stateRequest = RequestParseState.NEW_REQUEST;
+			return this.parse();
+
+		case CHUNKED_ENTITY:
+
+			// Build the entity from the chunks
+			for (;;) {
 
-			// Have the request
-			return true;
+				// Handle based on state
+				switch (this.stateChunk) {
+				case CHUNK_SIZE:
+
+					// Scan in the chunk size (and possible extensions)
+					StreamBufferByteSequence chunkSizeSequence = this.scanToTarget(CR_TARGET,
+							this.metaData.maxTextLength, exceptionChunkSizeTooLong);
+					if (chunkSizeSequence == null) {
+						return false; // require further bytes
+					}
+
+					// Obtain the chunk size (ignoring extensions)
+					long size = 0;
+					int digitCount = 0;
+					long maxChunkSize = (this.streamedEntity != null) ? (Long.MAX_VALUE >> 4)
+							: this.metaData.maxEntityLength - this.getChunkedEntityLength();
+					for (int i = 0; i < chunkSizeSequence.length(); i++) {
+						byte sizeCharacter = chunkSizeSequence.byteAt(i);
+						if ((sizeCharacter == HTTP_SEMICOLON) || (isWhiteSpace(sizeCharacter))) {
+							break; // end of chunk size
+						}
+						int digit = hexDigit(sizeCharacter);
+						if (digit < 0) {
+							throw new HttpException(
+									new HttpStatus(HttpStatus.BAD_REQUEST.getStatusCode(), "Invalid chunk size"));
+						}
+						size = (size << 4) + digit;
+						digitCount++;
+
+						// Determine if entity too long
+						if (size > maxChunkSize) {
+							throw new HttpException(new HttpStatus(HttpStatus.REQUEST_ENTITY_TOO_LARGE.getStatusCode(),
+									"Request entity must be less than maximum of " + this.metaData.maxEntityLength
+											+ " bytes"));
+						}
+					}
+					if (digitCount == 0) {
+						throw new HttpException(
+								new HttpStatus(HttpStatus.BAD_REQUEST.getStatusCode(), "Invalid chunk size"));
+					}
+					this.chunkSize = size;
+
+					this.stateChunk = ChunkParseState.CHUNK_SIZE_EOLN;
+				case CHUNK_SIZE_EOLN:
+
+					// Ensure chunk size line delimited by CRLF
+					checkCrLf = this.buildShort(exceptionInvalidCharacter);
+					if (checkCrLf == -1) {
+						return false; // require further bytes
+					}
+					if (checkCrLf != CRLF) {
+						throw new HttpException(HttpStatus.BAD_REQUEST);
+					}
+					this.skipBytes(2); // CRLF
+
+					// Last chunk has zero size
+					if (this.chunkSize == 0) {
+						this.stateChunk = ChunkParseState.TRAILER;
+						break;
+					}
+					this.entityRemaining = this.chunkSize;
+
+					this.stateChunk = ChunkParseState.CHUNK_DATA;
+				case CHUNK_DATA:
+
+					// Determine if streaming chunk data
+					if (this.streamedEntity != null) {
+						if (!this.streamAvailableBytes()) {
+							return false; // require further bytes (or paused)
+						}
+						this.stateChunk = ChunkParseState.CHUNK_DATA_EOLN;
+						break;
+					}
+
+					// Determine if start spilling the chunked entity to file
+					if ((this.spilledEntity == null)
+							&& (this.isSpillEntity(this.getChunkedEntityLength() + this.chunkSize))) {
+						this.startSpill();
+						if (this.chunkedEntity != null) {
+							this.spill(this.chunkedEntity);
+							this.chunkedEntity = null;
+						}
+					}
+
+					// Determine if spilling chunk data
+					if (this.spilledEntity != null) {
+						if (!this.spillAvailableBytes()) {
+							return false; // require further bytes
+						}
+
+					} else {
+						// Scan in the chunk data
+						StreamBufferByteSequence chunkData = this.scanBytes(this.chunkSize);
+						if (chunkData == null) {
+							return false; // require further bytes
+						}
+
+						// Include the chunk data in the entity
+						if (this.chunkedEntity == null) {
+							this.chunkedEntity = chunkData;
+						} else {
+							this.chunkedEntity.appendByteSequence(chunkData);
+						}
+					}
+
+					this.stateChunk = ChunkParseState.CHUNK_DATA_EOLN;
+				case CHUNK_DATA_EOLN:
+
+					// Ensure chunk data delimited by CRLF
+					checkCrLf = this.buildShort(exceptionInvalidCharacter);
+					if (checkCrLf == -1) {
+						return false; // require further bytes
+					}
+					if (checkCrLf != CRLF) {
+						throw new HttpException(HttpStatus.BAD_REQUEST);
+					}
+					this.skipBytes(2); // CRLF
+
+					// Continue with the next chunk
+					this.stateChunk = ChunkParseState.CHUNK_SIZE;
+					break;
+
+				case TRAILER:
+
+					// Determine if end of trailer
+					checkCrLf = this.buildShort(exceptionInvalidCharacter);
+					if (checkCrLf == -1) {
+						return false; // require further bytes
+					}
+					if (checkCrLf == CRLF) {
+						this.skipBytes(2); // CRLF
+
+						// Determine if completed streaming the entity
+						if (this.streamedEntity != null) {
+							this.completeStream();
+
+							// Continue with the next request
+							this.stateChunk = ChunkParseState.CHUNK_SIZE;
+							this.stateRequest = RequestParseState.NEW_REQUEST;
+							return this.parse();
+						}
+
+						// Have the entity
+						if (this.spilledEntity != null) {
+							this.entity = this.completeSpill();
+						} else {
+							this.entity = (this.chunkedEntity != null) ? this.chunkedEntity : ByteSequence.EMPTY;
+						}
+
+						// Reset for new request
+						this.stateChunk = ChunkParseState.CHUNK_SIZE;
+						this.stateRequest = RequestParseState.NEW_REQUEST;
+
+						// Have the request
+						return true;
+					}
+
+					this.stateChunk = ChunkParseState.TRAILER_FIELD;
+				case TRAILER_FIELD:
+
+					// Ignore the trailer field
+					StreamBufferByteSequence trailerField = this.scanToTarget(CR_TARGET, this.metaData.maxTextLength,
+							exceptionTrailerTooLong);
+					if (trailerField == null) {
+						return false; // require further bytes
+					}
+
+					this.stateChunk = ChunkParseState.TRAILER_EOLN;
+				case TRAILER_EOLN:
+
+					// Ensure trailer field delimited by CRLF
+					checkCrLf = this.buildShort(exceptionInvalidCharacter);
+					if (checkCrLf == -1) {
+						return false; // require further bytes
+					}
+					if (checkCrLf != CRLF) {
+						throw new HttpException(HttpStatus.BAD_REQUEST);
+					}
+					this.skipBytes(2); // CRLF
+
+					// Potentially further trailer fields
+					this.stateChunk = ChunkParseState.TRAILER;
+					break;
+				}
+			}
 		}
 
 		// Should never get here
@@ -649,6 +1083,296 @@ public class HttpRequestParser extends StreamBufferScanner {
 				"Invalid internal state in parsing request"));
 	}
 
+	/**
+	 * <p>
+	 * Invoked once parsed content has been spilled to file (or streamed to the
+	 * servicing) and only the current {@link StreamBuffer} is referenced by this
+	 * {@link HttpRequestParser}.
+	 * <p>
+	 * This allows the previous {@link StreamBuffer} instances for the
+	 * {@link HttpRequest} to be released before the entity is complete.
+	 */
+	protected void releaseSpilledBuffers() {
+		// Default does nothing, as buffers released with request
+	}
+
+	/**
+	 * Releases the temporary file of a partially spilled entity (e.g. on parse
+	 * failure or connection closing).
+	 */
+	public void releaseSpilledEntity() {
+		if (this.spilledEntity != null) {
+			this.spilledEntity.release();
+			this.spilledEntity = null;
+		}
+	}
+
+	/**
+	 * Invoked on starting (<code>true</code>) and completing
+	 * (<code>false</code>) receiving a {@link StreamedEntity}.
+	 * 
+	 * @param isReceiving
+	 *            Indicates if receiving the {@link StreamedEntity}.
+	 */
+	protected void receiveStreamedEntity(boolean isReceiving) {
+		// Default does nothing
+	}
+
+	/**
+	 * Invoked when the {@link StreamedEntity} is full, so that no further bytes
+	 * should be read until the servicing consumes the content.
+	 */
+	protected void pauseStreamedEntity() {
+		// Default does nothing
+	}
+
+	/**
+	 * <p>
+	 * Invoked by the servicing {@link Thread} once it has consumed content of
+	 * the paused {@link StreamedEntity}.
+	 * <p>
+	 * Parsing is to be continued on the {@link Socket} {@link Thread}.
+	 */
+	protected void resumeStreamedEntity() {
+		// Default does nothing
+	}
+
+	/**
+	 * Obtains the {@link StreamedEntity} for the {@link HttpRequest} being
+	 * received.
+	 * 
+	 * @return {@link StreamedEntity} or <code>null</code> if entity not being
+	 *         streamed.
+	 */
+	public StreamedEntity getStreamedEntity() {
+		return this.streamedEntity;
+	}
+
+	/**
+	 * Fails the {@link StreamedEntity} being received (e.g. on parse failure or
+	 * connection closing).
+	 * 
+	 * @param failure
+	 *            Cause of the failure.
+	 * @return <code>true</code> if failed the {@link StreamedEntity}.
+	 *         <code>false</code> if no entity being streamed.
+	 */
+	public boolean failStreamedEntity(IOException failure) {
+		StreamedEntity streamed = this.streamedEntity;
+		if (streamed == null) {
+			return false;
+		}
+		this.streamedEntity = null;
+		streamed.fail(failure);
+		return true;
+	}
+
+	/**
+	 * Determines if stream the entity to the servicing.
+	 * 
+	 * @param entityLength
+	 *            Length of the entity.
+	 * @return <code>true</code> to stream the entity.
+	 */
+	private boolean isStreamEntity(long entityLength) {
+		return (this.metaData.entityStreamThreshold >= 0) && (entityLength > this.metaData.entityStreamThreshold);
+	}
+
+	/**
+	 * Starts streaming the entity to the servicing.
+	 */
+	private void startStream() {
+		this.materialiseRequest();
+		this.streamedEntity = new StreamedEntity(this.metaData.entityStreamBufferSize,
+				this.metaData.maxEntityLength, this::resumeStreamedEntity);
+		this.receiveStreamedEntity(true);
+	}
+
+	/**
+	 * Streams the available bytes of the entity to the servicing.
+	 * 
+	 * @return <code>true</code> if all remaining bytes streamed. Otherwise,
+	 *         <code>false</code> if require further bytes (or paused).
+	 */
+	private boolean streamAvailableBytes() {
+		while (this.entityRemaining > 0) {
+
+			// Pause should servicing not keeping up
+			int capacity = this.streamedEntity.getAvailableCapacity();
+			if (capacity == 0) {
+				if (this.streamedEntity.pause()) {
+					this.pauseStreamedEntity();
+					return false; // paused until content consumed
+				}
+				continue; // content consumed, so continue
+			}
+
+			// Obtain the available bytes
+			StreamBufferByteSequence content = this.scanAvailableBytes(Math.min(this.entityRemaining, capacity));
+			if (content == null) {
+
+				// Allow releasing buffers (as content now streamed)
+				if (this.isOnlyCurrentBuffer()) {
+					this.releaseSpilledBuffers();
+				}
+				return false; // require further bytes
+			}
+
+			// Stream the bytes
+			this.streamedEntity.receive(content);
+			this.entityRemaining -= content.length();
+		}
+		return true;
+	}
+
+	/**
+	 * Completes streaming the entity to the servicing.
+	 */
+	private void completeStream() {
+		StreamedEntity streamed = this.streamedEntity;
+		this.streamedEntity = null;
+		streamed.complete();
+		this.receiveStreamedEntity(false);
+	}
+
+	/**
+	 * Materialises the {@link HttpRequest} details, as the request
+	 * {@link StreamBuffer} instances may be released before the entity is
+	 * complete.
+	 */
+	private void materialiseRequest() {
+		HttpMethod httpMethod = this.method.get();
+		this.method = () -> httpMethod;
+		this.rawRequestUri = null;
+		try {
+			String uri = this.requestUri.get();
+			this.requestUri = () -> uri;
+		} catch (HttpException ex) {
+			// Report invalid URI on servicing (as without releasing buffers)
+			this.requestUri = () -> {
+				throw ex;
+			};
+		}
+		this.headers.materialiseHttpHeaders();
+	}
+
+	/**
+	 * Determines if spill the entity to file.
+	 * 
+	 * @param entityLength
+	 *            Length of the entity.
+	 * @return <code>true</code> to spill the entity to file.
+	 * @throws HttpException
+	 *             If entity too large to spill.
+	 */
+	private boolean isSpillEntity(long entityLength) throws HttpException {
+
+		// Determine if spill entity
+		if ((this.metaData.entitySpillThreshold < 0) || (entityLength <= this.metaData.entitySpillThreshold)) {
+			return false;
+		}
+
+		// Spilled entity is accessed by int index
+		if (entityLength > Integer.MAX_VALUE) {
+			throw new HttpException(new HttpStatus(HttpStatus.REQUEST_ENTITY_TOO_LARGE.getStatusCode(),
+					"Request entity must be less than maximum of " + Integer.MAX_VALUE + " bytes"));
+		}
+		return true;
+	}
+
+	/**
+	 * Obtains the length of the chunked entity so far.
+	 * 
+	 * @return Length of the chunked entity so far.
+	 */
+	private long getChunkedEntityLength() {
+		if (this.spilledEntity != null) {
+			return this.spilledEntity.length();
+		}
+		return (this.chunkedEntity == null) ? 0 : this.chunkedEntity.length();
+	}
+
+	/**
+	 * Starts spilling the entity to file.
+	 * 
+	 * @throws HttpException
+	 *             If fails to create the file.
+	 */
+	private void startSpill() throws HttpException {
+
+		// Materialise request details (as buffers may be released)
+		this.materialiseRequest();
+
+		// Create the file to receive the entity
+		try {
+			this.spilledEntity = new SpilledEntity(this.metaData.entitySpillDirectory);
+		} catch (IOException ex) {
+			throw new HttpException(HttpStatus.INTERNAL_SERVER_ERROR, ex);
+		}
+	}
+
+	/**
+	 * Spills the available bytes of the entity to file.
+	 * 
+	 * @return <code>true</code> if all remaining bytes spilled. Otherwise,
+	 *         <code>false</code> if require further bytes.
+	 * @throws HttpException
+	 *             If fails to spill the bytes.
+	 */
+	private boolean spillAvailableBytes() throws HttpException {
+		while (this.entityRemaining > 0) {
+
+			// Obtain the available bytes
+			StreamBufferByteSequence content = this.scanAvailableBytes(this.entityRemaining);
+			if (content == null) {
+
+				// Allow releasing buffers (as content now in file)
+				if (this.isOnlyCurrentBuffer()) {
+					this.releaseSpilledBuffers();
+				}
+				return false; // require further bytes
+			}
+
+			// Spill the bytes
+			this.spill(content);
+			this.entityRemaining -= content.length();
+		}
+		return true;
+	}
+
+	/**
+	 * Spills the content to file.
+	 * 
+	 * @param content
+	 *            Content to spill.
+	 * @throws HttpException
+	 *             If fails to spill the content.
+	 */
+	private void spill(StreamBufferByteSequence content) throws HttpException {
+		try {
+			this.spilledEntity.write(content);
+		} catch (IOException ex) {
+			throw new HttpException(HttpStatus.INTERNAL_SERVER_ERROR, ex);
+		}
+	}
+
+	/**
+	 * Completes spilling the entity to file.
+	 * 
+	 * @return {@link ByteSequence} to the spilled entity.
+	 * @throws HttpException
+	 *             If fails to complete the spilled entity.
+	 */
+	private ByteSequence completeSpill() throws HttpException {
+		SpilledEntity spilled = this.spilledEntity;
+		this.spilledEntity = null;
+		try {
+			return spilled.complete();
+		} catch (IOException ex) {
+			throw new HttpException(HttpStatus.INTERNAL_SERVER_ERROR, ex);
+		}
+	}
+
 	/**
 	 * Obtains the {@link Supplier} of the {@link HttpMethod}.
 	 * 
@@ -667,6 +1391,18 @@ public class HttpRequestParser extends StreamBufferScanner {
 		return this.requestUri;
 	}
 
+	/**
+	 * Obtains the {@link ByteSequence} of the raw request URI from the request
+	 * line.
+	 * 
+	 * @return {@link ByteSequence} of the raw request URI. May be
+	 *         <code>null</code> if request buffers may be released (e.g. spilling
+	 *         the entity to file).
+	 */
+	public ByteSequence getRawRequestURI() {
+		return this.rawRequestUri;
+	}
+
 	/**
 	 * Obtains the {@link HttpVersion}.
 	 * 
@@ -29,6 +29,7 @@ import net.officefloor.server.buffer.StreamBufferByteSequence;
 import net.officefloor.server.http.HttpHeader;
 import net.officefloor.server.http.impl.NonMaterialisedHttpHeader;
 import net.officefloor.server.http.impl.NonMaterialisedHttpHeaders;
+import net.officefloor.server.stream.StreamBuffer;
 
 /**
  * {@link NonMaterialisedHttpHeaders} implementation.
@@ -65,6 +66,17 @@ public class NonMaterialisedHeadersImpl implements NonMaterialisedHttpHeaders {
 		this.headers.add(new NonMaterialisedHeaderImpl(name, value));
 	}
 
+	/**
+	 * Materialises the {@link HttpHeader} instances, so that they no longer
+	 * reference the underlying {@link StreamBuffer} instances.
+	 */
+	public void materialiseHttpHeaders() {
+		for (int i = 0; i < this.headers.size(); i++) {
+			HttpHeader header = this.headers.get(i).materialiseHttpHeader();
+			this.headers.set(i, new MaterialisedHeaderImpl(header));
+		}
+	}
+
 	/*
 	 * =================== NonMaterialisedHttpHeaders ====================
 	 */
@@ -136,6 +148,41 @@ public class NonMaterialisedHeadersImpl implements NonMaterialisedHttpHeaders {
 		}
 	}
 
+	/**
+	 * Already materialised {@link NonMaterialisedHttpHeader} implementation.
+	 */
+	private static class MaterialisedHeaderImpl implements NonMaterialisedHttpHeader {
+
+		/**
+		 * Materialised {@link HttpHeader}.
+		 */
+		private final HttpHeader header;
+
+		/**
+		 * Instantiate.
+		 * 
+		 * @param header
+		 *            Materialised {@link HttpHeader}.
+		 */
+		public MaterialisedHeaderImpl(HttpHeader header) {
+			this.header = header;
+		}
+
+		/*
+		 * ================== NonMaterialisedHttpHeader ==================
+		 */
+
+		@Override
+		public CharSequence getName() {
+			return this.header.getName();
+		}
+
+		@Override
+		public HttpHeader materialiseHttpHeader() {
+			return this.header;
+		}
+	}
+
 	/**
 	 * {@link HttpHeader} implementation.
 	 */
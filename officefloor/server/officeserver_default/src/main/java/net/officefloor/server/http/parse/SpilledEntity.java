@@ -0,0 +1,172 @@
+/*-
+ * #%L
+ * Default OfficeFloor HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.server.http.parse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import net.officefloor.server.buffer.StreamBufferByteSequence;
+import net.officefloor.server.http.HttpRequest;
+import net.officefloor.server.stream.StreamBuffer;
+import net.officefloor.server.stream.impl.ByteSequence;
+
+/**
+ * <p>
+ * {@link HttpRequest} entity spilled to a temporary file.
+ * <p>
+ * This allows large entities to be received without holding all content within
+ * {@link StreamBuffer} instances. Once complete, the file is memory mapped to
+ * provide the {@link ByteSequence} (and is deleted on being closed).
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class SpilledEntity {
+
+	/**
+	 * Prefix for the temporary file name.
+	 */
+	private static final String FILE_PREFIX = "officefloor-entity-";
+
+	/**
+	 * {@link FileChannel} to the temporary file.
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * Number of bytes spilled.
+	 */
+	private long length = 0;
+
+	/**
+	 * Instantiate.
+	 * 
+	 * @param directory
+	 *            Directory to contain the temporary file. May be
+	 *            <code>null</code> to use the default temporary directory.
+	 * @throws IOException
+	 *             If fails to create the temporary file.
+	 */
+	public SpilledEntity(File directory) throws IOException {
+		Path file = (directory == null) ? Files.createTempFile(FILE_PREFIX, null)
+				: Files.createTempFile(directory.toPath(), FILE_PREFIX, null);
+		try {
+			this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+					StandardOpenOption.DELETE_ON_CLOSE);
+		} catch (IOException ex) {
+			Files.deleteIfExists(file);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Obtains the number of bytes spilled.
+	 * 
+	 * @return Number of bytes spilled.
+	 */
+	public long length() {
+		return this.length;
+	}
+
+	/**
+	 * Spills the content.
+	 * 
+	 * @param content
+	 *            Content to append to the file.
+	 * @throws IOException
+	 *             If fails to write the content.
+	 */
+	public void write(StreamBufferByteSequence content) throws IOException {
+		content.writeTo(this.channel);
+		this.length += content.length();
+	}
+
+	/**
+	 * Completes spilling the entity.
+	 * 
+	 * @return {@link ByteSequence} to the spilled entity.
+	 * @throws IOException
+	 *             If fails to map the file.
+	 */
+	public ByteSequence complete() throws IOException {
+		try {
+			MappedByteBuffer data = this.channel.map(MapMode.READ_ONLY, 0, this.length);
+			return new MappedByteSequence(data);
+		} finally {
+			// Mapping remains valid after close
+			this.release();
+		}
+	}
+
+	/**
+	 * Releases the temporary file.
+	 */
+	public void release() {
+		try {
+			this.channel.close();
+		} catch (IOException ex) {
+			// Ignore failure to close, as temporary file
+		}
+	}
+
+	/**
+	 * {@link ByteSequence} to the memory mapped file.
+	 */
+	private static class MappedByteSequence implements ByteSequence {
+
+		/**
+		 * Memory mapped content.
+		 */
+		private final ByteBuffer data;
+
+		/**
+		 * Instantiate.
+		 * 
+		 * @param data
+		 *            Memory mapped content.
+		 */
+		private MappedByteSequence(ByteBuffer data) {
+			this.data = data;
+		}
+
+		/*
+		 * ===================== ByteSequence ======================
+		 */
+
+		@Override
+		public byte byteAt(int index) {
+			return this.data.get(index);
+		}
+
+		@Override
+		public int length() {
+			return this.data.capacity();
+		}
+	}
+
+}
@@ -0,0 +1,479 @@
+/*-
+ * #%L
+ * Default OfficeFloor HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.server.http.parse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.Socket;
+
+import net.officefloor.server.buffer.StreamBufferByteSequence;
+import net.officefloor.server.http.HttpException;
+import net.officefloor.server.http.HttpRequest;
+import net.officefloor.server.http.HttpStatus;
+import net.officefloor.server.stream.ServerInputStream;
+
+/**
+ * <p>
+ * {@link ServerInputStream} streaming the {@link HttpRequest} entity to its
+ * servicing as it is received.
+ * <p>
+ * Content is buffered up to a capacity. Once full, receiving is paused until
+ * the servicing consumes the content (providing back-pressure to the client).
+ * <p>
+ * Browsing must retain the content, so increases the capacity. The retained
+ * content is however limited to the maximum browse length, with browsing
+ * beyond this failing with {@link HttpStatus#REQUEST_ENTITY_TOO_LARGE}.
+ * <p>
+ * As reading blocks awaiting content, the entity must be consumed by a
+ * {@link Thread} other than the {@link Socket} {@link Thread}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class StreamedEntity extends ServerInputStream {
+
+	/**
+	 * Maximum length of an array (as some JVMs reserve header words).
+	 */
+	private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+	/**
+	 * Capacity of buffered content before pausing receiving.
+	 */
+	private final int initialCapacity;
+
+	/**
+	 * Maximum number of bytes retained for browsing.
+	 */
+	private final int maxBrowseLength;
+
+	/**
+	 * Resumes receiving the entity. Invoked by the servicing {@link Thread}.
+	 */
+	private final Runnable resume;
+
+	/**
+	 * {@link Socket} {@link Thread} receiving the entity.
+	 */
+	private final Thread socketThread;
+
+	/**
+	 * Current capacity. Increased should browsing require further content.
+	 */
+	private int capacity;
+
+	/**
+	 * Buffered content.
+	 */
+	private byte[] data;
+
+	/**
+	 * Index of the first unread byte within the buffered content.
+	 */
+	private int start = 0;
+
+	/**
+	 * Index after the last byte within the buffered content.
+	 */
+	private int end = 0;
+
+	/**
+	 * Number of bytes consumed from the entity.
+	 */
+	private long consumed = 0;
+
+	/**
+	 * Indicates if receiving is paused.
+	 */
+	private boolean isPaused = false;
+
+	/**
+	 * Indicates if all of the entity has been received.
+	 */
+	private boolean isComplete = false;
+
+	/**
+	 * Indicates if the servicing no longer requires the entity, so further
+	 * content is discarded.
+	 */
+	private boolean isDiscard = false;
+
+	/**
+	 * Failure in receiving the entity.
+	 */
+	private IOException failure = null;
+
+	/**
+	 * Instantiate. Must be created on the {@link Socket} {@link Thread}.
+	 * 
+	 * @param capacity
+	 *            Capacity of buffered content before pausing receiving.
+	 * @param maxBrowseLength
+	 *            Maximum number of bytes retained for browsing.
+	 * @param resume
+	 *            Resumes receiving the entity. Invoked by the servicing
+	 *            {@link Thread}.
+	 */
+	public StreamedEntity(int capacity, long maxBrowseLength, Runnable resume) {
+		this.initialCapacity = capacity;
+		this.maxBrowseLength = (int) Math.max(capacity, Math.min(maxBrowseLength, MAX_ARRAY_LENGTH));
+		this.capacity = capacity;
+		this.data = new byte[capacity];
+		this.resume = resume;
+		this.socketThread = Thread.currentThread();
+	}
+
+	/*
+	 * ================ Socket Thread ===================
+	 */
+
+	/**
+	 * Obtains the number of bytes that may be received before pausing.
+	 * 
+	 * @return Number of bytes that may be received before pausing.
+	 */
+	public synchronized int getAvailableCapacity() {
+		if (this.isDiscard) {
+			return Integer.MAX_VALUE; // discarding, so never pause
+		}
+		return Math.max(0, this.capacity - (this.end - this.start));
+	}
+
+	/**
+	 * Receives content of the entity.
+	 * 
+	 * @param content
+	 *            Content of the entity.
+	 */
+	public synchronized void receive(StreamBufferByteSequence content) {
+
+		// Ignore content if discarding
+		if (this.isDiscard) {
+			return;
+		}
+
+		// Ensure space for the content
+		int length = content.length();
+		int buffered = this.end - this.start;
+		if (this.end + length > this.data.length) {
+			if (buffered + length <= this.data.length) {
+				// Compact to make space
+				System.arraycopy(this.data, this.start, this.data, 0, buffered);
+			} else {
+				// Grow to make space (e.g. browsing), limited to capacity
+				long required = (long) buffered + length;
+				int grownLength = (int) Math.min(Math.max(this.data.length * 2L, required),
+						Math.max(this.capacity, required));
+				byte[] grown = new byte[grownLength];
+				System.arraycopy(this.data, this.start, grown, 0, buffered);
+				this.data = grown;
+			}
+			this.start = 0;
+			this.end = buffered;
+		}
+
+		// Receive the content
+		content.writeTo(this.data, this.end);
+		this.end += length;
+		this.notifyAll();
+	}
+
+	/**
+	 * Pauses receiving if no available capacity.
+	 * 
+	 * @return <code>true</code> if paused. <code>false</code> if capacity
+	 *         became available (so continue receiving).
+	 */
+	public synchronized boolean pause() {
+		if (this.getAvailableCapacity() > 0) {
+			return false; // content consumed, so continue
+		}
+		this.isPaused = true;
+		return true;
+	}
+
+	/**
+	 * Flags all of the entity is received.
+	 */
+	public synchronized void complete() {
+		this.isComplete = true;
+		this.notifyAll();
+	}
+
+	/**
+	 * Flags failure in receiving the entity.
+	 * 
+	 * @param failure
+	 *            Cause of the failure.
+	 */
+	public synchronized void fail(IOException failure) {
+		if ((!this.isComplete) && (this.failure == null)) {
+			this.failure = failure;
+			this.notifyAll();
+		}
+	}
+
+	/*
+	 * ================ Servicing Thread ================
+	 */
+
+	/**
+	 * Discards the remaining entity, as no longer required by the servicing
+	 * (e.g. response sent without reading the entity).
+	 */
+	public void discard() {
+		boolean isResume;
+		synchronized (this) {
+			this.isDiscard = true;
+			this.start = 0;
+			this.end = 0;
+			isResume = this.isPaused;
+			this.isPaused = false;
+			this.notifyAll();
+		}
+		if (isResume) {
+			this.resume.run();
+		}
+	}
+
+	/**
+	 * Waits on further content.
+	 * 
+	 * @throws IOException
+	 *             If not able to wait on further content.
+	 */
+	private void waitOnContent() throws IOException {
+
+		// Must not block the socket thread (as receives the content)
+		if (Thread.currentThread() == this.socketThread) {
+			throw new IOException(
+					"Streamed " + HttpRequest.class.getSimpleName() + " entity must be read by a thread other than the "
+							+ Socket.class.getSimpleName() + " thread");
+		}
+
+		// Wait on further content
+		try {
+			this.wait();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted waiting on entity content");
+		}
+	}
+
+	/**
+	 * Obtains the available content, waiting on further content if necessary.
+	 * 
+	 * @param position
+	 *            Position within the entity to read.
+	 * @param isBrowse
+	 *            Indicates if browsing.
+	 * @return Index within buffered data of the position. <code>-1</code> if end
+	 *         of entity.
+	 * @throws IOException
+	 *             If failure in receiving the entity.
+	 */
+	private int awaitContent(long position, boolean isBrowse) throws IOException {
+		for (;;) {
+			boolean isResume = false;
+			synchronized (this) {
+
+				// Determine if closed
+				if (this.isDiscard) {
+					throw new IOException("Streamed entity closed");
+				}
+
+				// Determine if content available
+				int index = this.start + (int) (position - this.consumed);
+				if (index < this.end) {
+					return index;
+				}
+
+				// Determine if end of entity
+				if (this.failure != null) {
+					throw this.failure;
+				} else if (this.isComplete) {
+					return -1;
+				}
+
+				// Browsing must retain content, so increase capacity
+				if (isBrowse && (this.getAvailableCapacity() == 0)) {
+					if (this.capacity >= this.maxBrowseLength) {
+						throw new HttpException(new HttpStatus(HttpStatus.REQUEST_ENTITY_TOO_LARGE.getStatusCode(),
+								"Browsed entity must be less than maximum of " + this.maxBrowseLength + " bytes"));
+					}
+					this.capacity = (int) Math.min((long) this.capacity + this.initialCapacity, this.maxBrowseLength);
+					isResume = this.isPaused;
+					this.isPaused = false;
+				}
+
+				// Wait on further content
+				if (!isResume) {
+					this.waitOnContent();
+					continue;
+				}
+			}
+
+			// Resume receiving the further content
+			this.resume.run();
+		}
+	}
+
+	/**
+	 * Obtains the size of the buffer holding the content.
+	 * 
+	 * @return Size of the buffer holding the content.
+	 */
+	synchronized int getBufferSize() {
+		return this.data.length;
+	}
+
+	/*
+	 * =============== ServerInputStream ================
+	 */
+
+	@Override
+	public InputStream createBrowseInputStream() {
+		synchronized (this) {
+			return new BrowseInputStream(this.consumed);
+		}
+	}
+
+	@Override
+	public int read() throws IOException {
+		byte[] singleByte = new byte[1];
+		int bytesRead = this.read(singleByte, 0, 1);
+		return (bytesRead < 0) ? -1 : (singleByte[0] & 0xff);
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+
+		// Determine if reading content
+		if (len == 0) {
+			return 0;
+		}
+
+		// Read the content
+		int bytesRead;
+		boolean isResume = false;
+		synchronized (this) {
+
+			// Obtain the content
+			int index = this.awaitContent(this.consumed, false);
+			if (index < 0) {
+				return -1; // end of entity
+			}
+
+			// Consume the content
+			bytesRead = Math.min(len, this.end - index);
+			System.arraycopy(this.data, index, b, off, bytesRead);
+			this.start += bytesRead;
+			this.consumed += bytesRead;
+
+			// Resume receiving once half the capacity is available
+			if ((this.isPaused) && (this.getAvailableCapacity() >= (this.capacity / 2))) {
+				this.isPaused = false;
+				isResume = true;
+			}
+		}
+
+		// Resume receiving (outside lock)
+		if (isResume) {
+			this.resume.run();
+		}
+		return bytesRead;
+	}
+
+	@Override
+	public synchronized int available() throws IOException {
+		return this.end - this.start;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.discard();
+	}
+
+	/**
+	 * Browse {@link InputStream}.
+	 */
+	private class BrowseInputStream extends InputStream {
+
+		/**
+		 * Position within the entity.
+		 */
+		private long position;
+
+		/**
+		 * Instantiate.
+		 * 
+		 * @param position
+		 *            Position within the entity.
+		 */
+		private BrowseInputStream(long position) {
+			this.position = position;
+		}
+
+		/*
+		 * ================== InputStream ====================
+		 */
+
+		@Override
+		public int read() throws IOException {
+			byte[] singleByte = new byte[1];
+			int bytesRead = this.read(singleByte, 0, 1);
+			return (bytesRead < 0) ? -1 : (singleByte[0] & 0xff);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+
+			// Determine if reading content
+			if (len == 0) {
+				return 0;
+			}
+
+			// Browse the content
+			StreamedEntity entity = StreamedEntity.this;
+			synchronized (entity) {
+
+				// Ensure content still available
+				if (this.position < entity.consumed) {
+					throw new IOException("Browsed entity content already consumed");
+				}
+
+				// Obtain the content
+				int index = entity.awaitContent(this.position, true);
+				if (index < 0) {
+					return -1; // end of entity
+				}
+
+				// Browse the content
+				int bytesRead = Math.min(len, entity.end - index);
+				System.arraycopy(entity.data, index, b, off, bytesRead);
+				this.position += bytesRead;
+				return bytesRead;
+			}
+		}
+	}
+
+}
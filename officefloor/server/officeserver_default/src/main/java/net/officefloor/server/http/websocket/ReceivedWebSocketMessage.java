@@ -0,0 +1,118 @@
+/*-
+ * #%L
+ * Default OfficeFloor HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.server.http.websocket;
+
+import java.nio.ByteBuffer;
+
+import net.officefloor.server.http.HttpHeaderValue;
+import net.officefloor.server.http.HttpResponseWriter;
+import net.officefloor.server.http.HttpStatus;
+import net.officefloor.server.http.HttpVersion;
+import net.officefloor.server.http.WritableHttpCookie;
+import net.officefloor.server.http.WritableHttpHeader;
+import net.officefloor.server.stream.StreamBuffer;
+
+/**
+ * {@link WebSocketMessage} received on a {@link WebSocketConnection}.
+ * <p>
+ * Each {@link ReceivedWebSocketMessage} is serviced as a separate request. As
+ * there is no HTTP response to a {@link WebSocketMessage}, writing the HTTP
+ * response (on completion of servicing) only flags the request complete.
+ *
+ * @author Daniel Sagenschneider
+ */
+public class ReceivedWebSocketMessage implements WebSocketMessage, HttpResponseWriter<ByteBuffer> {
+
+	/**
+	 * Receiving {@link WebSocketConnection}.
+	 */
+	private final WebSocketConnection<?> connection;
+
+	/**
+	 * Text of the message. <code>null</code> if binary message.
+	 */
+	private final String text;
+
+	/**
+	 * Data of the message.
+	 */
+	private final byte[] data;
+
+	/**
+	 * Indicates if servicing of the message is complete.
+	 */
+	boolean isComplete = false;
+
+	/**
+	 * Instantiate.
+	 *
+	 * @param connection Receiving {@link WebSocketConnection}.
+	 * @param text       Text of the message. <code>null</code> if binary message.
+	 * @param data       Data of the message.
+	 */
+	ReceivedWebSocketMessage(WebSocketConnection<?> connection, String text, byte[] data) {
+		this.connection = connection;
+		this.text = text;
+		this.data = data;
+	}
+
+	/*
+	 * ===================== WebSocketMessage =====================
+	 */
+
+	@Override
+	public WebSocket getWebSocket() {
+		return this.connection;
+	}
+
+	@Override
+	public boolean isText() {
+		return this.text != null;
+	}
+
+	@Override
+	public String getText() {
+		return this.text;
+	}
+
+	@Override
+	public byte[] getData() {
+		return this.data;
+	}
+
+	/*
+	 * ==================== HttpResponseWriter ====================
+	 */
+
+	@Override
+	public void writeHttpResponse(HttpVersion version, HttpStatus status, WritableHttpHeader headHttpHeader,
+			WritableHttpCookie headHttpCookie, long contentLength, HttpHeaderValue contentType,
+			StreamBuffer<ByteBuffer> contentHeadStreamBuffer) {
+
+		// No HTTP response for message, so discard content
+		WebSocketConnection.releaseContent(contentHeadStreamBuffer);
+
+		// Servicing of message complete
+		this.connection.requestHandler.execute(() -> this.connection.completeMessage(this));
+	}
+
+}
@@ -0,0 +1,57 @@
+/*-
+ * #%L
+ * Default OfficeFloor HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.server.http.websocket;
+
+/**
+ * WebSocket (RFC 6455) established by upgrading a HTTP connection.
+ * <p>
+ * Messages may be sent from any {@link Thread}, as they are handed to the
+ * {@link java.net.Socket} {@link Thread} to be written in order. Should the
+ * client not consume the sent messages, so that the bytes pending being written
+ * exceed the configured maximum, the message is not sent and the
+ * {@link WebSocket} is closed (with policy violation status code).
+ *
+ * @author Daniel Sagenschneider
+ */
+public interface WebSocket {
+
+	/**
+	 * Sends a text message.
+	 *
+	 * @param text Text of the message.
+	 */
+	void sendText(String text);
+
+	/**
+	 * Sends a binary message.
+	 *
+	 * @param data Data of the message. The data is written without being copied,
+	 *             so must not be modified once sent.
+	 */
+	void sendBinary(byte[] data);
+
+	/**
+	 * Closes the {@link WebSocket}.
+	 */
+	void close();
+
+}
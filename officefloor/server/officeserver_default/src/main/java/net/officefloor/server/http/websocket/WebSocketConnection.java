@@ -0,0 +1,1021 @@
+/*-
+ * #%L
+ * Default OfficeFloor HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.server.http.websocket;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.officefloor.frame.api.manage.ProcessManager;
+import net.officefloor.server.RequestHandler;
+import net.officefloor.server.RequestHandler.Execution;
+import net.officefloor.server.ResponseWriter;
+import net.officefloor.server.stream.FileCompleteCallback;
+import net.officefloor.server.stream.StreamBuffer;
+import net.officefloor.server.stream.StreamBuffer.FileBuffer;
+import net.officefloor.server.stream.StreamBufferPool;
+
+/**
+ * <p>
+ * WebSocket connection (RFC 6455).
+ * <p>
+ * Parses the frames received on the connection once upgraded from HTTP. Each
+ * received message is handed to the {@link RequestHandler} as a separate
+ * request so that it is serviced by its own process. As messages are requests,
+ * the in-flight request limit of the connection pauses reading further
+ * messages until servicing catches up.
+ * <p>
+ * All frames are written through the oldest outstanding request's
+ * {@link ResponseWriter}. Should there be no outstanding request, a control
+ * request is handed to the {@link RequestHandler} to write the frames.
+ *
+ * @author Daniel Sagenschneider
+ */
+public class WebSocketConnection<R> implements WebSocket {
+
+	/**
+	 * GUID to derive the <code>Sec-WebSocket-Accept</code> value.
+	 */
+	private static final String ACCEPT_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+	/**
+	 * Continuation frame opcode.
+	 */
+	private static final int CONTINUATION = 0x0;
+
+	/**
+	 * Text frame opcode.
+	 */
+	private static final int TEXT = 0x1;
+
+	/**
+	 * Binary frame opcode.
+	 */
+	private static final int BINARY = 0x2;
+
+	/**
+	 * Close frame opcode.
+	 */
+	private static final int CLOSE = 0x8;
+
+	/**
+	 * Ping frame opcode.
+	 */
+	private static final int PING = 0x9;
+
+	/**
+	 * Pong frame opcode.
+	 */
+	private static final int PONG = 0xA;
+
+	/**
+	 * Maximum payload length of a control frame.
+	 */
+	private static final int MAX_CONTROL_PAYLOAD_LENGTH = 125;
+
+	/**
+	 * Maximum length of a client frame header (including masking key).
+	 */
+	private static final int MAX_FRAME_HEADER_LENGTH = 14;
+
+	/**
+	 * No payload.
+	 */
+	private static final byte[] NO_PAYLOAD = new byte[0];
+
+	/**
+	 * {@link ProcessManager} for requests only writing control frames.
+	 */
+	private static final ProcessManager CONTROL_PROCESSING = () -> {
+		// nothing to cancel
+	};
+
+	/**
+	 * Obtains the <code>Sec-WebSocket-Accept</code> value for the handshake.
+	 *
+	 * @param key <code>Sec-WebSocket-Key</code> value.
+	 * @return <code>Sec-WebSocket-Accept</code> value.
+	 */
+	public static String getAcceptValue(String key) {
+		try {
+			MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+			byte[] digest = sha1.digest((key.trim() + ACCEPT_GUID).getBytes(StandardCharsets.US_ASCII));
+			return Base64.getEncoder().encodeToString(digest);
+		} catch (NoSuchAlgorithmException ex) {
+			// SHA-1 must be provided by all JVMs
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Services the {@link ReceivedWebSocketMessage}.
+	 */
+	@FunctionalInterface
+	public static interface WebSocketMessageServicer {
+
+		/**
+		 * Services the {@link ReceivedWebSocketMessage}.
+		 *
+		 * @param message {@link ReceivedWebSocketMessage}.
+		 * @return {@link ProcessManager} for servicing the
+		 *         {@link ReceivedWebSocketMessage}.
+		 * @throws Exception If fails to service the
+		 *                   {@link ReceivedWebSocketMessage}. This closes the
+		 *                   {@link WebSocket}.
+		 */
+		ProcessManager service(ReceivedWebSocketMessage message) throws Exception;
+	}
+
+	/**
+	 * Outstanding request.
+	 */
+	private static class WebSocketRequest {
+
+		/**
+		 * {@link ResponseWriter} for the request.
+		 */
+		private final ResponseWriter responseWriter;
+
+		/**
+		 * {@link ReceivedWebSocketMessage}. <code>null</code> if request to write
+		 * control frames.
+		 */
+		private final ReceivedWebSocketMessage message;
+
+		/**
+		 * Next {@link WebSocketRequest}.
+		 */
+		private WebSocketRequest next = null;
+
+		/**
+		 * Instantiate.
+		 *
+		 * @param responseWriter {@link ResponseWriter}.
+		 * @param message        {@link ReceivedWebSocketMessage}.
+		 */
+		private WebSocketRequest(ResponseWriter responseWriter, ReceivedWebSocketMessage message) {
+			this.responseWriter = responseWriter;
+			this.message = message;
+		}
+
+		/**
+		 * Indicates if the request is complete.
+		 *
+		 * @return <code>true</code> if request complete.
+		 */
+		private boolean isComplete() {
+			return (this.message == null) || (this.message.isComplete);
+		}
+	}
+
+	/**
+	 * {@link RequestHandler}.
+	 */
+	final RequestHandler<R> requestHandler;
+
+	/**
+	 * Request provided to the {@link RequestHandler}.
+	 */
+	private final R request;
+
+	/**
+	 * {@link WebSocketMessageServicer}.
+	 */
+	private final WebSocketMessageServicer servicer;
+
+	/**
+	 * {@link StreamBufferPool}.
+	 */
+	private final StreamBufferPool<ByteBuffer> bufferPool;
+
+	/**
+	 * Maximum length of a message.
+	 */
+	private final long maxMessageLength;
+
+	/**
+	 * Interval in milliseconds without receiving data before sending a ping.
+	 * <code>0</code> (or less) to not ping.
+	 */
+	private final long pingInterval;
+
+	/**
+	 * Maximum bytes of sent messages pending being written to the client.
+	 */
+	private final long maxPendingOutput;
+
+	/**
+	 * Bytes of sent messages pending being written to the client. Increased by
+	 * the sending {@link Thread} and decreased once written by the
+	 * {@link java.net.Socket} {@link Thread}.
+	 */
+	private final AtomicLong pendingOutput = new AtomicLong(0);
+
+	/**
+	 * {@link CharsetDecoder} to strictly decode text messages.
+	 */
+	private final CharsetDecoder textDecoder = StandardCharsets.UTF_8.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPORT).onUnmappableCharacter(CodingErrorAction.REPORT);
+
+	/**
+	 * Frame header being read.
+	 */
+	private final byte[] frameHeader = new byte[MAX_FRAME_HEADER_LENGTH];
+
+	/**
+	 * Number of bytes read of the frame header.
+	 */
+	private int frameHeaderRead = 0;
+
+	/**
+	 * Length of the frame header. Determined once the first two bytes are read.
+	 */
+	private int frameHeaderLength = 2;
+
+	/**
+	 * Masking key of the current frame.
+	 */
+	private final byte[] maskingKey = new byte[4];
+
+	/**
+	 * Opcode of the current frame.
+	 */
+	private int opcode;
+
+	/**
+	 * Indicates if the current frame is the final fragment of the message.
+	 */
+	private boolean isFinal;
+
+	/**
+	 * Payload length of the current frame. Negative if reading the frame
+	 * header.
+	 */
+	private long payloadLength = -1;
+
+	/**
+	 * Number of bytes read of the payload of the current frame.
+	 */
+	private long payloadRead = 0;
+
+	/**
+	 * Payload of the current control frame.
+	 */
+	private final byte[] controlPayload = new byte[MAX_CONTROL_PAYLOAD_LENGTH];
+
+	/**
+	 * Opcode of the message being received. Negative if no message being
+	 * received.
+	 */
+	private int messageOpcode = -1;
+
+	/**
+	 * Data of the message being received.
+	 */
+	private byte[] messageData = NO_PAYLOAD;
+
+	/**
+	 * Length of the message being received.
+	 */
+	private int messageLength = 0;
+
+	/**
+	 * Head outstanding {@link WebSocketRequest}.
+	 */
+	private WebSocketRequest head = null;
+
+	/**
+	 * Tail outstanding {@link WebSocketRequest}.
+	 */
+	private WebSocketRequest tail = null;
+
+	/**
+	 * {@link ReceivedWebSocketMessage} being handed to the
+	 * {@link RequestHandler}. <code>null</code> for control request.
+	 */
+	private ReceivedWebSocketMessage servicingMessage = null;
+
+	/**
+	 * Head of frames to be written.
+	 */
+	private StreamBuffer<ByteBuffer> outputHead = null;
+
+	/**
+	 * Tail of frames to be written.
+	 */
+	private StreamBuffer<ByteBuffer> outputTail = null;
+
+	/**
+	 * Indicates if data received since the last heartbeat.
+	 */
+	private boolean isReceived = true;
+
+	/**
+	 * Time data was last received (as at the heartbeat).
+	 */
+	private long lastReceiveTime = 0;
+
+	/**
+	 * Indicates if a ping has been sent awaiting data from the client.
+	 */
+	private boolean isPingSent = false;
+
+	/**
+	 * Indicates if the close frame has been sent.
+	 */
+	private boolean isCloseSent = false;
+
+	/**
+	 * Indicates if the connection is closed.
+	 */
+	private boolean isClosed = false;
+
+	/**
+	 * Instantiate.
+	 *
+	 * @param requestHandler   {@link RequestHandler}.
+	 * @param request          Request to provide to the {@link RequestHandler}.
+	 * @param servicer         {@link WebSocketMessageServicer}.
+	 * @param bufferPool       {@link StreamBufferPool}.
+	 * @param maxMessageLength Maximum length of a message.
+	 * @param pingInterval     Interval in milliseconds without receiving data
+	 *                         before sending a ping. <code>0</code> to not ping.
+	 * @param maxPendingOutput Maximum bytes of sent messages pending being
+	 *                         written to the client. Should the client not
+	 *                         consume messages fast enough to stay within this
+	 *                         limit, the connection is closed.
+	 */
+	public WebSocketConnection(RequestHandler<R> requestHandler, R request, WebSocketMessageServicer servicer,
+			StreamBufferPool<ByteBuffer> bufferPool, long maxMessageLength, long pingInterval,
+			long maxPendingOutput) {
+		this.requestHandler = requestHandler;
+		this.request = request;
+		this.servicer = servicer;
+		this.bufferPool = bufferPool;
+		this.maxMessageLength = Math.min(maxMessageLength, Integer.MAX_VALUE);
+		this.pingInterval = pingInterval;
+		this.maxPendingOutput = maxPendingOutput;
+	}
+
+	/**
+	 * Reads data received on the connection.
+	 *
+	 * @param data     {@link ByteBuffer} containing the data.
+	 * @param position Position of the data within the {@link ByteBuffer}.
+	 * @param limit    Limit of the data within the {@link ByteBuffer}.
+	 */
+	public void read(ByteBuffer data, int position, int limit) {
+		this.isReceived = true;
+		try {
+			while ((position < limit) && (!this.isClosed)) {
+
+				// Read the frame header
+				if (this.payloadLength < 0) {
+					this.frameHeader[this.frameHeaderRead++] = data.get(position++);
+					if (this.frameHeaderRead == 2) {
+						this.frameHeaderLength = this.readFrameHeaderLength();
+					}
+					if (this.frameHeaderRead < this.frameHeaderLength) {
+						continue; // read remaining frame header
+					}
+					this.readFrameHeader();
+				}
+
+				// Read the payload (unmasking)
+				int length = (int) Math.min(this.payloadLength - this.payloadRead, limit - position);
+				if (this.opcode >= CLOSE) {
+					for (int i = 0; i < length; i++) {
+						this.controlPayload[(int) this.payloadRead] = (byte) (data.get(position++)
+								^ this.maskingKey[(int) (this.payloadRead & 3)]);
+						this.payloadRead++;
+					}
+				} else {
+					for (int i = 0; i < length; i++) {
+						this.messageData[this.messageLength++] = (byte) (data.get(position++)
+								^ this.maskingKey[(int) (this.payloadRead & 3)]);
+						this.payloadRead++;
+					}
+				}
+				if (this.payloadRead < this.payloadLength) {
+					return; // wait on remaining payload
+				}
+
+				// Handle the frame
+				this.frameHeaderRead = 0;
+				this.frameHeaderLength = 2;
+				this.payloadLength = -1;
+				this.handleFrame();
+			}
+		} catch (WebSocketException ex) {
+			this.fail(ex.getStatusCode());
+		} finally {
+			this.flush();
+		}
+	}
+
+	/**
+	 * Services the request handed to the {@link RequestHandler}.
+	 *
+	 * @param responseWriter {@link ResponseWriter} for the request.
+	 * @return {@link ProcessManager} for servicing the request.
+	 */
+	public ProcessManager service(ResponseWriter responseWriter) {
+
+		// Register the request (to complete in order)
+		ReceivedWebSocketMessage message = this.servicingMessage;
+		this.servicingMessage = null;
+		WebSocketRequest request = new WebSocketRequest(responseWriter, message);
+		if (this.head == null) {
+			this.head = request;
+		} else {
+			this.tail.next = request;
+		}
+		this.tail = request;
+
+		// Determine if control request
+		if (message == null) {
+			return CONTROL_PROCESSING;
+		}
+
+		// Service the message
+		try {
+			return this.servicer.service(message);
+		} catch (Exception ex) {
+			// Failed to service, so close (awaiting client close reply)
+			message.isComplete = true;
+			if (!this.isCloseSent) {
+				this.writeClose(WebSocketException.INTERNAL_ERROR);
+			}
+			this.flush();
+			return CONTROL_PROCESSING;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Undertakes the heartbeat for the connection.
+	 * <p>
+	 * This pings the client should no data be received within the ping interval.
+	 * Should the client not respond to the ping (or close frame), the connection
+	 * is closed.
+	 *
+	 * @param currentTime Current time in milliseconds.
+	 */
+	public void heartbeat(long currentTime) {
+
+		// Ignore if closed or not to ping
+		if ((this.isClosed) || (this.pingInterval <= 0)) {
+			return;
+		}
+
+		// Determine if received data since last heartbeat
+		if (this.isReceived) {
+			this.isReceived = false;
+			this.lastReceiveTime = currentTime;
+			this.isPingSent = false;
+			return;
+		}
+
+		// Determine if client not responding
+		long idleTime = currentTime - this.lastReceiveTime;
+		if ((this.isCloseSent && (idleTime >= this.pingInterval))
+				|| (this.isPingSent && (idleTime >= (2 * this.pingInterval)))) {
+			this.terminate();
+			return;
+		}
+
+		// Ping to keep the connection alive
+		if ((!this.isPingSent) && (!this.isCloseSent) && (idleTime >= this.pingInterval)) {
+			this.writeFrame(PING, NO_PAYLOAD, 0, 0);
+			this.isPingSent = true;
+			this.flush();
+		}
+	}
+
+	/**
+	 * Releases the connection.
+	 */
+	public void release() {
+		this.isClosed = true;
+		this.messageData = NO_PAYLOAD;
+		releaseContent(this.outputHead);
+		this.outputHead = null;
+		this.outputTail = null;
+	}
+
+	/**
+	 * Flags servicing of the {@link ReceivedWebSocketMessage} complete.
+	 *
+	 * @param message {@link ReceivedWebSocketMessage}.
+	 */
+	void completeMessage(ReceivedWebSocketMessage message) {
+		message.isComplete = true;
+		this.flush();
+	}
+
+	/**
+	 * Reads the frame header length from the first two bytes of the frame
+	 * header.
+	 *
+	 * @return Length of the frame header.
+	 * @throws WebSocketException If invalid frame.
+	 */
+	private int readFrameHeaderLength() throws WebSocketException {
+
+		// No extensions negotiated, so reserved bits must not be set
+		if ((this.frameHeader[0] & 0x70) != 0) {
+			throw new WebSocketException(WebSocketException.PROTOCOL_ERROR, "Reserved bits set");
+		}
+
+		// Client frames must be masked
+		if ((this.frameHeader[1] & 0x80) == 0) {
+			throw new WebSocketException(WebSocketException.PROTOCOL_ERROR, "Client frame not masked");
+		}
+
+		// Determine length of header (including the masking key)
+		int length = this.frameHeader[1] & 0x7f;
+		return 2 + ((length == 126) ? 2 : (length == 127) ? 8 : 0) + 4;
+	}
+
+	/**
+	 * Reads the frame header.
+	 *
+	 * @throws WebSocketException If invalid frame.
+	 */
+	private void readFrameHeader() throws WebSocketException {
+		this.isFinal = (this.frameHeader[0] & 0x80) != 0;
+		this.opcode = this.frameHeader[0] & 0x0f;
+
+		// Obtain the payload length
+		long length = this.frameHeader[1] & 0x7f;
+		if (length == 126) {
+			length = ((this.frameHeader[2] & 0xff) << 8) | (this.frameHeader[3] & 0xff);
+		} else if (length == 127) {
+			length = 0;
+			for (int i = 2; i < 10; i++) {
+				length = (length << 8) | (this.frameHeader[i] & 0xff);
+			}
+			if (length < 0) {
+				throw new WebSocketException(WebSocketException.PROTOCOL_ERROR, "Invalid payload length");
+			}
+		}
+
+		// Obtain the masking key
+		System.arraycopy(this.frameHeader, this.frameHeaderLength - 4, this.maskingKey, 0, 4);
+
+		// Validate the frame
+		switch (this.opcode) {
+		case CLOSE:
+		case PING:
+		case PONG:
+			if ((!this.isFinal) || (length > MAX_CONTROL_PAYLOAD_LENGTH)) {
+				throw new WebSocketException(WebSocketException.PROTOCOL_ERROR, "Invalid control frame");
+			}
+			break;
+
+		case TEXT:
+		case BINARY:
+			if (this.messageOpcode >= 0) {
+				throw new WebSocketException(WebSocketException.PROTOCOL_ERROR, "Expecting continuation frame");
+			}
+			this.messageOpcode = this.opcode;
+			this.messageLength = 0;
+			this.ensureMessageCapacity(length);
+			break;
+
+		case CONTINUATION:
+			if (this.messageOpcode < 0) {
+				throw new WebSocketException(WebSocketException.PROTOCOL_ERROR, "No message to continue");
+			}
+			this.ensureMessageCapacity(length);
+			break;
+
+		default:
+			throw new WebSocketException(WebSocketException.PROTOCOL_ERROR, "Unknown opcode " + this.opcode);
+		}
+
+		// Start reading the payload
+		this.payloadLength = length;
+		this.payloadRead = 0;
+	}
+
+	/**
+	 * Ensures capacity for the message data.
+	 *
+	 * @param length Length of the frame payload to add to the message.
+	 * @throws WebSocketException If message too big.
+	 */
+	private void ensureMessageCapacity(long length) throws WebSocketException {
+		if (length > (this.maxMessageLength - this.messageLength)) {
+			throw new WebSocketException(WebSocketException.MESSAGE_TOO_BIG,
+					"Message exceeds maximum length " + this.maxMessageLength);
+		}
+		int required = this.messageLength + (int) length;
+		if (required > this.messageData.length) {
+			int capacity = (int) Math.min(Math.max(required, this.messageData.length * 2L), this.maxMessageLength);
+			this.messageData = Arrays.copyOf(this.messageData, capacity);
+		}
+	}
+
+	/**
+	 * Handles the read frame.
+	 *
+	 * @throws WebSocketException If invalid frame.
+	 */
+	private void handleFrame() throws WebSocketException {
+		int length = (int) this.payloadRead;
+		switch (this.opcode) {
+		case PING:
+			// Reply with pong containing the same payload
+			this.writeFrame(PONG, Arrays.copyOf(this.controlPayload, length), 0, length);
+			return;
+
+		case PONG:
+			// Data received, so connection alive
+			return;
+
+		case CLOSE:
+			// Validate the status code
+			if (length == 1) {
+				throw new WebSocketException(WebSocketException.PROTOCOL_ERROR, "Invalid close payload");
+			}
+			int statusCode = (length == 0) ? -1
+					: ((this.controlPayload[0] & 0xff) << 8) | (this.controlPayload[1] & 0xff);
+			if ((length > 0) && (!isValidStatusCode(statusCode))) {
+				throw new WebSocketException(WebSocketException.PROTOCOL_ERROR, "Invalid close status code");
+			}
+
+			// Reply to close (if not initiated by server) and close connection
+			if (!this.isCloseSent) {
+				this.writeClose(statusCode);
+			}
+			this.terminate();
+			return;
+		}
+
+		// Determine if message complete
+		if (!this.isFinal) {
+			return; // await further fragments
+		}
+
+		// Obtain the message
+		byte[] data = Arrays.copyOf(this.messageData, this.messageLength);
+		String text = null;
+		if (this.messageOpcode == TEXT) {
+			try {
+				text = this.textDecoder.decode(ByteBuffer.wrap(data)).toString();
+			} catch (CharacterCodingException ex) {
+				throw new WebSocketException(WebSocketException.INVALID_PAYLOAD_DATA, "Text message not UTF-8");
+			}
+		}
+		this.messageOpcode = -1;
+		this.messageLength = 0;
+
+		// Service the message
+		this.servicingMessage = new ReceivedWebSocketMessage(this, text, data);
+		this.requestHandler.handleRequest(this.request);
+	}
+
+	/**
+	 * Determines if valid status code received in a close frame.
+	 *
+	 * @param statusCode Status code.
+	 * @return <code>true</code> if valid status code.
+	 */
+	private static boolean isValidStatusCode(int statusCode) {
+		if ((statusCode >= 3000) && (statusCode <= 4999)) {
+			return true; // registered and private use
+		}
+		switch (statusCode) {
+		case 1000:
+		case 1001:
+		case 1002:
+		case 1003:
+		case 1007:
+		case 1008:
+		case 1009:
+		case 1010:
+		case 1011:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Fails the connection.
+	 *
+	 * @param statusCode Close status code.
+	 */
+	private void fail(int statusCode) {
+		if (!this.isCloseSent) {
+			this.writeClose(statusCode);
+		}
+		this.terminate();
+	}
+
+	/**
+	 * Writes the frames and closes the connection.
+	 */
+	private void terminate() {
+		this.flush();
+		this.release();
+		this.requestHandler.closeConnection(null);
+	}
+
+	/**
+	 * Writes the frames and completes the finished requests (in order).
+	 */
+	private void flush() {
+
+		// Ignore if closed
+		if (this.isClosed) {
+			return;
+		}
+
+		// Write the frames
+		if (this.outputHead != null) {
+
+			// Ensure have request to write the frames
+			if (this.head == null) {
+				this.servicingMessage = null;
+				this.requestHandler.handleRequest(this.request);
+			}
+
+			// Write the frames
+			StreamBuffer<ByteBuffer> frames = this.outputHead;
+			this.outputHead = null;
+			this.outputTail = null;
+			this.head.responseWriter.write(null, frames, false);
+		}
+
+		// Complete the requests in order
+		while ((this.head != null) && (this.head.isComplete())) {
+			WebSocketRequest complete = this.head;
+			this.head = this.head.next;
+			if (this.head == null) {
+				this.tail = null;
+			}
+			complete.responseWriter.write(null, null, true);
+		}
+	}
+
+	/**
+	 * Writes a close frame.
+	 *
+	 * @param statusCode Close status code. Negative for no status code.
+	 */
+	private void writeClose(int statusCode) {
+		StreamBuffer<ByteBuffer> frame = this.writeFrameHeader(CLOSE, (statusCode < 0) ? 0 : 2);
+		if (statusCode >= 0) {
+			frame = StreamBuffer.writeByte((byte) (statusCode >>> 8), frame, this.bufferPool);
+			StreamBuffer.writeByte((byte) statusCode, frame, this.bufferPool);
+		}
+		this.isCloseSent = true;
+	}
+
+	/**
+	 * Writes a frame (unmasked, as from server).
+	 *
+	 * @param opcode  Opcode.
+	 * @param payload Payload.
+	 * @param offset  Offset into the payload.
+	 * @param length  Length of the payload.
+	 */
+	private void writeFrame(int opcode, byte[] payload, int offset, int length) {
+
+		// Write the frame header
+		StreamBuffer<ByteBuffer> frame = this.writeFrameHeader(opcode, length);
+
+		// Write the payload
+		if (opcode >= CLOSE) {
+			// Small control payload, so include with header
+			StreamBuffer.write(payload, offset, length, frame, this.bufferPool);
+
+		} else if (length > 0) {
+			// Message payload written without copying (tracking once written)
+			this.appendOutput(new PendingOutputStreamBuffer(ByteBuffer.wrap(payload, offset, length)));
+		}
+	}
+
+	/**
+	 * Writes the frame header into a pooled {@link StreamBuffer} appended to the
+	 * output.
+	 *
+	 * @param opcode Opcode.
+	 * @param length Length of the payload.
+	 * @return {@link StreamBuffer} to continue writing the frame.
+	 */
+	private StreamBuffer<ByteBuffer> writeFrameHeader(int opcode, int length) {
+		StreamBuffer<ByteBuffer> frame = this.bufferPool.getPooledStreamBuffer();
+		this.appendOutput(frame);
+		frame = StreamBuffer.writeByte((byte) (0x80 | opcode), frame, this.bufferPool);
+		if (length <= MAX_CONTROL_PAYLOAD_LENGTH) {
+			frame = StreamBuffer.writeByte((byte) length, frame, this.bufferPool);
+		} else if (length <= 0xffff) {
+			frame = StreamBuffer.writeByte((byte) 126, frame, this.bufferPool);
+			frame = StreamBuffer.writeByte((byte) (length >>> 8), frame, this.bufferPool);
+			frame = StreamBuffer.writeByte((byte) length, frame, this.bufferPool);
+		} else {
+			frame = StreamBuffer.writeByte((byte) 127, frame, this.bufferPool);
+			for (int i = 0; i < 8; i++) {
+				frame = StreamBuffer.writeByte((byte) (((long) length) >>> (56 - (i * 8))), frame, this.bufferPool);
+			}
+		}
+		return frame;
+	}
+
+	/**
+	 * Appends the {@link StreamBuffer} to the output.
+	 *
+	 * @param buffer {@link StreamBuffer}.
+	 */
+	private void appendOutput(StreamBuffer<ByteBuffer> buffer) {
+
+		// Include with the output
+		if (this.outputHead == null) {
+			this.outputHead = buffer;
+		} else {
+			this.outputTail.next = buffer;
+		}
+
+		// Track the tail (as may be linked list of buffers)
+		while (buffer.next != null) {
+			buffer = buffer.next;
+		}
+		this.outputTail = buffer;
+	}
+
+	/**
+	 * Queues sending the message, ensuring the pending output is within limits.
+	 *
+	 * @param opcode Opcode of the message.
+	 * @param data   Data of the message.
+	 */
+	private void queueSend(int opcode, byte[] data) {
+
+		// Determine if client not consuming the messages
+		if (this.pendingOutput.addAndGet(data.length) > this.maxPendingOutput) {
+			this.pendingOutput.addAndGet(-data.length);
+			this.requestHandler.execute(() -> {
+				if (!this.isClosed) {
+					this.fail(WebSocketException.POLICY_VIOLATION);
+				}
+			});
+			return;
+		}
+
+		// Send the message on the socket thread
+		this.requestHandler.execute(new Execution() {
+
+			@Override
+			public void run() {
+				WebSocketConnection.this.send(opcode, data);
+			}
+
+			@Override
+			public void release() {
+				WebSocketConnection.this.pendingOutput.addAndGet(-data.length);
+			}
+		});
+	}
+
+	/**
+	 * Sends the message.
+	 *
+	 * @param opcode Opcode of the message.
+	 * @param data   Data of the message.
+	 */
+	private void send(int opcode, byte[] data) {
+
+		// Ignore if closing (no further messages)
+		if ((this.isClosed) || (this.isCloseSent)) {
+			this.pendingOutput.addAndGet(-data.length);
+			return;
+		}
+
+		// Send the message
+		this.writeFrame(opcode, data, 0, data.length);
+		this.flush();
+	}
+
+	/**
+	 * {@link StreamBuffer} for the payload of a sent message, that on being
+	 * released (written or discarded) is no longer pending output.
+	 */
+	private class PendingOutputStreamBuffer extends StreamBuffer<ByteBuffer> {
+
+		/**
+		 * Length of the payload.
+		 */
+		private final int length;
+
+		/**
+		 * Instantiate.
+		 *
+		 * @param payload {@link ByteBuffer} to the payload.
+		 */
+		private PendingOutputStreamBuffer(ByteBuffer payload) {
+			super(null, payload, null);
+			this.length = payload.remaining();
+		}
+
+		/*
+		 * =================== StreamBuffer ======================
+		 */
+
+		@Override
+		public boolean write(byte datum) {
+			throw new IllegalStateException(this.getClass().getSimpleName() + " is unpooled");
+		}
+
+		@Override
+		public int write(byte[] data, int offset, int length) {
+			throw new IllegalStateException(this.getClass().getSimpleName() + " is unpooled");
+		}
+
+		@Override
+		public void release() {
+			WebSocketConnection.this.pendingOutput.addAndGet(-this.length);
+		}
+	}
+
+	/**
+	 * Releases the content.
+	 *
+	 * @param content Head {@link StreamBuffer} of content. May be
+	 *                <code>null</code>.
+	 */
+	static void releaseContent(StreamBuffer<ByteBuffer> content) {
+		while (content != null) {
+			StreamBuffer<ByteBuffer> release = content;
+			content = content.next;
+
+			// Notify file not written
+			FileBuffer file = release.fileBuffer;
+			if (file != null) {
+				FileCompleteCallback callback = file.callback;
+				if (callback != null) {
+					try {
+						callback.complete(file.file, false);
+					} catch (IOException ex) {
+						// Ignore failure, as discarding
+					}
+				}
+			}
+			release.release();
+		}
+	}
+
+	/*
+	 * ======================== WebSocket ===========================
+	 */
+
+	@Override
+	public void sendText(String text) {
+		this.queueSend(TEXT, text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public void sendBinary(byte[] data) {
+		this.queueSend(BINARY, data);
+	}
+
+	@Override
+	public void close() {
+		this.requestHandler.execute(() -> {
+			if ((!this.isClosed) && (!this.isCloseSent)) {
+				this.writeClose(WebSocketException.NORMAL_CLOSURE);
+				this.flush();
+			}
+		});
+	}
+
+}
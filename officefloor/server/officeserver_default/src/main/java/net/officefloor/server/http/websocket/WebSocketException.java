@@ -0,0 +1,91 @@
+/*-
+ * #%L
+ * Default OfficeFloor HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.server.http.websocket;
+
+/**
+ * WebSocket protocol failure.
+ *
+ * @author Daniel Sagenschneider
+ */
+public class WebSocketException extends Exception {
+
+	/**
+	 * Default serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Normal closure status code.
+	 */
+	public static final int NORMAL_CLOSURE = 1000;
+
+	/**
+	 * Protocol error status code.
+	 */
+	public static final int PROTOCOL_ERROR = 1002;
+
+	/**
+	 * Invalid frame payload data status code (e.g. text not UTF-8).
+	 */
+	public static final int INVALID_PAYLOAD_DATA = 1007;
+
+	/**
+	 * Policy violation status code (e.g. client not consuming sent messages).
+	 */
+	public static final int POLICY_VIOLATION = 1008;
+
+	/**
+	 * Message too big status code.
+	 */
+	public static final int MESSAGE_TOO_BIG = 1009;
+
+	/**
+	 * Internal error status code.
+	 */
+	public static final int INTERNAL_ERROR = 1011;
+
+	/**
+	 * Close status code.
+	 */
+	private final int statusCode;
+
+	/**
+	 * Instantiate.
+	 *
+	 * @param statusCode Close status code.
+	 * @param message    Message.
+	 */
+	public WebSocketException(int statusCode, String message) {
+		super(message);
+		this.statusCode = statusCode;
+	}
+
+	/**
+	 * Obtains the close status code.
+	 *
+	 * @return Close status code.
+	 */
+	public int getStatusCode() {
+		return this.statusCode;
+	}
+
+}
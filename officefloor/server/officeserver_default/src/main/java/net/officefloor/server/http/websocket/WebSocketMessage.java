@@ -0,0 +1,60 @@
+/*-
+ * #%L
+ * Default OfficeFloor HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.server.http.websocket;
+
+/**
+ * Message received on a {@link WebSocket}.
+ *
+ * @author Daniel Sagenschneider
+ */
+public interface WebSocketMessage {
+
+	/**
+	 * Obtains the {@link WebSocket} that received the message.
+	 *
+	 * @return {@link WebSocket} to send messages in reply.
+	 */
+	WebSocket getWebSocket();
+
+	/**
+	 * Indicates if a text message.
+	 *
+	 * @return <code>true</code> if text message. <code>false</code> if binary
+	 *         message.
+	 */
+	boolean isText();
+
+	/**
+	 * Obtains the text of the message.
+	 *
+	 * @return Text of the message. <code>null</code> if binary message.
+	 */
+	String getText();
+
+	/**
+	 * Obtains the data of the message.
+	 *
+	 * @return Data of the message (UTF-8 encoded for text messages).
+	 */
+	byte[] getData();
+
+}
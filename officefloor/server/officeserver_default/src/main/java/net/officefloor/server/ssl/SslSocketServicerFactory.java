@@ -22,13 +22,14 @@
 package net.officefloor.server.ssl;
 
 import java.io.IOException;
+import java.lang.reflect.Method;
 import java.net.Socket;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -37,6 +38,7 @@ import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLEngineResult;
 import javax.net.ssl.SSLEngineResult.HandshakeStatus;
 import javax.net.ssl.SSLEngineResult.Status;
+import javax.net.ssl.SSLParameters;
 import javax.net.ssl.SSLSession;
 
 import net.officefloor.frame.api.manage.ProcessManager;
@@ -52,9 +54,16 @@ import net.officefloor.server.stream.BufferJvmFix;
 import net.officefloor.server.stream.StreamBuffer;
 import net.officefloor.server.stream.StreamBuffer.FileBuffer;
 import net.officefloor.server.stream.StreamBufferPool;
+import net.officefloor.server.stream.impl.ThreadLocalStreamBufferPool;
 
 /**
  * SSL {@link SocketServicerFactory}.
+ * <p>
+ * All SSL processing of a connection is undertaken on its {@link Socket}
+ * listener {@link Thread} (with only the delegated {@link SSLEngine} tasks run
+ * on the {@link Executor}), so no locking is required. Wrapping and unwrapping
+ * is to/from pooled {@link StreamBuffer} instances sized to the SSL packet to
+ * avoid allocations per record.
  * 
  * @author Daniel Sagenschneider
  */
@@ -65,6 +74,39 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 	 */
 	private static final Logger LOGGER = Logger.getLogger(SslSocketServicerFactory.class.getName());
 
+	/**
+	 * <code>SSLParameters.setApplicationProtocols(String[])</code> for ALPN.
+	 * <code>null</code> if ALPN not available on the JVM.
+	 */
+	private static final Method SET_APPLICATION_PROTOCOLS;
+
+	static {
+		Method setApplicationProtocols = null;
+		try {
+			setApplicationProtocols = SSLParameters.class.getMethod("setApplicationProtocols", String[].class);
+		} catch (NoSuchMethodException ex) {
+			// ALPN not available
+		}
+		SET_APPLICATION_PROTOCOLS = setApplicationProtocols;
+	}
+
+	/**
+	 * Maximum number of SSL packet {@link StreamBuffer} instances pooled per
+	 * {@link Thread}.
+	 */
+	private static final int PACKET_BUFFER_THREAD_POOL_SIZE = 64;
+
+	/**
+	 * Maximum number of SSL packet {@link StreamBuffer} instances pooled across
+	 * {@link Thread} instances.
+	 */
+	private static final int PACKET_BUFFER_CORE_POOL_SIZE = 1024;
+
+	/**
+	 * No application data for wrapping handshake data.
+	 */
+	private static final ByteBuffer NO_APPLICATION_DATA = ByteBuffer.allocate(0);
+
 	/**
 	 * {@link SSLContext}.
 	 */
@@ -86,10 +128,32 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 	private final StreamBufferPool<ByteBuffer> bufferPool;
 
 	/**
-	 * {@link Executor}.
+	 * {@link StreamBufferPool} of {@link StreamBuffer} instances large enough to
+	 * contain a SSL packet (or its application data).
+	 */
+	private final StreamBufferPool<ByteBuffer> packetBufferPool;
+
+	/**
+	 * {@link Executor}. May be <code>null</code>.
 	 */
 	private final Executor executor;
 
+	/**
+	 * Application protocols to negotiate via ALPN. <code>null</code> to not
+	 * negotiate.
+	 */
+	private final String[] applicationProtocols;
+
+	/**
+	 * Number of completed handshakes.
+	 */
+	private final LongAdder handshakeCount = new LongAdder();
+
+	/**
+	 * Number of completed handshakes resuming a previous {@link SSLSession}.
+	 */
+	private final LongAdder resumedHandshakeCount = new LongAdder();
+
 	/**
 	 * Instantiate.
 	 * 
@@ -103,11 +167,69 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 	public SslSocketServicerFactory(SSLContext sslContext, SocketServicerFactory<R> delegateSocketServicerFactory,
 			RequestServicerFactory<R> delegateRequestServicerFactory, StreamBufferPool<ByteBuffer> bufferPool,
 			Executor executor) {
+		this(sslContext, delegateSocketServicerFactory, delegateRequestServicerFactory, bufferPool, executor, null);
+	}
+
+	/**
+	 * Instantiate.
+	 * 
+	 * @param sslContext                     {@link SSLContext}.
+	 * @param delegateSocketServicerFactory  Delegate {@link SocketServicerFactory}.
+	 * @param delegateRequestServicerFactory Delegate
+	 *                                       {@link RequestServicerFactory}.
+	 * @param bufferPool                     {@link StreamBufferPool}.
+	 * @param executor                       {@link Executor} to run the
+	 *                                       delegated {@link SSLEngine} tasks.
+	 *                                       May be <code>null</code> to run them
+	 *                                       on the {@link Socket} listener
+	 *                                       {@link Thread}.
+	 * @param applicationProtocols           Application protocols (in order of
+	 *                                       preference) to negotiate via ALPN (eg
+	 *                                       <code>h2</code>). <code>null</code> to
+	 *                                       not negotiate. Ignored if the JVM does
+	 *                                       not support ALPN.
+	 */
+	public SslSocketServicerFactory(SSLContext sslContext, SocketServicerFactory<R> delegateSocketServicerFactory,
+			RequestServicerFactory<R> delegateRequestServicerFactory, StreamBufferPool<ByteBuffer> bufferPool,
+			Executor executor, String[] applicationProtocols) {
 		this.sslContext = sslContext;
 		this.delegateSocketServicerFactory = delegateSocketServicerFactory;
 		this.delegateRequestServicerFactory = delegateRequestServicerFactory;
 		this.bufferPool = bufferPool;
 		this.executor = executor;
+		this.applicationProtocols = applicationProtocols;
+
+		// Create the pool of buffers large enough for SSL packets
+		SSLSession session = sslContext.createSSLEngine().getSession();
+		int packetBufferSize = Math.max(session.getPacketBufferSize(), session.getApplicationBufferSize());
+		this.packetBufferPool = new ThreadLocalStreamBufferPool(() -> ByteBuffer.allocateDirect(packetBufferSize),
+				PACKET_BUFFER_THREAD_POOL_SIZE, PACKET_BUFFER_CORE_POOL_SIZE);
+	}
+
+	/**
+	 * Obtains the number of completed handshakes (including resumed handshakes).
+	 * 
+	 * @return Number of completed handshakes.
+	 */
+	public long getHandshakeCount() {
+		return this.handshakeCount.sum();
+	}
+
+	/**
+	 * <p>
+	 * Obtains the number of completed handshakes that resumed a previous
+	 * {@link SSLSession} (avoiding the full key exchange).
+	 * <p>
+	 * A handshake is resumed when it establishes a {@link SSLSession} created
+	 * before the connection was accepted. This is reliable for TLS 1.2 session
+	 * resumption (where the cached {@link SSLSession} is re-used). For TLS 1.3,
+	 * whether a pre-shared key resumption re-uses the {@link SSLSession}
+	 * depends on the JSSE implementation, so the count may not include them.
+	 * 
+	 * @return Number of resumed handshakes.
+	 */
+	public long getResumedHandshakeCount() {
+		return this.resumedHandshakeCount.sum();
 	}
 
 	/*
@@ -121,16 +243,31 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 		SSLEngine engine = this.sslContext.createSSLEngine();
 		engine.setUseClientMode(false); // server mode
 
+		// Negotiate the application protocol (if available)
+		if ((this.applicationProtocols != null) && (SET_APPLICATION_PROTOCOLS != null)) {
+			try {
+				SSLParameters parameters = engine.getSSLParameters();
+				SET_APPLICATION_PROTOCOLS.invoke(parameters, (Object) this.applicationProtocols);
+				engine.setSSLParameters(parameters);
+			} catch (Exception ex) {
+				LOGGER.log(Level.WARNING, "Unable to negotiate application protocols", ex);
+			}
+		}
+
 		// Create the delegate socket servicer
+		SslRequestHandler<R> sslRequestHandler = new SslRequestHandler<>(requestHandler);
 		SocketServicer<R> delegateSocketServicer = this.delegateSocketServicerFactory
-				.createSocketServicer(requestHandler);
+				.createSocketServicer(sslRequestHandler);
 
 		// Create the delegate request servicer
 		RequestServicer<R> delegateRequestServicer = this.delegateRequestServicerFactory
 				.createRequestServicer(delegateSocketServicer);
 
 		// Return the SSL socket servicer
-		return new SslSocketServicer(engine, requestHandler, delegateSocketServicer, delegateRequestServicer);
+		SslSocketServicer sslSocketServicer = new SslSocketServicer(engine, requestHandler, delegateSocketServicer,
+				delegateRequestServicer);
+		sslRequestHandler.sslSocketServicer = sslSocketServicer;
+		return sslSocketServicer;
 	}
 
 	/*
@@ -153,6 +290,12 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 		 */
 		private final SSLEngine engine;
 
+		/**
+		 * Time the connection was accepted, to identify resumed
+		 * {@link SSLSession} instances (created earlier).
+		 */
+		private final long acceptTime = System.currentTimeMillis();
+
 		/**
 		 * {@link RequestHandler}.
 		 */
@@ -172,12 +315,20 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 		 * {@link ByteBuffer} instances containing the read data from the {@link Socket}
 		 * to be unwrapped to the application.
 		 */
-		private final Deque<ByteBuffer> socketToUnwrapBuffers = new LinkedList<>();
+		private final Deque<ByteBuffer> socketToUnwrapBuffers = new ArrayDeque<>();
 
 		/**
-		 * Limit of the current {@link Socket} data to unwrap {@link ByteBuffer}.
+		 * {@link ByteBuffer} providing the view on the current {@link Socket} read
+		 * {@link StreamBuffer}.
 		 */
-		private int currentSocketToUnwrapLimit = 0;
+		private ByteBuffer currentSocketReadBuffer = null;
+
+		/**
+		 * Pooled {@link StreamBuffer} combining the {@link Socket} data for a SSL
+		 * packet spanning read {@link StreamBuffer} instances. <code>null</code> if
+		 * not combining.
+		 */
+		private StreamBuffer<ByteBuffer> combinedSocketBuffer = null;
 
 		/**
 		 * {@link StreamBuffer} instance containing the unwrap to application data.
@@ -190,6 +341,13 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 		 */
 		private StreamBuffer<ByteBuffer> previousRequestBuffers = null;
 
+		/**
+		 * Unwrap to application {@link StreamBuffer} shared with the previous
+		 * request. This {@link StreamBuffer} may only be released with the current
+		 * request.
+		 */
+		private StreamBuffer<ByteBuffer> sharedRequestBuffer = null;
+
 		/**
 		 * {@link StreamBuffer} instance containing the application to wrap data.
 		 */
@@ -198,7 +356,7 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 		/**
 		 * Active {@link SslRequest} instances in order.
 		 */
-		private final List<SslRequest> sslRequests = new LinkedList<>();
+		private final Deque<SslRequest> sslRequests = new ArrayDeque<>();
 
 		/**
 		 * Current {@link SslRunnable} being run.
@@ -231,34 +389,58 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 		 */
 
 		@Override
-		public synchronized void service(StreamBuffer<ByteBuffer> readBuffer, long bytesRead, boolean isNewBuffer) {
+		public void service(StreamBuffer<ByteBuffer> readBuffer, long bytesRead, boolean isNewBuffer) {
 
 			// Include the read data
-			ByteBuffer buffer = readBuffer.pooledBuffer.duplicate();
-			BufferJvmFix.flip(buffer);
-			if (!isNewBuffer) {
-				// Same buffer, so add just the new data
-				BufferJvmFix.position(buffer, this.currentSocketToUnwrapLimit);
-			}
-
-			// Set the limit after the newly read data
-			this.currentSocketToUnwrapLimit = BufferJvmFix.limit(buffer);
+			if ((isNewBuffer) || (this.currentSocketReadBuffer == null)) {
+				// New buffer, so create view on its data
+				this.currentSocketReadBuffer = readBuffer.pooledBuffer.duplicate();
+				BufferJvmFix.flip(this.currentSocketReadBuffer);
+				this.socketToUnwrapBuffers.add(this.currentSocketReadBuffer);
+
+			} else {
+				// Same buffer, so determine if unwrapped all previous data
+				ByteBuffer buffer = this.currentSocketReadBuffer;
+				if (this.socketToUnwrapBuffers.peekLast() != buffer) {
+					// Add just the new data
+					BufferJvmFix.position(buffer, BufferJvmFix.limit(buffer));
+					this.socketToUnwrapBuffers.add(buffer);
+				}
 
-			// Add to the data to be processed
-			this.socketToUnwrapBuffers.add(buffer);
+				// Extend to include the newly read data
+				BufferJvmFix.limit(buffer, BufferJvmFix.position(readBuffer.pooledBuffer));
+			}
 
 			// Process (with handshake data written immediately)
-			this.process(null);
+			this.process(null, true);
 		}
 
 		@Override
-		public synchronized void release() {
+		public void heartbeat(long currentTime) {
+			this.delegateSocketServicer.heartbeat(currentTime);
+		}
+
+		@Override
+		public void release() {
 
 			// Release buffers
 			if (this.currentUnwrapToAppBuffer != null) {
 				this.currentUnwrapToAppBuffer.release();
 				this.currentUnwrapToAppBuffer = null;
 			}
+			if (this.combinedSocketBuffer != null) {
+				this.combinedSocketBuffer.release();
+				this.combinedSocketBuffer = null;
+			}
+			releaseBuffers(this.previousRequestBuffers);
+			this.previousRequestBuffers = null;
+			for (SslRequest sslRequest : this.sslRequests) {
+				releaseBuffers(sslRequest.releaseRequestBuffers);
+				sslRequest.releaseRequestBuffers = null;
+			}
+
+			// Release the delegate
+			this.delegateSocketServicer.release();
 		}
 
 		/*
@@ -266,99 +448,171 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 		 */
 
 		@Override
-		public synchronized ProcessManager service(R request, ResponseWriter responseWriter) {
+		public ProcessManager service(R request, ResponseWriter responseWriter) {
 
 			// Create and register the SSL request
 			final SslRequest sslRequest = new SslRequest(this.previousRequestBuffers, responseWriter);
 			this.sslRequests.add(sslRequest);
 			this.previousRequestBuffers = null; // included for release
+			this.sharedRequestBuffer = this.currentUnwrapToAppBuffer;
 
 			// Application level request, so delegate
-			return this.delegateRequestServicer.service(request, (responseHeaderWriter, headResponseBuffer) -> {
+			return this.delegateRequestServicer.service(request, new ResponseWriter() {
+
+				@Override
+				public void write(ResponseHeaderWriter responseHeaderWriter, StreamBuffer<ByteBuffer> headResponseBuffer,
+						boolean isComplete) {
+					SslSocketServicer.this.writeResponse(sslRequest, responseHeaderWriter, headResponseBuffer,
+							isComplete);
+				}
+			});
+		}
 
-				// Process request on socket thread
-				this.requestHandler.execute(() -> {
+		/**
+		 * Writes the response for the {@link SslRequest}.
+		 * 
+		 * @param sslRequest           {@link SslRequest}.
+		 * @param responseHeaderWriter {@link ResponseHeaderWriter}. May be
+		 *                             <code>null</code>.
+		 * @param headResponseBuffer   Head {@link StreamBuffer} of the linked list of
+		 *                             {@link StreamBuffer} instances for the response.
+		 * @param isComplete           Indicates if last write of the response.
+		 */
+		private void writeResponse(SslRequest sslRequest, ResponseHeaderWriter responseHeaderWriter,
+				StreamBuffer<ByteBuffer> headResponseBuffer, boolean isComplete) {
 
-					// Process the response
-					synchronized (SslSocketServicer.this) {
+			// Process request on socket thread (so no locking required)
+			this.requestHandler.execute(new Execution() {
 
-						// Register the response for request
-						sslRequest.responseHeaderWriter = responseHeaderWriter;
-						sslRequest.headResponseBuffer = headResponseBuffer;
+				@Override
+				public void release() {
 
-						// Process SSL responses in order
-						Iterator<SslRequest> iterator = this.sslRequests.iterator();
-						while (iterator.hasNext()) {
-							SslRequest completeRequest = iterator.next();
+					// Not run (e.g. shutdown), so release the response buffers
+					StreamBuffer<ByteBuffer> releaseHead = headResponseBuffer;
+					while (releaseHead != null) {
+						StreamBuffer<ByteBuffer> release = releaseHead;
+						releaseHead = releaseHead.next;
+						release.release();
+					}
+				}
 
-							// Determine if request is complete
-							if ((completeRequest.responseHeaderWriter == null)
-									&& (completeRequest.headResponseBuffer == null)) {
-								return; // request not complete
-							}
+				@Override
+				public void run() throws Throwable {
+					SslSocketServicer.this.unsafeWriteResponse(sslRequest, responseHeaderWriter, headResponseBuffer,
+							isComplete);
+				}
+			});
+		}
 
-							// Remove the request, as complete
-							iterator.remove();
+		/**
+		 * {@link Thread} unsafe writes the response for the {@link SslRequest}.
+		 * 
+		 * @param sslRequest           {@link SslRequest}.
+		 * @param responseHeaderWriter {@link ResponseHeaderWriter}. May be
+		 *                             <code>null</code>.
+		 * @param headResponseBuffer   Head {@link StreamBuffer} of the linked list of
+		 *                             {@link StreamBuffer} instances for the response.
+		 * @param isComplete           Indicates if last write of the response.
+		 */
+		private void unsafeWriteResponse(SslRequest sslRequest, ResponseHeaderWriter responseHeaderWriter,
+				StreamBuffer<ByteBuffer> headResponseBuffer, boolean isComplete) {
 
-							// Release the previous request buffers
-							StreamBuffer<ByteBuffer> releaseHead = completeRequest.releaseRequestBuffers;
-							while (releaseHead != null) {
-								StreamBuffer<ByteBuffer> release = releaseHead;
-								releaseHead = releaseHead.next;
+			// Register the response for request (appending streamed content)
+			if (responseHeaderWriter != null) {
+				sslRequest.responseHeaderWriter = responseHeaderWriter;
+			}
+			if (sslRequest.headResponseBuffer == null) {
+				sslRequest.headResponseBuffer = headResponseBuffer;
+			} else {
+				StreamBuffer<ByteBuffer> responseTail = sslRequest.headResponseBuffer;
+				while (responseTail.next != null) {
+					responseTail = responseTail.next;
+				}
+				responseTail.next = headResponseBuffer;
+			}
+			sslRequest.isComplete = isComplete;
 
-								// Release
-								release.release();
-							}
+			// Process SSL responses in order
+			Iterator<SslRequest> iterator = this.sslRequests.iterator();
+			while (iterator.hasNext()) {
+				SslRequest completeRequest = iterator.next();
 
-							// Include header information
-							StreamBuffer<ByteBuffer> responseHead = null;
-							if (completeRequest.responseHeaderWriter != null) {
-								responseHead = SslSocketServicerFactory.this.bufferPool.getPooledStreamBuffer();
-								completeRequest.responseHeaderWriter.write(responseHead,
-										SslSocketServicerFactory.this.bufferPool);
-							}
+				// Determine if request has response
+				if ((completeRequest.responseHeaderWriter == null)
+						&& (completeRequest.headResponseBuffer == null) && (!completeRequest.isComplete)) {
+					return; // request not complete
+				}
 
-							// Append the response buffers
-							if (responseHead == null) {
-								// Only response buffers (no header)
-								responseHead = completeRequest.headResponseBuffer;
-							} else {
-								// Append response buffers to header
-								StreamBuffer<ByteBuffer> responseTail = responseHead;
-								while (responseTail.next != null) {
-									responseTail = responseTail.next;
-								}
-								responseTail.next = completeRequest.headResponseBuffer;
-							}
+				// Remove the request, only once complete
+				if (completeRequest.isComplete) {
+					iterator.remove();
 
-							// Prepare the response buffers for writing
-							StreamBuffer<ByteBuffer> buffer = responseHead;
-							while (buffer != null) {
-								if (buffer.pooledBuffer != null) {
-									BufferJvmFix.flip(buffer.pooledBuffer);
-								}
-								buffer = buffer.next;
-							}
+					// Release the previous request buffers
+					releaseBuffers(completeRequest.releaseRequestBuffers);
+					completeRequest.releaseRequestBuffers = null;
+				}
 
-							// Include the response
-							if (this.currentAppToWrapBuffer == null) {
-								// Only response to wrap
-								this.currentAppToWrapBuffer = responseHead;
-							} else {
-								// Add to existing responses
-								StreamBuffer<ByteBuffer> responseTail = this.currentAppToWrapBuffer;
-								while (responseTail.next != null) {
-									responseTail = responseTail.next;
-								}
-								responseTail.next = responseHead;
-							}
+				// Include header information
+				StreamBuffer<ByteBuffer> responseHead = null;
+				if (completeRequest.responseHeaderWriter != null) {
+					responseHead = SslSocketServicerFactory.this.bufferPool.getPooledStreamBuffer();
+					completeRequest.responseHeaderWriter.write(responseHead,
+							SslSocketServicerFactory.this.bufferPool);
+					completeRequest.responseHeaderWriter = null; // only write once
+				}
 
-							// Write the response
-							this.process(completeRequest.responseWriter);
-						}
+				// Append the response buffers
+				if (responseHead == null) {
+					// Only response buffers (no header)
+					responseHead = completeRequest.headResponseBuffer;
+				} else {
+					// Append response buffers to header
+					StreamBuffer<ByteBuffer> responseTail = responseHead;
+					while (responseTail.next != null) {
+						responseTail = responseTail.next;
 					}
-				});
-			});
+					responseTail.next = completeRequest.headResponseBuffer;
+				}
+				completeRequest.headResponseBuffer = null; // taken for writing
+
+				// Prepare the response buffers for writing
+				StreamBuffer<ByteBuffer> buffer = responseHead;
+				while (buffer != null) {
+					if (buffer.pooledBuffer != null) {
+						BufferJvmFix.flip(buffer.pooledBuffer);
+					}
+					buffer = buffer.next;
+				}
+
+				// Determine if completing without further content
+				if (responseHead == null) {
+					if (completeRequest.isComplete) {
+						completeRequest.responseWriter.write(null, null, true);
+					}
+					continue; // nothing to wrap
+				}
+
+				// Include the response
+				if (this.currentAppToWrapBuffer == null) {
+					// Only response to wrap
+					this.currentAppToWrapBuffer = responseHead;
+				} else {
+					// Add to existing responses
+					StreamBuffer<ByteBuffer> responseTail = this.currentAppToWrapBuffer;
+					while (responseTail.next != null) {
+						responseTail = responseTail.next;
+					}
+					responseTail.next = responseHead;
+				}
+
+				// Write the response
+				this.process(completeRequest.responseWriter, completeRequest.isComplete);
+
+				// Further content to be streamed before next response
+				if (!completeRequest.isComplete) {
+					return; // awaiting further content
+				}
+			}
 		}
 
 		/*
@@ -366,16 +620,145 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 		 */
 
 		@Override
-		public synchronized void run() throws Throwable {
-			this.process(null);
+		public void run() throws Throwable {
+
+			// Delegated tasks complete (now back on socket thread)
+			SslRunnable completeRunnable = this.sslRunnable;
+			this.sslRunnable = null;
+			if ((completeRunnable != null) && (completeRunnable.failure != null)) {
+				this.failure = completeRunnable.failure;
+				this.requestHandler.closeConnection(this.failure);
+				return;
+			}
+
+			// Continue processing
+			this.process(null, true);
+		}
+
+		/**
+		 * Combines the {@link Socket} data for unwrapping a SSL packet spanning read
+		 * {@link StreamBuffer} instances.
+		 * 
+		 * @return {@link ByteBuffer} containing the combined {@link Socket} data.
+		 */
+		private ByteBuffer combineSocketToUnwrapBuffers() {
+
+			// Obtain the buffer to combine the data
+			ByteBuffer combined;
+			if (this.combinedSocketBuffer == null) {
+				// Use new pooled buffer
+				this.combinedSocketBuffer = SslSocketServicerFactory.this.packetBufferPool.getPooledStreamBuffer();
+				combined = this.combinedSocketBuffer.pooledBuffer;
+
+			} else {
+				// Keep remaining data, ready to append further data
+				combined = this.combinedSocketBuffer.pooledBuffer;
+				if (this.socketToUnwrapBuffers.peekFirst() == combined) {
+					this.socketToUnwrapBuffers.removeFirst();
+				}
+				combined.compact();
+			}
+
+			// Fill with the socket data (a SSL packet always fits)
+			while ((combined.hasRemaining()) && (this.socketToUnwrapBuffers.size() > 0)) {
+				ByteBuffer buffer = this.socketToUnwrapBuffers.peekFirst();
+				int remaining = combined.remaining();
+				if (buffer.remaining() <= remaining) {
+					// Combine all the data
+					combined.put(buffer);
+					this.socketToUnwrapBuffers.removeFirst();
+
+				} else {
+					// Combine only the data that fits
+					int limit = BufferJvmFix.limit(buffer);
+					BufferJvmFix.limit(buffer, BufferJvmFix.position(buffer) + remaining);
+					combined.put(buffer);
+					BufferJvmFix.limit(buffer, limit);
+				}
+			}
+
+			// Return the combined data for unwrapping
+			BufferJvmFix.flip(combined);
+			return combined;
+		}
+
+		/**
+		 * Retains the current unwrap to application {@link StreamBuffer} for release
+		 * on servicing the request.
+		 */
+		private void retainCurrentUnwrapToAppBuffer() {
+			if (this.previousRequestBuffers == null) {
+				// First previous for request
+				this.previousRequestBuffers = this.currentUnwrapToAppBuffer;
+			} else {
+				// Append previous for request
+				StreamBuffer<ByteBuffer> head = this.previousRequestBuffers;
+				while (head.next != null) {
+					head = head.next;
+				}
+				head.next = this.currentUnwrapToAppBuffer;
+			}
+			this.currentUnwrapToAppBuffer = null;
+		}
+
+		/**
+		 * Releases the unwrapped {@link StreamBuffer} instances of the request
+		 * currently being received, as their content has been consumed (e.g.
+		 * streamed entity).
+		 */
+		private void releaseReceivedRequestBuffers() {
+
+			// Release the consumed buffers (except shared with previous request)
+			StreamBuffer<ByteBuffer> buffer = this.previousRequestBuffers;
+			this.previousRequestBuffers = null;
+			while (buffer != null) {
+				StreamBuffer<ByteBuffer> release = buffer;
+				buffer = buffer.next;
+
+				// Retain the shared buffer
+				if (release == this.sharedRequestBuffer) {
+					release.next = null;
+					this.previousRequestBuffers = release;
+					continue;
+				}
+
+				// Must release buffer after released from chain
+				release.release();
+			}
+
+			// Release the socket buffers once all their data is unwrapped
+			for (ByteBuffer socketBuffer : this.socketToUnwrapBuffers) {
+				if ((socketBuffer != this.currentSocketReadBuffer) && ((this.combinedSocketBuffer == null)
+						|| (socketBuffer != this.combinedSocketBuffer.pooledBuffer))) {
+					return; // socket data still to be unwrapped
+				}
+			}
+			this.requestHandler.releaseReceivedRequestBuffers();
+		}
+
+		/**
+		 * Records the completion of a handshake.
+		 * 
+		 * @param sslEngineResult {@link SSLEngineResult}.
+		 */
+		private void recordHandshake(SSLEngineResult sslEngineResult) {
+			if (sslEngineResult.getHandshakeStatus() == HandshakeStatus.FINISHED) {
+				SslSocketServicerFactory.this.handshakeCount.increment();
+
+				// Resumed if session established before this connection
+				if (this.engine.getSession().getCreationTime() < this.acceptTime) {
+					SslSocketServicerFactory.this.resumedHandshakeCount.increment();
+				}
+			}
 		}
 
 		/**
 		 * Processes the data.
 		 * 
 		 * @param responseWriter {@link ResponseWriter} to use in sending the response.
+		 * @param isComplete     Indicates if completes the response.
 		 */
-		private void process(ResponseWriter responseWriter) {
+		private void process(ResponseWriter responseWriter, boolean isComplete) {
 
 			try {
 
@@ -415,10 +798,20 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 						break;
 
 					case NEED_TASK:
-						// Trigger processing of the delegated task
-						this.sslRunnable = new SslRunnable(this.engine.getDelegatedTask(), this);
-						SslSocketServicerFactory.this.executor.execute(this.sslRunnable);
-						return; // Must wait on task to complete
+						// Determine if run delegated tasks on socket thread
+						Executor executor = SslSocketServicerFactory.this.executor;
+						if (executor == null) {
+							Runnable task;
+							while ((task = this.engine.getDelegatedTask()) != null) {
+								task.run();
+							}
+							continue; // carry on processing
+						}
+
+						// Trigger processing of the delegated tasks
+						this.sslRunnable = new SslRunnable(this);
+						executor.execute(this.sslRunnable);
+						return; // Must wait on tasks to complete
 
 					case NOT_HANDSHAKING:
 						// Flag data to process
@@ -436,9 +829,6 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 								"Illegal " + SSLEngine.class.getSimpleName() + " handshake state " + handshakeStatus);
 					}
 
-					// Obtain the SSL session
-					SSLSession session = this.engine.getSession();
-
 					// Handle actions
 					if (isInputData) {
 						// Handle inputting data
@@ -449,17 +839,8 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 							// Just the one read buffer
 							readBuffer = this.socketToUnwrapBuffers.removeFirst();
 						} else {
-							// Must combine all input buffers
-							int appToWrapLength = 0;
-							for (ByteBuffer buffer : this.socketToUnwrapBuffers) {
-								appToWrapLength += buffer.remaining();
-							}
-							readBuffer = ByteBuffer.allocate(appToWrapLength);
-							for (ByteBuffer buffer : this.socketToUnwrapBuffers) {
-								readBuffer.put(buffer);
-							}
-							BufferJvmFix.flip(readBuffer);
-							this.socketToUnwrapBuffers.clear();
+							// Must combine input buffers (packet spans reads)
+							readBuffer = this.combineSocketToUnwrapBuffers();
 						}
 
 						// Obtain the unwrap to application buffer
@@ -467,34 +848,22 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 						ByteBuffer unwrapBuffer;
 						if (this.currentUnwrapToAppBuffer == null) {
 							// Must have buffer
-							this.currentUnwrapToAppBuffer = SslSocketServicerFactory.this.bufferPool
+							this.currentUnwrapToAppBuffer = SslSocketServicerFactory.this.packetBufferPool
 									.getPooledStreamBuffer();
 							unwrapBuffer = this.currentUnwrapToAppBuffer.pooledBuffer;
 							isNewBuffer = true;
 
 						} else {
-							// Obtain the buffer (could be overflow unpooled)
-							unwrapBuffer = (this.currentUnwrapToAppBuffer.pooledBuffer != null)
-									? this.currentUnwrapToAppBuffer.pooledBuffer
-									: this.currentUnwrapToAppBuffer.unpooledByteBuffer;
+							// Obtain the buffer
+							unwrapBuffer = this.currentUnwrapToAppBuffer.pooledBuffer;
 
 							// Determine if require new buffer
 							if (unwrapBuffer.remaining() == 0) {
 								// Require new buffer, so track for releasing
-								if (this.previousRequestBuffers == null) {
-									// First previous for request
-									this.previousRequestBuffers = this.currentAppToWrapBuffer;
-								} else {
-									// Append previous for request
-									StreamBuffer<ByteBuffer> head = this.previousRequestBuffers;
-									while (head.next != null) {
-										head = head.next;
-									}
-									head.next = this.currentAppToWrapBuffer;
-								}
+								this.retainCurrentUnwrapToAppBuffer();
 
 								// Create new buffer
-								this.currentUnwrapToAppBuffer = SslSocketServicerFactory.this.bufferPool
+								this.currentUnwrapToAppBuffer = SslSocketServicerFactory.this.packetBufferPool
 										.getPooledStreamBuffer();
 								unwrapBuffer = this.currentUnwrapToAppBuffer.pooledBuffer;
 								isNewBuffer = true;
@@ -503,43 +872,45 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 
 						// Unwrap the socket data for the application
 						SSLEngineResult sslEngineResult = this.engine.unwrap(readBuffer, unwrapBuffer);
-
-						// Determine if consumed all data
-						if (readBuffer.remaining() != 0) {
-							// Keep track of buffer (for next unwrap)
-							this.socketToUnwrapBuffers.addLast(readBuffer);
-						}
-
-						// Handle underflow / overflow
 						Status status = sslEngineResult.getStatus();
-						switch (status) {
-						case BUFFER_UNDERFLOW:
-							// Need further data
-							return;
+						if (status == Status.BUFFER_OVERFLOW) {
 
-						case BUFFER_OVERFLOW:
-							// Not enough space for application data
-							this.currentUnwrapToAppBuffer.release();
-							this.currentUnwrapToAppBuffer = null;
-
-							// Create buffer with enough space
-							int applicationBufferSize = session.getApplicationBufferSize();
-							byte[] applicationData = new byte[applicationBufferSize];
-							this.currentUnwrapToAppBuffer = SslSocketServicerFactory.this.bufferPool
-									.getUnpooledStreamBuffer(ByteBuffer.wrap(applicationData));
-							unwrapBuffer = this.currentUnwrapToAppBuffer.unpooledByteBuffer;
+							// Not enough space for application data, so use new buffer
+							if (BufferJvmFix.position(unwrapBuffer) > 0) {
+								this.retainCurrentUnwrapToAppBuffer();
+							} else {
+								this.currentUnwrapToAppBuffer.release();
+							}
+							this.currentUnwrapToAppBuffer = SslSocketServicerFactory.this.packetBufferPool
+									.getPooledStreamBuffer();
+							unwrapBuffer = this.currentUnwrapToAppBuffer.pooledBuffer;
 							isNewBuffer = true;
 
-							// Wrap the data
+							// Unwrap the data
 							sslEngineResult = this.engine.unwrap(readBuffer, unwrapBuffer);
 							status = sslEngineResult.getStatus();
-							if (status == Status.BUFFER_UNDERFLOW) {
-								return; // need further data
+							if (status == Status.BUFFER_OVERFLOW) {
+								throw new IOException("SSL application data exceeds buffer size of "
+										+ unwrapBuffer.capacity() + " bytes");
 							}
+						}
+						this.recordHandshake(sslEngineResult);
 
-						default:
-							// No underflow / overflow, so carry on
-							break;
+						// Determine if consumed all data
+						if (readBuffer.remaining() != 0) {
+							// Keep track of buffer (for next unwrap)
+							this.socketToUnwrapBuffers.addFirst(readBuffer);
+
+						} else if ((this.combinedSocketBuffer != null)
+								&& (readBuffer == this.combinedSocketBuffer.pooledBuffer)) {
+							// Combined data unwrapped, so release
+							this.combinedSocketBuffer.release();
+							this.combinedSocketBuffer = null;
+						}
+
+						// Determine if need further data
+						if (status == Status.BUFFER_UNDERFLOW) {
+							return;
 						}
 
 						// Process based on status
@@ -548,14 +919,9 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 							// Handle any unwrapped data
 							if (BufferJvmFix.position(unwrapBuffer) > 0) {
 
-								// Determine if unpooled (transform to pooled)
-								StreamBuffer<ByteBuffer> serviceStreamBuffer = (this.currentUnwrapToAppBuffer.pooledBuffer != null)
-										? this.currentUnwrapToAppBuffer
-										: new ServiceUnpooledStreamBuffer(this.currentUnwrapToAppBuffer);
-
 								// Service the request
-								this.delegateSocketServicer.service(serviceStreamBuffer,
-										serviceStreamBuffer.pooledBuffer.position(), isNewBuffer);
+								this.delegateSocketServicer.service(this.currentUnwrapToAppBuffer,
+										BufferJvmFix.position(unwrapBuffer), isNewBuffer);
 
 							} else {
 								// Release the unused buffer
@@ -590,41 +956,33 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 					if (isOutputData) {
 						// Handle outputting data
 
-						// Determine if handshake response
+						// Wrap all the data
 						ByteBuffer appToWrapBuffer;
+						Status status = Status.OK;
+						StreamBuffer<ByteBuffer> responseHead = null;
+						StreamBuffer<ByteBuffer> responseTail = null;
 						if (this.currentAppToWrapBuffer == null) {
 
-							// Use the socket read data (as handshaking)
-							if (this.socketToUnwrapBuffers.size() == 1) {
-								// Just the one buffer
-								appToWrapBuffer = this.socketToUnwrapBuffers.removeFirst();
-							} else {
-								// Must combine all input buffers
-								int appToWrapLength = 0;
-								for (ByteBuffer buffer : this.socketToUnwrapBuffers) {
-									appToWrapLength += buffer.remaining();
-								}
-								appToWrapBuffer = ByteBuffer.allocate(appToWrapLength);
-								for (ByteBuffer buffer : this.socketToUnwrapBuffers) {
-									appToWrapBuffer.put(buffer);
-								}
-								BufferJvmFix.flip(appToWrapBuffer);
-								this.socketToUnwrapBuffers.clear();
+							// Handshake response (no application data)
+							StreamBuffer<ByteBuffer> handshakeBuffer = SslSocketServicerFactory.this.packetBufferPool
+									.getPooledStreamBuffer();
+							SSLEngineResult sslEngineResult = this.engine.wrap(NO_APPLICATION_DATA,
+									handshakeBuffer.pooledBuffer);
+							this.recordHandshake(sslEngineResult);
+							status = sslEngineResult.getStatus();
+							switch (status) {
+							case OK:
+							case CLOSED:
+								responseHead = handshakeBuffer;
+								break;
+							default:
+								throw new IllegalStateException("Unknown wrap status " + status);
 							}
-
-							// Specify for processing
-							this.currentAppToWrapBuffer = SslSocketServicerFactory.this.bufferPool
-									.getUnpooledStreamBuffer(appToWrapBuffer);
 						}
-
-						// Wrap all the data
-						Status status = Status.OK;
-						StreamBuffer<ByteBuffer> responseHead = null;
-						StreamBuffer<ByteBuffer> responseTail = null;
 						while (this.currentAppToWrapBuffer != null) {
 
-							// Obtain the response stream buffer
-							StreamBuffer<ByteBuffer> wrapToResponseBuffer = SslSocketServicerFactory.this.bufferPool
+							// Obtain the response stream buffer (large enough for packet)
+							StreamBuffer<ByteBuffer> wrapToResponseBuffer = SslSocketServicerFactory.this.packetBufferPool
 									.getPooledStreamBuffer();
 
 							// Determine if file buffer
@@ -668,30 +1026,7 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 								sslEngineResult = this.engine.wrap(appToWrapBuffer, wrapToResponseBuffer.pooledBuffer);
 							}
 
-							// Handle underflow / overflow
-							status = sslEngineResult.getStatus();
-							switch (status) {
-							case BUFFER_OVERFLOW:
-
-								// Not enough space on buffer, so release it
-								wrapToResponseBuffer.release();
-
-								// Create buffer with enough space
-								int packetBufferSize = session.getPacketBufferSize();
-								wrapToResponseBuffer = SslSocketServicerFactory.this.bufferPool
-										.getUnpooledStreamBuffer(ByteBuffer.allocate(packetBufferSize));
-
-								// Wrap the data
-								sslEngineResult = this.engine.wrap(appToWrapBuffer,
-										wrapToResponseBuffer.unpooledByteBuffer);
-
-								// Prepare for writing
-								BufferJvmFix.flip(wrapToResponseBuffer.unpooledByteBuffer);
-
-							default:
-								// Carry on to process
-								break;
-							}
+							this.recordHandshake(sslEngineResult);
 
 							// Determine if stream buffer written
 							boolean isStreamBufferWritten;
@@ -732,6 +1067,10 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 								}
 								break;
 
+							case BUFFER_OVERFLOW:
+								throw new IOException("SSL packet exceeds buffer size of "
+										+ wrapToResponseBuffer.pooledBuffer.capacity() + " bytes");
+
 							default:
 								throw new IllegalStateException("Unknown wrap status " + status);
 							}
@@ -745,13 +1084,19 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 
 								// Release application data buffer (after move)
 								release.release();
+
+							} else if (status == Status.CLOSED) {
+								// Closed, so no further application data may be wrapped
+								StreamBuffer<ByteBuffer> release = this.currentAppToWrapBuffer;
+								this.currentAppToWrapBuffer = null;
+								releaseBuffers(release);
 							}
 						}
 
 						// Send the response
 						if (responseWriter != null) {
 							// Write data for the response
-							responseWriter.write(null, responseHead);
+							responseWriter.write(null, responseHead, isComplete);
 
 						} else {
 							// Send the handshake data immediately
@@ -798,6 +1143,22 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 		}
 	}
 
+	/**
+	 * Releases the linked list of {@link StreamBuffer} instances.
+	 * 
+	 * @param head Head {@link StreamBuffer} of the linked list. May be
+	 *             <code>null</code>.
+	 */
+	private static void releaseBuffers(StreamBuffer<ByteBuffer> head) {
+		while (head != null) {
+			StreamBuffer<ByteBuffer> release = head;
+			head = head.next;
+
+			// Release
+			release.release();
+		}
+	}
+
 	/**
 	 * SSL request.
 	 */
@@ -808,7 +1169,7 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 		 * instances containing request {@link StreamBuffer} instances to release on
 		 * response. May be <code>null</code>.
 		 */
-		private final StreamBuffer<ByteBuffer> releaseRequestBuffers;
+		private StreamBuffer<ByteBuffer> releaseRequestBuffers;
 
 		/**
 		 * {@link ResponseWriter} for the request.
@@ -826,6 +1187,11 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 		 */
 		private StreamBuffer<ByteBuffer> headResponseBuffer = null;
 
+		/**
+		 * Indicates if the response is complete.
+		 */
+		private boolean isComplete = false;
+
 		/**
 		 * Instantiate.
 		 * 
@@ -842,98 +1208,127 @@ public class SslSocketServicerFactory<R> implements SocketServicerFactory<R>, Re
 	}
 
 	/**
-	 * Wraps the SSL {@link Runnable} to be executed.
+	 * <p>
+	 * {@link RequestHandler} provided to the delegate {@link SocketServicer}.
+	 * <p>
+	 * The delegate is serviced with unwrapped application data, so releasing
+	 * received buffers releases the consumed unwrapped {@link StreamBuffer}
+	 * instances. The {@link Socket} read {@link StreamBuffer} instances are only
+	 * released once all their data is unwrapped.
 	 */
-	private static class SslRunnable implements Runnable {
+	private static class SslRequestHandler<R> implements RequestHandler<R> {
 
 		/**
-		 * Actual SSL task to be run.
+		 * {@link Socket} {@link RequestHandler}.
 		 */
-		private final Runnable task;
+		private final RequestHandler<R> socketRequestHandler;
 
 		/**
-		 * {@link SslSocketServicer}.
+		 * {@link SslSocketServicer} unwrapping the data for the delegate. Specified
+		 * once created (as created after the delegate).
 		 */
-		private final SslSocketServicerFactory<?>.SslSocketServicer sslSocketServicer;
+		private SslSocketServicerFactory<R>.SslSocketServicer sslSocketServicer = null;
 
 		/**
-		 * Initiate.
+		 * Instantiate.
 		 * 
-		 * @param task              SSL task to be run.
-		 * @param sslSocketServicer {@link SslSocketServicer}.
+		 * @param socketRequestHandler {@link Socket} {@link RequestHandler}.
 		 */
-		private SslRunnable(Runnable task, SslSocketServicerFactory<?>.SslSocketServicer sslSocketServicer) {
-			this.task = task;
-			this.sslSocketServicer = sslSocketServicer;
+		private SslRequestHandler(RequestHandler<R> socketRequestHandler) {
+			this.socketRequestHandler = socketRequestHandler;
 		}
 
 		/*
-		 * =============== Runnable ===========================
+		 * ================== RequestHandler ====================
 		 */
 
 		@Override
-		public void run() {
-			try {
-				// Run task and ensure notify when complete
-				this.task.run();
+		public void execute(Execution execution) {
+			this.socketRequestHandler.execute(execution);
+		}
 
-			} catch (Throwable ex) {
-				// Flag failure in running task
-				synchronized (this.sslSocketServicer) {
-					this.sslSocketServicer.failure = new IOException("SSL delegated runnable failed", ex);
-				}
+		@Override
+		public void handleRequest(R request) throws IllegalStateException {
+			this.socketRequestHandler.handleRequest(request);
+		}
 
-			} finally {
+		@Override
+		public int disableReadPause() throws IllegalStateException {
+			return this.socketRequestHandler.disableReadPause();
+		}
 
-				// Finished processing SSL task
-				synchronized (this.sslSocketServicer) {
-					this.sslSocketServicer.sslRunnable = null;
-				}
+		@Override
+		public void receiveRequestEntity(boolean isReceiving) throws IllegalStateException {
+			this.socketRequestHandler.receiveRequestEntity(isReceiving);
+		}
 
-				// Continue processing request
-				this.sslSocketServicer.requestHandler.execute(this.sslSocketServicer);
-			}
+		@Override
+		public void pauseRead(boolean isPause) throws IllegalStateException {
+			this.socketRequestHandler.pauseRead(isPause);
+		}
+
+		@Override
+		public void releaseReceivedRequestBuffers() throws IllegalStateException {
+			this.sslSocketServicer.releaseReceivedRequestBuffers();
+		}
+
+		@Override
+		public void sendImmediateData(StreamBuffer<ByteBuffer> immediateHead) throws IllegalStateException {
+			this.socketRequestHandler.sendImmediateData(immediateHead);
+		}
+
+		@Override
+		public void closeConnection(Throwable exception) {
+			this.socketRequestHandler.closeConnection(exception);
 		}
 	}
 
 	/**
-	 * Need to adapt unpooled {@link StreamBuffer} to pooled {@link StreamBuffer} to
-	 * service.
+	 * Runs the delegated SSL tasks.
 	 */
-	private static class ServiceUnpooledStreamBuffer extends StreamBuffer<ByteBuffer> {
+	private static class SslRunnable implements Runnable {
 
 		/**
-		 * Unpooled {@link StreamBuffer}.
+		 * {@link SslSocketServicer}.
 		 */
-		private final StreamBuffer<ByteBuffer> unpooledStreamBuffer;
+		private final SslSocketServicerFactory<?>.SslSocketServicer sslSocketServicer;
 
 		/**
-		 * Instantiate.
+		 * Failure in running the delegated SSL tasks. Made visible to the
+		 * {@link Socket} listener {@link Thread} by the hand off to it.
+		 */
+		private IOException failure = null;
+
+		/**
+		 * Initiate.
 		 * 
-		 * @param unpooledStreamBuffer Unpooled {@link StreamBuffer}.
+		 * @param sslSocketServicer {@link SslSocketServicer}.
 		 */
-		public ServiceUnpooledStreamBuffer(StreamBuffer<ByteBuffer> unpooledStreamBuffer) {
-			super(unpooledStreamBuffer.unpooledByteBuffer, null, null);
-			this.unpooledStreamBuffer = unpooledStreamBuffer;
+		private SslRunnable(SslSocketServicerFactory<?>.SslSocketServicer sslSocketServicer) {
+			this.sslSocketServicer = sslSocketServicer;
 		}
 
 		/*
-		 * ===================== StreamBuffer ==============================
+		 * =============== Runnable ===========================
 		 */
 
 		@Override
-		public boolean write(byte datum) {
-			throw new IllegalStateException("Should only read from " + this.getClass().getSimpleName());
-		}
+		public void run() {
+			try {
+				// Run all available tasks (avoids hand off per task)
+				Runnable task;
+				while ((task = this.sslSocketServicer.engine.getDelegatedTask()) != null) {
+					task.run();
+				}
 
-		@Override
-		public int write(byte[] data, int offset, int length) {
-			throw new IllegalStateException("Should only read from " + this.getClass().getSimpleName());
-		}
+			} catch (Throwable ex) {
+				// Flag failure in running task
+				this.failure = new IOException("SSL delegated runnable failed", ex);
 
-		@Override
-		public void release() {
-			this.unpooledStreamBuffer.release();
+			} finally {
+				// Continue processing request (on socket thread)
+				this.sslSocketServicer.requestHandler.execute(this.sslSocketServicer);
+			}
 		}
 	}
 
@@ -64,6 +64,43 @@ public abstract class AbstractSocketManagerTestCase extends AbstractSocketManage
 		tester.waitForCompletion();
 	}
 
+	/**
+	 * Ensure releases the response {@link StreamBuffer} instances written after
+	 * shutdown.
+	 */
+	public void testReleaseResponseWrittenAfterShutdown() throws Exception {
+		this.tester = new SocketManagerTester(1);
+
+		// Bind to server socket (capturing response writer)
+		ThreadSafeClosure<ResponseWriter> writer = new ThreadSafeClosure<>();
+		this.tester.bindServerSocket(null, null, (requestHandler) -> (buffer, bytesRead, isNewBuffer) -> {
+			if (bytesRead == 1) {
+				requestHandler.handleRequest("SHUTDOWN");
+			}
+		}, (socketServicer) -> (request, responseWriter) -> {
+			writer.set(responseWriter);
+			return null;
+		});
+
+		this.tester.start();
+
+		// Undertake connect and send data (to trigger request)
+		try (Socket client = this.tester.getClient()) {
+			OutputStream outputStream = client.getOutputStream();
+			outputStream.write(1);
+			outputStream.flush();
+
+			// Wait on request to be serviced
+			this.waitForTrue(() -> writer.get() != null);
+		}
+
+		// Shutdown the socket listener
+		this.tester.shutdown();
+
+		// Write the response after shutdown (buffers released on tear down check)
+		writer.get().write(null, this.tester.createStreamBuffer(1));
+	}
+
 	/**
 	 * Ensure can accept a connection.
 	 */
@@ -311,6 +348,45 @@ public abstract class AbstractSocketManagerTestCase extends AbstractSocketManage
 		}
 	}
 
+	/**
+	 * Ensure can handle requests on multiple connections across multiple
+	 * {@link SocketListener} instances.
+	 */
+	public void testMultipleConnectionsAcrossListeners() throws IOException {
+		this.tester = new SocketManagerTester(4);
+
+		// Bind to server socket
+		this.tester.bindServerSocket(null, null, (requestHandler) -> (buffer, bytesRead, isNewBuffer) -> {
+			if (bytesRead == 1) {
+				requestHandler.handleRequest(buffer.pooledBuffer.get(0));
+			}
+		}, (socketServicer) -> (request, responseWriter) -> {
+			responseWriter.write(null, this.tester.createStreamBuffer(10 + (byte) request));
+			return null;
+		});
+
+		this.tester.start();
+
+		// Undertake multiple connections
+		int connectionCount = 4 * 4;
+		Socket[] clients = new Socket[connectionCount];
+		for (int i = 0; i < connectionCount; i++) {
+			clients[i] = this.tester.getClient();
+		}
+		for (int i = 0; i < connectionCount; i++) {
+			OutputStream outputStream = clients[i].getOutputStream();
+			outputStream.write(i + 1);
+			outputStream.flush();
+		}
+		for (int i = 0; i < connectionCount; i++) {
+			InputStream inputStream = clients[i].getInputStream();
+			assertEquals("Incorrect response", 11 + i, inputStream.read());
+		}
+		for (int i = 0; i < connectionCount; i++) {
+			clients[i].close();
+		}
+	}
+
 	/**
 	 * Ensure can send header.
 	 */
@@ -604,6 +680,60 @@ public abstract class AbstractSocketManagerTestCase extends AbstractSocketManage
 		}
 	}
 
+	/**
+	 * Ensure can stream the response. Ensure pipelined responses are sent only
+	 * after the streamed response is complete.
+	 */
+	public void testStreamResponse() throws IOException {
+		this.tester = new SocketManagerTester(1);
+
+		// Bind to server socket
+		ThreadSafeClosure<ResponseWriter> writer = new ThreadSafeClosure<>();
+		this.tester.bindServerSocket(null, null, (requestHandler) -> (buffer, bytesRead, isNewBuffer) -> {
+			if (bytesRead == 1) {
+				requestHandler.handleRequest((byte) 1);
+				requestHandler.handleRequest((byte) 2);
+			}
+		}, (socketServicer) -> (request, responseWriter) -> {
+			switch ((byte) request) {
+			case 1:
+				// First request, so stream part of response
+				writer.set(responseWriter);
+				responseWriter.write(null, this.tester.createStreamBuffer(1), false);
+				break;
+
+			case 2:
+				// Second request, so complete response (awaiting first)
+				responseWriter.write(null, this.tester.createStreamBuffer(3));
+				break;
+
+			default:
+				fail("Invalid request " + request);
+			}
+			return null;
+		});
+
+		this.tester.start();
+
+		// Undertake connect and send data
+		try (Socket client = this.tester.getClient()) {
+
+			// Trigger the requests
+			OutputStream outputStream = client.getOutputStream();
+			outputStream.write(1);
+			outputStream.flush();
+
+			// Ensure receive the streamed content (before response complete)
+			InputStream inputStream = client.getInputStream();
+			assertEquals("Incorrect streamed content", 1, inputStream.read());
+
+			// Complete the streamed response
+			writer.get().write(null, this.tester.createStreamBuffer(2), true);
+			assertEquals("Incorrect completing content", 2, inputStream.read());
+			assertEquals("Incorrect second response", 3, inputStream.read());
+		}
+	}
+
 	/**
 	 * Ensure can select on write operations to complete writing the large response.
 	 */
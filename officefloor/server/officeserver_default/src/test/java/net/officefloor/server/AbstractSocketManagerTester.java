@@ -73,11 +73,79 @@ public abstract class AbstractSocketManagerTester extends OfficeFrameTestCase {
 	 */
 	protected abstract StreamBufferPool<ByteBuffer> createStreamBufferPool(int bufferSize);
 
+	/**
+	 * Obtains the maximum number of {@link StreamBuffer} instances gathered into a
+	 * single write.
+	 * 
+	 * @return Maximum number of {@link StreamBuffer} instances gathered into a
+	 *         single write.
+	 */
+	protected int getMaxGatheringWriteBuffers() {
+		return SocketManager.DEFAULT_MAX_GATHERING_WRITE_BUFFERS;
+	}
+
+	/**
+	 * Indicates if each {@link SocketListener} binds its own
+	 * {@link ServerSocket} to the port.
+	 * 
+	 * @return <code>true</code> to bind with <code>SO_REUSEPORT</code>.
+	 */
+	protected boolean isReusePort() {
+		return false;
+	}
+
+	/**
+	 * Obtains the idle connection timeout.
+	 * 
+	 * @return Idle connection timeout in milliseconds. <code>0</code> for no
+	 *         timeout.
+	 */
+	protected long getIdleTimeout() {
+		return 0;
+	}
+
+	/**
+	 * Obtains the request read timeout.
+	 * 
+	 * @return Request read timeout in milliseconds. <code>0</code> for no
+	 *         timeout.
+	 */
+	protected long getRequestReadTimeout() {
+		return 0;
+	}
+
+	/**
+	 * Obtains the write stall timeout.
+	 * 
+	 * @return Write stall timeout in milliseconds. <code>0</code> for no timeout.
+	 */
+	protected long getWriteStallTimeout() {
+		return 0;
+	}
+
+	/**
+	 * Obtains the {@link ServerSocketLimits}.
+	 * 
+	 * @return {@link ServerSocketLimits}. May be <code>null</code> for no limits.
+	 */
+	protected ServerSocketLimits getServerSocketLimits() {
+		return null;
+	}
+
 	/**
 	 * {@link SslSocketServicerFactory}.
 	 */
 	private SslSocketServicerFactory<?> sslSocketServicerFactory = null;
 
+	/**
+	 * Obtains the {@link SslSocketServicerFactory}.
+	 * 
+	 * @return {@link SslSocketServicerFactory}. <code>null</code> if not secure.
+	 */
+	protected SslSocketServicerFactory<?> getSslSocketServicerFactory() {
+		return this.sslSocketServicerFactory;
+	}
+
 	/**
 	 * {@link TestThread} instances used for testing.
 	 */
@@ -225,7 +293,11 @@ public abstract class AbstractSocketManagerTester extends OfficeFrameTestCase {
 
 			// Create the Socket Manager
 			int bufferSize = AbstractSocketManagerTester.this.getBufferSize();
-			this.manager = new SocketManager(listenerCount, bufferSize * 4, 4, this.bufferPool, bufferSize);
+			this.manager = new SocketManager(listenerCount, bufferSize * 4, 4, this.bufferPool, bufferSize,
+					AbstractSocketManagerTester.this.getMaxGatheringWriteBuffers(),
+					AbstractSocketManagerTester.this.isReusePort(), AbstractSocketManagerTester.this.getIdleTimeout(),
+					AbstractSocketManagerTester.this.getRequestReadTimeout(),
+					AbstractSocketManagerTester.this.getWriteStallTimeout(), 0);
 
 			// Start servicing the sockets
 			Runnable[] runnables = this.manager.getRunnables();
@@ -259,7 +331,8 @@ public abstract class AbstractSocketManagerTester extends OfficeFrameTestCase {
 
 			// Bind the server socket
 			this.manager.bindServerSocket(DEFAULT_PORT, serverSocketDecorator, acceptedSocketDecorator,
-					adaptedSocketServiceFactory, adaptedRequestServicerFactory);
+					adaptedSocketServiceFactory, adaptedRequestServicerFactory,
+					AbstractSocketManagerTester.this.getServerSocketLimits());
 		}
 
 		/**
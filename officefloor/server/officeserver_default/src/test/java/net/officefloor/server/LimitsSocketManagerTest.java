@@ -0,0 +1,195 @@
+/*-
+ * #%L
+ * Default OfficeFloor HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.officefloor.server.http.HttpClientTestUtil;
+import net.officefloor.server.http.mock.MockStreamBufferPool;
+import net.officefloor.server.stream.StreamBufferPool;
+
+/**
+ * Tests the {@link ServerSocketLimits} of the {@link SocketManager}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class LimitsSocketManagerTest extends AbstractSocketManagerTester {
+
+	/**
+	 * {@link ServerSocketLimits}.
+	 */
+	private ServerSocketLimits limits;
+
+	/*
+	 * ================= AbstractSocketManagerTester ==================
+	 */
+
+	@Override
+	protected int getBufferSize() {
+		return 1024;
+	}
+
+	@Override
+	protected StreamBufferPool<ByteBuffer> createStreamBufferPool(int bufferSize) {
+		return new MockStreamBufferPool(() -> ByteBuffer.allocate(bufferSize));
+	}
+
+	@Override
+	protected void handleCompletion(StreamBufferPool<ByteBuffer> bufferPool) {
+		((MockStreamBufferPool) bufferPool).assertAllBuffersReturned();
+	}
+
+	@Override
+	protected ServerSocketLimits getServerSocketLimits() {
+		return this.limits;
+	}
+
+	/**
+	 * Ensure pauses accepting connections on reaching maximum open connections.
+	 */
+	public void testMaxOpenConnections() throws IOException {
+		this.limits = new ServerSocketLimits(1, Integer.MAX_VALUE);
+		this.tester = new SocketManagerTester(1);
+
+		// Bind to server socket
+		this.tester.bindServerSocket(null, null, (requestHandler) -> (buffer, bytesRead, isNewBuffer) -> {
+			requestHandler.handleRequest(buffer.pooledBuffer.get(buffer.pooledBuffer.position() - 1));
+		}, (socketServicer) -> (request, responseWriter) -> {
+			responseWriter.write(null, this.tester.createStreamBuffer(((Byte) request) + 1));
+			return null;
+		});
+
+		this.tester.start();
+
+		// Undertake first connection
+		Socket first = this.tester.getClient();
+		try {
+			first.getOutputStream().write(1);
+			first.getOutputStream().flush();
+			assertEquals("Incorrect first response", 2, first.getInputStream().read());
+			assertEquals("Should have open connection", 1, this.limits.getOpenConnectionCount());
+
+			// Second connection should not be serviced (left in backlog)
+			try (Socket second = this.tester.getClient()) {
+				second.setSoTimeout(100);
+				OutputStream outputStream = second.getOutputStream();
+				outputStream.write(2);
+				outputStream.flush();
+				InputStream inputStream = second.getInputStream();
+				try {
+					inputStream.read();
+					fail("Should not be accepted while at maximum connections");
+				} catch (SocketTimeoutException ex) {
+					// expected
+				}
+				assertEquals("Should only have first connection", 1, this.limits.getOpenConnectionCount());
+
+				// Close first connection, so second is accepted
+				first.close();
+				second.setSoTimeout(HttpClientTestUtil.getClientTimeout());
+				assertEquals("Incorrect second response", 3, inputStream.read());
+				assertEquals("Should have second connection", 1, this.limits.getOpenConnectionCount());
+			}
+
+			// Ensure connection released on close
+			this.waitForTrue(() -> this.limits.getOpenConnectionCount() == 0);
+
+		} finally {
+			first.close();
+		}
+	}
+
+	/**
+	 * Ensure pauses reading the connection on reaching the maximum in-flight
+	 * requests.
+	 */
+	public void testMaxInFlightRequests() throws Exception {
+		this.limits = new ServerSocketLimits(Integer.MAX_VALUE, 1);
+		this.tester = new SocketManagerTester(1);
+
+		// Bind to server socket (each byte is a request)
+		List<ResponseWriter> responseWriters = new ArrayList<>();
+		this.tester.bindServerSocket(null, null, (requestHandler) -> (buffer, bytesRead, isNewBuffer) -> {
+			int position = buffer.pooledBuffer.position();
+			for (int i = (int) (position - bytesRead); i < position; i++) {
+				requestHandler.handleRequest(buffer.pooledBuffer.get(i));
+			}
+		}, (socketServicer) -> (request, responseWriter) -> {
+			synchronized (responseWriters) {
+				responseWriters.add(responseWriter);
+			}
+			return null;
+		});
+
+		this.tester.start();
+
+		// Undertake connect and send request
+		try (Socket client = this.tester.getClient()) {
+			OutputStream outputStream = client.getOutputStream();
+			outputStream.write(1);
+			outputStream.flush();
+
+			// Ensure reading paused with request in-flight
+			this.waitForTrue(() -> this.limits.getReadPausedConnectionCount() == 1);
+			assertEquals("Incorrect in-flight requests", 1, this.limits.getInFlightRequestCount());
+
+			// Send pipelined request (should not be read)
+			outputStream.write(2);
+			outputStream.flush();
+			Thread.sleep(100);
+			synchronized (responseWriters) {
+				assertEquals("Should not read further request", 1, responseWriters.size());
+			}
+
+			// Respond to first request (so resumes reading)
+			synchronized (responseWriters) {
+				responseWriters.get(0).write(null, this.tester.createStreamBuffer(3));
+			}
+			InputStream inputStream = client.getInputStream();
+			assertEquals("Incorrect first response", 3, inputStream.read());
+
+			// Ensure second request now read
+			this.waitForTrue(() -> {
+				synchronized (responseWriters) {
+					return responseWriters.size() == 2;
+				}
+			});
+			synchronized (responseWriters) {
+				responseWriters.get(1).write(null, this.tester.createStreamBuffer(4));
+			}
+			assertEquals("Incorrect second response", 4, inputStream.read());
+
+			// Ensure no further in-flight requests
+			this.waitForTrue(() -> this.limits.getInFlightRequestCount() == 0);
+			assertEquals("Should resume reading", 0, this.limits.getReadPausedConnectionCount());
+		}
+	}
+
+}
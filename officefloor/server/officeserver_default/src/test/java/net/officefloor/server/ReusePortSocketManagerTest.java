@@ -0,0 +1,43 @@
+/*-
+ * #%L
+ * Default OfficeFloor HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.server;
+
+import java.net.ServerSocket;
+
+import net.officefloor.server.stream.StreamBuffer;
+
+/**
+ * Ensures all {@link StreamBuffer} instances are released when each
+ * {@link SocketListener} binds its own {@link ServerSocket} to the port with
+ * <code>SO_REUSEPORT</code>.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class ReusePortSocketManagerTest extends BufferManagementSocketManagerTest {
+
+	@Override
+	protected boolean isReusePort() {
+		return true;
+	}
+
+}
@@ -0,0 +1,112 @@
+/*-
+ * #%L
+ * Default OfficeFloor HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.server;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+
+import javax.net.ssl.SSLContext;
+
+import net.officefloor.server.http.mock.MockStreamBufferPool;
+import net.officefloor.server.ssl.OfficeFloorDefaultSslContextSource;
+import net.officefloor.server.ssl.SslSocketServicerFactory;
+import net.officefloor.server.stream.StreamBufferPool;
+
+/**
+ * Tests the SSL sessions of the {@link SocketManager}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class SslSessionSocketManagerTest extends AbstractSocketManagerTester {
+
+	public SslSessionSocketManagerTest() {
+		this.isSecure = true;
+	}
+
+	/*
+	 * ================= AbstractSocketManagerTester ==================
+	 */
+
+	@Override
+	protected int getBufferSize() {
+		return 1024;
+	}
+
+	@Override
+	protected StreamBufferPool<ByteBuffer> createStreamBufferPool(int bufferSize) {
+		return new MockStreamBufferPool(() -> ByteBuffer.allocate(bufferSize));
+	}
+
+	@Override
+	protected void handleCompletion(StreamBufferPool<ByteBuffer> bufferPool) {
+		((MockStreamBufferPool) bufferPool).assertAllBuffersReturned();
+	}
+
+	/*
+	 * ========================= Tests ===============================
+	 */
+
+	/**
+	 * Ensure counts the handshakes and resumed sessions.
+	 */
+	public void testResumeSession() throws Exception {
+		this.tester = new SocketManagerTester(1);
+
+		// Bind to server socket
+		this.tester.bindServerSocket(null, null, (requestHandler) -> (buffer, bytesRead, isNewBuffer) -> {
+			if (bytesRead == 1) {
+				requestHandler.handleRequest("SEND");
+			}
+		}, (socketServicer) -> (request, responseWriter) -> {
+			responseWriter.write(null, this.tester.createStreamBuffer(2));
+			return null;
+		});
+
+		this.tester.start();
+
+		// Undertake connections with same client (to resume session)
+		SSLContext clientContext = OfficeFloorDefaultSslContextSource.createClientSslContext(null);
+		for (int i = 0; i < 2; i++) {
+			try (Socket client = clientContext.getSocketFactory().createSocket(InetAddress.getLocalHost(), 7878)) {
+
+				// Send some data (to trigger request)
+				OutputStream outputStream = client.getOutputStream();
+				outputStream.write(1);
+				outputStream.flush();
+
+				// Receive the response
+				InputStream inputStream = client.getInputStream();
+				assertEquals("Incorrect response", 2, inputStream.read());
+			}
+		}
+
+		// Ensure resumed the session
+		SslSocketServicerFactory<?> factory = this.getSslSocketServicerFactory();
+		assertEquals("Incorrect number of handshakes", 2, factory.getHandshakeCount());
+		assertEquals("Incorrect number of resumed handshakes", 1, factory.getResumedHandshakeCount());
+	}
+
+}
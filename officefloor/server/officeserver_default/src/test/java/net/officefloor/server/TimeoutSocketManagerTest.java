@@ -0,0 +1,243 @@
+/*-
+ * #%L
+ * Default OfficeFloor HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+
+import net.officefloor.server.http.mock.MockStreamBufferPool;
+import net.officefloor.server.stream.StreamBuffer;
+import net.officefloor.server.stream.StreamBufferPool;
+
+/**
+ * Tests timing out connections of the {@link SocketManager}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class TimeoutSocketManagerTest extends AbstractSocketManagerTester {
+
+	/**
+	 * Idle timeout.
+	 */
+	private long idleTimeout = 0;
+
+	/**
+	 * Request read timeout.
+	 */
+	private long requestReadTimeout = 0;
+
+	/**
+	 * Write stall timeout.
+	 */
+	private long writeStallTimeout = 0;
+
+	/*
+	 * ================= AbstractSocketManagerTester ==================
+	 */
+
+	@Override
+	protected int getBufferSize() {
+		return 1024;
+	}
+
+	@Override
+	protected StreamBufferPool<ByteBuffer> createStreamBufferPool(int bufferSize) {
+		return new MockStreamBufferPool(() -> ByteBuffer.allocate(bufferSize));
+	}
+
+	@Override
+	protected void handleCompletion(StreamBufferPool<ByteBuffer> bufferPool) {
+		((MockStreamBufferPool) bufferPool).assertAllBuffersReturned();
+	}
+
+	@Override
+	protected long getIdleTimeout() {
+		return this.idleTimeout;
+	}
+
+	@Override
+	protected long getRequestReadTimeout() {
+		return this.requestReadTimeout;
+	}
+
+	@Override
+	protected long getWriteStallTimeout() {
+		return this.writeStallTimeout;
+	}
+
+	/**
+	 * Ensure closes idle connection.
+	 */
+	public void testIdleTimeout() throws IOException {
+		this.idleTimeout = 100;
+		this.tester = new SocketManagerTester(1);
+
+		// Bind to server socket
+		this.tester.bindServerSocket(null, null, (requestHandler) -> (buffer, bytesRead, isNewBuffer) -> {
+			if (bytesRead == 1) {
+				requestHandler.handleRequest(buffer.pooledBuffer.get(0));
+			}
+		}, (socketServicer) -> (request, responseWriter) -> {
+			responseWriter.write(null, this.tester.createStreamBuffer(2));
+			return null;
+		});
+
+		this.tester.start();
+
+		// Undertake connect and send request
+		try (Socket client = this.tester.getClient()) {
+			OutputStream outputStream = client.getOutputStream();
+			outputStream.write(1);
+			outputStream.flush();
+
+			// Receive the response
+			InputStream inputStream = client.getInputStream();
+			assertEquals("Incorrect response", 2, inputStream.read());
+
+			// Ensure idle connection is closed
+			long startTime = System.currentTimeMillis();
+			assertEquals("Connection should be closed", -1, inputStream.read());
+			assertTrue("Should only close after idle timeout",
+					(System.currentTimeMillis() - startTime) >= (this.idleTimeout / 2));
+		}
+	}
+
+	/**
+	 * Ensure closes connection not completing sending request.
+	 */
+	public void testRequestReadTimeout() throws IOException {
+		this.idleTimeout = 60 * 1000;
+		this.requestReadTimeout = 100;
+		this.tester = new SocketManagerTester(1);
+
+		// Bind to server socket (request requires two bytes)
+		this.tester.bindServerSocket(null, null, (requestHandler) -> (buffer, bytesRead, isNewBuffer) -> {
+			if (buffer.pooledBuffer.position() == 2) {
+				requestHandler.handleRequest(buffer.pooledBuffer.get(1));
+			}
+		}, (socketServicer) -> (request, responseWriter) -> {
+			fail("Should not receive request");
+			return null;
+		});
+
+		this.tester.start();
+
+		// Undertake connect and send partial request
+		try (Socket client = this.tester.getClient()) {
+			OutputStream outputStream = client.getOutputStream();
+			outputStream.write(1);
+			outputStream.flush();
+
+			// Ensure connection is closed (before idle timeout)
+			InputStream inputStream = client.getInputStream();
+			assertEquals("Connection should be closed", -1, inputStream.read());
+		}
+	}
+
+	/**
+	 * Ensure does not time out connection servicing a request.
+	 */
+	public void testNotTimeoutServicingRequest() throws Exception {
+		this.idleTimeout = 50;
+		this.requestReadTimeout = 50;
+		this.tester = new SocketManagerTester(1);
+
+		// Bind to server socket
+		this.tester.bindServerSocket(null, null, (requestHandler) -> (buffer, bytesRead, isNewBuffer) -> {
+			if (bytesRead == 1) {
+				requestHandler.handleRequest(buffer.pooledBuffer.get(0));
+			}
+		}, (socketServicer) -> (request, responseWriter) -> {
+			this.thread("slow", () -> {
+				Thread.sleep(this.idleTimeout * 6);
+				responseWriter.write(null, this.tester.createStreamBuffer(2));
+			});
+			return null;
+		});
+
+		this.tester.start();
+
+		// Undertake connect and send request
+		try (Socket client = this.tester.getClient()) {
+			OutputStream outputStream = client.getOutputStream();
+			outputStream.write(1);
+			outputStream.flush();
+
+			// Ensure receive the slow response
+			InputStream inputStream = client.getInputStream();
+			assertEquals("Incorrect response", 2, inputStream.read());
+		}
+	}
+
+	/**
+	 * Ensure closes connection with stalled writing of response.
+	 */
+	public void testWriteStallTimeout() throws IOException {
+		this.writeStallTimeout = 100;
+		this.tester = new SocketManagerTester(1);
+
+		// Bind to server socket
+		final int responseSize = 16 * 1024 * 1024;
+		this.tester.bindServerSocket(null, null, (requestHandler) -> (buffer, bytesRead, isNewBuffer) -> {
+			if (bytesRead == 1) {
+				requestHandler.handleRequest(buffer.pooledBuffer.get(0));
+			}
+		}, (socketServicer) -> (request, responseWriter) -> {
+			// Create response too large to be buffered by sockets
+			StreamBuffer<ByteBuffer> response = this.tester.bufferPool
+					.getUnpooledStreamBuffer(ByteBuffer.allocate(responseSize));
+			responseWriter.write(null, response);
+			return null;
+		});
+
+		this.tester.start();
+
+		// Undertake connect and send request
+		try (Socket client = this.tester.getClient()) {
+			OutputStream outputStream = client.getOutputStream();
+			outputStream.write(1);
+			outputStream.flush();
+
+			// Stall reading the response
+			this.sleep(1);
+
+			// Ensure connection closed without writing the entire response
+			InputStream inputStream = client.getInputStream();
+			byte[] data = new byte[8192];
+			int bytesRead = 0;
+			try {
+				int size;
+				while ((size = inputStream.read(data)) >= 0) {
+					bytesRead += size;
+				}
+			} catch (IOException ex) {
+				// Connection reset
+			}
+			assertTrue("Should not receive entire response", bytesRead < responseSize);
+		}
+	}
+
+}
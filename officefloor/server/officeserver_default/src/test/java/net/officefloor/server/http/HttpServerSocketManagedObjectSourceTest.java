@@ -21,9 +21,20 @@
 
 package net.officefloor.server.http;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.BiConsumer;
 
 import javax.net.ssl.SSLContext;
@@ -31,9 +42,14 @@ import javax.net.ssl.SSLException;
 
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 
 import net.officefloor.compile.managedobject.ManagedObjectType;
+import net.officefloor.compile.spi.office.OfficeArchitect;
+import net.officefloor.compile.spi.office.OfficeSection;
 import net.officefloor.compile.spi.officefloor.DeployedOffice;
 import net.officefloor.compile.spi.officefloor.OfficeFloorDeployer;
 import net.officefloor.compile.spi.officefloor.OfficeFloorInputManagedObject;
@@ -41,11 +57,20 @@ import net.officefloor.compile.spi.officefloor.OfficeFloorManagedObjectSource;
 import net.officefloor.compile.test.managedobject.ManagedObjectLoaderUtil;
 import net.officefloor.compile.test.managedobject.ManagedObjectTypeBuilder;
 import net.officefloor.compile.test.officefloor.CompileOfficeFloor;
+import net.officefloor.compile.impl.ApplicationOfficeFloorSource;
 import net.officefloor.frame.api.manage.OfficeFloor;
+import net.officefloor.frame.api.team.Team;
 import net.officefloor.frame.impl.spi.team.ExecutorCachedTeamSource;
 import net.officefloor.frame.test.OfficeFrameTestCase;
+import net.officefloor.server.http.http2.HpackDecoder;
+import net.officefloor.server.http.http2.HpackEncoder;
+import net.officefloor.server.http.http2.Http2Connection;
+import net.officefloor.plugin.section.clazz.Parameter;
 import net.officefloor.server.http.impl.HttpServerLocationImpl;
+import net.officefloor.server.http.websocket.WebSocketException;
+import net.officefloor.server.http.websocket.WebSocketMessage;
 import net.officefloor.server.ssl.OfficeFloorDefaultSslContextSource;
+import net.officefloor.server.stream.ServerWriter;
 
 /**
  * Tests the {@link HttpServerSocketManagedObjectSource}.
@@ -56,6 +81,12 @@ public class HttpServerSocketManagedObjectSourceTest extends OfficeFrameTestCase
 
 	private OfficeFloor officeFloor;
 
+	/**
+	 * Indicates if service the request by a {@link Team} (rather than the
+	 * {@link Socket} {@link Thread}).
+	 */
+	private boolean isServiceByTeam = false;
+
 	@Override
 	protected void tearDown() throws Exception {
 
@@ -125,6 +156,732 @@ public class HttpServerSocketManagedObjectSourceTest extends OfficeFrameTestCase
 		}
 	}
 
+	/**
+	 * Ensure can write the access log.
+	 */
+	public void testAccessLog() throws Exception {
+
+		// Start non-secure server (with access log)
+		Path accessLog = Files.createTempDirectory(this.getName()).resolve("access.log");
+		this.startServer((httpMos, deployer) -> {
+			httpMos.addProperty(HttpServerLocation.PROPERTY_HTTP_PORT, String.valueOf(7878));
+			httpMos.addProperty(HttpServerSocketManagedObjectSource.PROPERTY_ACCESS_LOG_FILE, accessLog.toString());
+		});
+
+		// Service the request
+		try (CloseableHttpClient client = HttpClientTestUtil.createHttpClient()) {
+			HttpResponse response = client.execute(new HttpGet("http://localhost:7878/path?query=value"));
+			assertEquals("Should be succesful", HttpStatus.OK.getStatusCode(),
+					response.getStatusLine().getStatusCode());
+			assertEquals("Incorrect content", "test", HttpClientTestUtil.entityToString(response));
+		}
+
+		// Close to ensure access log written
+		this.officeFloor.closeOfficeFloor();
+		this.officeFloor = null;
+
+		// Ensure request logged
+		List<String> lines = Files.readAllLines(accessLog);
+		assertEquals("Should log request: " + lines, 1, lines.size());
+		assertTrue("Incorrect access log entry: " + lines.get(0),
+				lines.get(0).endsWith("\"GET /path?query=value HTTP/1.1\" 200 4"));
+	}
+
+	/**
+	 * Ensure can service chunked request and stream the response.
+	 */
+	public void testStreamChunkedRequest() throws Exception {
+
+		// Start non-secure server
+		this.startServer(MockStreamSection.class, (httpMos, deployer) -> {
+			httpMos.addProperty(HttpServerLocation.PROPERTY_HTTP_PORT, String.valueOf(7878));
+		});
+
+		// Ensure can send chunked request and receive streamed response
+		try (CloseableHttpClient client = HttpClientTestUtil.createHttpClient()) {
+			HttpPost post = new HttpPost("http://localhost:7878");
+			post.setEntity(new InputStreamEntity(new ByteArrayInputStream("chunked".getBytes()), -1));
+			HttpResponse response = client.execute(post);
+			assertEquals("Should be succesful", HttpStatus.OK.getStatusCode(),
+					response.getStatusLine().getStatusCode());
+			assertEquals("Should stream response", "chunked",
+					response.getFirstHeader("transfer-encoding").getValue());
+			assertNull("Should not have content length", response.getFirstHeader("content-length"));
+			assertEquals("Incorrect content", "stream-chunked", HttpClientTestUtil.entityToString(response));
+		}
+	}
+
+	/**
+	 * Ensure aborts the connection on failure after streaming content (rather than
+	 * completing the chunked response).
+	 */
+	public void testAbortStreamedResponseOnFailure() throws Exception {
+
+		// Start non-secure server
+		this.startServer(MockFailStreamSection.class, (httpMos, deployer) -> {
+			httpMos.addProperty(HttpServerLocation.PROPERTY_HTTP_PORT, String.valueOf(7878));
+		});
+
+		try (Socket socket = new Socket(InetAddress.getLocalHost(), 7878)) {
+			socket.setSoTimeout(10000);
+
+			// Send the request
+			OutputStream output = socket.getOutputStream();
+			output.write("GET / HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(ServerHttpConnection.HTTP_CHARSET));
+			output.flush();
+
+			// Read response until connection closed
+			ByteArrayOutputStream response = new ByteArrayOutputStream();
+			InputStream input = socket.getInputStream();
+			for (int value = input.read(); value != -1; value = input.read()) {
+				response.write(value);
+			}
+			String content = new String(response.toByteArray(), ServerHttpConnection.HTTP_CHARSET);
+
+			// Ensure streamed content, but not completed
+			assertTrue("Should stream response: " + content, content.contains("transfer-encoding: chunked"));
+			assertTrue("Should send streamed content: " + content, content.endsWith("7\r\nstream-\r\n"));
+		}
+	}
+
+	/**
+	 * Ensure can service large request entity spilled to file.
+	 */
+	public void testSpillLargeEntity() throws Exception {
+		this.doSpillLargeEntityTest(false);
+	}
+
+	/**
+	 * Ensure can service large chunked request entity spilled to file.
+	 */
+	public void testSpillLargeChunkedEntity() throws Exception {
+		this.doSpillLargeEntityTest(true);
+	}
+
+	/**
+	 * Undertakes servicing a large request entity spilled to file.
+	 * 
+	 * @param isChunked Whether to send the entity chunked.
+	 */
+	private void doSpillLargeEntityTest(boolean isChunked) throws Exception {
+
+		// Start non-secure server (spilling entities above small threshold)
+		this.startServer(MockSpillSection.class, (httpMos, deployer) -> {
+			httpMos.addProperty(HttpServerLocation.PROPERTY_HTTP_PORT, String.valueOf(7878));
+			httpMos.addProperty(HttpServerSocketManagedObjectSource.PROPERTY_MAX_ENTITY_LENGTH,
+					String.valueOf(16 * 1024 * 1024));
+			httpMos.addProperty(HttpServerSocketManagedObjectSource.PROPERTY_ENTITY_SPILL_THRESHOLD,
+					String.valueOf(1024));
+		});
+
+		// Create the large entity
+		byte[] entity = new byte[4 * 1024 * 1024];
+		for (int i = 0; i < entity.length; i++) {
+			entity[i] = (byte) (i % 127);
+		}
+
+		// Ensure entity is received
+		try (CloseableHttpClient client = HttpClientTestUtil.createHttpClient()) {
+			HttpPost post = new HttpPost("http://localhost:7878");
+			post.setEntity(isChunked ? new InputStreamEntity(new ByteArrayInputStream(entity), -1)
+					: new ByteArrayEntity(entity));
+			HttpResponse response = client.execute(post);
+			assertEquals("Should be succesful", HttpStatus.OK.getStatusCode(),
+					response.getStatusLine().getStatusCode());
+			assertEquals("Incorrect entity received", entity.length + ":" + checksum(entity),
+					HttpClientTestUtil.entityToString(response));
+		}
+	}
+
+	/**
+	 * Ensure can stream large request entity (beyond maximum entity length).
+	 */
+	public void testStreamLargeEntity() throws Exception {
+		this.doStreamLargeEntityTest(false, false);
+	}
+
+	/**
+	 * Ensure can stream large secure request entity (releasing the unwrapped
+	 * buffers as streamed).
+	 */
+	public void testStreamLargeSecureEntity() throws Exception {
+		this.doStreamLargeEntityTest(true, false);
+	}
+
+	/**
+	 * Ensure can stream large chunked request entity (beyond maximum entity
+	 * length).
+	 */
+	public void testStreamLargeChunkedEntity() throws Exception {
+		this.doStreamLargeEntityTest(false, true);
+	}
+
+	/**
+	 * Undertakes streaming a large request entity to its servicing.
+	 * 
+	 * @param isSecure  Whether to send the entity over secure connection.
+	 * @param isChunked Whether to send the entity chunked.
+	 */
+	private void doStreamLargeEntityTest(boolean isSecure, boolean isChunked) throws Exception {
+
+		// Start server (streaming entities, reading within team)
+		this.isServiceByTeam = true;
+		this.startServer(MockStreamEntitySection.class, (httpMos, deployer) -> {
+			httpMos.addProperty(HttpServerLocation.PROPERTY_HTTP_PORT, String.valueOf(7878));
+			if (isSecure) {
+				httpMos.addProperty(HttpServerLocation.PROPERTY_HTTPS_PORT, String.valueOf(7979));
+				httpMos.addProperty(HttpServerSocketManagedObjectSource.PROPERTY_SECURE, String.valueOf(true));
+				deployer.link(
+						httpMos.getOfficeFloorManagedObjectTeam(HttpServerSocketManagedObjectSource.SSL_TEAM_NAME),
+						deployer.addTeam("TEAM", ExecutorCachedTeamSource.class.getName()));
+			}
+			httpMos.addProperty(HttpServerSocketManagedObjectSource.PROPERTY_MAX_ENTITY_LENGTH,
+					String.valueOf(1024));
+			httpMos.addProperty(HttpServerSocketManagedObjectSource.PROPERTY_ENTITY_STREAM_THRESHOLD,
+					String.valueOf(1024));
+			httpMos.addProperty(HttpServerSocketManagedObjectSource.PROPERTY_ENTITY_STREAM_BUFFER_SIZE,
+					String.valueOf(8 * 1024));
+		});
+
+		// Create the large entity (well beyond maximum entity length)
+		byte[] entity = new byte[32 * 1024 * 1024];
+		for (int i = 0; i < entity.length; i++) {
+			entity[i] = (byte) (i % 127);
+		}
+
+		// Ensure entity is received
+		try (CloseableHttpClient client = HttpClientTestUtil.createHttpClient(isSecure)) {
+			HttpPost post = new HttpPost(isSecure ? "https://localhost:7979" : "http://localhost:7878");
+			post.setEntity(isChunked ? new InputStreamEntity(new ByteArrayInputStream(entity), -1)
+					: new ByteArrayEntity(entity));
+			HttpResponse response = client.execute(post);
+			assertEquals("Should be succesful", HttpStatus.OK.getStatusCode(),
+					response.getStatusLine().getStatusCode());
+			assertEquals("Incorrect entity received", entity.length + ":" + checksum(entity),
+					HttpClientTestUtil.entityToString(response));
+		}
+	}
+
+	/**
+	 * Ensure unread streamed entity is discarded on sending the response, so the
+	 * connection may service the next request.
+	 */
+	public void testDiscardUnreadStreamedEntity() throws Exception {
+
+		// Start non-secure server (streaming entities)
+		this.isServiceByTeam = true;
+		this.startServer((httpMos, deployer) -> {
+			httpMos.addProperty(HttpServerLocation.PROPERTY_HTTP_PORT, String.valueOf(7878));
+			httpMos.addProperty(HttpServerSocketManagedObjectSource.PROPERTY_ENTITY_STREAM_THRESHOLD,
+					String.valueOf(1024));
+			httpMos.addProperty(HttpServerSocketManagedObjectSource.PROPERTY_ENTITY_STREAM_BUFFER_SIZE,
+					String.valueOf(1024));
+		});
+
+		try (CloseableHttpClient client = HttpClientTestUtil.createHttpClient()) {
+
+			// Send request with entity not read by servicing
+			HttpPost post = new HttpPost("http://localhost:7878");
+			post.setEntity(new ByteArrayEntity(new byte[1024 * 1024]));
+			HttpResponse response = client.execute(post);
+			assertEquals("Should be succesful", HttpStatus.OK.getStatusCode(),
+					response.getStatusLine().getStatusCode());
+			assertEquals("Incorrect content", "test", HttpClientTestUtil.entityToString(response));
+
+			// Ensure can service further request
+			response = client.execute(new HttpGet("http://localhost:7878"));
+			assertEquals("Should be succesful", HttpStatus.OK.getStatusCode(),
+					response.getStatusLine().getStatusCode());
+			assertEquals("Incorrect content", "test", HttpClientTestUtil.entityToString(response));
+		}
+	}
+
+	/**
+	 * Calculates a checksum of the content.
+	 * 
+	 * @param content Content.
+	 * @return Checksum.
+	 */
+	private static long checksum(byte[] content) {
+		long checksum = 0;
+		for (int i = 0; i < content.length; i++) {
+			checksum = (checksum * 31) + content[i];
+		}
+		return checksum;
+	}
+
+	/**
+	 * Ensure can service multiplexed HTTP/2 requests (with prior knowledge).
+	 */
+	public void testHttp2PriorKnowledge() throws Exception {
+
+		// Start non-secure server with HTTP/2
+		this.startServer(MockStreamSection.class, (httpMos, deployer) -> {
+			httpMos.addProperty(HttpServerLocation.PROPERTY_HTTP_PORT, String.valueOf(7878));
+			httpMos.addProperty(HttpServerSocketManagedObjectSource.PROPERTY_HTTP2, String.valueOf(true));
+		});
+
+		try (Socket socket = new Socket(InetAddress.getLocalHost(), 7878)) {
+			socket.setSoTimeout(10000);
+			OutputStream output = socket.getOutputStream();
+			DataInputStream input = new DataInputStream(socket.getInputStream());
+
+			// Send the connection preface and settings
+			output.write(Http2Connection.CONNECTION_PREFACE);
+			writeHttp2Frame(output, 0x4, 0, 0, new byte[0]);
+
+			// Send multiplexed requests (with entity for second request)
+			HpackEncoder encoder = new HpackEncoder(4096);
+			for (int streamId = 1; streamId <= 3; streamId += 2) {
+				ByteArrayOutputStream headers = new ByteArrayOutputStream();
+				encoder.encodeHeader(":method", "POST", true, headers);
+				encoder.encodeHeader(":scheme", "http", true, headers);
+				encoder.encodeHeader(":path", "/", true, headers);
+				encoder.encodeHeader(":authority", "localhost:7878", true, headers);
+				boolean isEntity = (streamId == 3);
+				writeHttp2Frame(output, 0x1, isEntity ? 0x4 : 0x5, streamId, headers.toByteArray());
+				if (isEntity) {
+					writeHttp2Frame(output, 0x0, 0x1, streamId, "h2".getBytes(ServerHttpConnection.HTTP_CHARSET));
+				}
+			}
+			output.flush();
+
+			// Read the responses
+			HpackDecoder decoder = new HpackDecoder(4096);
+			Map<Integer, String> statuses = new HashMap<>();
+			Map<Integer, StringBuilder> entities = new HashMap<>();
+			boolean isSettingsAck = false;
+			int completeCount = 0;
+			while (completeCount < 2) {
+				int length = (input.readUnsignedByte() << 16) | (input.readUnsignedByte() << 8)
+						| input.readUnsignedByte();
+				int type = input.readUnsignedByte();
+				int flags = input.readUnsignedByte();
+				int streamId = input.readInt() & 0x7fffffff;
+				byte[] payload = new byte[length];
+				input.readFully(payload);
+				switch (type) {
+				case 0x0: // DATA
+					entities.computeIfAbsent(streamId, (id) -> new StringBuilder())
+							.append(new String(payload, ServerHttpConnection.HTTP_CHARSET));
+					break;
+				case 0x1: // HEADERS
+					decoder.decode(payload, 0, length, (name, value) -> {
+						if (":status".equals(name)) {
+							statuses.put(streamId, value);
+						}
+					});
+					break;
+				case 0x4: // SETTINGS
+					isSettingsAck |= ((flags & 0x1) != 0);
+					break;
+				}
+				if (((type == 0x0) || (type == 0x1)) && ((flags & 0x1) != 0)) {
+					completeCount++;
+				}
+			}
+
+			// Ensure correct responses
+			assertTrue("Should acknowledge settings", isSettingsAck);
+			assertEquals("Incorrect status for stream 1", "200", statuses.get(1));
+			assertEquals("Incorrect status for stream 3", "200", statuses.get(3));
+			assertEquals("Incorrect entity for stream 1", "stream-", entities.get(1).toString());
+			assertEquals("Incorrect entity for stream 3", "stream-h2", entities.get(3).toString());
+		}
+	}
+
+	/**
+	 * Ensure HTTP/2 continues reading flow control frames while throttled by the
+	 * maximum in-flight requests (so large entities do not deadlock).
+	 */
+	public void testHttp2FlowControlWhileThrottled() throws Exception {
+
+		// Start non-secure server with HTTP/2 (throttled to one request)
+		this.startServer(MockStreamSection.class, (httpMos, deployer) -> {
+			httpMos.addProperty(HttpServerLocation.PROPERTY_HTTP_PORT, String.valueOf(7878));
+			httpMos.addProperty(HttpServerSocketManagedObjectSource.PROPERTY_HTTP2, String.valueOf(true));
+			httpMos.addProperty(HttpServerSocketManagedObjectSource.PROPERTY_MAX_IN_FLIGHT_REQUESTS,
+					String.valueOf(1));
+		});
+
+		// Create entity larger than the flow control window
+		byte[] entity = new byte[100000];
+		for (int i = 0; i < entity.length; i++) {
+			entity[i] = (byte) ('a' + (i % 26));
+		}
+
+		try (Socket socket = new Socket(InetAddress.getLocalHost(), 7878)) {
+			socket.setSoTimeout(10000);
+			OutputStream output = socket.getOutputStream();
+			DataInputStream input = new DataInputStream(socket.getInputStream());
+
+			// Send the connection preface and settings
+			output.write(Http2Connection.CONNECTION_PREFACE);
+			writeHttp2Frame(output, 0x4, 0, 0, new byte[0]);
+
+			// Send the request headers
+			HpackEncoder encoder = new HpackEncoder(4096);
+			ByteArrayOutputStream headers = new ByteArrayOutputStream();
+			encoder.encodeHeader(":method", "POST", true, headers);
+			encoder.encodeHeader(":scheme", "http", true, headers);
+			encoder.encodeHeader(":path", "/", true, headers);
+			encoder.encodeHeader(":authority", "localhost:7878", true, headers);
+			writeHttp2Frame(output, 0x1, 0x4, 1, headers.toByteArray());
+
+			// Send the entity (as allowed by flow control)
+			long connectionWindow = 65535;
+			long streamWindow = 65535;
+			int windowUpdateCount = 0;
+			for (int offset = 0; offset < entity.length;) {
+				int length = Math.min(10000, entity.length - offset);
+				while ((connectionWindow < length) || (streamWindow < length)) {
+					output.flush();
+					MockHttp2Frame frame = readHttp2Frame(input);
+					if (frame.type == 0x8) {
+						int increment = readHttp2Int(frame.payload, 0);
+						if (frame.streamId == 0) {
+							connectionWindow += increment;
+						} else {
+							streamWindow += increment;
+						}
+						windowUpdateCount++;
+					}
+				}
+				boolean isLast = (offset + length) == entity.length;
+				byte[] data = new byte[length];
+				System.arraycopy(entity, offset, data, 0, length);
+				writeHttp2Frame(output, 0x0, isLast ? 0x1 : 0x0, 1, data);
+				connectionWindow -= length;
+				streamWindow -= length;
+				offset += length;
+			}
+			output.flush();
+
+			// Ensure window updates batched
+			assertTrue("Should batch window updates (" + windowUpdateCount + ")", windowUpdateCount <= 4);
+
+			// Read the response (replenishing windows as consumed)
+			ByteArrayOutputStream response = new ByteArrayOutputStream();
+			boolean isComplete = false;
+			while (!isComplete) {
+				MockHttp2Frame frame = readHttp2Frame(input);
+				if ((frame.type == 0x0) && (frame.streamId == 1)) {
+					response.write(frame.payload);
+					if (frame.payload.length > 0) {
+						byte[] increment = new byte[] { (byte) (frame.payload.length >>> 24),
+								(byte) (frame.payload.length >>> 16), (byte) (frame.payload.length >>> 8),
+								(byte) frame.payload.length };
+						writeHttp2Frame(output, 0x8, 0, 0, increment);
+						writeHttp2Frame(output, 0x8, 0, 1, increment);
+						output.flush();
+					}
+					isComplete = (frame.flags & 0x1) != 0;
+				}
+			}
+
+			// Ensure correct response
+			assertEquals("Incorrect response", "stream-" + new String(entity, ServerHttpConnection.HTTP_CHARSET),
+					new String(response.toByteArray(), ServerHttpConnection.HTTP_CHARSET));
+		}
+	}
+
+	/**
+	 * Ensure HTTP/2 connection closed on rapidly resetting streams.
+	 */
+	public void testHttp2RapidReset() throws Exception {
+
+		// Start non-secure server with HTTP/2
+		this.startServer(MockStreamSection.class, (httpMos, deployer) -> {
+			httpMos.addProperty(HttpServerLocation.PROPERTY_HTTP_PORT, String.valueOf(7878));
+			httpMos.addProperty(HttpServerSocketManagedObjectSource.PROPERTY_HTTP2, String.valueOf(true));
+		});
+
+		try (Socket socket = new Socket(InetAddress.getLocalHost(), 7878)) {
+			socket.setSoTimeout(10000);
+			OutputStream output = socket.getOutputStream();
+			DataInputStream input = new DataInputStream(socket.getInputStream());
+
+			// Send the connection preface and settings
+			output.write(Http2Connection.CONNECTION_PREFACE);
+			writeHttp2Frame(output, 0x4, 0, 0, new byte[0]);
+
+			// Rapidly open and reset streams (beyond allowed resets)
+			HpackEncoder encoder = new HpackEncoder(4096);
+			for (int i = 0; i < 201; i++) {
+				int streamId = (i * 2) + 1;
+				ByteArrayOutputStream headers = new ByteArrayOutputStream();
+				encoder.encodeHeader(":method", "POST", true, headers);
+				encoder.encodeHeader(":scheme", "http", true, headers);
+				encoder.encodeHeader(":path", "/", true, headers);
+				encoder.encodeHeader(":authority", "localhost:7878", true, headers);
+				writeHttp2Frame(output, 0x1, 0x4, streamId, headers.toByteArray());
+				writeHttp2Frame(output, 0x3, 0, streamId, new byte[] { 0, 0, 0, 0x8 });
+			}
+			output.flush();
+
+			// Ensure connection closed for excessive resets
+			MockHttp2Frame frame;
+			do {
+				frame = readHttp2Frame(input);
+			} while (frame.type != 0x7);
+			assertEquals("Should be ENHANCE_YOUR_CALM", 0xb, readHttp2Int(frame.payload, 4));
+			assertEquals("Connection should be closed", -1, input.read());
+		}
+	}
+
+	/**
+	 * Ensure can upgrade to WebSocket and service messages.
+	 */
+	public void testWebSocket() throws Exception {
+
+		// Start server with WebSocket
+		this.startServer(MockWebSocketSection.class, (httpMos, deployer) -> {
+			httpMos.addProperty(HttpServerLocation.PROPERTY_HTTP_PORT, String.valueOf(7878));
+			httpMos.addProperty(HttpServerSocketManagedObjectSource.PROPERTY_WEB_SOCKET_PATH, "/ws");
+			deployer.link(
+					httpMos.getOfficeFloorManagedObjectFlow(
+							HttpServerSocketManagedObjectSource.HANDLE_WEB_SOCKET_MESSAGE_FLOW_NAME),
+					deployer.getDeployedOffice(ApplicationOfficeFloorSource.OFFICE_NAME)
+							.getDeployedOfficeInput("SECTION", "message"));
+		});
+
+		try (Socket socket = new Socket(InetAddress.getLocalHost(), 7878)) {
+			socket.setSoTimeout(10000);
+			OutputStream output = socket.getOutputStream();
+			DataInputStream input = new DataInputStream(socket.getInputStream());
+
+			// Undertake the handshake
+			output.write(("GET /ws?id=1 HTTP/1.1\r\nHost: localhost\r\nUpgrade: websocket\r\n"
+					+ "Connection: Upgrade\r\nSec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n"
+					+ "Sec-WebSocket-Version: 13\r\n\r\n").getBytes(ServerHttpConnection.HTTP_CHARSET));
+			output.flush();
+			StringBuilder handshake = new StringBuilder();
+			while (!handshake.toString().endsWith("\r\n\r\n")) {
+				handshake.append((char) input.readUnsignedByte());
+			}
+			String response = handshake.toString();
+			assertTrue("Should switch protocols: " + response,
+					response.startsWith("HTTP/1.1 101 Switching Protocols\r\n"));
+			assertTrue("Incorrect accept: " + response,
+					response.contains("sec-websocket-accept: s3pPLMBiTxaQ9kYGzzhZRbK+xOo=\r\n"));
+
+			// Ensure ping is answered
+			writeWebSocketFrame(output, 0x9, "ping".getBytes(ServerHttpConnection.HTTP_CHARSET));
+			assertEquals("Incorrect pong", "ping", readWebSocketFrame(input, 0xA));
+
+			// Ensure message serviced (with upgrade request details)
+			writeWebSocketFrame(output, 0x1, "hello".getBytes(ServerHttpConnection.HTTP_CHARSET));
+			assertEquals("Incorrect echo", "echo hello /ws?id=1", readWebSocketFrame(input, 0x1));
+
+			// Ensure close is answered
+			writeWebSocketFrame(output, 0x8, new byte[] { 0x03, (byte) 0xe8 });
+			assertEquals("Incorrect close", "\u0003\u00e8", readWebSocketFrame(input, 0x8));
+			assertEquals("Connection should be closed", -1, input.read());
+		}
+	}
+
+	/**
+	 * Ensure pings the WebSocket client without connection timeouts configured.
+	 */
+	public void testWebSocketPingWithoutTimeouts() throws Exception {
+
+		// Start server with WebSocket (and no connection timeouts)
+		this.startServer(MockWebSocketSection.class, (httpMos, deployer) -> {
+			httpMos.addProperty(HttpServerLocation.PROPERTY_HTTP_PORT, String.valueOf(7878));
+			httpMos.addProperty(HttpServerSocketManagedObjectSource.PROPERTY_WEB_SOCKET_PATH, "/ws");
+			httpMos.addProperty(HttpServerSocketManagedObjectSource.PROPERTY_WEB_SOCKET_PING_INTERVAL, "100");
+			deployer.link(
+					httpMos.getOfficeFloorManagedObjectFlow(
+							HttpServerSocketManagedObjectSource.HANDLE_WEB_SOCKET_MESSAGE_FLOW_NAME),
+					deployer.getDeployedOffice(ApplicationOfficeFloorSource.OFFICE_NAME)
+							.getDeployedOfficeInput("SECTION", "message"));
+		});
+
+		try (Socket socket = new Socket(InetAddress.getLocalHost(), 7878)) {
+			socket.setSoTimeout(10000);
+			OutputStream output = socket.getOutputStream();
+			DataInputStream input = new DataInputStream(socket.getInputStream());
+			upgradeWebSocket(output, input);
+
+			// Ensure pinged (as no data sent by client)
+			assertEquals("Incorrect ping", "", readWebSocketFrame(input, 0x9));
+
+			// Ensure close is answered
+			writeWebSocketFrame(output, 0x8, new byte[] { 0x03, (byte) 0xe8 });
+			assertEquals("Incorrect close", "\u0003\u00e8", readWebSocketFrame(input, 0x8));
+		}
+	}
+
+	/**
+	 * Ensure closes the WebSocket with policy violation should the client not
+	 * consume the sent messages.
+	 */
+	public void testWebSocketExceedMaxPendingOutput() throws Exception {
+
+		// Start server with WebSocket (with small pending output)
+		this.startServer(MockWebSocketSection.class, (httpMos, deployer) -> {
+			httpMos.addProperty(HttpServerLocation.PROPERTY_HTTP_PORT, String.valueOf(7878));
+			httpMos.addProperty(HttpServerSocketManagedObjectSource.PROPERTY_WEB_SOCKET_PATH, "/ws");
+			httpMos.addProperty(HttpServerSocketManagedObjectSource.PROPERTY_WEB_SOCKET_MAX_PENDING_OUTPUT,
+					String.valueOf(256 * 1024));
+			deployer.link(
+					httpMos.getOfficeFloorManagedObjectFlow(
+							HttpServerSocketManagedObjectSource.HANDLE_WEB_SOCKET_MESSAGE_FLOW_NAME),
+					deployer.getDeployedOffice(ApplicationOfficeFloorSource.OFFICE_NAME)
+							.getDeployedOfficeInput("SECTION", "message"));
+		});
+
+		try (Socket socket = new Socket(InetAddress.getLocalHost(), 7878)) {
+			socket.setSoTimeout(10000);
+			OutputStream output = socket.getOutputStream();
+			DataInputStream input = new DataInputStream(socket.getInputStream());
+			upgradeWebSocket(output, input);
+
+			// Flood the client with messages
+			writeWebSocketFrame(output, 0x1, "flood".getBytes(ServerHttpConnection.HTTP_CHARSET));
+
+			// Ensure closed with policy violation (skipping the sent messages)
+			int opcode;
+			byte[] payload;
+			int messageCount = 0;
+			do {
+				opcode = input.readUnsignedByte();
+				int length = input.readUnsignedByte();
+				if (length == 126) {
+					length = input.readUnsignedShort();
+				} else if (length == 127) {
+					length = (int) input.readLong();
+				}
+				payload = new byte[length];
+				input.readFully(payload);
+				if (opcode == (0x80 | 0x2)) {
+					messageCount++;
+				}
+			} while (opcode != (0x80 | 0x8));
+			assertTrue("Should not send all messages: " + messageCount, messageCount < MockWebSocketSection.FLOOD_COUNT);
+			assertEquals("Should be policy violation", 2, payload.length);
+			assertEquals("Incorrect status", WebSocketException.POLICY_VIOLATION,
+					((payload[0] & 0xff) << 8) | (payload[1] & 0xff));
+			assertEquals("Connection should be closed", -1, input.read());
+		}
+	}
+
+	/**
+	 * Undertakes the WebSocket upgrade handshake.
+	 * 
+	 * @param output {@link OutputStream}.
+	 * @param input  {@link DataInputStream}.
+	 */
+	private static void upgradeWebSocket(OutputStream output, DataInputStream input) throws IOException {
+		output.write(("GET /ws?id=1 HTTP/1.1\r\nHost: localhost\r\nUpgrade: websocket\r\n"
+				+ "Connection: Upgrade\r\nSec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n"
+				+ "Sec-WebSocket-Version: 13\r\n\r\n").getBytes(ServerHttpConnection.HTTP_CHARSET));
+		output.flush();
+		StringBuilder handshake = new StringBuilder();
+		while (!handshake.toString().endsWith("\r\n\r\n")) {
+			handshake.append((char) input.readUnsignedByte());
+		}
+		assertTrue("Should switch protocols: " + handshake,
+				handshake.toString().startsWith("HTTP/1.1 101 Switching Protocols\r\n"));
+	}
+
+	/**
+	 * Writes a masked (client) WebSocket frame.
+	 * 
+	 * @param output  {@link OutputStream}.
+	 * @param opcode  Opcode.
+	 * @param payload Payload (less than 126 bytes).
+	 */
+	private static void writeWebSocketFrame(OutputStream output, int opcode, byte[] payload) throws IOException {
+		byte[] mask = new byte[] { 0x12, 0x34, 0x56, 0x78 };
+		output.write(new byte[] { (byte) (0x80 | opcode), (byte) (0x80 | payload.length) });
+		output.write(mask);
+		for (int i = 0; i < payload.length; i++) {
+			output.write(payload[i] ^ mask[i % 4]);
+		}
+		output.flush();
+	}
+
+	/**
+	 * Reads an (unmasked) WebSocket frame.
+	 * 
+	 * @param input  {@link DataInputStream}.
+	 * @param opcode Expected opcode.
+	 * @return Payload of the frame.
+	 */
+	private static String readWebSocketFrame(DataInputStream input, int opcode) throws IOException {
+		assertEquals("Incorrect opcode", 0x80 | opcode, input.readUnsignedByte());
+		byte[] payload = new byte[input.readUnsignedByte()];
+		input.readFully(payload);
+		return new String(payload, StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * Writes a HTTP/2 frame.
+	 * 
+	 * @param output   {@link OutputStream}.
+	 * @param type     Frame type.
+	 * @param flags    Frame flags.
+	 * @param streamId Stream identifier.
+	 * @param payload  Payload.
+	 */
+	private static void writeHttp2Frame(OutputStream output, int type, int flags, int streamId, byte[] payload)
+			throws IOException {
+		output.write(new byte[] { (byte) (payload.length >>> 16), (byte) (payload.length >>> 8),
+				(byte) payload.length, (byte) type, (byte) flags, (byte) (streamId >>> 24), (byte) (streamId >>> 16),
+				(byte) (streamId >>> 8), (byte) streamId });
+		output.write(payload);
+	}
+
+	/**
+	 * Read HTTP/2 frame.
+	 */
+	private static class MockHttp2Frame {
+
+		private final int type;
+
+		private final int flags;
+
+		private final int streamId;
+
+		private final byte[] payload;
+
+		private MockHttp2Frame(int type, int flags, int streamId, byte[] payload) {
+			this.type = type;
+			this.flags = flags;
+			this.streamId = streamId;
+			this.payload = payload;
+		}
+	}
+
+	/**
+	 * Reads a HTTP/2 frame.
+	 * 
+	 * @param input {@link DataInputStream}.
+	 * @return {@link MockHttp2Frame}.
+	 */
+	private static MockHttp2Frame readHttp2Frame(DataInputStream input) throws IOException {
+		int length = (input.readUnsignedByte() << 16) | (input.readUnsignedByte() << 8) | input.readUnsignedByte();
+		int type = input.readUnsignedByte();
+		int flags = input.readUnsignedByte();
+		int streamId = input.readInt() & 0x7fffffff;
+		byte[] payload = new byte[length];
+		input.readFully(payload);
+		return new MockHttp2Frame(type, flags, streamId, payload);
+	}
+
+	/**
+	 * Reads a 32 bit integer from the HTTP/2 frame payload.
+	 * 
+	 * @param payload Payload.
+	 * @param offset  Offset into the payload.
+	 * @return Value.
+	 */
+	private static int readHttp2Int(byte[] payload, int offset) {
+		return ((payload[offset] & 0xff) << 24) | ((payload[offset + 1] & 0xff) << 16)
+				| ((payload[offset + 2] & 0xff) << 8) | (payload[offset + 3] & 0xff);
+	}
+
 	/**
 	 * Ensure can create a secure connection.
 	 */
@@ -218,6 +975,18 @@ public class HttpServerSocketManagedObjectSourceTest extends OfficeFrameTestCase
 	 */
 	private void startServer(BiConsumer<OfficeFloorManagedObjectSource, OfficeFloorDeployer> httpConfigurer)
 			throws Exception {
+		this.startServer(MockSection.class, httpConfigurer);
+	}
+
+	/**
+	 * Starts the {@link HttpServerSocketManagedObjectSource} to service requests.
+	 * 
+	 * @param sectionClass   Class of the section servicing the request.
+	 * @param httpConfigurer Configures the
+	 *                       {@link HttpServerSocketManagedObjectSource}.
+	 */
+	private void startServer(Class<?> sectionClass,
+			BiConsumer<OfficeFloorManagedObjectSource, OfficeFloorDeployer> httpConfigurer) throws Exception {
 
 		// Compile the OfficeFloor to service request
 		CompileOfficeFloor compile = new CompileOfficeFloor();
@@ -240,6 +1009,12 @@ public class HttpServerSocketManagedObjectSourceTest extends OfficeFrameTestCase
 			DeployedOffice office = extension.getDeployedOffice();
 			deployer.link(httpMos.getManagingOffice(), office);
 
+			// Configure team to service request
+			if (this.isServiceByTeam) {
+				deployer.link(office.getDeployedOfficeTeam("TEAM"),
+						deployer.addTeam("SERVICE_TEAM", ExecutorCachedTeamSource.class.getName()));
+			}
+
 			// Configure handling request
 			deployer.link(
 					httpMos.getOfficeFloorManagedObjectFlow(
@@ -248,7 +1023,14 @@ public class HttpServerSocketManagedObjectSourceTest extends OfficeFrameTestCase
 
 		});
 		compile.office((extension) -> {
-			extension.addSection("SECTION", MockSection.class);
+			OfficeSection section = extension.addSection("SECTION", sectionClass);
+
+			// Determine if service by team
+			if (this.isServiceByTeam) {
+				OfficeArchitect architect = extension.getOfficeArchitect();
+				architect.link(section.getOfficeSectionFunction("service").getResponsibleTeam(),
+						architect.addOfficeTeam("TEAM"));
+			}
 		});
 		this.officeFloor = compile.compileAndOpenOfficeFloor();
 	}
@@ -266,4 +1048,107 @@ public class HttpServerSocketManagedObjectSourceTest extends OfficeFrameTestCase
 		}
 	}
 
+	/**
+	 * Mock section to stream the response.
+	 */
+	public static class MockStreamSection {
+
+		public void service(ServerHttpConnection connection) throws IOException {
+
+			// Read the request entity
+			StringBuilder entity = new StringBuilder();
+			InputStream input = connection.getRequest().getEntity();
+			for (int value = input.read(); value != -1; value = input.read()) {
+				entity.append((char) value);
+			}
+
+			// Stream the response
+			ServerWriter writer = connection.getResponse().getEntityWriter();
+			writer.write("stream-");
+			writer.flushToClient();
+			writer.write(entity.toString());
+		}
+	}
+
+	/**
+	 * Mock section to fail after streaming content.
+	 */
+	public static class MockFailStreamSection {
+
+		public void service(ServerHttpConnection connection) throws IOException {
+			ServerWriter writer = connection.getResponse().getEntityWriter();
+			writer.write("stream-");
+			writer.flushToClient();
+			writer.write("unsent");
+			throw new IOException("TEST");
+		}
+	}
+
+	/**
+	 * Mock section to summarise the (spilled) request entity.
+	 */
+	public static class MockSpillSection {
+
+		public void service(ServerHttpConnection connection) throws IOException {
+
+			// Read the request entity
+			ByteArrayOutputStream entity = new ByteArrayOutputStream();
+			InputStream input = connection.getRequest().getEntity();
+			for (int value = input.read(); value != -1; value = input.read()) {
+				entity.write(value);
+			}
+
+			// Summarise the entity
+			byte[] content = entity.toByteArray();
+			connection.getResponse().getEntityWriter().write(content.length + ":" + checksum(content));
+		}
+	}
+
+	/**
+	 * Mock section to summarise the streamed request entity (without holding it
+	 * in memory).
+	 */
+	public static class MockStreamEntitySection {
+
+		public void service(ServerHttpConnection connection) throws IOException {
+
+			// Summarise the request entity as read
+			long length = 0;
+			long checksum = 0;
+			byte[] buffer = new byte[4096];
+			InputStream input = connection.getRequest().getEntity();
+			for (int bytesRead = input.read(buffer); bytesRead != -1; bytesRead = input.read(buffer)) {
+				for (int i = 0; i < bytesRead; i++) {
+					checksum = (checksum * 31) + buffer[i];
+				}
+				length += bytesRead;
+			}
+			connection.getResponse().getEntityWriter().write(length + ":" + checksum);
+		}
+	}
+
+	/**
+	 * Mock section to service the WebSocket messages.
+	 */
+	public static class MockWebSocketSection {
+
+		public void service(ServerHttpConnection connection) throws IOException {
+			connection.getResponse().getEntityWriter().write("not upgraded");
+		}
+
+		private static final int FLOOD_COUNT = 1000;
+
+		public void message(@Parameter WebSocketMessage message, ServerHttpConnection connection) {
+			if ("flood".equals(message.getText())) {
+				byte[] data = new byte[64 * 1024];
+				for (int i = 0; i < FLOOD_COUNT; i++) {
+					message.getWebSocket().sendBinary(data);
+				}
+				return;
+			}
+			message.getWebSocket()
+					.sendText("echo " + message.getText() + " " + connection.getRequest().getUri());
+		}
+	}
+
 }
@@ -0,0 +1,172 @@
+/*-
+ * #%L
+ * Default OfficeFloor HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.server.http.http2;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.officefloor.frame.test.OfficeFrameTestCase;
+
+/**
+ * Tests the {@link HpackDecoder} and {@link HpackEncoder}.
+ *
+ * @author Daniel Sagenschneider
+ */
+public class HpackTest extends OfficeFrameTestCase {
+
+	/**
+	 * {@link HpackDecoder} (retained across header blocks).
+	 */
+	private final HpackDecoder decoder = new HpackDecoder(4096);
+
+	/**
+	 * Ensure decode requests without Huffman (RFC 7541 C.3).
+	 */
+	public void testDecodeRequestsWithoutHuffman() throws Exception {
+		this.assertDecode("8286 8441 0f77 7777 2e65 7861 6d70 6c65 2e63 6f6d", 57, ":method", "GET", ":scheme",
+				"http", ":path", "/", ":authority", "www.example.com");
+		this.assertDecode("8286 84be 5808 6e6f 2d63 6163 6865", 110, ":method", "GET", ":scheme", "http", ":path",
+				"/", ":authority", "www.example.com", "cache-control", "no-cache");
+		this.assertDecode(
+				"8287 85bf 400a 6375 7374 6f6d 2d6b 6579 0c63 7573 746f 6d2d 7661 6c75 65", 164, ":method", "GET",
+				":scheme", "https", ":path", "/index.html", ":authority", "www.example.com", "custom-key",
+				"custom-value");
+	}
+
+	/**
+	 * Ensure decode requests with Huffman (RFC 7541 C.4).
+	 */
+	public void testDecodeRequestsWithHuffman() throws Exception {
+		this.assertDecode("8286 8441 8cf1 e3c2 e5f2 3a6b a0ab 90f4 ff", 57, ":method", "GET", ":scheme", "http",
+				":path", "/", ":authority", "www.example.com");
+		this.assertDecode("8286 84be 5886 a8eb 1064 9cbf", 110, ":method", "GET", ":scheme", "http", ":path", "/",
+				":authority", "www.example.com", "cache-control", "no-cache");
+		this.assertDecode("8287 85bf 4088 25a8 49e9 5ba9 7d7f 8925 a849 e95b b8e8 b4bf", 164, ":method", "GET",
+				":scheme", "https", ":path", "/index.html", ":authority", "www.example.com", "custom-key",
+				"custom-value");
+	}
+
+	/**
+	 * Ensure invalid index is a compression error.
+	 */
+	public void testInvalidIndex() throws Exception {
+		byte[] block = toBytes("be");
+		try {
+			this.decoder.decode(block, 0, block.length, (name, value) -> fail("Should not decode header"));
+			fail("Should not successfully decode");
+		} catch (Http2Exception ex) {
+			assertEquals("Incorrect error", Http2Exception.COMPRESSION_ERROR, ex.getErrorCode());
+		}
+	}
+
+	/**
+	 * Ensure Huffman encodes.
+	 */
+	public void testHuffmanEncode() throws Exception {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		HpackHuffman.encode("www.example.com", output);
+		assertEquals("Incorrect encoding", "f1e3c2e5f23a6ba0ab90f4ff", toHex(output.toByteArray()));
+		assertEquals("Incorrect encoded length", 12, HpackHuffman.getEncodedLength("www.example.com"));
+	}
+
+	/**
+	 * Ensure encoded response headers can be decoded (sharing dynamic table
+	 * state across header blocks).
+	 */
+	public void testEncodeDecode() throws Exception {
+		HpackEncoder encoder = new HpackEncoder(4096);
+		for (int i = 0; i < 3; i++) {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			encoder.encodeHeader(":status", "200", true, output);
+			encoder.encodeHeader("content-type", "text/plain", true, output);
+			encoder.encodeHeader("content-length", String.valueOf(i), false, output);
+			encoder.encodeHeader("x-custom", "value", true, output);
+			byte[] block = output.toByteArray();
+			List<String> headers = new ArrayList<>();
+			this.decoder.decode(block, 0, block.length, (name, value) -> {
+				headers.add(name);
+				headers.add(value);
+			});
+			assertEquals("Incorrect headers (" + i + ")", "[:status, 200, content-type, text/plain, content-length, "
+					+ i + ", x-custom, value]", headers.toString());
+			if (i == 0) {
+				assertTrue("Should encode literals", block.length > 8);
+			} else {
+				assertTrue("Should use dynamic table for repeated headers", block.length < 8);
+			}
+		}
+		assertEquals("Tables should be in sync", encoder.getHeaderTable().getSize(),
+				this.decoder.getHeaderTable().getSize());
+	}
+
+	/**
+	 * Asserts decoding of the header block.
+	 *
+	 * @param hex                Header block as hex.
+	 * @param expectedSize       Expected dynamic table size after decoding.
+	 * @param expectedNameValues Expected header name/value pairs.
+	 */
+	private void assertDecode(String hex, int expectedSize, String... expectedNameValues) throws Http2Exception {
+		byte[] block = toBytes(hex);
+		List<String> headers = new ArrayList<>();
+		this.decoder.decode(block, 0, block.length, (name, value) -> {
+			headers.add(name);
+			headers.add(value);
+		});
+		assertEquals("Incorrect number of headers", expectedNameValues.length, headers.size());
+		for (int i = 0; i < expectedNameValues.length; i++) {
+			assertEquals("Incorrect header " + (i / 2), expectedNameValues[i], headers.get(i));
+		}
+		assertEquals("Incorrect dynamic table size", expectedSize, this.decoder.getHeaderTable().getSize());
+	}
+
+	/**
+	 * Converts the hex to bytes.
+	 *
+	 * @param hex Hex.
+	 * @return Bytes.
+	 */
+	private static byte[] toBytes(String hex) {
+		hex = hex.replace(" ", "");
+		byte[] bytes = new byte[hex.length() / 2];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, (i * 2) + 2), 16);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Converts the bytes to hex.
+	 *
+	 * @param bytes Bytes.
+	 * @return Hex.
+	 */
+	private static String toHex(byte[] bytes) {
+		StringBuilder hex = new StringBuilder();
+		for (byte value : bytes) {
+			hex.append(String.format("%02x", value & 0xff));
+		}
+		return hex.toString();
+	}
+
+}
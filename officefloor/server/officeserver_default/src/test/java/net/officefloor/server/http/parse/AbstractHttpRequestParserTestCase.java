@@ -80,6 +80,11 @@ public abstract class AbstractHttpRequestParserTestCase extends OfficeFrameTestC
 	 */
 	private static final long MAX_ENTITY_LENGTH = 1024;
 
+	/**
+	 * Length above which the entity is spilled to file for testing.
+	 */
+	private static final long ENTITY_SPILL_THRESHOLD = 5;
+
 	/**
 	 * {@link HttpRequestParser} to test.
 	 */
@@ -425,6 +430,82 @@ public abstract class AbstractHttpRequestParserTestCase extends OfficeFrameTestC
 				"Content-Length header value must be an integer");
 	}
 
+	/**
+	 * Validate POST with chunked entity.
+	 */
+	public void testChunkedEntity() {
+		this.doMethodTest("POST /path HTTP/1.1\nTransfer-Encoding: chunked\n\n4\nTEST\nA;ext=value\n_CHUNKED__\n0\n\n",
+				HttpMethod.POST, "/path", HttpVersion.HTTP_1_1, "TEST_CHUNKED__", "Transfer-Encoding", "chunked");
+	}
+
+	/**
+	 * Validate POST with chunked entity containing trailer fields.
+	 */
+	public void testChunkedEntityWithTrailer() {
+		this.doMethodTest("POST /path HTTP/1.1\nTransfer-Encoding: chunked\n\n4\nTEST\n0\nTrailer: value\n\n",
+				HttpMethod.POST, "/path", HttpVersion.HTTP_1_1, "TEST", "Transfer-Encoding", "chunked");
+	}
+
+	/**
+	 * Validate POST with empty chunked entity.
+	 */
+	public void testEmptyChunkedEntity() {
+		this.doMethodTest("POST /path HTTP/1.1\nTransfer-Encoding: chunked\n\n0\n\n", HttpMethod.POST, "/path",
+				HttpVersion.HTTP_1_1, "", "Transfer-Encoding", "chunked");
+	}
+
+	/**
+	 * Validate POST with not all of the chunked entity received.
+	 */
+	public void testNotAllOfChunkedEntityReceived() {
+		this.doMethodTest("POST /path HTTP/1.1\nTransfer-Encoding: chunked\n\n4\nTEST\n", HttpMethod.POST, "/path",
+				HttpVersion.HTTP_1_1, null, "Transfer-Encoding", "chunked");
+	}
+
+	/**
+	 * Ensure chunk size is hexidecimal.
+	 */
+	public void testInvalidChunkSize() {
+		this.doInvalidMethodTest("POST /path HTTP/1.1\nTransfer-Encoding: chunked\n\nINVALID\n", HttpStatus.BAD_REQUEST,
+				"Invalid chunk size");
+	}
+
+	/**
+	 * Ensures fails if chunked entity is bigger than maximum size.
+	 */
+	public void testTooLong_ChunkedEntity() {
+		this.doInvalidMethodTest(
+				"POST /path HTTP/1.1\nTransfer-Encoding: chunked\n\n" + Long.toHexString(MAX_ENTITY_LENGTH + 1) + "\n",
+				HttpStatus.REQUEST_ENTITY_TOO_LARGE,
+				"Request entity must be less than maximum of " + MAX_ENTITY_LENGTH + " bytes");
+	}
+
+	/**
+	 * Ensures only chunked Transfer-Encoding is supported.
+	 */
+	public void testUnsupportedTransferEncoding() {
+		this.doInvalidMethodTest("POST /path HTTP/1.1\nTransfer-Encoding: gzip\n\n", HttpStatus.NOT_IMPLEMENTED,
+				"Only chunked Transfer-Encoding supported");
+	}
+
+	/**
+	 * Ensures rejects request with both Content-Length and chunked
+	 * Transfer-Encoding (as ambiguous framing allows request smuggling).
+	 */
+	public void testContentLengthThenChunked() {
+		this.doInvalidMethodTest("POST /path HTTP/1.1\nContent-Length: 4\nTransfer-Encoding: chunked\n\n",
+				HttpStatus.BAD_REQUEST, "Request must not have both Content-Length and chunked Transfer-Encoding");
+	}
+
+	/**
+	 * Ensures rejects request with both chunked Transfer-Encoding and
+	 * Content-Length.
+	 */
+	public void testChunkedThenContentLength() {
+		this.doInvalidMethodTest("POST /path HTTP/1.1\nTransfer-Encoding: chunked\nContent-Length: 4\n\n",
+				HttpStatus.BAD_REQUEST, "Request must not have both Content-Length and chunked Transfer-Encoding");
+	}
+
 	/**
 	 * Ensure able to reset {@link HttpRequestParser} to parse another request.
 	 */
@@ -438,6 +519,77 @@ public abstract class AbstractHttpRequestParserTestCase extends OfficeFrameTestC
 				"/two", HttpVersion.HTTP_1_0, "ANOTHER", "Content-Length", "7", "HeaderTwo", "ValueTwo");
 	}
 
+	/**
+	 * Ensure able to spill entity to file.
+	 */
+	public void testSpillEntity() {
+		this.parser = this.createSpillParser();
+		this.doMethodTest("POST /path HTTP/1.1\nContent-Length: 10\nHeaderOne: ValueOne\n\nSPILL_TEST", HttpMethod.POST,
+				"/path", HttpVersion.HTTP_1_1, "SPILL_TEST", "Content-Length", "10", "HeaderOne", "ValueOne");
+	}
+
+	/**
+	 * Ensure not spill entity within threshold.
+	 */
+	public void testNotSpillSmallEntity() {
+		this.parser = this.createSpillParser();
+		this.doMethodTest("POST /path HTTP/1.1\nContent-Length: 4\n\nTEST", HttpMethod.POST, "/path",
+				HttpVersion.HTTP_1_1, "TEST", "Content-Length", "4");
+	}
+
+	/**
+	 * Validate with not all of the spilled entity received.
+	 */
+	public void testSpillEntityNotAllReceived() {
+		this.parser = this.createSpillParser();
+		this.doMethodTest("POST /path HTTP/1.1\nContent-Length: 10\n\nSPILL", HttpMethod.POST, "/path",
+				HttpVersion.HTTP_1_1, null, "Content-Length", "10");
+	}
+
+	/**
+	 * Ensure able to spill chunked entity to file.
+	 */
+	public void testSpillChunkedEntity() {
+		this.parser = this.createSpillParser();
+		this.doMethodTest("POST /path HTTP/1.1\nTransfer-Encoding: chunked\n\n4\nTEST\nA;ext=value\n_CHUNKED__\n0\n\n",
+				HttpMethod.POST, "/path", HttpVersion.HTTP_1_1, "TEST_CHUNKED__", "Transfer-Encoding", "chunked");
+	}
+
+	/**
+	 * Ensures fails if spilled chunked entity is bigger than maximum size.
+	 */
+	public void testTooLong_SpillChunkedEntity() {
+		this.parser = this.createSpillParser();
+		this.doInvalidMethodTest("POST /path HTTP/1.1\nTransfer-Encoding: chunked\n\n6\nSPILL_\n"
+				+ Long.toHexString(MAX_ENTITY_LENGTH - 5) + "\n", HttpStatus.REQUEST_ENTITY_TOO_LARGE,
+				"Request entity must be less than maximum of " + MAX_ENTITY_LENGTH + " bytes");
+	}
+
+	/**
+	 * Ensure able to parse another request after spilling entity to file.
+	 */
+	public void testSpillEntityReset() {
+		this.parser = this.createSpillParser();
+
+		// Parse first request (spilling entity)
+		this.doMethodTest("POST /one HTTP/1.1\nContent-Length: 10\n\nSPILL_TEST", HttpMethod.POST, "/one",
+				HttpVersion.HTTP_1_1, "SPILL_TEST", "Content-Length", "10");
+
+		// Parse second request
+		this.doMethodTest("PUT /two HTTP/1.0\nContent-Length: 7\n\nANOTHER", HttpMethod.PUT, "/two",
+				HttpVersion.HTTP_1_0, "ANOTHER", "Content-Length", "7");
+	}
+
+	/**
+	 * Creates the {@link HttpRequestParser} that spills entities to file.
+	 * 
+	 * @return {@link HttpRequestParser} that spills entities to file.
+	 */
+	private HttpRequestParser createSpillParser() {
+		return new HttpRequestParser(new HttpRequestParserMetaData(MAX_HEADER_COUNT, MAX_TEXT_LENGTH,
+				MAX_ENTITY_LENGTH, ENTITY_SPILL_THRESHOLD, null));
+	}
+
 	/**
 	 * Ensure <code>%HH</code> is not translated. This is left to later
 	 * translation as need to distinguish '&amp;' characters appropriately.
@@ -0,0 +1,378 @@
+/*-
+ * #%L
+ * Default OfficeFloor HTTP Server
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.server.http.parse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import net.officefloor.frame.test.OfficeFrameTestCase;
+import net.officefloor.server.http.HttpException;
+import net.officefloor.server.http.HttpMethod;
+import net.officefloor.server.http.UsAsciiUtil;
+import net.officefloor.server.http.mock.MockStreamBufferPool;
+import net.officefloor.server.http.parse.HttpRequestParser.HttpRequestParserMetaData;
+import net.officefloor.server.stream.StreamBuffer;
+
+/**
+ * Tests the {@link HttpRequestParser} streaming the entity via a
+ * {@link StreamedEntity}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class StreamedEntityHttpRequestParserTest extends OfficeFrameTestCase {
+
+	/**
+	 * Maximum length of the entity in bytes for testing.
+	 */
+	private static final long MAX_ENTITY_LENGTH = 8;
+
+	/**
+	 * Length above which the entity is streamed for testing.
+	 */
+	private static final long ENTITY_STREAM_THRESHOLD = 5;
+
+	/**
+	 * Number of times paused receiving the {@link StreamedEntity}.
+	 */
+	private int pauseCount = 0;
+
+	/**
+	 * Number of times resumed receiving the {@link StreamedEntity}.
+	 */
+	private int resumeCount = 0;
+
+	/**
+	 * Indicates if receiving the {@link StreamedEntity}.
+	 */
+	private boolean isReceiving = false;
+
+	/**
+	 * Ensure able to stream the entity (even if greater than maximum entity
+	 * length).
+	 */
+	public void testStreamEntity() throws Exception {
+		HttpRequestParser parser = this.createParser(1024);
+
+		// Parse the request (available once headers parsed)
+		this.append(parser, "POST /path HTTP/1.1\nContent-Length: 11\n\nSTREAM");
+		assertTrue("Should have request", parser.parse());
+		assertSame("Incorrect method", HttpMethod.POST, parser.getMethod().get());
+		assertEquals("Incorrect request URI", "/path", parser.getRequestURI().get());
+		assertNull("Entity should be streamed", parser.getEntity());
+		StreamedEntity entity = parser.getStreamedEntity();
+		assertNotNull("Should have streamed entity", entity);
+		assertTrue("Should be receiving entity", this.isReceiving);
+
+		// Stream the available content
+		assertFalse("Require remaining entity", parser.parse());
+		assertEquals("Incorrect available content", 6, entity.available());
+		assertEquals("Incorrect streamed content", "STREAM", this.read(entity, 6));
+
+		// Stream remaining content (and parse next request)
+		this.append(parser, "_TEST" + "GET /next HTTP/1.1\n\n");
+		assertTrue("Should have next request", parser.parse());
+		assertFalse("Should complete receiving entity", this.isReceiving);
+		assertNull("Next request not streamed", parser.getStreamedEntity());
+		assertEquals("Incorrect next request URI", "/next", parser.getRequestURI().get());
+
+		// Ensure completed entity
+		assertEquals("Incorrect remaining content", "_TEST", this.read(entity, 5));
+		assertEquals("Should be end of entity", -1, entity.read());
+	}
+
+	/**
+	 * Ensure always stream chunked entity (as length unknown).
+	 */
+	public void testStreamChunkedEntity() throws Exception {
+		HttpRequestParser parser = this.createParser(1024);
+
+		// Parse the request
+		this.append(parser, "POST /path HTTP/1.1\nTransfer-Encoding: chunked\n\n4\nTEST\nA;ext=value\n_CHUNKED__\n");
+		assertTrue("Should have request", parser.parse());
+		StreamedEntity entity = parser.getStreamedEntity();
+		assertNotNull("Should stream chunked entity", entity);
+
+		// Stream the chunks (beyond maximum entity length)
+		assertFalse("Require remaining chunks", parser.parse());
+		assertEquals("Incorrect streamed content", "TEST_CHUNKED__", this.read(entity, 14));
+
+		// Complete the entity
+		this.append(parser, "0\n\n");
+		assertFalse("No further request", parser.parse());
+		assertFalse("Should complete receiving entity", this.isReceiving);
+		assertEquals("Should be end of entity", -1, entity.read());
+	}
+
+	/**
+	 * Ensure pauses receiving the entity until the servicing consumes content.
+	 */
+	public void testBackPressure() throws Exception {
+		HttpRequestParser parser = this.createParser(4);
+
+		// Parse the request
+		this.append(parser, "POST /path HTTP/1.1\nContent-Length: 10\n\nBACK_PRESS");
+		assertTrue("Should have request", parser.parse());
+		StreamedEntity entity = parser.getStreamedEntity();
+
+		// Should pause once buffer full
+		assertFalse("Should pause", parser.parse());
+		assertEquals("Should pause receiving", 1, this.pauseCount);
+		assertEquals("Should only buffer capacity", 4, entity.available());
+
+		// Consuming content should resume
+		assertEquals("Incorrect content", "BACK", this.read(entity, 4));
+		assertEquals("Should resume receiving", 1, this.resumeCount);
+
+		// Continue receiving the content
+		assertFalse("Should pause again", parser.parse());
+		assertEquals("Should pause receiving again", 2, this.pauseCount);
+		assertEquals("Incorrect content", "_PRE", this.read(entity, 4));
+		assertFalse("Should have received all content", parser.parse());
+		assertFalse("Should complete receiving entity", this.isReceiving);
+		assertEquals("Incorrect remaining content", "SS", this.read(entity, 2));
+		assertEquals("Should be end of entity", -1, entity.read());
+	}
+
+	/**
+	 * Ensure discarded entity content is not buffered (nor pauses receiving).
+	 */
+	public void testDiscardEntity() throws Exception {
+		HttpRequestParser parser = this.createParser(4);
+
+		// Parse the request
+		this.append(parser, "POST /path HTTP/1.1\nContent-Length: 10\n\nDISCARD_ME");
+		assertTrue("Should have request", parser.parse());
+		StreamedEntity entity = parser.getStreamedEntity();
+		assertFalse("Should pause", parser.parse());
+
+		// Discard the entity (resuming to consume remaining content)
+		entity.discard();
+		assertEquals("Should resume receiving", 1, this.resumeCount);
+		assertFalse("No further request", parser.parse());
+		assertFalse("Should complete receiving entity", this.isReceiving);
+		assertEquals("Should not buffer discarded content", 0, entity.available());
+		try {
+			entity.read();
+			fail("Should not read discarded entity");
+		} catch (IOException ex) {
+			assertEquals("Incorrect cause", "Streamed entity closed", ex.getMessage());
+		}
+	}
+
+	/**
+	 * Ensure the servicing is notified of failure to receive the entity.
+	 */
+	public void testFailStreamedEntity() throws Exception {
+		HttpRequestParser parser = this.createParser(1024);
+
+		// Parse the request
+		this.append(parser, "POST /path HTTP/1.1\nContent-Length: 10\n\nFAIL");
+		assertTrue("Should have request", parser.parse());
+		StreamedEntity entity = parser.getStreamedEntity();
+		assertFalse("Require remaining entity", parser.parse());
+
+		// Fail the entity (e.g. connection closed)
+		IOException failure = new IOException("TEST");
+		assertTrue("Should fail streamed entity", parser.failStreamedEntity(failure));
+		assertFalse("Should only fail once", parser.failStreamedEntity(new IOException("ANOTHER")));
+
+		// Available content still readable before failure
+		assertEquals("Incorrect content", "FAIL", this.read(entity, 4));
+		try {
+			entity.read();
+			fail("Should propagate failure");
+		} catch (IOException ex) {
+			assertSame("Incorrect failure", failure, ex);
+		}
+	}
+
+	/**
+	 * Ensure waiting on content on the {@link java.net.Socket}
+	 * {@link Thread} fails (rather than deadlocking).
+	 */
+	public void testNotWaitOnSocketThread() throws Exception {
+		HttpRequestParser parser = this.createParser(1024);
+
+		// Parse the request (without entity content)
+		this.append(parser, "POST /path HTTP/1.1\nContent-Length: 10\n\n");
+		assertTrue("Should have request", parser.parse());
+		StreamedEntity entity = parser.getStreamedEntity();
+
+		// Should not block reading on socket thread
+		try {
+			entity.read();
+			fail("Should not wait on socket thread");
+		} catch (IOException ex) {
+			assertTrue("Incorrect cause: " + ex.getMessage(),
+					ex.getMessage().startsWith("Streamed HttpRequest entity must be read by a thread other than"));
+		}
+	}
+
+	/**
+	 * Ensure not stream entity within threshold.
+	 */
+	public void testNotStreamWithinThreshold() throws Exception {
+		HttpRequestParser parser = this.createParser(1024);
+
+		// Small entity not streamed
+		this.append(parser, "POST /path HTTP/1.1\nContent-Length: 4\n\nTEST");
+		assertTrue("Should have request", parser.parse());
+		assertNull("Should not stream small entity", parser.getStreamedEntity());
+		assertEquals("Incorrect entity length", 4, parser.getEntity().length());
+	}
+
+	/**
+	 * Ensure can browse the streamed entity content.
+	 */
+	public void testBrowseStreamedEntity() throws Exception {
+		HttpRequestParser parser = this.createParser(1024);
+
+		// Parse the request
+		this.append(parser, "POST /path HTTP/1.1\nContent-Length: 6\n\nBROWSE");
+		assertTrue("Should have request", parser.parse());
+		StreamedEntity entity = parser.getStreamedEntity();
+		assertFalse("No further request", parser.parse());
+
+		// Browse the content (not consuming it)
+		InputStream browse = entity.createBrowseInputStream();
+		assertEquals("Incorrect browse content", "BROWSE", this.read(browse, 6));
+		assertEquals("Should be end of browse", -1, browse.read());
+
+		// Content still available to read
+		assertEquals("Incorrect content", "BROWSE", this.read(entity, 6));
+	}
+
+	/**
+	 * Ensure browsing the streamed entity retains at most the maximum entity
+	 * length of content.
+	 */
+	public void testBrowseLimitedToMaxEntityLength() throws Exception {
+		HttpRequestParser parser = this.createParser(4);
+
+		// Parse the request (entity larger than maximum entity length)
+		this.append(parser, "POST /path HTTP/1.1\nContent-Length: 12\n\nBROWSE_LIMIT");
+		assertTrue("Should have request", parser.parse());
+		StreamedEntity entity = parser.getStreamedEntity();
+
+		// Browse on another thread (as waits on content)
+		ByteArrayOutputStream browsed = new ByteArrayOutputStream();
+		Throwable[] failure = new Throwable[1];
+		Thread browser = new Thread(() -> {
+			try {
+				InputStream browse = entity.createBrowseInputStream();
+				for (int value = browse.read(); value != -1; value = browse.read()) {
+					browsed.write(value);
+				}
+			} catch (Throwable ex) {
+				failure[0] = ex;
+			}
+		});
+		browser.start();
+
+		// Receive the content (until browsing fails)
+		long endTime = System.currentTimeMillis() + 10000;
+		while (browser.isAlive()) {
+			assertTrue("Timed out browsing entity", System.currentTimeMillis() < endTime);
+			parser.parse();
+			Thread.sleep(1);
+		}
+
+		// Ensure browsing fails beyond maximum entity length
+		assertTrue("Should fail browsing: " + failure[0], failure[0] instanceof HttpException);
+		assertEquals("Incorrect status", 413, ((HttpException) failure[0]).getHttpStatus().getStatusCode());
+		assertEquals("Incorrect browsed content", "BROWSE_L", new String(browsed.toByteArray()));
+
+		// Ensure retained content is limited to maximum entity length
+		assertEquals("Incorrect retained content", MAX_ENTITY_LENGTH, entity.available());
+		assertEquals("Incorrect buffer size", MAX_ENTITY_LENGTH, entity.getBufferSize());
+
+		// Content still available to read
+		assertEquals("Incorrect content", "BROWSE_L", this.read(entity, 8));
+	}
+
+	/**
+	 * Creates the {@link HttpRequestParser} that streams entities.
+	 * 
+	 * @param bufferSize
+	 *            Size of the {@link StreamedEntity} buffer.
+	 * @return {@link HttpRequestParser}.
+	 */
+	private HttpRequestParser createParser(int bufferSize) {
+		return new HttpRequestParser(new HttpRequestParserMetaData(255, 1024, MAX_ENTITY_LENGTH, -1, null,
+				ENTITY_STREAM_THRESHOLD, bufferSize)) {
+
+			@Override
+			protected void receiveStreamedEntity(boolean isReceiving) {
+				StreamedEntityHttpRequestParserTest.this.isReceiving = isReceiving;
+			}
+
+			@Override
+			protected void pauseStreamedEntity() {
+				StreamedEntityHttpRequestParserTest.this.pauseCount++;
+			}
+
+			@Override
+			protected void resumeStreamedEntity() {
+				StreamedEntityHttpRequestParserTest.this.resumeCount++;
+			}
+		};
+	}
+
+	/**
+	 * Appends data to the {@link HttpRequestParser}.
+	 * 
+	 * @param parser
+	 *            {@link HttpRequestParser}.
+	 * @param data
+	 *            Data to append.
+	 */
+	private void append(HttpRequestParser parser, String data) throws HttpException {
+		byte[] bytes = UsAsciiUtil.convertToHttp(data);
+		MockStreamBufferPool pool = new MockStreamBufferPool(() -> ByteBuffer.allocateDirect(bytes.length));
+		StreamBuffer<ByteBuffer> buffer = pool.getPooledStreamBuffer();
+		buffer.write(bytes);
+		parser.appendStreamBuffer(buffer);
+	}
+
+	/**
+	 * Reads the content from the {@link InputStream}.
+	 * 
+	 * @param input
+	 *            {@link InputStream}.
+	 * @param length
+	 *            Number of bytes to read.
+	 * @return Content read.
+	 */
+	private String read(InputStream input, int length) throws IOException {
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		byte[] buffer = new byte[length];
+		while (content.size() < length) {
+			int bytesRead = input.read(buffer, 0, length - content.size());
+			assertTrue("Should have content", bytesRead > 0);
+			content.write(buffer, 0, bytesRead);
+		}
+		return new String(content.toByteArray(), UsAsciiUtil.US_ASCII);
+	}
+
+}
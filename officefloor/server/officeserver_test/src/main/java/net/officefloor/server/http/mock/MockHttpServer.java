@@ -41,6 +41,7 @@ import net.officefloor.compile.spi.officefloor.DeployedOfficeInput;
 import net.officefloor.compile.spi.officefloor.ExternalServiceInput;
 import net.officefloor.server.http.HttpEscalationHandler;
 import net.officefloor.server.http.HttpHeader;
+import net.officefloor.server.http.HttpHeaderBlock;
 import net.officefloor.server.http.HttpHeaderValue;
 import net.officefloor.server.http.HttpMethod;
 import net.officefloor.server.http.HttpRequest;
@@ -890,8 +891,8 @@ public class MockHttpServer implements HttpServerLocation, HttpServerImplementat
 			MockStreamBufferPool bufferPool = new MockStreamBufferPool();
 			HttpServerLocation serverLocation = new MockHttpServer();
 			ProcessAwareServerHttpConnectionManagedObject<ByteBuffer> serverHttpConnection = new ProcessAwareServerHttpConnectionManagedObject<>(
-					serverLocation, false, () -> HttpMethod.GET, () -> "/", HttpVersion.HTTP_1_1, null, null, null,
-					null, true, new MockHttpResponseWriter(this.request, this.server, this, null), bufferPool);
+					serverLocation, false, () -> HttpMethod.GET, () -> "/", HttpVersion.HTTP_1_1, null,
+					ByteSequence.EMPTY, null, null, true, new MockHttpResponseWriter(this.request, this.server, this, null), bufferPool);
 			this.delegate = new ProcessAwareHttpResponse<>(serverHttpConnection, HttpVersion.HTTP_1_1,
 					new MockManagedObjectContext());
 		}
@@ -930,6 +931,16 @@ public class MockHttpServer implements HttpServerLocation, HttpServerImplementat
 			return this.delegate.getCookies();
 		}
 
+		@Override
+		public HttpHeaderBlock getHeaderBlock() {
+			return this.delegate.getHeaderBlock();
+		}
+
+		@Override
+		public void setHeaderBlock(HttpHeaderBlock headerBlock) {
+			this.delegate.setHeaderBlock(headerBlock);
+		}
+
 		@Override
 		public void setContentType(String contentType, Charset charset) throws IOException {
 			this.delegate.setContentType(contentType, charset);
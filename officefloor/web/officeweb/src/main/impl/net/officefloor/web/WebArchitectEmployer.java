@@ -82,7 +82,10 @@ import net.officefloor.web.state.HttpObjectManagedObjectSource;
 import net.officefloor.web.state.HttpObjectManagedObjectSource.DefaultHttpObjectParser;
 import net.officefloor.web.state.HttpRequestObjectManagedObjectSource;
 import net.officefloor.web.state.HttpRequestStateManagedObjectSource;
+import net.officefloor.web.state.MultipartFormManagedObjectSource;
 import net.officefloor.web.tokenise.FormHttpArgumentParser;
+import net.officefloor.web.tokenise.MultipartFormHttpArgumentParser;
+import net.officefloor.web.tokenise.MultipartFormTokeniser;
 
 /**
  * {@link WebArchitect} implementation.
@@ -96,6 +99,12 @@ public class WebArchitectEmployer implements WebArchitect {
 	 */
 	public static final String PROPERTY_CONTEXT_PATH = "context.path";
 
+	/**
+	 * Name of {@link Property} specifying the maximum number of bytes for the
+	 * value of a <code>multipart/form-data</code> part.
+	 */
+	public static final String PROPERTY_MULTIPART_MAX_VALUE_LENGTH = "multipart.max.value.length";
+
 	/**
 	 * Employs a {@link WebArchitect}.
 	 * 
@@ -496,7 +505,10 @@ public class WebArchitectEmployer implements WebArchitect {
 		httpSessionMos.addOfficeManagedObject("HTTP_SESSION", ManagedObjectScope.PROCESS);
 
 		// Load the argument parsers
-		HttpArgumentParser[] argumentParsers = new HttpArgumentParser[] { new FormHttpArgumentParser() };
+		int multipartMaxValueLength = Integer.parseInt(this.officeSourceContext.getProperty(
+				PROPERTY_MULTIPART_MAX_VALUE_LENGTH, String.valueOf(MultipartFormTokeniser.DEFAULT_MAX_VALUE_LENGTH)));
+		HttpArgumentParser[] argumentParsers = new HttpArgumentParser[] { new FormHttpArgumentParser(),
+				new MultipartFormHttpArgumentParser(multipartMaxValueLength) };
 
 		// Configure the HTTP Application and Request State
 		this.officeArchitect
@@ -508,6 +520,12 @@ public class WebArchitectEmployer implements WebArchitect {
 						new HttpRequestStateManagedObjectSource(argumentParsers))
 				.addOfficeManagedObject("HTTP_REQUEST_STATE", ManagedObjectScope.PROCESS);
 
+		// Configure the multipart form (streaming parts of the entity)
+		this.officeArchitect
+				.addOfficeManagedObjectSource("MULTIPART_FORM",
+						new MultipartFormManagedObjectSource(multipartMaxValueLength))
+				.addOfficeManagedObject("MULTIPART_FORM", ManagedObjectScope.PROCESS);
+
 		// Create the object response registrator
 		ObjectResponseRegistrator objectResponseRegistrator = new ObjectResponseRegistrator();
 
@@ -0,0 +1,139 @@
+/*-
+ * #%L
+ * Web Plug-in
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.web.state;
+
+import net.officefloor.frame.api.build.None;
+import net.officefloor.frame.api.managedobject.CoordinatingManagedObject;
+import net.officefloor.frame.api.managedobject.ManagedObject;
+import net.officefloor.frame.api.managedobject.ObjectRegistry;
+import net.officefloor.frame.api.managedobject.source.ManagedObjectSource;
+import net.officefloor.frame.api.managedobject.source.impl.AbstractManagedObjectSource;
+import net.officefloor.frame.api.source.PrivateSource;
+import net.officefloor.server.http.HttpException;
+import net.officefloor.server.http.ServerHttpConnection;
+import net.officefloor.web.multipart.MultipartForm;
+import net.officefloor.web.multipart.MultipartFormPartHandler;
+import net.officefloor.web.tokenise.MultipartFormTokeniser;
+
+/**
+ * {@link ManagedObjectSource} for the {@link MultipartForm}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+@PrivateSource
+public class MultipartFormManagedObjectSource
+		extends AbstractManagedObjectSource<MultipartFormManagedObjectSource.MultipartFormDependencies, None> {
+
+	/**
+	 * Dependency keys.
+	 */
+	public static enum MultipartFormDependencies {
+		SERVER_HTTP_CONNECTION
+	}
+
+	/**
+	 * Maximum number of bytes for the value of a part.
+	 */
+	private final int maxValueLength;
+
+	/**
+	 * Instantiate.
+	 * 
+	 * @param maxValueLength Maximum number of bytes for the value of a part.
+	 */
+	public MultipartFormManagedObjectSource(int maxValueLength) {
+		this.maxValueLength = maxValueLength;
+	}
+
+	/*
+	 * =================== ManagedObjectSource ==========================
+	 */
+
+	@Override
+	protected void loadSpecification(SpecificationContext context) {
+		// No properties required
+	}
+
+	@Override
+	protected void loadMetaData(MetaDataContext<MultipartFormDependencies, None> context) throws Exception {
+		context.setObjectClass(MultipartForm.class);
+		context.setManagedObjectClass(MultipartFormManagedObject.class);
+		context.addDependency(MultipartFormDependencies.SERVER_HTTP_CONNECTION, ServerHttpConnection.class);
+	}
+
+	@Override
+	protected ManagedObject getManagedObject() throws Throwable {
+		return new MultipartFormManagedObject();
+	}
+
+	/**
+	 * {@link ManagedObject} for the {@link MultipartForm}.
+	 */
+	private class MultipartFormManagedObject
+			implements CoordinatingManagedObject<MultipartFormDependencies>, MultipartForm {
+
+		/**
+		 * {@link ServerHttpConnection}.
+		 */
+		private ServerHttpConnection connection;
+
+		/**
+		 * Indicates if the parts have been handled (consuming the entity).
+		 */
+		private boolean isHandled = false;
+
+		/*
+		 * ====================== ManagedObject ===========================
+		 */
+
+		@Override
+		public void loadObjects(ObjectRegistry<MultipartFormDependencies> registry) throws Throwable {
+			this.connection = (ServerHttpConnection) registry
+					.getObject(MultipartFormDependencies.SERVER_HTTP_CONNECTION);
+		}
+
+		@Override
+		public Object getObject() throws Throwable {
+			return this;
+		}
+
+		/*
+		 * ====================== MultipartForm ===========================
+		 */
+
+		@Override
+		public void handleParts(MultipartFormPartHandler handler) throws HttpException {
+
+			// Entity consumed, so may only handle once
+			if (this.isHandled) {
+				throw new IllegalStateException(
+						"Parts of " + MultipartForm.class.getSimpleName() + " may only be handled once");
+			}
+			this.isHandled = true;
+
+			// Stream the parts
+			MultipartFormTokeniser.tokeniseMultipartEntity(this.connection.getRequest(),
+					MultipartFormManagedObjectSource.this.maxValueLength, handler);
+		}
+	}
+
+}
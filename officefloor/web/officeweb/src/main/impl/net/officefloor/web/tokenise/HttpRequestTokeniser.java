@@ -207,9 +207,15 @@ public class HttpRequestTokeniser {
 
 		// Load content arguments
 		if ((contentType != null) && (argumentParsers != null)) {
+
+			// Match on media type (ignoring parameters, e.g. boundary)
+			int parametersStart = contentType.indexOf(';');
+			String mediaType = (parametersStart < 0) ? contentType.trim()
+					: contentType.substring(0, parametersStart).trim();
+
 			for (int i = 0; i < argumentParsers.length; i++) {
 				HttpArgumentParser parser = argumentParsers[i];
-				if (contentType.equals(parser.getContentType())) {
+				if (mediaType.equalsIgnoreCase(parser.getContentType())) {
 					parser.parse(request, valueLoader);
 					return; // use only first matching
 				}
@@ -0,0 +1,83 @@
+/*-
+ * #%L
+ * Web Plug-in
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.web.tokenise;
+
+import net.officefloor.server.http.HttpException;
+import net.officefloor.server.http.HttpRequest;
+import net.officefloor.web.build.HttpArgumentParser;
+import net.officefloor.web.build.HttpValueLocation;
+import net.officefloor.web.multipart.MultipartForm;
+import net.officefloor.web.value.load.ValueLoader;
+
+/**
+ * <p>
+ * Multipart form {@link HttpArgumentParser}.
+ * <p>
+ * Text parts are loaded as values. File parts load their file name as the
+ * value, with the file content skipped (not retained in memory).
+ * <p>
+ * Parsing consumes the entity. To stream the file content, inject the
+ * {@link MultipartForm} instead of loading the arguments.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class MultipartFormHttpArgumentParser implements HttpArgumentParser {
+
+	/**
+	 * Maximum number of bytes for a text part value.
+	 */
+	private final int maxValueLength;
+
+	/**
+	 * Instantiate with default maximum value length.
+	 */
+	public MultipartFormHttpArgumentParser() {
+		this(MultipartFormTokeniser.DEFAULT_MAX_VALUE_LENGTH);
+	}
+
+	/**
+	 * Instantiate.
+	 * 
+	 * @param maxValueLength Maximum number of bytes for a text part value.
+	 */
+	public MultipartFormHttpArgumentParser(int maxValueLength) {
+		this.maxValueLength = maxValueLength;
+	}
+
+	/*
+	 * =================== HttpArgumentParser ====================
+	 */
+
+	@Override
+	public String getContentType() {
+		return MultipartFormTokeniser.MULTIPART_FORM_DATA;
+	}
+
+	@Override
+	public void parse(HttpRequest request, ValueLoader valueLoader) throws HttpException {
+		MultipartFormTokeniser.tokeniseMultipartEntity(request, this.maxValueLength, (part) -> {
+			String value = (part.getFileName() != null) ? part.getFileName() : part.getValue();
+			valueLoader.loadValue(part.getName(), value, HttpValueLocation.ENTITY);
+		});
+	}
+
+}
@@ -0,0 +1,703 @@
+/*-
+ * #%L
+ * Web Plug-in
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.web.tokenise;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.HashMap;
+import java.util.Map;
+
+import net.officefloor.server.buffer.StreamBufferByteSequence;
+import net.officefloor.server.buffer.StreamBufferScanner;
+import net.officefloor.server.buffer.StreamBufferScanner.ScanTarget;
+import net.officefloor.server.http.HttpException;
+import net.officefloor.server.http.HttpHeader;
+import net.officefloor.server.http.HttpRequest;
+import net.officefloor.server.http.HttpStatus;
+import net.officefloor.server.http.ServerHttpConnection;
+import net.officefloor.server.stream.BufferJvmFix;
+import net.officefloor.server.stream.StreamBuffer;
+import net.officefloor.web.escalation.BadRequestHttpException;
+import net.officefloor.web.multipart.MultipartFormPart;
+import net.officefloor.web.multipart.MultipartFormPartHandler;
+
+/**
+ * <p>
+ * Tokenises the <code>multipart/form-data</code> {@link HttpRequest} entity.
+ * <p>
+ * The entity is streamed through the {@link StreamBufferScanner}, with each
+ * {@link MultipartFormPart} content read directly from the scanned
+ * {@link StreamBuffer} up to the boundary delimiter. This allows large file
+ * uploads to be handled without materialising the entity.
+ * <p>
+ * The entity is consumed (rather than browsed), so that a streamed entity is
+ * not retained in memory. Therefore, the entity may only be tokenised once.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class MultipartFormTokeniser {
+
+	/**
+	 * <code>Content-Type</code> for multipart form data.
+	 */
+	public static final String MULTIPART_FORM_DATA = "multipart/form-data";
+
+	/**
+	 * Default maximum number of bytes for the value of a
+	 * {@link MultipartFormPart}.
+	 */
+	public static final int DEFAULT_MAX_VALUE_LENGTH = 1024 * 1024;
+
+	/**
+	 * Default size of the scan buffer.
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * Maximum length of a part header line. Must be less than the scan buffer
+	 * size to ensure the header line fits within the scan buffer.
+	 */
+	private static final int MAX_HEADER_LENGTH = 4096;
+
+	/**
+	 * Maximum number of headers for a part.
+	 */
+	private static final int MAX_HEADER_COUNT = 32;
+
+	/**
+	 * Carriage return.
+	 */
+	private static final byte CR = '\r';
+
+	/**
+	 * Line feed.
+	 */
+	private static final byte LF = '\n';
+
+	/**
+	 * Dash.
+	 */
+	private static final byte DASH = '-';
+
+	/**
+	 * {@link ScanTarget} for the carriage return (starting the delimiter and
+	 * ending header lines).
+	 */
+	private static final ScanTarget CR_TARGET = new ScanTarget(CR);
+
+	/**
+	 * Tokenises the <code>multipart/form-data</code> entity.
+	 * 
+	 * @param request {@link HttpRequest}.
+	 * @param handler {@link MultipartFormPartHandler} to receive the
+	 *                {@link MultipartFormPart} instances.
+	 * @throws HttpException If fails to tokenise the multipart content.
+	 */
+	public static void tokeniseMultipartEntity(HttpRequest request, MultipartFormPartHandler handler)
+			throws HttpException {
+		tokeniseMultipartEntity(request, DEFAULT_MAX_VALUE_LENGTH, handler);
+	}
+
+	/**
+	 * Tokenises the <code>multipart/form-data</code> entity.
+	 * 
+	 * @param request        {@link HttpRequest}.
+	 * @param maxValueLength Maximum number of bytes for the value of a
+	 *                       {@link MultipartFormPart}.
+	 * @param handler        {@link MultipartFormPartHandler} to receive the
+	 *                       {@link MultipartFormPart} instances.
+	 * @throws HttpException If fails to tokenise the multipart content.
+	 */
+	public static void tokeniseMultipartEntity(HttpRequest request, int maxValueLength,
+			MultipartFormPartHandler handler) throws HttpException {
+
+		// Obtain the boundary
+		HttpHeader contentType = request.getHeaders().getHeader("content-type");
+		String boundary = (contentType == null) ? null : getParameter(contentType.getValue(), "boundary");
+		if ((boundary == null) || (boundary.length() == 0)) {
+			throw new BadRequestHttpException(null, "No boundary for " + MULTIPART_FORM_DATA);
+		}
+
+		// Tokenise the entity
+		try {
+			new MultipartFormTokeniser(request.getEntity(), boundary, maxValueLength)
+					.tokenise(handler);
+		} catch (IOException ex) {
+			throw new HttpException(ex);
+		}
+	}
+
+	/**
+	 * Obtains the parameter value from a header value (e.g.
+	 * <code>boundary</code> from <code>Content-Type</code>).
+	 * 
+	 * @param headerValue   Header value.
+	 * @param parameterName Name of the parameter.
+	 * @return Parameter value or <code>null</code> if parameter not provided.
+	 */
+	public static String getParameter(String headerValue, String parameterName) {
+
+		// Search the parameters (after the initial value)
+		int index = headerValue.indexOf(';');
+		while ((index >= 0) && (index < headerValue.length())) {
+			index++; // move past separator
+
+			// Obtain the parameter name
+			int equals = headerValue.indexOf('=', index);
+			if (equals < 0) {
+				return null; // no further parameters
+			}
+			String name = headerValue.substring(index, equals).trim();
+
+			// Obtain the parameter value
+			String value;
+			index = equals + 1;
+			while ((index < headerValue.length()) && (headerValue.charAt(index) == ' ')) {
+				index++;
+			}
+			if ((index < headerValue.length()) && (headerValue.charAt(index) == '"')) {
+				// Quoted value
+				StringBuilder quoted = new StringBuilder();
+				index++;
+				while ((index < headerValue.length()) && (headerValue.charAt(index) != '"')) {
+					char character = headerValue.charAt(index++);
+					if ((character == '\\') && (index < headerValue.length())) {
+						character = headerValue.charAt(index++);
+					}
+					quoted.append(character);
+				}
+				value = quoted.toString();
+				index = headerValue.indexOf(';', index);
+			} else {
+				// Token value
+				int end = headerValue.indexOf(';', index);
+				value = headerValue.substring(index, (end < 0) ? headerValue.length() : end).trim();
+				index = end;
+			}
+
+			// Determine if the parameter
+			if (parameterName.equalsIgnoreCase(name)) {
+				return value;
+			}
+		}
+
+		// As here, parameter not provided
+		return null;
+	}
+
+	/**
+	 * {@link InputStream} to the entity.
+	 */
+	private final InputStream entity;
+
+	/**
+	 * Delimiter (<code>CRLF--boundary</code>) separating the parts.
+	 */
+	private final byte[] delimiter;
+
+	/**
+	 * Maximum number of bytes for the value of a {@link MultipartFormPart}.
+	 */
+	private final int maxValueLength;
+
+	/**
+	 * Alternating {@link ScanStreamBuffer} instances, so remaining content is
+	 * carried into the other {@link ScanStreamBuffer} on reading further
+	 * content.
+	 */
+	private final ScanStreamBuffer[] buffers = new ScanStreamBuffer[2];
+
+	/**
+	 * Index of the current {@link ScanStreamBuffer}.
+	 */
+	private int currentBufferIndex = 0;
+
+	/**
+	 * {@link StreamBufferScanner} for the current {@link ScanStreamBuffer}.
+	 */
+	private StreamBufferScanner scanner = new StreamBufferScanner();
+
+	/**
+	 * Position of next byte within the current {@link ScanStreamBuffer}.
+	 */
+	private int position = 0;
+
+	/**
+	 * Limit of the bytes within the current {@link ScanStreamBuffer}.
+	 */
+	private int limit;
+
+	/**
+	 * Instantiate.
+	 * 
+	 * @param entity         {@link InputStream} to the entity.
+	 * @param boundary       Boundary.
+	 * @param maxValueLength Maximum number of bytes for the value of a
+	 *                       {@link MultipartFormPart}.
+	 */
+	private MultipartFormTokeniser(InputStream entity, String boundary, int maxValueLength) {
+		this.entity = entity;
+		this.maxValueLength = maxValueLength;
+
+		// Create the delimiter
+		byte[] boundaryBytes = boundary.getBytes(ServerHttpConnection.HTTP_CHARSET);
+		this.delimiter = new byte[boundaryBytes.length + 4];
+		this.delimiter[0] = CR;
+		this.delimiter[1] = LF;
+		this.delimiter[2] = DASH;
+		this.delimiter[3] = DASH;
+		System.arraycopy(boundaryBytes, 0, this.delimiter, 4, boundaryBytes.length);
+
+		// Create the scan buffers
+		int bufferSize = Math.max(BUFFER_SIZE, this.delimiter.length * 2);
+		this.buffers[0] = new ScanStreamBuffer(bufferSize);
+		this.buffers[1] = new ScanStreamBuffer(bufferSize);
+
+		// Start with CRLF, so first boundary matches delimiter
+		ScanStreamBuffer buffer = this.buffers[0];
+		buffer.data[0] = CR;
+		buffer.data[1] = LF;
+		this.limit = 2;
+		BufferJvmFix.position(buffer.pooledBuffer, this.limit);
+		this.scanner.appendStreamBuffer(buffer);
+	}
+
+	/**
+	 * Tokenises the parts.
+	 * 
+	 * @param handler {@link MultipartFormPartHandler}.
+	 * @throws IOException   If fails to read the entity.
+	 * @throws HttpException If invalid multipart entity.
+	 */
+	private void tokenise(MultipartFormPartHandler handler) throws IOException, HttpException {
+
+		// Skip the preamble
+		new PartInputStream().skipRemaining();
+
+		// Handle the parts
+		for (;;) {
+
+			// Determine if close delimiter (ignoring epilogue)
+			int first = this.readByte();
+			int second = this.readByte();
+			if ((first == DASH) && (second == DASH)) {
+				return;
+			}
+
+			// Ignore transport padding, then require CRLF
+			while ((first == ' ') || (first == '\t')) {
+				first = second;
+				second = this.readByte();
+			}
+			if ((first != CR) || (second != LF)) {
+				throw new BadRequestHttpException(null, "Invalid " + MULTIPART_FORM_DATA + " boundary");
+			}
+
+			// Read the part headers
+			Map<String, String> headers = this.readHeaders();
+
+			// Obtain the form field details
+			String disposition = headers.get("content-disposition");
+			String name = (disposition == null) ? null : getParameter(disposition, "name");
+			if (name == null) {
+				throw new BadRequestHttpException(null, "No form field name for " + MULTIPART_FORM_DATA + " part");
+			}
+			String fileName = getParameter(disposition, "filename");
+
+			// Handle the part (skipping any content not read)
+			PartImpl part = new PartImpl(name, fileName, headers);
+			handler.handlePart(part);
+			part.content.skipRemaining();
+		}
+	}
+
+	/**
+	 * Reads the part headers.
+	 * 
+	 * @return Headers keyed by lower case name.
+	 * @throws IOException   If fails to read the entity.
+	 * @throws HttpException If invalid headers.
+	 */
+	private Map<String, String> readHeaders() throws IOException, HttpException {
+		Map<String, String> headers = new HashMap<>();
+		for (;;) {
+
+			// Scan the header line
+			StreamBufferByteSequence line = this.scanner.scanToTarget(CR_TARGET, MAX_HEADER_LENGTH,
+					MultipartFormTokeniser::createHeaderTooLongException);
+			while (line == null) {
+				this.fill((this.limit - this.position) + 1);
+				line = this.scanner.scanToTarget(CR_TARGET, MAX_HEADER_LENGTH,
+						MultipartFormTokeniser::createHeaderTooLongException);
+			}
+			if (line.length() >= MAX_HEADER_LENGTH) {
+				throw createHeaderTooLongException();
+			}
+			this.position += line.length();
+
+			// Consume the line end
+			this.readByte(); // CR
+			if (this.readByte() != LF) {
+				throw new BadRequestHttpException(null, "Invalid " + MULTIPART_FORM_DATA + " part header");
+			}
+
+			// Blank line ends the headers
+			if (line.length() == 0) {
+				return headers;
+			}
+
+			// Load the header
+			String header = line.toString(ServerHttpConnection.DEFAULT_HTTP_ENTITY_CHARSET,
+					(result) -> new BadRequestHttpException(null,
+							"Invalid " + MULTIPART_FORM_DATA + " part header"));
+			int colon = header.indexOf(':');
+			if ((colon <= 0) || (headers.size() >= MAX_HEADER_COUNT)) {
+				throw new BadRequestHttpException(null, "Invalid " + MULTIPART_FORM_DATA + " part header");
+			}
+			headers.put(header.substring(0, colon).trim().toLowerCase(), header.substring(colon + 1).trim());
+		}
+	}
+
+	/**
+	 * Creates the {@link HttpException} for a part header being too long.
+	 * 
+	 * @return {@link HttpException} for a part header being too long.
+	 */
+	private static HttpException createHeaderTooLongException() {
+		return new BadRequestHttpException(null, MULTIPART_FORM_DATA + " part header too long");
+	}
+
+	/**
+	 * Reads the next byte.
+	 * 
+	 * @return Next byte.
+	 * @throws IOException   If fails to read the entity.
+	 * @throws HttpException If end of entity.
+	 */
+	private int readByte() throws IOException, HttpException {
+		if (this.position >= this.limit) {
+			this.fill(1);
+		}
+		int value = this.buffers[this.currentBufferIndex].data[this.position++] & 0xff;
+		this.scanner.skipBytes(1);
+		return value;
+	}
+
+	/**
+	 * Scans for the number of content bytes from the current position (i.e.
+	 * bytes before the delimiter).
+	 * 
+	 * @return Number of content bytes from the current position. <code>0</code>
+	 *         indicates the delimiter is at the current position.
+	 * @throws IOException   If fails to read the entity.
+	 * @throws HttpException If end of entity before the delimiter.
+	 */
+	private int scanContent() throws IOException, HttpException {
+
+		// Ensure enough bytes to identify the delimiter
+		int delimiterLength = this.delimiter.length;
+		if ((this.limit - this.position) < delimiterLength) {
+			this.fill(delimiterLength);
+		}
+
+		// Scan for possible start of the delimiter
+		int index = this.scanner.peekToTarget(CR_TARGET);
+		if (index < 0) {
+			return this.limit - this.position; // all available is content
+		} else if (index > 0) {
+			return index; // content before possible delimiter
+		}
+
+		// Determine if delimiter at current position
+		byte[] data = this.buffers[this.currentBufferIndex].data;
+		for (int d = 1; d < delimiterLength; d++) {
+			if (data[this.position + d] != this.delimiter[d]) {
+				return 1; // carriage return is content
+			}
+		}
+		return 0; // delimiter found
+	}
+
+	/**
+	 * Fills the other {@link ScanStreamBuffer} with the remaining content and
+	 * further content from the entity, so to have the required number of bytes.
+	 * 
+	 * @param requiredBytes Required number of bytes from current position.
+	 * @throws IOException   If fails to read the entity.
+	 * @throws HttpException If end of entity before the required bytes.
+	 */
+	private void fill(int requiredBytes) throws IOException, HttpException {
+
+		// Carry the remaining content into the other buffer
+		int nextBufferIndex = (this.currentBufferIndex + 1) % this.buffers.length;
+		ScanStreamBuffer buffer = this.buffers[nextBufferIndex];
+		int remaining = this.limit - this.position;
+		if (remaining > 0) {
+			this.scanner.scanBytes(remaining).writeTo(buffer.data, 0);
+		}
+		int size = remaining;
+
+		// Read in the required bytes
+		while (size < requiredBytes) {
+			int bytesRead = this.entity.read(buffer.data, size, buffer.data.length - size);
+			if (bytesRead < 0) {
+				throw new BadRequestHttpException(null, "Unexpected end of " + MULTIPART_FORM_DATA + " entity");
+			}
+			size += bytesRead;
+		}
+		BufferJvmFix.position(buffer.pooledBuffer, size);
+
+		// Scan the other buffer
+		this.currentBufferIndex = nextBufferIndex;
+		this.scanner = new StreamBufferScanner();
+		this.scanner.appendStreamBuffer(buffer);
+		this.position = 0;
+		this.limit = size;
+	}
+
+	/**
+	 * {@link StreamBuffer} to scan the read entity content.
+	 */
+	private static class ScanStreamBuffer extends StreamBuffer<ByteBuffer> {
+
+		/**
+		 * Backing data of the {@link ByteBuffer}.
+		 */
+		private final byte[] data;
+
+		/**
+		 * Instantiate.
+		 * 
+		 * @param size Size of the buffer.
+		 */
+		private ScanStreamBuffer(int size) {
+			this(new byte[size]);
+		}
+
+		/**
+		 * Instantiate.
+		 * 
+		 * @param data Backing data of the {@link ByteBuffer}.
+		 */
+		private ScanStreamBuffer(byte[] data) {
+			super(ByteBuffer.wrap(data), null, null);
+			this.data = data;
+		}
+
+		/*
+		 * ==================== StreamBuffer ======================
+		 */
+
+		@Override
+		public boolean write(byte datum) {
+			throw new IllegalStateException("Only to scan entity content");
+		}
+
+		@Override
+		public int write(byte[] data, int offset, int length) {
+			throw new IllegalStateException("Only to scan entity content");
+		}
+
+		@Override
+		public void release() {
+			// Heap buffer, so nothing to release
+		}
+	}
+
+	/**
+	 * {@link InputStream} to the content of the current part.
+	 */
+	private class PartInputStream extends InputStream {
+
+		/**
+		 * Indicates if end of the part content.
+		 */
+		private boolean isPartEnd = false;
+
+		/**
+		 * Skips the remaining content of the part (including the delimiter).
+		 * 
+		 * @throws IOException If fails to skip the content.
+		 */
+		private void skipRemaining() throws IOException {
+			while (!this.isPartEnd) {
+				int contentBytes = this.scanContent();
+				if (contentBytes > 0) {
+					MultipartFormTokeniser.this.scanner.skipBytes(contentBytes);
+					MultipartFormTokeniser.this.position += contentBytes;
+				}
+			}
+		}
+
+		/**
+		 * Scans for the content bytes, ending the part on reaching the
+		 * delimiter.
+		 * 
+		 * @return Number of content bytes. <code>0</code> if end of the part.
+		 * @throws IOException If fails to scan the content.
+		 */
+		private int scanContent() throws IOException {
+			MultipartFormTokeniser tokeniser = MultipartFormTokeniser.this;
+			int contentBytes = tokeniser.scanContent();
+			if (contentBytes == 0) {
+				this.isPartEnd = true;
+				tokeniser.scanner.skipBytes(tokeniser.delimiter.length);
+				tokeniser.position += tokeniser.delimiter.length;
+			}
+			return contentBytes;
+		}
+
+		/*
+		 * =================== InputStream =====================
+		 */
+
+		@Override
+		public int read() throws IOException {
+			byte[] single = new byte[1];
+			return (this.read(single, 0, 1) < 0) ? -1 : (single[0] & 0xff);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+
+			// Determine if end of content
+			if (this.isPartEnd) {
+				return -1;
+			} else if (len == 0) {
+				return 0;
+			}
+
+			// Read the available content
+			int contentBytes = this.scanContent();
+			if (contentBytes == 0) {
+				return -1;
+			}
+			int size = Math.min(contentBytes, len);
+			MultipartFormTokeniser.this.scanner.scanBytes(size).writeTo(b, off);
+			MultipartFormTokeniser.this.position += size;
+			return size;
+		}
+	}
+
+	/**
+	 * {@link MultipartFormPart} implementation.
+	 */
+	private class PartImpl implements MultipartFormPart {
+
+		/**
+		 * Name of the form field.
+		 */
+		private final String name;
+
+		/**
+		 * File name. May be <code>null</code>.
+		 */
+		private final String fileName;
+
+		/**
+		 * Headers keyed by lower case name.
+		 */
+		private final Map<String, String> headers;
+
+		/**
+		 * {@link PartInputStream} to the content.
+		 */
+		private final PartInputStream content = new PartInputStream();
+
+		/**
+		 * Instantiate.
+		 * 
+		 * @param name     Name of the form field.
+		 * @param fileName File name. May be <code>null</code>.
+		 * @param headers  Headers keyed by lower case name.
+		 */
+		private PartImpl(String name, String fileName, Map<String, String> headers) {
+			this.name = name;
+			this.fileName = fileName;
+			this.headers = headers;
+		}
+
+		/*
+		 * ================ MultipartFormPart ===================
+		 */
+
+		@Override
+		public String getName() {
+			return this.name;
+		}
+
+		@Override
+		public String getFileName() {
+			return this.fileName;
+		}
+
+		@Override
+		public String getContentType() {
+			return this.headers.get("content-type");
+		}
+
+		@Override
+		public String getHeader(String name) {
+			return this.headers.get(name.toLowerCase());
+		}
+
+		@Override
+		public InputStream getContent() {
+			return this.content;
+		}
+
+		@Override
+		public String getValue() throws IOException, HttpException {
+
+			// Obtain the charset
+			Charset charset = ServerHttpConnection.DEFAULT_HTTP_ENTITY_CHARSET;
+			String contentType = this.getContentType();
+			String charsetName = (contentType == null) ? null : getParameter(contentType, "charset");
+			if (charsetName != null) {
+				try {
+					charset = Charset.forName(charsetName);
+				} catch (IllegalCharsetNameException | UnsupportedCharsetException ex) {
+					throw new BadRequestHttpException(null, "Unsupported charset " + charsetName);
+				}
+			}
+
+			// Read the value (ensuring within limits)
+			int maxValueLength = MultipartFormTokeniser.this.maxValueLength;
+			ByteArrayOutputStream value = new ByteArrayOutputStream();
+			byte[] data = new byte[256];
+			for (int size = this.content.read(data); size >= 0; size = this.content.read(data)) {
+				if ((value.size() + size) > maxValueLength) {
+					throw new HttpException(HttpStatus.REQUEST_ENTITY_TOO_LARGE, MULTIPART_FORM_DATA + " value of "
+							+ this.name + " exceeds maximum length of " + maxValueLength + " bytes");
+				}
+				value.write(data, 0, size);
+			}
+			return new String(value.toByteArray(), charset);
+		}
+	}
+
+}
@@ -27,7 +27,13 @@ import net.officefloor.server.http.ServerHttpConnection;
 import net.officefloor.web.value.load.ValueLoader;
 
 /**
+ * <p>
  * Parses arguments from the {@link ServerHttpConnection}.
+ * <p>
+ * The {@link HttpArgumentParser} is selected by matching its
+ * <code>Content-Type</code> against the media type of the {@link HttpRequest}
+ * (case insensitive and ignoring parameters, such as <code>charset</code> or
+ * <code>boundary</code>).
  * 
  * @author Daniel Sagenschneider
  */
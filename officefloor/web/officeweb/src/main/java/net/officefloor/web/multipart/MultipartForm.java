@@ -0,0 +1,56 @@
+/*-
+ * #%L
+ * Web Plug-in
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.web.multipart;
+
+import net.officefloor.server.http.HttpException;
+import net.officefloor.server.http.HttpRequest;
+
+/**
+ * <p>
+ * <code>multipart/form-data</code> {@link HttpRequest} entity available for
+ * injection.
+ * <p>
+ * The {@link MultipartFormPart} instances are streamed from the entity, so
+ * large file uploads may be handled without materialising the entity.
+ * <p>
+ * Streaming consumes the entity. Therefore, the entity must not also be
+ * loaded as {@link HttpRequest} arguments (e.g. <code>HttpObject</code>
+ * parameters), as this also consumes the entity (skipping file content).
+ * 
+ * @author Daniel Sagenschneider
+ */
+public interface MultipartForm {
+
+	/**
+	 * Handles each {@link MultipartFormPart} of the entity in order. As this
+	 * consumes the entity, may only be invoked once.
+	 * 
+	 * @param handler {@link MultipartFormPartHandler} to receive each
+	 *                {@link MultipartFormPart}.
+	 * @throws HttpException If not a valid <code>multipart/form-data</code>
+	 *                       entity or fails to handle a
+	 *                       {@link MultipartFormPart}.
+	 * @throws IllegalStateException If the entity has already been handled.
+	 */
+	void handleParts(MultipartFormPartHandler handler) throws HttpException;
+
+}
@@ -0,0 +1,86 @@
+/*-
+ * #%L
+ * Web Plug-in
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.web.multipart;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import net.officefloor.server.http.HttpException;
+import net.officefloor.server.http.HttpRequest;
+
+/**
+ * Part of a <code>multipart/form-data</code> {@link HttpRequest} entity.
+ * <p>
+ * The content is streamed from the entity, so is only available while the
+ * {@link MultipartFormPartHandler} is handling this {@link MultipartFormPart}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public interface MultipartFormPart {
+
+	/**
+	 * Obtains the name of the form field.
+	 * 
+	 * @return Name of the form field.
+	 */
+	String getName();
+
+	/**
+	 * Obtains the file name for a file upload.
+	 * 
+	 * @return File name or <code>null</code> if not a file upload.
+	 */
+	String getFileName();
+
+	/**
+	 * Obtains the <code>Content-Type</code> of the part.
+	 * 
+	 * @return <code>Content-Type</code> of the part or <code>null</code> if not
+	 *         provided.
+	 */
+	String getContentType();
+
+	/**
+	 * Obtains the header value of the part.
+	 * 
+	 * @param name Name of the header (case insensitive).
+	 * @return Header value or <code>null</code> if not provided.
+	 */
+	String getHeader(String name);
+
+	/**
+	 * Obtains the {@link InputStream} to the content of the part.
+	 * 
+	 * @return {@link InputStream} to the content of the part.
+	 */
+	InputStream getContent();
+
+	/**
+	 * Reads the content of the part as text.
+	 * 
+	 * @return Content of the part as text.
+	 * @throws IOException   If fails to read the content.
+	 * @throws HttpException If content is invalid.
+	 */
+	String getValue() throws IOException, HttpException;
+
+}
@@ -0,0 +1,46 @@
+/*-
+ * #%L
+ * Web Plug-in
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.web.multipart;
+
+import java.io.IOException;
+
+import net.officefloor.server.http.HttpException;
+
+/**
+ * Handles the {@link MultipartFormPart} instances as they are parsed.
+ * 
+ * @author Daniel Sagenschneider
+ */
+@FunctionalInterface
+public interface MultipartFormPartHandler {
+
+	/**
+	 * Handles the {@link MultipartFormPart}.
+	 * 
+	 * @param part {@link MultipartFormPart}. Any content not read is skipped once
+	 *             this method returns.
+	 * @throws IOException   If fails to handle the {@link MultipartFormPart}.
+	 * @throws HttpException If fails to handle the {@link MultipartFormPart}.
+	 */
+	void handlePart(MultipartFormPart part) throws IOException, HttpException;
+
+}
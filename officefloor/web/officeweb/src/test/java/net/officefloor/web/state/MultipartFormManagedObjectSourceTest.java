@@ -0,0 +1,118 @@
+/*-
+ * #%L
+ * Web Plug-in
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.web.state;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.officefloor.compile.test.managedobject.ManagedObjectLoaderUtil;
+import net.officefloor.compile.test.managedobject.ManagedObjectTypeBuilder;
+import net.officefloor.frame.test.OfficeFrameTestCase;
+import net.officefloor.frame.util.ManagedObjectUserStandAlone;
+import net.officefloor.server.http.HttpMethod;
+import net.officefloor.server.http.ServerHttpConnection;
+import net.officefloor.server.http.mock.MockHttpServer;
+import net.officefloor.server.http.mock.MockServerHttpConnection;
+import net.officefloor.web.multipart.MultipartForm;
+import net.officefloor.web.state.MultipartFormManagedObjectSource.MultipartFormDependencies;
+
+/**
+ * Tests the {@link MultipartFormManagedObjectSource}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class MultipartFormManagedObjectSourceTest extends OfficeFrameTestCase {
+
+	/**
+	 * Boundary for testing.
+	 */
+	private static final String BOUNDARY = "----TestBoundary7MA4YWxk";
+
+	/**
+	 * Validate specification.
+	 */
+	public void testSpecification() {
+		// Should require no properties
+		ManagedObjectLoaderUtil.validateSpecification(new MultipartFormManagedObjectSource(1024));
+	}
+
+	/**
+	 * Validate type.
+	 */
+	public void testType() {
+
+		// Create expected type
+		ManagedObjectTypeBuilder type = ManagedObjectLoaderUtil.createManagedObjectTypeBuilder();
+		type.setObjectClass(MultipartForm.class);
+		type.addDependency(MultipartFormDependencies.SERVER_HTTP_CONNECTION, ServerHttpConnection.class, null);
+
+		// Validate type
+		ManagedObjectLoaderUtil.validateManagedObjectType(type, new MultipartFormManagedObjectSource(1024));
+	}
+
+	/**
+	 * Ensure can stream the parts, including the file content.
+	 */
+	public void testHandleParts() throws Throwable {
+
+		// Create the multipart request
+		MockServerHttpConnection connection = MockHttpServer.mockConnection(MockHttpServer.mockRequest()
+				.method(HttpMethod.POST).header("content-type", "multipart/form-data; boundary=" + BOUNDARY)
+				.entity("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"field\"\r\n\r\nvalue\r\n--"
+						+ BOUNDARY
+						+ "\r\nContent-Disposition: form-data; name=\"upload\"; filename=\"file.txt\"\r\n\r\nfile content\r\n--"
+						+ BOUNDARY + "--"));
+
+		// Source the multipart form
+		ManagedObjectUserStandAlone user = new ManagedObjectUserStandAlone();
+		user.mapDependency(MultipartFormDependencies.SERVER_HTTP_CONNECTION, connection);
+		MultipartForm form = (MultipartForm) user.sourceManagedObject(new MultipartFormManagedObjectSource(1024))
+				.getObject();
+
+		// Ensure can stream the parts
+		List<String> parts = new ArrayList<>();
+		form.handleParts((part) -> {
+			parts.add(part.getName());
+			parts.add(part.getFileName());
+			ByteArrayOutputStream content = new ByteArrayOutputStream();
+			InputStream input = part.getContent();
+			for (int value = input.read(); value >= 0; value = input.read()) {
+				content.write(value);
+			}
+			parts.add(new String(content.toByteArray(), StandardCharsets.UTF_8));
+		});
+		assertEquals("Incorrect parts", "[field, null, value, upload, file.txt, file content]", parts.toString());
+
+		// Ensure entity consumed (so can not handle parts again)
+		assertEquals("Should consume entity", -1, connection.getRequest().getEntity().read());
+		try {
+			form.handleParts((part) -> fail("Should not handle parts again"));
+			fail("Should not successfully handle parts again");
+		} catch (IllegalStateException ex) {
+			assertEquals("Incorrect cause", "Parts of MultipartForm may only be handled once", ex.getMessage());
+		}
+	}
+
+}
@@ -154,6 +154,39 @@ public class HttpRequestTokeniserTest extends OfficeFrameTestCase {
 				"application/x-www-form-urlencoded");
 	}
 
+	/**
+	 * Ensure matches the {@link HttpArgumentParser} on media type, ignoring the
+	 * <code>Content-Type</code> parameters.
+	 */
+	public void testPostWithContentTypeParameters() throws Exception {
+		this.loader.loadValue("content-type", "application/x-www-form-urlencoded; charset=UTF-8",
+				HttpValueLocation.HEADER);
+		this.loader.loadValue("FirstName", "Daniel", HttpValueLocation.ENTITY);
+		this.doTest(HttpMethod.POST, "/path", "FirstName=Daniel", "content-type",
+				"application/x-www-form-urlencoded; charset=UTF-8");
+	}
+
+	/**
+	 * Ensure matches the {@link HttpArgumentParser} on media type case
+	 * insensitive.
+	 */
+	public void testPostWithContentTypeCaseInsensitive() throws Exception {
+		this.loader.loadValue("content-type", "Application/X-WWW-Form-UrlEncoded", HttpValueLocation.HEADER);
+		this.loader.loadValue("FirstName", "Daniel", HttpValueLocation.ENTITY);
+		this.doTest(HttpMethod.POST, "/path", "FirstName=Daniel", "content-type",
+				"Application/X-WWW-Form-UrlEncoded");
+	}
+
+	/**
+	 * Ensure does not parse entity for differing media type (that only has the
+	 * {@link HttpArgumentParser} <code>Content-Type</code> as prefix).
+	 */
+	public void testPostWithDifferentContentType() throws Exception {
+		this.loader.loadValue("content-type", "application/x-www-form-urlencoded-other", HttpValueLocation.HEADER);
+		this.doTest(HttpMethod.POST, "/path", "FirstName=Daniel", "content-type",
+				"application/x-www-form-urlencoded-other");
+	}
+
 	/**
 	 * Ensure can tokenise {@link HttpCookie} values.
 	 */
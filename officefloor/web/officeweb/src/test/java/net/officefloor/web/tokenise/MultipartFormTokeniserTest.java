@@ -0,0 +1,344 @@
+/*-
+ * #%L
+ * Web Plug-in
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.web.tokenise;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.officefloor.frame.test.OfficeFrameTestCase;
+import net.officefloor.server.http.HttpException;
+import net.officefloor.server.http.HttpMethod;
+import net.officefloor.server.http.HttpRequest;
+import net.officefloor.server.http.HttpStatus;
+import net.officefloor.server.http.mock.MockHttpRequestBuilder;
+import net.officefloor.server.http.mock.MockHttpServer;
+import net.officefloor.web.build.HttpArgumentParser;
+import net.officefloor.web.build.HttpValueLocation;
+import net.officefloor.web.escalation.BadRequestHttpException;
+import net.officefloor.web.multipart.MultipartFormPart;
+import net.officefloor.web.value.load.ValueLoader;
+
+/**
+ * Tests the {@link MultipartFormTokeniser}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class MultipartFormTokeniserTest extends OfficeFrameTestCase {
+
+	/**
+	 * Boundary for testing.
+	 */
+	private static final String BOUNDARY = "----TestBoundary7MA4YWxk";
+
+	/**
+	 * Ensure can tokenise a text part.
+	 */
+	public void testTextPart() {
+		List<String> parts = this.tokenise(
+				"--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"field\"\r\n\r\nvalue\r\n--" + BOUNDARY
+						+ "--\r\n");
+		assertParts(parts, "field", null, null, "value");
+	}
+
+	/**
+	 * Ensure can tokenise multiple parts (including a file).
+	 */
+	public void testMultipleParts() {
+		List<String> parts = this.tokenise("--" + BOUNDARY
+				+ "\r\nContent-Disposition: form-data; name=\"one\"\r\n\r\nfirst\r\n--" + BOUNDARY
+				+ "\r\nContent-Disposition: form-data; name=\"upload\"; filename=\"file.txt\"\r\nContent-Type: text/plain\r\n\r\nfile\r\ncontent\r\n--"
+				+ BOUNDARY + "\r\nContent-Disposition: form-data; name=\"two\"\r\n\r\n\r\n--" + BOUNDARY + "--");
+		assertParts(parts, "one", null, null, "first", "upload", "file.txt", "text/plain", "file\r\ncontent", "two",
+				null, null, "");
+	}
+
+	/**
+	 * Ensure ignores preamble and epilogue.
+	 */
+	public void testPreambleAndEpilogue() {
+		List<String> parts = this.tokenise("preamble\r\n--" + BOUNDARY
+				+ "\r\nContent-Disposition: form-data; name=\"field\"\r\n\r\nvalue\r\n--" + BOUNDARY
+				+ "--\r\nepilogue");
+		assertParts(parts, "field", null, null, "value");
+	}
+
+	/**
+	 * Ensure content containing partial boundaries is not split.
+	 */
+	public void testPartialBoundaryInContent() {
+		String content = "\r\n--" + BOUNDARY.substring(0, 10) + "\r\n-\r\n--";
+		List<String> parts = this.tokenise("--" + BOUNDARY
+				+ "\r\nContent-Disposition: form-data; name=\"field\"\r\n\r\n" + content + "\r\n--" + BOUNDARY + "--");
+		assertParts(parts, "field", null, null, content);
+	}
+
+	/**
+	 * Ensure can stream large file content (spanning many read buffers).
+	 */
+	public void testLargeFileContent() {
+
+		// Create large content
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 100000; i++) {
+			content.append((char) ('a' + (i % 26)));
+			if ((i % 1000) == 0) {
+				content.append("\r\n--");
+			}
+		}
+
+		// Ensure streams the content
+		List<String> parts = this.tokenise("--" + BOUNDARY
+				+ "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"large.txt\"\r\n\r\n" + content
+				+ "\r\n--" + BOUNDARY + "--");
+		assertParts(parts, "file", "large.txt", null, content.toString());
+	}
+
+	/**
+	 * Ensure skips content not read by handler.
+	 */
+	public void testSkipUnreadContent() {
+		List<String> names = new ArrayList<>();
+		MultipartFormTokeniser.tokeniseMultipartEntity(this.createRequest("--" + BOUNDARY
+				+ "\r\nContent-Disposition: form-data; name=\"skip\"; filename=\"skip.bin\"\r\n\r\nnot read\r\n--"
+				+ BOUNDARY + "\r\nContent-Disposition: form-data; name=\"read\"\r\n\r\nvalue\r\n--" + BOUNDARY + "--"),
+				(part) -> names.add(part.getName()));
+		assertEquals("Incorrect parts", "[skip, read]", names.toString());
+	}
+
+	/**
+	 * Ensure the charset of the part is used for text value.
+	 */
+	public void testCharset() throws IOException {
+		byte[] value = "été".getBytes(StandardCharsets.ISO_8859_1);
+		String entity = "--" + BOUNDARY
+				+ "\r\nContent-Disposition: form-data; name=\"field\"\r\nContent-Type: text/plain; charset=ISO-8859-1\r\n\r\n"
+				+ new String(value, StandardCharsets.ISO_8859_1) + "\r\n--" + BOUNDARY + "--";
+		MockHttpRequestBuilder builder = MockHttpServer.mockRequest().method(HttpMethod.POST)
+				.header("content-type", "multipart/form-data; boundary=\"" + BOUNDARY + "\"");
+		builder.getHttpEntity().write(entity.getBytes(StandardCharsets.ISO_8859_1));
+		HttpRequest request = builder.build();
+		List<String> values = new ArrayList<>();
+		MultipartFormTokeniser.tokeniseMultipartEntity(request, (part) -> values.add(part.getValue()));
+		assertEquals("Incorrect value", "été", values.get(0));
+	}
+
+	/**
+	 * Ensure binary content (including bytes with the high bit set and carriage
+	 * returns not starting the delimiter) is streamed unchanged.
+	 */
+	public void testBinaryContent() throws IOException {
+
+		// Create binary content
+		byte[] content = new byte[20000];
+		for (int i = 0; i < content.length; i++) {
+			content[i] = (byte) (i % 256);
+		}
+
+		// Create the entity
+		ByteArrayOutputStream entity = new ByteArrayOutputStream();
+		entity.write(("--" + BOUNDARY
+				+ "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"binary.bin\"\r\n\r\n")
+						.getBytes(StandardCharsets.US_ASCII));
+		entity.write(content);
+		entity.write(("\r\n--" + BOUNDARY + "--").getBytes(StandardCharsets.US_ASCII));
+		MockHttpRequestBuilder builder = MockHttpServer.mockRequest().method(HttpMethod.POST)
+				.header("content-type", "multipart/form-data; boundary=" + BOUNDARY);
+		builder.getHttpEntity().write(entity.toByteArray());
+
+		// Ensure streams the binary content
+		ByteArrayOutputStream received = new ByteArrayOutputStream();
+		MultipartFormTokeniser.tokeniseMultipartEntity(builder.build(), (part) -> {
+			InputStream input = part.getContent();
+			byte[] buffer = new byte[1000];
+			for (int size = input.read(buffer); size >= 0; size = input.read(buffer)) {
+				received.write(buffer, 0, size);
+			}
+		});
+		assertTrue("Incorrect binary content", Arrays.equals(content, received.toByteArray()));
+	}
+
+	/**
+	 * Ensure fails if value exceeds the maximum length.
+	 */
+	public void testValueTooLong() {
+		String entity = "--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"field\"\r\n\r\n0123456789\r\n--"
+				+ BOUNDARY + "--";
+
+		// Ensure can obtain value within maximum length
+		List<String> values = new ArrayList<>();
+		MultipartFormTokeniser.tokeniseMultipartEntity(this.createRequest(entity), 10,
+				(part) -> values.add(part.getValue()));
+		assertEquals("Incorrect value", "0123456789", values.get(0));
+
+		// Ensure fails if value exceeds maximum length
+		try {
+			MultipartFormTokeniser.tokeniseMultipartEntity(this.createRequest(entity), 9, (part) -> part.getValue());
+			fail("Should not be successful");
+		} catch (HttpException ex) {
+			assertEquals("Incorrect status", HttpStatus.REQUEST_ENTITY_TOO_LARGE, ex.getHttpStatus());
+		}
+	}
+
+	/**
+	 * Ensure fails if part header is too long.
+	 */
+	public void testHeaderTooLong() {
+		StringBuilder header = new StringBuilder("X-Long: ");
+		for (int i = 0; i < 5000; i++) {
+			header.append('x');
+		}
+		this.assertBadRequest(
+				this.createRequest("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"field\"\r\n"
+						+ header + "\r\n\r\nvalue\r\n--" + BOUNDARY + "--"),
+				"multipart/form-data part header too long");
+	}
+
+	/**
+	 * Ensure fails if no boundary.
+	 */
+	public void testNoBoundary() {
+		HttpRequest request = MockHttpServer.mockRequest().method(HttpMethod.POST)
+				.header("content-type", "multipart/form-data").entity("content").build();
+		this.assertBadRequest(request, "No boundary for multipart/form-data");
+	}
+
+	/**
+	 * Ensure fails if entity ends before closing boundary.
+	 */
+	public void testUnexpectedEnd() {
+		this.assertBadRequest(
+				this.createRequest(
+						"--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"field\"\r\n\r\nincomplete"),
+				"Unexpected end of multipart/form-data entity");
+	}
+
+	/**
+	 * Ensure fails if part has no name.
+	 */
+	public void testNoPartName() {
+		this.assertBadRequest(
+				this.createRequest("--" + BOUNDARY + "\r\nContent-Disposition: form-data\r\n\r\nvalue\r\n--" + BOUNDARY
+						+ "--"),
+				"No form field name for multipart/form-data part");
+	}
+
+	/**
+	 * Ensure {@link MultipartFormHttpArgumentParser} loads the values (consuming
+	 * the entity).
+	 */
+	public void testArgumentParser() throws Exception {
+		ValueLoader loader = this.createMock(ValueLoader.class);
+		loader.loadValue("content-type", "multipart/form-data; boundary=" + BOUNDARY, HttpValueLocation.HEADER);
+		loader.loadValue("field", "value", HttpValueLocation.ENTITY);
+		loader.loadValue("upload", "file.txt", HttpValueLocation.ENTITY);
+		this.replayMockObjects();
+		HttpRequest request = this.createRequest("--" + BOUNDARY
+				+ "\r\nContent-Disposition: form-data; name=\"field\"\r\n\r\nvalue\r\n--" + BOUNDARY
+				+ "\r\nContent-Disposition: form-data; name=\"upload\"; filename=\"file.txt\"\r\n\r\ncontent\r\n--"
+				+ BOUNDARY + "--");
+		HttpRequestTokeniser.tokeniseHttpRequest(request,
+				new HttpArgumentParser[] { new MultipartFormHttpArgumentParser() }, loader);
+		this.verifyMockObjects();
+
+		// Ensure consumes the entity (rather than browsing it)
+		assertEquals("Should consume entity", -1, request.getEntity().read());
+	}
+
+	/**
+	 * Creates the multipart {@link HttpRequest}.
+	 * 
+	 * @param entity Entity.
+	 * @return {@link HttpRequest}.
+	 */
+	private HttpRequest createRequest(String entity) {
+		return MockHttpServer.mockRequest().method(HttpMethod.POST)
+				.header("content-type", "multipart/form-data; boundary=" + BOUNDARY).entity(entity).build();
+	}
+
+	/**
+	 * Tokenises the entity.
+	 * 
+	 * @param entity Entity.
+	 * @return Listing of name, file name, content type and content for each part.
+	 */
+	private List<String> tokenise(String entity) {
+		List<String> parts = new ArrayList<>();
+		MultipartFormTokeniser.tokeniseMultipartEntity(this.createRequest(entity), (part) -> {
+			parts.add(part.getName());
+			parts.add(part.getFileName());
+			parts.add(part.getContentType());
+			parts.add(readContent(part));
+		});
+		return parts;
+	}
+
+	/**
+	 * Reads the content of the {@link MultipartFormPart} via small reads.
+	 * 
+	 * @param part {@link MultipartFormPart}.
+	 * @return Content.
+	 */
+	private static String readContent(MultipartFormPart part) throws IOException {
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		InputStream input = part.getContent();
+		byte[] buffer = new byte[7];
+		for (int size = input.read(buffer); size >= 0; size = input.read(buffer)) {
+			content.write(buffer, 0, size);
+		}
+		return new String(content.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Asserts the parts.
+	 * 
+	 * @param parts    Parts.
+	 * @param expected Expected name, file name, content type and content for each
+	 *                 part.
+	 */
+	private static void assertParts(List<String> parts, String... expected) {
+		assertEquals("Incorrect number of parts", expected.length / 4, parts.size() / 4);
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals("Incorrect part detail " + i, expected[i], parts.get(i));
+		}
+	}
+
+	/**
+	 * Asserts the {@link HttpRequest} is a bad request.
+	 * 
+	 * @param request         {@link HttpRequest}.
+	 * @param expectedMessage Expected message.
+	 */
+	private void assertBadRequest(HttpRequest request, String expectedMessage) {
+		try {
+			MultipartFormTokeniser.tokeniseMultipartEntity(request, (part) -> part.getValue());
+			fail("Should not be successful");
+		} catch (BadRequestHttpException ex) {
+			assertEquals("Incorrect cause", expectedMessage, ex.getEntity());
+		}
+	}
+
+}
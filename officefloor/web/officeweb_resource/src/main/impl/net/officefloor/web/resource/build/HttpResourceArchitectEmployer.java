@@ -67,6 +67,7 @@ import net.officefloor.web.resource.HttpResourceCache;
 import net.officefloor.web.resource.HttpResourceStore;
 import net.officefloor.web.resource.classpath.ClasspathResourceSystemFactory;
 import net.officefloor.web.resource.file.FileResourceSystemService;
+import net.officefloor.web.resource.impl.HotHttpFileCache;
 import net.officefloor.web.resource.impl.HttpResourceStoreImpl;
 import net.officefloor.web.resource.source.AbstractSendHttpFileFunction;
 import net.officefloor.web.resource.source.AbstractSendHttpFileFunction.Dependencies;
@@ -271,9 +272,12 @@ public class HttpResourceArchitectEmployer implements HttpResourceArchitect {
 			// Build the resource store
 			ResourceTransformer[] resourceTransformers = httpResourceSource.resourceTransformers
 					.toArray(new ResourceTransformer[httpResourceSource.resourceTransformers.size()]);
+			HotHttpFileCache hotFileCache = (httpResourceSource.hotFileCacheByteBudget <= 0) ? null
+					: new HotHttpFileCache(httpResourceSource.hotFileCacheByteBudget,
+							httpResourceSource.hotFileCacheMaximumFileSize);
 			HttpResourceStoreImpl store = new HttpResourceStoreImpl(httpResourceSource.location,
 					httpResourceSource.resourceSystemService, fileCacheFactory, resourceTransformers,
-					httpResourceSource.directoryDefaultResourceNames);
+					httpResourceSource.directoryDefaultResourceNames, hotFileCache);
 			stores.add(store);
 
 			// Register the managed objects (for auto-wiring)
@@ -363,6 +367,16 @@ public class HttpResourceArchitectEmployer implements HttpResourceArchitect {
 		 */
 		private String[] directoryDefaultResourceNames = new String[] { "index.html" };
 
+		/**
+		 * Maximum number of bytes of content held in memory.
+		 */
+		private long hotFileCacheByteBudget = 0;
+
+		/**
+		 * Maximum size of a file to have its content held in memory.
+		 */
+		private long hotFileCacheMaximumFileSize = 0;
+
 		/**
 		 * Name suffix to use in configuring this {@link HttpResourceSource}.
 		 */
@@ -434,6 +448,12 @@ public class HttpResourceArchitectEmployer implements HttpResourceArchitect {
 			this.directoryDefaultResourceNames = defaultResourceNames;
 		}
 
+		@Override
+		public void setHotFileCache(long byteBudget, long maximumFileSize) {
+			this.hotFileCacheByteBudget = byteBudget;
+			this.hotFileCacheMaximumFileSize = maximumFileSize;
+		}
+
 		@Override
 		public HttpSecurableBuilder getHttpSecurer() {
 			if (this.securable == null) {
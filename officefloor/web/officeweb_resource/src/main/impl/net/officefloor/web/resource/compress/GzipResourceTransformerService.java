@@ -0,0 +1,116 @@
+/*-
+ * #%L
+ * Web resources
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.web.resource.compress;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import net.officefloor.frame.api.source.ServiceContext;
+import net.officefloor.server.http.HttpHeaderValue;
+import net.officefloor.server.http.compress.HttpResponseCompression;
+import net.officefloor.web.resource.spi.ResourceTransformer;
+import net.officefloor.web.resource.spi.ResourceTransformerContext;
+import net.officefloor.web.resource.spi.ResourceTransformerFactory;
+import net.officefloor.web.resource.spi.ResourceTransformerService;
+
+/**
+ * {@link ResourceTransformer} providing a <code>gzip</code> variant of the
+ * resource.
+ * <p>
+ * The resource is compressed once when loaded (at best compression), so
+ * clients accepting <code>gzip</code> are sent the compressed variant without
+ * compressing per request.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class GzipResourceTransformerService
+		implements ResourceTransformerService, ResourceTransformerFactory, ResourceTransformer {
+
+	/**
+	 * Name of this {@link ResourceTransformer}.
+	 */
+	public static final String NAME = "gzip";
+
+	/**
+	 * <code>gzip</code> <code>Content-Encoding</code>.
+	 */
+	private static final HttpHeaderValue GZIP = new HttpHeaderValue("gzip");
+
+	/*
+	 * ================== ResourceTransformerService ================
+	 */
+
+	@Override
+	public ResourceTransformerFactory createService(ServiceContext context) throws Throwable {
+		return this;
+	}
+
+	/*
+	 * ================== ResourceTransformerFactory ================
+	 */
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public ResourceTransformer createResourceTransformer() {
+		return this;
+	}
+
+	/*
+	 * ===================== ResourceTransformer =====================
+	 */
+
+	@Override
+	public void transform(ResourceTransformerContext context) throws IOException {
+
+		// Determine if compress the resource
+		if ((context.getContentEncoding() != null) || (context.isContentEncodedVariant(NAME))
+				|| (!HttpResponseCompression.isCompressibleContentType(context.getContentType()))) {
+			return; // already encoded/compressed
+		}
+
+		// Compress the resource
+		Path resource = context.getResource();
+		Path compressed = context.createFile();
+		try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(compressed)) {
+			{
+				this.def.setLevel(Deflater.BEST_COMPRESSION);
+			}
+		}) {
+			Files.copy(resource, output);
+		}
+
+		// Only provide variant if smaller
+		if (Files.size(compressed) < Files.size(resource)) {
+			context.addContentEncodedVariant(GZIP, compressed);
+		}
+	}
+
+}
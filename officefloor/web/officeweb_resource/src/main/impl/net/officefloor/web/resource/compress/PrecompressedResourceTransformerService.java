@@ -0,0 +1,111 @@
+/*-
+ * #%L
+ * Web resources
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+
+package net.officefloor.web.resource.compress;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import net.officefloor.frame.api.source.ServiceContext;
+import net.officefloor.server.http.HttpHeaderValue;
+import net.officefloor.web.resource.spi.ResourceSystem;
+import net.officefloor.web.resource.spi.ResourceTransformer;
+import net.officefloor.web.resource.spi.ResourceTransformerContext;
+import net.officefloor.web.resource.spi.ResourceTransformerFactory;
+import net.officefloor.web.resource.spi.ResourceTransformerService;
+
+/**
+ * {@link ResourceTransformer} picking up the pre-compressed variants of the
+ * resource produced by the build (e.g. <code>app.js.br</code> and
+ * <code>app.js.gz</code> alongside <code>app.js</code> within the
+ * {@link ResourceSystem}).
+ * <p>
+ * As the variants are of the original resource, this should be registered
+ * before any {@link ResourceTransformer} altering the resource.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class PrecompressedResourceTransformerService
+		implements ResourceTransformerService, ResourceTransformerFactory, ResourceTransformer {
+
+	/**
+	 * Name of this {@link ResourceTransformer}.
+	 */
+	public static final String NAME = "precompressed";
+
+	/**
+	 * File extensions of the pre-compressed variants in order of preference.
+	 */
+	private static final String[] EXTENSIONS = new String[] { ".br", ".gz" };
+
+	/**
+	 * <code>Content-Encoding</code> for the respective extension.
+	 */
+	private static final HttpHeaderValue[] CONTENT_ENCODINGS = new HttpHeaderValue[] { new HttpHeaderValue("br"),
+			new HttpHeaderValue("gzip") };
+
+	/*
+	 * ================== ResourceTransformerService ================
+	 */
+
+	@Override
+	public ResourceTransformerFactory createService(ServiceContext context) throws Throwable {
+		return this;
+	}
+
+	/*
+	 * ================== ResourceTransformerFactory ================
+	 */
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public ResourceTransformer createResourceTransformer() {
+		return this;
+	}
+
+	/*
+	 * ===================== ResourceTransformer =====================
+	 */
+
+	@Override
+	public void transform(ResourceTransformerContext context) throws IOException {
+
+		// Determine if resource already encoded
+		if (context.getContentEncoding() != null) {
+			return;
+		}
+
+		// Obtain the pre-compressed variants
+		String path = context.getPath();
+		for (int i = 0; i < EXTENSIONS.length; i++) {
+			Path variant = context.getResource(path + EXTENSIONS[i]);
+			if (variant != null) {
+				context.addContentEncodedVariant(CONTENT_ENCODINGS[i], variant);
+			}
+		}
+	}
+
+}
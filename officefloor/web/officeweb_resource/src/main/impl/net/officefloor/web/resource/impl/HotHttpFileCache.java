@@ -0,0 +1,407 @@
+/*-
+ * #%L
+ * Web resources
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.web.resource.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.officefloor.server.stream.BufferJvmFix;
+import net.officefloor.server.stream.StreamBuffer;
+import net.officefloor.web.resource.HttpFile;
+
+/**
+ * <p>
+ * Hot tier of {@link HttpFile} content held in memory.
+ * <p>
+ * Small frequently served {@link HttpFile} instances (e.g. favicons, icons and
+ * style sheets) are kept as shared read-only direct {@link ByteBuffer}
+ * instances. These are appended to the response as unpooled
+ * {@link StreamBuffer} instances, avoiding a {@link FileChannel} transfer per
+ * response and allowing the content to be written with the other response
+ * bytes.
+ * <p>
+ * The held content is bounded by a byte budget, with the least frequently used
+ * {@link HttpFile} evicted to make room for a more frequently used
+ * {@link HttpFile}. Frequencies are halved each aging period, so that
+ * {@link HttpFile} instances that were once popular do not hold the hot tier
+ * indefinitely.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class HotHttpFileCache {
+
+	/**
+	 * Minimum number of requests for a {@link HttpFile} before it is considered
+	 * for the hot tier.
+	 */
+	private static final long ADMISSION_FREQUENCY = 2;
+
+	/**
+	 * Default period in milliseconds between halving the frequencies.
+	 */
+	public static final long DEFAULT_AGING_PERIOD = 60 * 1000;
+
+	/**
+	 * Halves the frequency of the {@link HttpFileImpl} for each aging period
+	 * elapsed since it was last aged.
+	 * 
+	 * @param file
+	 *            {@link HttpFileImpl}.
+	 * @param epoch
+	 *            Current aging epoch.
+	 */
+	private static void ageFrequency(HttpFileImpl file, long epoch) {
+		synchronized (file.frequency) {
+			long elapsed = epoch - file.frequencyEpoch;
+			if (elapsed <= 0) {
+				return; // already aged
+			}
+			file.frequencyEpoch = epoch;
+			long frequency = file.frequency.sum();
+			long aged = (elapsed >= Long.SIZE) ? 0 : (frequency >>> elapsed);
+			file.frequency.add(aged - frequency);
+		}
+	}
+
+	/**
+	 * Maximum number of bytes held in the hot tier.
+	 */
+	private final long byteBudget;
+
+	/**
+	 * Maximum size of a {@link HttpFile} to be held in the hot tier.
+	 */
+	private final long maximumFileSize;
+
+	/**
+	 * Period in milliseconds between halving the frequencies.
+	 */
+	private final long agingPeriod;
+
+	/**
+	 * Aging epoch, incremented each aging period.
+	 */
+	private volatile long agingEpoch = 0;
+
+	/**
+	 * Time in milliseconds of the next aging.
+	 */
+	private volatile long nextAgingTime;
+
+	/**
+	 * {@link HttpFileImpl} instances with content held in the hot tier.
+	 */
+	private final List<HttpFileImpl> hotFiles = new ArrayList<>();
+
+	/**
+	 * Number of bytes held in the hot tier.
+	 */
+	private long usedBytes = 0;
+
+	/**
+	 * Number of requests served from the hot tier.
+	 */
+	private final LongAdder hits = new LongAdder();
+
+	/**
+	 * Number of requests not served from the hot tier.
+	 */
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Number of {@link HttpFile} instances evicted from the hot tier.
+	 */
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Instantiate.
+	 * 
+	 * @param byteBudget
+	 *            Maximum number of bytes held in the hot tier.
+	 * @param maximumFileSize
+	 *            Maximum size of a {@link HttpFile} to be held in the hot tier.
+	 */
+	public HotHttpFileCache(long byteBudget, long maximumFileSize) {
+		this(byteBudget, maximumFileSize, DEFAULT_AGING_PERIOD);
+	}
+
+	/**
+	 * Instantiate.
+	 * 
+	 * @param byteBudget
+	 *            Maximum number of bytes held in the hot tier.
+	 * @param maximumFileSize
+	 *            Maximum size of a {@link HttpFile} to be held in the hot tier.
+	 * @param agingPeriod
+	 *            Period in milliseconds between halving the frequencies.
+	 */
+	public HotHttpFileCache(long byteBudget, long maximumFileSize, long agingPeriod) {
+		this.byteBudget = byteBudget;
+		this.maximumFileSize = Math.min(maximumFileSize, Math.min(byteBudget, Integer.MAX_VALUE));
+		this.agingPeriod = agingPeriod;
+		this.nextAgingTime = this.calculateNextAgingTime();
+	}
+
+	/**
+	 * Obtains the number of requests served from the hot tier.
+	 * 
+	 * @return Number of requests served from the hot tier.
+	 */
+	public long getHitCount() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * Obtains the number of requests not served from the hot tier.
+	 * 
+	 * @return Number of requests not served from the hot tier.
+	 */
+	public long getMissCount() {
+		return this.misses.sum();
+	}
+
+	/**
+	 * Obtains the ratio of requests served from the hot tier.
+	 * 
+	 * @return Ratio of requests served from the hot tier. <code>0</code> if no
+	 *         requests.
+	 */
+	public double getHitRate() {
+		long hits = this.hits.sum();
+		long total = hits + this.misses.sum();
+		return (total == 0) ? 0 : ((double) hits) / total;
+	}
+
+	/**
+	 * Obtains the number of {@link HttpFile} instances evicted from the hot tier.
+	 * 
+	 * @return Number of evictions.
+	 */
+	public long getEvictionCount() {
+		return this.evictions.sum();
+	}
+
+	/**
+	 * Obtains the number of bytes held in the hot tier.
+	 * 
+	 * @return Number of bytes held in the hot tier.
+	 */
+	public synchronized long getUsedBytes() {
+		return this.usedBytes;
+	}
+
+	/**
+	 * Obtains the number of {@link HttpFile} instances held in the hot tier.
+	 * 
+	 * @return Number of {@link HttpFile} instances held in the hot tier.
+	 */
+	public synchronized int getHotFileCount() {
+		return this.hotFiles.size();
+	}
+
+	/**
+	 * Obtains the content of the {@link HttpFileImpl} for writing a response.
+	 * 
+	 * @param file
+	 *            {@link HttpFileImpl}.
+	 * @return Read-only {@link ByteBuffer} (positioned for this response) to the
+	 *         content, or <code>null</code> if not held in the hot tier.
+	 * @throws IOException
+	 *             If fails to load the content.
+	 */
+	ByteBuffer getContent(HttpFileImpl file) throws IOException {
+
+		// Age the frequencies periodically
+		if (System.currentTimeMillis() >= this.nextAgingTime) {
+			this.ageIfDue();
+		}
+		long epoch = this.agingEpoch;
+		if (file.frequencyEpoch != epoch) {
+			ageFrequency(file, epoch);
+		}
+
+		// Record the use of the file
+		file.frequency.increment();
+
+		// Determine if content already held
+		ByteBuffer content = file.hotContent;
+		if (content != null) {
+			this.hits.increment();
+			return content.duplicate();
+		}
+		this.misses.increment();
+
+		// Only attempt admission at increasing intervals, to avoid contention
+		// for files that are unable to be admitted
+		long frequency = file.frequency.sum();
+		if ((frequency < ADMISSION_FREQUENCY) || ((frequency & (frequency - 1)) != 0)) {
+			return null;
+		}
+
+		// Attempt to admit the file
+		content = this.admit(file, frequency);
+		return (content == null) ? null : content.duplicate();
+	}
+
+	/**
+	 * Attempts to admit the {@link HttpFileImpl} to the hot tier.
+	 * 
+	 * @param file
+	 *            {@link HttpFileImpl}.
+	 * @param frequency
+	 *            Frequency of use of the {@link HttpFileImpl}.
+	 * @return Content of the {@link HttpFileImpl} or <code>null</code> if not
+	 *         admitted.
+	 * @throws IOException
+	 *             If fails to load the content.
+	 */
+	private synchronized ByteBuffer admit(HttpFileImpl file, long frequency) throws IOException {
+
+		// Determine if admitted by another thread
+		if (file.hotContent != null) {
+			return file.hotContent;
+		}
+
+		// Ensure not closed (so not leak the content)
+		if (!file.file.isOpen()) {
+			return null;
+		}
+
+		// Ensure file is small enough
+		long size = file.file.size();
+		if (size > this.maximumFileSize) {
+			return null;
+		}
+
+		// Determine the less frequently used files to evict
+		List<HttpFileImpl> victims = null;
+		long availableBytes = this.byteBudget - this.usedBytes;
+		while (availableBytes < size) {
+
+			// Find the least frequently used file (not already a victim)
+			HttpFileImpl victim = null;
+			long victimFrequency = Long.MAX_VALUE;
+			for (HttpFileImpl hotFile : this.hotFiles) {
+				if ((victims != null) && (victims.contains(hotFile))) {
+					continue;
+				}
+				ageFrequency(hotFile, this.agingEpoch);
+				long hotFrequency = hotFile.frequency.sum();
+				if (hotFrequency < victimFrequency) {
+					victim = hotFile;
+					victimFrequency = hotFrequency;
+				}
+			}
+
+			// Only evict files that are less frequently used
+			if ((victim == null) || (victimFrequency >= frequency)) {
+				return null;
+			}
+			if (victims == null) {
+				victims = new ArrayList<>(2);
+			}
+			victims.add(victim);
+			availableBytes += victim.hotContent.capacity();
+		}
+
+		// Load the content (reading by position, so not change file position)
+		ByteBuffer content = ByteBuffer.allocateDirect((int) size);
+		while (content.hasRemaining()) {
+			if (file.file.read(content, BufferJvmFix.position(content)) < 0) {
+				return null; // file truncated
+			}
+		}
+		BufferJvmFix.flip(content);
+		content = content.asReadOnlyBuffer();
+
+		// Evict the victims
+		if (victims != null) {
+			for (HttpFileImpl victim : victims) {
+				this.evict(victim);
+				this.evictions.increment();
+			}
+		}
+
+		// Hold the content
+		file.hotContent = content;
+		this.hotFiles.add(file);
+		this.usedBytes += size;
+		return content;
+	}
+
+	/**
+	 * Ages the frequencies, should the aging period have elapsed.
+	 */
+	private synchronized void ageIfDue() {
+		if (System.currentTimeMillis() >= this.nextAgingTime) {
+			this.age();
+		}
+	}
+
+	/**
+	 * Ages the frequencies, halving them (lazily on next use of each
+	 * {@link HttpFileImpl}).
+	 */
+	synchronized void age() {
+		this.agingEpoch++;
+		this.nextAgingTime = this.calculateNextAgingTime();
+	}
+
+	/**
+	 * Calculates the time of the next aging.
+	 * 
+	 * @return Time in milliseconds of the next aging.
+	 */
+	private long calculateNextAgingTime() {
+		long now = System.currentTimeMillis();
+		return (this.agingPeriod > (Long.MAX_VALUE - now)) ? Long.MAX_VALUE : now + this.agingPeriod;
+	}
+
+	/**
+	 * Removes the {@link HttpFileImpl} from the hot tier.
+	 * 
+	 * @param file
+	 *            {@link HttpFileImpl}.
+	 */
+	synchronized void remove(HttpFileImpl file) {
+		if (file.hotContent != null) {
+			this.evict(file);
+		}
+	}
+
+	/**
+	 * Evicts the {@link HttpFileImpl} from the hot tier.
+	 * 
+	 * @param file
+	 *            {@link HttpFileImpl}.
+	 */
+	private void evict(HttpFileImpl file) {
+		this.usedBytes -= file.hotContent.capacity();
+		file.hotContent = null;
+		this.hotFiles.remove(file);
+	}
+
+}
@@ -22,15 +22,35 @@
 package net.officefloor.web.resource.impl;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
 
+import net.officefloor.server.http.HttpHeader;
+import net.officefloor.server.http.HttpHeaderBlock;
 import net.officefloor.server.http.HttpHeaderName;
 import net.officefloor.server.http.HttpHeaderValue;
+import net.officefloor.server.http.HttpMethod.HttpMethodEnum;
+import net.officefloor.server.http.HttpRequest;
+import net.officefloor.server.http.HttpRequestHeaders;
 import net.officefloor.server.http.HttpResponse;
+import net.officefloor.server.http.HttpStatus;
+import net.officefloor.server.http.WritableHttpHeader;
 import net.officefloor.server.stream.FileCompleteCallback;
+import net.officefloor.server.stream.ServerOutputStream;
 import net.officefloor.web.resource.HttpFile;
 
 /**
@@ -45,6 +65,77 @@ public class HttpFileImpl extends AbstractHttpResource implements HttpFile, File
 	 */
 	private static final HttpHeaderName CONTENT_ENCODING = new HttpHeaderName("content-encoding");
 
+	/**
+	 * <code>Vary</code> {@link HttpHeaderName}.
+	 */
+	private static final HttpHeaderName VARY = new HttpHeaderName("vary");
+
+	/**
+	 * <code>Vary</code> {@link HttpHeaderValue} for content encoded variants.
+	 */
+	private static final HttpHeaderValue VARY_ACCEPT_ENCODING = new HttpHeaderValue("accept-encoding");
+
+	/**
+	 * <code>ETag</code> {@link HttpHeaderName}.
+	 */
+	private static final HttpHeaderName ETAG = new HttpHeaderName("etag");
+
+	/**
+	 * <code>Last-Modified</code> {@link HttpHeaderName}.
+	 */
+	private static final HttpHeaderName LAST_MODIFIED = new HttpHeaderName("last-modified");
+
+	/**
+	 * <code>If-None-Match</code> header name.
+	 */
+	private static final String IF_NONE_MATCH = "if-none-match";
+
+	/**
+	 * <code>If-Modified-Since</code> header name.
+	 */
+	private static final String IF_MODIFIED_SINCE = "if-modified-since";
+
+	/**
+	 * <code>Accept-Ranges</code> {@link HttpHeaderName}.
+	 */
+	private static final HttpHeaderName ACCEPT_RANGES = new HttpHeaderName("accept-ranges");
+
+	/**
+	 * <code>Accept-Ranges</code> {@link HttpHeaderValue} for byte ranges.
+	 */
+	private static final HttpHeaderValue ACCEPT_RANGES_BYTES = new HttpHeaderValue("bytes");
+
+	/**
+	 * <code>Content-Range</code> {@link HttpHeaderName}.
+	 */
+	private static final HttpHeaderName CONTENT_RANGE = new HttpHeaderName("content-range");
+
+	/**
+	 * <code>Range</code> header name.
+	 */
+	private static final String RANGE = "range";
+
+	/**
+	 * <code>If-Range</code> header name.
+	 */
+	private static final String IF_RANGE = "if-range";
+
+	/**
+	 * Prefix of the <code>Range</code> value for byte ranges.
+	 */
+	private static final String BYTES_PREFIX = "bytes=";
+
+	/**
+	 * Maximum number of ranges serviced for a request. Requests for more ranges
+	 * are sent the full {@link HttpFile} to avoid excessive multipart overheads.
+	 */
+	private static final int MAX_RANGES = 16;
+
+	/**
+	 * No content encoded variants.
+	 */
+	static final HttpFileImpl[] NO_VARIANTS = new HttpFileImpl[0];
+
 	/**
 	 * <code>Content-Encoding</code> {@link HttpHeaderValue}.
 	 */
@@ -68,8 +159,78 @@ public class HttpFileImpl extends AbstractHttpResource implements HttpFile, File
 	/**
 	 * {@link FileChannel}.
 	 */
-	private final FileChannel file;
-	
+	final FileChannel file;
+
+	/**
+	 * Strong <code>ETag</code>. May be <code>null</code>.
+	 */
+	private final HttpHeaderValue eTag;
+
+	/**
+	 * <code>Last-Modified</code>. May be <code>null</code>.
+	 */
+	private final HttpHeaderValue lastModified;
+
+	/**
+	 * Last modified time in seconds since epoch (resolution of HTTP dates).
+	 * Negative if unknown.
+	 */
+	private final long lastModifiedSeconds;
+
+	/**
+	 * Content encoded variants of this {@link HttpFile}.
+	 */
+	private final HttpFileImpl[] contentEncodedVariants;
+
+	/**
+	 * Indicates if the response varies by the <code>Accept-Encoding</code>.
+	 */
+	private final boolean isVary;
+
+	/**
+	 * {@link HttpHeaderBlock} of the validator {@link HttpHeader} instances.
+	 */
+	private final HttpHeaderBlock validatorsHeaderBlock;
+
+	/**
+	 * {@link HttpHeaderBlock} for writing this {@link HttpFile}.
+	 */
+	private final HttpHeaderBlock headerBlock;
+
+	/**
+	 * {@link HttpHeaderBlock} for writing this {@link HttpFile} supporting
+	 * ranges.
+	 */
+	private final HttpHeaderBlock rangesHeaderBlock;
+
+	/**
+	 * Last {@link ContentEncodedSelection}. As clients typically send the same
+	 * <code>Accept-Encoding</code>, this avoids parsing it for each request.
+	 */
+	private volatile ContentEncodedSelection lastSelection = null;
+
+	/**
+	 * {@link HotHttpFileCache}. May be <code>null</code>.
+	 */
+	private final HotHttpFileCache hotFileCache;
+
+	/**
+	 * Frequency of use of this {@link HttpFile} for the
+	 * {@link HotHttpFileCache}.
+	 */
+	final LongAdder frequency = new LongAdder();
+
+	/**
+	 * Aging epoch of the {@link #frequency}.
+	 */
+	volatile long frequencyEpoch = 0;
+
+	/**
+	 * Content held by the {@link HotHttpFileCache}. <code>null</code> if not
+	 * held.
+	 */
+	volatile ByteBuffer hotContent = null;
+
 	/**
 	 * Initiate an existing {@link HttpFile}.
 	 * 
@@ -88,12 +249,438 @@ public class HttpFileImpl extends AbstractHttpResource implements HttpFile, File
 	 */
 	public HttpFileImpl(String path, Path cleanupResourcePath, FileChannel file, HttpHeaderValue contentEncoding,
 			HttpHeaderValue contentType, Charset charset) {
+		this(path, cleanupResourcePath, file, contentEncoding, contentType, charset, null, -1, NO_VARIANTS, false,
+				null);
+	}
+
+	/**
+	 * Initiate an existing {@link HttpFile} with validators and content encoded
+	 * variants.
+	 * 
+	 * @param path
+	 *            Path.
+	 * @param cleanupResourcePath
+	 *            Resource {@link Path} to clean up. May be <code>null</code>.
+	 * @param file
+	 *            {@link FileChannel} to the file.
+	 * @param contentEncoding
+	 *            <code>Content-Encoding</code>.
+	 * @param contentType
+	 *            <code>Content-Type</code>.
+	 * @param charset
+	 *            {@link Charset}.
+	 * @param eTag
+	 *            Strong <code>ETag</code> (including quotes). May be
+	 *            <code>null</code>.
+	 * @param lastModified
+	 *            Last modified time in milliseconds since epoch. Negative if
+	 *            unknown.
+	 * @param contentEncodedVariants
+	 *            Content encoded variants in order of preference.
+	 * @param isVary
+	 *            Indicates if the response varies by the
+	 *            <code>Accept-Encoding</code>.
+	 * @param hotFileCache
+	 *            {@link HotHttpFileCache}. May be <code>null</code>.
+	 */
+	public HttpFileImpl(String path, Path cleanupResourcePath, FileChannel file, HttpHeaderValue contentEncoding,
+			HttpHeaderValue contentType, Charset charset, HttpHeaderValue eTag, long lastModified,
+			HttpFileImpl[] contentEncodedVariants, boolean isVary, HotHttpFileCache hotFileCache) {
 		super(path);
 		this.cleanupResourcePath = cleanupResourcePath;
 		this.contentEncoding = contentEncoding;
 		this.contentType = contentType;
 		this.charset = charset;
 		this.file = file;
+		this.eTag = eTag;
+		if (lastModified < 0) {
+			this.lastModified = null;
+			this.lastModifiedSeconds = -1;
+		} else {
+			this.lastModifiedSeconds = lastModified / 1000;
+			this.lastModified = new HttpHeaderValue(DateTimeFormatter.RFC_1123_DATE_TIME
+					.format(Instant.ofEpochSecond(this.lastModifiedSeconds).atZone(ZoneOffset.UTC)));
+		}
+		this.contentEncodedVariants = contentEncodedVariants;
+		this.isVary = isVary;
+		this.hotFileCache = hotFileCache;
+
+		// Pre-encode the fixed headers
+		this.validatorsHeaderBlock = this.createHeaderBlock(false, false);
+		this.headerBlock = this.createHeaderBlock(true, false);
+		this.rangesHeaderBlock = this.createHeaderBlock(false, true);
+	}
+
+	/**
+	 * Creates the {@link HttpHeaderBlock} for this {@link HttpFile}.
+	 * 
+	 * @param isContentEncoding
+	 *            Whether to include the <code>Content-Encoding</code>.
+	 * @param isAcceptRanges
+	 *            Whether to include the <code>Accept-Ranges</code>.
+	 * @return {@link HttpHeaderBlock}.
+	 */
+	private HttpHeaderBlock createHeaderBlock(boolean isContentEncoding, boolean isAcceptRanges) {
+		List<HttpHeader> headers = new ArrayList<>(5);
+		if ((isContentEncoding) && (this.contentEncoding != null)) {
+			headers.add(new WritableHttpHeader(CONTENT_ENCODING, this.contentEncoding));
+		}
+		if (this.eTag != null) {
+			headers.add(new WritableHttpHeader(ETAG, this.eTag));
+		}
+		if (this.lastModified != null) {
+			headers.add(new WritableHttpHeader(LAST_MODIFIED, this.lastModified));
+		}
+		if (this.isVary) {
+			headers.add(new WritableHttpHeader(VARY, VARY_ACCEPT_ENCODING));
+		}
+		if (isAcceptRanges) {
+			headers.add(new WritableHttpHeader(ACCEPT_RANGES, ACCEPT_RANGES_BYTES));
+		}
+		return new HttpHeaderBlock(headers.toArray(new HttpHeader[headers.size()]));
+	}
+
+	/**
+	 * Determines if the conditional {@link HttpRequest} matches this
+	 * {@link HttpFile}, so that only <code>304 (Not Modified)</code> is required.
+	 * 
+	 * @param request
+	 *            {@link HttpRequest}.
+	 * @return <code>true</code> if not modified.
+	 */
+	private boolean isNotModified(HttpRequest request) {
+
+		// Only conditional on retrieving the file
+		switch (request.getMethod().getEnum()) {
+		case GET:
+		case HEAD:
+			break;
+		default:
+			return false;
+		}
+		HttpRequestHeaders headers = request.getHeaders();
+
+		// If-None-Match takes precedence over If-Modified-Since
+		boolean isIfNoneMatch = false;
+		for (HttpHeader ifNoneMatch : headers.getHeaders(IF_NONE_MATCH)) {
+			isIfNoneMatch = true;
+			if ((this.eTag != null) && (this.isETagMatch(ifNoneMatch.getValue()))) {
+				return true;
+			}
+		}
+		if (isIfNoneMatch) {
+			return false;
+		}
+
+		// Determine if modified since
+		HttpHeader ifModifiedSince = headers.getHeader(IF_MODIFIED_SINCE);
+		if ((ifModifiedSince == null) || (this.lastModifiedSeconds < 0)) {
+			return false;
+		}
+		try {
+			long since = Instant.from(DateTimeFormatter.RFC_1123_DATE_TIME.parse(ifModifiedSince.getValue().trim()))
+					.getEpochSecond();
+			return this.lastModifiedSeconds <= since;
+		} catch (DateTimeException ex) {
+			return false; // invalid date, so ignore
+		}
+	}
+
+	/**
+	 * Determines if the <code>If-None-Match</code> value matches the
+	 * <code>ETag</code> (using weak comparison as per RFC 7232).
+	 * 
+	 * @param ifNoneMatch
+	 *            <code>If-None-Match</code> value.
+	 * @return <code>true</code> if matches.
+	 */
+	private boolean isETagMatch(String ifNoneMatch) {
+		String eTag = this.eTag.getValue();
+		for (String candidate : ifNoneMatch.split(",")) {
+			candidate = candidate.trim();
+			if (candidate.startsWith("W/")) {
+				candidate = candidate.substring("W/".length());
+			}
+			if ("*".equals(candidate) || eTag.equals(candidate)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Determines if the <code>If-Range</code> matches this {@link HttpFile}, so
+	 * that the <code>Range</code> may be serviced.
+	 * 
+	 * @param ifRange
+	 *            <code>If-Range</code> {@link HttpHeader}. May be
+	 *            <code>null</code>.
+	 * @return <code>true</code> if able to service the <code>Range</code>.
+	 */
+	private boolean isIfRangeMatch(HttpHeader ifRange) {
+
+		// No condition, so range applies
+		if (ifRange == null) {
+			return true;
+		}
+		String value = ifRange.getValue().trim();
+
+		// Entity tag requires strong comparison (so weak never matches)
+		if (value.startsWith("\"") || value.startsWith("W/")) {
+			return (this.eTag != null) && (this.eTag.getValue().equals(value));
+		}
+
+		// Date must exactly match the last modified
+		if (this.lastModifiedSeconds < 0) {
+			return false;
+		}
+		try {
+			long date = Instant.from(DateTimeFormatter.RFC_1123_DATE_TIME.parse(value)).getEpochSecond();
+			return this.lastModifiedSeconds == date;
+		} catch (DateTimeException ex) {
+			return false; // invalid date, so send full file
+		}
+	}
+
+	/**
+	 * Parses the <code>Range</code> value.
+	 * 
+	 * @param range
+	 *            <code>Range</code> value.
+	 * @param size
+	 *            Size of the {@link HttpFile}.
+	 * @return Inclusive start and end positions (in pairs) of the satisfiable
+	 *         ranges, with overlapping and adjacent ranges merged. Empty if no
+	 *         range is satisfiable. <code>null</code> if the <code>Range</code>
+	 *         is to be ignored.
+	 */
+	private static long[] parseRanges(String range, long size) {
+
+		// Only byte ranges supported
+		range = range.trim();
+		if (!range.regionMatches(true, 0, BYTES_PREFIX, 0, BYTES_PREFIX.length())) {
+			return null;
+		}
+		String[] specs = range.substring(BYTES_PREFIX.length()).split(",");
+		if (specs.length > MAX_RANGES) {
+			return null;
+		}
+
+		// Load the satisfiable ranges
+		long[] positions = new long[specs.length * 2];
+		int count = 0;
+		for (String spec : specs) {
+			spec = spec.trim();
+			int separator = spec.indexOf('-');
+			if (separator < 0) {
+				return null; // invalid syntax, so ignore
+			}
+			String first = spec.substring(0, separator).trim();
+			String last = spec.substring(separator + 1).trim();
+			long start;
+			long end;
+			try {
+				if (first.length() == 0) {
+					// Suffix range (last bytes of file)
+					long suffix = Long.parseLong(last);
+					if (suffix < 0) {
+						return null;
+					}
+					if ((suffix == 0) || (size == 0)) {
+						continue; // not satisfiable
+					}
+					start = Math.max(0, size - suffix);
+					end = size - 1;
+				} else {
+					start = Long.parseLong(first);
+					end = (last.length() == 0) ? Long.MAX_VALUE : Long.parseLong(last);
+					if ((start < 0) || (end < start)) {
+						return null;
+					}
+					if (start >= size) {
+						continue; // not satisfiable
+					}
+					end = Math.min(end, size - 1);
+				}
+			} catch (NumberFormatException ex) {
+				return null; // invalid syntax, so ignore
+			}
+			positions[count++] = start;
+			positions[count++] = end;
+		}
+		return mergeRanges(positions, count);
+	}
+
+	/**
+	 * Merges the overlapping and adjacent ranges, so that no content of the
+	 * {@link HttpFile} is sent more than once.
+	 * 
+	 * @param positions
+	 *            Inclusive start and end positions (in pairs) of the ranges.
+	 * @param count
+	 *            Number of positions loaded.
+	 * @return Inclusive start and end positions (in pairs) of the merged ranges,
+	 *         ordered by start position.
+	 */
+	private static long[] mergeRanges(long[] positions, int count) {
+
+		// Order the ranges by start (insertion sort, as few ranges)
+		for (int i = 2; i < count; i += 2) {
+			long start = positions[i];
+			long end = positions[i + 1];
+			int j = i - 2;
+			while ((j >= 0) && (positions[j] > start)) {
+				positions[j + 2] = positions[j];
+				positions[j + 3] = positions[j + 1];
+				j -= 2;
+			}
+			positions[j + 2] = start;
+			positions[j + 3] = end;
+		}
+
+		// Merge the overlapping and adjacent ranges
+		int merged = 0;
+		for (int i = 0; i < count; i += 2) {
+			if ((merged > 0) && (positions[i] <= (positions[merged - 1] + 1))) {
+				positions[merged - 1] = Math.max(positions[merged - 1], positions[i + 1]);
+			} else {
+				positions[merged++] = positions[i];
+				positions[merged++] = positions[i + 1];
+			}
+		}
+		return (merged == positions.length) ? positions : Arrays.copyOf(positions, merged);
+	}
+
+	/**
+	 * Writes the ranges of this {@link HttpFile}.
+	 * 
+	 * @param ranges
+	 *            Inclusive start and end positions (in pairs) of the ranges.
+	 * @param size
+	 *            Size of the {@link HttpFile}.
+	 * @param response
+	 *            {@link HttpResponse}.
+	 * @throws IOException
+	 *             If fails to write the ranges.
+	 */
+	private void writeRanges(long[] ranges, long size, HttpResponse response) throws IOException {
+
+		// Reset the HTTP response for writing the ranges
+		response.reset();
+
+		// Determine if able to satisfy the ranges
+		if (ranges.length == 0) {
+			response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+			response.getHeaders().addHeader(CONTENT_RANGE, new HttpHeaderValue("bytes */" + size));
+			return;
+		}
+
+		// Provide the details of the partial content
+		response.setStatus(HttpStatus.PARTIAL_CONTENT);
+		response.setHeaderBlock(this.rangesHeaderBlock);
+		ServerOutputStream entity = response.getEntity();
+
+		// Write the single range
+		if (ranges.length == 2) {
+			long start = ranges[0];
+			long end = ranges[1];
+			response.getHeaders().addHeader(CONTENT_RANGE,
+					new HttpHeaderValue("bytes " + start + "-" + end + "/" + size));
+			if (this.contentType != null) {
+				response.setContentType(this.contentType, this.charset);
+			}
+			entity.write(this.file, start, end - start + 1, this);
+			return;
+		}
+
+		// Write the multiple ranges as multipart/byteranges
+		String boundary = Long.toHexString(ThreadLocalRandom.current().nextLong() | Long.MIN_VALUE);
+		response.setContentType(new HttpHeaderValue("multipart/byteranges; boundary=" + boundary), null);
+		for (int i = 0; i < ranges.length; i += 2) {
+			long start = ranges[i];
+			long end = ranges[i + 1];
+			StringBuilder part = new StringBuilder();
+			part.append("\r\n--").append(boundary).append("\r\n");
+			if (this.contentType != null) {
+				part.append("content-type: ").append(this.contentType.getValue()).append("\r\n");
+			}
+			part.append("content-range: bytes ").append(start).append('-').append(end).append('/').append(size)
+					.append("\r\n\r\n");
+			writeAscii(part, entity);
+			entity.write(this.file, start, end - start + 1, this);
+		}
+		writeAscii("\r\n--" + boundary + "--\r\n", entity);
+	}
+
+	/**
+	 * Writes the US-ASCII text.
+	 * 
+	 * @param text
+	 *            Text.
+	 * @param output
+	 *            {@link OutputStream}.
+	 * @throws IOException
+	 *             If fails to write the text.
+	 */
+	private static void writeAscii(CharSequence text, OutputStream output) throws IOException {
+		output.write(text.toString().getBytes(StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * Selects the {@link HttpFile} for the <code>Accept-Encoding</code>.
+	 * 
+	 * @param acceptEncoding
+	 *            <code>Accept-Encoding</code>.
+	 * @return Selected {@link HttpFile}.
+	 */
+	private HttpFile selectContentEncodedHttpFile(String acceptEncoding) {
+
+		// Determine quality for each variant
+		float[] qualities = new float[this.contentEncodedVariants.length];
+		Arrays.fill(qualities, -1);
+		float anyQuality = -1;
+		for (String coding : acceptEncoding.split(",")) {
+
+			// Obtain the encoding and its quality
+			int parametersIndex = coding.indexOf(';');
+			String encoding = (parametersIndex < 0 ? coding : coding.substring(0, parametersIndex)).trim();
+			float quality = 1;
+			if (parametersIndex >= 0) {
+				for (String parameter : coding.substring(parametersIndex + 1).split(";")) {
+					parameter = parameter.trim();
+					if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+						try {
+							quality = Float.parseFloat(parameter.substring("q=".length()).trim());
+						} catch (NumberFormatException ex) {
+							quality = 0; // invalid, so not accepted
+						}
+					}
+				}
+			}
+
+			// Load the quality
+			if ("*".equals(encoding)) {
+				anyQuality = Math.max(anyQuality, quality);
+			} else {
+				for (int i = 0; i < this.contentEncodedVariants.length; i++) {
+					if (this.contentEncodedVariants[i].contentEncoding.getValue().equalsIgnoreCase(encoding)) {
+						qualities[i] = Math.max(qualities[i], quality);
+					}
+				}
+			}
+		}
+
+		// Select the most preferred variant (ties to earlier variants)
+		HttpFile selected = this;
+		float selectedQuality = 0;
+		for (int i = 0; i < this.contentEncodedVariants.length; i++) {
+			float quality = qualities[i] < 0 ? anyQuality : qualities[i];
+			if (quality > selectedQuality) {
+				selected = this.contentEncodedVariants[i];
+				selectedQuality = quality;
+			}
+		}
+		return selected;
 	}
 
 	/*
@@ -110,11 +697,41 @@ public class HttpFileImpl extends AbstractHttpResource implements HttpFile, File
 		return this.contentEncoding;
 	}
 
+	@Override
+	public HttpFile getContentEncodedHttpFile(String acceptEncoding) {
+
+		// Determine if able to select a variant
+		if ((acceptEncoding == null) || (this.contentEncodedVariants.length == 0)) {
+			return this;
+		}
+
+		// Determine if same as last selection
+		ContentEncodedSelection selection = this.lastSelection;
+		if ((selection != null) && (selection.acceptEncoding.equals(acceptEncoding))) {
+			return selection.httpFile;
+		}
+
+		// Select the HTTP file
+		HttpFile selected = this.selectContentEncodedHttpFile(acceptEncoding);
+		this.lastSelection = new ContentEncodedSelection(acceptEncoding, selected);
+		return selected;
+	}
+
 	@Override
 	public HttpHeaderValue getContentType() {
 		return this.contentType;
 	}
 
+	@Override
+	public HttpHeaderValue getETag() {
+		return this.eTag;
+	}
+
+	@Override
+	public HttpHeaderValue getLastModified() {
+		return this.lastModified;
+	}
+
 	@Override
 	public Charset getCharset() {
 		return this.charset;
@@ -135,15 +752,50 @@ public class HttpFileImpl extends AbstractHttpResource implements HttpFile, File
 		response.reset();
 
 		// Provide the details of the file
-		if (this.contentEncoding != null) {
-			response.getHeaders().addHeader(CONTENT_ENCODING, this.contentEncoding);
-		}
+		response.setHeaderBlock(this.headerBlock);
 		if (this.contentType != null) {
 			response.setContentType(this.contentType, this.charset);
 		}
 
-		// Write the HTTP file content to response
-		response.getEntityWriter().write(this.file, this);
+		// Write the HTTP file content to response (from memory if hot)
+		ByteBuffer hotContent = (this.hotFileCache == null) ? null : this.hotFileCache.getContent(this);
+		if (hotContent != null) {
+			response.getEntityWriter().write(hotContent);
+		} else {
+			response.getEntityWriter().write(this.file, this);
+		}
+	}
+
+	@Override
+	public void writeTo(HttpRequest request, HttpResponse response) throws IOException {
+
+		// Determine if client already has the file
+		if (this.isNotModified(request)) {
+			response.reset();
+			response.setStatus(HttpStatus.NOT_MODIFIED);
+			response.setHeaderBlock(this.validatorsHeaderBlock);
+			return;
+		}
+
+		// Determine if partial content requested (only of identity encoding)
+		if ((this.contentEncoding == null) && (request.getMethod().getEnum() == HttpMethodEnum.GET)) {
+			HttpRequestHeaders headers = request.getHeaders();
+			HttpHeader range = headers.getHeader(RANGE);
+			if ((range != null) && (this.isIfRangeMatch(headers.getHeader(IF_RANGE)))) {
+				long size = this.file.size();
+				long[] ranges = parseRanges(range.getValue(), size);
+				if (ranges != null) {
+					this.writeRanges(ranges, size, response);
+					return;
+				}
+			}
+		}
+
+		// Write the file
+		this.writeTo(response);
+		if (this.contentEncoding == null) {
+			response.setHeaderBlock(this.rangesHeaderBlock);
+		}
 	}
 
 	/*
@@ -162,13 +814,52 @@ public class HttpFileImpl extends AbstractHttpResource implements HttpFile, File
 	@Override
 	public void close() throws IOException {
 
+		// Release from hot tier
+		if (this.hotFileCache != null) {
+			this.hotFileCache.remove(this);
+		}
+
 		// Close the file channel
 		this.file.close();
 
+		// Close the content encoded variants
+		for (HttpFileImpl variant : this.contentEncodedVariants) {
+			variant.close();
+		}
+
 		// Determine if clean up file
 		if (this.cleanupResourcePath != null) {
 			Files.deleteIfExists(this.cleanupResourcePath);
 		}
 	}
 
+	/**
+	 * Selection of {@link HttpFile} for an <code>Accept-Encoding</code>.
+	 */
+	private static class ContentEncodedSelection {
+
+		/**
+		 * <code>Accept-Encoding</code>.
+		 */
+		private final String acceptEncoding;
+
+		/**
+		 * Selected {@link HttpFile}.
+		 */
+		private final HttpFile httpFile;
+
+		/**
+		 * Instantiate.
+		 * 
+		 * @param acceptEncoding
+		 *            <code>Accept-Encoding</code>.
+		 * @param httpFile
+		 *            Selected {@link HttpFile}.
+		 */
+		private ContentEncodedSelection(String acceptEncoding, HttpFile httpFile) {
+			this.acceptEncoding = acceptEncoding;
+			this.httpFile = httpFile;
+		}
+	}
+
 }
@@ -24,6 +24,7 @@ package net.officefloor.web.resource.impl;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
@@ -31,7 +32,11 @@ import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
@@ -45,6 +50,7 @@ import java.util.logging.Logger;
 import org.apache.tika.Tika;
 
 import net.officefloor.server.http.HttpHeaderValue;
+import net.officefloor.server.stream.BufferJvmFix;
 import net.officefloor.web.resource.HttpDirectory;
 import net.officefloor.web.resource.HttpFile;
 import net.officefloor.web.resource.HttpResource;
@@ -88,6 +94,11 @@ public class HttpResourceStoreImpl implements HttpResourceStore, ResourceSystemC
 	 */
 	private static volatile Tika tikaSingleton = null;
 
+	/**
+	 * Number of bytes of the content hash included in the <code>ETag</code>.
+	 */
+	private static final int ETAG_HASH_LENGTH = 16;
+
 	/**
 	 * {@link Map} of {@link HttpResource} path to the current
 	 * {@link CreateSingleton} for the {@link HttpResource}.
@@ -145,6 +156,11 @@ public class HttpResourceStoreImpl implements HttpResourceStore, ResourceSystemC
 	 */
 	private final String[] directoryDefaultResourceNames;
 
+	/**
+	 * {@link HotHttpFileCache}. May be <code>null</code>.
+	 */
+	private final HotHttpFileCache hotFileCache;
+
 	/**
 	 * Instantiate.
 	 * 
@@ -159,7 +175,28 @@ public class HttpResourceStoreImpl implements HttpResourceStore, ResourceSystemC
 	public HttpResourceStoreImpl(String location, ResourceSystemFactory resourceSystemService,
 			FileCacheFactory fileCacheFactory, ResourceTransformer[] transformers,
 			String[] directoryDefaultResourceNames) throws IOException {
+		this(location, resourceSystemService, fileCacheFactory, transformers, directoryDefaultResourceNames, null);
+	}
+
+	/**
+	 * Instantiate.
+	 * 
+	 * @param location                      Location for the
+	 *                                      {@link ResourceSystemContext}.
+	 * @param resourceSystemService         {@link ResourceSystemFactory}.
+	 * @param fileCacheFactory              {@link FileCacheFactory}.
+	 * @param transformers                  {@link ResourceTransformer} instances.
+	 * @param directoryDefaultResourceNames Directory default resource names.
+	 * @param hotFileCache                  {@link HotHttpFileCache}. May be
+	 *                                      <code>null</code> to not hold content
+	 *                                      in memory.
+	 * @throws IOException If fails to instantiate the {@link HttpResourceStore}.
+	 */
+	public HttpResourceStoreImpl(String location, ResourceSystemFactory resourceSystemService,
+			FileCacheFactory fileCacheFactory, ResourceTransformer[] transformers,
+			String[] directoryDefaultResourceNames, HotHttpFileCache hotFileCache) throws IOException {
 		this.location = location;
+		this.hotFileCache = hotFileCache;
 
 		// Specify the transformers
 		this.transformers = transformers != null ? transformers : new ResourceTransformer[0];
@@ -191,6 +228,47 @@ public class HttpResourceStoreImpl implements HttpResourceStore, ResourceSystemC
 		return this.httpResourceCache;
 	}
 
+	/**
+	 * Obtains the {@link HotHttpFileCache}.
+	 * 
+	 * @return {@link HotHttpFileCache} or <code>null</code> if content not held
+	 *         in memory.
+	 */
+	public HotHttpFileCache getHotFileCache() {
+		return this.hotFileCache;
+	}
+
+	/**
+	 * Creates the strong <code>ETag</code> from the hash of the file content.
+	 * 
+	 * @param file {@link FileChannel} to the file. Read by position, so does not
+	 *             change the position of the {@link FileChannel}.
+	 * @return Strong <code>ETag</code>.
+	 * @throws IOException If fails to read the file.
+	 */
+	private static HttpHeaderValue createETag(FileChannel file) throws IOException {
+
+		// Hash the content
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IOException("Unable to hash content for ETag", ex);
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(8192);
+		long position = 0;
+		for (int bytes = file.read(buffer, position); bytes != -1; bytes = file.read(buffer, position)) {
+			BufferJvmFix.flip(buffer);
+			digest.update(buffer);
+			BufferJvmFix.clear(buffer);
+			position += bytes;
+		}
+
+		// Create the ETag
+		byte[] hash = Arrays.copyOf(digest.digest(), ETAG_HASH_LENGTH);
+		return new HttpHeaderValue("\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"");
+	}
+
 	/*
 	 * ==================== HttpResourceStore ======================
 	 */
@@ -481,6 +559,9 @@ public class HttpResourceStoreImpl implements HttpResourceStore, ResourceSystemC
 					return this.singletonHttpResource;
 				}
 
+				// Capture modification time (before transforms create new files)
+				long lastModified = Files.getLastModifiedTime(resource).toMillis();
+
 				// Determine the content type of resource
 				String contentType = null; // Files.probeContentType(resource);
 				HttpHeaderValue contentTypeHeaderValue;
@@ -537,16 +618,36 @@ public class HttpResourceStoreImpl implements HttpResourceStore, ResourceSystemC
 
 				// Clean unused files (in reverse order created)
 				Collections.reverse(context.cleanupFiles);
-				for (Path cleanUpFile : context.cleanupFiles) {
-					if (!(Files.isSameFile(context.resource, cleanUpFile))) {
-						Files.delete(cleanUpFile);
+				NEXT_FILE: for (Path cleanUpFile : context.cleanupFiles) {
+					if (Files.isSameFile(context.resource, cleanUpFile)) {
+						continue NEXT_FILE;
 					}
+					for (ContentEncodedVariant variant : context.contentEncodedVariants) {
+						if (Files.isSameFile(variant.resource, cleanUpFile)) {
+							continue NEXT_FILE;
+						}
+					}
+					Files.delete(cleanUpFile);
+				}
+
+				// Create the content encoded variants
+				int variantCount = context.contentEncodedVariants.size();
+				HttpFileImpl[] variants = new HttpFileImpl[variantCount];
+				for (int i = 0; i < variantCount; i++) {
+					ContentEncodedVariant variant = context.contentEncodedVariants.get(i);
+					FileChannel variantChannel = FileChannel.open(variant.resource, OPEN_OPTIONS);
+					variants[i] = new HttpFileImpl(this.resourcePath, variant.resource, variantChannel,
+							variant.contentEncoding, context.contentType, context.getCharset(),
+							createETag(variantChannel), lastModified, HttpFileImpl.NO_VARIANTS, true,
+							HttpResourceStoreImpl.this.hotFileCache);
 				}
 
 				// Create the HTTP file
 				FileChannel fileChannel = FileChannel.open(context.resource, OPEN_OPTIONS);
 				HttpFileImpl httpFile = new HttpFileImpl(this.resourcePath, context.resource, fileChannel,
-						context.contentEncoding, context.contentType, context.getCharset());
+						context.contentEncoding, context.contentType, context.getCharset(),
+						createETag(fileChannel), lastModified, variants, (variantCount > 0),
+						HttpResourceStoreImpl.this.hotFileCache);
 
 				// Flag HTTP resource as resolved
 				this.singletonHttpResource = httpFile;
@@ -600,6 +701,11 @@ public class HttpResourceStoreImpl implements HttpResourceStore, ResourceSystemC
 		 */
 		private HttpHeaderValue contentEncoding = null;
 
+		/**
+		 * {@link ContentEncodedVariant} instances.
+		 */
+		private final List<ContentEncodedVariant> contentEncodedVariants = new ArrayList<>(2);
+
 		/**
 		 * {@link Path} instances to the files that require clean up.
 		 */
@@ -635,6 +741,12 @@ public class HttpResourceStoreImpl implements HttpResourceStore, ResourceSystemC
 			return this.resource;
 		}
 
+		@Override
+		public Path getResource(String path) throws IOException {
+			Path resource = HttpResourceStoreImpl.this.resourceSystem.getResource(path);
+			return ((resource == null) || (!Files.isRegularFile(resource))) ? null : resource;
+		}
+
 		@Override
 		public Path createFile() throws IOException {
 
@@ -681,12 +793,78 @@ public class HttpResourceStoreImpl implements HttpResourceStore, ResourceSystemC
 			}
 		}
 
+		@Override
+		public void addContentEncodedVariant(HttpHeaderValue contentEncoding, Path resource) throws IOException {
+
+			// Ensure resource is not already encoded
+			if (this.contentEncoding != null) {
+				throw new IOException("Resource " + this.resourcePath + " already encoded ("
+						+ this.contentEncoding.getValue() + "), so can not add "
+						+ contentEncoding.getValue() + " variant");
+			}
+
+			// First variant for an encoding is used
+			if (this.isContentEncodedVariant(contentEncoding.getValue())) {
+				return;
+			}
+
+			// Ensure managed file (so never deletes resource system files)
+			if (!this.cleanupFiles.contains(resource)) {
+				Path copy = this.createFile();
+				Files.copy(resource, copy, StandardCopyOption.REPLACE_EXISTING);
+				resource = copy;
+			}
+
+			// Add the variant
+			this.contentEncodedVariants.add(new ContentEncodedVariant(contentEncoding, resource));
+		}
+
+		@Override
+		public boolean isContentEncodedVariant(String contentEncoding) {
+			for (ContentEncodedVariant variant : this.contentEncodedVariants) {
+				if (variant.contentEncoding.getValue().equalsIgnoreCase(contentEncoding)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
 		@Override
 		public void setTransformedResource(Path resource) {
 			if (resource != null) {
 				this.resource = resource;
+
+				// Variants are of previous resource, so discard
+				this.contentEncodedVariants.clear();
 			}
 		}
 	}
 
+	/**
+	 * Content encoded variant of a resource.
+	 */
+	private static class ContentEncodedVariant {
+
+		/**
+		 * <code>Content-Encoding</code>.
+		 */
+		private final HttpHeaderValue contentEncoding;
+
+		/**
+		 * {@link Path} to the encoded resource.
+		 */
+		private final Path resource;
+
+		/**
+		 * Instantiate.
+		 * 
+		 * @param contentEncoding <code>Content-Encoding</code>.
+		 * @param resource        {@link Path} to the encoded resource.
+		 */
+		private ContentEncodedVariant(HttpHeaderValue contentEncoding, Path resource) {
+			this.contentEncoding = contentEncoding;
+			this.resource = resource;
+		}
+	}
+
 }
@@ -27,6 +27,8 @@ import net.officefloor.frame.api.function.ManagedFunction;
 import net.officefloor.frame.api.function.ManagedFunctionContext;
 import net.officefloor.frame.api.function.StaticManagedFunction;
 import net.officefloor.frame.internal.structure.Flow;
+import net.officefloor.server.http.HttpHeader;
+import net.officefloor.server.http.HttpRequest;
 import net.officefloor.server.http.ServerHttpConnection;
 import net.officefloor.web.resource.HttpDirectory;
 import net.officefloor.web.resource.HttpFile;
@@ -54,6 +56,16 @@ public abstract class AbstractSendHttpFileFunction<R>
 		NOT_AVAILABLE
 	}
 
+	/**
+	 * <code>Accept-Encoding</code> header name.
+	 */
+	private static final String ACCEPT_ENCODING = "accept-encoding";
+
+	/**
+	 * <code>Range</code> header name.
+	 */
+	private static final String RANGE = "range";
+
 	/**
 	 * Context path.
 	 */
@@ -134,8 +146,14 @@ public abstract class AbstractSendHttpFileFunction<R>
 			return;
 		}
 
-		// Send the file
-		file.writeTo(connection.getResponse());
+		// Send the variant of the file accepted by the client
+		// (ranges are served from the identity encoding)
+		HttpRequest request = connection.getRequest();
+		if (request.getHeaders().getHeader(RANGE) == null) {
+			HttpHeader acceptEncoding = request.getHeaders().getHeader(ACCEPT_ENCODING);
+			file = file.getContentEncodedHttpFile(acceptEncoding == null ? null : acceptEncoding.getValue());
+		}
+		file.writeTo(request, connection.getResponse());
 	}
 
 }
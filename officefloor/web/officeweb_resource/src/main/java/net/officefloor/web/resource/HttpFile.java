@@ -26,6 +26,7 @@ import java.nio.charset.Charset;
 import java.nio.file.spi.FileTypeDetector;
 
 import net.officefloor.server.http.HttpHeaderValue;
+import net.officefloor.server.http.HttpRequest;
 import net.officefloor.server.http.HttpResponse;
 import net.officefloor.web.resource.spi.ResourceSystem;
 import net.officefloor.web.resource.spi.ResourceSystemContext;
@@ -47,6 +48,23 @@ public interface HttpFile extends HttpResource {
 	 */
 	HttpHeaderValue getContentEncoding();
 
+	/**
+	 * <p>
+	 * Obtains the {@link HttpFile} to send for the <code>Accept-Encoding</code> of
+	 * the request.
+	 * <p>
+	 * This allows sending a pre-encoded variant of this {@link HttpFile} (e.g.
+	 * <code>gzip</code>) to clients accepting the encoding.
+	 * 
+	 * @param acceptEncoding <code>Accept-Encoding</code> of the request. May be
+	 *                       <code>null</code>.
+	 * @return {@link HttpFile} to send. Will be this {@link HttpFile} if no
+	 *         accepted encoded variant.
+	 * 
+	 * @see ResourceTransformer
+	 */
+	HttpFile getContentEncodedHttpFile(String acceptEncoding);
+
 	/**
 	 * Obtains the <code>Content-Type</code> for this {@link HttpFile}.
 	 * 
@@ -56,6 +74,22 @@ public interface HttpFile extends HttpResource {
 	 */
 	HttpHeaderValue getContentType();
 
+	/**
+	 * Obtains the strong <code>ETag</code> for this {@link HttpFile}.
+	 * 
+	 * @return <code>ETag</code> (including quotes) for this {@link HttpFile}.
+	 *         May be <code>null</code> if no <code>ETag</code>.
+	 */
+	HttpHeaderValue getETag();
+
+	/**
+	 * Obtains the <code>Last-Modified</code> for this {@link HttpFile}.
+	 * 
+	 * @return <code>Last-Modified</code> for this {@link HttpFile}. May be
+	 *         <code>null</code> if modification time unknown.
+	 */
+	HttpHeaderValue getLastModified();
+
 	/**
 	 * Obtains the {@link Charset} for the contents.
 	 * 
@@ -78,4 +112,28 @@ public interface HttpFile extends HttpResource {
 	 */
 	void writeTo(HttpResponse response) throws IOException;
 
+	/**
+	 * <p>
+	 * Writes the {@link HttpFile} to the {@link HttpResponse} for the
+	 * {@link HttpRequest}.
+	 * <p>
+	 * Should the conditional headers (<code>If-None-Match</code> or
+	 * <code>If-Modified-Since</code>) of the {@link HttpRequest} match this
+	 * {@link HttpFile}, only a <code>304 (Not Modified)</code> is written.
+	 * <p>
+	 * Should the {@link HttpRequest} provide a <code>Range</code> (and any
+	 * <code>If-Range</code> matches), only the requested byte ranges are written
+	 * as <code>206 (Partial Content)</code>. Multiple ranges are written as
+	 * <code>multipart/byteranges</code>.
+	 * 
+	 * @param request
+	 *            {@link HttpRequest}.
+	 * @param response
+	 *            {@link HttpResponse}.
+	 * @throws IOException
+	 *             If failure in writing the {@link HttpFile} to the
+	 *             {@link HttpResponse}.
+	 */
+	void writeTo(HttpRequest request, HttpResponse response) throws IOException;
+
 }
@@ -86,6 +86,25 @@ public interface HttpResourcesBuilder {
 	 */
 	void setDirectoryDefaultResourceNames(String... defaultResourceNames);
 
+	/**
+	 * <p>
+	 * Specifies holding the content of small frequently served
+	 * {@link HttpResource} instances in memory.
+	 * <p>
+	 * This avoids transferring from the file for each response, which is
+	 * significant for small files (e.g. favicons, icons and style sheets). The
+	 * least frequently used content is evicted to keep within the byte budget.
+	 * <p>
+	 * By default, content is not held in memory.
+	 * 
+	 * @param byteBudget
+	 *            Maximum number of bytes of content held in memory. A value of
+	 *            <code>0</code> (or less) disables holding content in memory.
+	 * @param maximumFileSize
+	 *            Maximum size of a file to have its content held in memory.
+	 */
+	void setHotFileCache(long byteBudget, long maximumFileSize);
+
 	/**
 	 * <p>
 	 * Obtains the {@link HttpSecurableBuilder} to configure access controls to
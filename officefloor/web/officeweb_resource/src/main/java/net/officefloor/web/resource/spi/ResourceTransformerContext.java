@@ -49,6 +49,19 @@ public interface ResourceTransformerContext {
 	 */
 	Path getResource();
 
+	/**
+	 * Obtains another resource from the {@link ResourceSystem}.
+	 * <p>
+	 * This allows using related resources in the transform, such as pre-compressed
+	 * variants provided alongside the resource.
+	 * 
+	 * @param path Path identifying the other resource.
+	 * @return {@link Path} to the other resource. <code>null</code> if no file at
+	 *         the path.
+	 * @throws IOException If fails to obtain the other resource.
+	 */
+	Path getResource(String path) throws IOException;
+
 	/**
 	 * <p>
 	 * Creates a new file.
@@ -112,6 +125,34 @@ public interface ResourceTransformerContext {
 	 */
 	void setContentEncoding(HttpHeaderValue contentEncoding) throws IOException;
 
+	/**
+	 * <p>
+	 * Adds a variant of the resource encoded with the <code>Content-Encoding</code>.
+	 * <p>
+	 * Unlike {@link #setContentEncoding(HttpHeaderValue)}, the resource itself
+	 * remains un-encoded (for clients not accepting the encoding). The variant is
+	 * sent instead to clients that accept the <code>Content-Encoding</code>. As
+	 * the variant is of the current resource, specifying a further transformed
+	 * resource discards the variants.
+	 * 
+	 * @param contentEncoding <code>Content-Encoding</code> of the variant.
+	 * @param resource        {@link Path} to the encoded variant. Should it not
+	 *                        be created via {@link #createFile()}, it is copied.
+	 * @throws IOException If the resource is already encoded.
+	 * 
+	 * @see #isContentEncodedVariant(String)
+	 */
+	void addContentEncodedVariant(HttpHeaderValue contentEncoding, Path resource) throws IOException;
+
+	/**
+	 * Determines if a variant has been added for the <code>Content-Encoding</code>.
+	 * 
+	 * @param contentEncoding <code>Content-Encoding</code>.
+	 * @return <code>true</code> if variant added for the
+	 *         <code>Content-Encoding</code>.
+	 */
+	boolean isContentEncodedVariant(String contentEncoding);
+
 	/**
 	 * <p>
 	 * Specifies the {@link Path} to the transformed resource.
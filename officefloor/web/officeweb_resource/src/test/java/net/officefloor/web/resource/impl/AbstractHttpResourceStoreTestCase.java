@@ -21,29 +21,38 @@
 
 package net.officefloor.web.resource.impl;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.FileAttribute;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import net.officefloor.frame.api.source.ServiceFactory;
 import net.officefloor.frame.test.OfficeFrameTestCase;
 import net.officefloor.server.filesystem.OfficeFloorFileAttributes;
 import net.officefloor.server.http.HttpHeaderValue;
+import net.officefloor.server.http.mock.MockHttpRequestBuilder;
 import net.officefloor.server.http.mock.MockHttpResponse;
 import net.officefloor.server.http.mock.MockHttpResponseBuilder;
 import net.officefloor.server.http.mock.MockHttpServer;
+import net.officefloor.server.http.mock.MockServerHttpConnection;
 import net.officefloor.web.resource.HttpDirectory;
 import net.officefloor.web.resource.HttpFile;
 import net.officefloor.web.resource.HttpResource;
 import net.officefloor.web.resource.HttpResourceCache;
 import net.officefloor.web.resource.HttpResourceStore;
+import net.officefloor.web.resource.compress.GzipResourceTransformerService;
+import net.officefloor.web.resource.compress.PrecompressedResourceTransformerService;
 import net.officefloor.web.resource.spi.FileCache;
 import net.officefloor.web.resource.spi.ResourceSystem;
 import net.officefloor.web.resource.spi.ResourceSystemFactory;
@@ -289,6 +298,322 @@ public abstract class AbstractHttpResourceStoreTestCase extends OfficeFrameTestC
 		}
 	}
 
+	/**
+	 * Ensure provides the validators for the {@link HttpFile}.
+	 */
+	public void testValidators() throws IOException {
+		HttpFile file = (HttpFile) this.store.getHttpResource(this.path("/index.html"));
+		String eTag = file.getETag().getValue();
+		assertTrue("Should be strong ETag: " + eTag, eTag.startsWith("\"") && eTag.endsWith("\""));
+		assertNotNull("Should have Last-Modified", file.getLastModified());
+
+		// Ensure writes the validators
+		MockHttpResponse response = this.writeConditional(file);
+		response.assertStatus(200);
+		assertEquals("Incorrect ETag", eTag, response.getHeader("etag").getValue());
+		assertEquals("Incorrect Last-Modified", file.getLastModified().getValue(),
+				response.getHeader("last-modified").getValue());
+		assertEquals("Incorrect entity", "<html><body>Hello World</body></html>", response.getEntity(null));
+	}
+
+	/**
+	 * Ensure <code>304</code> on matching <code>If-None-Match</code>.
+	 */
+	public void testIfNoneMatch() throws IOException {
+		HttpFile file = (HttpFile) this.store.getHttpResource(this.path("/index.html"));
+		String eTag = file.getETag().getValue();
+		this.assertNotModified(file, "If-None-Match", eTag);
+		this.assertNotModified(file, "If-None-Match", "\"other\", W/" + eTag);
+		this.assertNotModified(file, "If-None-Match", "*");
+		this.assertModified(file, "If-None-Match", "\"other\"");
+
+		// Ensure If-None-Match takes precedence over If-Modified-Since
+		this.assertModified(file, "If-None-Match", "\"other\"", "If-Modified-Since",
+				file.getLastModified().getValue());
+	}
+
+	/**
+	 * Ensure <code>304</code> on not modified since.
+	 */
+	public void testIfModifiedSince() throws IOException {
+		HttpFile file = (HttpFile) this.store.getHttpResource(this.path("/index.html"));
+		this.assertNotModified(file, "If-Modified-Since", file.getLastModified().getValue());
+		this.assertNotModified(file, "If-Modified-Since", "Fri, 01 Jan 9999 00:00:00 GMT");
+		this.assertModified(file, "If-Modified-Since", "Thu, 01 Jan 1970 00:00:00 GMT");
+		this.assertModified(file, "If-Modified-Since", "invalid");
+	}
+
+	/**
+	 * Ensure able to obtain a single byte range.
+	 */
+	public void testSingleRange() throws Exception {
+		HttpFile file = this.getIdentityHttpFile();
+		this.assertRange(file, "bytes=7-10", "bytes 7-10/37", "body");
+		this.assertRange(file, "bytes=32-", "bytes 32-36/37", "html>");
+		this.assertRange(file, "bytes=-7", "bytes 30-36/37", "</html>");
+		this.assertRange(file, "bytes=32-100", "bytes 32-36/37", "html>");
+		this.assertRange(file, "bytes=-100", "bytes 0-36/37", "<html><body>Hello World</body></html>");
+	}
+
+	/**
+	 * Ensure able to obtain multiple byte ranges.
+	 */
+	public void testMultipleRanges() throws Exception {
+		HttpFile file = this.getIdentityHttpFile();
+		MockHttpResponse response = this.writeConditional(file, "Range", "bytes=0-5, -7");
+		response.assertStatus(206);
+		String contentType = response.getHeader("content-type").getValue();
+		assertTrue("Incorrect content type: " + contentType, contentType.startsWith("multipart/byteranges; boundary="));
+		String boundary = contentType.substring("multipart/byteranges; boundary=".length());
+		String partType = file.getContentType().getValue();
+		assertEquals("Incorrect multipart entity",
+				"\r\n--" + boundary + "\r\ncontent-type: " + partType + "\r\ncontent-range: bytes 0-5/37\r\n\r\n<html>"
+						+ "\r\n--" + boundary + "\r\ncontent-type: " + partType
+						+ "\r\ncontent-range: bytes 30-36/37\r\n\r\n</html>" + "\r\n--" + boundary + "--\r\n",
+				response.getEntity(null));
+	}
+
+	/**
+	 * Ensure overlapping and adjacent byte ranges are merged, so content is only
+	 * sent once.
+	 */
+	public void testMergeRanges() throws Exception {
+		HttpFile file = this.getIdentityHttpFile();
+		this.assertRange(file, "bytes=0-,0-,0-,0-", "bytes 0-36/37", "<html><body>Hello World</body></html>");
+		this.assertRange(file, "bytes=7-8, 9-10", "bytes 7-10/37", "body");
+		this.assertRange(file, "bytes=9-10, 7-9, 8-8", "bytes 7-10/37", "body");
+		this.assertRange(file, "bytes=-7, 30-31", "bytes 30-36/37", "</html>");
+
+		// Ensure merged ranges remain ordered and separate if not adjacent
+		MockHttpResponse response = this.writeConditional(file, "Range", "bytes=-7, 2-4, 0-1, 32-");
+		response.assertStatus(206);
+		String contentType = response.getHeader("content-type").getValue();
+		String boundary = contentType.substring("multipart/byteranges; boundary=".length());
+		String partType = file.getContentType().getValue();
+		assertEquals("Incorrect multipart entity",
+				"\r\n--" + boundary + "\r\ncontent-type: " + partType + "\r\ncontent-range: bytes 0-4/37\r\n\r\n<html"
+						+ "\r\n--" + boundary + "\r\ncontent-type: " + partType
+						+ "\r\ncontent-range: bytes 30-36/37\r\n\r\n</html>" + "\r\n--" + boundary + "--\r\n",
+				response.getEntity(null));
+	}
+
+	/**
+	 * Ensure <code>416</code> if range not satisfiable.
+	 */
+	public void testRangeNotSatisfiable() throws Exception {
+		HttpFile file = this.getIdentityHttpFile();
+		MockHttpResponse response = this.writeConditional(file, "Range", "bytes=37-");
+		response.assertStatus(416);
+		assertEquals("Incorrect Content-Range", "bytes */37", response.getHeader("content-range").getValue());
+		assertEquals("Should be no entity", "", response.getEntity(null));
+	}
+
+	/**
+	 * Ensure invalid range is ignored (sending the full file).
+	 */
+	public void testInvalidRange() throws Exception {
+		HttpFile file = this.getIdentityHttpFile();
+		this.assertModified(file, "Range", "bytes=5-1");
+		this.assertModified(file, "Range", "bytes=a-b");
+		this.assertModified(file, "Range", "lines=1-2");
+		MockHttpResponse response = this.assertModified(file);
+		assertEquals("Should accept ranges", "bytes", response.getHeader("accept-ranges").getValue());
+	}
+
+	/**
+	 * Ensure range only provided if <code>If-Range</code> matches.
+	 */
+	public void testIfRange() throws Exception {
+		HttpFile file = this.getIdentityHttpFile();
+		String eTag = file.getETag().getValue();
+		this.assertRange(file, "bytes=7-10", "bytes 7-10/37", "body", "If-Range", eTag);
+		this.assertRange(file, "bytes=7-10", "bytes 7-10/37", "body", "If-Range", file.getLastModified().getValue());
+		this.assertModified(file, "Range", "bytes=6-9", "If-Range", "\"other\"");
+		this.assertModified(file, "Range", "bytes=6-9", "If-Range", "W/" + eTag);
+		this.assertModified(file, "Range", "bytes=6-9", "If-Range", "Thu, 01 Jan 1970 00:00:00 GMT");
+	}
+
+	/**
+	 * Obtains the <code>index.html</code> {@link HttpFile} without
+	 * <code>Content-Encoding</code> (as ranges are only of identity encoding).
+	 * 
+	 * @return {@link HttpFile}.
+	 */
+	private HttpFile getIdentityHttpFile() throws Exception {
+		this.setupNewHttpResourceStore(this.getLocation(), new ResourceTransformer[0], "index.html");
+		HttpFile file = (HttpFile) this.store.getHttpResource(this.path("/index.html"));
+		assertNull("Should not be encoded", file.getContentEncoding());
+		return file;
+	}
+
+	/**
+	 * Asserts the single range of the {@link HttpFile}.
+	 * 
+	 * @param file                 {@link HttpFile}.
+	 * @param range                <code>Range</code>.
+	 * @param expectedContentRange Expected <code>Content-Range</code>.
+	 * @param expectedEntity       Expected entity.
+	 * @param headerNameValuePairs Additional request header name/value pairs.
+	 */
+	private void assertRange(HttpFile file, String range, String expectedContentRange, String expectedEntity,
+			String... headerNameValuePairs) throws IOException {
+		String[] headers = Arrays.copyOf(headerNameValuePairs, headerNameValuePairs.length + 2);
+		headers[headerNameValuePairs.length] = "Range";
+		headers[headerNameValuePairs.length + 1] = range;
+		MockHttpResponse response = this.writeConditional(file, headers);
+		response.assertStatus(206);
+		assertEquals("Incorrect Content-Range", expectedContentRange, response.getHeader("content-range").getValue());
+		assertEquals("Incorrect ETag", file.getETag().getValue(), response.getHeader("etag").getValue());
+		assertEquals("Incorrect entity", expectedEntity, response.getEntity(null));
+	}
+
+	/**
+	 * Writes the {@link HttpFile} for the conditional request.
+	 * 
+	 * @param file                 {@link HttpFile}.
+	 * @param headerNameValuePairs Request header name/value pairs.
+	 * @return {@link MockHttpResponse}.
+	 */
+	private MockHttpResponse writeConditional(HttpFile file, String... headerNameValuePairs) throws IOException {
+		MockHttpRequestBuilder request = MockHttpServer.mockRequest();
+		for (int i = 0; i < headerNameValuePairs.length; i += 2) {
+			request.header(headerNameValuePairs[i], headerNameValuePairs[i + 1]);
+		}
+		MockServerHttpConnection connection = MockHttpServer.mockConnection(request);
+		file.writeTo(connection.getRequest(), connection.getResponse());
+		return connection.send(null);
+	}
+
+	/**
+	 * Asserts <code>304</code> for the conditional request.
+	 * 
+	 * @param file                 {@link HttpFile}.
+	 * @param headerNameValuePairs Request header name/value pairs.
+	 */
+	private void assertNotModified(HttpFile file, String... headerNameValuePairs) throws IOException {
+		MockHttpResponse response = this.writeConditional(file, headerNameValuePairs);
+		response.assertStatus(304);
+		assertEquals("Incorrect ETag", file.getETag().getValue(), response.getHeader("etag").getValue());
+		assertEquals("Should be no entity", "", response.getEntity(null));
+	}
+
+	/**
+	 * Asserts the {@link HttpFile} is sent for the conditional request.
+	 * 
+	 * @param file                 {@link HttpFile}.
+	 * @param headerNameValuePairs Request header name/value pairs.
+	 * @return {@link MockHttpResponse}.
+	 */
+	private MockHttpResponse assertModified(HttpFile file, String... headerNameValuePairs) throws IOException {
+		MockHttpResponse response = this.writeConditional(file, headerNameValuePairs);
+		response.assertStatus(200);
+		assertEquals("Incorrect entity", "<html><body>Hello World</body></html>", response.getEntity(null));
+		return response;
+	}
+
+	/**
+	 * Ensure provides <code>gzip</code> variant of the {@link HttpFile}.
+	 */
+	public void testGzipContentEncodedVariant() throws Exception {
+		this.setupNewHttpResourceStore(this.getLocation(),
+				new ResourceTransformer[] { new GzipResourceTransformerService() }, "index.html");
+		HttpFile file = (HttpFile) this.getHttpResourceStore().getHttpResource(this.path("/compress.js"));
+		assertNull("Should not be encoded", file.getContentEncoding());
+
+		// Ensure send un-encoded file if not accepted
+		assertSame("No Accept-Encoding", file, file.getContentEncodedHttpFile(null));
+		assertSame("Not accepting gzip", file, file.getContentEncodedHttpFile("identity"));
+		assertSame("Not accepting gzip", file, file.getContentEncodedHttpFile("gzip;q=0, deflate"));
+
+		// Ensure send gzip variant
+		HttpFile variant = file.getContentEncodedHttpFile("deflate, gzip");
+		assertNotSame("Should be gzip variant", file, variant);
+		assertEquals("Incorrect content encoding", "gzip", variant.getContentEncoding().getValue());
+		assertFalse("Variant should have own ETag", file.getETag().getValue().equals(variant.getETag().getValue()));
+		assertSame("Should re-use selection", variant, file.getContentEncodedHttpFile("deflate, gzip"));
+		assertSame("Should accept any", variant, file.getContentEncodedHttpFile("*"));
+
+		// Ensure variant decompresses to the file
+		MockHttpResponseBuilder mock = MockHttpServer.mockResponse();
+		variant.writeTo(mock);
+		MockHttpResponse response = mock.build();
+		assertEquals("Incorrect content-encoding", "gzip", response.getHeader("content-encoding").getValue());
+		assertEquals("Incorrect vary", "accept-encoding", response.getHeader("vary").getValue());
+		String decompressed = readFully(new GZIPInputStream(response.getEntity()));
+		assertEquals("Incorrect entity", this.getCompressContent(), decompressed);
+
+		// Ensure un-encoded file also varies
+		mock = MockHttpServer.mockResponse();
+		file.writeTo(mock);
+		response = mock.build();
+		assertNull("Should not be encoded", response.getHeader("content-encoding"));
+		assertEquals("Incorrect vary", "accept-encoding", response.getHeader("vary").getValue());
+		assertEquals("Incorrect entity", this.getCompressContent(), response.getEntity(null));
+	}
+
+	/**
+	 * Ensure only provides <code>gzip</code> variant if smaller.
+	 */
+	public void testNoGzipVariantIfNotSmaller() throws Exception {
+		this.setupNewHttpResourceStore(this.getLocation(),
+				new ResourceTransformer[] { new GzipResourceTransformerService() }, "index.html");
+		HttpFile file = (HttpFile) this.getHttpResourceStore().getHttpResource(this.path("/index.html"));
+		assertSame("Should not have variant", file, file.getContentEncodedHttpFile("gzip"));
+		MockHttpResponseBuilder mock = MockHttpServer.mockResponse();
+		file.writeTo(mock);
+		assertNull("Should not vary", mock.build().getHeader("vary"));
+	}
+
+	/**
+	 * Ensure picks up pre-compressed variants of the {@link HttpFile}.
+	 */
+	public void testPrecompressedContentEncodedVariant() throws Exception {
+		this.setupNewHttpResourceStore(this.getLocation(), new ResourceTransformer[] {
+				new PrecompressedResourceTransformerService(), new GzipResourceTransformerService() }, "index.html");
+		HttpFile file = (HttpFile) this.getHttpResourceStore().getHttpResource(this.path("/compress.js"));
+
+		// Ensure prefer pre-compressed br variant
+		HttpFile br = file.getContentEncodedHttpFile("gzip, deflate, br");
+		assertEquals("Incorrect content encoding", "br", br.getContentEncoding().getValue());
+		MockHttpResponseBuilder mock = MockHttpServer.mockResponse();
+		br.writeTo(mock);
+		MockHttpResponse response = mock.build();
+		assertEquals("Incorrect content-encoding", "br", response.getHeader("content-encoding").getValue());
+		assertEquals("Incorrect entity", "precompressed br", response.getEntity(null));
+
+		// Ensure honour client preference
+		HttpFile gzip = file.getContentEncodedHttpFile("br;q=0.5, gzip");
+		assertEquals("Incorrect content encoding", "gzip", gzip.getContentEncoding().getValue());
+		assertSame("Not accepting encoding", file, file.getContentEncodedHttpFile("deflate"));
+	}
+
+	/**
+	 * Obtains the content of the <code>compress.js</code> test file.
+	 * 
+	 * @return Content of the <code>compress.js</code> test file.
+	 */
+	private String getCompressContent() throws IOException {
+		return readFully(this.findInputStream(AbstractHttpResourceStoreTestCase.class, "compress.js"));
+	}
+
+	/**
+	 * Reads the {@link InputStream} fully as UTF-8 text.
+	 * 
+	 * @param input {@link InputStream}.
+	 * @return Text content.
+	 */
+	private static String readFully(InputStream input) throws IOException {
+		try {
+			ByteArrayOutputStream content = new ByteArrayOutputStream();
+			for (int value = input.read(); value != -1; value = input.read()) {
+				content.write(value);
+			}
+			return new String(content.toByteArray(), StandardCharsets.UTF_8);
+		} finally {
+			input.close();
+		}
+	}
+
 	/**
 	 * Ensure can re-use the {@link FileChannel} within the {@link HttpFile}.
 	 */
@@ -0,0 +1,196 @@
+/*-
+ * #%L
+ * Web resources
+ * %%
+ * Copyright (C) 2005 - 2020 Daniel Sagenschneider
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+package net.officefloor.web.resource.impl;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import net.officefloor.frame.test.OfficeFrameTestCase;
+import net.officefloor.server.http.HttpHeaderValue;
+import net.officefloor.server.http.mock.MockHttpServer;
+import net.officefloor.server.http.mock.MockServerHttpConnection;
+
+/**
+ * Tests the {@link HotHttpFileCache}.
+ * 
+ * @author Daniel Sagenschneider
+ */
+public class HotHttpFileCacheTest extends OfficeFrameTestCase {
+
+	/**
+	 * Ensure serves content from the hot tier once frequently used.
+	 */
+	public void testServeFromHotTier() throws IOException {
+		HotHttpFileCache cache = new HotHttpFileCache(1024, 512);
+		HttpFileImpl file = this.createHttpFile("hot", cache);
+
+		// First request not held
+		this.assertWrite(file, "hot");
+		assertEquals("Should not yet be held", 0, cache.getHotFileCount());
+
+		// Second request admits to hot tier
+		this.assertWrite(file, "hot");
+		assertEquals("Should now be held", 1, cache.getHotFileCount());
+		assertEquals("Incorrect used bytes", 3, cache.getUsedBytes());
+
+		// Further requests served from hot tier
+		this.assertWrite(file, "hot");
+		this.assertWrite(file, "hot");
+		assertEquals("Incorrect hits", 2, cache.getHitCount());
+		assertEquals("Incorrect misses", 2, cache.getMissCount());
+		assertEquals("Incorrect hit rate", 0.5, cache.getHitRate(), 0.0);
+
+		// Ensure released on close
+		file.close();
+		assertEquals("Should release on close", 0, cache.getHotFileCount());
+		assertEquals("Should release bytes on close", 0, cache.getUsedBytes());
+	}
+
+	/**
+	 * Ensure does not hold large files.
+	 */
+	public void testNotHoldLargeFile() throws IOException {
+		HotHttpFileCache cache = new HotHttpFileCache(1024, 4);
+		HttpFileImpl file = this.createHttpFile("too large", cache);
+		for (int i = 0; i < 10; i++) {
+			this.assertWrite(file, "too large");
+		}
+		assertEquals("Should not hold large file", 0, cache.getHotFileCount());
+		assertEquals("Should not have hits", 0, cache.getHitCount());
+		assertEquals("Incorrect misses", 10, cache.getMissCount());
+		file.close();
+	}
+
+	/**
+	 * Ensure evicts the least frequently used file to keep within budget.
+	 */
+	public void testEvictLeastFrequentlyUsed() throws IOException {
+		HotHttpFileCache cache = new HotHttpFileCache(8, 8);
+		HttpFileImpl one = this.createHttpFile("1111", cache);
+		HttpFileImpl two = this.createHttpFile("2222", cache);
+		HttpFileImpl three = this.createHttpFile("3333", cache);
+
+		// Fill the budget
+		for (int i = 0; i < 4; i++) {
+			this.assertWrite(one, "1111");
+		}
+		for (int i = 0; i < 2; i++) {
+			this.assertWrite(two, "2222");
+		}
+		assertEquals("Should hold both files", 2, cache.getHotFileCount());
+		assertEquals("Budget should be used", 8, cache.getUsedBytes());
+
+		// Not evict equally used file
+		for (int i = 0; i < 2; i++) {
+			this.assertWrite(three, "3333");
+		}
+		assertEquals("Should not evict for equally used", 0, cache.getEvictionCount());
+		assertNull("Should not hold third file", three.hotContent);
+
+		// Evict less frequently used file
+		for (int i = 0; i < 2; i++) {
+			this.assertWrite(three, "3333");
+		}
+		assertEquals("Should evict least frequently used", 1, cache.getEvictionCount());
+		assertNotNull("Should keep most frequently used", one.hotContent);
+		assertNull("Should evict least frequently used", two.hotContent);
+		assertNotNull("Should hold third file", three.hotContent);
+		assertEquals("Incorrect used bytes", 8, cache.getUsedBytes());
+
+		// Evicted file still served from the file
+		this.assertWrite(two, "2222");
+
+		one.close();
+		two.close();
+		three.close();
+	}
+
+	/**
+	 * Ensure ages the frequencies, so that a once popular file does not hold the
+	 * hot tier indefinitely.
+	 */
+	public void testAgeFrequencies() throws IOException {
+		HotHttpFileCache cache = new HotHttpFileCache(4, 4);
+		HttpFileImpl popular = this.createHttpFile("1111", cache);
+		HttpFileImpl current = this.createHttpFile("2222", cache);
+
+		// Popular file holds the budget
+		for (int i = 0; i < 8; i++) {
+			this.assertWrite(popular, "1111");
+		}
+		assertNotNull("Should hold popular file", popular.hotContent);
+
+		// Without aging, not evict more frequently used file
+		for (int i = 0; i < 2; i++) {
+			this.assertWrite(current, "2222");
+		}
+		assertNull("Should not hold current file", current.hotContent);
+
+		// Age frequencies (popular 8 to 1, current 2 to 0)
+		cache.age();
+		cache.age();
+		cache.age();
+
+		// Current file now more frequently used
+		for (int i = 0; i < 2; i++) {
+			this.assertWrite(current, "2222");
+		}
+		assertNull("Should evict previously popular file", popular.hotContent);
+		assertNotNull("Should hold current file", current.hotContent);
+		assertEquals("Incorrect evictions", 1, cache.getEvictionCount());
+
+		popular.close();
+		current.close();
+	}
+
+	/**
+	 * Creates the {@link HttpFileImpl}.
+	 * 
+	 * @param content      Content of the file.
+	 * @param hotFileCache {@link HotHttpFileCache}.
+	 * @return {@link HttpFileImpl}.
+	 */
+	private HttpFileImpl createHttpFile(String content, HotHttpFileCache hotFileCache) throws IOException {
+		Path path = Files.createTempFile(this.getName(), ".txt");
+		Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.DELETE_ON_CLOSE);
+		return new HttpFileImpl("/" + path.getFileName(), null, channel, null, new HttpHeaderValue("text/plain"),
+				StandardCharsets.UTF_8, null, -1, HttpFileImpl.NO_VARIANTS, false, hotFileCache);
+	}
+
+	/**
+	 * Asserts writing the {@link HttpFileImpl}.
+	 * 
+	 * @param file            {@link HttpFileImpl}.
+	 * @param expectedContent Expected content.
+	 */
+	private void assertWrite(HttpFileImpl file, String expectedContent) throws IOException {
+		MockServerHttpConnection connection = MockHttpServer.mockConnection();
+		file.writeTo(connection.getResponse());
+		assertEquals("Incorrect content", expectedContent, connection.send(null).getEntity(null));
+	}
+
+}
@@ -0,0 +1,61 @@
+/* Compressible script for testing content encoded variants */
+function compressible0(value) { return 'compressible ' + value + ' 0'; }
+function compressible1(value) { return 'compressible ' + value + ' 1'; }
+function compressible2(value) { return 'compressible ' + value + ' 2'; }
+function compressible3(value) { return 'compressible ' + value + ' 3'; }
+function compressible4(value) { return 'compressible ' + value + ' 4'; }
+function compressible5(value) { return 'compressible ' + value + ' 5'; }
+function compressible6(value) { return 'compressible ' + value + ' 6'; }
+function compressible7(value) { return 'compressible ' + value + ' 7'; }
+function compressible8(value) { return 'compressible ' + value + ' 8'; }
+function compressible9(value) { return 'compressible ' + value + ' 9'; }
+function compressible10(value) { return 'compressible ' + value + ' 10'; }
+function compressible11(value) { return 'compressible ' + value + ' 11'; }
+function compressible12(value) { return 'compressible ' + value + ' 12'; }
+function compressible13(value) { return 'compressible ' + value + ' 13'; }
+function compressible14(value) { return 'compressible ' + value + ' 14'; }
+function compressible15(value) { return 'compressible ' + value + ' 15'; }
+function compressible16(value) { return 'compressible ' + value + ' 16'; }
+function compressible17(value) { return 'compressible ' + value + ' 17'; }
+function compressible18(value) { return 'compressible ' + value + ' 18'; }
+function compressible19(value) { return 'compressible ' + value + ' 19'; }
+function compressible20(value) { return 'compressible ' + value + ' 20'; }
+function compressible21(value) { return 'compressible ' + value + ' 21'; }
+function compressible22(value) { return 'compressible ' + value + ' 22'; }
+function compressible23(value) { return 'compressible ' + value + ' 23'; }
+function compressible24(value) { return 'compressible ' + value + ' 24'; }
+function compressible25(value) { return 'compressible ' + value + ' 25'; }
+function compressible26(value) { return 'compressible ' + value + ' 26'; }
+function compressible27(value) { return 'compressible ' + value + ' 27'; }
+function compressible28(value) { return 'compressible ' + value + ' 28'; }
+function compressible29(value) { return 'compressible ' + value + ' 29'; }
+function compressible30(value) { return 'compressible ' + value + ' 30'; }
+function compressible31(value) { return 'compressible ' + value + ' 31'; }
+function compressible32(value) { return 'compressible ' + value + ' 32'; }
+function compressible33(value) { return 'compressible ' + value + ' 33'; }
+function compressible34(value) { return 'compressible ' + value + ' 34'; }
+function compressible35(value) { return 'compressible ' + value + ' 35'; }
+function compressible36(value) { return 'compressible ' + value + ' 36'; }
+function compressible37(value) { return 'compressible ' + value + ' 37'; }
+function compressible38(value) { return 'compressible ' + value + ' 38'; }
+function compressible39(value) { return 'compressible ' + value + ' 39'; }
+function compressible40(value) { return 'compressible ' + value + ' 40'; }
+function compressible41(value) { return 'compressible ' + value + ' 41'; }
+function compressible42(value) { return 'compressible ' + value + ' 42'; }
+function compressible43(value) { return 'compressible ' + value + ' 43'; }
+function compressible44(value) { return 'compressible ' + value + ' 44'; }
+function compressible45(value) { return 'compressible ' + value + ' 45'; }
+function compressible46(value) { return 'compressible ' + value + ' 46'; }
+function compressible47(value) { return 'compressible ' + value + ' 47'; }
+function compressible48(value) { return 'compressible ' + value + ' 48'; }
+function compressible49(value) { return 'compressible ' + value + ' 49'; }
+function compressible50(value) { return 'compressible ' + value + ' 50'; }
+function compressible51(value) { return 'compressible ' + value + ' 51'; }
+function compressible52(value) { return 'compressible ' + value + ' 52'; }
+function compressible53(value) { return 'compressible ' + value + ' 53'; }
+function compressible54(value) { return 'compressible ' + value + ' 54'; }
+function compressible55(value) { return 'compressible ' + value + ' 55'; }
+function compressible56(value) { return 'compressible ' + value + ' 56'; }
+function compressible57(value) { return 'compressible ' + value + ' 57'; }
+function compressible58(value) { return 'compressible ' + value + ' 58'; }
+function compressible59(value) { return 'compressible ' + value + ' 59'; }
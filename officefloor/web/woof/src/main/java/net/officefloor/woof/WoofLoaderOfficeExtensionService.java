@@ -26,13 +26,16 @@ import java.util.ServiceConfigurationError;
 
 import net.officefloor.activity.procedure.build.ProcedureArchitect;
 import net.officefloor.activity.procedure.build.ProcedureEmployer;
+import net.officefloor.compile.properties.Property;
 import net.officefloor.compile.spi.office.OfficeArchitect;
 import net.officefloor.compile.spi.office.OfficeSection;
 import net.officefloor.compile.spi.office.extension.OfficeExtensionContext;
 import net.officefloor.compile.spi.office.extension.OfficeExtensionService;
 import net.officefloor.compile.spi.office.extension.OfficeExtensionServiceFactory;
 import net.officefloor.configuration.ConfigurationItem;
+import net.officefloor.frame.api.manage.Office;
 import net.officefloor.frame.api.source.ServiceContext;
+import net.officefloor.frame.internal.structure.ProcessState;
 import net.officefloor.model.impl.repository.ModelRepositoryImpl;
 import net.officefloor.web.WebArchitectEmployer;
 import net.officefloor.web.build.WebArchitect;
@@ -66,6 +69,12 @@ import net.officefloor.woof.teams.WoofTeamsUsageContext;
  */
 public class WoofLoaderOfficeExtensionService implements OfficeExtensionService, OfficeExtensionServiceFactory {
 
+	/**
+	 * Name of {@link Property} to enable recycling of completed
+	 * {@link ProcessState} instances of the WoOF {@link Office}.
+	 */
+	public static final String PROPERTY_RECYCLE_PROCESS_STATES = "woof.recycle.process.states";
+
 	/*
 	 * =============== OfficeExtensionServiceFactory ===================
 	 */
@@ -101,6 +110,11 @@ public class WoofLoaderOfficeExtensionService implements OfficeExtensionService,
 		ProcedureArchitect<OfficeSection> procedure = ProcedureEmployer.employProcedureArchitect(officeArchitect,
 				context);
 
+		// Determine if recycle the process states
+		if (Boolean.parseBoolean(context.getProperty(PROPERTY_RECYCLE_PROCESS_STATES, Boolean.FALSE.toString()))) {
+			officeArchitect.enableProcessStateRecycling();
+		}
+
 		// Load the default object parser / responders
 		web.setDefaultHttpObjectParser(new JacksonHttpObjectParserServiceFactory());
 		web.setDefaultHttpObjectResponder(new JacksonHttpObjectResponderServiceFactory());